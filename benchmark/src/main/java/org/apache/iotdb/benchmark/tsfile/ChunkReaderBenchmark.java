@@ -0,0 +1,127 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.iotdb.benchmark.tsfile;
+
+import org.apache.iotdb.tsfile.file.metadata.ChunkMetadata;
+import org.apache.iotdb.tsfile.file.metadata.enums.CompressionType;
+import org.apache.iotdb.tsfile.file.metadata.enums.TSDataType;
+import org.apache.iotdb.tsfile.file.metadata.enums.TSEncoding;
+import org.apache.iotdb.tsfile.read.TsFileSequenceReader;
+import org.apache.iotdb.tsfile.read.common.Chunk;
+import org.apache.iotdb.tsfile.read.common.Path;
+import org.apache.iotdb.tsfile.read.filter.basic.Filter;
+import org.apache.iotdb.tsfile.read.reader.IPageReader;
+import org.apache.iotdb.tsfile.read.reader.chunk.ChunkReader;
+import org.apache.iotdb.tsfile.write.chunk.ChunkWriterImpl;
+import org.apache.iotdb.tsfile.write.schema.MeasurementSchema;
+import org.apache.iotdb.tsfile.write.writer.TsFileIOWriter;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Reads a chunk of noisy doubles, written to a TsFile by the regular write path, page by page into
+ * {@link org.apache.iotdb.tsfile.read.common.block.TsBlock}s.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ChunkReaderBenchmark {
+
+  private static final int CHUNK_SIZE = 100_000;
+  private static final String DEVICE = "root.sg.d1";
+  private static final String MEASUREMENT = "s1";
+
+  @Param({"UNCOMPRESSED", "SNAPPY", "LZ4"})
+  public CompressionType compressionType;
+
+  @Param({"NONE", "TIME", "VALUE"})
+  public ScanFilter scanFilter;
+
+  private File file;
+  private Chunk chunk;
+  private Filter filter;
+
+  @Setup(Level.Trial)
+  public void setUp() throws IOException {
+    file = Files.createTempFile("chunk-reader-benchmark", ".tsfile").toFile();
+    long[] timestamps = SeriesGenerator.monotonicTimestamps(CHUNK_SIZE);
+    double[] values = SeriesGenerator.noisyDoubles(CHUNK_SIZE);
+    try (TsFileIOWriter writer = new TsFileIOWriter(file)) {
+      ChunkWriterImpl chunkWriter =
+          new ChunkWriterImpl(
+              new MeasurementSchema(
+                  MEASUREMENT, TSDataType.DOUBLE, TSEncoding.GORILLA, compressionType));
+      for (int i = 0; i < CHUNK_SIZE; i++) {
+        chunkWriter.write(timestamps[i], values[i]);
+      }
+      writer.startChunkGroup(DEVICE);
+      chunkWriter.writeToFileWriter(writer);
+      writer.endChunkGroup();
+      writer.endFile();
+    }
+    try (TsFileSequenceReader reader = new TsFileSequenceReader(file.getPath())) {
+      ChunkMetadata chunkMetadata =
+          reader.getChunkMetadataList(new Path(DEVICE, MEASUREMENT, true)).get(0);
+      chunk = reader.readMemChunk(chunkMetadata);
+    }
+    filter = scanFilter.create(timestamps[0], timestamps[CHUNK_SIZE - 1]);
+  }
+
+  @TearDown(Level.Trial)
+  public void tearDown() throws IOException {
+    Files.deleteIfExists(file.toPath());
+  }
+
+  @Benchmark
+  public void scan(Blackhole blackhole) throws IOException {
+    // the chunk reader consumes the chunk buffer, so every invocation reads from a fresh view
+    Chunk view =
+        new Chunk(
+            chunk.getHeader(),
+            chunk.getData().duplicate(),
+            chunk.getDeleteIntervalList(),
+            chunk.getChunkStatistic());
+    ChunkReader chunkReader = new ChunkReader(view, filter);
+    for (IPageReader pageReader : chunkReader.loadPageReaderList()) {
+      blackhole.consume(pageReader.getAllSatisfiedData());
+    }
+  }
+}
@@ -0,0 +1,91 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.iotdb.benchmark.tsfile;
+
+import org.apache.iotdb.tsfile.compress.ICompressor;
+import org.apache.iotdb.tsfile.compress.IUnCompressor;
+import org.apache.iotdb.tsfile.file.metadata.enums.CompressionType;
+import org.apache.iotdb.tsfile.file.metadata.enums.TSEncoding;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.concurrent.TimeUnit;
+
+/** Compresses and uncompresses an encoded page, as done for every page on flush and on read. */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class CompressionBenchmark {
+
+  private static final int PAGE_SIZE = 10_000;
+
+  @Param({"UNCOMPRESSED", "SNAPPY", "GZIP", "LZ4", "ZSTD", "LZMA2"})
+  public CompressionType compressionType;
+
+  /** PLAIN pages leave most of the work to the compressor, GORILLA pages are already dense. */
+  @Param({"PLAIN", "GORILLA"})
+  public TSEncoding valueEncoding;
+
+  private ICompressor compressor;
+  private IUnCompressor unCompressor;
+
+  private byte[] page;
+  private byte[] compressed;
+  private byte[] uncompressed;
+
+  @Setup(Level.Trial)
+  public void setUp() throws IOException {
+    compressor = ICompressor.getCompressor(compressionType);
+    unCompressor = IUnCompressor.getUnCompressor(compressionType);
+    ByteBuffer pageBuffer =
+        SeriesGenerator.doublePage(PAGE_SIZE, valueEncoding).getUncompressedBytes();
+    page = new byte[pageBuffer.remaining()];
+    pageBuffer.get(page);
+    compressed = compressor.compress(page);
+    uncompressed = new byte[page.length];
+  }
+
+  @Benchmark
+  public byte[] compress() throws IOException {
+    return compressor.compress(page);
+  }
+
+  @Benchmark
+  public byte[] uncompress() throws IOException {
+    unCompressor.uncompress(compressed, 0, compressed.length, uncompressed, 0);
+    return uncompressed;
+  }
+}
@@ -0,0 +1,108 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.iotdb.benchmark.tsfile;
+
+import org.apache.iotdb.tsfile.encoding.decoder.Decoder;
+import org.apache.iotdb.tsfile.encoding.encoder.Encoder;
+import org.apache.iotdb.tsfile.encoding.encoder.TSEncodingBuilder;
+import org.apache.iotdb.tsfile.file.metadata.enums.TSDataType;
+import org.apache.iotdb.tsfile.file.metadata.enums.TSEncoding;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Encodes and decodes one series of {@link #SERIES_SIZE} points. Subclasses provide the series
+ * shape and the encodings that support its data type.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public abstract class EncodingBenchmark {
+
+  protected static final int SERIES_SIZE = 100_000;
+
+  protected static final int BATCH_SIZE = 1024;
+
+  private byte[] encoded;
+
+  protected abstract TSDataType getDataType();
+
+  protected abstract TSEncoding getEncoding();
+
+  protected abstract void generate(int size);
+
+  protected abstract void encodeAll(Encoder encoder, ByteArrayOutputStream out);
+
+  protected abstract void decodeAll(Decoder decoder, ByteBuffer buffer, Blackhole blackhole)
+      throws IOException;
+
+  protected abstract void decodeAllInBatch(Decoder decoder, ByteBuffer buffer, Blackhole blackhole)
+      throws IOException;
+
+  @Setup(Level.Trial)
+  public void setUp() throws IOException {
+    generate(SERIES_SIZE);
+    encoded = encode().toByteArray();
+  }
+
+  @Benchmark
+  public ByteArrayOutputStream encode() throws IOException {
+    Encoder encoder = TSEncodingBuilder.getEncodingBuilder(getEncoding()).getEncoder(getDataType());
+    ByteArrayOutputStream out = new ByteArrayOutputStream();
+    encodeAll(encoder, out);
+    encoder.flush(out);
+    return out;
+  }
+
+  @Benchmark
+  public void decode(Blackhole blackhole) throws IOException {
+    decodeAll(
+        Decoder.getDecoderByType(getEncoding(), getDataType()),
+        ByteBuffer.wrap(encoded),
+        blackhole);
+  }
+
+  @Benchmark
+  public void decodeInBatch(Blackhole blackhole) throws IOException {
+    decodeAllInBatch(
+        Decoder.getDecoderByType(getEncoding(), getDataType()),
+        ByteBuffer.wrap(encoded),
+        blackhole);
+  }
+}
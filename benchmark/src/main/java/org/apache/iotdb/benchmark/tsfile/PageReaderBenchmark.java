@@ -0,0 +1,94 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.iotdb.benchmark.tsfile;
+
+import org.apache.iotdb.tsfile.common.conf.TSFileDescriptor;
+import org.apache.iotdb.tsfile.encoding.decoder.Decoder;
+import org.apache.iotdb.tsfile.file.header.PageHeader;
+import org.apache.iotdb.tsfile.file.metadata.enums.TSDataType;
+import org.apache.iotdb.tsfile.file.metadata.enums.TSEncoding;
+import org.apache.iotdb.tsfile.read.common.block.TsBlock;
+import org.apache.iotdb.tsfile.read.filter.basic.Filter;
+import org.apache.iotdb.tsfile.read.reader.page.PageReader;
+import org.apache.iotdb.tsfile.write.page.PageWriter;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.concurrent.TimeUnit;
+
+/** Decodes one uncompressed page of noisy doubles into a {@link TsBlock}. */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class PageReaderBenchmark {
+
+  private static final int PAGE_SIZE = 10_000;
+
+  @Param({"PLAIN", "TS_2DIFF", "GORILLA", "CHIMP"})
+  public TSEncoding valueEncoding;
+
+  @Param({"NONE", "TIME", "VALUE"})
+  public ScanFilter scanFilter;
+
+  private TSEncoding timeEncoding;
+  private ByteBuffer page;
+  private PageHeader pageHeader;
+  private Filter filter;
+
+  @Setup(Level.Trial)
+  public void setUp() throws IOException {
+    timeEncoding = TSEncoding.valueOf(TSFileDescriptor.getInstance().getConfig().getTimeEncoder());
+    PageWriter pageWriter = SeriesGenerator.doublePage(PAGE_SIZE, valueEncoding);
+    page = pageWriter.getUncompressedBytes();
+    pageHeader = new PageHeader(page.remaining(), page.remaining(), pageWriter.getStatistics());
+    filter =
+        scanFilter.create(
+            pageHeader.getStatistics().getStartTime(), pageHeader.getStatistics().getEndTime());
+  }
+
+  @Benchmark
+  public TsBlock scan() throws IOException {
+    PageReader pageReader =
+        new PageReader(
+            pageHeader,
+            page.duplicate(),
+            TSDataType.DOUBLE,
+            Decoder.getDecoderByType(valueEncoding, TSDataType.DOUBLE),
+            Decoder.getDecoderByType(timeEncoding, TSDataType.INT64),
+            filter);
+    return pageReader.getAllSatisfiedData();
+  }
+}
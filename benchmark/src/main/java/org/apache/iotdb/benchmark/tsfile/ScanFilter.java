@@ -0,0 +1,47 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.iotdb.benchmark.tsfile;
+
+import org.apache.iotdb.tsfile.read.filter.basic.Filter;
+import org.apache.iotdb.tsfile.read.filter.factory.TimeFilterApi;
+import org.apache.iotdb.tsfile.read.filter.factory.ValueFilterApi;
+
+/** Filters pushed down into the page and chunk readers by the scan benchmarks. */
+public enum ScanFilter {
+  /** Reads every point. */
+  NONE,
+  /** Keeps a tenth of the time range, so most pages can be skipped by their statistics. */
+  TIME,
+  /** Keeps values above 24, so every point has to be decoded and checked. */
+  VALUE;
+
+  public Filter create(long startTime, long endTime) {
+    switch (this) {
+      case TIME:
+        long step = (endTime - startTime) / 10;
+        long from = startTime + 4 * step;
+        return TimeFilterApi.between(from, from + step);
+      case VALUE:
+        return ValueFilterApi.gt(24.0);
+      default:
+        return null;
+    }
+  }
+}
@@ -0,0 +1,124 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.iotdb.benchmark.tsfile;
+
+import org.apache.iotdb.tsfile.common.conf.TSFileConfig;
+import org.apache.iotdb.tsfile.file.metadata.enums.CompressionType;
+import org.apache.iotdb.tsfile.file.metadata.enums.TSDataType;
+import org.apache.iotdb.tsfile.file.metadata.enums.TSEncoding;
+import org.apache.iotdb.tsfile.utils.Binary;
+import org.apache.iotdb.tsfile.write.page.PageWriter;
+import org.apache.iotdb.tsfile.write.schema.MeasurementSchema;
+
+import java.util.Random;
+
+/**
+ * Generates series with the shapes commonly seen in IoT workloads. All generators are seeded, so
+ * every benchmark run encodes exactly the same data.
+ */
+public class SeriesGenerator {
+
+  private static final long SEED = 20240101L;
+
+  private SeriesGenerator() {
+    // util class
+  }
+
+  /** Timestamps sampled every second with a few milliseconds of jitter. */
+  public static long[] monotonicTimestamps(int size) {
+    Random random = new Random(SEED);
+    long[] timestamps = new long[size];
+    long time = 1_700_000_000_000L;
+    for (int i = 0; i < size; i++) {
+      time += 1000 + random.nextInt(5);
+      timestamps[i] = time;
+    }
+    return timestamps;
+  }
+
+  /** A slowly increasing counter, e.g. the number of produced parts of a machine. */
+  public static int[] counters(int size) {
+    Random random = new Random(SEED);
+    int[] values = new int[size];
+    int value = 0;
+    for (int i = 0; i < size; i++) {
+      value += random.nextInt(3);
+      values[i] = value;
+    }
+    return values;
+  }
+
+  /** A sine wave with gaussian noise rounded to two decimals, like a temperature sensor. */
+  public static double[] noisyDoubles(int size) {
+    Random random = new Random(SEED);
+    double[] values = new double[size];
+    for (int i = 0; i < size; i++) {
+      double value = 20 + 5 * Math.sin(i / 500.0) + random.nextGaussian() * 0.3;
+      values[i] = Math.round(value * 100) / 100.0;
+    }
+    return values;
+  }
+
+  public static float[] noisyFloats(int size) {
+    double[] doubles = noisyDoubles(size);
+    float[] values = new float[size];
+    for (int i = 0; i < size; i++) {
+      values[i] = (float) doubles[i];
+    }
+    return values;
+  }
+
+  /** A status flag that is true in about one percent of the points. */
+  public static boolean[] sparseBooleans(int size) {
+    Random random = new Random(SEED);
+    boolean[] values = new boolean[size];
+    for (int i = 0; i < size; i++) {
+      values[i] = random.nextInt(100) == 0;
+    }
+    return values;
+  }
+
+  /** A state string drawn from a small vocabulary. */
+  public static Binary[] states(int size) {
+    String[] vocabulary = {"idle", "running", "stopped", "maintenance", "error"};
+    Random random = new Random(SEED);
+    Binary[] values = new Binary[size];
+    for (int i = 0; i < size; i++) {
+      // states are sticky, only change in about five percent of the points
+      int state = i > 0 && random.nextInt(20) != 0 ? -1 : random.nextInt(vocabulary.length);
+      values[i] =
+          state < 0 ? values[i - 1] : new Binary(vocabulary[state], TSFileConfig.STRING_CHARSET);
+    }
+    return values;
+  }
+
+  /**
+   * A page writer filled with {@link #monotonicTimestamps(int)} and {@link #noisyDoubles(int)},
+   * using the default time encoding and the given value encoding.
+   */
+  public static PageWriter doublePage(int size, TSEncoding valueEncoding) {
+    PageWriter pageWriter =
+        new PageWriter(
+            new MeasurementSchema(
+                "s", TSDataType.DOUBLE, valueEncoding, CompressionType.UNCOMPRESSED));
+    pageWriter.write(monotonicTimestamps(size), noisyDoubles(size), size);
+    return pageWriter;
+  }
+}
@@ -0,0 +1,82 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.iotdb.benchmark.tsfile;
+
+import org.apache.iotdb.tsfile.encoding.decoder.Decoder;
+import org.apache.iotdb.tsfile.encoding.encoder.Encoder;
+import org.apache.iotdb.tsfile.file.metadata.enums.TSDataType;
+import org.apache.iotdb.tsfile.file.metadata.enums.TSEncoding;
+import org.apache.iotdb.tsfile.utils.Binary;
+
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+
+/** State strings drawn from a small vocabulary. */
+public class TextEncodingBenchmark extends EncodingBenchmark {
+
+  @Param({"PLAIN", "DICTIONARY"})
+  public TSEncoding encoding;
+
+  private Binary[] values;
+
+  private final Binary[] batch = new Binary[BATCH_SIZE];
+
+  @Override
+  protected TSDataType getDataType() {
+    return TSDataType.TEXT;
+  }
+
+  @Override
+  protected TSEncoding getEncoding() {
+    return encoding;
+  }
+
+  @Override
+  protected void generate(int size) {
+    values = SeriesGenerator.states(size);
+  }
+
+  @Override
+  protected void encodeAll(Encoder encoder, ByteArrayOutputStream out) {
+    for (Binary value : values) {
+      encoder.encode(value, out);
+    }
+  }
+
+  @Override
+  protected void decodeAll(Decoder decoder, ByteBuffer buffer, Blackhole blackhole)
+      throws IOException {
+    while (decoder.hasNext(buffer)) {
+      blackhole.consume(decoder.readBinary(buffer));
+    }
+  }
+
+  @Override
+  protected void decodeAllInBatch(Decoder decoder, ByteBuffer buffer, Blackhole blackhole)
+      throws IOException {
+    while (decoder.readBinaries(buffer, batch, 0, BATCH_SIZE) > 0) {
+      blackhole.consume(batch);
+    }
+  }
+}
@@ -0,0 +1,110 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.iotdb.benchmark.tsfile;
+
+import org.apache.iotdb.tsfile.file.metadata.enums.TSDataType;
+import org.apache.iotdb.tsfile.read.common.block.TsBlock;
+import org.apache.iotdb.tsfile.read.common.block.TsBlockBuilder;
+import org.apache.iotdb.tsfile.read.common.block.column.TsBlockSerde;
+import org.apache.iotdb.tsfile.utils.Binary;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Serializes and deserializes a {@link TsBlock} with one column of every series shape, as done for
+ * every block exchanged between fragment instances.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class TsBlockSerdeBenchmark {
+
+  @Param({"1000", "10000"})
+  public int positionCount;
+
+  /** Every n-th row of the value columns is null, 0 disables nulls. */
+  @Param({"0", "10"})
+  public int nullInterval;
+
+  private final TsBlockSerde serde = new TsBlockSerde();
+
+  private TsBlock tsBlock;
+  private ByteBuffer serialized;
+
+  @Setup(Level.Trial)
+  public void setUp() throws IOException {
+    long[] timestamps = SeriesGenerator.monotonicTimestamps(positionCount);
+    int[] counters = SeriesGenerator.counters(positionCount);
+    double[] doubles = SeriesGenerator.noisyDoubles(positionCount);
+    boolean[] booleans = SeriesGenerator.sparseBooleans(positionCount);
+    Binary[] states = SeriesGenerator.states(positionCount);
+
+    TsBlockBuilder builder =
+        new TsBlockBuilder(
+            positionCount,
+            Arrays.asList(
+                TSDataType.INT32, TSDataType.DOUBLE, TSDataType.BOOLEAN, TSDataType.TEXT));
+    for (int i = 0; i < positionCount; i++) {
+      builder.getTimeColumnBuilder().writeLong(timestamps[i]);
+      if (nullInterval > 0 && i % nullInterval == 0) {
+        for (int column = 0; column < 4; column++) {
+          builder.getColumnBuilder(column).appendNull();
+        }
+      } else {
+        builder.getColumnBuilder(0).writeInt(counters[i]);
+        builder.getColumnBuilder(1).writeDouble(doubles[i]);
+        builder.getColumnBuilder(2).writeBoolean(booleans[i]);
+        builder.getColumnBuilder(3).writeBinary(states[i]);
+      }
+      builder.declarePosition();
+    }
+    tsBlock = builder.build();
+    serialized = serde.serialize(tsBlock);
+  }
+
+  @Benchmark
+  public ByteBuffer serialize() throws IOException {
+    return serde.serialize(tsBlock);
+  }
+
+  @Benchmark
+  public TsBlock deserialize() {
+    return serde.deserialize(serialized.duplicate());
+  }
+}
@@ -24,6 +24,7 @@ import org.apache.iotdb.it.framework.IoTDBTestRunner;
 import org.apache.iotdb.itbase.category.LocalStandaloneIT;
 
 import org.junit.AfterClass;
+import org.junit.Assert;
 import org.junit.BeforeClass;
 import org.junit.Ignore;
 import org.junit.Test;
@@ -78,6 +79,17 @@ public class DProfileIT {
               + "datatype=double, "
               + "encoding=plain, "
               + "compression=uncompressed");
+      statement.addBatch("create database root.stream");
+      statement.addBatch(
+          "create timeseries root.stream.d1.s1 with "
+              + "datatype=int32, "
+              + "encoding=plain, "
+              + "compression=uncompressed");
+      statement.addBatch(
+          "create timeseries root.stream.d1.s2 with "
+              + "datatype=double, "
+              + "encoding=plain, "
+              + "compression=uncompressed");
       statement.executeBatch();
     } catch (SQLException throwable) {
       fail(throwable.getMessage());
@@ -107,6 +119,13 @@ public class DProfileIT {
       statement.execute("insert into root.test.db(time,s1) values (1,1)");
       statement.execute("insert into root.test.db(time,s1) values (2,2)");
       statement.execute("insert into root.test.db(time,s1) values (10000000000,1)");
+
+      // small data set with known values for the stream compute mode, s2 is null at time 3
+      statement.execute("insert into root.stream.d1(time,s1,s2) values (1,0,1.0)");
+      statement.execute("insert into root.stream.d1(time,s1,s2) values (2,2,3.0)");
+      statement.execute("insert into root.stream.d1(time,s1) values (3,4)");
+      statement.execute("insert into root.stream.d1(time,s1,s2) values (4,8,5.0)");
+      statement.execute("insert into root.stream.d1(time,s1,s2) values (5,6,-1.0)");
     } catch (SQLException throwable) {
       fail(throwable.getMessage());
     }
@@ -576,4 +595,85 @@ public class DProfileIT {
       fail(throwable.getMessage());
     }
   }
+
+  @Test
+  public void testMinMaxStream() {
+    // computed on whole columns
+    assertDoubleResult(
+        "select minmax(s1,'compute'='stream','min'='0','max'='8') from root.stream.d1",
+        new long[] {1, 2, 3, 4, 5},
+        new Double[] {0.0, 0.25, 0.5, 1.0, 0.75});
+  }
+
+  @Test
+  public void testMinMaxStreamInNonMappableFunction() {
+    // difference is not mappable, so minmax is computed on rows wrapped into columns
+    assertDoubleResult(
+        "select difference(minmax(s1,'compute'='stream','min'='0','max'='8')) from root.stream.d1",
+        new long[] {2, 3, 4, 5},
+        new Double[] {0.25, 0.25, 0.5, -0.25});
+  }
+
+  @Test
+  public void testMinMaxStreamEmptyRange() {
+    assertIllegalParameter(
+        "select minmax(s1,'compute'='stream','min'='8','max'='8') from root.stream.d1",
+        "parameter $min$ should be smaller than $max$.");
+  }
+
+  @Test
+  public void testZScoreStream() {
+    // the null value of s2 at time 3 stays null
+    assertDoubleResult(
+        "select zscore(s2,'compute'='stream','avg'='1','sd'='2'), s1 from root.stream.d1",
+        new long[] {1, 2, 3, 4, 5},
+        new Double[] {0.0, 1.0, null, 2.0, -1.0});
+  }
+
+  @Test
+  public void testZScoreStreamInNonMappableFunction() {
+    assertDoubleResult(
+        "select difference(zscore(s2,'compute'='stream','avg'='1','sd'='2')) from root.stream.d1",
+        new long[] {2, 4, 5},
+        new Double[] {1.0, 1.0, -3.0});
+  }
+
+  @Test
+  public void testZScoreStreamEmptyRange() {
+    assertIllegalParameter(
+        "select zscore(s2,'compute'='stream','avg'='1','sd'='0') from root.stream.d1",
+        "Parameter \"sd\" is illegal. It should be larger than 0.");
+  }
+
+  /** Check the times and the values of the first selected column, null means a null value. */
+  private static void assertDoubleResult(String sqlStr, long[] times, Double[] values) {
+    try (Connection connection = EnvFactory.getEnv().getConnection();
+        Statement statement = connection.createStatement()) {
+      ResultSet resultSet = statement.executeQuery(sqlStr);
+      for (int i = 0; i < times.length; i++) {
+        Assert.assertTrue(resultSet.next());
+        Assert.assertEquals(times[i], resultSet.getLong(1));
+        double result = resultSet.getDouble(2);
+        if (values[i] == null) {
+          Assert.assertTrue(resultSet.wasNull());
+        } else {
+          Assert.assertFalse(resultSet.wasNull());
+          Assert.assertEquals(values[i], result, 1e-9);
+        }
+      }
+      Assert.assertFalse(resultSet.next());
+    } catch (SQLException throwable) {
+      fail(throwable.getMessage());
+    }
+  }
+
+  private static void assertIllegalParameter(String sqlStr, String message) {
+    try (Connection connection = EnvFactory.getEnv().getConnection();
+        Statement statement = connection.createStatement()) {
+      statement.executeQuery(sqlStr);
+      fail();
+    } catch (SQLException throwable) {
+      Assert.assertTrue(throwable.getMessage(), throwable.getMessage().contains(message));
+    }
+  }
 }
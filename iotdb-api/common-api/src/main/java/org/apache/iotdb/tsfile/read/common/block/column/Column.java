@@ -101,6 +101,13 @@ public interface Column {
     throw new UnsupportedOperationException(getClass().getName());
   }
 
+  /**
+   * Gets the index of position 0 in the arrays returned by the array getters and {@link #isNull()}.
+   */
+  default int getArrayOffset() {
+    throw new UnsupportedOperationException(getClass().getName());
+  }
+
   /** Gets a TsPrimitiveType at {@code position}. */
   default TsPrimitiveType getTsPrimitiveType(int position) {
     throw new UnsupportedOperationException(getClass().getName());
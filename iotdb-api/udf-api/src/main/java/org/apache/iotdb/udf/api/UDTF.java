@@ -28,6 +28,7 @@ import org.apache.iotdb.udf.api.collector.PointCollector;
 import org.apache.iotdb.udf.api.customizer.config.UDTFConfigurations;
 import org.apache.iotdb.udf.api.customizer.parameter.UDFParameterValidator;
 import org.apache.iotdb.udf.api.customizer.parameter.UDFParameters;
+import org.apache.iotdb.udf.api.customizer.strategy.ColumnBatchAccessStrategy;
 import org.apache.iotdb.udf.api.customizer.strategy.MappableRowByRowAccessStrategy;
 import org.apache.iotdb.udf.api.customizer.strategy.RowByRowAccessStrategy;
 import org.apache.iotdb.udf.api.customizer.strategy.SlidingSizeWindowAccessStrategy;
@@ -117,16 +118,21 @@ public interface UDTF extends UDF {
   }
 
   /**
-   * When the user specifies {@link MappableRowByRowAccessStrategy} to access the original data in
-   * {@link UDTFConfigurations}, this method will be called to process the transformation. Compared
-   * to {@link #transform(Row)}, this method processes input data in batches. In a single UDF query,
-   * this method may be called multiple times.
+   * When the user specifies {@link MappableRowByRowAccessStrategy} or {@link
+   * ColumnBatchAccessStrategy} to access the original data in {@link UDTFConfigurations}, this
+   * method will be called to process the transformation. Compared to {@link #transform(Row)}, this
+   * method processes input data in batches. In a single UDF query, this method may be called
+   * multiple times.
+   *
+   * <p>UDTFs using {@link ColumnBatchAccessStrategy} must override this method and append exactly
+   * one value or null to the builder for each input row.
    *
    * @param columns original input data columns (aligned by time)
    * @param builder used to collect output data points
    * @throws Exception the user can throw errors if necessary
    * @throws UnsupportedOperationException if the user does not override this method
    * @see MappableRowByRowAccessStrategy
+   * @see ColumnBatchAccessStrategy
    */
   default void transform(Column[] columns, ColumnBuilder builder) throws Exception {
     int colCount = columns.length;
@@ -38,6 +38,13 @@ public interface AccessStrategy {
      */
     MAPPABLE_ROW_BY_ROW,
 
+    /**
+     * Represents the access strategy type for column batch access.
+     *
+     * @see ColumnBatchAccessStrategy
+     */
+    COLUMN_BATCH,
+
     /**
      * Represents the access strategy type for row-by-row access.
      *
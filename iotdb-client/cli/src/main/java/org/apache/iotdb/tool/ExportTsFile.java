@@ -178,7 +178,9 @@ public class ExportTsFile extends AbstractTsFileTool {
         || sqlLower.contains("stddev_samp(")
         || sqlLower.contains("variance(")
         || sqlLower.contains("var_pop(")
-        || sqlLower.contains("var_samp(")) {
+        || sqlLower.contains("var_samp(")
+        || sqlLower.contains("approx_percentile(")
+        || sqlLower.contains("approx_count_distinct(")) {
       IoTPrinter.println("The sql you entered is invalid, please don't use aggregate query.");
       System.exit(CODE_ERROR);
     }
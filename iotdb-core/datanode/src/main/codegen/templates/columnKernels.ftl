@@ -0,0 +1,152 @@
+/*
+* Licensed to the Apache Software Foundation (ASF) under one
+* or more contributor license agreements.  See the NOTICE file
+* distributed with this work for additional information
+* regarding copyright ownership.  The ASF licenses this file
+* to you under the Apache License, Version 2.0 (the
+* "License"); you may not use this file except in compliance
+* with the License.  You may obtain a copy of the License at
+*
+*     http://www.apache.org/licenses/LICENSE-2.0
+*
+* Unless required by applicable law or agreed to in writing,
+* software distributed under the License is distributed on an
+* "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+* KIND, either express or implied.  See the License for the
+* specific language governing permissions and limitations
+* under the License.
+*/
+<@pp.dropOutputFile />
+
+<#assign arithmeticOperators = [
+  {"name": "add", "operator": "+"},
+  {"name": "subtract", "operator": "-"},
+  {"name": "multiply", "operator": "*"},
+  {"name": "divide", "operator": "/"},
+  {"name": "modulo", "operator": "%"}
+]>
+<#assign compareOperators = [
+  {"name": "equalTo", "operator": "=="},
+  {"name": "nonEqual", "operator": "!="},
+  {"name": "greaterThan", "operator": ">"},
+  {"name": "greaterEqual", "operator": ">="},
+  {"name": "lessThan", "operator": "<"},
+  {"name": "lessEqual", "operator": "<="}
+]>
+
+<#list decimalDataTypes.types as left>
+<#list decimalDataTypes.types as right>
+
+  <#assign className = "${left.dataType?cap_first}${right.dataType?cap_first}ColumnKernels">
+  <#assign isFloating = left.dataType == "float" || left.dataType == "double" || right.dataType == "float" || right.dataType == "double">
+  <@pp.changeOutputFile name="/org/apache/iotdb/db/queryengine/transformation/dag/column/binary/kernel/${className}.java" />
+package org.apache.iotdb.db.queryengine.transformation.dag.column.binary.kernel;
+
+import org.apache.iotdb.tsfile.file.metadata.enums.TSDataType;
+import org.apache.iotdb.tsfile.read.common.block.column.BooleanColumn;
+import org.apache.iotdb.tsfile.read.common.block.column.Column;
+import org.apache.iotdb.tsfile.read.common.block.column.DoubleColumn;
+
+/*
+* This class is generated using freemarker and the ${.template_name} template.
+*/
+@SuppressWarnings("unused")
+public class ${className} {
+
+  private ${className}() {
+    // util class
+  }
+
+  private static boolean accepts(Column left, Column right) {
+    return left.getDataType() == TSDataType.${left.typeEnum}
+        && right.getDataType() == TSDataType.${right.typeEnum};
+  }
+<#list arithmeticOperators as op>
+
+  public static Column ${op.name}(Column left, Column right, int positionCount) {
+    if (!accepts(left, right)) {
+      return null;
+    }
+    ${left.dataType}[] leftValues = left.get${left.dataType?cap_first}s();
+    int leftOffset = left.getArrayOffset();
+    ${right.dataType}[] rightValues = right.get${right.dataType?cap_first}s();
+    int rightOffset = right.getArrayOffset();
+    double[] values = new double[positionCount];
+    for (int i = 0; i < positionCount; i++) {
+      values[i] = (double) leftValues[leftOffset + i] ${op.operator} (double) rightValues[rightOffset + i];
+    }
+    return new DoubleColumn(
+        positionCount, ColumnKernelUtils.mergeNulls(left, right, positionCount), values);
+  }
+</#list>
+<#list compareOperators as op>
+
+  public static Column ${op.name}(Column left, Column right, int positionCount) {
+    if (!accepts(left, right)) {
+      return null;
+    }
+    ${left.dataType}[] leftValues = left.get${left.dataType?cap_first}s();
+    int leftOffset = left.getArrayOffset();
+    ${right.dataType}[] rightValues = right.get${right.dataType?cap_first}s();
+    int rightOffset = right.getArrayOffset();
+    boolean[] values = new boolean[positionCount];
+    for (int i = 0; i < positionCount; i++) {
+    <#if isFloating>
+      double leftValue = leftValues[leftOffset + i];
+      double rightValue = rightValues[rightOffset + i];
+      values[i] =
+          !Double.isNaN(leftValue)
+              && !Double.isNaN(rightValue)
+              && Double.compare(leftValue, rightValue) ${op.operator} 0;
+    <#elseif left.dataType == "int" && right.dataType == "int">
+      values[i] = leftValues[leftOffset + i] ${op.operator} rightValues[rightOffset + i];
+    <#else>
+      // compared as double, the same as other numeric types
+      values[i] = (double) leftValues[leftOffset + i] ${op.operator} (double) rightValues[rightOffset + i];
+    </#if>
+    }
+    return new BooleanColumn(
+        positionCount, ColumnKernelUtils.mergeNulls(left, right, positionCount), values);
+  }
+</#list>
+}
+
+</#list>
+</#list>
+
+<@pp.changeOutputFile name="/org/apache/iotdb/db/queryengine/transformation/dag/column/binary/kernel/ColumnKernels.java" />
+package org.apache.iotdb.db.queryengine.transformation.dag.column.binary.kernel;
+
+import org.apache.iotdb.tsfile.read.common.type.TypeEnum;
+
+/*
+* This class is generated using freemarker and the ${.template_name} template.
+*/
+@SuppressWarnings("unused")
+public class ColumnKernels {
+
+  private ColumnKernels() {
+    // util class
+  }
+<#list arithmeticOperators + compareOperators as op>
+
+  /** Get the kernel of ${op.name} for the input types, null if there is no such kernel. */
+  public static BinaryColumnKernel ${op.name}(TypeEnum leftType, TypeEnum rightType) {
+    switch (leftType) {
+  <#list decimalDataTypes.types as left>
+      case ${left.typeEnum}:
+        switch (rightType) {
+    <#list decimalDataTypes.types as right>
+          case ${right.typeEnum}:
+            return ${left.dataType?cap_first}${right.dataType?cap_first}ColumnKernels::${op.name};
+    </#list>
+          default:
+            return null;
+        }
+  </#list>
+      default:
+        return null;
+    }
+  }
+</#list>
+}
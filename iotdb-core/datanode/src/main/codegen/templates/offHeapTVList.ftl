@@ -0,0 +1,160 @@
+/*
+* Licensed to the Apache Software Foundation (ASF) under one
+* or more contributor license agreements.  See the NOTICE file
+* distributed with this work for additional information
+* regarding copyright ownership.  The ASF licenses this file
+* to you under the Apache License, Version 2.0 (the
+* "License"); you may not use this file except in compliance
+* with the License.  You may obtain a copy of the License at
+*
+*     http://www.apache.org/licenses/LICENSE-2.0
+*
+* Unless required by applicable law or agreed to in writing,
+* software distributed under the License is distributed on an
+* "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+* KIND, either express or implied.  See the License for the
+* specific language governing permissions and limitations
+* under the License.
+*/
+<@pp.dropOutputFile />
+
+<#list allDataTypes.types as type>
+<#if type.dataType != "Binary">
+
+  <#assign className = "OffHeap${type.dataType?cap_first}TVList">
+  <@pp.changeOutputFile name="/org/apache/iotdb/db/utils/datastructure/${className}.java" />
+
+package org.apache.iotdb.db.utils.datastructure;
+
+import org.apache.iotdb.db.storageengine.rescon.memory.PrimitiveArrayManager;
+import org.apache.iotdb.tsfile.file.metadata.enums.TSDataType;
+import org.apache.iotdb.tsfile.utils.BitMap;
+
+/*
+* This class is generated using freemarker and the ${.template_name} template.
+*
+* ${type.dataType?cap_first}TVList whose timestamps and values are stored in direct arrays instead of
+* heap arrays, so that they are not scanned by gc. It is sorted by tim sort.
+*/
+public class ${className} extends Tim${type.dataType?cap_first}TVList {
+  private final OffHeapArrays timeArrays = new OffHeapArrays(TSDataType.INT64);
+  private final OffHeapArrays valueArrays = new OffHeapArrays(${type.tsDataType});
+
+  ${className}() {
+    super();
+    PrimitiveArrayManager.trackOffHeapArrays(this, timeArrays, valueArrays);
+  }
+
+  @Override
+  public ${className} clone() {
+    ${className} cloneList = new ${className}();
+    cloneAs(cloneList);
+    timeArrays.copyTo(cloneList.timeArrays, rowCount);
+    valueArrays.copyTo(cloneList.valueArrays, rowCount);
+    return cloneList;
+  }
+
+  @Override
+  public long getTime(int index) {
+    if (index >= rowCount) {
+      throw new ArrayIndexOutOfBoundsException(index);
+    }
+    return timeArrays.getLong(index);
+  }
+
+  @Override
+  public void put${type.dataType?cap_first}(long timestamp, ${type.dataType} value) {
+    checkExpansion();
+    maxTime = Math.max(maxTime, timestamp);
+    timeArrays.putLong(rowCount, timestamp);
+    valueArrays.put${type.dataType?cap_first}(rowCount, value);
+    rowCount++;
+    if (sorted && rowCount > 1 && timestamp < getTime(rowCount - 2)) {
+      sorted = false;
+    }
+  }
+
+  @Override
+  public ${type.dataType} get${type.dataType?cap_first}(int index) {
+    if (index >= rowCount) {
+      throw new ArrayIndexOutOfBoundsException(index);
+    }
+    return valueArrays.get${type.dataType?cap_first}(index);
+  }
+
+  @Override
+  protected void set(int index, long timestamp, ${type.dataType} value) {
+    if (index >= rowCount) {
+      throw new ArrayIndexOutOfBoundsException(index);
+    }
+    timeArrays.putLong(index, timestamp);
+    valueArrays.put${type.dataType?cap_first}(index, value);
+  }
+
+  @Override
+  public void put${type.dataType?cap_first}s(long[] time, ${type.dataType}[] value, BitMap bitMap, int start, int end) {
+    // constraint: time.length + timeIdxOffset == value.length
+    int timeIdxOffset = 0;
+    if (bitMap != null && !bitMap.isAllUnmarked()) {
+      // time array is a reference, should clone necessary time values
+      long[] clonedTime = new long[end - start];
+      System.arraycopy(time, start, clonedTime, 0, end - start);
+      time = clonedTime;
+      timeIdxOffset = start;
+      // drop null at the end of value array
+      int nullCnt =
+          dropNullValThenUpdateMaxTimeAndSorted(time, value, bitMap, start, end, timeIdxOffset);
+      end -= nullCnt;
+    } else {
+      updateMaxTimeAndSorted(time, start, end);
+    }
+
+    for (int idx = start; idx < end; idx++) {
+      checkExpansion();
+      timeArrays.putLong(rowCount, time[idx - timeIdxOffset]);
+      valueArrays.put${type.dataType?cap_first}(rowCount, value[idx]);
+      rowCount++;
+    }
+  }
+
+  @Override
+  protected void checkExpansion() {
+    if (rowCount == timeArrays.capacity()) {
+      expandValues();
+      timeArrays.expand();
+    }
+  }
+
+  @Override
+  protected void expandValues() {
+    valueArrays.expand();
+  }
+
+  @Override
+  protected int arrayNum() {
+    return timeArrays.arrayNum();
+  }
+
+  @Override
+  protected void releaseLastTimeArray() {
+    timeArrays.releaseLastArray();
+  }
+
+  @Override
+  protected void releaseLastValueArray() {
+    valueArrays.releaseLastArray();
+  }
+
+  @Override
+  protected void clearTime() {
+    timeArrays.release();
+  }
+
+  @Override
+  void clearValue() {
+    valueArrays.release();
+  }
+}
+
+</#if>
+</#list>
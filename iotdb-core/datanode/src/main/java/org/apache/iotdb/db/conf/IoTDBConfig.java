@@ -44,6 +44,7 @@ import org.apache.iotdb.rpc.RpcTransportFactory;
 import org.apache.iotdb.rpc.RpcUtils;
 import org.apache.iotdb.tsfile.common.conf.TSFileDescriptor;
 import org.apache.iotdb.tsfile.common.constant.TsFileConstant;
+import org.apache.iotdb.tsfile.file.metadata.enums.CompressionType;
 import org.apache.iotdb.tsfile.file.metadata.enums.TSDataType;
 import org.apache.iotdb.tsfile.file.metadata.enums.TSEncoding;
 import org.apache.iotdb.tsfile.fileSystem.FSType;
@@ -211,9 +212,15 @@ public class IoTDBConfig {
   /** Buffer size of each wal node. Unit: byte */
   private int walBufferSize = 32 * 1024 * 1024;
 
-  /** Blocking queue capacity of each wal buffer */
+  /** Capacity of the ring buffer receiving WALEntries of each wal buffer */
   private int walBufferQueueCapacity = 500;
 
+  /** In the sync mode, fsync once this number of WALEntries has been batched */
+  private int walGroupCommitEntryNum = 1024;
+
+  /** In the sync mode, fsync once this size of WALEntries has been batched. Unit: byte */
+  private int walGroupCommitSizeInByte = 4 * 1024 * 1024;
+
   /** Size threshold of each wal file. Unit: byte */
   private volatile long walFileSizeThresholdInByte = 30 * 1024 * 1024L;
 
@@ -335,6 +342,37 @@ public class IoTDBConfig {
   private String sortTmpDir =
       IoTDBConstant.DEFAULT_BASE_DIR + File.separator + IoTDBConstant.TMP_FOLDER_NAME;
 
+  /** Local directory caching the blocks of TsFiles read from the object storage tier */
+  private String objectStorageCacheDir =
+      IoTDBConstant.DEFAULT_BASE_DIR + File.separator + "os_cache";
+
+  /**
+   * Disk space used by the local cache of the object storage tier, in byte. When <= 0, TsFiles on
+   * the object storage are read without caching.
+   */
+  private long objectStorageCacheSizeInByte = 10L * 1024 * 1024 * 1024;
+
+  /** Size of the blocks in which TsFiles on the object storage are read and cached, in byte. */
+  private int objectStorageCacheBlockSizeInByte = 1024 * 1024;
+
+  /**
+   * Age of data of each storage tier, in ms. A sealed TsFile whose data are all older than the age
+   * of its tier is migrated to the next tier. The age of the last tier is ignored.
+   */
+  private long[] tierTTLInMs = {Long.MAX_VALUE};
+
+  /**
+   * Usable space proportion of each storage tier. When the usable space of a tier is lower than
+   * it, the oldest sealed TsFiles of the tier are migrated to the next tier. 0 means disabled.
+   */
+  private double[] tierSpaceThresholds = {0};
+
+  /** The interval of checking which TsFiles should be migrated to the next tier, in ms. */
+  private long tierMigrationCheckIntervalInMs = 10 * 60 * 1000L;
+
+  /** The limit of the throughput of tier migration, in MB/s. When <= 0, it is not limited. */
+  private int tierMigrationThroughputMbPerSec = 16;
+
   /** Maximum MemTable number. Invalid when enableMemControl is true. */
   private int maxMemtableNumber = 0;
 
@@ -351,9 +389,63 @@ public class IoTDBConfig {
 
   private int modeMapSizeThreshold = 10000;
 
+  /**
+   * Minimum average number of input series per output column for GROUP BY LEVEL to use the
+   * hash-based multi-group aggregation operator. When <= 0, the hash-based operator is disabled.
+   */
+  private int hashAggregationSeriesPerGroupThreshold = 8;
+
+  /**
+   * Whether to cache the result of GROUP BY time windows which are entirely covered by sealed
+   * TsFiles.
+   */
+  private boolean enableAggregationWindowResultCache = false;
+
+  /** Memory used by the cache of GROUP BY time window results, in byte. */
+  private long aggregationWindowResultCacheSizeInByte = 32 * 1024 * 1024L;
+
+  /**
+   * Whether concurrent scans of the same page of a sealed TsFile share one decoded copy of the page
+   * instead of decoding it once per query.
+   */
+  private boolean enableSharedScan = false;
+
+  /** How long a decoded page is kept for other scans after it was last read, in ms. */
+  private long sharedScanWindowInMs = 1000L;
+
+  /** Memory used by the decoded pages shared between scans, in byte. */
+  private long sharedScanPageCacheSizeInByte = 32 * 1024 * 1024L;
+
+  /**
+   * Whether a scan of one series may be split into time ranges of sealed sequence TsFiles that are
+   * scanned by parallel pipelines.
+   */
+  private boolean enableIntraSeriesParallelScan = false;
+
+  /** Minimum number of sealed sequence TsFiles in each time range of a split series scan. */
+  private int intraSeriesParallelScanMinFileNumPerSplit = 4;
+
+  /**
+   * Memory used by the node-wide cache of parsed mods files, in byte. When <= 0, every query parses
+   * the mods files by itself.
+   */
+  private long modificationCacheSizeInByte = 16 * 1024 * 1024L;
+
   /** How many queries can be concurrently executed. When <= 0, use 1000. */
   private int maxAllowedConcurrentQueries = 1000;
 
+  /**
+   * How many queries of one user can run concurrently on a coordinator. Queries beyond it wait in
+   * the admission queue in the order of arrival. When <= 0, there is no limit.
+   */
+  private int maxConcurrentQueriesPerUser = 0;
+
+  /**
+   * Queries whose accumulated scheduled time is less than this threshold are scheduled in the
+   * reserved lane for short queries, in ms. When <= 0, the lane is disabled.
+   */
+  private int shortQueryLaneThresholdInMs = 0;
+
   /** How many threads can concurrently evaluate windows. When <= 0, use CPU core number. */
   private int windowEvaluationThreadCount = Runtime.getRuntime().availableProcessors();
 
@@ -417,9 +509,21 @@ public class IoTDBConfig {
   /** The sort algorithm used in TVList */
   private TVListSortAlgorithm tvListSortAlgorithm = TVListSortAlgorithm.TIM;
 
+  /**
+   * Whether to store the timestamps and values of non-aligned, fixed-length TVLists in pooled
+   * direct memory instead of heap arrays
+   */
+  private boolean enableOffHeapTVList = false;
+
   /** When average series point number reaches this, flush the memtable to disk */
   private int avgSeriesPointNumberThreshold = 100000;
 
+  /**
+   * Whether to intern device ids to dense int ids, so that memtables index devices by int instead
+   * of by string
+   */
+  private boolean enableDeviceIdInterning = false;
+
   /** Enable inner space compaction for sequence files */
   private boolean enableSeqSpaceCompaction = true;
 
@@ -479,6 +583,18 @@ public class IoTDBConfig {
   /** The target tsfile size in compaction, 2 GB by default */
   private long targetCompactionFileSize = 2147483648L;
 
+  /** The max size of level 0 files in the leveled compaction, 64 MB by default */
+  private long leveledCompactionBaseFileSize = 67108864L;
+
+  /** The ratio of the max file size of each level to that of the previous level */
+  private int leveledCompactionLevelSizeRatio = 4;
+
+  /**
+   * The max estimated write amplification of a leveled compaction task which compacts small files
+   * into a larger file of a higher level
+   */
+  private double leveledCompactionMaxWriteAmplification = 4.0;
+
   /** The target chunk size in compaction. */
   private long targetChunkSize = 1048576L;
 
@@ -565,6 +681,9 @@ public class IoTDBConfig {
   /** Memory allocated for chunk cache in read process */
   private long allocateMemoryForChunkCache = allocateMemoryForRead * 100 / 1001;
 
+  /** Direct memory allocated for the off-heap tier of chunk cache, 0 means disabled */
+  private long allocateOffHeapMemoryForChunkCache = 0;
+
   /** Memory allocated for operators */
   private long allocateMemoryForCoordinator = allocateMemoryForRead * 50 / 1001;
 
@@ -691,6 +810,31 @@ public class IoTDBConfig {
   /** The limit of compaction merge can reach per second */
   private int compactionWriteThroughputMbPerSec = 16;
 
+  /**
+   * Whether to adjust the compaction write throughput and the number of working compaction threads
+   * by the observed query latency, disk queue size and pending compaction tasks. When enabled,
+   * compactionWriteThroughputMbPerSec is ignored.
+   */
+  private boolean enableAdaptiveCompactionThrottle = false;
+
+  /** The interval to adjust the compaction throttle. Unit: millisecond */
+  private long compactionThrottleAdjustIntervalInMs = 10_000L;
+
+  /**
+   * The compaction is slowed down when the p99 latency of the query fragment instances reading
+   * local data regions in the last interval exceeds this. Unit: millisecond
+   */
+  private long compactionThrottleQueryLatencyThresholdInMs = 500L;
+
+  /** The compaction is slowed down when the average queue size of any disk exceeds this. */
+  private double compactionThrottleDiskQueueSizeThreshold = 4.0;
+
+  /** The lower bound of the compaction write throughput when throttled adaptively. */
+  private int compactionThrottleMinWriteThroughputMbPerSec = 4;
+
+  /** The upper bound of the compaction write throughput when throttled adaptively. */
+  private int compactionThrottleMaxWriteThroughputMbPerSec = 64;
+
   /**
    * How many thread will be set up to perform compaction, 10 by default. Set to 1 when less than or
    * equal to 0.
@@ -833,6 +977,13 @@ public class IoTDBConfig {
   /** the size of ioTaskQueue */
   private int ioTaskQueueSizeForFlushing = 10;
 
+  /**
+   * How many chunk groups of different devices are sorted and encoded in parallel when flushing a
+   * memtable. 1 means one sorting thread and one encoding thread are used. When <= 0, use CPU core
+   * number.
+   */
+  private int flushEncodingParallelism = 1;
+
   /** the number of data regions per user-defined database */
   private int dataRegionNum = 1;
 
@@ -926,6 +1077,12 @@ public class IoTDBConfig {
   /** Thread keep alive time in ms of mpp data exchange. */
   private int mppDataExchangeKeepAliveTimeInMs = 1000;
 
+  /** Whether to ask remote DataNodes to send TsBlocks compressed in mpp data exchange. */
+  private boolean enableMppDataExchangeCompression = false;
+
+  /** Compressor of TsBlocks in mpp data exchange. */
+  private CompressionType mppDataExchangeCompressor = CompressionType.LZ4;
+
   /** Thrift socket and connection timeout between data node and config node. */
   private int connectionTimeoutInMS = (int) TimeUnit.SECONDS.toMillis(60);
 
@@ -1259,6 +1416,7 @@ public class IoTDBConfig {
     extPipeDir = addDataHomeDir(extPipeDir);
     queryDir = addDataHomeDir(queryDir);
     sortTmpDir = addDataHomeDir(sortTmpDir);
+    objectStorageCacheDir = addDataHomeDir(objectStorageCacheDir);
     formulateDataDirs(tierDataDirs);
   }
 
@@ -1624,6 +1782,22 @@ public class IoTDBConfig {
     this.maxAllowedConcurrentQueries = maxAllowedConcurrentQueries;
   }
 
+  public int getMaxConcurrentQueriesPerUser() {
+    return maxConcurrentQueriesPerUser;
+  }
+
+  public void setMaxConcurrentQueriesPerUser(int maxConcurrentQueriesPerUser) {
+    this.maxConcurrentQueriesPerUser = maxConcurrentQueriesPerUser;
+  }
+
+  public int getShortQueryLaneThresholdInMs() {
+    return shortQueryLaneThresholdInMs;
+  }
+
+  public void setShortQueryLaneThresholdInMs(int shortQueryLaneThresholdInMs) {
+    this.shortQueryLaneThresholdInMs = shortQueryLaneThresholdInMs;
+  }
+
   public long getMaxBytesPerFragmentInstance() {
     return maxBytesPerFragmentInstance;
   }
@@ -1799,6 +1973,22 @@ public class IoTDBConfig {
     this.walBufferQueueCapacity = walBufferQueueCapacity;
   }
 
+  public int getWalGroupCommitEntryNum() {
+    return walGroupCommitEntryNum;
+  }
+
+  void setWalGroupCommitEntryNum(int walGroupCommitEntryNum) {
+    this.walGroupCommitEntryNum = walGroupCommitEntryNum;
+  }
+
+  public int getWalGroupCommitSizeInByte() {
+    return walGroupCommitSizeInByte;
+  }
+
+  void setWalGroupCommitSizeInByte(int walGroupCommitSizeInByte) {
+    this.walGroupCommitSizeInByte = walGroupCommitSizeInByte;
+  }
+
   public long getWalFileSizeThresholdInByte() {
     return walFileSizeThresholdInByte;
   }
@@ -2027,6 +2217,60 @@ public class IoTDBConfig {
     this.compactionWriteThroughputMbPerSec = compactionWriteThroughputMbPerSec;
   }
 
+  public boolean isEnableAdaptiveCompactionThrottle() {
+    return enableAdaptiveCompactionThrottle;
+  }
+
+  public void setEnableAdaptiveCompactionThrottle(boolean enableAdaptiveCompactionThrottle) {
+    this.enableAdaptiveCompactionThrottle = enableAdaptiveCompactionThrottle;
+  }
+
+  public long getCompactionThrottleAdjustIntervalInMs() {
+    return compactionThrottleAdjustIntervalInMs;
+  }
+
+  public void setCompactionThrottleAdjustIntervalInMs(long compactionThrottleAdjustIntervalInMs) {
+    this.compactionThrottleAdjustIntervalInMs = compactionThrottleAdjustIntervalInMs;
+  }
+
+  public long getCompactionThrottleQueryLatencyThresholdInMs() {
+    return compactionThrottleQueryLatencyThresholdInMs;
+  }
+
+  public void setCompactionThrottleQueryLatencyThresholdInMs(
+      long compactionThrottleQueryLatencyThresholdInMs) {
+    this.compactionThrottleQueryLatencyThresholdInMs = compactionThrottleQueryLatencyThresholdInMs;
+  }
+
+  public double getCompactionThrottleDiskQueueSizeThreshold() {
+    return compactionThrottleDiskQueueSizeThreshold;
+  }
+
+  public void setCompactionThrottleDiskQueueSizeThreshold(
+      double compactionThrottleDiskQueueSizeThreshold) {
+    this.compactionThrottleDiskQueueSizeThreshold = compactionThrottleDiskQueueSizeThreshold;
+  }
+
+  public int getCompactionThrottleMinWriteThroughputMbPerSec() {
+    return compactionThrottleMinWriteThroughputMbPerSec;
+  }
+
+  public void setCompactionThrottleMinWriteThroughputMbPerSec(
+      int compactionThrottleMinWriteThroughputMbPerSec) {
+    this.compactionThrottleMinWriteThroughputMbPerSec =
+        compactionThrottleMinWriteThroughputMbPerSec;
+  }
+
+  public int getCompactionThrottleMaxWriteThroughputMbPerSec() {
+    return compactionThrottleMaxWriteThroughputMbPerSec;
+  }
+
+  public void setCompactionThrottleMaxWriteThroughputMbPerSec(
+      int compactionThrottleMaxWriteThroughputMbPerSec) {
+    this.compactionThrottleMaxWriteThroughputMbPerSec =
+        compactionThrottleMaxWriteThroughputMbPerSec;
+  }
+
   public boolean isEnableMemControl() {
     return enableMemControl;
   }
@@ -2099,6 +2343,14 @@ public class IoTDBConfig {
     this.tvListSortAlgorithm = tvListSortAlgorithm;
   }
 
+  public boolean isEnableOffHeapTVList() {
+    return enableOffHeapTVList;
+  }
+
+  public void setEnableOffHeapTVList(boolean enableOffHeapTVList) {
+    this.enableOffHeapTVList = enableOffHeapTVList;
+  }
+
   public int getAvgSeriesPointNumberThreshold() {
     return avgSeriesPointNumberThreshold;
   }
@@ -2107,6 +2359,14 @@ public class IoTDBConfig {
     this.avgSeriesPointNumberThreshold = avgSeriesPointNumberThreshold;
   }
 
+  public boolean isEnableDeviceIdInterning() {
+    return enableDeviceIdInterning;
+  }
+
+  public void setEnableDeviceIdInterning(boolean enableDeviceIdInterning) {
+    this.enableDeviceIdInterning = enableDeviceIdInterning;
+  }
+
   public long getCrossCompactionFileSelectionTimeBudget() {
     return crossCompactionFileSelectionTimeBudget;
   }
@@ -2156,6 +2416,14 @@ public class IoTDBConfig {
     this.allocateMemoryForChunkCache = allocateMemoryForChunkCache;
   }
 
+  public long getAllocateOffHeapMemoryForChunkCache() {
+    return allocateOffHeapMemoryForChunkCache;
+  }
+
+  public void setAllocateOffHeapMemoryForChunkCache(long allocateOffHeapMemoryForChunkCache) {
+    this.allocateOffHeapMemoryForChunkCache = allocateOffHeapMemoryForChunkCache;
+  }
+
   public long getAllocateMemoryForCoordinator() {
     return allocateMemoryForCoordinator;
   }
@@ -2667,6 +2935,14 @@ public class IoTDBConfig {
     this.ioTaskQueueSizeForFlushing = ioTaskQueueSizeForFlushing;
   }
 
+  public int getFlushEncodingParallelism() {
+    return flushEncodingParallelism;
+  }
+
+  public void setFlushEncodingParallelism(int flushEncodingParallelism) {
+    this.flushEncodingParallelism = flushEncodingParallelism;
+  }
+
   public boolean isEnableSeqSpaceCompaction() {
     return enableSeqSpaceCompaction;
   }
@@ -2775,6 +3051,31 @@ public class IoTDBConfig {
     this.targetCompactionFileSize = targetCompactionFileSize;
   }
 
+  public long getLeveledCompactionBaseFileSize() {
+    return leveledCompactionBaseFileSize;
+  }
+
+  public void setLeveledCompactionBaseFileSize(long leveledCompactionBaseFileSize) {
+    this.leveledCompactionBaseFileSize = leveledCompactionBaseFileSize;
+  }
+
+  public int getLeveledCompactionLevelSizeRatio() {
+    return leveledCompactionLevelSizeRatio;
+  }
+
+  public void setLeveledCompactionLevelSizeRatio(int leveledCompactionLevelSizeRatio) {
+    this.leveledCompactionLevelSizeRatio = leveledCompactionLevelSizeRatio;
+  }
+
+  public double getLeveledCompactionMaxWriteAmplification() {
+    return leveledCompactionMaxWriteAmplification;
+  }
+
+  public void setLeveledCompactionMaxWriteAmplification(
+      double leveledCompactionMaxWriteAmplification) {
+    this.leveledCompactionMaxWriteAmplification = leveledCompactionMaxWriteAmplification;
+  }
+
   public long getTargetChunkSize() {
     return targetChunkSize;
   }
@@ -3028,6 +3329,22 @@ public class IoTDBConfig {
     this.mppDataExchangeKeepAliveTimeInMs = mppDataExchangeKeepAliveTimeInMs;
   }
 
+  public boolean isEnableMppDataExchangeCompression() {
+    return enableMppDataExchangeCompression;
+  }
+
+  public void setEnableMppDataExchangeCompression(boolean enableMppDataExchangeCompression) {
+    this.enableMppDataExchangeCompression = enableMppDataExchangeCompression;
+  }
+
+  public CompressionType getMppDataExchangeCompressor() {
+    return mppDataExchangeCompressor;
+  }
+
+  public void setMppDataExchangeCompressor(CompressionType mppDataExchangeCompressor) {
+    this.mppDataExchangeCompressor = mppDataExchangeCompressor;
+  }
+
   public int getConnectionTimeoutInMS() {
     return connectionTimeoutInMS;
   }
@@ -3735,6 +4052,137 @@ public class IoTDBConfig {
     return modeMapSizeThreshold;
   }
 
+  public int getHashAggregationSeriesPerGroupThreshold() {
+    return hashAggregationSeriesPerGroupThreshold;
+  }
+
+  public void setHashAggregationSeriesPerGroupThreshold(
+      int hashAggregationSeriesPerGroupThreshold) {
+    this.hashAggregationSeriesPerGroupThreshold = hashAggregationSeriesPerGroupThreshold;
+  }
+
+  public boolean isEnableAggregationWindowResultCache() {
+    return enableAggregationWindowResultCache;
+  }
+
+  public void setEnableAggregationWindowResultCache(boolean enableAggregationWindowResultCache) {
+    this.enableAggregationWindowResultCache = enableAggregationWindowResultCache;
+  }
+
+  public long getAggregationWindowResultCacheSizeInByte() {
+    return aggregationWindowResultCacheSizeInByte;
+  }
+
+  public void setAggregationWindowResultCacheSizeInByte(
+      long aggregationWindowResultCacheSizeInByte) {
+    this.aggregationWindowResultCacheSizeInByte = aggregationWindowResultCacheSizeInByte;
+  }
+
+  public boolean isEnableSharedScan() {
+    return enableSharedScan;
+  }
+
+  public void setEnableSharedScan(boolean enableSharedScan) {
+    this.enableSharedScan = enableSharedScan;
+  }
+
+  public long getSharedScanWindowInMs() {
+    return sharedScanWindowInMs;
+  }
+
+  public void setSharedScanWindowInMs(long sharedScanWindowInMs) {
+    this.sharedScanWindowInMs = sharedScanWindowInMs;
+  }
+
+  public long getSharedScanPageCacheSizeInByte() {
+    return sharedScanPageCacheSizeInByte;
+  }
+
+  public void setSharedScanPageCacheSizeInByte(long sharedScanPageCacheSizeInByte) {
+    this.sharedScanPageCacheSizeInByte = sharedScanPageCacheSizeInByte;
+  }
+
+  public boolean isEnableIntraSeriesParallelScan() {
+    return enableIntraSeriesParallelScan;
+  }
+
+  public void setEnableIntraSeriesParallelScan(boolean enableIntraSeriesParallelScan) {
+    this.enableIntraSeriesParallelScan = enableIntraSeriesParallelScan;
+  }
+
+  public int getIntraSeriesParallelScanMinFileNumPerSplit() {
+    return intraSeriesParallelScanMinFileNumPerSplit;
+  }
+
+  public void setIntraSeriesParallelScanMinFileNumPerSplit(
+      int intraSeriesParallelScanMinFileNumPerSplit) {
+    this.intraSeriesParallelScanMinFileNumPerSplit = intraSeriesParallelScanMinFileNumPerSplit;
+  }
+
+  public long getModificationCacheSizeInByte() {
+    return modificationCacheSizeInByte;
+  }
+
+  public void setModificationCacheSizeInByte(long modificationCacheSizeInByte) {
+    this.modificationCacheSizeInByte = modificationCacheSizeInByte;
+  }
+
+  public String getObjectStorageCacheDir() {
+    return objectStorageCacheDir;
+  }
+
+  public void setObjectStorageCacheDir(String objectStorageCacheDir) {
+    this.objectStorageCacheDir = objectStorageCacheDir;
+  }
+
+  public long getObjectStorageCacheSizeInByte() {
+    return objectStorageCacheSizeInByte;
+  }
+
+  public void setObjectStorageCacheSizeInByte(long objectStorageCacheSizeInByte) {
+    this.objectStorageCacheSizeInByte = objectStorageCacheSizeInByte;
+  }
+
+  public int getObjectStorageCacheBlockSizeInByte() {
+    return objectStorageCacheBlockSizeInByte;
+  }
+
+  public void setObjectStorageCacheBlockSizeInByte(int objectStorageCacheBlockSizeInByte) {
+    this.objectStorageCacheBlockSizeInByte = objectStorageCacheBlockSizeInByte;
+  }
+
+  public long[] getTierTTLInMs() {
+    return tierTTLInMs;
+  }
+
+  public void setTierTTLInMs(long[] tierTTLInMs) {
+    this.tierTTLInMs = tierTTLInMs;
+  }
+
+  public double[] getTierSpaceThresholds() {
+    return tierSpaceThresholds;
+  }
+
+  public void setTierSpaceThresholds(double[] tierSpaceThresholds) {
+    this.tierSpaceThresholds = tierSpaceThresholds;
+  }
+
+  public long getTierMigrationCheckIntervalInMs() {
+    return tierMigrationCheckIntervalInMs;
+  }
+
+  public void setTierMigrationCheckIntervalInMs(long tierMigrationCheckIntervalInMs) {
+    this.tierMigrationCheckIntervalInMs = tierMigrationCheckIntervalInMs;
+  }
+
+  public int getTierMigrationThroughputMbPerSec() {
+    return tierMigrationThroughputMbPerSec;
+  }
+
+  public void setTierMigrationThroughputMbPerSec(int tierMigrationThroughputMbPerSec) {
+    this.tierMigrationThroughputMbPerSec = tierMigrationThroughputMbPerSec;
+  }
+
   public void setPipeReceiverFileDirs(String[] pipeReceiverFileDirs) {
     this.pipeReceiverFileDirs = pipeReceiverFileDirs;
   }
@@ -54,6 +54,7 @@ import org.apache.iotdb.metrics.utils.InternalReporterType;
 import org.apache.iotdb.metrics.utils.NodeType;
 import org.apache.iotdb.rpc.RpcTransportFactory;
 import org.apache.iotdb.tsfile.common.conf.TSFileDescriptor;
+import org.apache.iotdb.tsfile.file.metadata.enums.CompressionType;
 import org.apache.iotdb.tsfile.file.metadata.enums.TSDataType;
 import org.apache.iotdb.tsfile.file.metadata.enums.TSEncoding;
 import org.apache.iotdb.tsfile.fileSystem.FSType;
@@ -414,12 +415,22 @@ public class IoTDBDescriptor {
             properties.getProperty(
                 "tvlist_sort_algorithm", conf.getTvListSortAlgorithm().toString())));
 
+    conf.setEnableOffHeapTVList(
+        Boolean.parseBoolean(
+            properties.getProperty(
+                "enable_off_heap_tvlist", Boolean.toString(conf.isEnableOffHeapTVList()))));
+
     conf.setAvgSeriesPointNumberThreshold(
         Integer.parseInt(
             properties.getProperty(
                 "avg_series_point_number_threshold",
                 Integer.toString(conf.getAvgSeriesPointNumberThreshold()))));
 
+    conf.setEnableDeviceIdInterning(
+        Boolean.parseBoolean(
+            properties.getProperty(
+                "enable_device_id_interning", Boolean.toString(conf.isEnableDeviceIdInterning()))));
+
     conf.setCheckPeriodWhenInsertBlocked(
         Integer.parseInt(
             properties.getProperty(
@@ -438,6 +449,15 @@ public class IoTDBDescriptor {
                 "io_task_queue_size_for_flushing",
                 Integer.toString(conf.getIoTaskQueueSizeForFlushing()))));
 
+    conf.setFlushEncodingParallelism(
+        Integer.parseInt(
+            properties.getProperty(
+                "flush_encoding_parallelism",
+                Integer.toString(conf.getFlushEncodingParallelism()))));
+    if (conf.getFlushEncodingParallelism() <= 0) {
+      conf.setFlushEncodingParallelism(Runtime.getRuntime().availableProcessors());
+    }
+
     conf.setCompactionScheduleIntervalInMs(
         Long.parseLong(
             properties.getProperty(
@@ -591,6 +611,58 @@ public class IoTDBDescriptor {
       conf.setModeMapSizeThreshold(10000);
     }
 
+    conf.setHashAggregationSeriesPerGroupThreshold(
+        Integer.parseInt(
+            properties.getProperty(
+                "hash_aggregation_series_per_group_threshold",
+                Integer.toString(conf.getHashAggregationSeriesPerGroupThreshold()))));
+
+    conf.setEnableAggregationWindowResultCache(
+        Boolean.parseBoolean(
+            properties.getProperty(
+                "enable_aggregation_window_result_cache",
+                Boolean.toString(conf.isEnableAggregationWindowResultCache()))));
+
+    conf.setAggregationWindowResultCacheSizeInByte(
+        Long.parseLong(
+            properties.getProperty(
+                "aggregation_window_result_cache_size_in_byte",
+                Long.toString(conf.getAggregationWindowResultCacheSizeInByte()))));
+
+    conf.setEnableSharedScan(
+        Boolean.parseBoolean(
+            properties.getProperty(
+                "enable_shared_scan", Boolean.toString(conf.isEnableSharedScan()))));
+
+    conf.setSharedScanWindowInMs(
+        Long.parseLong(
+            properties.getProperty(
+                "shared_scan_window_in_ms", Long.toString(conf.getSharedScanWindowInMs()))));
+
+    conf.setSharedScanPageCacheSizeInByte(
+        Long.parseLong(
+            properties.getProperty(
+                "shared_scan_page_cache_size_in_byte",
+                Long.toString(conf.getSharedScanPageCacheSizeInByte()))));
+
+    conf.setEnableIntraSeriesParallelScan(
+        Boolean.parseBoolean(
+            properties.getProperty(
+                "enable_intra_series_parallel_scan",
+                Boolean.toString(conf.isEnableIntraSeriesParallelScan()))));
+
+    conf.setIntraSeriesParallelScanMinFileNumPerSplit(
+        Integer.parseInt(
+            properties.getProperty(
+                "intra_series_parallel_scan_min_file_num_per_split",
+                Integer.toString(conf.getIntraSeriesParallelScanMinFileNumPerSplit()))));
+
+    conf.setModificationCacheSizeInByte(
+        Long.parseLong(
+            properties.getProperty(
+                "modification_cache_size_in_byte",
+                Long.toString(conf.getModificationCacheSizeInByte()))));
+
     conf.setMaxAllowedConcurrentQueries(
         Integer.parseInt(
             properties.getProperty(
@@ -601,6 +673,18 @@ public class IoTDBDescriptor {
       conf.setMaxAllowedConcurrentQueries(1000);
     }
 
+    conf.setMaxConcurrentQueriesPerUser(
+        Integer.parseInt(
+            properties.getProperty(
+                "max_concurrent_queries_per_user",
+                Integer.toString(conf.getMaxConcurrentQueriesPerUser()))));
+
+    conf.setShortQueryLaneThresholdInMs(
+        Integer.parseInt(
+            properties.getProperty(
+                "short_query_lane_threshold_in_ms",
+                Integer.toString(conf.getShortQueryLaneThresholdInMs()))));
+
     conf.setmRemoteSchemaCacheSize(
         Integer.parseInt(
             properties
@@ -637,6 +721,30 @@ public class IoTDBDescriptor {
         Long.parseLong(
             properties.getProperty(
                 "target_compaction_file_size", Long.toString(conf.getTargetCompactionFileSize()))));
+    long leveledCompactionBaseFileSize =
+        Long.parseLong(
+            properties.getProperty(
+                "leveled_compaction_base_file_size",
+                Long.toString(conf.getLeveledCompactionBaseFileSize())));
+    if (leveledCompactionBaseFileSize > 0) {
+      conf.setLeveledCompactionBaseFileSize(leveledCompactionBaseFileSize);
+    }
+    int leveledCompactionLevelSizeRatio =
+        Integer.parseInt(
+            properties.getProperty(
+                "leveled_compaction_level_size_ratio",
+                Integer.toString(conf.getLeveledCompactionLevelSizeRatio())));
+    if (leveledCompactionLevelSizeRatio > 1) {
+      conf.setLeveledCompactionLevelSizeRatio(leveledCompactionLevelSizeRatio);
+    }
+    double leveledCompactionMaxWriteAmplification =
+        Double.parseDouble(
+            properties.getProperty(
+                "leveled_compaction_max_write_amplification",
+                Double.toString(conf.getLeveledCompactionMaxWriteAmplification())));
+    if (leveledCompactionMaxWriteAmplification >= 1) {
+      conf.setLeveledCompactionMaxWriteAmplification(leveledCompactionMaxWriteAmplification);
+    }
     conf.setTargetChunkSize(
         Long.parseLong(
             properties.getProperty("target_chunk_size", Long.toString(conf.getTargetChunkSize()))));
@@ -680,6 +788,7 @@ public class IoTDBDescriptor {
             properties.getProperty(
                 "compaction_write_throughput_mb_per_sec",
                 Integer.toString(conf.getCompactionWriteThroughputMbPerSec()))));
+    loadAdaptiveCompactionThrottleProps(properties);
 
     conf.setEnableTsFileValidation(
         Boolean.parseBoolean(
@@ -1037,6 +1146,8 @@ public class IoTDBDescriptor {
     // tmp filePath for sort operator
     conf.setSortTmpDir(properties.getProperty("sort_tmp_dir", conf.getSortTmpDir()));
 
+    loadTierMigrationProps(properties);
+
     conf.setRateLimiterType(properties.getProperty("rate_limiter_type", conf.getRateLimiterType()));
 
     conf.setDataNodeSchemaCacheEvictionPolicy(
@@ -1115,6 +1226,23 @@ public class IoTDBDescriptor {
       conf.setWalBufferQueueCapacity(walBufferQueueCapacity);
     }
 
+    int walGroupCommitEntryNum =
+        Integer.parseInt(
+            properties.getProperty(
+                "wal_group_commit_entry_num", Integer.toString(conf.getWalGroupCommitEntryNum())));
+    if (walGroupCommitEntryNum > 0) {
+      conf.setWalGroupCommitEntryNum(walGroupCommitEntryNum);
+    }
+
+    int walGroupCommitSizeInByte =
+        Integer.parseInt(
+            properties.getProperty(
+                "wal_group_commit_size_in_byte",
+                Integer.toString(conf.getWalGroupCommitSizeInByte())));
+    if (walGroupCommitSizeInByte > 0) {
+      conf.setWalGroupCommitSizeInByte(walGroupCommitSizeInByte);
+    }
+
     loadWALHotModifiedProps(properties);
   }
 
@@ -1422,6 +1550,14 @@ public class IoTDBDescriptor {
             properties.getProperty(
                 "compressor",
                 TSFileDescriptor.getInstance().getConfig().getCompressor().toString()));
+    TSFileDescriptor.getInstance()
+        .getConfig()
+        .setEnableExtendedStatistics(
+            Boolean.parseBoolean(
+                properties.getProperty(
+                    "enable_extended_statistics",
+                    Boolean.toString(
+                        TSFileDescriptor.getInstance().getConfig().isEnableExtendedStatistics()))));
     TSFileDescriptor.getInstance()
         .getConfig()
         .setMaxDegreeOfIndexNode(
@@ -1456,6 +1592,22 @@ public class IoTDBDescriptor {
                     "max_tsblock_line_number",
                     Integer.toString(
                         TSFileDescriptor.getInstance().getConfig().getMaxTsBlockLineNumber()))));
+    TSFileDescriptor.getInstance()
+        .getConfig()
+        .setEnableMMapRead(
+            Boolean.parseBoolean(
+                properties.getProperty(
+                    "enable_mmap_read",
+                    Boolean.toString(
+                        TSFileDescriptor.getInstance().getConfig().isEnableMMapRead()))));
+    TSFileDescriptor.getInstance()
+        .getConfig()
+        .setMaxMMapFileNum(
+            Integer.parseInt(
+                properties.getProperty(
+                    "max_mmap_file_num",
+                    Integer.toString(
+                        TSFileDescriptor.getInstance().getConfig().getMaxMMapFileNum()))));
   }
 
   // Mqtt related
@@ -1554,6 +1706,110 @@ public class IoTDBDescriptor {
     }
   }
 
+  private void loadAdaptiveCompactionThrottleProps(Properties properties) {
+    conf.setEnableAdaptiveCompactionThrottle(
+        Boolean.parseBoolean(
+            properties.getProperty(
+                "enable_adaptive_compaction_throttle",
+                String.valueOf(conf.isEnableAdaptiveCompactionThrottle()))));
+    long adjustInterval =
+        Long.parseLong(
+            properties.getProperty(
+                "compaction_throttle_adjust_interval_in_ms",
+                Long.toString(conf.getCompactionThrottleAdjustIntervalInMs())));
+    if (adjustInterval > 0) {
+      conf.setCompactionThrottleAdjustIntervalInMs(adjustInterval);
+    }
+    conf.setCompactionThrottleQueryLatencyThresholdInMs(
+        Long.parseLong(
+            properties.getProperty(
+                "compaction_throttle_query_latency_threshold_in_ms",
+                Long.toString(conf.getCompactionThrottleQueryLatencyThresholdInMs()))));
+    conf.setCompactionThrottleDiskQueueSizeThreshold(
+        Double.parseDouble(
+            properties.getProperty(
+                "compaction_throttle_disk_queue_size_threshold",
+                Double.toString(conf.getCompactionThrottleDiskQueueSizeThreshold()))));
+    int minThroughput =
+        Integer.parseInt(
+            properties.getProperty(
+                "compaction_throttle_min_write_throughput_mb_per_sec",
+                Integer.toString(conf.getCompactionThrottleMinWriteThroughputMbPerSec())));
+    int maxThroughput =
+        Integer.parseInt(
+            properties.getProperty(
+                "compaction_throttle_max_write_throughput_mb_per_sec",
+                Integer.toString(conf.getCompactionThrottleMaxWriteThroughputMbPerSec())));
+    if (minThroughput > 0 && maxThroughput >= minThroughput) {
+      conf.setCompactionThrottleMinWriteThroughputMbPerSec(minThroughput);
+      conf.setCompactionThrottleMaxWriteThroughputMbPerSec(maxThroughput);
+    } else {
+      LOGGER.warn(
+          "Illegal compaction throttle write throughput range [{}, {}], use the default value",
+          minThroughput,
+          maxThroughput);
+    }
+  }
+
+  private void loadTierMigrationProps(Properties properties) {
+    conf.setObjectStorageCacheDir(
+        properties.getProperty("dn_object_storage_cache_dir", conf.getObjectStorageCacheDir()));
+
+    conf.setObjectStorageCacheSizeInByte(
+        Long.parseLong(
+            properties
+                .getProperty(
+                    "object_storage_cache_size_in_byte",
+                    Long.toString(conf.getObjectStorageCacheSizeInByte()))
+                .trim()));
+
+    int objectStorageCacheBlockSize =
+        Integer.parseInt(
+            properties
+                .getProperty(
+                    "object_storage_cache_block_size_in_byte",
+                    Integer.toString(conf.getObjectStorageCacheBlockSizeInByte()))
+                .trim());
+    if (objectStorageCacheBlockSize > 0) {
+      conf.setObjectStorageCacheBlockSizeInByte(objectStorageCacheBlockSize);
+    }
+
+    String tierTTL = properties.getProperty("tier_ttl_in_ms");
+    if (tierTTL != null) {
+      conf.setTierTTLInMs(
+          Arrays.stream(tierTTL.trim().split(IoTDBConstant.TIER_SEPARATOR))
+              .mapToLong(ttl -> Long.parseLong(ttl.trim()))
+              .toArray());
+    }
+
+    String tierSpaceThresholds = properties.getProperty("tier_space_thresholds");
+    if (tierSpaceThresholds != null) {
+      conf.setTierSpaceThresholds(
+          Arrays.stream(tierSpaceThresholds.trim().split(IoTDBConstant.TIER_SEPARATOR))
+              .mapToDouble(threshold -> Double.parseDouble(threshold.trim()))
+              .toArray());
+    }
+
+    long tierMigrationCheckInterval =
+        Long.parseLong(
+            properties
+                .getProperty(
+                    "tier_migration_check_interval_in_ms",
+                    Long.toString(conf.getTierMigrationCheckIntervalInMs()))
+                .trim());
+    if (tierMigrationCheckInterval > 0) {
+      conf.setTierMigrationCheckIntervalInMs(tierMigrationCheckInterval);
+    }
+
+    conf.setTierMigrationThroughputMbPerSec(
+        Integer.parseInt(
+            properties
+                .getProperty(
+                    "tier_migration_throughput_mb_per_sec",
+                    Integer.toString(conf.getTierMigrationThroughputMbPerSec()))
+                .trim()));
+  }
+
   private String[][] parseDataDirs(String dataDirs) {
     String[] tiers = dataDirs.split(IoTDBConstant.TIER_SEPARATOR);
     String[][] tierDataDirs = new String[tiers.length][];
@@ -1808,6 +2064,17 @@ public class IoTDBDescriptor {
           conf.getAllocateMemoryForDataExchange() + partForDataExchange);
       conf.setAllocateMemoryForOperators(conf.getAllocateMemoryForOperators() + partForOperators);
     }
+
+    // the off-heap tier of chunk cache lives in direct memory, out of the read memory above
+    conf.setAllocateOffHeapMemoryForChunkCache(
+        conf.isMetaDataCacheEnable()
+            ? Long.parseLong(
+                properties
+                    .getProperty(
+                        "chunk_off_heap_cache_size_in_byte",
+                        Long.toString(conf.getAllocateOffHeapMemoryForChunkCache()))
+                    .trim())
+            : 0);
   }
 
   private void initStorageEngineAllocate(Properties properties) {
@@ -2130,6 +2397,17 @@ public class IoTDBDescriptor {
             properties.getProperty(
                 "mpp_data_exchange_keep_alive_time_in_ms",
                 Integer.toString(conf.getMppDataExchangeKeepAliveTimeInMs()))));
+    conf.setEnableMppDataExchangeCompression(
+        Boolean.parseBoolean(
+            properties.getProperty(
+                "enable_mpp_data_exchange_compression",
+                Boolean.toString(conf.isEnableMppDataExchangeCompression()))));
+    conf.setMppDataExchangeCompressor(
+        CompressionType.valueOf(
+            properties
+                .getProperty(
+                    "mpp_data_exchange_compressor", conf.getMppDataExchangeCompressor().toString())
+                .trim()));
 
     conf.setPartitionCacheSize(
         Integer.parseInt(
@@ -55,6 +55,14 @@ public interface Accumulator {
    */
   void addIntermediate(Column[] partialResult);
 
+  /**
+   * Whether {@link #addStatistics(Statistics)} can aggregate the statistics, otherwise the points
+   * they describe should be read instead.
+   */
+  default boolean canAddStatistics(Statistics statistics) {
+    return true;
+  }
+
   /**
    * This method can only be used in seriesAggregateScanOperator, it will use different statistics
    * based on the type of Accumulator.
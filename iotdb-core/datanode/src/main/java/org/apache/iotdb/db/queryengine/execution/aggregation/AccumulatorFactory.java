@@ -82,6 +82,11 @@ public class AccumulatorFactory {
         return new VarianceAccumulator(tsDataType, VarianceAccumulator.VarianceType.VAR_SAMP);
       case VAR_POP:
         return new VarianceAccumulator(tsDataType, VarianceAccumulator.VarianceType.VAR_POP);
+      case APPROX_PERCENTILE:
+        return new ApproxPercentileAccumulator(
+            tsDataType, Double.parseDouble(inputAttributes.getOrDefault("rank", "0.5")));
+      case APPROX_COUNT_DISTINCT:
+        return new ApproxCountDistinctAccumulator(tsDataType);
       default:
         throw new IllegalArgumentException("Invalid Aggregation function: " + aggregationType);
     }
@@ -0,0 +1,171 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.iotdb.db.queryengine.execution.aggregation;
+
+import org.apache.iotdb.commons.utils.TestOnly;
+import org.apache.iotdb.db.conf.IoTDBConfig;
+import org.apache.iotdb.db.conf.IoTDBDescriptor;
+import org.apache.iotdb.tsfile.read.common.block.TsBlock;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Weigher;
+import org.openjdk.jol.info.ClassLayout;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.Objects;
+
+import static io.airlift.slice.SizeOf.sizeOfCharArray;
+
+/**
+ * This class caches the finalized result of one time window of a series aggregation scan, so that
+ * repeated GROUP BY time queries only need to compute the windows whose data has changed. The
+ * caching strategy is LRU.
+ *
+ * <p>Only windows entirely covered by sealed TsFiles are cached. Each entry records a data version
+ * computed from the TsFiles overlapping the window and their mods files, so that deletions,
+ * compactions and loads make the entry stale instead of returning an outdated result.
+ */
+public class AggregationWindowResultCache {
+
+  private static final Logger LOGGER = LoggerFactory.getLogger(AggregationWindowResultCache.class);
+  private static final IoTDBConfig CONFIG = IoTDBDescriptor.getInstance().getConfig();
+
+  private final Cache<WindowKey, WindowResult> lruCache;
+
+  private AggregationWindowResultCache() {
+    if (CONFIG.isEnableAggregationWindowResultCache()) {
+      LOGGER.info(
+          "AggregationWindowResultCache size = {}",
+          CONFIG.getAggregationWindowResultCacheSizeInByte());
+    }
+    lruCache =
+        Caffeine.newBuilder()
+            .maximumWeight(CONFIG.getAggregationWindowResultCacheSizeInByte())
+            .weigher(
+                (Weigher<WindowKey, WindowResult>)
+                    (key, value) ->
+                        (int) (key.getRetainedSizeInBytes() + value.getRetainedSizeInBytes()))
+            .recordStats()
+            .build();
+  }
+
+  public static AggregationWindowResultCache getInstance() {
+    return AggregationWindowResultCacheHolder.INSTANCE;
+  }
+
+  public boolean isEnabled() {
+    return CONFIG.isEnableAggregationWindowResultCache();
+  }
+
+  /**
+   * @param scanSignature identifies the series, aggregations and filters of the scan
+   * @param dataVersion version of the data covering the window
+   * @return the cached one row result of the window, or null if absent or stale
+   */
+  public TsBlock get(String scanSignature, long startTime, long endTime, long dataVersion) {
+    WindowResult result = lruCache.getIfPresent(new WindowKey(scanSignature, startTime, endTime));
+    return result == null || result.dataVersion != dataVersion ? null : result.tsBlock;
+  }
+
+  public void put(
+      String scanSignature, long startTime, long endTime, long dataVersion, TsBlock tsBlock) {
+    lruCache.put(
+        new WindowKey(scanSignature, startTime, endTime), new WindowResult(dataVersion, tsBlock));
+  }
+
+  public double getHitRate() {
+    return lruCache.stats().hitRate() * 100;
+  }
+
+  /** clear LRUCache. */
+  public void clear() {
+    lruCache.invalidateAll();
+    lruCache.cleanUp();
+  }
+
+  @TestOnly
+  public long size() {
+    return lruCache.estimatedSize();
+  }
+
+  private static class WindowKey {
+
+    private static final long INSTANCE_SIZE =
+        ClassLayout.parseClass(WindowKey.class).instanceSize();
+
+    private final String scanSignature;
+    private final long startTime;
+    private final long endTime;
+
+    private WindowKey(String scanSignature, long startTime, long endTime) {
+      this.scanSignature = scanSignature;
+      this.startTime = startTime;
+      this.endTime = endTime;
+    }
+
+    private long getRetainedSizeInBytes() {
+      return INSTANCE_SIZE + sizeOfCharArray(scanSignature.length());
+    }
+
+    @Override
+    public boolean equals(Object o) {
+      if (this == o) {
+        return true;
+      }
+      if (o == null || getClass() != o.getClass()) {
+        return false;
+      }
+      WindowKey that = (WindowKey) o;
+      return startTime == that.startTime
+          && endTime == that.endTime
+          && scanSignature.equals(that.scanSignature);
+    }
+
+    @Override
+    public int hashCode() {
+      return Objects.hash(scanSignature, startTime, endTime);
+    }
+  }
+
+  private static class WindowResult {
+
+    private static final long INSTANCE_SIZE =
+        ClassLayout.parseClass(WindowResult.class).instanceSize();
+
+    private final long dataVersion;
+    private final TsBlock tsBlock;
+
+    private WindowResult(long dataVersion, TsBlock tsBlock) {
+      this.dataVersion = dataVersion;
+      this.tsBlock = tsBlock;
+    }
+
+    private long getRetainedSizeInBytes() {
+      return INSTANCE_SIZE + tsBlock.getRetainedSizeInBytes();
+    }
+  }
+
+  private static class AggregationWindowResultCacheHolder {
+
+    private static final AggregationWindowResultCache INSTANCE = new AggregationWindowResultCache();
+  }
+}
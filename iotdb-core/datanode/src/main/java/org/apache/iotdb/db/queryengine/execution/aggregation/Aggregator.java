@@ -121,6 +121,18 @@ public class Aggregator {
     }
   }
 
+  /** Whether the statistics can be processed by {@link #processStatistics}. */
+  public boolean canUseStatistics(Statistics timeStatistics, Statistics[] valueStatistics) {
+    for (InputLocation[] inputLocations : inputLocationList) {
+      int valueIndex = inputLocations[0].getValueColumnIndex();
+      if (!accumulator.canAddStatistics(
+          valueIndex == -1 ? timeStatistics : valueStatistics[valueIndex])) {
+        return false;
+      }
+    }
+    return true;
+  }
+
   /** Used for SeriesAggregateScanOperator. */
   public void processStatistics(Statistics timeStatistics, Statistics[] valueStatistics) {
     long startTime = System.nanoTime();
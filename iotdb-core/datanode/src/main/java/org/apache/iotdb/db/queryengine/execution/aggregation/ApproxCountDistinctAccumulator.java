@@ -0,0 +1,181 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.iotdb.db.queryengine.execution.aggregation;
+
+import org.apache.iotdb.tsfile.file.metadata.enums.TSDataType;
+import org.apache.iotdb.tsfile.file.metadata.statistics.ExtendedStatistics;
+import org.apache.iotdb.tsfile.file.metadata.statistics.Statistics;
+import org.apache.iotdb.tsfile.read.common.block.column.Column;
+import org.apache.iotdb.tsfile.read.common.block.column.ColumnBuilder;
+import org.apache.iotdb.tsfile.utils.Binary;
+import org.apache.iotdb.tsfile.utils.BitMap;
+import org.apache.iotdb.tsfile.utils.HyperLogLog;
+import org.apache.iotdb.tsfile.utils.PublicBAOS;
+
+import com.google.common.hash.HashFunction;
+import com.google.common.hash.Hashing;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+
+import static com.google.common.base.Preconditions.checkArgument;
+
+/**
+ * Estimates the number of distinct values with a {@link HyperLogLog}. The registers are the
+ * intermediate result, so partial results of different regions and series can be merged.
+ *
+ * <p>Numeric values are hashed as doubles, the same as the distinct counter of statistics.
+ */
+public class ApproxCountDistinctAccumulator implements Accumulator {
+
+  private static final HashFunction BINARY_HASH = Hashing.murmur3_128();
+
+  private final TSDataType seriesDataType;
+
+  private HyperLogLog hyperLogLog = new HyperLogLog();
+
+  /** The estimated count set by {@link #setFinal(Column)}, which cannot be merged any more. */
+  private long finalCount = -1;
+
+  public ApproxCountDistinctAccumulator(TSDataType seriesDataType) {
+    this.seriesDataType = seriesDataType;
+  }
+
+  @Override
+  public void addInput(Column[] column, BitMap bitMap, int lastIndex) {
+    for (int i = 0; i <= lastIndex; i++) {
+      if (bitMap != null && !bitMap.isMarked(i)) {
+        continue;
+      }
+      if (!column[1].isNull(i)) {
+        addValue(column[1], i);
+      }
+    }
+  }
+
+  private void addValue(Column column, int position) {
+    switch (seriesDataType) {
+      case INT32:
+        hyperLogLog.update(column.getInt(position));
+        return;
+      case INT64:
+        hyperLogLog.update((double) column.getLong(position));
+        return;
+      case FLOAT:
+        hyperLogLog.update(column.getFloat(position));
+        return;
+      case DOUBLE:
+        hyperLogLog.update(column.getDouble(position));
+        return;
+      case BOOLEAN:
+        hyperLogLog.update(column.getBoolean(position) ? 1.0 : 0.0);
+        return;
+      case TEXT:
+        hyperLogLog.updateHash(
+            BINARY_HASH.hashBytes(column.getBinary(position).getValues()).asLong());
+        return;
+      default:
+        throw new UnsupportedOperationException(
+            String.format(
+                "Unsupported data type in aggregation approx_count_distinct : %s", seriesDataType));
+    }
+  }
+
+  @Override
+  public void addIntermediate(Column[] partialResult) {
+    checkArgument(partialResult.length == 1, "partialResult of approx_count_distinct should be 1");
+    if (partialResult[0].isNull(0)) {
+      return;
+    }
+    byte[] bytes = partialResult[0].getBinary(0).getValues();
+    hyperLogLog.merge(HyperLogLog.deserialize(ByteBuffer.wrap(bytes)));
+  }
+
+  @Override
+  public boolean canAddStatistics(Statistics statistics) {
+    return statistics == null || statistics.getExtendedStatistics() != null;
+  }
+
+  @Override
+  public void addStatistics(Statistics statistics) {
+    if (statistics == null) {
+      return;
+    }
+    ExtendedStatistics extendedStatistics = statistics.getExtendedStatistics();
+    if (extendedStatistics == null) {
+      throw new UnsupportedOperationException(getClass().getName());
+    }
+    hyperLogLog.merge(extendedStatistics.getDistinctCounter());
+  }
+
+  @Override
+  public void setFinal(Column finalResult) {
+    reset();
+    if (finalResult.isNull(0)) {
+      return;
+    }
+    finalCount = finalResult.getLong(0);
+  }
+
+  @Override
+  public void outputIntermediate(ColumnBuilder[] columnBuilders) {
+    checkArgument(columnBuilders.length == 1, "partialResult of approx_count_distinct should be 1");
+    if (hyperLogLog.isEmpty()) {
+      columnBuilders[0].appendNull();
+      return;
+    }
+    PublicBAOS out = new PublicBAOS(hyperLogLog.getSerializedSize());
+    try {
+      hyperLogLog.serialize(out);
+    } catch (IOException e) {
+      // in-memory stream, which never throws
+      throw new UncheckedIOException(e);
+    }
+    columnBuilders[0].writeBinary(new Binary(Arrays.copyOf(out.getBuf(), out.size())));
+  }
+
+  @Override
+  public void outputFinal(ColumnBuilder columnBuilder) {
+    columnBuilder.writeLong(finalCount >= 0 ? finalCount : hyperLogLog.cardinality());
+  }
+
+  @Override
+  public void reset() {
+    hyperLogLog = new HyperLogLog();
+    finalCount = -1;
+  }
+
+  @Override
+  public boolean hasFinalResult() {
+    return false;
+  }
+
+  @Override
+  public TSDataType[] getIntermediateType() {
+    return new TSDataType[] {TSDataType.TEXT};
+  }
+
+  @Override
+  public TSDataType getFinalType() {
+    return TSDataType.INT64;
+  }
+}
@@ -0,0 +1,216 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.iotdb.db.queryengine.execution.aggregation;
+
+import org.apache.iotdb.tsfile.exception.write.UnSupportedDataTypeException;
+import org.apache.iotdb.tsfile.file.metadata.enums.TSDataType;
+import org.apache.iotdb.tsfile.file.metadata.statistics.ExtendedStatistics;
+import org.apache.iotdb.tsfile.file.metadata.statistics.Statistics;
+import org.apache.iotdb.tsfile.read.common.block.column.Column;
+import org.apache.iotdb.tsfile.read.common.block.column.ColumnBuilder;
+import org.apache.iotdb.tsfile.utils.Binary;
+import org.apache.iotdb.tsfile.utils.BitMap;
+import org.apache.iotdb.tsfile.utils.PublicBAOS;
+import org.apache.iotdb.tsfile.utils.QuantileSketch;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+
+import static com.google.common.base.Preconditions.checkArgument;
+
+/**
+ * Estimates the value at the given rank with a {@link QuantileSketch}, whose relative error is
+ * bounded by {@link QuantileSketch#DEFAULT_RELATIVE_ACCURACY}. The sketch is the intermediate
+ * result, so partial results of different regions and series can be merged.
+ */
+public class ApproxPercentileAccumulator implements Accumulator {
+
+  private final TSDataType seriesDataType;
+
+  private final double rank;
+
+  private QuantileSketch sketch = new QuantileSketch();
+
+  /** The estimated value set by {@link #setFinal(Column)}, which cannot be merged any more. */
+  private boolean hasFinalValue;
+
+  private double finalValue;
+
+  public ApproxPercentileAccumulator(TSDataType seriesDataType, double rank) {
+    this.seriesDataType = seriesDataType;
+    this.rank = rank;
+  }
+
+  @Override
+  public void addInput(Column[] column, BitMap bitMap, int lastIndex) {
+    switch (seriesDataType) {
+      case INT32:
+        addIntInput(column, bitMap, lastIndex);
+        return;
+      case INT64:
+        addLongInput(column, bitMap, lastIndex);
+        return;
+      case FLOAT:
+        addFloatInput(column, bitMap, lastIndex);
+        return;
+      case DOUBLE:
+        addDoubleInput(column, bitMap, lastIndex);
+        return;
+      case TEXT:
+      case BOOLEAN:
+      default:
+        throw new UnSupportedDataTypeException(
+            String.format(
+                "Unsupported data type in aggregation approx_percentile : %s", seriesDataType));
+    }
+  }
+
+  @Override
+  public void addIntermediate(Column[] partialResult) {
+    checkArgument(partialResult.length == 1, "partialResult of approx_percentile should be 1");
+    if (partialResult[0].isNull(0)) {
+      return;
+    }
+    byte[] bytes = partialResult[0].getBinary(0).getValues();
+    sketch.merge(QuantileSketch.deserialize(ByteBuffer.wrap(bytes)));
+  }
+
+  @Override
+  public boolean canAddStatistics(Statistics statistics) {
+    return statistics == null || statistics.getExtendedStatistics() != null;
+  }
+
+  @Override
+  public void addStatistics(Statistics statistics) {
+    if (statistics == null) {
+      return;
+    }
+    ExtendedStatistics extendedStatistics = statistics.getExtendedStatistics();
+    if (extendedStatistics == null) {
+      throw new UnsupportedOperationException(getClass().getName());
+    }
+    sketch.merge(extendedStatistics.getQuantileSketch());
+  }
+
+  @Override
+  public void setFinal(Column finalResult) {
+    reset();
+    if (finalResult.isNull(0)) {
+      return;
+    }
+    hasFinalValue = true;
+    finalValue = finalResult.getDouble(0);
+  }
+
+  @Override
+  public void outputIntermediate(ColumnBuilder[] columnBuilders) {
+    checkArgument(columnBuilders.length == 1, "partialResult of approx_percentile should be 1");
+    if (sketch.isEmpty()) {
+      columnBuilders[0].appendNull();
+      return;
+    }
+    PublicBAOS out = new PublicBAOS(sketch.getSerializedSize());
+    try {
+      sketch.serialize(out);
+    } catch (IOException e) {
+      // in-memory stream, which never throws
+      throw new UncheckedIOException(e);
+    }
+    columnBuilders[0].writeBinary(new Binary(Arrays.copyOf(out.getBuf(), out.size())));
+  }
+
+  @Override
+  public void outputFinal(ColumnBuilder columnBuilder) {
+    if (hasFinalValue) {
+      columnBuilder.writeDouble(finalValue);
+    } else if (sketch.isEmpty()) {
+      columnBuilder.appendNull();
+    } else {
+      columnBuilder.writeDouble(sketch.getQuantile(rank));
+    }
+  }
+
+  @Override
+  public void reset() {
+    sketch = new QuantileSketch();
+    hasFinalValue = false;
+  }
+
+  @Override
+  public boolean hasFinalResult() {
+    return false;
+  }
+
+  @Override
+  public TSDataType[] getIntermediateType() {
+    return new TSDataType[] {TSDataType.TEXT};
+  }
+
+  @Override
+  public TSDataType getFinalType() {
+    return TSDataType.DOUBLE;
+  }
+
+  private void addIntInput(Column[] columns, BitMap bitmap, int lastIndex) {
+    for (int i = 0; i <= lastIndex; i++) {
+      if (bitmap != null && !bitmap.isMarked(i)) {
+        continue;
+      }
+      if (!columns[1].isNull(i)) {
+        sketch.update(columns[1].getInt(i));
+      }
+    }
+  }
+
+  private void addLongInput(Column[] columns, BitMap bitmap, int lastIndex) {
+    for (int i = 0; i <= lastIndex; i++) {
+      if (bitmap != null && !bitmap.isMarked(i)) {
+        continue;
+      }
+      if (!columns[1].isNull(i)) {
+        sketch.update(columns[1].getLong(i));
+      }
+    }
+  }
+
+  private void addFloatInput(Column[] columns, BitMap bitmap, int lastIndex) {
+    for (int i = 0; i <= lastIndex; i++) {
+      if (bitmap != null && !bitmap.isMarked(i)) {
+        continue;
+      }
+      if (!columns[1].isNull(i)) {
+        sketch.update(columns[1].getFloat(i));
+      }
+    }
+  }
+
+  private void addDoubleInput(Column[] columns, BitMap bitmap, int lastIndex) {
+    for (int i = 0; i <= lastIndex; i++) {
+      if (bitmap != null && !bitmap.isMarked(i)) {
+        continue;
+      }
+      if (!columns[1].isNull(i)) {
+        sketch.update(columns[1].getDouble(i));
+      }
+    }
+  }
+}
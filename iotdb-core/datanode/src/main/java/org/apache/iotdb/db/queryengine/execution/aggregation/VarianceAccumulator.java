@@ -21,6 +21,7 @@ package org.apache.iotdb.db.queryengine.execution.aggregation;
 
 import org.apache.iotdb.tsfile.exception.write.UnSupportedDataTypeException;
 import org.apache.iotdb.tsfile.file.metadata.enums.TSDataType;
+import org.apache.iotdb.tsfile.file.metadata.statistics.ExtendedStatistics;
 import org.apache.iotdb.tsfile.file.metadata.statistics.Statistics;
 import org.apache.iotdb.tsfile.read.common.block.column.Column;
 import org.apache.iotdb.tsfile.read.common.block.column.ColumnBuilder;
@@ -86,7 +87,10 @@ public class VarianceAccumulator implements Accumulator {
     long intermediateCount = BytesUtils.bytesToLong(bytes, Long.BYTES);
     double intermediateMean = BytesUtils.bytesToDouble(bytes, Long.BYTES);
     double intermediateM2 = BytesUtils.bytesToDouble(bytes, (Long.BYTES + Double.BYTES));
+    merge(intermediateCount, intermediateMean, intermediateM2);
+  }
 
+  private void merge(long intermediateCount, double intermediateMean, double intermediateM2) {
     long newCount = count + intermediateCount;
     double newMean = ((intermediateCount * intermediateMean) + (count * mean)) / newCount;
     double delta = intermediateMean - mean;
@@ -117,9 +121,26 @@ public class VarianceAccumulator implements Accumulator {
     mean = newMean;
   }
 
+  @Override
+  public boolean canAddStatistics(Statistics statistics) {
+    return statistics == null || statistics.getExtendedStatistics() != null;
+  }
+
   @Override
   public void addStatistics(Statistics statistics) {
-    throw new UnsupportedOperationException(getClass().getName());
+    if (statistics == null) {
+      return;
+    }
+    ExtendedStatistics extendedStatistics = statistics.getExtendedStatistics();
+    if (extendedStatistics == null) {
+      throw new UnsupportedOperationException(getClass().getName());
+    }
+    if (extendedStatistics.getCount() == 0) {
+      return;
+    }
+    // the centered M2 is merged as it is, so no precision is lost by cancellation
+    merge(
+        extendedStatistics.getCount(), extendedStatistics.getMean(), extendedStatistics.getM2());
   }
 
   @Override
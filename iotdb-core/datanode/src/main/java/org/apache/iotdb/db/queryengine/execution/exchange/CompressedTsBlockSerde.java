@@ -0,0 +1,277 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.iotdb.db.queryengine.execution.exchange;
+
+import org.apache.iotdb.tsfile.compress.ICompressor;
+import org.apache.iotdb.tsfile.compress.IUnCompressor;
+import org.apache.iotdb.tsfile.file.metadata.enums.CompressionType;
+import org.apache.iotdb.tsfile.file.metadata.enums.TSDataType;
+import org.apache.iotdb.tsfile.read.common.block.TsBlock;
+import org.apache.iotdb.tsfile.read.common.block.column.BinaryColumn;
+import org.apache.iotdb.tsfile.read.common.block.column.Column;
+import org.apache.iotdb.tsfile.read.common.block.column.ColumnEncoder;
+import org.apache.iotdb.tsfile.read.common.block.column.ColumnEncoderFactory;
+import org.apache.iotdb.tsfile.read.common.block.column.ColumnEncoding;
+import org.apache.iotdb.tsfile.read.common.block.column.TimeColumn;
+import org.apache.iotdb.tsfile.utils.Binary;
+import org.apache.iotdb.tsfile.utils.PublicBAOS;
+import org.apache.iotdb.tsfile.utils.ReadWriteForEncodingUtils;
+
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Serde of the TsBlocks pulled from a remote SinkChannel when the SourceHandle asks for
+ * compression. Unlike {@link org.apache.iotdb.tsfile.read.common.block.column.TsBlockSerde}, whose
+ * format is shared with clients, this format is only used between DataNodes: the time column is
+ * delta encoded, TEXT columns with few distinct values are dictionary encoded, and the whole block
+ * is then compressed.
+ */
+public class CompressedTsBlockSerde {
+
+  // Column modes
+  private static final byte PLAIN = 0;
+  private static final byte DELTA = 1;
+  private static final byte DICTIONARY = 2;
+
+  /** TEXT columns are dictionary encoded only if each value repeats at least twice on average. */
+  private static final int MIN_VALUES_PER_DICTIONARY_ENTRY = 2;
+
+  /**
+   * Serialize a tsblock.
+   *
+   * @param tsBlock The tsblock to serialize.
+   * @param compressionType The compressor asked by the receiver.
+   * @return Serialized tsblock.
+   */
+  public ByteBuffer serialize(TsBlock tsBlock, CompressionType compressionType) throws IOException {
+
+    // Serialized tsblock:
+    //    +------------------+-------------------+--------------------+
+    //    | compression type | uncompressed size | compressed payload |
+    //    +------------------+-------------------+--------------------+
+    //    | byte             | int32             | bytes              |
+    //    +------------------+-------------------+--------------------+
+    // Payload:
+    //    +-------------+---------------+---------+-----------+----------+
+    //    | val col cnt | val col types | pos cnt | time col  | val col  |
+    //    +-------------+---------------+---------+-----------+----------+
+    //    | int32       | list[byte]    | int32   | bytes     | bytes    |
+    //    +-------------+---------------+---------+-----------+----------+
+    // Each column starts with its mode, PLAIN columns are written by their ColumnEncoder.
+
+    PublicBAOS payload = new PublicBAOS((int) tsBlock.getRetainedSizeInBytes());
+    DataOutputStream dataOutputStream = new DataOutputStream(payload);
+
+    dataOutputStream.writeInt(tsBlock.getValueColumnCount());
+    for (int i = 0; i < tsBlock.getValueColumnCount(); i++) {
+      tsBlock.getColumn(i).getDataType().serializeTo(dataOutputStream);
+    }
+    dataOutputStream.writeInt(tsBlock.getPositionCount());
+
+    writeTimeColumn(dataOutputStream, tsBlock.getTimeColumn());
+    for (int i = 0; i < tsBlock.getValueColumnCount(); i++) {
+      writeValueColumn(dataOutputStream, tsBlock.getColumn(i));
+    }
+
+    byte[] compressed =
+        compressionType == CompressionType.UNCOMPRESSED
+            ? null
+            : ICompressor.getCompressor(compressionType)
+                .compress(payload.getBuf(), 0, payload.size());
+    ByteBuffer result;
+    if (compressed != null && compressed.length < payload.size()) {
+      result = ByteBuffer.allocate(Byte.BYTES + Integer.BYTES + compressed.length);
+      result.put(compressionType.serialize());
+      result.putInt(payload.size());
+      result.put(compressed);
+    } else {
+      // not compressed or not worth compressing
+      result = ByteBuffer.allocate(Byte.BYTES + Integer.BYTES + payload.size());
+      result.put(CompressionType.UNCOMPRESSED.serialize());
+      result.putInt(payload.size());
+      result.put(payload.getBuf(), 0, payload.size());
+    }
+    result.flip();
+    return result;
+  }
+
+  /**
+   * Deserialize a tsblock.
+   *
+   * @param byteBuffer serialized tsblock.
+   * @return Deserialized tsblock.
+   */
+  public TsBlock deserialize(ByteBuffer byteBuffer) {
+    CompressionType type = CompressionType.deserialize(byteBuffer.get());
+    int uncompressedSize = byteBuffer.getInt();
+    ByteBuffer payload;
+    if (type == CompressionType.UNCOMPRESSED) {
+      payload = byteBuffer.slice();
+    } else {
+      byte[] compressed = new byte[byteBuffer.remaining()];
+      byteBuffer.get(compressed);
+      byte[] uncompressed = new byte[uncompressedSize];
+      try {
+        IUnCompressor.getUnCompressor(type)
+            .uncompress(compressed, 0, compressed.length, uncompressed, 0);
+      } catch (IOException e) {
+        throw new UncheckedIOException("Failed to uncompress TsBlock", e);
+      }
+      payload = ByteBuffer.wrap(uncompressed);
+    }
+
+    int valueColumnCount = payload.getInt();
+    List<TSDataType> valueColumnDataTypes = new ArrayList<>(valueColumnCount);
+    for (int i = 0; i < valueColumnCount; i++) {
+      valueColumnDataTypes.add(TSDataType.deserializeFrom(payload));
+    }
+    int positionCount = payload.getInt();
+
+    TimeColumn timeColumn = readTimeColumn(payload, positionCount);
+    Column[] valueColumns = new Column[valueColumnCount];
+    for (int i = 0; i < valueColumnCount; i++) {
+      valueColumns[i] = readValueColumn(payload, valueColumnDataTypes.get(i), positionCount);
+    }
+    return new TsBlock(positionCount, timeColumn, valueColumns);
+  }
+
+  private static void writeTimeColumn(DataOutputStream output, TimeColumn timeColumn)
+      throws IOException {
+    int positionCount = timeColumn.getPositionCount();
+    // Timestamps are sorted, so deltas between them are small unless the gap exceeds an int
+    boolean deltaFitsInt = true;
+    for (int i = 1; i < positionCount && deltaFitsInt; i++) {
+      long delta = timeColumn.getLong(i) - timeColumn.getLong(i - 1);
+      deltaFitsInt = delta >= Integer.MIN_VALUE && delta <= Integer.MAX_VALUE;
+    }
+    if (positionCount == 0 || !deltaFitsInt) {
+      output.writeByte(PLAIN);
+      ColumnEncoderFactory.get(ColumnEncoding.INT64_ARRAY).writeColumn(output, timeColumn);
+      return;
+    }
+    output.writeByte(DELTA);
+    output.writeLong(timeColumn.getLong(0));
+    for (int i = 1; i < positionCount; i++) {
+      ReadWriteForEncodingUtils.writeVarInt(
+          (int) (timeColumn.getLong(i) - timeColumn.getLong(i - 1)), output);
+    }
+  }
+
+  private static TimeColumn readTimeColumn(ByteBuffer input, int positionCount) {
+    byte mode = input.get();
+    if (mode == PLAIN) {
+      return ColumnEncoderFactory.get(ColumnEncoding.INT64_ARRAY)
+          .readTimeColumn(input, positionCount);
+    }
+    long[] times = new long[positionCount];
+    times[0] = input.getLong();
+    for (int i = 1; i < positionCount; i++) {
+      times[i] = times[i - 1] + ReadWriteForEncodingUtils.readVarInt(input);
+    }
+    return new TimeColumn(positionCount, times);
+  }
+
+  private static void writeValueColumn(DataOutputStream output, Column column) throws IOException {
+    if (column.getDataType() == TSDataType.TEXT
+        && column.getEncoding() == ColumnEncoding.BINARY_ARRAY
+        && writeDictionaryColumn(output, column)) {
+      return;
+    }
+    output.writeByte(PLAIN);
+    column.getEncoding().serializeTo(output);
+    ColumnEncoderFactory.get(column.getEncoding()).writeColumn(output, column);
+  }
+
+  /**
+   * Write the TEXT column in DICTIONARY mode.
+   *
+   * @return false if the column has too many distinct values and nothing is written
+   */
+  private static boolean writeDictionaryColumn(DataOutputStream output, Column column)
+      throws IOException {
+    int positionCount = column.getPositionCount();
+    Map<Binary, Integer> dictionary = new HashMap<>();
+    List<Binary> entries = new ArrayList<>();
+    int[] ids = new int[positionCount];
+    int nonNullCount = 0;
+    for (int i = 0; i < positionCount; i++) {
+      if (column.isNull(i)) {
+        continue;
+      }
+      nonNullCount++;
+      Binary value = column.getBinary(i);
+      Integer id = dictionary.get(value);
+      if (id == null) {
+        id = entries.size();
+        dictionary.put(value, id);
+        entries.add(value);
+      }
+      ids[i] = id;
+    }
+    if (nonNullCount == 0
+        || (long) entries.size() * MIN_VALUES_PER_DICTIONARY_ENTRY > nonNullCount) {
+      return false;
+    }
+
+    output.writeByte(DICTIONARY);
+    ColumnEncoder.serializeNullIndicators(output, column);
+    ReadWriteForEncodingUtils.writeUnsignedVarInt(entries.size(), output);
+    for (Binary entry : entries) {
+      output.writeInt(entry.getLength());
+      output.write(entry.getValues());
+    }
+    for (int i = 0; i < positionCount; i++) {
+      if (!column.isNull(i)) {
+        ReadWriteForEncodingUtils.writeUnsignedVarInt(ids[i], output);
+      }
+    }
+    return true;
+  }
+
+  private static Column readValueColumn(ByteBuffer input, TSDataType dataType, int positionCount) {
+    byte mode = input.get();
+    if (mode == PLAIN) {
+      return ColumnEncoderFactory.get(ColumnEncoding.deserializeFrom(input))
+          .readColumn(input, dataType, positionCount);
+    }
+    boolean[] nullIndicators = ColumnEncoder.deserializeNullIndicators(input, positionCount);
+    Binary[] entries = new Binary[ReadWriteForEncodingUtils.readUnsignedVarInt(input)];
+    for (int i = 0; i < entries.length; i++) {
+      byte[] bytes = new byte[input.getInt()];
+      input.get(bytes);
+      entries[i] = new Binary(bytes);
+    }
+    Binary[] values = new Binary[positionCount];
+    for (int i = 0; i < positionCount; i++) {
+      if (nullIndicators == null || !nullIndicators[i]) {
+        values[i] = entries[ReadWriteForEncodingUtils.readUnsignedVarInt(input)];
+      }
+    }
+    return new BinaryColumn(positionCount, Optional.ofNullable(nullIndicators), values);
+  }
+}
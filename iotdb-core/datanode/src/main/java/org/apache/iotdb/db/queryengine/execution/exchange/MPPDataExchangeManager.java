@@ -49,6 +49,7 @@ import org.apache.iotdb.mpp.rpc.thrift.TFragmentInstanceId;
 import org.apache.iotdb.mpp.rpc.thrift.TGetDataBlockRequest;
 import org.apache.iotdb.mpp.rpc.thrift.TGetDataBlockResponse;
 import org.apache.iotdb.mpp.rpc.thrift.TNewDataBlockEvent;
+import org.apache.iotdb.tsfile.file.metadata.enums.CompressionType;
 import org.apache.iotdb.tsfile.read.common.block.column.TsBlockSerde;
 
 import org.apache.commons.lang3.Validate;
@@ -114,9 +115,20 @@ public class MPPDataExchangeManager implements IMPPDataExchangeManager {
         }
         // index of the channel must be a SinkChannel
         SinkChannel sinkChannel = (SinkChannel) (sinkHandle.getChannel(req.getIndex()));
+        // The caller asks for the compressed exchange format, callers of old versions never set it
+        CompressionType compressionType =
+            req.isSetCompressionType()
+                ? CompressionType.deserialize(req.getCompressionType())
+                : null;
+        if (compressionType != null) {
+          resp.setCompressed(true);
+        }
         for (int i = req.getStartSequenceId(); i < req.getEndSequenceId(); i++) {
           try {
-            ByteBuffer serializedTsBlock = sinkChannel.getSerializedTsBlock(i);
+            ByteBuffer serializedTsBlock =
+                compressionType != null
+                    ? sinkChannel.getSerializedTsBlock(i, compressionType)
+                    : sinkChannel.getSerializedTsBlock(i);
             resp.addToTsBlocks(serializedTsBlock);
           } catch (GetTsBlockFromClosedOrAbortedChannelException e) {
             // Return an empty block list to indicate that getting data block failed this time.
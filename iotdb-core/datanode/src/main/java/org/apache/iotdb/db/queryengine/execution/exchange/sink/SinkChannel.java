@@ -26,6 +26,7 @@ import org.apache.iotdb.commons.utils.TestOnly;
 import org.apache.iotdb.db.conf.IoTDBDescriptor;
 import org.apache.iotdb.db.queryengine.common.FragmentInstanceId;
 import org.apache.iotdb.db.queryengine.exception.exchange.GetTsBlockFromClosedOrAbortedChannelException;
+import org.apache.iotdb.db.queryengine.execution.exchange.CompressedTsBlockSerde;
 import org.apache.iotdb.db.queryengine.execution.exchange.MPPDataExchangeManager.SinkListener;
 import org.apache.iotdb.db.queryengine.execution.memory.LocalMemoryManager;
 import org.apache.iotdb.db.queryengine.metric.DataExchangeCostMetricSet;
@@ -35,6 +36,7 @@ import org.apache.iotdb.mpp.rpc.thrift.TEndOfDataBlockEvent;
 import org.apache.iotdb.mpp.rpc.thrift.TFragmentInstanceId;
 import org.apache.iotdb.mpp.rpc.thrift.TNewDataBlockEvent;
 import org.apache.iotdb.tsfile.common.conf.TSFileDescriptor;
+import org.apache.iotdb.tsfile.file.metadata.enums.CompressionType;
 import org.apache.iotdb.tsfile.read.common.block.TsBlock;
 import org.apache.iotdb.tsfile.read.common.block.column.TsBlockSerde;
 import org.apache.iotdb.tsfile.utils.Pair;
@@ -58,6 +60,7 @@ import static com.google.common.util.concurrent.Futures.immediateVoidFuture;
 import static com.google.common.util.concurrent.Futures.nonCancellationPropagating;
 import static org.apache.iotdb.db.queryengine.common.FragmentInstanceId.createFullId;
 import static org.apache.iotdb.db.queryengine.metric.DataExchangeCostMetricSet.SEND_NEW_DATA_BLOCK_EVENT_TASK_CALLER;
+import static org.apache.iotdb.db.queryengine.metric.DataExchangeCostMetricSet.SINK_HANDLE_COMPRESS_TSBLOCK_REMOTE;
 import static org.apache.iotdb.db.queryengine.metric.DataExchangeCostMetricSet.SINK_HANDLE_SEND_TSBLOCK_REMOTE;
 import static org.apache.iotdb.db.queryengine.metric.DataExchangeCountMetricSet.SEND_NEW_DATA_BLOCK_NUM_CALLER;
 
@@ -79,6 +82,7 @@ public class SinkChannel implements ISinkChannel {
   private final LocalMemoryManager localMemoryManager;
   private final ExecutorService executorService;
   private final TsBlockSerde serde;
+  private static final CompressedTsBlockSerde COMPRESSED_SERDE = new CompressedTsBlockSerde();
   private final SinkListener sinkListener;
   private final String threadName;
   private long retryIntervalInMs;
@@ -322,6 +326,26 @@ public class SinkChannel implements ISinkChannel {
   }
 
   public synchronized ByteBuffer getSerializedTsBlock(int sequenceId) throws IOException {
+    return serde.serialize(getTsBlock(sequenceId));
+  }
+
+  /**
+   * Get the TsBlock serialized in the compressed exchange format, which is only used when the
+   * SourceHandle asks for it.
+   */
+  public synchronized ByteBuffer getSerializedTsBlock(
+      int sequenceId, CompressionType compressionType) throws IOException {
+    TsBlock tsBlock = getTsBlock(sequenceId);
+    long startTime = System.nanoTime();
+    ByteBuffer serializedTsBlock = COMPRESSED_SERDE.serialize(tsBlock, compressionType);
+    DATA_EXCHANGE_COST_METRIC_SET.recordDataExchangeCost(
+        SINK_HANDLE_COMPRESS_TSBLOCK_REMOTE, System.nanoTime() - startTime);
+    DATA_EXCHANGE_COUNT_METRIC_SET.recordTsBlockCompressionRatio(
+        tsBlock.getRetainedSizeInBytes(), serializedTsBlock.remaining());
+    return serializedTsBlock;
+  }
+
+  private TsBlock getTsBlock(int sequenceId) {
     if (aborted || closed) {
       if (LOGGER.isDebugEnabled()) {
         LOGGER.debug(
@@ -339,7 +363,7 @@ public class SinkChannel implements ISinkChannel {
           sequenceIdToTsBlock.entrySet());
       throw new IllegalStateException("The data block doesn't exist. Sequence ID: " + sequenceId);
     }
-    return serde.serialize(pair.left);
+    return pair.left;
   }
 
   public void acknowledgeTsBlock(int startSequenceId, int endSequenceId) {
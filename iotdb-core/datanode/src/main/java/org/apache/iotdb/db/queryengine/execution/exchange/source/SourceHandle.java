@@ -22,9 +22,11 @@ package org.apache.iotdb.db.queryengine.execution.exchange.source;
 import org.apache.iotdb.common.rpc.thrift.TEndPoint;
 import org.apache.iotdb.commons.client.IClientManager;
 import org.apache.iotdb.commons.client.sync.SyncDataNodeMPPDataExchangeServiceClient;
+import org.apache.iotdb.commons.exception.IoTDBException;
 import org.apache.iotdb.commons.utils.TestOnly;
 import org.apache.iotdb.db.conf.IoTDBDescriptor;
 import org.apache.iotdb.db.queryengine.common.FragmentInstanceId;
+import org.apache.iotdb.db.queryengine.execution.exchange.CompressedTsBlockSerde;
 import org.apache.iotdb.db.queryengine.execution.exchange.MPPDataExchangeManager.SourceHandleListener;
 import org.apache.iotdb.db.queryengine.execution.memory.LocalMemoryManager;
 import org.apache.iotdb.db.queryengine.metric.DataExchangeCostMetricSet;
@@ -35,6 +37,7 @@ import org.apache.iotdb.mpp.rpc.thrift.TCloseSinkChannelEvent;
 import org.apache.iotdb.mpp.rpc.thrift.TFragmentInstanceId;
 import org.apache.iotdb.mpp.rpc.thrift.TGetDataBlockRequest;
 import org.apache.iotdb.mpp.rpc.thrift.TGetDataBlockResponse;
+import org.apache.iotdb.rpc.TSStatusCode;
 import org.apache.iotdb.tsfile.read.common.block.TsBlock;
 import org.apache.iotdb.tsfile.read.common.block.column.TsBlockSerde;
 import org.apache.iotdb.tsfile.utils.Pair;
@@ -79,6 +82,7 @@ public class SourceHandle implements ISourceHandle {
   private final LocalMemoryManager localMemoryManager;
   private final ExecutorService executorService;
   private final TsBlockSerde serde;
+  private static final CompressedTsBlockSerde COMPRESSED_SERDE = new CompressedTsBlockSerde();
   private final SourceHandleListener sourceHandleListener;
 
   private final Map<Integer, Long> sequenceIdToDataBlockSize = new HashMap<>();
@@ -104,6 +108,9 @@ public class SourceHandle implements ISourceHandle {
 
   private boolean closed = false;
 
+  /** Whether the remote SinkChannel sends TsBlocks in the compressed exchange format. */
+  private boolean compressedTsBlocks = false;
+
   /** max bytes this SourceHandle can reserve. */
   private long maxBytesCanReserve =
       IoTDBDescriptor.getInstance().getConfig().getMaxBytesPerFragmentInstance();
@@ -159,11 +166,13 @@ public class SourceHandle implements ISourceHandle {
 
   @Override
   public synchronized TsBlock receive() {
-    ByteBuffer tsBlock = getSerializedTsBlock();
+    ByteBuffer tsBlock = pollSerializedTsBlock();
     if (tsBlock != null) {
       long startTime = System.nanoTime();
       try {
-        return serde.deserialize(tsBlock);
+        return compressedTsBlocks
+            ? COMPRESSED_SERDE.deserialize(tsBlock)
+            : serde.deserialize(tsBlock);
       } finally {
         DATA_EXCHANGE_COST_METRIC_SET.recordDataExchangeCost(
             SOURCE_HANDLE_DESERIALIZE_TSBLOCK_REMOTE, System.nanoTime() - startTime);
@@ -174,7 +183,24 @@ public class SourceHandle implements ISourceHandle {
   }
 
   @Override
-  public synchronized ByteBuffer getSerializedTsBlock() {
+  public synchronized ByteBuffer getSerializedTsBlock() throws IoTDBException {
+    ByteBuffer tsBlock = pollSerializedTsBlock();
+    if (tsBlock == null || !compressedTsBlocks) {
+      return tsBlock;
+    }
+    // the result is sent to the client, which only knows the format of TsBlockSerde
+    long startTime = System.nanoTime();
+    try {
+      return serde.serialize(COMPRESSED_SERDE.deserialize(tsBlock));
+    } catch (Exception e) {
+      throw new IoTDBException(e, TSStatusCode.TSBLOCK_SERIALIZE_ERROR.getStatusCode());
+    } finally {
+      DATA_EXCHANGE_COST_METRIC_SET.recordDataExchangeCost(
+          SOURCE_HANDLE_DESERIALIZE_TSBLOCK_REMOTE, System.nanoTime() - startTime);
+    }
+  }
+
+  private ByteBuffer pollSerializedTsBlock() {
     long startTime = System.nanoTime();
     try (SetThreadName sourceHandleName = new SetThreadName(threadName)) {
       checkState();
@@ -523,6 +549,10 @@ public class SourceHandle implements ISourceHandle {
                 startSequenceId,
                 endSequenceId,
                 indexOfUpstreamSinkHandle);
+        if (IoTDBDescriptor.getInstance().getConfig().isEnableMppDataExchangeCompression()) {
+          req.setCompressionType(
+              IoTDBDescriptor.getInstance().getConfig().getMppDataExchangeCompressor().serialize());
+        }
         int attempt = 0;
         while (attempt < MAX_ATTEMPT_TIMES) {
           attempt += 1;
@@ -559,6 +589,8 @@ public class SourceHandle implements ISourceHandle {
               if (aborted || closed) {
                 return;
               }
+              // remote DataNodes of old versions ignore the compression type in the request
+              compressedTsBlocks = resp.isCompressed();
               for (int i = startSequenceId; i < endSequenceId; i++) {
                 sequenceIdToTsBlock.put(i, tsBlocks.get(i - startSequenceId));
               }
@@ -70,7 +70,8 @@ public class FragmentInstanceContext extends QueryContext {
   private boolean mayHaveTmpFile = false;
 
   private final AtomicLong startNanos = new AtomicLong();
-  private final AtomicLong endNanos = new AtomicLong();
+  /** when the drivers produced their last block, or when this instance is done if earlier */
+  private final AtomicLong driversEndNanos = new AtomicLong();
 
   private final AtomicReference<Long> executionStartTime = new AtomicReference<>();
   private final AtomicReference<Long> lastExecutionStartTime = new AtomicReference<>();
@@ -227,7 +228,7 @@ public class FragmentInstanceContext extends QueryContext {
       // use compare and set from initial value to avoid overwriting if there
       // were a duplicate notification, which shouldn't happen
       executionEndTime.compareAndSet(END_TIME_INITIAL_VALUE, now);
-      endNanos.compareAndSet(0, System.nanoTime());
+      driversEndNanos.compareAndSet(0, System.nanoTime());
     }
   }
 
@@ -259,6 +260,7 @@ public class FragmentInstanceContext extends QueryContext {
   }
 
   public void transitionToFlushing() {
+    driversEndNanos.compareAndSet(0, System.nanoTime());
     stateMachine.transitionToFlushing();
   }
 
@@ -279,6 +281,20 @@ public class FragmentInstanceContext extends QueryContext {
     return executionStartTime.get();
   }
 
+  /**
+   * @return the time from the start of this instance until its drivers produced their last block,
+   *     or until now if they are still running. Waiting for the sink to be drained by the consumer
+   *     is excluded.
+   */
+  public long getExecutionTimeInNanos() {
+    long start = startNanos.get();
+    if (start == 0) {
+      return 0;
+    }
+    long end = driversEndNanos.get();
+    return (end == 0 ? System.nanoTime() : end) - start;
+  }
+
   public DataNodeQueryContext getDataNodeQueryContext() {
     return dataNodeQueryContext;
   }
@@ -316,6 +332,11 @@ public class FragmentInstanceContext extends QueryContext {
     this.sourcePaths = sourcePaths;
   }
 
+  /** @return true if this instance scans series of its data region */
+  public boolean hasSourcePaths() {
+    return sourcePaths != null && !sourcePaths.isEmpty();
+  }
+
   public void initQueryDataSource(List<PartialPath> sourcePaths) throws QueryProcessException {
     if (sourcePaths == null) {
       return;
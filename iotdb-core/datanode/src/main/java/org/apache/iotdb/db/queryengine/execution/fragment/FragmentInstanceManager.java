@@ -37,6 +37,7 @@ import org.apache.iotdb.db.queryengine.plan.planner.PipelineDriverFactory;
 import org.apache.iotdb.db.queryengine.plan.planner.plan.FragmentInstance;
 import org.apache.iotdb.db.schemaengine.schemaregion.ISchemaRegion;
 import org.apache.iotdb.db.storageengine.dataregion.IDataRegionForQuery;
+import org.apache.iotdb.db.storageengine.dataregion.compaction.schedule.CompactionThrottler;
 import org.apache.iotdb.db.utils.SetThreadName;
 
 import io.airlift.stats.CounterStat;
@@ -173,6 +174,17 @@ public class FragmentInstanceManager {
                   // get the sink of last driver
                   ISink sink = drivers.get(drivers.size() - 1).getSink();
 
+                  if (context.hasSourcePaths() && !instance.isHighestPriority()) {
+                    // sample the instances scanning local data, which compete with compaction
+                    stateMachine.addStateChangeListener(
+                        newState -> {
+                          if (newState == FragmentInstanceState.FINISHED) {
+                            CompactionThrottler.getInstance()
+                                .recordQueryLatency(context.getExecutionTimeInNanos());
+                          }
+                        });
+                  }
+
                   return createFragmentInstanceExecution(
                       scheduler,
                       instanceId,
@@ -21,13 +21,12 @@ package org.apache.iotdb.db.queryengine.execution.fragment;
 
 import org.apache.iotdb.commons.path.AlignedPath;
 import org.apache.iotdb.commons.path.PartialPath;
-import org.apache.iotdb.commons.path.PatternTreeMap;
+import org.apache.iotdb.db.storageengine.buffer.ModificationCache;
+import org.apache.iotdb.db.storageengine.buffer.ModificationCache.FileModifications;
 import org.apache.iotdb.db.storageengine.dataregion.modification.Modification;
 import org.apache.iotdb.db.storageengine.dataregion.modification.ModificationFile;
 import org.apache.iotdb.db.storageengine.dataregion.tsfile.TsFileID;
 import org.apache.iotdb.db.storageengine.dataregion.tsfile.TsFileResource;
-import org.apache.iotdb.db.utils.datastructure.PatternTreeMapFactory;
-import org.apache.iotdb.db.utils.datastructure.PatternTreeMapFactory.ModsSerializer;
 import org.apache.iotdb.tsfile.file.metadata.IChunkMetadata;
 
 import java.util.ArrayList;
@@ -42,12 +41,12 @@ import java.util.Set;
 public class QueryContext {
 
   /**
-   * The key is the path of a ModificationFile and the value is all Modifications in this file. We
-   * use this field because each call of Modification.getModifications() return a copy of the
-   * Modifications, and we do not want it to create multiple copies within a query.
+   * The key is the path of a ModificationFile and the value is all Modifications in this file,
+   * which are got from the node-wide {@link ModificationCache} when the file is first used by this
+   * query. We keep them in the query so that all the paths of a query see the same Modifications
+   * even if the file is modified during the query.
    */
-  private final Map<String, PatternTreeMap<Modification, ModsSerializer>> fileModCache =
-      new HashMap<>();
+  private final Map<String, FileModifications> fileModCache = new HashMap<>();
 
   protected long queryId;
 
@@ -92,16 +91,10 @@ public class QueryContext {
       return Collections.emptyList();
     }
 
-    PatternTreeMap<Modification, ModsSerializer> allModifications =
-        fileModCache.get(modFile.getFilePath());
-    if (allModifications == null) {
-      allModifications = PatternTreeMapFactory.getModsPatternTreeMap();
-      for (Modification modification : modFile.getModificationsIter()) {
-        allModifications.append(modification.getPath(), modification);
-      }
-      fileModCache.put(modFile.getFilePath(), allModifications);
-    }
-    return ModificationFile.sortAndMerge(allModifications.getOverlapped(path));
+    FileModifications fileModifications =
+        fileModCache.computeIfAbsent(
+            modFile.getFilePath(), k -> ModificationCache.getInstance().get(modFile));
+    return fileModifications.getPathModifications(path);
   }
 
   /**
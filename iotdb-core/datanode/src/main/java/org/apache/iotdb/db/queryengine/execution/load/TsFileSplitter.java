@@ -326,7 +326,7 @@ public class TsFileSplitter {
     }
 
     byte versionNumber = reader.readVersionNumber();
-    if (versionNumber != TSFileConfig.VERSION_NUMBER) {
+    if (!TSFileConfig.isSupportedVersionNumber(versionNumber)) {
       logger.error("the file's Version Number is incorrect, file path: {}", reader.getFileName());
       return false;
     }
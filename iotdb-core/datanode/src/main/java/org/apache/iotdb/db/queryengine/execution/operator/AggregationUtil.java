@@ -224,6 +224,24 @@ public class AggregationUtil {
             * timeValueColumnsSizePerLine);
   }
 
+  /** Calculate the max result size by the output types of the given aggregators. */
+  public static long calculateMaxAggregationResultSize(
+      List<Aggregator> aggregators, ITimeRangeIterator timeRangeIterator) {
+    long timeValueColumnsSizePerLine = TimeColumn.SIZE_IN_BYTES_PER_POSITION;
+    for (Aggregator aggregator : aggregators) {
+      for (TSDataType tsDataType : aggregator.getOutputType()) {
+        timeValueColumnsSizePerLine += getOutputColumnSizePerLine(tsDataType);
+      }
+    }
+
+    return Math.min(
+        DEFAULT_MAX_TSBLOCK_SIZE_IN_BYTES,
+        Math.min(
+                TSFileDescriptor.getInstance().getConfig().getMaxTsBlockLineNumber(),
+                timeRangeIterator.getTotalIntervalNum())
+            * timeValueColumnsSizePerLine);
+  }
+
   public static long calculateMaxAggregationResultSizeForLastQuery(List<Aggregator> aggregators) {
     long timeValueColumnsSizePerLine = TimeColumn.SIZE_IN_BYTES_PER_POSITION;
     List<TSDataType> outPutDataTypes =
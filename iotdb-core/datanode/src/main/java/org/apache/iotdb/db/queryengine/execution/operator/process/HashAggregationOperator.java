@@ -0,0 +1,625 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.iotdb.db.queryengine.execution.operator.process;
+
+import org.apache.iotdb.common.rpc.thrift.TAggregationType;
+import org.apache.iotdb.db.queryengine.execution.aggregation.timerangeiterator.ITimeRangeIterator;
+import org.apache.iotdb.db.queryengine.execution.operator.Operator;
+import org.apache.iotdb.db.queryengine.execution.operator.OperatorContext;
+import org.apache.iotdb.db.queryengine.plan.planner.plan.parameter.AggregationStep;
+import org.apache.iotdb.db.queryengine.plan.planner.plan.parameter.InputLocation;
+import org.apache.iotdb.tsfile.common.conf.TSFileConfig;
+import org.apache.iotdb.tsfile.common.conf.TSFileDescriptor;
+import org.apache.iotdb.tsfile.file.metadata.enums.TSDataType;
+import org.apache.iotdb.tsfile.read.common.block.TsBlock;
+import org.apache.iotdb.tsfile.read.common.block.TsBlockBuilder;
+import org.apache.iotdb.tsfile.read.common.block.column.Column;
+import org.apache.iotdb.tsfile.read.common.block.column.ColumnBuilder;
+import org.apache.iotdb.tsfile.read.common.block.column.TimeColumnBuilder;
+import org.apache.iotdb.tsfile.utils.Binary;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static com.google.common.base.Preconditions.checkArgument;
+
+/**
+ * {@link HashAggregationOperator} is a replacement of {@link AggregationOperator} for GROUP BY
+ * LEVEL queries, and of {@link TagAggregationOperator} for GROUP BY TAG queries, that merge the
+ * partial results of many series into a few groups.
+ *
+ * <p>Instead of one {@link org.apache.iotdb.db.queryengine.execution.aggregation.Aggregator} per
+ * output column consuming one row at a time, input columns are resolved once through an
+ * open-addressing table to dense column ids, every distinct input column is read once per batch,
+ * and the values are folded column by column into flat per-group state arrays covering all the time
+ * windows of the batch. Only COUNT, SUM, AVG, MIN_VALUE and MAX_VALUE over partial input are
+ * supported, see {@link #isSupported}.
+ *
+ * <p>For GROUP BY LEVEL, each group is one output column. For GROUP BY TAG, each group is one
+ * aggregation of one tag value list, and each time window outputs one row per tag value list, made
+ * of the tag values followed by its aggregations. Aggregations absent for a tag value list output
+ * null.
+ */
+public class HashAggregationOperator extends AbstractConsumeAllOperator {
+
+  private static final int UNUSED_COLUMN = -1;
+
+  private final ITimeRangeIterator timeRangeIterator;
+
+  // Per output group: aggregation kind, series data type and whether intermediate result is output
+  // Aggregation type is null if the aggregation is absent for the tag values of the group
+  private final TAggregationType[] aggregationTypes;
+  private final TSDataType[] seriesDataTypes;
+  private final boolean[] outputPartial;
+
+  // Distinct input columns, indexed by the dense column id assigned by the group table
+  private final int[] inputTsBlockIndexes;
+  private final int[] inputValueColumnIndexes;
+  private final Column[] inputColumns;
+
+  // One feed per (group, input series) pair, the second column is only used by AVG
+  private final int[] feedGroups;
+  private final int[] feedFirstColumns;
+  private final int[] feedSecondColumns;
+
+  // Flat group state, the state of group g on row r of current batch is at g * batchSize + r
+  private long[] longStates = new long[0];
+  private double[] doubleStates = new double[0];
+  private boolean[] hasValues = new boolean[0];
+
+  private final int groupCount;
+  private final int maxBatchSize;
+
+  // Tag values of each output row of one time window, null for GROUP BY LEVEL
+  private final Binary[][] tagValues;
+  // Output rows of one time window and aggregations of each row, group = row * aggregationCount +
+  // aggregation
+  private final int rowsPerWindow;
+  private final int aggregationCount;
+  // Number of output columns of each aggregation
+  private final int[] outputColumnCounts;
+
+  // Using for building result tsBlock
+  private final TsBlockBuilder resultTsBlockBuilder;
+
+  private final long maxRetainedSize;
+  private final long childrenRetainedSize;
+  private final long maxStateSize;
+
+  /** Create the operator for GROUP BY LEVEL, each group is one output column. */
+  public HashAggregationOperator(
+      OperatorContext operatorContext,
+      List<TAggregationType> aggregationTypes,
+      List<AggregationStep> steps,
+      List<TSDataType> seriesDataTypes,
+      List<List<InputLocation[]>> inputLocationLists,
+      ITimeRangeIterator timeRangeIterator,
+      List<Operator> children,
+      long maxReturnSize) {
+    this(
+        operatorContext,
+        null,
+        aggregationTypes,
+        steps,
+        seriesDataTypes,
+        inputLocationLists,
+        timeRangeIterator,
+        children,
+        maxReturnSize);
+  }
+
+  /**
+   * Create the operator for GROUP BY TAG. The aggregations of the i-th tag value list are the
+   * groups from i * n to (i + 1) * n - 1, where n is the number of aggregations per row, and the
+   * aggregation type, step and data type of absent aggregations are null.
+   *
+   * @param tagValues tag values of each output row of one time window, null for GROUP BY LEVEL
+   */
+  public HashAggregationOperator(
+      OperatorContext operatorContext,
+      List<List<String>> tagValues,
+      List<TAggregationType> aggregationTypes,
+      List<AggregationStep> steps,
+      List<TSDataType> seriesDataTypes,
+      List<List<InputLocation[]>> inputLocationLists,
+      ITimeRangeIterator timeRangeIterator,
+      List<Operator> children,
+      long maxReturnSize) {
+    super(operatorContext, children);
+    checkArgument(
+        aggregationTypes.size() == steps.size()
+            && aggregationTypes.size() == seriesDataTypes.size()
+            && aggregationTypes.size() == inputLocationLists.size(),
+        "Size of aggregation types, steps, data types and input locations should be the same");
+    this.timeRangeIterator = timeRangeIterator;
+    this.groupCount = aggregationTypes.size();
+    this.aggregationTypes = aggregationTypes.toArray(new TAggregationType[0]);
+    this.seriesDataTypes = seriesDataTypes.toArray(new TSDataType[0]);
+    this.outputPartial = new boolean[groupCount];
+
+    List<TSDataType> outputDataTypes = new ArrayList<>();
+    if (tagValues == null) {
+      this.tagValues = null;
+      this.rowsPerWindow = 1;
+    } else {
+      checkArgument(
+          !tagValues.isEmpty() && groupCount % tagValues.size() == 0,
+          "Size of aggregation types should be a multiple of the size of tag values");
+      this.tagValues = new Binary[tagValues.size()][];
+      for (int row = 0; row < tagValues.size(); row++) {
+        this.tagValues[row] = toBinaries(tagValues.get(row));
+      }
+      this.rowsPerWindow = tagValues.size();
+      for (int i = 0; i < this.tagValues[0].length; i++) {
+        outputDataTypes.add(TSDataType.TEXT);
+      }
+    }
+    this.aggregationCount = groupCount / rowsPerWindow;
+
+    int feedCount = 0;
+    for (int i = 0; i < groupCount; i++) {
+      if (this.aggregationTypes[i] == null) {
+        continue;
+      }
+      checkArgument(
+          isSupported(this.aggregationTypes[i], steps.get(i), this.seriesDataTypes[i]),
+          "Unsupported aggregation for HashAggregationOperator: " + this.aggregationTypes[i]);
+      outputPartial[i] = steps.get(i).isOutputPartial();
+      feedCount += inputLocationLists.get(i).size();
+    }
+    // The output types of an aggregation are decided by the first row where it is present
+    this.outputColumnCounts = new int[aggregationCount];
+    for (int aggregation = 0; aggregation < aggregationCount; aggregation++) {
+      for (int row = 0; row < rowsPerWindow; row++) {
+        int group = row * aggregationCount + aggregation;
+        if (this.aggregationTypes[group] != null) {
+          List<TSDataType> dataTypes = getOutputDataTypes(group);
+          outputColumnCounts[aggregation] = dataTypes.size();
+          outputDataTypes.addAll(dataTypes);
+          break;
+        }
+      }
+    }
+    this.resultTsBlockBuilder = new TsBlockBuilder(outputDataTypes);
+
+    // Build the group table, AVG has two input columns for each series
+    InputColumnTable columnTable = new InputColumnTable(feedCount * 2);
+    this.feedGroups = new int[feedCount];
+    this.feedFirstColumns = new int[feedCount];
+    this.feedSecondColumns = new int[feedCount];
+    int feedIndex = 0;
+    for (int i = 0; i < groupCount; i++) {
+      if (this.aggregationTypes[i] == null) {
+        continue;
+      }
+      for (InputLocation[] inputLocations : inputLocationLists.get(i)) {
+        feedGroups[feedIndex] = i;
+        feedFirstColumns[feedIndex] = columnTable.putIfAbsent(inputLocations[0]);
+        feedSecondColumns[feedIndex] =
+            inputLocations.length > 1 ? columnTable.putIfAbsent(inputLocations[1]) : UNUSED_COLUMN;
+        feedIndex++;
+      }
+    }
+    this.inputTsBlockIndexes = Arrays.copyOf(columnTable.tsBlockIndexes, columnTable.size);
+    this.inputValueColumnIndexes = Arrays.copyOf(columnTable.valueColumnIndexes, columnTable.size);
+    this.inputColumns = new Column[columnTable.size];
+
+    this.maxBatchSize = TSFileDescriptor.getInstance().getConfig().getMaxTsBlockLineNumber();
+    // long state, double state and hasValue flag of each group on each row
+    this.maxStateSize = (long) groupCount * maxBatchSize * (Long.BYTES + Double.BYTES + 1);
+    this.childrenRetainedSize =
+        children.stream().mapToLong(Operator::calculateRetainedSizeAfterCallingNext).sum();
+    this.maxRetainedSize =
+        childrenRetainedSize == 0
+            ? 0
+            : children.stream().mapToLong(Operator::calculateMaxReturnSize).sum();
+    this.maxReturnSize = maxReturnSize;
+  }
+
+  private static Binary[] toBinaries(List<String> values) {
+    Binary[] binaries = new Binary[values.size()];
+    for (int i = 0; i < binaries.length; i++) {
+      String value = values.get(i) == null ? "NULL" : values.get(i);
+      binaries[i] = new Binary(value, TSFileConfig.STRING_CHARSET);
+    }
+    return binaries;
+  }
+
+  /** Whether the aggregation can be computed by {@link HashAggregationOperator}. */
+  public static boolean isSupported(
+      TAggregationType aggregationType, AggregationStep step, TSDataType seriesDataType) {
+    if (!step.isInputPartial()) {
+      return false;
+    }
+    switch (aggregationType) {
+      case COUNT:
+      case SUM:
+      case AVG:
+        return true;
+      case MIN_VALUE:
+      case MAX_VALUE:
+        return seriesDataType == TSDataType.INT32
+            || seriesDataType == TSDataType.INT64
+            || seriesDataType == TSDataType.FLOAT
+            || seriesDataType == TSDataType.DOUBLE;
+      default:
+        return false;
+    }
+  }
+
+  private List<TSDataType> getOutputDataTypes(int group) {
+    switch (aggregationTypes[group]) {
+      case COUNT:
+        return Arrays.asList(TSDataType.INT64);
+      case SUM:
+        return Arrays.asList(TSDataType.DOUBLE);
+      case AVG:
+        return outputPartial[group]
+            ? Arrays.asList(TSDataType.INT64, TSDataType.DOUBLE)
+            : Arrays.asList(TSDataType.DOUBLE);
+      case MIN_VALUE:
+      case MAX_VALUE:
+        return Arrays.asList(seriesDataTypes[group]);
+      default:
+        throw new IllegalArgumentException("Invalid Aggregation Type: " + aggregationTypes[group]);
+    }
+  }
+
+  @Override
+  public long calculateMaxPeekMemory() {
+    return maxReturnSize + maxRetainedSize + childrenRetainedSize + maxStateSize;
+  }
+
+  @Override
+  public long calculateMaxReturnSize() {
+    return maxReturnSize;
+  }
+
+  @Override
+  public long calculateRetainedSizeAfterCallingNext() {
+    return maxRetainedSize + childrenRetainedSize;
+  }
+
+  @Override
+  public boolean hasNext() throws Exception {
+    return timeRangeIterator.hasNextTimeRange();
+  }
+
+  @Override
+  public TsBlock next() throws Exception {
+    // Start stopwatch
+    long maxRuntime = operatorContext.getMaxRunTime().roundTo(TimeUnit.NANOSECONDS);
+    long start = System.nanoTime();
+
+    while (System.nanoTime() - start < maxRuntime
+        && timeRangeIterator.hasNextTimeRange()
+        && !resultTsBlockBuilder.isFull()) {
+      if (!prepareInput()) {
+        break;
+      }
+      calculateNextAggregationResults();
+    }
+
+    if (resultTsBlockBuilder.getPositionCount() > 0) {
+      TsBlock resultTsBlock = resultTsBlockBuilder.build();
+      resultTsBlockBuilder.reset();
+      return resultTsBlock;
+    } else {
+      return null;
+    }
+  }
+
+  @Override
+  public boolean isFinished() throws Exception {
+    return !this.hasNextWithTimer();
+  }
+
+  private void calculateNextAggregationResults() {
+    // Every input row belongs to one time window, consume as many windows as all inputs can offer
+    int batchSize = getRemainingCapacity();
+    boolean hasInput = false;
+    for (int i = 0; i < inputOperatorsCount; i++) {
+      if (inputTsBlocks[i] != null) {
+        batchSize = Math.min(batchSize, inputTsBlocks[i].getPositionCount());
+        hasInput = true;
+      }
+    }
+    if (!hasInput) {
+      // All children are finished, output empty result for the next time window
+      batchSize = 1;
+    }
+
+    for (int i = 0; i < inputColumns.length; i++) {
+      TsBlock tsBlock = inputTsBlocks[inputTsBlockIndexes[i]];
+      inputColumns[i] = tsBlock == null ? null : tsBlock.getColumn(inputValueColumnIndexes[i]);
+    }
+    resetStates(batchSize);
+    for (int feed = 0; feed < feedGroups.length; feed++) {
+      addInput(feed, batchSize);
+    }
+    Arrays.fill(inputColumns, null);
+
+    for (int i = 0; i < inputOperatorsCount; i++) {
+      if (inputTsBlocks[i] != null) {
+        inputTsBlocks[i] = inputTsBlocks[i].subTsBlock(batchSize);
+        if (inputTsBlocks[i].isEmpty()) {
+          inputTsBlocks[i] = null;
+        }
+      }
+    }
+
+    outputResults(batchSize);
+  }
+
+  private int getRemainingCapacity() {
+    return Math.max(1, (maxBatchSize - resultTsBlockBuilder.getPositionCount()) / rowsPerWindow);
+  }
+
+  private void resetStates(int batchSize) {
+    int stateSize = groupCount * batchSize;
+    if (longStates.length < stateSize) {
+      longStates = new long[stateSize];
+      doubleStates = new double[stateSize];
+      hasValues = new boolean[stateSize];
+    } else {
+      Arrays.fill(longStates, 0, stateSize, 0L);
+      Arrays.fill(doubleStates, 0, stateSize, 0.0);
+      Arrays.fill(hasValues, 0, stateSize, false);
+    }
+  }
+
+  private void addInput(int feed, int batchSize) {
+    Column column = inputColumns[feedFirstColumns[feed]];
+    if (column == null) {
+      return;
+    }
+    int group = feedGroups[feed];
+    int offset = group * batchSize;
+    switch (aggregationTypes[group]) {
+      case COUNT:
+        addCountInput(column, offset, batchSize);
+        break;
+      case SUM:
+        addSumInput(column, offset, batchSize);
+        break;
+      case AVG:
+        addAvgInput(column, inputColumns[feedSecondColumns[feed]], offset, batchSize);
+        break;
+      case MIN_VALUE:
+        addExtremeInput(column, seriesDataTypes[group], offset, batchSize, false);
+        break;
+      case MAX_VALUE:
+        addExtremeInput(column, seriesDataTypes[group], offset, batchSize, true);
+        break;
+      default:
+        throw new IllegalArgumentException("Invalid Aggregation Type: " + aggregationTypes[group]);
+    }
+  }
+
+  private void addCountInput(Column column, int offset, int batchSize) {
+    for (int row = 0; row < batchSize; row++) {
+      if (!column.isNull(row)) {
+        longStates[offset + row] += column.getLong(row);
+      }
+    }
+  }
+
+  private void addSumInput(Column column, int offset, int batchSize) {
+    for (int row = 0; row < batchSize; row++) {
+      if (!column.isNull(row)) {
+        doubleStates[offset + row] += column.getDouble(row);
+        hasValues[offset + row] = true;
+      }
+    }
+  }
+
+  private void addAvgInput(Column countColumn, Column sumColumn, int offset, int batchSize) {
+    for (int row = 0; row < batchSize; row++) {
+      if (!countColumn.isNull(row)) {
+        longStates[offset + row] += countColumn.getLong(row);
+        doubleStates[offset + row] += sumColumn.getDouble(row);
+      }
+    }
+  }
+
+  private void addExtremeInput(
+      Column column, TSDataType dataType, int offset, int batchSize, boolean isMax) {
+    switch (dataType) {
+      case INT32:
+      case INT64:
+        for (int row = 0; row < batchSize; row++) {
+          if (column.isNull(row)) {
+            continue;
+          }
+          long value = dataType == TSDataType.INT32 ? column.getInt(row) : column.getLong(row);
+          int index = offset + row;
+          if (!hasValues[index]
+              || (isMax ? value > longStates[index] : value < longStates[index])) {
+            longStates[index] = value;
+            hasValues[index] = true;
+          }
+        }
+        break;
+      case FLOAT:
+      case DOUBLE:
+        for (int row = 0; row < batchSize; row++) {
+          if (column.isNull(row)) {
+            continue;
+          }
+          double value =
+              dataType == TSDataType.FLOAT ? column.getFloat(row) : column.getDouble(row);
+          int index = offset + row;
+          if (!hasValues[index]
+              || (isMax ? value > doubleStates[index] : value < doubleStates[index])) {
+            doubleStates[index] = value;
+            hasValues[index] = true;
+          }
+        }
+        break;
+      default:
+        throw new UnsupportedOperationException(
+            String.format("Unsupported data type: %s", dataType));
+    }
+  }
+
+  private void outputResults(int batchSize) {
+    TimeColumnBuilder timeColumnBuilder = resultTsBlockBuilder.getTimeColumnBuilder();
+    ColumnBuilder[] columnBuilders = resultTsBlockBuilder.getValueColumnBuilders();
+    for (int row = 0; row < batchSize && timeRangeIterator.hasNextTimeRange(); row++) {
+      timeRangeIterator.nextTimeRange();
+      // Use start time of current time range as time column
+      long time = timeRangeIterator.currentOutputTime();
+      for (int outputRow = 0; outputRow < rowsPerWindow; outputRow++) {
+        timeColumnBuilder.writeLong(time);
+        int columnIndex = 0;
+        if (tagValues != null) {
+          for (Binary tagValue : tagValues[outputRow]) {
+            columnBuilders[columnIndex++].writeBinary(tagValue);
+          }
+        }
+        for (int aggregation = 0; aggregation < aggregationCount; aggregation++) {
+          int group = outputRow * aggregationCount + aggregation;
+          columnIndex = outputResult(group, group * batchSize + row, columnBuilders, columnIndex);
+        }
+        resultTsBlockBuilder.declarePosition();
+      }
+    }
+  }
+
+  private int outputResult(int group, int index, ColumnBuilder[] columnBuilders, int columnIndex) {
+    if (aggregationTypes[group] == null) {
+      for (int i = 0; i < outputColumnCounts[group % aggregationCount]; i++) {
+        columnBuilders[columnIndex++].appendNull();
+      }
+      return columnIndex;
+    }
+    switch (aggregationTypes[group]) {
+      case COUNT:
+        columnBuilders[columnIndex++].writeLong(longStates[index]);
+        break;
+      case SUM:
+        if (hasValues[index]) {
+          columnBuilders[columnIndex++].writeDouble(doubleStates[index]);
+        } else {
+          columnBuilders[columnIndex++].appendNull();
+        }
+        break;
+      case AVG:
+        if (outputPartial[group]) {
+          if (longStates[index] != 0) {
+            columnBuilders[columnIndex++].writeLong(longStates[index]);
+            columnBuilders[columnIndex++].writeDouble(doubleStates[index]);
+          } else {
+            columnBuilders[columnIndex++].appendNull();
+            columnBuilders[columnIndex++].appendNull();
+          }
+        } else if (longStates[index] != 0) {
+          columnBuilders[columnIndex++].writeDouble(doubleStates[index] / longStates[index]);
+        } else {
+          columnBuilders[columnIndex++].appendNull();
+        }
+        break;
+      case MIN_VALUE:
+      case MAX_VALUE:
+        ColumnBuilder columnBuilder = columnBuilders[columnIndex++];
+        if (!hasValues[index]) {
+          columnBuilder.appendNull();
+          break;
+        }
+        switch (seriesDataTypes[group]) {
+          case INT32:
+            columnBuilder.writeInt((int) longStates[index]);
+            break;
+          case INT64:
+            columnBuilder.writeLong(longStates[index]);
+            break;
+          case FLOAT:
+            columnBuilder.writeFloat((float) doubleStates[index]);
+            break;
+          case DOUBLE:
+            columnBuilder.writeDouble(doubleStates[index]);
+            break;
+          default:
+            throw new UnsupportedOperationException(
+                String.format("Unsupported data type: %s", seriesDataTypes[group]));
+        }
+        break;
+      default:
+        throw new IllegalArgumentException("Invalid Aggregation Type: " + aggregationTypes[group]);
+    }
+    return columnIndex;
+  }
+
+  /**
+   * Open-addressing table from input location, packed as (tsBlockIndex, valueColumnIndex) into one
+   * long, to dense column id. Different groups may read the same input column, e.g. the count
+   * column is shared by COUNT and AVG, so that every input column is only read once.
+   */
+  private static class InputColumnTable {
+
+    private static final long EMPTY_KEY = -1L;
+
+    private final long[] keys;
+    private final int[] ids;
+    private final int mask;
+
+    private final int[] tsBlockIndexes;
+    private final int[] valueColumnIndexes;
+    private int size;
+
+    private InputColumnTable(int maxSize) {
+      // Keep load factor under 0.5
+      int capacity = Integer.highestOneBit(Math.max(1, maxSize)) << 2;
+      this.keys = new long[capacity];
+      Arrays.fill(keys, EMPTY_KEY);
+      this.ids = new int[capacity];
+      this.mask = capacity - 1;
+      this.tsBlockIndexes = new int[maxSize];
+      this.valueColumnIndexes = new int[maxSize];
+    }
+
+    private int putIfAbsent(InputLocation inputLocation) {
+      long key =
+          ((long) inputLocation.getTsBlockIndex() << 32)
+              | (inputLocation.getValueColumnIndex() & 0xFFFFFFFFL);
+      int slot = hash(key) & mask;
+      while (keys[slot] != EMPTY_KEY) {
+        if (keys[slot] == key) {
+          return ids[slot];
+        }
+        slot = (slot + 1) & mask;
+      }
+      keys[slot] = key;
+      ids[slot] = size;
+      tsBlockIndexes[size] = inputLocation.getTsBlockIndex();
+      valueColumnIndexes[size] = inputLocation.getValueColumnIndex();
+      return size++;
+    }
+
+    private static int hash(long key) {
+      key ^= key >>> 33;
+      key *= 0xff51afd7ed558ccdL;
+      key ^= key >>> 33;
+      return (int) key;
+    }
+  }
+}
@@ -0,0 +1,126 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.iotdb.db.queryengine.execution.operator.process;
+
+import org.apache.iotdb.db.queryengine.execution.operator.Operator;
+import org.apache.iotdb.db.queryengine.execution.operator.OperatorContext;
+import org.apache.iotdb.tsfile.read.common.block.TsBlock;
+
+import com.google.common.util.concurrent.ListenableFuture;
+
+import java.util.List;
+
+/**
+ * The {@link OrderedConcatOperator} outputs all the TsBlocks of its first child, then all the
+ * TsBlocks of the second one and so on. It is used to merge the scans of one series over disjoint
+ * time ranges, the children are given in the scan order and the later ones may run in their own
+ * pipelines meanwhile.
+ */
+public class OrderedConcatOperator implements ProcessOperator {
+
+  private final OperatorContext operatorContext;
+  private final List<Operator> children;
+
+  private int childIndex;
+
+  public OrderedConcatOperator(OperatorContext operatorContext, List<Operator> children) {
+    this.operatorContext = operatorContext;
+    this.children = children;
+    this.childIndex = 0;
+  }
+
+  @Override
+  public OperatorContext getOperatorContext() {
+    return operatorContext;
+  }
+
+  @Override
+  public ListenableFuture<?> isBlocked() {
+    if (childIndex >= children.size()) {
+      return NOT_BLOCKED;
+    }
+    ListenableFuture<?> blocked = children.get(childIndex).isBlocked();
+    if (!blocked.isDone()) {
+      return blocked;
+    }
+    return NOT_BLOCKED;
+  }
+
+  @Override
+  public TsBlock next() throws Exception {
+    Operator currentChild = children.get(childIndex);
+    if (!currentChild.hasNextWithTimer()) {
+      // close finished child
+      currentChild.close();
+      children.set(childIndex, null);
+      // increment index, move to next child
+      childIndex++;
+      return null;
+    }
+    return currentChild.nextWithTimer();
+  }
+
+  @Override
+  public boolean hasNext() throws Exception {
+    return childIndex < children.size();
+  }
+
+  @Override
+  public void close() throws Exception {
+    for (int i = childIndex, n = children.size(); i < n; i++) {
+      Operator currentChild = children.get(i);
+      if (currentChild != null) {
+        currentChild.close();
+      }
+    }
+  }
+
+  @Override
+  public boolean isFinished() throws Exception {
+    return !this.hasNextWithTimer();
+  }
+
+  @Override
+  public long calculateMaxPeekMemory() {
+    long maxPeekMemory = calculateMaxReturnSize() + calculateRetainedSizeAfterCallingNext();
+    for (Operator child : children) {
+      maxPeekMemory = Math.max(maxPeekMemory, child.calculateMaxPeekMemory());
+    }
+    return maxPeekMemory;
+  }
+
+  @Override
+  public long calculateMaxReturnSize() {
+    long maxReturnSize = 0;
+    for (Operator child : children) {
+      maxReturnSize = Math.max(maxReturnSize, child.calculateMaxReturnSize());
+    }
+    return maxReturnSize;
+  }
+
+  @Override
+  public long calculateRetainedSizeAfterCallingNext() {
+    long max = 0;
+    for (Operator child : children) {
+      max = Math.max(max, child.calculateRetainedSizeAfterCallingNext());
+    }
+    return max;
+  }
+}
@@ -19,22 +19,30 @@
 
 package org.apache.iotdb.db.queryengine.execution.operator.source;
 
+import org.apache.iotdb.db.queryengine.execution.aggregation.AggregationWindowResultCache;
 import org.apache.iotdb.db.queryengine.execution.aggregation.Aggregator;
 import org.apache.iotdb.db.queryengine.execution.aggregation.timerangeiterator.ITimeRangeIterator;
 import org.apache.iotdb.db.queryengine.execution.operator.OperatorContext;
 import org.apache.iotdb.db.queryengine.plan.planner.plan.node.PlanNodeId;
 import org.apache.iotdb.db.queryengine.plan.planner.plan.parameter.GroupByTimeParameter;
+import org.apache.iotdb.db.storageengine.dataregion.read.QueryDataSource;
+import org.apache.iotdb.db.storageengine.dataregion.tsfile.TsFileResource;
 import org.apache.iotdb.tsfile.common.conf.TSFileDescriptor;
 import org.apache.iotdb.tsfile.file.metadata.enums.TSDataType;
 import org.apache.iotdb.tsfile.file.metadata.statistics.Statistics;
 import org.apache.iotdb.tsfile.read.common.TimeRange;
 import org.apache.iotdb.tsfile.read.common.block.TsBlock;
+import org.apache.iotdb.tsfile.read.common.block.TsBlockBuilder;
+import org.apache.iotdb.tsfile.read.common.block.column.ColumnBuilder;
+import org.apache.iotdb.tsfile.read.filter.basic.Filter;
 import org.apache.iotdb.tsfile.utils.Pair;
 
 import java.io.IOException;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.concurrent.TimeUnit;
 
 import static org.apache.iotdb.db.queryengine.execution.operator.AggregationUtil.appendAggregationResult;
@@ -67,6 +75,18 @@ public abstract class AbstractSeriesAggregationScanOperator extends AbstractData
   /** Time slice for one next call in total, shared by the inner methods of the next() method */
   private long leftRuntimeOfOneNextCall;
 
+  private static final AggregationWindowResultCache WINDOW_RESULT_CACHE =
+      AggregationWindowResultCache.getInstance();
+
+  // Key of the results of this scan in AggregationWindowResultCache, null if they are not cached
+  private String windowResultCacheSignature;
+  private String deviceId;
+  private QueryDataSource queryDataSource;
+  private final Map<TsFileResource, Long> modFileSizes = new HashMap<>();
+  // Whether the result of curTimeRange can be put into AggregationWindowResultCache
+  private boolean curTimeRangeCacheable;
+  private long curTimeRangeDataVersion;
+
   @SuppressWarnings("squid:S107")
   protected AbstractSeriesAggregationScanOperator(
       PlanNodeId sourceId,
@@ -94,6 +114,25 @@ public abstract class AbstractSeriesAggregationScanOperator extends AbstractData
     this.outputEndTime = outputEndTime;
   }
 
+  /**
+   * Cache the result of every time window entirely covered by sealed TsFiles in {@link
+   * AggregationWindowResultCache}, and reuse cached results of later queries with the same scan
+   * signature.
+   *
+   * @param deviceId device of the scanned series
+   * @param scanSignature identifies the series, aggregations, order and value filter of the scan
+   */
+  public void enableWindowResultCache(String deviceId, String scanSignature) {
+    this.deviceId = deviceId;
+    this.windowResultCacheSignature = scanSignature;
+  }
+
+  @Override
+  public void initQueryDataSource(QueryDataSource dataSource) {
+    super.initQueryDataSource(dataSource);
+    this.queryDataSource = dataSource;
+  }
+
   @Override
   public long calculateMaxPeekMemory() {
     return cachedRawDataSize + maxReturnSize;
@@ -131,6 +170,10 @@ public abstract class AbstractSeriesAggregationScanOperator extends AbstractData
         for (Aggregator aggregator : aggregators) {
           aggregator.reset();
         }
+        if (calcFromWindowResultCache()) {
+          curTimeRange = null;
+          continue;
+        }
       }
 
       // calculate aggregation result on current time window
@@ -210,6 +253,87 @@ public abstract class AbstractSeriesAggregationScanOperator extends AbstractData
           timeRangeIterator.currentOutputTime(),
           curTimeRange.getMax());
     }
+    if (curTimeRangeCacheable) {
+      TsBlockBuilder windowResultBuilder = new TsBlockBuilder(1, getAggregatorOutputTypes());
+      appendAggregationResult(
+          windowResultBuilder, aggregators, timeRangeIterator.currentOutputTime());
+      WINDOW_RESULT_CACHE.put(
+          windowResultCacheSignature,
+          curTimeRange.getMin(),
+          curTimeRange.getMax(),
+          curTimeRangeDataVersion,
+          windowResultBuilder.build());
+    }
+  }
+
+  /** Return true if the result of curTimeRange is fetched from AggregationWindowResultCache. */
+  private boolean calcFromWindowResultCache() {
+    curTimeRangeCacheable = calcCurTimeRangeDataVersion();
+    if (!curTimeRangeCacheable) {
+      return false;
+    }
+    TsBlock windowResult =
+        WINDOW_RESULT_CACHE.get(
+            windowResultCacheSignature,
+            curTimeRange.getMin(),
+            curTimeRange.getMax(),
+            curTimeRangeDataVersion);
+    if (windowResult == null) {
+      return false;
+    }
+    curTimeRangeCacheable = false;
+    resultTsBlockBuilder.getTimeColumnBuilder().writeLong(timeRangeIterator.currentOutputTime());
+    ColumnBuilder[] columnBuilders = resultTsBlockBuilder.getValueColumnBuilders();
+    int columnIndex = 0;
+    if (outputEndTime) {
+      columnBuilders[columnIndex++].writeLong(curTimeRange.getMax());
+    }
+    for (int i = 0; i < windowResult.getValueColumnCount(); i++) {
+      columnBuilders[columnIndex++].write(windowResult.getColumn(i), 0);
+    }
+    resultTsBlockBuilder.declarePosition();
+    return true;
+  }
+
+  /**
+   * Calculate the version of the data covering curTimeRange from the sealed TsFiles overlapping it
+   * and their mods files, so that deletions, compactions and loads change the version.
+   *
+   * @return false if the result of curTimeRange cannot be cached, e.g. it is not covered by the
+   *     global time filter, or it may contain data in memtables or unsealed TsFiles
+   */
+  private boolean calcCurTimeRangeDataVersion() {
+    if (windowResultCacheSignature == null
+        || queryDataSource == null
+        || !WINDOW_RESULT_CACHE.isEnabled()) {
+      return false;
+    }
+    Filter globalTimeFilter = seriesScanUtil.getGlobalTimeFilter();
+    if (globalTimeFilter != null
+        && !globalTimeFilter.containStartEndTime(curTimeRange.getMin(), curTimeRange.getMax())) {
+      return false;
+    }
+    long dataVersion = 1;
+    for (List<TsFileResource> resources :
+        Arrays.asList(queryDataSource.getSeqResources(), queryDataSource.getUnseqResources())) {
+      for (TsFileResource resource : resources) {
+        if (resource.getStartTime(deviceId) > curTimeRange.getMax()) {
+          continue;
+        }
+        if (!resource.isClosed()) {
+          // the end time of unsealed TsFile is unknown
+          return false;
+        }
+        if (resource.getEndTime(deviceId) < curTimeRange.getMin()) {
+          continue;
+        }
+        long modFileSize = modFileSizes.computeIfAbsent(resource, r -> r.getModFile().getSize());
+        dataVersion = 31 * dataVersion + resource.getTsFilePath().hashCode();
+        dataVersion = 31 * dataVersion + modFileSize;
+      }
+    }
+    curTimeRangeDataVersion = dataVersion;
+    return true;
   }
 
   protected boolean calcFromCachedData() {
@@ -237,6 +361,13 @@ public abstract class AbstractSeriesAggregationScanOperator extends AbstractData
     // start stopwatch
     long start = System.nanoTime();
     while (System.nanoTime() - start < leftRuntimeOfOneNextCall && seriesScanUtil.hasNextFile()) {
+      if (ascending
+          && !seriesScanUtil.isFileOverlapped()
+          && seriesScanUtil.currentFileTimeStatistics().getEndTime() < curTimeRange.getMin()) {
+        // all the points belong to previous time windows, e.g. windows fetched from cache
+        seriesScanUtil.skipCurrentFile();
+        continue;
+      }
       if (canUseCurrentFileStatistics()) {
         Statistics fileTimeStatistics = seriesScanUtil.currentFileTimeStatistics();
         if (fileTimeStatistics.getStartTime() > curTimeRange.getMax()) {
@@ -278,6 +409,12 @@ public abstract class AbstractSeriesAggregationScanOperator extends AbstractData
     // start stopwatch
     long start = System.nanoTime();
     while (System.nanoTime() - start < leftRuntimeOfOneNextCall && seriesScanUtil.hasNextChunk()) {
+      if (ascending
+          && !seriesScanUtil.isChunkOverlapped()
+          && seriesScanUtil.currentChunkTimeStatistics().getEndTime() < curTimeRange.getMin()) {
+        seriesScanUtil.skipCurrentChunk();
+        continue;
+      }
       if (canUseCurrentChunkStatistics()) {
         Statistics chunkTimeStatistics = seriesScanUtil.currentChunkTimeStatistics();
         if (chunkTimeStatistics.getStartTime() > curTimeRange.getMax()) {
@@ -370,7 +507,8 @@ public abstract class AbstractSeriesAggregationScanOperator extends AbstractData
     Statistics fileStatistics = seriesScanUtil.currentFileTimeStatistics();
     return !seriesScanUtil.isFileOverlapped()
         && fileStatistics.containedByTimeFilter(seriesScanUtil.getGlobalTimeFilter())
-        && !seriesScanUtil.currentFileModified();
+        && !seriesScanUtil.currentFileModified()
+        && canAllAggregatorsUseStatistics(fileStatistics, seriesScanUtil::currentFileStatistics);
   }
 
   @SuppressWarnings({"squid:S3740"})
@@ -378,7 +516,8 @@ public abstract class AbstractSeriesAggregationScanOperator extends AbstractData
     Statistics chunkStatistics = seriesScanUtil.currentChunkTimeStatistics();
     return !seriesScanUtil.isChunkOverlapped()
         && chunkStatistics.containedByTimeFilter(seriesScanUtil.getGlobalTimeFilter())
-        && !seriesScanUtil.currentChunkModified();
+        && !seriesScanUtil.currentChunkModified()
+        && canAllAggregatorsUseStatistics(chunkStatistics, seriesScanUtil::currentChunkStatistics);
   }
 
   @SuppressWarnings({"squid:S3740"})
@@ -389,7 +528,40 @@ public abstract class AbstractSeriesAggregationScanOperator extends AbstractData
     }
     return !seriesScanUtil.isPageOverlapped()
         && currentPageStatistics.containedByTimeFilter(seriesScanUtil.getGlobalTimeFilter())
-        && !seriesScanUtil.currentPageModified();
+        && !seriesScanUtil.currentPageModified()
+        && canAllAggregatorsUseStatistics(
+            currentPageStatistics, seriesScanUtil::currentPageStatistics);
+  }
+
+  /**
+   * Some aggregators can only use statistics carrying extended statistics, the points should be
+   * read if any of the aggregators without final result cannot use them.
+   */
+  @SuppressWarnings({"squid:S3740"})
+  private boolean canAllAggregatorsUseStatistics(
+      Statistics timeStatistics, StatisticsProvider valueStatisticsProvider) throws IOException {
+    Statistics[] valueStatistics = null;
+    for (Aggregator aggregator : aggregators) {
+      if (aggregator.hasFinalResult()) {
+        continue;
+      }
+      if (valueStatistics == null) {
+        valueStatistics = new Statistics[subSensorSize];
+        for (int i = 0; i < subSensorSize; i++) {
+          valueStatistics[i] = valueStatisticsProvider.get(i);
+        }
+      }
+      if (!aggregator.canUseStatistics(timeStatistics, valueStatistics)) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  @FunctionalInterface
+  @SuppressWarnings({"squid:S3740"})
+  private interface StatisticsProvider {
+    Statistics get(int index) throws IOException;
   }
 
   @Override
@@ -398,6 +570,12 @@ public abstract class AbstractSeriesAggregationScanOperator extends AbstractData
     if (outputEndTime) {
       dataTypes.add(TSDataType.INT64);
     }
+    dataTypes.addAll(getAggregatorOutputTypes());
+    return dataTypes;
+  }
+
+  private List<TSDataType> getAggregatorOutputTypes() {
+    List<TSDataType> dataTypes = new ArrayList<>();
     for (Aggregator aggregator : aggregators) {
       dataTypes.addAll(Arrays.asList(aggregator.getOutputType()));
     }
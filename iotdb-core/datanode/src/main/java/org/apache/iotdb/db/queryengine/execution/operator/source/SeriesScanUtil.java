@@ -23,6 +23,7 @@ import org.apache.iotdb.commons.path.PartialPath;
 import org.apache.iotdb.db.queryengine.execution.fragment.FragmentInstanceContext;
 import org.apache.iotdb.db.queryengine.execution.fragment.QueryContext;
 import org.apache.iotdb.db.queryengine.metric.SeriesScanCostMetricSet;
+import org.apache.iotdb.db.queryengine.metric.SeriesScanCountMetricSet;
 import org.apache.iotdb.db.queryengine.plan.planner.plan.parameter.SeriesScanOptions;
 import org.apache.iotdb.db.queryengine.plan.statement.component.Ordering;
 import org.apache.iotdb.db.storageengine.dataregion.read.QueryDataSource;
@@ -40,6 +41,8 @@ import org.apache.iotdb.tsfile.file.metadata.statistics.Statistics;
 import org.apache.iotdb.tsfile.read.TimeValuePair;
 import org.apache.iotdb.tsfile.read.common.block.TsBlock;
 import org.apache.iotdb.tsfile.read.common.block.TsBlockBuilder;
+import org.apache.iotdb.tsfile.read.common.block.column.Column;
+import org.apache.iotdb.tsfile.read.common.block.column.ColumnBuilder;
 import org.apache.iotdb.tsfile.read.common.block.column.TimeColumnBuilder;
 import org.apache.iotdb.tsfile.read.filter.basic.Filter;
 import org.apache.iotdb.tsfile.read.reader.IPageReader;
@@ -66,6 +69,10 @@ import static org.apache.iotdb.db.queryengine.metric.SeriesScanCostMetricSet.BUI
 import static org.apache.iotdb.db.queryengine.metric.SeriesScanCostMetricSet.BUILD_TSBLOCK_FROM_PAGE_READER_ALIGNED_MEM;
 import static org.apache.iotdb.db.queryengine.metric.SeriesScanCostMetricSet.BUILD_TSBLOCK_FROM_PAGE_READER_NONALIGNED_DISK;
 import static org.apache.iotdb.db.queryengine.metric.SeriesScanCostMetricSet.BUILD_TSBLOCK_FROM_PAGE_READER_NONALIGNED_MEM;
+import static org.apache.iotdb.db.queryengine.metric.SeriesScanCostMetricSet.BUILD_TSBLOCK_FROM_TWO_WAY_MERGE_NONALIGNED;
+import static org.apache.iotdb.db.queryengine.metric.SeriesScanCountMetricSet.MERGE_READER;
+import static org.apache.iotdb.db.queryengine.metric.SeriesScanCountMetricSet.PAGE_READER;
+import static org.apache.iotdb.db.queryengine.metric.SeriesScanCountMetricSet.TWO_WAY_MERGE;
 
 public class SeriesScanUtil {
 
@@ -114,6 +121,8 @@ public class SeriesScanUtil {
 
   private static final SeriesScanCostMetricSet SERIES_SCAN_COST_METRIC_SET =
       SeriesScanCostMetricSet.getInstance();
+  private static final SeriesScanCountMetricSet SERIES_SCAN_COUNT_METRIC_SET =
+      SeriesScanCountMetricSet.getInstance();
 
   public SeriesScanUtil(
       PartialPath seriesPath,
@@ -422,7 +431,7 @@ public class SeriesScanUtil {
     if (hasCachedNextOverlappedPage) {
       return true;
     } else if (mergeReader.hasNextTimeValuePair() || firstPageOverlapped()) {
-      if (hasNextOverlappedPage()) {
+      if (tryToMergeFirstPageWithOneOverlappedPage() || hasNextOverlappedPage()) {
         cachedTsBlock = nextOverlappedPage();
         if (cachedTsBlock != null && !cachedTsBlock.isEmpty()) {
           hasCachedNextOverlappedPage = true;
@@ -473,7 +482,7 @@ public class SeriesScanUtil {
       /*
        * next page is overlapped, read overlapped data and cache it
        */
-      if (hasNextOverlappedPage()) {
+      if (tryToMergeFirstPageWithOneOverlappedPage() || hasNextOverlappedPage()) {
         cachedTsBlock = nextOverlappedPage();
         if (cachedTsBlock != null && !cachedTsBlock.isEmpty()) {
           hasCachedNextOverlappedPage = true;
@@ -506,6 +515,173 @@ public class SeriesScanUtil {
                     firstPageReader.getStatistics())));
   }
 
+  /**
+   * If the first page overlaps with exactly one other page and no other data overlaps with either
+   * of them, merge the two decoded pages column by column instead of pushing every point through
+   * the mergeReader. Only non-aligned series are handled here.
+   *
+   * @return true if a non-empty merged TsBlock is cached
+   */
+  @SuppressWarnings("squid:S3776") // Suppress high Cognitive Complexity warning
+  private boolean tryToMergeFirstPageWithOneOverlappedPage() throws IOException {
+    if (isAligned
+        || dataType == TSDataType.VECTOR
+        || firstPageReader == null
+        || mergeReader.hasNextTimeValuePair()) {
+      return false;
+    }
+    long startTime = System.nanoTime();
+
+    Statistics firstPageStatistics = firstPageReader.getStatistics();
+    boolean seqOverlapped =
+        !seqPageReaders.isEmpty()
+            && orderUtils.isOverlapped(firstPageStatistics, seqPageReaders.get(0).getStatistics());
+    boolean unSeqOverlapped =
+        !unSeqPageReaders.isEmpty()
+            && orderUtils.isOverlapped(
+                firstPageStatistics, unSeqPageReaders.peek().getStatistics());
+    if (seqOverlapped == unSeqOverlapped) {
+      // no overlapped page or more than one overlapped page
+      return false;
+    }
+    VersionPageReader overlappedPageReader =
+        seqOverlapped ? seqPageReaders.get(0) : unSeqPageReaders.peek();
+
+    // unpack everything which may overlap with the union of the two pages
+    long firstEndpointTime = orderUtils.getOverlapCheckTime(firstPageStatistics);
+    long overlappedEndpointTime =
+        orderUtils.getOverlapCheckTime(overlappedPageReader.getStatistics());
+    long endpointTime =
+        orderUtils.getAscending()
+            ? Math.max(firstEndpointTime, overlappedEndpointTime)
+            : Math.min(firstEndpointTime, overlappedEndpointTime);
+    unpackAllOverlappedTsFilesToTimeSeriesMetadata(endpointTime);
+    unpackAllOverlappedTimeSeriesMetadataToCachedChunkMetadata(endpointTime, false);
+    unpackAllOverlappedChunkMetadataToPageReaders(endpointTime, false);
+
+    // the overlapped page must still be the head of its readers after unpacking
+    if (seqOverlapped) {
+      if (!overlappedPageReader.equals(seqPageReaders.get(0))) {
+        return false;
+      }
+      seqPageReaders.remove(0);
+    } else {
+      if (!overlappedPageReader.equals(unSeqPageReaders.peek())) {
+        return false;
+      }
+      unSeqPageReaders.poll();
+    }
+    if (isOverlappedWithCachedData(endpointTime)) {
+      // fall back to the mergeReader
+      if (seqOverlapped) {
+        seqPageReaders.add(0, overlappedPageReader);
+      } else {
+        unSeqPageReaders.add(overlappedPageReader);
+      }
+      return false;
+    }
+
+    try {
+      TsBlock firstTsBlock = firstPageReader.getAllSatisfiedPageData(orderUtils.getAscending());
+      VersionPageReader firstVersionPageReader = firstPageReader;
+      firstPageReader = null;
+      TsBlock overlappedTsBlock =
+          overlappedPageReader.getAllSatisfiedPageData(orderUtils.getAscending());
+      cachedTsBlock =
+          paginationController.applyTsBlock(
+              firstVersionPageReader.version.compareTo(overlappedPageReader.version) >= 0
+                  ? mergeTwoTsBlocks(firstTsBlock, overlappedTsBlock)
+                  : mergeTwoTsBlocks(overlappedTsBlock, firstTsBlock));
+      hasCachedNextOverlappedPage = !cachedTsBlock.isEmpty();
+      SERIES_SCAN_COUNT_METRIC_SET.recordPointNum(TWO_WAY_MERGE, cachedTsBlock.getPositionCount());
+      return hasCachedNextOverlappedPage;
+    } finally {
+      SERIES_SCAN_COST_METRIC_SET.recordSeriesScanCost(
+          BUILD_TSBLOCK_FROM_TWO_WAY_MERGE_NONALIGNED, System.nanoTime() - startTime);
+    }
+  }
+
+  private boolean isOverlappedWithCachedData(long endpointTime) {
+    return (!seqPageReaders.isEmpty()
+            && orderUtils.isOverlapped(endpointTime, seqPageReaders.get(0).getStatistics()))
+        || (!unSeqPageReaders.isEmpty()
+            && orderUtils.isOverlapped(endpointTime, unSeqPageReaders.peek().getStatistics()))
+        || (firstChunkMetadata != null
+            && orderUtils.isOverlapped(endpointTime, firstChunkMetadata.getStatistics()))
+        || (!cachedChunkMetadata.isEmpty()
+            && orderUtils.isOverlapped(endpointTime, cachedChunkMetadata.peek().getStatistics()))
+        || (firstTimeSeriesMetadata != null
+            && orderUtils.isOverlapped(endpointTime, firstTimeSeriesMetadata.getStatistics()))
+        || (!seqTimeSeriesMetadata.isEmpty()
+            && orderUtils.isOverlapped(endpointTime, seqTimeSeriesMetadata.get(0).getStatistics()))
+        || (!unSeqTimeSeriesMetadata.isEmpty()
+            && orderUtils.isOverlapped(
+                endpointTime, unSeqTimeSeriesMetadata.peek().getStatistics()));
+  }
+
+  /**
+   * Merge two TsBlocks which are both sorted in the scan order, the higher one wins if both of them
+   * contain the same timestamp. Rows are copied directly between columns without being boxed into
+   * TimeValuePairs, and the push down filter is applied on the fly.
+   */
+  private TsBlock mergeTwoTsBlocks(TsBlock higher, TsBlock lower) {
+    TsBlockBuilder builder = new TsBlockBuilder(getTsDataTypeList());
+    TimeColumnBuilder timeBuilder = builder.getTimeColumnBuilder();
+    ColumnBuilder valueBuilder = builder.getColumnBuilder(0);
+    Column higherTimeColumn = higher.getTimeColumn();
+    Column higherValueColumn = higher.getColumn(0);
+    Column lowerTimeColumn = lower.getTimeColumn();
+    Column lowerValueColumn = lower.getColumn(0);
+    Filter queryFilter = scanOptions.getPushDownFilter();
+    boolean ascending = orderUtils.getAscending();
+
+    int higherIndex = 0;
+    int lowerIndex = 0;
+    int higherCount = higher.getPositionCount();
+    int lowerCount = lower.getPositionCount();
+    while (higherIndex < higherCount || lowerIndex < lowerCount) {
+      Column timeColumn;
+      Column valueColumn;
+      int index;
+      if (lowerIndex >= lowerCount) {
+        timeColumn = higherTimeColumn;
+        valueColumn = higherValueColumn;
+        index = higherIndex++;
+      } else if (higherIndex >= higherCount) {
+        timeColumn = lowerTimeColumn;
+        valueColumn = lowerValueColumn;
+        index = lowerIndex++;
+      } else {
+        long higherTime = higherTimeColumn.getLong(higherIndex);
+        long lowerTime = lowerTimeColumn.getLong(lowerIndex);
+        if (higherTime == lowerTime) {
+          // the point with lower priority is overwritten
+          lowerIndex++;
+          timeColumn = higherTimeColumn;
+          valueColumn = higherValueColumn;
+          index = higherIndex++;
+        } else if ((higherTime < lowerTime) == ascending) {
+          timeColumn = higherTimeColumn;
+          valueColumn = higherValueColumn;
+          index = higherIndex++;
+        } else {
+          timeColumn = lowerTimeColumn;
+          valueColumn = lowerValueColumn;
+          index = lowerIndex++;
+        }
+      }
+
+      long time = timeColumn.getLong(index);
+      if (queryFilter != null && !queryFilter.satisfy(time, valueColumn.getObject(index))) {
+        continue;
+      }
+      timeBuilder.writeLong(time);
+      valueBuilder.write(valueColumn, index);
+      builder.declarePosition();
+    }
+    return builder.build();
+  }
+
   private void unpackAllOverlappedChunkMetadataToPageReaders(long endpointTime, boolean init)
       throws IOException {
     if (firstChunkMetadata != null
@@ -660,6 +836,7 @@ public class SeriesScanUtil {
       }
 
       firstPageReader = null;
+      SERIES_SCAN_COUNT_METRIC_SET.recordPointNum(PAGE_READER, tsBlock.getPositionCount());
 
       return tsBlock;
     }
@@ -734,6 +911,8 @@ public class SeriesScanUtil {
                           < firstPageReader.getStatistics().getStartTime())) {
                 hasCachedNextOverlappedPage = !builder.isEmpty();
                 cachedTsBlock = builder.build();
+                SERIES_SCAN_COUNT_METRIC_SET.recordPointNum(
+                    MERGE_READER, cachedTsBlock.getPositionCount());
                 return hasCachedNextOverlappedPage;
               } else if (orderUtils.isOverlapped(
                   timeValuePair.getTimestamp(), firstPageReader.getStatistics())) {
@@ -760,6 +939,8 @@ public class SeriesScanUtil {
                           < seqPageReaders.get(0).getStatistics().getStartTime())) {
                 hasCachedNextOverlappedPage = !builder.isEmpty();
                 cachedTsBlock = builder.build();
+                SERIES_SCAN_COUNT_METRIC_SET.recordPointNum(
+                    MERGE_READER, cachedTsBlock.getPositionCount());
                 return hasCachedNextOverlappedPage;
               } else if (orderUtils.isOverlapped(
                   timeValuePair.getTimestamp(), seqPageReaders.get(0).getStatistics())) {
@@ -841,6 +1022,8 @@ public class SeriesScanUtil {
           }
           hasCachedNextOverlappedPage = !builder.isEmpty();
           cachedTsBlock = builder.build();
+          SERIES_SCAN_COUNT_METRIC_SET.recordPointNum(
+              MERGE_READER, cachedTsBlock.getPositionCount());
           /*
            * if current overlapped page has valid data, return, otherwise read next overlapped page
            */
@@ -62,6 +62,7 @@ import java.util.Map;
 import java.util.OptionalInt;
 import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicInteger;
 import java.util.concurrent.atomic.AtomicLong;
 
@@ -100,7 +101,11 @@ public class DriverScheduler implements IDriverScheduler, IService {
 
   private DriverScheduler() {
     this.readyQueue =
-        new MultilevelPriorityQueue(LEVEL_TIME_MULTIPLIER, TASK_MAX_CAPACITY, new DriverTask());
+        new MultilevelPriorityQueue(
+            LEVEL_TIME_MULTIPLIER,
+            TASK_MAX_CAPACITY,
+            new DriverTask(),
+            TimeUnit.MILLISECONDS.toNanos(config.getShortQueryLaneThresholdInMs()));
     this.timeoutQueue =
         new L1PriorityQueue<>(
             QUERY_MAX_CAPACITY, new DriverTask.TimeoutComparator(), new DriverTask());
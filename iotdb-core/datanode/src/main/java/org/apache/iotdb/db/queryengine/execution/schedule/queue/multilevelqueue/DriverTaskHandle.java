@@ -59,6 +59,10 @@ public class DriverTaskHandle {
     return newPriority;
   }
 
+  public synchronized long getScheduledTimeInNanos() {
+    return scheduledTimeInNanos;
+  }
+
   public synchronized Priority resetLevelScheduledTime() {
     long levelMinScheduledTime =
         driverTaskQueue.getLevelMinScheduledTime(priority.get().getLevel(), scheduledTimeInNanos);
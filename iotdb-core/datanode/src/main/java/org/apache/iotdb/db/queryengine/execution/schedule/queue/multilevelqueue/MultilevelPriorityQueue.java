@@ -51,6 +51,17 @@ public class MultilevelPriorityQueue extends IndexedBlockingReserveQueue<DriverT
    */
   private final PriorityQueue<DriverTask> highestPriorityLevelQueue;
 
+  /**
+   * Lane reserved for short queries, which is polled right after the highestPriorityLevelQueue.
+   * Tasks stay in this lane until the total scheduled time of their DriverTaskHandle reaches
+   * shortQueryLaneThresholdInNanos, so that point lookups and last queries are not queued behind
+   * the time slices of heavy scans, while the time any query can take from this lane is bounded.
+   */
+  private final PriorityQueue<DriverTask> shortQueryLaneQueue;
+
+  /** Tasks are not put into shortQueryLaneQueue if it is <= 0. */
+  private final long shortQueryLaneThresholdInNanos;
+
   /**
    * Total amount of time each LEVEL has occupied, which decides which level we will take task from.
    */
@@ -69,12 +80,22 @@ public class MultilevelPriorityQueue extends IndexedBlockingReserveQueue<DriverT
 
   public MultilevelPriorityQueue(
       double levelTimeMultiplier, int maxCapacity, DriverTask queryHolder) {
+    this(levelTimeMultiplier, maxCapacity, queryHolder, 0);
+  }
+
+  public MultilevelPriorityQueue(
+      double levelTimeMultiplier,
+      int maxCapacity,
+      DriverTask queryHolder,
+      long shortQueryLaneThresholdInNanos) {
     super(maxCapacity, queryHolder);
     this.levelScheduledTime = new AtomicLong[LEVEL_THRESHOLD_SECONDS.length];
     this.levelMinScheduledTime = new AtomicLong[LEVEL_THRESHOLD_SECONDS.length];
     this.levelWaitingSplits = new PriorityQueue[LEVEL_THRESHOLD_SECONDS.length];
     this.highestPriorityLevelQueue =
         new PriorityQueue<>(new DriverTask.SchedulePriorityComparator());
+    this.shortQueryLaneQueue = new PriorityQueue<>(new DriverTask.SchedulePriorityComparator());
+    this.shortQueryLaneThresholdInNanos = shortQueryLaneThresholdInNanos;
     for (int level = 0; level < LEVEL_THRESHOLD_SECONDS.length; level++) {
       levelScheduledTime[level] = new AtomicLong();
       levelMinScheduledTime[level] = new AtomicLong(-1);
@@ -105,6 +126,11 @@ public class MultilevelPriorityQueue extends IndexedBlockingReserveQueue<DriverT
       return;
     }
 
+    if (isShortQueryTask(task)) {
+      shortQueryLaneQueue.offer(task);
+      return;
+    }
+
     int level = task.getPriority().getLevel();
     if (levelWaitingSplits[level].isEmpty()) {
       // Accesses to levelScheduledTime are not synchronized, so we have a data race
@@ -126,6 +152,16 @@ public class MultilevelPriorityQueue extends IndexedBlockingReserveQueue<DriverT
       return highestPriorityLevelQueue.poll();
     }
 
+    // Then tasks in the short query lane, if they are still short when polled
+    while (!shortQueryLaneQueue.isEmpty()) {
+      DriverTask result = shortQueryLaneQueue.poll();
+      if (isShortQueryTask(result)) {
+        return result;
+      }
+      // other tasks of the same query have used up its time in the short query lane
+      pushToQueue(result);
+    }
+
     DriverTask result;
     while (true) {
       result = chooseLevelAndTask();
@@ -146,7 +182,7 @@ public class MultilevelPriorityQueue extends IndexedBlockingReserveQueue<DriverT
   @Override
   protected DriverTask remove(DriverTask driverTask) {
     checkArgument(driverTask != null, "driverTask is null");
-    if (highestPriorityLevelQueue.remove(driverTask)) {
+    if (highestPriorityLevelQueue.remove(driverTask) || shortQueryLaneQueue.remove(driverTask)) {
       return driverTask;
     }
     for (PriorityQueue<DriverTask> level : levelWaitingSplits) {
@@ -159,7 +195,7 @@ public class MultilevelPriorityQueue extends IndexedBlockingReserveQueue<DriverT
 
   @Override
   protected boolean isEmpty() {
-    if (!highestPriorityLevelQueue.isEmpty()) {
+    if (!highestPriorityLevelQueue.isEmpty() || !shortQueryLaneQueue.isEmpty()) {
       return false;
     }
     for (PriorityQueue<DriverTask> level : levelWaitingSplits) {
@@ -172,7 +208,8 @@ public class MultilevelPriorityQueue extends IndexedBlockingReserveQueue<DriverT
 
   @Override
   protected boolean contains(DriverTask driverTask) {
-    if (highestPriorityLevelQueue.contains(driverTask)) {
+    if (highestPriorityLevelQueue.contains(driverTask)
+        || shortQueryLaneQueue.contains(driverTask)) {
       return true;
     }
     for (PriorityQueue<DriverTask> level : levelWaitingSplits) {
@@ -194,6 +231,7 @@ public class MultilevelPriorityQueue extends IndexedBlockingReserveQueue<DriverT
   @Override
   protected void clearAllElements() {
     highestPriorityLevelQueue.clear();
+    shortQueryLaneQueue.clear();
     for (PriorityQueue<DriverTask> level : levelWaitingSplits) {
       level.clear();
     }
@@ -203,6 +241,11 @@ public class MultilevelPriorityQueue extends IndexedBlockingReserveQueue<DriverT
 
   // region helper functions
 
+  private boolean isShortQueryTask(DriverTask task) {
+    return shortQueryLaneThresholdInNanos > 0
+        && task.getScheduledTimeInNanos() < shortQueryLaneThresholdInNanos;
+  }
+
   /**
    * We attempt to give each level a target amount of scheduled time, which is configurable using
    * levelTimeMultiplier.
@@ -336,4 +379,9 @@ public class MultilevelPriorityQueue extends IndexedBlockingReserveQueue<DriverT
   public PriorityQueue<DriverTask> getHighestPriorityLevelQueue() {
     return highestPriorityLevelQueue;
   }
+
+  @TestOnly
+  public PriorityQueue<DriverTask> getShortQueryLaneQueue() {
+    return shortQueryLaneQueue;
+  }
 }
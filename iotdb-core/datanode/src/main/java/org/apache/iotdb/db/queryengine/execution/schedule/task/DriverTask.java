@@ -186,6 +186,11 @@ public class DriverTask implements IDIndexedAccessible {
     priority.set(driverTaskHandle.resetLevelScheduledTime());
   }
 
+  /** Total scheduled time of all the DriverTasks sharing the same DriverTaskHandle. */
+  public long getScheduledTimeInNanos() {
+    return driverTaskHandle.getScheduledTimeInNanos();
+  }
+
   public long getLastEnterReadyQueueTime() {
     return lastEnterReadyQueueTime;
   }
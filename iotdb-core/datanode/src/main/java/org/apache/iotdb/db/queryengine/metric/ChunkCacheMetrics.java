@@ -22,6 +22,7 @@ package org.apache.iotdb.db.queryengine.metric;
 import org.apache.iotdb.commons.service.metric.enums.Metric;
 import org.apache.iotdb.commons.service.metric.enums.Tag;
 import org.apache.iotdb.db.storageengine.buffer.ChunkCache;
+import org.apache.iotdb.db.storageengine.buffer.ChunkOffHeapCache;
 import org.apache.iotdb.metrics.AbstractMetricService;
 import org.apache.iotdb.metrics.metricsets.IMetricSet;
 import org.apache.iotdb.metrics.utils.MetricLevel;
@@ -31,6 +32,12 @@ import java.util.Objects;
 
 public class ChunkCacheMetrics implements IMetricSet {
 
+  private static final String OFF_HEAP_CHUNK = "chunk_off_heap";
+  private static final String HIT = "hit";
+  private static final String MISS = "miss";
+  private static final String EVICTION = "eviction";
+  private static final String USED_MEMORY = "used_memory";
+
   private final ChunkCache chunkCache;
 
   public ChunkCacheMetrics(ChunkCache chunkCache) {
@@ -46,12 +53,69 @@ public class ChunkCacheMetrics implements IMetricSet {
         ChunkCache::getHitRate,
         Tag.NAME.toString(),
         "chunk");
+    metricService.createAutoGauge(
+        Metric.CACHE_HIT_RATE.toString(),
+        MetricLevel.IMPORTANT,
+        chunkCache.getOffHeapCache(),
+        offHeapCache -> offHeapCache.getHitRate() * 100,
+        Tag.NAME.toString(),
+        OFF_HEAP_CHUNK);
+    metricService.createAutoGauge(
+        Metric.CACHE.toString(),
+        MetricLevel.IMPORTANT,
+        chunkCache.getOffHeapCache(),
+        ChunkOffHeapCache::getHitCount,
+        Tag.NAME.toString(),
+        OFF_HEAP_CHUNK,
+        Tag.TYPE.toString(),
+        HIT);
+    metricService.createAutoGauge(
+        Metric.CACHE.toString(),
+        MetricLevel.IMPORTANT,
+        chunkCache.getOffHeapCache(),
+        ChunkOffHeapCache::getMissCount,
+        Tag.NAME.toString(),
+        OFF_HEAP_CHUNK,
+        Tag.TYPE.toString(),
+        MISS);
+    metricService.createAutoGauge(
+        Metric.CACHE.toString(),
+        MetricLevel.IMPORTANT,
+        chunkCache.getOffHeapCache(),
+        ChunkOffHeapCache::getEvictionCount,
+        Tag.NAME.toString(),
+        OFF_HEAP_CHUNK,
+        Tag.TYPE.toString(),
+        EVICTION);
+    metricService.createAutoGauge(
+        Metric.CACHE.toString(),
+        MetricLevel.IMPORTANT,
+        chunkCache.getOffHeapCache(),
+        ChunkOffHeapCache::getUsedMemory,
+        Tag.NAME.toString(),
+        OFF_HEAP_CHUNK,
+        Tag.TYPE.toString(),
+        USED_MEMORY);
   }
 
   @Override
   public void unbindFrom(AbstractMetricService metricService) {
     metricService.remove(
         MetricType.AUTO_GAUGE, Metric.CACHE_HIT_RATE.toString(), Tag.NAME.toString(), "chunk");
+    metricService.remove(
+        MetricType.AUTO_GAUGE,
+        Metric.CACHE_HIT_RATE.toString(),
+        Tag.NAME.toString(),
+        OFF_HEAP_CHUNK);
+    for (String type : new String[] {HIT, MISS, EVICTION, USED_MEMORY}) {
+      metricService.remove(
+          MetricType.AUTO_GAUGE,
+          Metric.CACHE.toString(),
+          Tag.NAME.toString(),
+          OFF_HEAP_CHUNK,
+          Tag.TYPE.toString(),
+          type);
+    }
   }
 
   @Override
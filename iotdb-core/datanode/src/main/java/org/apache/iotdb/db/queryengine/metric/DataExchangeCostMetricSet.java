@@ -56,12 +56,16 @@ public class DataExchangeCostMetricSet implements IMetricSet {
       SINK_HANDLE_SEND_TSBLOCK + "_" + LOCAL;
   public static final String SINK_HANDLE_SEND_TSBLOCK_REMOTE =
       SINK_HANDLE_SEND_TSBLOCK + "_" + REMOTE;
+  private static final String SINK_HANDLE_COMPRESS_TSBLOCK = "sink_handle_compress_tsblock";
+  public static final String SINK_HANDLE_COMPRESS_TSBLOCK_REMOTE =
+      SINK_HANDLE_COMPRESS_TSBLOCK + "_" + REMOTE;
   private Timer sourceHandleGetTsBlockLocalTimer = DoNothingMetricManager.DO_NOTHING_TIMER;
   private Timer sourceHandleGetTsBlockRemoteTimer = DoNothingMetricManager.DO_NOTHING_TIMER;
   private Timer sourceHandleDeserializeTsBlockLocalTimer = DoNothingMetricManager.DO_NOTHING_TIMER;
   private Timer sourceHandleDeserializeTsBlockRemoteTimer = DoNothingMetricManager.DO_NOTHING_TIMER;
   private Timer sinkHandleSendTsBlockLocalTimer = DoNothingMetricManager.DO_NOTHING_TIMER;
   private Timer sinkHandleSendTsBlockRemoteTimer = DoNothingMetricManager.DO_NOTHING_TIMER;
+  private Timer sinkHandleCompressTsBlockRemoteTimer = DoNothingMetricManager.DO_NOTHING_TIMER;
 
   private void bindTsBlock(AbstractMetricService metricService) {
     sourceHandleGetTsBlockLocalTimer =
@@ -112,6 +116,14 @@ public class DataExchangeCostMetricSet implements IMetricSet {
             SINK_HANDLE_SEND_TSBLOCK,
             Tag.TYPE.toString(),
             REMOTE);
+    sinkHandleCompressTsBlockRemoteTimer =
+        metricService.getOrCreateTimer(
+            Metric.DATA_EXCHANGE_COST.toString(),
+            MetricLevel.IMPORTANT,
+            Tag.OPERATION.toString(),
+            SINK_HANDLE_COMPRESS_TSBLOCK,
+            Tag.TYPE.toString(),
+            REMOTE);
   }
 
   private void unbindTsBlock(AbstractMetricService metricService) {
@@ -121,6 +133,14 @@ public class DataExchangeCostMetricSet implements IMetricSet {
     sourceHandleDeserializeTsBlockRemoteTimer = DoNothingMetricManager.DO_NOTHING_TIMER;
     sinkHandleSendTsBlockLocalTimer = DoNothingMetricManager.DO_NOTHING_TIMER;
     sinkHandleSendTsBlockRemoteTimer = DoNothingMetricManager.DO_NOTHING_TIMER;
+    sinkHandleCompressTsBlockRemoteTimer = DoNothingMetricManager.DO_NOTHING_TIMER;
+    metricService.remove(
+        MetricType.TIMER,
+        Metric.DATA_EXCHANGE_COST.toString(),
+        Tag.OPERATION.toString(),
+        SINK_HANDLE_COMPRESS_TSBLOCK,
+        Tag.TYPE.toString(),
+        REMOTE);
     Arrays.asList(
             SOURCE_HANDLE_DESERIALIZE_TSBLOCK,
             SOURCE_HANDLE_DESERIALIZE_TSBLOCK,
@@ -279,6 +299,9 @@ public class DataExchangeCostMetricSet implements IMetricSet {
       case SINK_HANDLE_SEND_TSBLOCK_REMOTE:
         sinkHandleSendTsBlockRemoteTimer.updateNanos(costTimeInNanos);
         break;
+      case SINK_HANDLE_COMPRESS_TSBLOCK_REMOTE:
+        sinkHandleCompressTsBlockRemoteTimer.updateNanos(costTimeInNanos);
+        break;
       case GET_DATA_BLOCK_TASK_SERVER:
         getDataBlockServerTimer.updateNanos(costTimeInNanos);
         break;
@@ -56,6 +56,8 @@ public class DataExchangeCountMetricSet implements IMetricSet {
   public static final String GET_DATA_BLOCK_NUM_CALLER = GET_DATA_BLOCK_NUM + "_" + CALLER;
   public static final String GET_DATA_BLOCK_NUM_SERVER = GET_DATA_BLOCK_NUM + "_" + SERVER;
 
+  private static final String TSBLOCK_COMPRESSION_RATIO = "tsblock_compression_ratio";
+
   private static final MPPDataExchangeManager dataExchangeManager =
       MPPDataExchangeService.getInstance().getMPPDataExchangeManager();
   private static final String SHUFFLE_SINK_HANDLE_SIZE = "shuffle_sink_handle_size";
@@ -71,6 +73,7 @@ public class DataExchangeCountMetricSet implements IMetricSet {
       DoNothingMetricManager.DO_NOTHING_HISTOGRAM;
   private Histogram getDataBlockNumCallerHistogram = DoNothingMetricManager.DO_NOTHING_HISTOGRAM;
   private Histogram getDataBlockNumServerHistogram = DoNothingMetricManager.DO_NOTHING_HISTOGRAM;
+  private Histogram tsBlockCompressionRatioHistogram = DoNothingMetricManager.DO_NOTHING_HISTOGRAM;
 
   @Override
   public void bindTo(AbstractMetricService metricService) {
@@ -122,6 +125,12 @@ public class DataExchangeCountMetricSet implements IMetricSet {
             GET_DATA_BLOCK_NUM,
             Tag.TYPE.toString(),
             SERVER);
+    tsBlockCompressionRatioHistogram =
+        metricService.getOrCreateHistogram(
+            Metric.DATA_EXCHANGE_COUNT.toString(),
+            MetricLevel.IMPORTANT,
+            Tag.NAME.toString(),
+            TSBLOCK_COMPRESSION_RATIO);
     metricService.createAutoGauge(
         Metric.DATA_EXCHANGE_SIZE.toString(),
         MetricLevel.IMPORTANT,
@@ -146,6 +155,12 @@ public class DataExchangeCountMetricSet implements IMetricSet {
     onAcknowledgeDataBlockNumServerHistogram = DoNothingMetricManager.DO_NOTHING_HISTOGRAM;
     getDataBlockNumCallerHistogram = DoNothingMetricManager.DO_NOTHING_HISTOGRAM;
     getDataBlockNumServerHistogram = DoNothingMetricManager.DO_NOTHING_HISTOGRAM;
+    tsBlockCompressionRatioHistogram = DoNothingMetricManager.DO_NOTHING_HISTOGRAM;
+    metricService.remove(
+        MetricType.HISTOGRAM,
+        Metric.DATA_EXCHANGE_COUNT.toString(),
+        Tag.NAME.toString(),
+        TSBLOCK_COMPRESSION_RATIO);
     Arrays.asList(SEND_NEW_DATA_BLOCK_NUM, ON_ACKNOWLEDGE_DATA_BLOCK_NUM, GET_DATA_BLOCK_NUM)
         .forEach(
             name ->
@@ -196,6 +211,16 @@ public class DataExchangeCountMetricSet implements IMetricSet {
     }
   }
 
+  /**
+   * Record the size of a TsBlock sent in the compressed exchange format, as a percentage of its
+   * retained size in memory.
+   */
+  public void recordTsBlockCompressionRatio(long retainedSizeInBytes, long compressedSizeInBytes) {
+    if (retainedSizeInBytes > 0) {
+      tsBlockCompressionRatioHistogram.update(compressedSizeInBytes * 100 / retainedSizeInBytes);
+    }
+  }
+
   public static DataExchangeCountMetricSet getInstance() {
     return INSTANCE;
   }
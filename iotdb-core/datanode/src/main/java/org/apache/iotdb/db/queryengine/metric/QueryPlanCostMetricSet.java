@@ -39,6 +39,8 @@ public class QueryPlanCostMetricSet implements IMetricSet {
   public static final String PARTITION_FETCHER = "partition_fetcher";
   public static final String SCHEMA_FETCHER = "schema_fetcher";
 
+  public static final String ADMISSION = "admission";
+
   private QueryPlanCostMetricSet() {
     // empty constructor
   }
@@ -48,6 +50,7 @@ public class QueryPlanCostMetricSet implements IMetricSet {
   private Timer distributionPlannerTimer = DoNothingMetricManager.DO_NOTHING_TIMER;
   private Timer partitionFetcherTimer = DoNothingMetricManager.DO_NOTHING_TIMER;
   private Timer schemaFetcherTimer = DoNothingMetricManager.DO_NOTHING_TIMER;
+  private Timer admissionTimer = DoNothingMetricManager.DO_NOTHING_TIMER;
 
   public void recordPlanCost(String stage, long costTimeInNanos) {
     switch (stage) {
@@ -66,6 +69,9 @@ public class QueryPlanCostMetricSet implements IMetricSet {
       case SCHEMA_FETCHER:
         schemaFetcherTimer.updateNanos(costTimeInNanos);
         break;
+      case ADMISSION:
+        admissionTimer.updateNanos(costTimeInNanos);
+        break;
       default:
         throw new UnsupportedOperationException("Unsupported stage: " + stage);
     }
@@ -103,12 +109,23 @@ public class QueryPlanCostMetricSet implements IMetricSet {
             MetricLevel.IMPORTANT,
             Tag.STAGE.toString(),
             SCHEMA_FETCHER);
+    admissionTimer =
+        metricService.getOrCreateTimer(
+            Metric.QUERY_PLAN_COST.toString(),
+            MetricLevel.IMPORTANT,
+            Tag.STAGE.toString(),
+            ADMISSION);
   }
 
   @Override
   public void unbindFrom(AbstractMetricService metricService) {
     Arrays.asList(
-            ANALYZER, LOGICAL_PLANNER, DISTRIBUTION_PLANNER, PARTITION_FETCHER, SCHEMA_FETCHER)
+            ANALYZER,
+            LOGICAL_PLANNER,
+            DISTRIBUTION_PLANNER,
+            PARTITION_FETCHER,
+            SCHEMA_FETCHER,
+            ADMISSION)
         .forEach(
             stage -> {
               metricService.remove(
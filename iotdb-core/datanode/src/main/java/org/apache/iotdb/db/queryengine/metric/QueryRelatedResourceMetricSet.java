@@ -36,6 +36,7 @@ public class QueryRelatedResourceMetricSet implements IMetricSet {
   private static final Coordinator coordinator = Coordinator.getInstance();
   private static final String COORDINATOR = Metric.COORDINATOR.toString();
   private static final String QUERY_EXECUTION_MAP_SIZE = "query_execution_map_size";
+  private static final String ADMISSION_PENDING_QUERY_COUNT = "admission_pending_query_count";
 
   // FragmentInstanceManager
   private static final FragmentInstanceManager fragmentInstanceManager =
@@ -73,6 +74,13 @@ public class QueryRelatedResourceMetricSet implements IMetricSet {
         Coordinator::getQueryExecutionMapSize,
         Tag.NAME.toString(),
         QUERY_EXECUTION_MAP_SIZE);
+    metricService.createAutoGauge(
+        COORDINATOR,
+        MetricLevel.IMPORTANT,
+        coordinator,
+        Coordinator::getAdmissionPendingQueryCount,
+        Tag.NAME.toString(),
+        ADMISSION_PENDING_QUERY_COUNT);
 
     // FragmentInstanceManager
     metricService.createAutoGauge(
@@ -131,6 +139,8 @@ public class QueryRelatedResourceMetricSet implements IMetricSet {
     // Coordinator
     metricService.remove(
         MetricType.AUTO_GAUGE, COORDINATOR, Tag.NAME.toString(), QUERY_EXECUTION_MAP_SIZE);
+    metricService.remove(
+        MetricType.AUTO_GAUGE, COORDINATOR, Tag.NAME.toString(), ADMISSION_PENDING_QUERY_COUNT);
 
     // FragmentInstanceManager
     metricService.remove(
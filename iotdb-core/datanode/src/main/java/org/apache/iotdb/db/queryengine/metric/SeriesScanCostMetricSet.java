@@ -830,6 +830,41 @@ public class SeriesScanCostMetricSet implements IMetricSet {
   }
   // endregion
 
+  // region build tsblock from two-way merge
+  private static final String BUILD_TSBLOCK_FROM_TWO_WAY_MERGE = "build_tsblock_from_two_way_merge";
+  public static final String BUILD_TSBLOCK_FROM_TWO_WAY_MERGE_NONALIGNED =
+      BUILD_TSBLOCK_FROM_TWO_WAY_MERGE + "_" + NON_ALIGNED;
+
+  private Timer buildTsBlockFromTwoWayMergeNonAlignedTimer =
+      DoNothingMetricManager.DO_NOTHING_TIMER;
+
+  private void bindBuildTsBlockFromTwoWayMerge(AbstractMetricService metricService) {
+    buildTsBlockFromTwoWayMergeNonAlignedTimer =
+        metricService.getOrCreateTimer(
+            Metric.SERIES_SCAN_COST.toString(),
+            MetricLevel.IMPORTANT,
+            Tag.STAGE.toString(),
+            BUILD_TSBLOCK_FROM_TWO_WAY_MERGE,
+            Tag.FROM.toString(),
+            NULL,
+            Tag.TYPE.toString(),
+            NON_ALIGNED);
+  }
+
+  private void unbindBuildTsBlockFromTwoWayMerge(AbstractMetricService metricService) {
+    buildTsBlockFromTwoWayMergeNonAlignedTimer = DoNothingMetricManager.DO_NOTHING_TIMER;
+    metricService.remove(
+        MetricType.TIMER,
+        Metric.SERIES_SCAN_COST.toString(),
+        Tag.STAGE.toString(),
+        BUILD_TSBLOCK_FROM_TWO_WAY_MERGE,
+        Tag.FROM.toString(),
+        NULL,
+        Tag.TYPE.toString(),
+        NON_ALIGNED);
+  }
+  // endregion
+
   @Override
   public void bindTo(AbstractMetricService metricService) {
     bindTimeseriesMetadata(metricService);
@@ -843,6 +878,7 @@ public class SeriesScanCostMetricSet implements IMetricSet {
     bindInitChunkReader(metricService);
     bindTsBlockFromPageReader(metricService);
     bindBuildTsBlockFromMergeReader(metricService);
+    bindBuildTsBlockFromTwoWayMerge(metricService);
   }
 
   @Override
@@ -858,6 +894,7 @@ public class SeriesScanCostMetricSet implements IMetricSet {
     unbindInitChunkReader(metricService);
     unbindTsBlockFromPageReader(metricService);
     unbindBuildTsBlockFromMergeReader(metricService);
+    unbindBuildTsBlockFromTwoWayMerge(metricService);
   }
 
   public void recordSeriesScanCost(String type, long cost) {
@@ -958,6 +995,9 @@ public class SeriesScanCostMetricSet implements IMetricSet {
       case BUILD_TSBLOCK_FROM_MERGE_READER_NONALIGNED:
         buildTsBlockFromMergeReaderNonAlignedTimer.updateNanos(cost);
         break;
+      case BUILD_TSBLOCK_FROM_TWO_WAY_MERGE_NONALIGNED:
+        buildTsBlockFromTwoWayMergeNonAlignedTimer.updateNanos(cost);
+        break;
       case READ_TIMESERIES_METADATA_CACHE:
         readTimeseriesMetadataCacheTimer.updateNanos(cost);
         break;
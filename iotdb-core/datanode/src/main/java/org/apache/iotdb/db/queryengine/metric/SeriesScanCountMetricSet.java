@@ -0,0 +1,106 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.iotdb.db.queryengine.metric;
+
+import org.apache.iotdb.commons.service.metric.enums.Metric;
+import org.apache.iotdb.commons.service.metric.enums.Tag;
+import org.apache.iotdb.metrics.AbstractMetricService;
+import org.apache.iotdb.metrics.impl.DoNothingMetricManager;
+import org.apache.iotdb.metrics.metricsets.IMetricSet;
+import org.apache.iotdb.metrics.type.Histogram;
+import org.apache.iotdb.metrics.utils.MetricLevel;
+import org.apache.iotdb.metrics.utils.MetricType;
+
+import java.util.Arrays;
+
+/** Number of points output by a series scan through each of its paths. */
+public class SeriesScanCountMetricSet implements IMetricSet {
+  private static final SeriesScanCountMetricSet INSTANCE = new SeriesScanCountMetricSet();
+
+  private SeriesScanCountMetricSet() {
+    // empty constructor
+  }
+
+  private static final String SERIES_SCAN_POINT_NUM = "series_scan_point_num";
+  // pages which overlap no other data, output as a whole
+  public static final String PAGE_READER = "page_reader";
+  // two overlapped pages merged as decoded columns
+  public static final String TWO_WAY_MERGE = "two_way_merge";
+  // overlapped pages merged point by point through the PriorityMergeReader
+  public static final String MERGE_READER = "merge_reader";
+
+  private Histogram pageReaderPointNumHistogram = DoNothingMetricManager.DO_NOTHING_HISTOGRAM;
+  private Histogram twoWayMergePointNumHistogram = DoNothingMetricManager.DO_NOTHING_HISTOGRAM;
+  private Histogram mergeReaderPointNumHistogram = DoNothingMetricManager.DO_NOTHING_HISTOGRAM;
+
+  @Override
+  public void bindTo(AbstractMetricService metricService) {
+    pageReaderPointNumHistogram = createPointNumHistogram(metricService, PAGE_READER);
+    twoWayMergePointNumHistogram = createPointNumHistogram(metricService, TWO_WAY_MERGE);
+    mergeReaderPointNumHistogram = createPointNumHistogram(metricService, MERGE_READER);
+  }
+
+  private Histogram createPointNumHistogram(AbstractMetricService metricService, String from) {
+    return metricService.getOrCreateHistogram(
+        Metric.SERIES_SCAN_COUNT.toString(),
+        MetricLevel.IMPORTANT,
+        Tag.NAME.toString(),
+        SERIES_SCAN_POINT_NUM,
+        Tag.FROM.toString(),
+        from);
+  }
+
+  @Override
+  public void unbindFrom(AbstractMetricService metricService) {
+    pageReaderPointNumHistogram = DoNothingMetricManager.DO_NOTHING_HISTOGRAM;
+    twoWayMergePointNumHistogram = DoNothingMetricManager.DO_NOTHING_HISTOGRAM;
+    mergeReaderPointNumHistogram = DoNothingMetricManager.DO_NOTHING_HISTOGRAM;
+    Arrays.asList(PAGE_READER, TWO_WAY_MERGE, MERGE_READER)
+        .forEach(
+            from ->
+                metricService.remove(
+                    MetricType.HISTOGRAM,
+                    Metric.SERIES_SCAN_COUNT.toString(),
+                    Tag.NAME.toString(),
+                    SERIES_SCAN_POINT_NUM,
+                    Tag.FROM.toString(),
+                    from));
+  }
+
+  public void recordPointNum(String from, int num) {
+    switch (from) {
+      case PAGE_READER:
+        pageReaderPointNumHistogram.update(num);
+        break;
+      case TWO_WAY_MERGE:
+        twoWayMergePointNumHistogram.update(num);
+        break;
+      case MERGE_READER:
+        mergeReaderPointNumHistogram.update(num);
+        break;
+      default:
+        break;
+    }
+  }
+
+  public static SeriesScanCountMetricSet getInstance() {
+    return INSTANCE;
+  }
+}
@@ -29,6 +29,7 @@ import org.apache.iotdb.commons.concurrent.ThreadName;
 import org.apache.iotdb.commons.conf.IoTDBConstant;
 import org.apache.iotdb.db.conf.IoTDBConfig;
 import org.apache.iotdb.db.conf.IoTDBDescriptor;
+import org.apache.iotdb.db.exception.query.QueryTimeoutRuntimeException;
 import org.apache.iotdb.db.queryengine.common.DataNodeEndPoints;
 import org.apache.iotdb.db.queryengine.common.MPPQueryContext;
 import org.apache.iotdb.db.queryengine.common.QueryId;
@@ -43,6 +44,7 @@ import org.apache.iotdb.db.queryengine.plan.execution.config.ConfigExecution;
 import org.apache.iotdb.db.queryengine.plan.statement.IConfigStatement;
 import org.apache.iotdb.db.queryengine.plan.statement.Statement;
 import org.apache.iotdb.db.utils.SetThreadName;
+import org.apache.iotdb.rpc.TSStatusCode;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -90,8 +92,12 @@ public class Coordinator {
 
   private final ConcurrentHashMap<Long, IQueryExecution> queryExecutionMap;
 
+  private final QueryAdmissionController admissionController;
+
   private Coordinator() {
     this.queryExecutionMap = new ConcurrentHashMap<>();
+    this.admissionController =
+        new QueryAdmissionController(CONFIG.getMaxConcurrentQueriesPerUser());
     this.executor = getQueryExecutor();
     this.writeOperationExecutor = getWriteExecutor();
     this.scheduledExecutor = getScheduledExecutor();
@@ -152,13 +158,40 @@ public class Coordinator {
               timeOut > 0 ? timeOut : CONFIG.getQueryTimeoutThreshold(),
               startTime);
       if (execution.isQuery()) {
+        // admit the query once here, before any of its fragment instances is dispatched
+        admit(queryId, session, queryContext);
         queryExecutionMap.put(queryId, execution);
       } else {
         // we won't limit write operation's execution time
         queryContext.setTimeOut(Long.MAX_VALUE);
       }
       execution.start();
-      return execution.getStatus();
+      ExecutionResult result = execution.getStatus();
+      if (execution.isQuery()
+          && result.status.code != TSStatusCode.SUCCESS_STATUS.getStatusCode()
+          && result.status.code != TSStatusCode.REDIRECTION_RECOMMEND.getStatusCode()) {
+        // the failed query has cleaned itself up and will not be fetched
+        admissionController.release(queryId);
+      }
+      return result;
+    }
+  }
+
+  private void admit(long queryId, SessionInfo session, MPPQueryContext queryContext) {
+    long timeout =
+        queryContext.getTimeOut() - (System.currentTimeMillis() - queryContext.getStartTime());
+    boolean admitted;
+    try {
+      admitted =
+          admissionController.admit(
+              queryId, session == null ? null : session.getUserName(), timeout);
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      admitted = false;
+    }
+    if (!admitted) {
+      throw new QueryTimeoutRuntimeException(
+          queryContext.getStartTime(), System.currentTimeMillis(), queryContext.getTimeOut());
     }
   }
 
@@ -186,6 +219,10 @@ public class Coordinator {
     return queryExecutionMap.size();
   }
 
+  public int getAdmissionPendingQueryCount() {
+    return admissionController.getPendingQueryCount();
+  }
+
   // TODO: (xingtanzjr) need to redo once we have a concrete policy for the threadPool management
   private ExecutorService getQueryExecutor() {
     int coordinatorReadExecutorSize =
@@ -218,6 +255,7 @@ public class Coordinator {
         LOGGER.debug("[CleanUpQuery]]");
         queryExecution.stopAndCleanup(t);
         queryExecutionMap.remove(queryId);
+        admissionController.release(queryId);
         if (queryExecution.isQuery()) {
           long costTime = queryExecution.getTotalExecutionTime();
           if (costTime / 1_000_000 >= CONFIG.getSlowQueryThreshold()) {
@@ -0,0 +1,144 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.iotdb.db.queryengine.plan;
+
+import org.apache.iotdb.commons.conf.IoTDBConstant;
+import org.apache.iotdb.commons.utils.TestOnly;
+import org.apache.iotdb.db.queryengine.metric.QueryPlanCostMetricSet;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+
+import static org.apache.iotdb.db.queryengine.metric.QueryPlanCostMetricSet.ADMISSION;
+
+/**
+ * Limits how many queries of one user can run at the same time on this coordinator. A query is
+ * admitted once, before any of its fragment instances is dispatched, and released once it is
+ * cleaned up, so all of its fragment instances are scheduled by the DataNodes right away. Admitting
+ * fragment instances on each DataNode instead may deadlock, as two queries of a user may each be
+ * admitted on one DataNode and wait for the other one on another DataNode.
+ *
+ * <p>Queries beyond the limit wait in the order of arrival, until another query of the same user is
+ * released or their timeout is reached. Queries without a user name and queries of root are never
+ * limited. The limit is counted on each coordinator separately.
+ */
+public class QueryAdmissionController {
+
+  private static final QueryPlanCostMetricSet QUERY_PLAN_COST_METRIC_SET =
+      QueryPlanCostMetricSet.getInstance();
+
+  private final int maxConcurrentQueriesPerUser;
+
+  private final Map<String, UserQueries> userQueriesMap = new HashMap<>();
+  private final Map<Long, String> queryUserMap = new HashMap<>();
+
+  private int pendingQueryCount = 0;
+
+  public QueryAdmissionController(int maxConcurrentQueriesPerUser) {
+    this.maxConcurrentQueriesPerUser = maxConcurrentQueriesPerUser;
+  }
+
+  /**
+   * Wait until the query can run, the query must be released by {@link #release(long)} once it is
+   * cleaned up.
+   *
+   * @return true if the query is admitted, false if it is not admitted in the timeout
+   */
+  public synchronized boolean admit(long queryId, String userName, long timeoutInMs)
+      throws InterruptedException {
+    if (maxConcurrentQueriesPerUser <= 0
+        || userName == null
+        || IoTDBConstant.PATH_ROOT.equals(userName)) {
+      return true;
+    }
+    UserQueries userQueries = userQueriesMap.computeIfAbsent(userName, k -> new UserQueries());
+    if (userQueries.runningQueries.contains(queryId)) {
+      return true;
+    }
+
+    long startTime = System.nanoTime();
+    long currentTime = System.currentTimeMillis();
+    long deadline =
+        timeoutInMs > Long.MAX_VALUE - currentTime ? Long.MAX_VALUE : currentTime + timeoutInMs;
+    userQueries.pendingQueries.addLast(queryId);
+    pendingQueryCount++;
+    try {
+      while (userQueries.pendingQueries.peekFirst() != queryId
+          || userQueries.runningQueries.size() >= maxConcurrentQueriesPerUser) {
+        long remainingTime = deadline - System.currentTimeMillis();
+        if (remainingTime <= 0) {
+          return false;
+        }
+        wait(remainingTime);
+      }
+      userQueries.runningQueries.add(queryId);
+      queryUserMap.put(queryId, userName);
+      return true;
+    } finally {
+      userQueries.pendingQueries.remove(queryId);
+      pendingQueryCount--;
+      if (userQueries.isEmpty()) {
+        userQueriesMap.remove(userName);
+      }
+      QUERY_PLAN_COST_METRIC_SET.recordPlanCost(ADMISSION, System.nanoTime() - startTime);
+      // the next pending query may be admitted now
+      notifyAll();
+    }
+  }
+
+  /** Called when a query is cleaned up, it does nothing if the query is not admitted. */
+  public synchronized void release(long queryId) {
+    String userName = queryUserMap.remove(queryId);
+    if (userName == null) {
+      return;
+    }
+    UserQueries userQueries = userQueriesMap.get(userName);
+    userQueries.runningQueries.remove(queryId);
+    if (userQueries.isEmpty()) {
+      userQueriesMap.remove(userName);
+    }
+    notifyAll();
+  }
+
+  public synchronized int getPendingQueryCount() {
+    return pendingQueryCount;
+  }
+
+  @TestOnly
+  public synchronized int getRunningQueryCount(String userName) {
+    UserQueries userQueries = userQueriesMap.get(userName);
+    return userQueries == null ? 0 : userQueries.runningQueries.size();
+  }
+
+  private static class UserQueries {
+
+    private final Set<Long> runningQueries = new HashSet<>();
+
+    private final Deque<Long> pendingQueries = new ArrayDeque<>();
+
+    private boolean isEmpty() {
+      return runningQueries.isEmpty() && pendingQueries.isEmpty();
+    }
+  }
+}
@@ -249,7 +249,7 @@ public class FunctionExpression extends Expression {
   public boolean isMappable(Map<NodeRef<Expression>, TSDataType> expressionTypes) {
     if (!isBuiltInAggregationFunctionExpression() && !isBuiltInScalarFunction()) {
       // this is a UDF function
-      boolean isCurrentMappable =
+      AccessStrategy.AccessStrategyType accessStrategyType =
           new UDTFInformationInferrer(functionName)
               .getAccessStrategy(
                   expressions.stream()
@@ -259,8 +259,10 @@ public class FunctionExpression extends Expression {
                       .map(f -> expressionTypes.get(NodeRef.of(f)))
                       .collect(Collectors.toList()),
                   functionAttributes)
-              .getAccessStrategyType()
-              .equals(AccessStrategy.AccessStrategyType.MAPPABLE_ROW_BY_ROW);
+              .getAccessStrategyType();
+      boolean isCurrentMappable =
+          accessStrategyType.equals(AccessStrategy.AccessStrategyType.MAPPABLE_ROW_BY_ROW)
+              || accessStrategyType.equals(AccessStrategy.AccessStrategyType.COLUMN_BATCH);
       if (!isCurrentMappable) {
         return false;
       }
@@ -407,6 +407,7 @@ public class IntermediateLayerVisitor
     AccessStrategy accessStrategy = executor.getConfigurations().getAccessStrategy();
     switch (accessStrategy.getAccessStrategyType()) {
       case MAPPABLE_ROW_BY_ROW:
+      case COLUMN_BATCH:
         return new MappableUDFQueryRowTransformer(
             udfInputIntermediateLayer.constructRowReader(), executor);
       case ROW_BY_ROW:
@@ -2897,11 +2897,19 @@ public class ASTVisitor extends IoTDBSqlParserBaseVisitor<Statement> {
       case SqlConstant.VARIANCE:
       case SqlConstant.VAR_POP:
       case SqlConstant.VAR_SAMP:
+      case SqlConstant.APPROX_COUNT_DISTINCT:
         checkFunctionExpressionInputSize(
             functionExpression.getExpressionString(),
             functionExpression.getExpressions().size(),
             1);
         return;
+      case SqlConstant.APPROX_PERCENTILE:
+        checkFunctionExpressionInputSize(
+            functionExpression.getExpressionString(),
+            functionExpression.getExpressions().size(),
+            1);
+        checkPercentileRank(functionExpression);
+        return;
       case SqlConstant.COUNT_IF:
         checkFunctionExpressionInputSize(
             functionExpression.getExpressionString(),
@@ -2914,6 +2922,25 @@ public class ASTVisitor extends IoTDBSqlParserBaseVisitor<Statement> {
     }
   }
 
+  private void checkPercentileRank(FunctionExpression functionExpression) {
+    String rank = functionExpression.getFunctionAttributes().get("rank");
+    if (rank == null) {
+      return;
+    }
+    double value;
+    try {
+      value = Double.parseDouble(rank);
+    } catch (NumberFormatException e) {
+      value = Double.NaN;
+    }
+    if (!(value >= 0 && value <= 1)) {
+      throw new SemanticException(
+          String.format(
+              "Attribute 'rank' of %s should be a number in [0, 1], actual: %s",
+              functionExpression.getExpressionString(), rank));
+    }
+  }
+
   private void checkBuiltInScalarFunctionInput(FunctionExpression functionExpression) {
     BuiltInScalarFunctionHelperFactory.createHelper(functionExpression.getFunctionName())
         .checkBuiltInScalarFunctionInputSize(functionExpression);
@@ -19,14 +19,17 @@
 
 package org.apache.iotdb.db.queryengine.plan.planner;
 
+import org.apache.iotdb.common.rpc.thrift.TAggregationType;
 import org.apache.iotdb.common.rpc.thrift.TEndPoint;
 import org.apache.iotdb.commons.path.AlignedPath;
 import org.apache.iotdb.commons.path.MeasurementPath;
 import org.apache.iotdb.commons.path.PartialPath;
+import org.apache.iotdb.db.conf.IoTDBConfig;
 import org.apache.iotdb.db.conf.IoTDBDescriptor;
 import org.apache.iotdb.db.exception.query.QueryProcessException;
 import org.apache.iotdb.db.queryengine.common.FragmentInstanceId;
 import org.apache.iotdb.db.queryengine.common.NodeRef;
+import org.apache.iotdb.db.queryengine.execution.aggregation.Accumulator;
 import org.apache.iotdb.db.queryengine.execution.aggregation.AccumulatorFactory;
 import org.apache.iotdb.db.queryengine.execution.aggregation.Aggregator;
 import org.apache.iotdb.db.queryengine.execution.aggregation.slidingwindow.SlidingWindowAggregatorFactory;
@@ -51,11 +54,13 @@ import org.apache.iotdb.db.queryengine.execution.operator.process.DeviceViewInto
 import org.apache.iotdb.db.queryengine.execution.operator.process.DeviceViewOperator;
 import org.apache.iotdb.db.queryengine.execution.operator.process.FillOperator;
 import org.apache.iotdb.db.queryengine.execution.operator.process.FilterAndProjectOperator;
+import org.apache.iotdb.db.queryengine.execution.operator.process.HashAggregationOperator;
 import org.apache.iotdb.db.queryengine.execution.operator.process.IntoOperator;
 import org.apache.iotdb.db.queryengine.execution.operator.process.LimitOperator;
 import org.apache.iotdb.db.queryengine.execution.operator.process.LinearFillOperator;
 import org.apache.iotdb.db.queryengine.execution.operator.process.MergeSortOperator;
 import org.apache.iotdb.db.queryengine.execution.operator.process.OffsetOperator;
+import org.apache.iotdb.db.queryengine.execution.operator.process.OrderedConcatOperator;
 import org.apache.iotdb.db.queryengine.execution.operator.process.ProcessOperator;
 import org.apache.iotdb.db.queryengine.execution.operator.process.RawDataAggregationOperator;
 import org.apache.iotdb.db.queryengine.execution.operator.process.SingleDeviceViewOperator;
@@ -146,6 +151,7 @@ import org.apache.iotdb.db.queryengine.plan.expression.leaf.TimeSeriesOperand;
 import org.apache.iotdb.db.queryengine.plan.expression.leaf.TimestampOperand;
 import org.apache.iotdb.db.queryengine.plan.expression.visitor.ColumnTransformerVisitor;
 import org.apache.iotdb.db.queryengine.plan.planner.plan.node.PlanNode;
+import org.apache.iotdb.db.queryengine.plan.planner.plan.node.PlanNodeId;
 import org.apache.iotdb.db.queryengine.plan.planner.plan.node.PlanVisitor;
 import org.apache.iotdb.db.queryengine.plan.planner.plan.node.metedata.read.CountSchemaMergeNode;
 import org.apache.iotdb.db.queryengine.plan.planner.plan.node.metedata.read.DevicesCountNode;
@@ -200,6 +206,7 @@ import org.apache.iotdb.db.queryengine.plan.planner.plan.node.source.SeriesScanN
 import org.apache.iotdb.db.queryengine.plan.planner.plan.node.source.SeriesSourceNode;
 import org.apache.iotdb.db.queryengine.plan.planner.plan.node.source.ShowQueriesNode;
 import org.apache.iotdb.db.queryengine.plan.planner.plan.parameter.AggregationDescriptor;
+import org.apache.iotdb.db.queryengine.plan.planner.plan.parameter.AggregationStep;
 import org.apache.iotdb.db.queryengine.plan.planner.plan.parameter.CrossSeriesAggregationDescriptor;
 import org.apache.iotdb.db.queryengine.plan.planner.plan.parameter.DeviceViewIntoPathDescriptor;
 import org.apache.iotdb.db.queryengine.plan.planner.plan.parameter.FillDescriptor;
@@ -222,6 +229,8 @@ import org.apache.iotdb.db.queryengine.statistics.StatisticsManager;
 import org.apache.iotdb.db.queryengine.transformation.dag.column.ColumnTransformer;
 import org.apache.iotdb.db.queryengine.transformation.dag.column.leaf.LeafColumnTransformer;
 import org.apache.iotdb.db.queryengine.transformation.dag.udf.UDTFContext;
+import org.apache.iotdb.db.storageengine.dataregion.DataRegion;
+import org.apache.iotdb.db.storageengine.dataregion.tsfile.TsFileResource;
 import org.apache.iotdb.db.utils.columngenerator.ColumnGenerator;
 import org.apache.iotdb.db.utils.columngenerator.ColumnGeneratorType;
 import org.apache.iotdb.db.utils.columngenerator.SlidingTimeColumnGenerator;
@@ -232,6 +241,8 @@ import org.apache.iotdb.tsfile.file.metadata.enums.TSDataType;
 import org.apache.iotdb.tsfile.read.TimeValuePair;
 import org.apache.iotdb.tsfile.read.common.block.TsBlockBuilder;
 import org.apache.iotdb.tsfile.read.filter.basic.Filter;
+import org.apache.iotdb.tsfile.read.filter.factory.FilterFactory;
+import org.apache.iotdb.tsfile.read.filter.factory.TimeFilterApi;
 import org.apache.iotdb.tsfile.read.filter.operator.TimeFilterOperators.TimeGt;
 import org.apache.iotdb.tsfile.read.filter.operator.TimeFilterOperators.TimeGtEq;
 import org.apache.iotdb.tsfile.utils.Binary;
@@ -302,9 +313,43 @@ public class OperatorTreeGenerator extends PlanVisitor<Operator, LocalExecutionP
 
   @Override
   public Operator visitSeriesScan(SeriesScanNode node, LocalExecutionPlanContext context) {
+    List<Long> splitPoints =
+        node.getPushDownLimit() == 0 && node.getPushDownOffset() == 0
+            ? getIntraSeriesScanSplitPoints(node, context)
+            : Collections.emptyList();
+    if (splitPoints.isEmpty()) {
+      return createSeriesScanOperator(node, context, null);
+    }
+
+    // scan each time range in its own pipeline and output them one after another in scan order
+    List<Filter> splitTimeFilters = getSplitTimeFilters(splitPoints, node.getScanOrder());
+    List<Operator> children = new ArrayList<>(splitTimeFilters.size());
+    children.add(createSeriesScanOperator(node, context, splitTimeFilters.get(0)));
+    for (int i = 1; i < splitTimeFilters.size(); i++) {
+      LocalExecutionPlanContext subContext = context.createSubContext();
+      subContext.setDegreeOfParallelism(1);
+      Operator childOperation = createSeriesScanOperator(node, subContext, splitTimeFilters.get(i));
+      children.add(
+          createNewPipelineForChildOperator(
+              context, subContext, childOperation, node.getPlanNodeId()));
+      context.addExchangeSumNum(1);
+    }
+    OperatorContext operatorContext =
+        context
+            .getDriverContext()
+            .addOperatorContext(
+                context.getNextOperatorId(),
+                node.getPlanNodeId(),
+                OrderedConcatOperator.class.getSimpleName());
+    return new OrderedConcatOperator(operatorContext, children);
+  }
+
+  private SeriesScanOperator createSeriesScanOperator(
+      SeriesScanNode node, LocalExecutionPlanContext context, Filter splitTimeFilter) {
     PartialPath seriesPath = node.getSeriesPath();
 
-    SeriesScanOptions.Builder scanOptionsBuilder = getSeriesScanOptionsBuilder(node, context);
+    SeriesScanOptions.Builder scanOptionsBuilder =
+        getSeriesScanOptionsBuilder(node, context, splitTimeFilter);
     scanOptionsBuilder.withAllSensors(
         context.getAllSensors(seriesPath.getDevice(), seriesPath.getMeasurement()));
     scanOptionsBuilder.withPushDownLimit(node.getPushDownLimit());
@@ -372,6 +417,78 @@ public class OperatorTreeGenerator extends PlanVisitor<Operator, LocalExecutionP
   @Override
   public Operator visitSeriesAggregationScan(
       SeriesAggregationScanNode node, LocalExecutionPlanContext context) {
+    List<Long> splitPoints =
+        node.isOutputEndTime()
+            ? Collections.emptyList()
+            : getIntraSeriesScanSplitPoints(node, context);
+    if (splitPoints.isEmpty()) {
+      return createSeriesAggregationScanOperator(node, context, null);
+    }
+
+    // aggregate each time range in its own pipeline into partial results, and then merge them
+    List<Filter> splitTimeFilters = getSplitTimeFilters(splitPoints, node.getScanOrder());
+    List<Operator> children = new ArrayList<>(splitTimeFilters.size());
+    children.add(createSeriesAggregationScanOperator(node, context, splitTimeFilters.get(0)));
+    for (int i = 1; i < splitTimeFilters.size(); i++) {
+      LocalExecutionPlanContext subContext = context.createSubContext();
+      subContext.setDegreeOfParallelism(1);
+      Operator childOperation =
+          createSeriesAggregationScanOperator(node, subContext, splitTimeFilters.get(i));
+      children.add(
+          createNewPipelineForChildOperator(
+              context, subContext, childOperation, node.getPlanNodeId()));
+      context.addExchangeSumNum(1);
+    }
+
+    boolean ascending = node.getScanOrder() == Ordering.ASC;
+    List<Aggregator> aggregators = new ArrayList<>();
+    int valueColumnIndex = 0;
+    for (AggregationDescriptor descriptor : node.getAggregationDescriptorList()) {
+      Accumulator accumulator =
+          AccumulatorFactory.createAccumulator(
+              descriptor.getAggregationType(),
+              node.getSeriesPath().getSeriesType(),
+              descriptor.getInputExpressions(),
+              descriptor.getInputAttributes(),
+              ascending);
+      int intermediateColumnNum = accumulator.getIntermediateType().length;
+      List<InputLocation[]> inputLocationList = new ArrayList<>(children.size());
+      for (int childIndex = 0; childIndex < children.size(); childIndex++) {
+        InputLocation[] inputLocations = new InputLocation[intermediateColumnNum];
+        for (int i = 0; i < intermediateColumnNum; i++) {
+          inputLocations[i] = new InputLocation(childIndex, valueColumnIndex + i);
+        }
+        inputLocationList.add(inputLocations);
+      }
+      valueColumnIndex += intermediateColumnNum;
+      aggregators.add(
+          new Aggregator(
+              accumulator,
+              descriptor.getStep().isOutputPartial()
+                  ? AggregationStep.INTERMEDIATE
+                  : AggregationStep.FINAL,
+              inputLocationList));
+    }
+    ITimeRangeIterator timeRangeIterator =
+        initTimeRangeIterator(node.getGroupByTimeParameter(), ascending, true);
+    long maxReturnSize = calculateMaxAggregationResultSize(aggregators, timeRangeIterator);
+    OperatorContext operatorContext =
+        context
+            .getDriverContext()
+            .addOperatorContext(
+                context.getNextOperatorId(),
+                node.getPlanNodeId(),
+                AggregationOperator.class.getSimpleName());
+    return new AggregationOperator(
+        operatorContext, aggregators, timeRangeIterator, children, false, maxReturnSize);
+  }
+
+  /**
+   * If {@code splitTimeFilter} is not null, the scan only covers that time range and outputs the
+   * partial results of its aggregations.
+   */
+  private SeriesAggregationScanOperator createSeriesAggregationScanOperator(
+      SeriesAggregationScanNode node, LocalExecutionPlanContext context, Filter splitTimeFilter) {
     PartialPath seriesPath = node.getSeriesPath();
     boolean ascending = node.getScanOrder() == Ordering.ASC;
     List<AggregationDescriptor> aggregationDescriptors = node.getAggregationDescriptorList();
@@ -386,18 +503,22 @@ public class OperatorTreeGenerator extends PlanVisitor<Operator, LocalExecutionP
                         o.getInputExpressions(),
                         o.getInputAttributes(),
                         ascending),
-                    o.getStep())));
+                    splitTimeFilter == null ? o.getStep() : AggregationStep.PARTIAL)));
 
     GroupByTimeParameter groupByTimeParameter = node.getGroupByTimeParameter();
     ITimeRangeIterator timeRangeIterator =
         initTimeRangeIterator(groupByTimeParameter, ascending, true);
     long maxReturnSize =
-        AggregationUtil.calculateMaxAggregationResultSize(
-            node.getAggregationDescriptorList(), timeRangeIterator, context.getTypeProvider());
+        splitTimeFilter == null
+            ? AggregationUtil.calculateMaxAggregationResultSize(
+                node.getAggregationDescriptorList(), timeRangeIterator, context.getTypeProvider())
+            : calculateMaxAggregationResultSize(aggregators, timeRangeIterator);
 
-    SeriesScanOptions.Builder scanOptionsBuilder = getSeriesScanOptionsBuilder(node, context);
+    SeriesScanOptions.Builder scanOptionsBuilder =
+        getSeriesScanOptionsBuilder(node, context, splitTimeFilter);
     scanOptionsBuilder.withAllSensors(
         context.getAllSensors(seriesPath.getDevice(), seriesPath.getMeasurement()));
+    SeriesScanOptions scanOptions = scanOptionsBuilder.build();
 
     OperatorContext operatorContext =
         context
@@ -412,12 +533,31 @@ public class OperatorTreeGenerator extends PlanVisitor<Operator, LocalExecutionP
             seriesPath,
             node.getScanOrder(),
             node.isOutputEndTime(),
-            scanOptionsBuilder.build(),
+            scanOptions,
             operatorContext,
             aggregators,
             timeRangeIterator,
             node.getGroupByTimeParameter(),
             maxReturnSize);
+    // the cached window results are final ones, so they are not used by the partial scans of split
+    // time ranges
+    if (groupByTimeParameter != null
+        && splitTimeFilter == null
+        && IoTDBDescriptor.getInstance().getConfig().isEnableAggregationWindowResultCache()) {
+      // the global time filter is not a part of the signature, windows not covered by it are
+      // never cached
+      StringBuilder scanSignature =
+          new StringBuilder(seriesPath.getFullPath())
+              .append('|')
+              .append(node.getScanOrder())
+              .append('|')
+              .append(scanOptions.getPushDownFilter());
+      for (AggregationDescriptor descriptor : aggregationDescriptors) {
+        scanSignature.append('|').append(String.join(",", descriptor.getOutputColumnNames()));
+      }
+      aggregateScanOperator.enableWindowResultCache(
+          seriesPath.getDevice(), scanSignature.toString());
+    }
 
     ((DataDriverContext) context.getDriverContext()).addSourceOperator(aggregateScanOperator);
     ((DataDriverContext) context.getDriverContext()).addPath(seriesPath);
@@ -513,9 +653,21 @@ public class OperatorTreeGenerator extends PlanVisitor<Operator, LocalExecutionP
   // TODO: push down value filter
   private SeriesScanOptions.Builder getSeriesScanOptionsBuilder(
       SeriesSourceNode node, LocalExecutionPlanContext context) {
+    return getSeriesScanOptionsBuilder(node, context, null);
+  }
+
+  /** The scan is restricted to {@code splitTimeFilter} in addition if it is not null. */
+  private SeriesScanOptions.Builder getSeriesScanOptionsBuilder(
+      SeriesSourceNode node, LocalExecutionPlanContext context, Filter splitTimeFilter) {
     SeriesScanOptions.Builder scanOptionsBuilder = new SeriesScanOptions.Builder();
 
     Filter globalTimeFilter = context.getGlobalTimeFilter();
+    if (splitTimeFilter != null) {
+      globalTimeFilter =
+          globalTimeFilter == null
+              ? splitTimeFilter
+              : FilterFactory.and(globalTimeFilter.copy(), splitTimeFilter);
+    }
     if (globalTimeFilter != null) {
       // time filter may be stateful, so we need to copy it
       scanOptionsBuilder.withGlobalTimeFilter(globalTimeFilter.copy());
@@ -528,6 +680,78 @@ public class OperatorTreeGenerator extends PlanVisitor<Operator, LocalExecutionP
     return scanOptionsBuilder;
   }
 
+  /**
+   * Get the timestamps at which a scan of the given series could be split into time ranges that are
+   * scanned in parallel, each of them covers about the same number of sealed sequence TsFiles of
+   * the device. Since sequence files of one device never overlap, each file is entirely scanned by
+   * one range, while unsequence files and memtables are simply filtered by every range.
+   *
+   * @return the split points in ascending order, empty if the scan should not be split
+   */
+  private List<Long> getIntraSeriesScanSplitPoints(
+      SeriesSourceNode node, LocalExecutionPlanContext context) {
+    IoTDBConfig config = IoTDBDescriptor.getInstance().getConfig();
+    if (!config.isEnableIntraSeriesParallelScan()
+        || context.getDegreeOfParallelism() <= 1
+        || !(context.getInstanceContext().getDataRegion() instanceof DataRegion)) {
+      return Collections.emptyList();
+    }
+
+    String device = node.getPartitionPath().getDevice();
+    Filter globalTimeFilter = context.getGlobalTimeFilter();
+    List<Long> fileStartTimes = new ArrayList<>();
+    for (TsFileResource resource :
+        ((DataRegion) context.getInstanceContext().getDataRegion())
+            .getTsFileManager()
+            .getTsFileList(true)) {
+      if (!resource.isClosed() || resource.isDeleted() || resource.definitelyNotContains(device)) {
+        continue;
+      }
+      long startTime = resource.getStartTime(device);
+      if (globalTimeFilter == null
+          || globalTimeFilter.satisfyStartEndTime(startTime, resource.getEndTime(device))) {
+        fileStartTimes.add(startTime);
+      }
+    }
+
+    int splitNum =
+        Math.min(
+            context.getDegreeOfParallelism(),
+            fileStartTimes.size()
+                / Math.max(1, config.getIntraSeriesParallelScanMinFileNumPerSplit()));
+    if (splitNum <= 1) {
+      return Collections.emptyList();
+    }
+    Collections.sort(fileStartTimes);
+    List<Long> splitPoints = new ArrayList<>(splitNum - 1);
+    for (int i = 1; i < splitNum; i++) {
+      long splitPoint = fileStartTimes.get(i * fileStartTimes.size() / splitNum);
+      if (splitPoints.isEmpty() || splitPoints.get(splitPoints.size() - 1) < splitPoint) {
+        splitPoints.add(splitPoint);
+      }
+    }
+    return splitPoints;
+  }
+
+  /**
+   * Turn the split points into time filters of disjoint ranges that cover the whole time line,
+   * ordered by the scan order.
+   */
+  private List<Filter> getSplitTimeFilters(List<Long> splitPoints, Ordering scanOrder) {
+    List<Filter> splitTimeFilters = new ArrayList<>(splitPoints.size() + 1);
+    splitTimeFilters.add(TimeFilterApi.lt(splitPoints.get(0)));
+    for (int i = 1; i < splitPoints.size(); i++) {
+      splitTimeFilters.add(
+          FilterFactory.and(
+              TimeFilterApi.gtEq(splitPoints.get(i - 1)), TimeFilterApi.lt(splitPoints.get(i))));
+    }
+    splitTimeFilters.add(TimeFilterApi.gtEq(splitPoints.get(splitPoints.size() - 1)));
+    if (scanOrder == Ordering.DESC) {
+      Collections.reverse(splitTimeFilters);
+    }
+    return splitTimeFilters;
+  }
+
   @Override
   public Operator visitSchemaQueryOrderByHeat(
       SchemaQueryOrderByHeatNode node, LocalExecutionPlanContext context) {
@@ -1307,10 +1531,13 @@ public class OperatorTreeGenerator extends PlanVisitor<Operator, LocalExecutionP
         "GroupByLevel descriptorList cannot be empty");
     List<Operator> children = dealWithConsumeAllChildrenPipelineBreaker(node, context);
     boolean ascending = node.getScanOrder() == Ordering.ASC;
-    List<Aggregator> aggregators = new ArrayList<>();
     Map<String, List<InputLocation>> layout = makeLayout(node);
     List<CrossSeriesAggregationDescriptor> aggregationDescriptors =
         node.getGroupByLevelDescriptors();
+    List<List<InputLocation[]>> inputLocationLists = new ArrayList<>();
+    List<TSDataType> seriesDataTypes = new ArrayList<>();
+    boolean canUseHashAggregation = true;
+    int inputSeriesCount = 0;
     for (CrossSeriesAggregationDescriptor descriptor : aggregationDescriptors) {
       List<InputLocation[]> inputLocationList = calcInputLocationList(descriptor, layout);
       TSDataType seriesDataType =
@@ -1318,16 +1545,62 @@ public class OperatorTreeGenerator extends PlanVisitor<Operator, LocalExecutionP
               .getTypeProvider()
               // get the type of first inputExpression
               .getType(descriptor.getInputExpressions().get(0).getExpressionString());
+      inputLocationLists.add(inputLocationList);
+      seriesDataTypes.add(seriesDataType);
+      inputSeriesCount += inputLocationList.size();
+      canUseHashAggregation &=
+          HashAggregationOperator.isSupported(
+              descriptor.getAggregationType(), descriptor.getStep(), seriesDataType);
+    }
+
+    GroupByTimeParameter groupByTimeParameter = node.getGroupByTimeParameter();
+    ITimeRangeIterator timeRangeIterator =
+        initTimeRangeIterator(groupByTimeParameter, ascending, false);
+    long maxReturnSize =
+        calculateMaxAggregationResultSize(
+            aggregationDescriptors, timeRangeIterator, context.getTypeProvider());
+
+    // many series are merged into each output column, fold them in flat arrays column by column
+    int seriesPerGroupThreshold =
+        IoTDBDescriptor.getInstance().getConfig().getHashAggregationSeriesPerGroupThreshold();
+    if (canUseHashAggregation
+        && seriesPerGroupThreshold > 0
+        && inputSeriesCount >= seriesPerGroupThreshold * aggregationDescriptors.size()) {
+      OperatorContext operatorContext =
+          context
+              .getDriverContext()
+              .addOperatorContext(
+                  context.getNextOperatorId(),
+                  node.getPlanNodeId(),
+                  HashAggregationOperator.class.getSimpleName());
+      return new HashAggregationOperator(
+          operatorContext,
+          aggregationDescriptors.stream()
+              .map(AggregationDescriptor::getAggregationType)
+              .collect(Collectors.toList()),
+          aggregationDescriptors.stream()
+              .map(AggregationDescriptor::getStep)
+              .collect(Collectors.toList()),
+          seriesDataTypes,
+          inputLocationLists,
+          timeRangeIterator,
+          children,
+          maxReturnSize);
+    }
+
+    List<Aggregator> aggregators = new ArrayList<>();
+    for (int i = 0; i < aggregationDescriptors.size(); i++) {
+      CrossSeriesAggregationDescriptor descriptor = aggregationDescriptors.get(i);
       aggregators.add(
           new Aggregator(
               AccumulatorFactory.createAccumulator(
                   descriptor.getAggregationType(),
-                  seriesDataType,
+                  seriesDataTypes.get(i),
                   descriptor.getInputExpressions(),
                   descriptor.getInputAttributes(),
                   ascending),
               descriptor.getStep(),
-              inputLocationList));
+              inputLocationLists.get(i)));
     }
     OperatorContext operatorContext =
         context
@@ -1337,13 +1610,6 @@ public class OperatorTreeGenerator extends PlanVisitor<Operator, LocalExecutionP
                 node.getPlanNodeId(),
                 AggregationOperator.class.getSimpleName());
 
-    GroupByTimeParameter groupByTimeParameter = node.getGroupByTimeParameter();
-    ITimeRangeIterator timeRangeIterator =
-        initTimeRangeIterator(groupByTimeParameter, ascending, false);
-    long maxReturnSize =
-        calculateMaxAggregationResultSize(
-            aggregationDescriptors, timeRangeIterator, context.getTypeProvider());
-
     return new AggregationOperator(
         operatorContext, aggregators, timeRangeIterator, children, false, maxReturnSize);
   }
@@ -1398,6 +1664,17 @@ public class OperatorTreeGenerator extends PlanVisitor<Operator, LocalExecutionP
             .flatMap(Collection::stream)
             .filter(Objects::nonNull)
             .collect(Collectors.toList());
+    long maxReturnSize =
+        calculateMaxAggregationResultSize(
+            aggregationDescriptors, timeRangeIterator, context.getTypeProvider());
+
+    // many series are merged into each aggregation, fold them in flat arrays as GROUP BY LEVEL does
+    Operator hashAggregationOperator =
+        tryCreateHashAggregationOperator(
+            node, groups, layout, timeRangeIterator, children, maxReturnSize, context);
+    if (hashAggregationOperator != null) {
+      return hashAggregationOperator;
+    }
 
     OperatorContext operatorContext =
         context
@@ -1406,14 +1683,84 @@ public class OperatorTreeGenerator extends PlanVisitor<Operator, LocalExecutionP
                 context.getNextOperatorId(),
                 node.getPlanNodeId(),
                 TagAggregationOperator.class.getSimpleName());
-    long maxReturnSize =
-        calculateMaxAggregationResultSize(
-            aggregationDescriptors, timeRangeIterator, context.getTypeProvider());
-
     return new TagAggregationOperator(
         operatorContext, groups, groupedAggregators, children, maxReturnSize);
   }
 
+  /**
+   * Create a {@link HashAggregationOperator} for GROUP BY TAG if all the aggregations are supported
+   * by it and the number of input series per aggregation reaches the threshold, otherwise null.
+   */
+  private Operator tryCreateHashAggregationOperator(
+      GroupByTagNode node,
+      List<List<String>> groups,
+      Map<String, List<InputLocation>> layout,
+      ITimeRangeIterator timeRangeIterator,
+      List<Operator> children,
+      long maxReturnSize,
+      LocalExecutionPlanContext context) {
+    int seriesPerGroupThreshold =
+        IoTDBDescriptor.getInstance().getConfig().getHashAggregationSeriesPerGroupThreshold();
+    if (seriesPerGroupThreshold <= 0) {
+      return null;
+    }
+    List<TAggregationType> aggregationTypes = new ArrayList<>();
+    List<AggregationStep> steps = new ArrayList<>();
+    List<TSDataType> seriesDataTypes = new ArrayList<>();
+    List<List<InputLocation[]>> inputLocationLists = new ArrayList<>();
+    int aggregationCount = 0;
+    int inputSeriesCount = 0;
+    // the aggregations of each tag value list are laid out one after another, as groups iterates
+    for (List<CrossSeriesAggregationDescriptor> descriptors :
+        node.getTagValuesToAggregationDescriptors().values()) {
+      for (CrossSeriesAggregationDescriptor descriptor : descriptors) {
+        if (descriptor == null) {
+          aggregationTypes.add(null);
+          steps.add(null);
+          seriesDataTypes.add(null);
+          inputLocationLists.add(Collections.emptyList());
+          continue;
+        }
+        TSDataType seriesDataType =
+            context
+                .getTypeProvider()
+                .getType(descriptor.getInputExpressions().get(0).getExpressionString());
+        if (!HashAggregationOperator.isSupported(
+            descriptor.getAggregationType(), descriptor.getStep(), seriesDataType)) {
+          return null;
+        }
+        List<InputLocation[]> inputLocationList = calcInputLocationList(descriptor, layout);
+        aggregationTypes.add(descriptor.getAggregationType());
+        steps.add(descriptor.getStep());
+        seriesDataTypes.add(seriesDataType);
+        inputLocationLists.add(inputLocationList);
+        aggregationCount++;
+        inputSeriesCount += inputLocationList.size();
+      }
+    }
+    if (inputSeriesCount < seriesPerGroupThreshold * aggregationCount) {
+      return null;
+    }
+
+    OperatorContext operatorContext =
+        context
+            .getDriverContext()
+            .addOperatorContext(
+                context.getNextOperatorId(),
+                node.getPlanNodeId(),
+                HashAggregationOperator.class.getSimpleName());
+    return new HashAggregationOperator(
+        operatorContext,
+        groups,
+        aggregationTypes,
+        steps,
+        seriesDataTypes,
+        inputLocationLists,
+        timeRangeIterator,
+        children,
+        maxReturnSize);
+  }
+
   @Override
   public Operator visitSlidingWindowAggregation(
       SlidingWindowAggregationNode node, LocalExecutionPlanContext context) {
@@ -2738,10 +3085,19 @@ public class OperatorTreeGenerator extends PlanVisitor<Operator, LocalExecutionP
   private Operator createNewPipelineForChildNode(
       LocalExecutionPlanContext context, LocalExecutionPlanContext subContext, PlanNode childNode) {
     Operator childOperation = childNode.accept(this, subContext);
+    return createNewPipelineForChildOperator(
+        context, subContext, childOperation, childNode.getPlanNodeId());
+  }
+
+  private Operator createNewPipelineForChildOperator(
+      LocalExecutionPlanContext context,
+      LocalExecutionPlanContext subContext,
+      Operator childOperation,
+      PlanNodeId childPlanNodeId) {
     ISinkChannel localSinkChannel =
         MPP_DATA_EXCHANGE_MANAGER.createLocalSinkChannelForPipeline(
             // Attention, there is no parent node, use first child node instead
-            subContext.getDriverContext(), childNode.getPlanNodeId().getId());
+            subContext.getDriverContext(), childPlanNodeId.getId());
     subContext.setISink(localSinkChannel);
     subContext.addPipelineDriverFactory(childOperation, subContext.getDriverContext(), 0);
 
@@ -2754,7 +3110,7 @@ public class OperatorTreeGenerator extends PlanVisitor<Operator, LocalExecutionP
             MPP_DATA_EXCHANGE_MANAGER.createLocalSourceHandleForPipeline(
                 ((LocalSinkChannel) localSinkChannel).getSharedTsBlockQueue(),
                 context.getDriverContext()),
-            childNode.getPlanNodeId(),
+            childPlanNodeId,
             childOperation.calculateMaxReturnSize());
 
     context.addExchangeOperator(sourceOperator);
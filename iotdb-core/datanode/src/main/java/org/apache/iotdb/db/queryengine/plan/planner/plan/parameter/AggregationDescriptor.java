@@ -163,6 +163,12 @@ public class AggregationDescriptor {
         case VAR_SAMP:
           outputAggregationNames.add(SqlConstant.VAR_SAMP);
           break;
+        case APPROX_PERCENTILE:
+          outputAggregationNames.add(SqlConstant.APPROX_PERCENTILE);
+          break;
+        case APPROX_COUNT_DISTINCT:
+          outputAggregationNames.add(SqlConstant.APPROX_COUNT_DISTINCT);
+          break;
         default:
           outputAggregationNames.add(aggregationFuncName);
       }
@@ -20,7 +20,10 @@
 package org.apache.iotdb.db.queryengine.transformation.dag.column.binary;
 
 import org.apache.iotdb.db.queryengine.transformation.dag.column.ColumnTransformer;
+import org.apache.iotdb.db.queryengine.transformation.dag.column.binary.kernel.BinaryColumnKernel;
+import org.apache.iotdb.db.queryengine.transformation.dag.column.binary.kernel.ColumnKernels;
 import org.apache.iotdb.tsfile.read.common.type.Type;
+import org.apache.iotdb.tsfile.read.common.type.TypeEnum;
 
 public class ArithmeticAdditionColumnTransformer extends ArithmeticBinaryColumnTransformer {
   public ArithmeticAdditionColumnTransformer(
@@ -32,4 +35,9 @@ public class ArithmeticAdditionColumnTransformer extends ArithmeticBinaryColumnT
   protected double transform(double d1, double d2) {
     return d1 + d2;
   }
+
+  @Override
+  protected BinaryColumnKernel getArithmeticKernel(TypeEnum leftType, TypeEnum rightType) {
+    return ColumnKernels.add(leftType, rightType);
+  }
 }
@@ -20,9 +20,11 @@
 package org.apache.iotdb.db.queryengine.transformation.dag.column.binary;
 
 import org.apache.iotdb.db.queryengine.transformation.dag.column.ColumnTransformer;
+import org.apache.iotdb.db.queryengine.transformation.dag.column.binary.kernel.BinaryColumnKernel;
 import org.apache.iotdb.tsfile.read.common.block.column.Column;
 import org.apache.iotdb.tsfile.read.common.block.column.ColumnBuilder;
 import org.apache.iotdb.tsfile.read.common.type.Type;
+import org.apache.iotdb.tsfile.read.common.type.TypeEnum;
 
 public abstract class ArithmeticBinaryColumnTransformer extends BinaryColumnTransformer {
   protected ArithmeticBinaryColumnTransformer(
@@ -53,5 +55,15 @@ public abstract class ArithmeticBinaryColumnTransformer extends BinaryColumnTran
     }
   }
 
+  @Override
+  protected BinaryColumnKernel getKernel(TypeEnum leftType, TypeEnum rightType) {
+    // kernels write double values
+    return TypeEnum.DOUBLE.equals(returnType.getTypeEnum())
+        ? getArithmeticKernel(leftType, rightType)
+        : null;
+  }
+
+  protected abstract BinaryColumnKernel getArithmeticKernel(TypeEnum leftType, TypeEnum rightType);
+
   protected abstract double transform(double d1, double d2);
 }
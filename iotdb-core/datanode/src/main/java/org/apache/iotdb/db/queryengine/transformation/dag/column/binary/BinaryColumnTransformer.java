@@ -20,9 +20,11 @@
 package org.apache.iotdb.db.queryengine.transformation.dag.column.binary;
 
 import org.apache.iotdb.db.queryengine.transformation.dag.column.ColumnTransformer;
+import org.apache.iotdb.db.queryengine.transformation.dag.column.binary.kernel.BinaryColumnKernel;
 import org.apache.iotdb.tsfile.read.common.block.column.Column;
 import org.apache.iotdb.tsfile.read.common.block.column.ColumnBuilder;
 import org.apache.iotdb.tsfile.read.common.type.Type;
+import org.apache.iotdb.tsfile.read.common.type.TypeEnum;
 
 public abstract class BinaryColumnTransformer extends ColumnTransformer {
 
@@ -30,12 +32,20 @@ public abstract class BinaryColumnTransformer extends ColumnTransformer {
 
   protected final ColumnTransformer rightTransformer;
 
+  /** type-specialized implementation of doTransform, null if the input types have no kernel */
+  private final BinaryColumnKernel kernel;
+
   protected BinaryColumnTransformer(
       Type returnType, ColumnTransformer leftTransformer, ColumnTransformer rightTransformer) {
     super(returnType);
     this.leftTransformer = leftTransformer;
     this.rightTransformer = rightTransformer;
     checkType();
+    this.kernel =
+        leftTransformer.getType() == null || rightTransformer.getType() == null
+            ? null
+            : getKernel(
+                leftTransformer.getType().getTypeEnum(), rightTransformer.getType().getTypeEnum());
   }
 
   @Override
@@ -47,9 +57,23 @@ public abstract class BinaryColumnTransformer extends ColumnTransformer {
     Column leftColumn = leftTransformer.getColumn();
     Column rightColumn = rightTransformer.getColumn();
 
-    ColumnBuilder builder = returnType.createColumnBuilder(positionCount);
-    doTransform(leftColumn, rightColumn, builder, positionCount);
-    initializeColumnCache(builder.build());
+    Column result = kernel == null ? null : kernel.apply(leftColumn, rightColumn, positionCount);
+    if (result == null) {
+      ColumnBuilder builder = returnType.createColumnBuilder(positionCount);
+      doTransform(leftColumn, rightColumn, builder, positionCount);
+      result = builder.build();
+    }
+    initializeColumnCache(result);
+  }
+
+  /**
+   * Get the type-specialized kernel for the input types, which must produce the same result as
+   * doTransform.
+   *
+   * @return null if there is no kernel for the input types
+   */
+  protected BinaryColumnKernel getKernel(TypeEnum leftType, TypeEnum rightType) {
+    return null;
   }
 
   protected abstract void doTransform(
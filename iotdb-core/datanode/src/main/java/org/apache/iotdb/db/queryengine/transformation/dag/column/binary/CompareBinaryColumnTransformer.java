@@ -20,6 +20,7 @@
 package org.apache.iotdb.db.queryengine.transformation.dag.column.binary;
 
 import org.apache.iotdb.db.queryengine.transformation.dag.column.ColumnTransformer;
+import org.apache.iotdb.db.queryengine.transformation.dag.column.binary.kernel.BinaryColumnKernel;
 import org.apache.iotdb.db.queryengine.transformation.dag.util.TransformUtils;
 import org.apache.iotdb.tsfile.read.common.block.column.Column;
 import org.apache.iotdb.tsfile.read.common.block.column.ColumnBuilder;
@@ -84,6 +85,16 @@ public abstract class CompareBinaryColumnTransformer extends BinaryColumnTransfo
     throw new UnsupportedOperationException("Unsupported Type");
   }
 
+  @Override
+  protected BinaryColumnKernel getKernel(TypeEnum leftType, TypeEnum rightType) {
+    // kernels write boolean values
+    return TypeEnum.BOOLEAN.equals(returnType.getTypeEnum())
+        ? getCompareKernel(leftType, rightType)
+        : null;
+  }
+
+  protected abstract BinaryColumnKernel getCompareKernel(TypeEnum leftType, TypeEnum rightType);
+
   /**
    * Transform int value of flag to corresponding boolean value.
    *
@@ -20,7 +20,10 @@
 package org.apache.iotdb.db.queryengine.transformation.dag.column.binary;
 
 import org.apache.iotdb.db.queryengine.transformation.dag.column.ColumnTransformer;
+import org.apache.iotdb.db.queryengine.transformation.dag.column.binary.kernel.BinaryColumnKernel;
+import org.apache.iotdb.db.queryengine.transformation.dag.column.binary.kernel.ColumnKernels;
 import org.apache.iotdb.tsfile.read.common.type.Type;
+import org.apache.iotdb.tsfile.read.common.type.TypeEnum;
 
 public class CompareEqualToColumnTransformer extends CompareBinaryColumnTransformer {
   public CompareEqualToColumnTransformer(
@@ -44,4 +47,9 @@ public class CompareEqualToColumnTransformer extends CompareBinaryColumnTransfor
   protected boolean transform(int flag) {
     return flag == 0;
   }
+
+  @Override
+  protected BinaryColumnKernel getCompareKernel(TypeEnum leftType, TypeEnum rightType) {
+    return ColumnKernels.equalTo(leftType, rightType);
+  }
 }
@@ -20,7 +20,10 @@
 package org.apache.iotdb.db.queryengine.transformation.dag.column.binary;
 
 import org.apache.iotdb.db.queryengine.transformation.dag.column.ColumnTransformer;
+import org.apache.iotdb.db.queryengine.transformation.dag.column.binary.kernel.BinaryColumnKernel;
+import org.apache.iotdb.db.queryengine.transformation.dag.column.binary.kernel.ColumnKernels;
 import org.apache.iotdb.tsfile.read.common.type.Type;
+import org.apache.iotdb.tsfile.read.common.type.TypeEnum;
 
 public class CompareLessEqualColumnTransformer extends CompareBinaryColumnTransformer {
   public CompareLessEqualColumnTransformer(
@@ -32,4 +35,9 @@ public class CompareLessEqualColumnTransformer extends CompareBinaryColumnTransf
   protected boolean transform(int flag) {
     return flag <= 0;
   }
+
+  @Override
+  protected BinaryColumnKernel getCompareKernel(TypeEnum leftType, TypeEnum rightType) {
+    return ColumnKernels.lessEqual(leftType, rightType);
+  }
 }
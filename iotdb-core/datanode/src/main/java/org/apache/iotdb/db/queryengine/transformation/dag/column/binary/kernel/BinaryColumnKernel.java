@@ -0,0 +1,38 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.iotdb.db.queryengine.transformation.dag.column.binary.kernel;
+
+import org.apache.iotdb.tsfile.read.common.block.column.Column;
+
+/**
+ * Type-specialized implementation of a binary operator, which reads the primitive arrays of the
+ * input columns directly. The implementations are generated for each pair of numeric input types,
+ * see {@link ColumnKernels}.
+ */
+@FunctionalInterface
+public interface BinaryColumnKernel {
+
+  /**
+   * Apply the operator to the first positionCount positions of the columns.
+   *
+   * @return the result column, or null if the columns are not of the types of this kernel
+   */
+  Column apply(Column left, Column right, int positionCount);
+}
@@ -0,0 +1,57 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.iotdb.db.queryengine.transformation.dag.column.binary.kernel;
+
+import org.apache.iotdb.tsfile.read.common.block.column.Column;
+
+import java.util.Optional;
+
+public class ColumnKernelUtils {
+
+  private ColumnKernelUtils() {
+    // util class
+  }
+
+  /**
+   * A position of the result is null if it is null in either input column.
+   *
+   * @return empty if neither column may have null
+   */
+  public static Optional<boolean[]> mergeNulls(Column left, Column right, int positionCount) {
+    if (!left.mayHaveNull() && !right.mayHaveNull()) {
+      return Optional.empty();
+    }
+    boolean[] isNull = new boolean[positionCount];
+    mergeNulls(left, isNull, positionCount);
+    mergeNulls(right, isNull, positionCount);
+    return Optional.of(isNull);
+  }
+
+  private static void mergeNulls(Column column, boolean[] isNull, int positionCount) {
+    if (!column.mayHaveNull()) {
+      return;
+    }
+    boolean[] columnIsNull = column.isNull();
+    int offset = column.getArrayOffset();
+    for (int i = 0; i < positionCount; i++) {
+      isNull[i] |= columnIsNull[offset + i];
+    }
+  }
+}
@@ -25,6 +25,8 @@ import org.apache.iotdb.db.queryengine.transformation.datastructure.tv.ElasticSe
 import org.apache.iotdb.tsfile.file.metadata.enums.TSDataType;
 import org.apache.iotdb.tsfile.read.common.block.column.Column;
 import org.apache.iotdb.tsfile.read.common.block.column.ColumnBuilder;
+import org.apache.iotdb.tsfile.read.common.type.TypeFactory;
+import org.apache.iotdb.tsfile.utils.Binary;
 import org.apache.iotdb.udf.api.UDTF;
 import org.apache.iotdb.udf.api.access.Row;
 import org.apache.iotdb.udf.api.access.RowWindow;
@@ -32,6 +34,7 @@ import org.apache.iotdb.udf.api.customizer.config.UDTFConfigurations;
 import org.apache.iotdb.udf.api.customizer.parameter.UDFParameterValidator;
 import org.apache.iotdb.udf.api.customizer.parameter.UDFParameters;
 import org.apache.iotdb.udf.api.customizer.strategy.AccessStrategy;
+import org.apache.iotdb.udf.api.exception.UDFException;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -51,6 +54,9 @@ public class UDTFExecutor {
   protected ElasticSerializableTVList collector;
   protected Object currentValue;
 
+  // true if the UDTF only implements transform(Column[], ColumnBuilder)
+  protected boolean isColumnBatch;
+
   public UDTFExecutor(String functionName, ZoneId zoneId) {
     this.functionName = functionName;
     configurations = new UDTFConfigurations(zoneId);
@@ -65,9 +71,12 @@ public class UDTFExecutor {
     reflectAndValidateUDF(childExpressions, childExpressionDataTypes, attributes);
     configurations.check();
 
+    AccessStrategy.AccessStrategyType accessStrategyType =
+        configurations.getAccessStrategy().getAccessStrategyType();
+    isColumnBatch = AccessStrategy.AccessStrategyType.COLUMN_BATCH.equals(accessStrategyType);
     // Mappable UDF does not need PointCollector
-    if (!AccessStrategy.AccessStrategyType.MAPPABLE_ROW_BY_ROW.equals(
-        configurations.getAccessStrategy().getAccessStrategyType())) {
+    if (!AccessStrategy.AccessStrategyType.MAPPABLE_ROW_BY_ROW.equals(accessStrategyType)
+        && !isColumnBatch) {
       collector =
           ElasticSerializableTVList.newElasticSerializableTVList(
               UDFDataTypeTransformer.transformToTsDataType(configurations.getOutputDataType()),
@@ -117,6 +126,14 @@ public class UDTFExecutor {
   }
 
   public void execute(Row row) {
+    if (isColumnBatch) {
+      try {
+        currentValue = transformAsColumns(row);
+      } catch (Exception e) {
+        onError("transform(Column[], ColumnBuilder)", e);
+      }
+      return;
+    }
     try {
       currentValue = udtf.transform(row);
     } catch (Exception e) {
@@ -124,6 +141,54 @@ public class UDTFExecutor {
     }
   }
 
+  /**
+   * A column batch UDTF may be used by the row based transformers when its parent expression is not
+   * mappable, in which case the row is wrapped into columns with only one position.
+   */
+  private Object transformAsColumns(Row row) throws Exception {
+    int size = row.size();
+    Column[] columns = new Column[size];
+    for (int i = 0; i < size; i++) {
+      TSDataType dataType = UDFDataTypeTransformer.transformToTsDataType(row.getDataType(i));
+      ColumnBuilder columnBuilder = TypeFactory.getType(dataType).createColumnBuilder(1);
+      if (row.isNull(i)) {
+        columnBuilder.appendNull();
+      } else {
+        switch (dataType) {
+          case INT32:
+            columnBuilder.writeInt(row.getInt(i));
+            break;
+          case INT64:
+            columnBuilder.writeLong(row.getLong(i));
+            break;
+          case FLOAT:
+            columnBuilder.writeFloat(row.getFloat(i));
+            break;
+          case DOUBLE:
+            columnBuilder.writeDouble(row.getDouble(i));
+            break;
+          case BOOLEAN:
+            columnBuilder.writeBoolean(row.getBoolean(i));
+            break;
+          case TEXT:
+            columnBuilder.writeBinary(new Binary(row.getBinary(i).getValues()));
+            break;
+          default:
+            throw new UDFException("Unsupported data type: " + dataType);
+        }
+      }
+      columns[i] = columnBuilder.build();
+    }
+
+    ColumnBuilder builder =
+        TypeFactory.getType(
+                UDFDataTypeTransformer.transformToTsDataType(configurations.getOutputDataType()))
+            .createColumnBuilder(1);
+    udtf.transform(columns, builder);
+    Column result = builder.build();
+    return result.isNull(0) ? null : result.getObject(0);
+  }
+
   public void execute(RowWindow rowWindow) {
     try {
       udtf.transform(rowWindow, collector);
@@ -26,8 +26,10 @@ import org.apache.iotdb.db.storageengine.dataregion.compaction.constant.Compacti
 import org.apache.iotdb.db.storageengine.dataregion.compaction.execute.task.CompactionTaskSummary;
 import org.apache.iotdb.db.storageengine.dataregion.compaction.schedule.CompactionScheduleSummary;
 import org.apache.iotdb.db.storageengine.dataregion.compaction.schedule.CompactionTaskManager;
+import org.apache.iotdb.db.storageengine.dataregion.compaction.schedule.CompactionThrottler;
 import org.apache.iotdb.db.storageengine.dataregion.compaction.schedule.constant.CompactionIoDataType;
 import org.apache.iotdb.db.storageengine.dataregion.compaction.schedule.constant.CompactionType;
+import org.apache.iotdb.db.storageengine.dataregion.compaction.selector.estimator.InnerCompactionCost;
 import org.apache.iotdb.db.storageengine.rescon.memory.SystemInfo;
 import org.apache.iotdb.metrics.AbstractMetricService;
 import org.apache.iotdb.metrics.impl.DoNothingMetricManager;
@@ -46,6 +48,7 @@ import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
 
 public class CompactionMetrics implements IMetricSet {
   private static final String NOT_ALIGNED = "not_aligned";
@@ -878,6 +881,176 @@ public class CompactionMetrics implements IMetricSet {
         "cross");
   }
 
+  // endregion
+
+  // region compaction throttle
+  private static final String THROTTLE_WRITE_THROUGHPUT = "write_throughput_mb_per_sec";
+  private static final String THROTTLE_WORKING_THREAD = "working_thread";
+  private static final String THROTTLE_QUERY_LATENCY = "query_latency_ms";
+  private static final String THROTTLE_DISK_QUEUE_SIZE = "disk_queue_size";
+  private static final String THROTTLE_PENDING_TASK = "pending_task";
+
+  private void bindCompactionThrottle(AbstractMetricService metricService) {
+    metricService.createAutoGauge(
+        Metric.COMPACTION_THROTTLE.toString(),
+        MetricLevel.IMPORTANT,
+        CompactionThrottler.getInstance(),
+        CompactionThrottler::getWriteThroughputMbPerSec,
+        Tag.NAME.toString(),
+        THROTTLE_WRITE_THROUGHPUT);
+    metricService.createAutoGauge(
+        Metric.COMPACTION_THROTTLE.toString(),
+        MetricLevel.IMPORTANT,
+        CompactionThrottler.getInstance(),
+        CompactionThrottler::getWorkingThreadNum,
+        Tag.NAME.toString(),
+        THROTTLE_WORKING_THREAD);
+    metricService.createAutoGauge(
+        Metric.COMPACTION_THROTTLE.toString(),
+        MetricLevel.IMPORTANT,
+        CompactionThrottler.getInstance(),
+        CompactionThrottler::getQueryLatencyInMs,
+        Tag.NAME.toString(),
+        THROTTLE_QUERY_LATENCY);
+    metricService.createAutoGauge(
+        Metric.COMPACTION_THROTTLE.toString(),
+        MetricLevel.IMPORTANT,
+        CompactionThrottler.getInstance(),
+        CompactionThrottler::getMaxDiskQueueSize,
+        Tag.NAME.toString(),
+        THROTTLE_DISK_QUEUE_SIZE);
+    metricService.createAutoGauge(
+        Metric.COMPACTION_THROTTLE.toString(),
+        MetricLevel.IMPORTANT,
+        CompactionThrottler.getInstance(),
+        CompactionThrottler::getPendingTaskNum,
+        Tag.NAME.toString(),
+        THROTTLE_PENDING_TASK);
+  }
+
+  private void unbindCompactionThrottle(AbstractMetricService metricService) {
+    for (String name :
+        Arrays.asList(
+            THROTTLE_WRITE_THROUGHPUT,
+            THROTTLE_WORKING_THREAD,
+            THROTTLE_QUERY_LATENCY,
+            THROTTLE_DISK_QUEUE_SIZE,
+            THROTTLE_PENDING_TASK)) {
+      metricService.remove(
+          MetricType.AUTO_GAUGE, Metric.COMPACTION_THROTTLE.toString(), Tag.NAME.toString(), name);
+    }
+  }
+
+  // endregion
+
+  // region compaction amplification
+  private static final String WRITE_AMPLIFICATION = "write";
+  private static final String READ_AMPLIFICATION = "read";
+  private final AtomicLong seqInnerCompactionRewrittenBytes = new AtomicLong(0);
+  private final AtomicLong seqInnerCompactionMergedBytes = new AtomicLong(0);
+  private final AtomicLong unseqInnerCompactionRewrittenBytes = new AtomicLong(0);
+  private final AtomicLong unseqInnerCompactionMergedBytes = new AtomicLong(0);
+  private Histogram seqInnerCompactionReadAmplification =
+      DoNothingMetricManager.DO_NOTHING_HISTOGRAM;
+  private Histogram unseqInnerCompactionReadAmplification =
+      DoNothingMetricManager.DO_NOTHING_HISTOGRAM;
+
+  /** Record the estimated cost of a submitted inner space compaction task. */
+  public void updateCompactionWriteAmplification(
+      CompactionTaskType taskType, InnerCompactionCost cost) {
+    switch (taskType) {
+      case INNER_SEQ:
+        seqInnerCompactionRewrittenBytes.addAndGet(cost.getRewrittenBytes());
+        seqInnerCompactionMergedBytes.addAndGet(cost.getMergedBytes());
+        break;
+      case INNER_UNSEQ:
+        unseqInnerCompactionRewrittenBytes.addAndGet(cost.getRewrittenBytes());
+        unseqInnerCompactionMergedBytes.addAndGet(cost.getMergedBytes());
+        break;
+      default:
+        break;
+    }
+  }
+
+  /** Record the number of files in a time partition, which a query on it has to read. */
+  public void updateCompactionReadAmplification(CompactionTaskType taskType, int fileNum) {
+    switch (taskType) {
+      case INNER_SEQ:
+        seqInnerCompactionReadAmplification.update(fileNum);
+        break;
+      case INNER_UNSEQ:
+        unseqInnerCompactionReadAmplification.update(fileNum);
+        break;
+      default:
+        break;
+    }
+  }
+
+  private static double getWriteAmplification(AtomicLong rewrittenBytes, AtomicLong mergedBytes) {
+    return (double) rewrittenBytes.get() / Math.max(1, mergedBytes.get());
+  }
+
+  private void bindCompactionAmplification(AbstractMetricService metricService) {
+    metricService.createAutoGauge(
+        Metric.COMPACTION_AMPLIFICATION.toString(),
+        MetricLevel.IMPORTANT,
+        this,
+        metrics ->
+            getWriteAmplification(seqInnerCompactionRewrittenBytes, seqInnerCompactionMergedBytes),
+        Tag.NAME.toString(),
+        "inner_seq",
+        Tag.TYPE.toString(),
+        WRITE_AMPLIFICATION);
+    metricService.createAutoGauge(
+        Metric.COMPACTION_AMPLIFICATION.toString(),
+        MetricLevel.IMPORTANT,
+        this,
+        metrics ->
+            getWriteAmplification(
+                unseqInnerCompactionRewrittenBytes, unseqInnerCompactionMergedBytes),
+        Tag.NAME.toString(),
+        "inner_unseq",
+        Tag.TYPE.toString(),
+        WRITE_AMPLIFICATION);
+    seqInnerCompactionReadAmplification =
+        metricService.getOrCreateHistogram(
+            Metric.COMPACTION_AMPLIFICATION.toString(),
+            MetricLevel.IMPORTANT,
+            Tag.NAME.toString(),
+            "inner_seq",
+            Tag.TYPE.toString(),
+            READ_AMPLIFICATION);
+    unseqInnerCompactionReadAmplification =
+        metricService.getOrCreateHistogram(
+            Metric.COMPACTION_AMPLIFICATION.toString(),
+            MetricLevel.IMPORTANT,
+            Tag.NAME.toString(),
+            "inner_unseq",
+            Tag.TYPE.toString(),
+            READ_AMPLIFICATION);
+  }
+
+  private void unbindCompactionAmplification(AbstractMetricService metricService) {
+    seqInnerCompactionReadAmplification = DoNothingMetricManager.DO_NOTHING_HISTOGRAM;
+    unseqInnerCompactionReadAmplification = DoNothingMetricManager.DO_NOTHING_HISTOGRAM;
+    for (String name : Arrays.asList("inner_seq", "inner_unseq")) {
+      metricService.remove(
+          MetricType.AUTO_GAUGE,
+          Metric.COMPACTION_AMPLIFICATION.toString(),
+          Tag.NAME.toString(),
+          name,
+          Tag.TYPE.toString(),
+          WRITE_AMPLIFICATION);
+      metricService.remove(
+          MetricType.HISTOGRAM,
+          Metric.COMPACTION_AMPLIFICATION.toString(),
+          Tag.NAME.toString(),
+          name,
+          Tag.TYPE.toString(),
+          READ_AMPLIFICATION);
+    }
+  }
+
   // endregion
   @Override
   public void bindTo(AbstractMetricService metricService) {
@@ -887,6 +1060,8 @@ public class CompactionMetrics implements IMetricSet {
     bindPerformanceInfo(metricService);
     bindCompactionTaskMemory(metricService);
     bindCompactionTaskSelection(metricService);
+    bindCompactionThrottle(metricService);
+    bindCompactionAmplification(metricService);
   }
 
   @Override
@@ -897,6 +1072,8 @@ public class CompactionMetrics implements IMetricSet {
     unbindPerformanceInfo(metricService);
     unbindCompactionTaskMemory(metricService);
     unbindCompactionTaskSelection(metricService);
+    unbindCompactionThrottle(metricService);
+    unbindCompactionAmplification(metricService);
   }
 
   private void updateCompactionTaskInfo() {
@@ -38,6 +38,7 @@ import org.apache.iotdb.db.queryengine.metric.QueryPlanCostMetricSet;
 import org.apache.iotdb.db.queryengine.metric.QueryRelatedResourceMetricSet;
 import org.apache.iotdb.db.queryengine.metric.QueryResourceMetricSet;
 import org.apache.iotdb.db.queryengine.metric.SeriesScanCostMetricSet;
+import org.apache.iotdb.db.queryengine.metric.SeriesScanCountMetricSet;
 import org.apache.iotdb.metrics.metricsets.UpTimeMetrics;
 import org.apache.iotdb.metrics.metricsets.cpu.CpuUsageMetrics;
 import org.apache.iotdb.metrics.metricsets.disk.DiskMetrics;
@@ -70,6 +71,7 @@ public class DataNodeMetricsHelper {
     // bind query related metrics
     MetricService.getInstance().addMetricSet(QueryPlanCostMetricSet.getInstance());
     MetricService.getInstance().addMetricSet(SeriesScanCostMetricSet.getInstance());
+    MetricService.getInstance().addMetricSet(SeriesScanCountMetricSet.getInstance());
     MetricService.getInstance().addMetricSet(QueryExecutionMetricSet.getInstance());
     MetricService.getInstance().addMetricSet(QueryResourceMetricSet.getInstance());
     MetricService.getInstance().addMetricSet(DataExchangeCostMetricSet.getInstance());
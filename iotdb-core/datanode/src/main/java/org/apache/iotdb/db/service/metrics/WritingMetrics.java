@@ -28,6 +28,7 @@ import org.apache.iotdb.db.storageengine.dataregion.DataRegion;
 import org.apache.iotdb.db.storageengine.dataregion.flush.FlushManager;
 import org.apache.iotdb.db.storageengine.dataregion.wal.WALManager;
 import org.apache.iotdb.db.storageengine.dataregion.wal.checkpoint.CheckpointType;
+import org.apache.iotdb.db.storageengine.rescon.memory.SystemInfo;
 import org.apache.iotdb.metrics.AbstractMetricService;
 import org.apache.iotdb.metrics.impl.DoNothingMetricManager;
 import org.apache.iotdb.metrics.metricsets.IMetricSet;
@@ -38,6 +39,7 @@ import org.apache.iotdb.metrics.utils.MetricType;
 
 import java.util.Arrays;
 import java.util.List;
+import java.util.concurrent.TimeUnit;
 
 public class WritingMetrics implements IMetricSet {
   private static final WritingMetrics INSTANCE = new WritingMetrics();
@@ -51,6 +53,7 @@ public class WritingMetrics implements IMetricSet {
   public static final String FLUSH_STAGE_SORT = "sort";
   public static final String FLUSH_STAGE_ENCODING = "encoding";
   public static final String FLUSH_STAGE_IO = "io";
+  public static final String FLUSH_STAGE_WAIT_ENCODING = "wait_encoding";
   public static final String WRITE_PLAN_INDICES = "write_plan_indices";
   public static final String PENDING_TASK_NUM = "pending_task_num";
   public static final String PENDING_SUB_TASK_NUM = "pending_sub_task_num";
@@ -58,6 +61,7 @@ public class WritingMetrics implements IMetricSet {
   private Timer flushStageSortTimer = DoNothingMetricManager.DO_NOTHING_TIMER;
   private Timer flushStageEncodingTimer = DoNothingMetricManager.DO_NOTHING_TIMER;
   private Timer flushStageIOTimer = DoNothingMetricManager.DO_NOTHING_TIMER;
+  private Timer flushStageWaitEncodingTimer = DoNothingMetricManager.DO_NOTHING_TIMER;
   private Timer writePlanIndicesTimer = DoNothingMetricManager.DO_NOTHING_TIMER;
 
   private void bindFlushMetrics(AbstractMetricService metricService) {
@@ -79,6 +83,12 @@ public class WritingMetrics implements IMetricSet {
             MetricLevel.IMPORTANT,
             Tag.STAGE.toString(),
             FLUSH_STAGE_IO);
+    flushStageWaitEncodingTimer =
+        metricService.getOrCreateTimer(
+            Metric.FLUSH_COST.toString(),
+            MetricLevel.IMPORTANT,
+            Tag.STAGE.toString(),
+            FLUSH_STAGE_WAIT_ENCODING);
     writePlanIndicesTimer =
         metricService.getOrCreateTimer(
             Metric.FLUSH_COST.toString(),
@@ -105,8 +115,14 @@ public class WritingMetrics implements IMetricSet {
     flushStageSortTimer = DoNothingMetricManager.DO_NOTHING_TIMER;
     flushStageEncodingTimer = DoNothingMetricManager.DO_NOTHING_TIMER;
     flushStageIOTimer = DoNothingMetricManager.DO_NOTHING_TIMER;
+    flushStageWaitEncodingTimer = DoNothingMetricManager.DO_NOTHING_TIMER;
     writePlanIndicesTimer = DoNothingMetricManager.DO_NOTHING_TIMER;
-    Arrays.asList(FLUSH_STAGE_SORT, FLUSH_STAGE_ENCODING, FLUSH_STAGE_IO, WRITE_PLAN_INDICES)
+    Arrays.asList(
+            FLUSH_STAGE_SORT,
+            FLUSH_STAGE_ENCODING,
+            FLUSH_STAGE_IO,
+            FLUSH_STAGE_WAIT_ENCODING,
+            WRITE_PLAN_INDICES)
         .forEach(
             stage ->
                 metricService.remove(
@@ -173,9 +189,13 @@ public class WritingMetrics implements IMetricSet {
   public static final String WAL_NODES_NUM = "wal_nodes_num";
   public static final String USED_RATIO = "used_ratio";
   public static final String ENTRIES_COUNT = "entries_count";
+  public static final String GROUP_COMMIT_SIZE = "group_commit_size";
+  public static final String FSYNC_LATENCY = "fsync_latency";
 
   private Histogram usedRatioHistogram = DoNothingMetricManager.DO_NOTHING_HISTOGRAM;
   private Histogram entriesCountHistogram = DoNothingMetricManager.DO_NOTHING_HISTOGRAM;
+  private Histogram groupCommitSizeHistogram = DoNothingMetricManager.DO_NOTHING_HISTOGRAM;
+  private Histogram fsyncLatencyHistogram = DoNothingMetricManager.DO_NOTHING_HISTOGRAM;
 
   private void bindWALMetrics(AbstractMetricService metricService) {
     metricService.createAutoGauge(
@@ -194,6 +214,18 @@ public class WritingMetrics implements IMetricSet {
             MetricLevel.IMPORTANT,
             Tag.NAME.toString(),
             ENTRIES_COUNT);
+    groupCommitSizeHistogram =
+        metricService.getOrCreateHistogram(
+            Metric.WAL_BUFFER.toString(),
+            MetricLevel.IMPORTANT,
+            Tag.NAME.toString(),
+            GROUP_COMMIT_SIZE);
+    fsyncLatencyHistogram =
+        metricService.getOrCreateHistogram(
+            Metric.WAL_BUFFER.toString(),
+            MetricLevel.IMPORTANT,
+            Tag.NAME.toString(),
+            FSYNC_LATENCY);
   }
 
   private void unbindWALMetrics(AbstractMetricService metricService) {
@@ -201,7 +233,9 @@ public class WritingMetrics implements IMetricSet {
         MetricType.AUTO_GAUGE, Metric.WAL_NODE_NUM.toString(), Tag.NAME.toString(), WAL_NODES_NUM);
     usedRatioHistogram = DoNothingMetricManager.DO_NOTHING_HISTOGRAM;
     entriesCountHistogram = DoNothingMetricManager.DO_NOTHING_HISTOGRAM;
-    Arrays.asList(USED_RATIO, ENTRIES_COUNT)
+    groupCommitSizeHistogram = DoNothingMetricManager.DO_NOTHING_HISTOGRAM;
+    fsyncLatencyHistogram = DoNothingMetricManager.DO_NOTHING_HISTOGRAM;
+    Arrays.asList(USED_RATIO, ENTRIES_COUNT, GROUP_COMMIT_SIZE, FSYNC_LATENCY)
         .forEach(
             name ->
                 metricService.remove(
@@ -584,6 +618,9 @@ public class WritingMetrics implements IMetricSet {
       case FLUSH_STAGE_IO:
         flushStageIOTimer.updateMillis(costTimeInMillis);
         break;
+      case FLUSH_STAGE_WAIT_ENCODING:
+        flushStageWaitEncodingTimer.updateMillis(costTimeInMillis);
+        break;
       case WRITE_PLAN_INDICES:
         writePlanIndicesTimer.updateMillis(costTimeInMillis);
         break;
@@ -652,6 +689,48 @@ public class WritingMetrics implements IMetricSet {
   public void recordWALBufferEntriesCount(long count) {
     entriesCountHistogram.update(count);
   }
+
+  public void recordWALGroupCommitSize(long sizeInByte) {
+    groupCommitSizeHistogram.update(sizeInByte);
+  }
+
+  public void recordWALFsyncLatency(long costTimeInNanos) {
+    fsyncLatencyHistogram.update(TimeUnit.NANOSECONDS.toMicros(costTimeInNanos));
+  }
+  // endregion
+
+  // region off-heap TVList metrics
+  public static final String OFF_HEAP_TVLIST_TOTAL = "total";
+  public static final String OFF_HEAP_TVLIST_IDLE = "idle";
+
+  private void bindOffHeapTVListMetrics(AbstractMetricService metricService) {
+    metricService.createAutoGauge(
+        Metric.OFF_HEAP_TVLIST_MEM_COST.toString(),
+        MetricLevel.IMPORTANT,
+        SystemInfo.getInstance(),
+        SystemInfo::getOffHeapTVListMemCost,
+        Tag.TYPE.toString(),
+        OFF_HEAP_TVLIST_TOTAL);
+    metricService.createAutoGauge(
+        Metric.OFF_HEAP_TVLIST_MEM_COST.toString(),
+        MetricLevel.IMPORTANT,
+        SystemInfo.getInstance(),
+        SystemInfo::getIdleOffHeapTVListMemCost,
+        Tag.TYPE.toString(),
+        OFF_HEAP_TVLIST_IDLE);
+  }
+
+  private void unbindOffHeapTVListMetrics(AbstractMetricService metricService) {
+    Arrays.asList(OFF_HEAP_TVLIST_TOTAL, OFF_HEAP_TVLIST_IDLE)
+        .forEach(
+            type ->
+                metricService.remove(
+                    MetricType.AUTO_GAUGE,
+                    Metric.OFF_HEAP_TVLIST_MEM_COST.toString(),
+                    Tag.TYPE.toString(),
+                    type));
+  }
+
   // endregion
 
   @Override
@@ -660,6 +739,7 @@ public class WritingMetrics implements IMetricSet {
     bindFlushSubTaskMetrics(metricService);
     bindWALMetrics(metricService);
     bindWALCostMetrics(metricService);
+    bindOffHeapTVListMetrics(metricService);
     bindDataRegionMetrics();
   }
 
@@ -669,6 +749,7 @@ public class WritingMetrics implements IMetricSet {
     unbindFlushSubTaskMetrics(metricService);
     unbindWALMetrics(metricService);
     unbindWALCostMetrics(metricService);
+    unbindOffHeapTVListMetrics(metricService);
     unbindDataRegionMetrics();
   }
 
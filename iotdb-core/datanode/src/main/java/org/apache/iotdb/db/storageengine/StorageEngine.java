@@ -53,6 +53,7 @@ import org.apache.iotdb.db.queryengine.plan.scheduler.load.LoadTsFileScheduler;
 import org.apache.iotdb.db.service.metrics.WritingMetrics;
 import org.apache.iotdb.db.storageengine.buffer.BloomFilterCache;
 import org.apache.iotdb.db.storageengine.buffer.ChunkCache;
+import org.apache.iotdb.db.storageengine.buffer.SharedScanPageCache;
 import org.apache.iotdb.db.storageengine.buffer.TimeSeriesMetadataCache;
 import org.apache.iotdb.db.storageengine.dataregion.DataRegion;
 import org.apache.iotdb.db.storageengine.dataregion.flush.CloseFileListener;
@@ -60,6 +61,7 @@ import org.apache.iotdb.db.storageengine.dataregion.flush.FlushListener;
 import org.apache.iotdb.db.storageengine.dataregion.flush.TsFileFlushPolicy;
 import org.apache.iotdb.db.storageengine.dataregion.flush.TsFileFlushPolicy.DirectFlushPolicy;
 import org.apache.iotdb.db.storageengine.dataregion.memtable.TsFileProcessor;
+import org.apache.iotdb.db.storageengine.dataregion.migration.TierMigrationManager;
 import org.apache.iotdb.db.storageengine.dataregion.wal.WALManager;
 import org.apache.iotdb.db.storageengine.dataregion.wal.exception.WALException;
 import org.apache.iotdb.db.storageengine.dataregion.wal.recover.WALRecoverManager;
@@ -129,6 +131,7 @@ public class StorageEngine implements IService {
   private AtomicBoolean isAllSgReady = new AtomicBoolean(false);
 
   private ScheduledExecutorService ttlCheckThread;
+  private ScheduledExecutorService tierMigrationThread;
   private ScheduledExecutorService seqMemtableTimedFlushCheckThread;
   private ScheduledExecutorService unseqMemtableTimedFlushCheckThread;
 
@@ -308,6 +311,17 @@ public class StorageEngine implements IService {
         TimeUnit.MILLISECONDS);
     LOGGER.info("start ttl check thread successfully.");
 
+    tierMigrationThread =
+        IoTDBThreadPoolFactory.newSingleThreadScheduledExecutor(
+            ThreadName.TIER_MIGRATION.getName());
+    ScheduledExecutorUtil.safelyScheduleWithFixedDelay(
+        tierMigrationThread,
+        this::checkTierMigration,
+        CONFIG.getTierMigrationCheckIntervalInMs(),
+        CONFIG.getTierMigrationCheckIntervalInMs(),
+        TimeUnit.MILLISECONDS);
+    LOGGER.info("start tier migration thread successfully.");
+
     startTimedService();
   }
 
@@ -325,6 +339,14 @@ public class StorageEngine implements IService {
     }
   }
 
+  private void checkTierMigration() {
+    try {
+      TierMigrationManager.getInstance().checkAndMigrate(dataRegionMap.values());
+    } catch (Exception e) {
+      LOGGER.error("An error occurred when migrating files between tiers", e);
+    }
+  }
+
   private void startTimedService() {
     // timed flush sequence memtable
     if (CONFIG.isEnableTimedFlushSeqMemtable()) {
@@ -380,6 +402,7 @@ public class StorageEngine implements IService {
     }
     syncCloseAllProcessor();
     ThreadUtils.stopThreadPool(ttlCheckThread, ThreadName.TTL_CHECK);
+    ThreadUtils.stopThreadPool(tierMigrationThread, ThreadName.TIER_MIGRATION);
     ThreadUtils.stopThreadPool(
         seqMemtableTimedFlushCheckThread, ThreadName.TIMED_FLUSH_SEQ_MEMTABLE);
     ThreadUtils.stopThreadPool(
@@ -402,6 +425,7 @@ public class StorageEngine implements IService {
       throw new ShutdownException(e);
     }
     shutdownTimedService(ttlCheckThread, "TTlCheckThread");
+    shutdownTimedService(tierMigrationThread, "TierMigrationThread");
     shutdownTimedService(seqMemtableTimedFlushCheckThread, "SeqMemtableTimedFlushCheckThread");
     shutdownTimedService(unseqMemtableTimedFlushCheckThread, "UnseqMemtableTimedFlushCheckThread");
     cachedThreadPool.shutdownNow();
@@ -569,6 +593,7 @@ public class StorageEngine implements IService {
 
   public void clearCache() {
     ChunkCache.getInstance().clear();
+    SharedScanPageCache.getInstance().clear();
     TimeSeriesMetadataCache.getInstance().clear();
     BloomFilterCache.getInstance().clear();
   }
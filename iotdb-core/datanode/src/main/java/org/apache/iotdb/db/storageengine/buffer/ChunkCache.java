@@ -34,6 +34,8 @@ import org.apache.iotdb.tsfile.read.common.TimeRange;
 
 import com.github.benmanes.caffeine.cache.Caffeine;
 import com.github.benmanes.caffeine.cache.LoadingCache;
+import com.github.benmanes.caffeine.cache.RemovalCause;
+import com.github.benmanes.caffeine.cache.RemovalListener;
 import com.github.benmanes.caffeine.cache.Weigher;
 import org.openjdk.jol.info.ClassLayout;
 import org.slf4j.Logger;
@@ -48,7 +50,8 @@ import static org.apache.iotdb.db.queryengine.metric.SeriesScanCostMetricSet.REA
 
 /**
  * This class is used to cache <code>Chunk</code> of <code>ChunkMetaData</code> in IoTDB. The
- * caching strategy is LRU.
+ * caching strategy is LRU. Chunks evicted from it are kept in an optional off-heap {@link
+ * ChunkOffHeapCache} and a miss is served from there before reading the file.
  */
 @SuppressWarnings("squid:S6548")
 public class ChunkCache {
@@ -58,6 +61,8 @@ public class ChunkCache {
   private static final IoTDBConfig CONFIG = IoTDBDescriptor.getInstance().getConfig();
   private static final long MEMORY_THRESHOLD_IN_CHUNK_CACHE =
       CONFIG.getAllocateMemoryForChunkCache();
+  private static final long OFF_HEAP_MEMORY_THRESHOLD_IN_CHUNK_CACHE =
+      CONFIG.getAllocateOffHeapMemoryForChunkCache();
   private static final boolean CACHE_ENABLE = CONFIG.isMetaDataCacheEnable();
 
   private static final SeriesScanCostMetricSet SERIES_SCAN_COST_METRIC_SET =
@@ -66,10 +71,18 @@ public class ChunkCache {
   // to save memory footprint, we don't save measurementId in ChunkHeader of Chunk
   private final LoadingCache<ChunkCacheKey, Chunk> lruCache;
 
+  // the second tier, which keeps chunks evicted from lruCache in direct memory
+  private final ChunkOffHeapCache offHeapCache;
+
   private ChunkCache() {
     if (CACHE_ENABLE) {
-      LOGGER.info("ChunkCache size = {}", MEMORY_THRESHOLD_IN_CHUNK_CACHE);
+      LOGGER.info(
+          "ChunkCache size = {}, off-heap size = {}",
+          MEMORY_THRESHOLD_IN_CHUNK_CACHE,
+          OFF_HEAP_MEMORY_THRESHOLD_IN_CHUNK_CACHE);
     }
+    offHeapCache =
+        new ChunkOffHeapCache(CACHE_ENABLE ? OFF_HEAP_MEMORY_THRESHOLD_IN_CHUNK_CACHE : 0);
     lruCache =
         Caffeine.newBuilder()
             .maximumWeight(MEMORY_THRESHOLD_IN_CHUNK_CACHE)
@@ -77,14 +90,27 @@ public class ChunkCache {
                 (Weigher<ChunkCacheKey, Chunk>)
                     (key, chunk) ->
                         (int) (key.getRetainedSizeInBytes() + chunk.getRetainedSizeInBytes()))
+            .removalListener(
+                (RemovalListener<ChunkCacheKey, Chunk>)
+                    (key, chunk, cause) -> {
+                      if (cause == RemovalCause.SIZE && key != null && chunk != null) {
+                        offHeapCache.put(key, chunk);
+                      }
+                    })
             .recordStats()
             .build(
                 key -> {
+                  Chunk cachedChunk = offHeapCache.get(key);
+                  if (cachedChunk != null) {
+                    return cachedChunk;
+                  }
                   long startTime = System.nanoTime();
                   try {
                     TsFileSequenceReader reader =
                         FileReaderManager.getInstance().get(key.getFilePath(), key.closed);
-                    Chunk chunk = reader.readMemChunk(key.offsetOfChunkHeader);
+                    // a chunk of a memory-mapped TsFile is copied, so that the cache never refers
+                    // to a mapping, which is unmapped once the reader is closed
+                    Chunk chunk = reader.readMemChunk(key.offsetOfChunkHeader).copyToHeapIfDirect();
                     // to save memory footprint, we don't save measurementId in ChunkHeader of Chunk
                     chunk.getHeader().setMeasurementID(null);
                     return chunk;
@@ -152,10 +178,15 @@ public class ChunkCache {
     return lruCache.stats().averageLoadPenalty();
   }
 
-  /** clear LRUCache. */
+  public ChunkOffHeapCache getOffHeapCache() {
+    return offHeapCache;
+  }
+
+  /** clear LRUCache and the off-heap tier. */
   public void clear() {
     lruCache.invalidateAll();
     lruCache.cleanUp();
+    offHeapCache.invalidateAll();
   }
 
   @TestOnly
@@ -0,0 +1,309 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.iotdb.db.storageengine.buffer;
+
+import org.apache.iotdb.db.storageengine.buffer.ChunkCache.ChunkCacheKey;
+import org.apache.iotdb.tsfile.file.header.ChunkHeader;
+import org.apache.iotdb.tsfile.file.metadata.enums.CompressionType;
+import org.apache.iotdb.tsfile.file.metadata.enums.TSDataType;
+import org.apache.iotdb.tsfile.file.metadata.enums.TSEncoding;
+import org.apache.iotdb.tsfile.read.common.Chunk;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * The second tier of {@link ChunkCache}. Chunks evicted from the on-heap cache are kept here as
+ * their raw compressed bytes in direct memory, so that a large amount of hot chunks can be cached
+ * without being scanned by the GC.
+ *
+ * <p>The cache is split into segments, each of which owns a fixed direct memory arena divided into
+ * blocks of {@link #BLOCK_SIZE} bytes. A chunk occupies as many blocks as it needs, not necessarily
+ * contiguous ones. Each segment evicts with a clock: a hit only sets the reference bit of the
+ * entry, and the clock hand gives entries whose bit is set a second chance.
+ */
+public class ChunkOffHeapCache {
+
+  static final int BLOCK_SIZE = 8 * 1024;
+
+  private static final long MAX_SEGMENT_SIZE = 1L << 30;
+  private static final int MIN_SEGMENT_NUM = 16;
+
+  // chunkType, dataSize, headerSize, dataType, compressionType, encodingType
+  private static final int CHUNK_HEADER_SIZE = Byte.BYTES + Integer.BYTES * 2 + Byte.BYTES * 3;
+
+  private final Segment[] segments;
+  private final long capacity;
+
+  private final LongAdder hitCount = new LongAdder();
+  private final LongAdder missCount = new LongAdder();
+  private final LongAdder evictionCount = new LongAdder();
+
+  ChunkOffHeapCache(long capacity) {
+    int segmentNum =
+        (int) Math.max(MIN_SEGMENT_NUM, (capacity + MAX_SEGMENT_SIZE - 1) / MAX_SEGMENT_SIZE);
+    int blockNumPerSegment = (int) (capacity / segmentNum / BLOCK_SIZE);
+    if (blockNumPerSegment <= 0) {
+      this.segments = new Segment[0];
+      this.capacity = 0;
+    } else {
+      this.segments = new Segment[segmentNum];
+      for (int i = 0; i < segmentNum; i++) {
+        segments[i] = new Segment(blockNumPerSegment);
+      }
+      this.capacity = (long) segmentNum * blockNumPerSegment * BLOCK_SIZE;
+    }
+  }
+
+  public boolean isEnabled() {
+    return segments.length > 0;
+  }
+
+  /** @return a copy of the cached chunk on heap, or null if the chunk is not cached */
+  public Chunk get(ChunkCacheKey key) {
+    if (!isEnabled()) {
+      return null;
+    }
+    Chunk chunk = getSegment(key).get(key);
+    if (chunk == null) {
+      missCount.increment();
+    } else {
+      hitCount.increment();
+    }
+    return chunk;
+  }
+
+  /** Copy the chunk into direct memory, evicting other chunks if necessary. */
+  public void put(ChunkCacheKey key, Chunk chunk) {
+    if (isEnabled()) {
+      getSegment(key).put(key, chunk);
+    }
+  }
+
+  public void invalidateAll() {
+    for (Segment segment : segments) {
+      segment.clear();
+    }
+  }
+
+  public long getHitCount() {
+    return hitCount.sum();
+  }
+
+  public long getMissCount() {
+    return missCount.sum();
+  }
+
+  public long getEvictionCount() {
+    return evictionCount.sum();
+  }
+
+  public double getHitRate() {
+    long hit = hitCount.sum();
+    long total = hit + missCount.sum();
+    return total == 0 ? 0 : (double) hit / total;
+  }
+
+  public long getCapacity() {
+    return capacity;
+  }
+
+  public long getUsedMemory() {
+    long usedBlockNum = 0;
+    for (Segment segment : segments) {
+      usedBlockNum += segment.getUsedBlockNum();
+    }
+    return usedBlockNum * BLOCK_SIZE;
+  }
+
+  public int size() {
+    int size = 0;
+    for (Segment segment : segments) {
+      size += segment.size();
+    }
+    return size;
+  }
+
+  private Segment getSegment(ChunkCacheKey key) {
+    int hash = key.hashCode();
+    // spread the high bits, as HashMap does
+    hash ^= hash >>> 16;
+    return segments[(hash & Integer.MAX_VALUE) % segments.length];
+  }
+
+  private static class Entry {
+
+    private final ChunkCacheKey key;
+    private final int[] blocks;
+    private final int length;
+    private boolean referenced;
+
+    private Entry(ChunkCacheKey key, int[] blocks, int length) {
+      this.key = key;
+      this.blocks = blocks;
+      this.length = length;
+    }
+  }
+
+  private class Segment {
+
+    private final int blockNum;
+    private final Map<ChunkCacheKey, Entry> entries = new HashMap<>();
+    private final Deque<Entry> clock = new ArrayDeque<>();
+    private final int[] freeBlocks;
+    private int freeBlockNum;
+    // allocated on the first put, so that an idle cache does not occupy direct memory
+    private ByteBuffer arena;
+
+    private Segment(int blockNum) {
+      this.blockNum = blockNum;
+      this.freeBlocks = new int[blockNum];
+      for (int i = 0; i < blockNum; i++) {
+        freeBlocks[i] = blockNum - 1 - i;
+      }
+      this.freeBlockNum = blockNum;
+    }
+
+    private synchronized Chunk get(ChunkCacheKey key) {
+      Entry entry = entries.get(key);
+      if (entry == null) {
+        return null;
+      }
+      entry.referenced = true;
+      byte[] bytes = new byte[entry.length];
+      ByteBuffer arenaView = arena.duplicate();
+      int offset = 0;
+      for (int block : entry.blocks) {
+        int length = Math.min(BLOCK_SIZE, entry.length - offset);
+        arenaView.limit(block * BLOCK_SIZE + length).position(block * BLOCK_SIZE);
+        arenaView.get(bytes, offset, length);
+        offset += length;
+      }
+      return deserialize(bytes);
+    }
+
+    private synchronized void put(ChunkCacheKey key, Chunk chunk) {
+      if (entries.containsKey(key)) {
+        return;
+      }
+      ByteBuffer data = chunk.getData().duplicate();
+      data.rewind();
+      int length = CHUNK_HEADER_SIZE + data.remaining();
+      int requiredBlockNum = (length + BLOCK_SIZE - 1) / BLOCK_SIZE;
+      // a chunk that large would flush out too much of the segment
+      if (requiredBlockNum > blockNum / 4) {
+        return;
+      }
+      while (freeBlockNum < requiredBlockNum) {
+        evict();
+      }
+      if (arena == null) {
+        arena = ByteBuffer.allocateDirect(blockNum * BLOCK_SIZE);
+      }
+      int[] blocks = new int[requiredBlockNum];
+      for (int i = 0; i < requiredBlockNum; i++) {
+        blocks[i] = freeBlocks[--freeBlockNum];
+      }
+
+      ByteBuffer header = ByteBuffer.allocate(CHUNK_HEADER_SIZE);
+      serializeHeader(chunk.getHeader(), header);
+      header.flip();
+      ByteBuffer arenaView = arena.duplicate();
+      for (int block : blocks) {
+        arenaView.limit((block + 1) * BLOCK_SIZE).position(block * BLOCK_SIZE);
+        if (header.hasRemaining()) {
+          arenaView.put(header);
+        }
+        int dataLength = Math.min(arenaView.remaining(), data.remaining());
+        ByteBuffer src = data.duplicate();
+        src.limit(src.position() + dataLength);
+        arenaView.put(src);
+        data.position(data.position() + dataLength);
+      }
+
+      Entry entry = new Entry(key, blocks, length);
+      entries.put(key, entry);
+      clock.addLast(entry);
+    }
+
+    private void evict() {
+      while (true) {
+        Entry candidate = clock.pollFirst();
+        if (candidate.referenced) {
+          // second chance
+          candidate.referenced = false;
+          clock.addLast(candidate);
+        } else {
+          entries.remove(candidate.key);
+          for (int block : candidate.blocks) {
+            freeBlocks[freeBlockNum++] = block;
+          }
+          evictionCount.increment();
+          return;
+        }
+      }
+    }
+
+    private synchronized void clear() {
+      entries.clear();
+      clock.clear();
+      for (int i = 0; i < blockNum; i++) {
+        freeBlocks[i] = blockNum - 1 - i;
+      }
+      freeBlockNum = blockNum;
+    }
+
+    private synchronized int getUsedBlockNum() {
+      return blockNum - freeBlockNum;
+    }
+
+    private synchronized int size() {
+      return entries.size();
+    }
+  }
+
+  private static void serializeHeader(ChunkHeader chunkHeader, ByteBuffer buffer) {
+    buffer.put(chunkHeader.getChunkType());
+    buffer.putInt(chunkHeader.getDataSize());
+    buffer.putInt(chunkHeader.getSerializedSize());
+    buffer.put(chunkHeader.getDataType().serialize());
+    buffer.put(chunkHeader.getCompressionType().serialize());
+    buffer.put(chunkHeader.getEncodingType().serialize());
+  }
+
+  private static Chunk deserialize(byte[] bytes) {
+    ByteBuffer buffer = ByteBuffer.wrap(bytes);
+    byte chunkType = buffer.get();
+    int dataSize = buffer.getInt();
+    int headerSize = buffer.getInt();
+    TSDataType dataType = TSDataType.deserialize(buffer.get());
+    CompressionType compressionType = CompressionType.deserialize(buffer.get());
+    TSEncoding encodingType = TSEncoding.deserialize(buffer.get());
+    // to save memory footprint, we don't save measurementId in ChunkHeader of Chunk
+    ChunkHeader chunkHeader =
+        new ChunkHeader(
+            chunkType, null, dataSize, headerSize, dataType, compressionType, encodingType);
+    return new Chunk(chunkHeader, buffer.slice());
+  }
+}
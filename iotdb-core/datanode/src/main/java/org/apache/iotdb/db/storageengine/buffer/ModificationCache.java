@@ -0,0 +1,215 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.iotdb.db.storageengine.buffer;
+
+import org.apache.iotdb.commons.path.PartialPath;
+import org.apache.iotdb.commons.path.PatternTreeMap;
+import org.apache.iotdb.commons.utils.TestOnly;
+import org.apache.iotdb.db.conf.IoTDBConfig;
+import org.apache.iotdb.db.conf.IoTDBDescriptor;
+import org.apache.iotdb.db.storageengine.dataregion.modification.Modification;
+import org.apache.iotdb.db.storageengine.dataregion.modification.ModificationFile;
+import org.apache.iotdb.db.utils.datastructure.PatternTreeMapFactory;
+import org.apache.iotdb.db.utils.datastructure.PatternTreeMapFactory.ModsSerializer;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Weigher;
+import org.openjdk.jol.info.ClassLayout;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * This class caches the parsed modifications of mods files for all the queries of this node, so
+ * that a mods file is read and parsed once instead of once per query. For each queried path, the
+ * sorted and merged deletions are also kept, so they are not merged again by every query.
+ *
+ * <p>Mods files are append-only except being settled or truncated, so a cached entry is valid as
+ * long as the size of the mods file is unchanged. The caching strategy is LRU, weighted by an
+ * estimation of the memory used by the parsed modifications.
+ */
+@SuppressWarnings("squid:S6548")
+public class ModificationCache {
+
+  private static final Logger LOGGER = LoggerFactory.getLogger(ModificationCache.class);
+  private static final IoTDBConfig CONFIG = IoTDBDescriptor.getInstance().getConfig();
+  private static final long MEMORY_THRESHOLD_IN_MODIFICATION_CACHE =
+      CONFIG.getModificationCacheSizeInByte();
+  private static final boolean CACHE_ENABLE = MEMORY_THRESHOLD_IN_MODIFICATION_CACHE > 0;
+
+  private final Cache<String, FileModifications> lruCache;
+
+  private ModificationCache() {
+    if (CACHE_ENABLE) {
+      LOGGER.info("ModificationCache size = {}", MEMORY_THRESHOLD_IN_MODIFICATION_CACHE);
+    }
+    lruCache =
+        Caffeine.newBuilder()
+            .maximumWeight(Math.max(MEMORY_THRESHOLD_IN_MODIFICATION_CACHE, 0))
+            .weigher(
+                (Weigher<String, FileModifications>)
+                    (filePath, modifications) ->
+                        (int)
+                            Math.min(
+                                Integer.MAX_VALUE,
+                                filePath.length() * 2L + modifications.getRetainedSizeInBytes()))
+            .recordStats()
+            .build();
+  }
+
+  public static ModificationCache getInstance() {
+    return ModificationCacheHolder.INSTANCE;
+  }
+
+  /**
+   * Get the parsed modifications of the mods file. The cached ones are returned if the mods file
+   * has not changed since they were parsed.
+   */
+  public FileModifications get(ModificationFile modFile) {
+    if (!CACHE_ENABLE) {
+      return FileModifications.load(modFile, modFile.getSize());
+    }
+    long fileSize = modFile.getSize();
+    FileModifications cached = lruCache.getIfPresent(modFile.getFilePath());
+    if (cached != null && cached.fileSize == fileSize) {
+      return cached;
+    }
+    // the mods file has grown or been rewritten since it was parsed
+    return lruCache
+        .asMap()
+        .compute(
+            modFile.getFilePath(),
+            (filePath, old) ->
+                old != null && old.fileSize == fileSize
+                    ? old
+                    : FileModifications.load(modFile, fileSize));
+  }
+
+  /** Drop the cached modifications of the mods file, used when the mods file is removed. */
+  public void invalidate(String modFilePath) {
+    if (CACHE_ENABLE) {
+      lruCache.invalidate(modFilePath);
+    }
+  }
+
+  public double calculateModificationHitRatio() {
+    return lruCache.stats().hitRate();
+  }
+
+  public long getEvictionCount() {
+    return lruCache.stats().evictionCount();
+  }
+
+  public long getMaxMemory() {
+    return MEMORY_THRESHOLD_IN_MODIFICATION_CACHE;
+  }
+
+  /** clear LRUCache. */
+  public void clear() {
+    lruCache.invalidateAll();
+    lruCache.cleanUp();
+  }
+
+  @TestOnly
+  public FileModifications getIfPresent(String modFilePath) {
+    return lruCache.getIfPresent(modFilePath);
+  }
+
+  /** The modifications parsed from one mods file when it has the size of {@link #fileSize}. */
+  public static class FileModifications {
+
+    private static final int INSTANCE_SIZE =
+        ClassLayout.parseClass(FileModifications.class).instanceSize();
+
+    // estimated memory of a deletion with its path, including the node in the PatternTreeMap
+    private static final long MODIFICATION_SIZE = 256;
+
+    // at most this number of paths keep their merged deletions, so that the memory of an entry is
+    // bounded even if a mods file with wildcard deletions is queried by a great many paths
+    private static final int MAX_MERGED_PATH_NUM = 256;
+
+    // estimated memory of the merged deletions of a path, which are mostly one or two deletions
+    private static final long MERGED_PATH_SIZE = 160;
+
+    private final long fileSize;
+    private final int modificationNum;
+    private final PatternTreeMap<Modification, ModsSerializer> allModifications;
+    private final Map<PartialPath, List<Modification>> mergedModifications =
+        new ConcurrentHashMap<>();
+
+    private FileModifications(
+        long fileSize,
+        int modificationNum,
+        PatternTreeMap<Modification, ModsSerializer> allModifications) {
+      this.fileSize = fileSize;
+      this.modificationNum = modificationNum;
+      this.allModifications = allModifications;
+    }
+
+    private static FileModifications load(ModificationFile modFile, long fileSize) {
+      PatternTreeMap<Modification, ModsSerializer> allModifications =
+          PatternTreeMapFactory.getModsPatternTreeMap();
+      int modificationNum = 0;
+      for (Modification modification : modFile.getModificationsIter()) {
+        allModifications.append(modification.getPath(), modification);
+        modificationNum++;
+      }
+      return new FileModifications(fileSize, modificationNum, allModifications);
+    }
+
+    /**
+     * @return the sorted and merged modifications of the timeseries 'path', which should not be
+     *     modified by the caller
+     */
+    public List<Modification> getPathModifications(PartialPath path) {
+      List<Modification> modifications = mergedModifications.get(path);
+      if (modifications != null) {
+        return modifications;
+      }
+      modifications =
+          Collections.unmodifiableList(
+              ModificationFile.sortAndMerge(allModifications.getOverlapped(path)));
+      if (mergedModifications.size() < MAX_MERGED_PATH_NUM) {
+        mergedModifications.putIfAbsent(path, modifications);
+      }
+      return modifications;
+    }
+
+    public long getFileSize() {
+      return fileSize;
+    }
+
+    private long getRetainedSizeInBytes() {
+      return INSTANCE_SIZE
+          + modificationNum * MODIFICATION_SIZE
+          + MAX_MERGED_PATH_NUM * MERGED_PATH_SIZE;
+    }
+  }
+
+  /** singleton pattern. */
+  private static class ModificationCacheHolder {
+    private static final ModificationCache INSTANCE = new ModificationCache();
+  }
+}
@@ -0,0 +1,349 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.iotdb.db.storageengine.buffer;
+
+import org.apache.iotdb.commons.utils.FileUtils;
+import org.apache.iotdb.commons.utils.TestOnly;
+import org.apache.iotdb.db.conf.IoTDBConfig;
+import org.apache.iotdb.db.conf.IoTDBDescriptor;
+import org.apache.iotdb.tsfile.read.reader.TsFileInput;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.RemovalListener;
+import com.github.benmanes.caffeine.cache.Weigher;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.StandardOpenOption;
+import java.util.Objects;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * This class caches the TsFiles read from the object storage tier on the local disk, so that the
+ * chunks of the cold data queried repeatedly are not downloaded again by every query.
+ *
+ * <p>TsFiles are cached in blocks of a fixed size, each of which is a file in the cache directory.
+ * A sealed TsFile never changes, so a cached block is always valid. The caching strategy is LRU,
+ * weighted by the size of blocks, and the file of a block is deleted when it is evicted.
+ */
+@SuppressWarnings("squid:S6548")
+public class ObjectStorageCache {
+
+  private static final Logger LOGGER = LoggerFactory.getLogger(ObjectStorageCache.class);
+  private static final IoTDBConfig CONFIG = IoTDBDescriptor.getInstance().getConfig();
+  private static final long DISK_THRESHOLD_IN_OBJECT_STORAGE_CACHE =
+      CONFIG.getObjectStorageCacheSizeInByte();
+  private static final int BLOCK_SIZE = CONFIG.getObjectStorageCacheBlockSizeInByte();
+  private static final boolean CACHE_ENABLE = DISK_THRESHOLD_IN_OBJECT_STORAGE_CACHE > 0;
+  private static final String BLOCK_FILE_SUFFIX = ".block";
+
+  private final File cacheDir;
+  private final AtomicLong blockFileId = new AtomicLong(0);
+  private final Cache<BlockKey, CachedBlock> lruCache;
+
+  private ObjectStorageCache() {
+    cacheDir = new File(CONFIG.getObjectStorageCacheDir());
+    if (CACHE_ENABLE) {
+      LOGGER.info(
+          "ObjectStorageCache size = {}, block size = {}",
+          DISK_THRESHOLD_IN_OBJECT_STORAGE_CACHE,
+          BLOCK_SIZE);
+      // blocks cached before restart are not indexed any more
+      if (cacheDir.exists()) {
+        FileUtils.deleteDirectory(cacheDir);
+      }
+      if (!cacheDir.mkdirs()) {
+        LOGGER.warn("Failed to create the object storage cache dir {}", cacheDir);
+      }
+    }
+    lruCache =
+        Caffeine.newBuilder()
+            .maximumWeight(Math.max(DISK_THRESHOLD_IN_OBJECT_STORAGE_CACHE, 0))
+            .weigher((Weigher<BlockKey, CachedBlock>) (key, block) -> block.length)
+            .removalListener(
+                (RemovalListener<BlockKey, CachedBlock>)
+                    (key, block, cause) -> {
+                      if (block != null) {
+                        FileUtils.deleteFileIfExist(block.file);
+                      }
+                    })
+            .recordStats()
+            .build();
+  }
+
+  public static ObjectStorageCache getInstance() {
+    return ObjectStorageCacheHolder.INSTANCE;
+  }
+
+  /**
+   * Wrap the input of a TsFile on object storage, so that it is read through this cache.
+   *
+   * @param remoteFilePath the path of the TsFile on object storage, which is also used to {@link
+   *     #invalidate} the cached blocks of it
+   */
+  public TsFileInput wrap(String remoteFilePath, TsFileInput remoteInput) throws IOException {
+    return CACHE_ENABLE ? new CachedTsFileInput(remoteFilePath, remoteInput) : remoteInput;
+  }
+
+  private int read(CachedTsFileInput input, ByteBuffer dst, long position) throws IOException {
+    if (position >= input.size) {
+      return -1;
+    }
+    int readBytes = 0;
+    while (dst.hasRemaining() && position < input.size) {
+      long blockIndex = position / BLOCK_SIZE;
+      int offsetInBlock = (int) (position - blockIndex * BLOCK_SIZE);
+      int length =
+          (int)
+              Math.min(
+                  dst.remaining(), Math.min(BLOCK_SIZE - offsetInBlock, input.size - position));
+      ByteBuffer blockDst = dst.duplicate();
+      blockDst.limit(blockDst.position() + length);
+      readBlock(input, blockIndex, blockDst, offsetInBlock, position);
+      dst.position(dst.position() + length);
+      readBytes += length;
+      position += length;
+    }
+    return readBytes;
+  }
+
+  private void readBlock(
+      CachedTsFileInput input, long blockIndex, ByteBuffer dst, int offsetInBlock, long position)
+      throws IOException {
+    BlockKey key = new BlockKey(input.remoteFilePath, blockIndex);
+    CachedBlock block;
+    try {
+      block = lruCache.get(key, k -> loadBlock(input, k));
+    } catch (UncheckedIOException e) {
+      throw e.getCause();
+    }
+    int dstStart = dst.position();
+    try (FileChannel channel = FileChannel.open(block.file.toPath(), StandardOpenOption.READ)) {
+      readFully(channel, dst, offsetInBlock);
+    } catch (IOException e) {
+      // the block may be evicted just after it is got, read the object storage directly
+      LOGGER.debug("Failed to read the cached block {}, read it from {}", key, input, e);
+      dst.position(dstStart);
+      readFully(input.remoteInput, dst, position);
+    }
+  }
+
+  private CachedBlock loadBlock(CachedTsFileInput input, BlockKey key) {
+    long blockStart = key.blockIndex * BLOCK_SIZE;
+    int length = (int) Math.min(BLOCK_SIZE, input.size - blockStart);
+    ByteBuffer buffer = ByteBuffer.allocate(length);
+    File blockFile = new File(cacheDir, blockFileId.incrementAndGet() + BLOCK_FILE_SUFFIX);
+    try {
+      readFully(input.remoteInput, buffer, blockStart);
+      buffer.flip();
+      try (FileChannel channel =
+          FileChannel.open(
+              blockFile.toPath(), StandardOpenOption.CREATE_NEW, StandardOpenOption.WRITE)) {
+        while (buffer.hasRemaining()) {
+          channel.write(buffer);
+        }
+      }
+    } catch (IOException e) {
+      FileUtils.deleteFileIfExist(blockFile);
+      throw new UncheckedIOException(e);
+    }
+    return new CachedBlock(blockFile, length);
+  }
+
+  private static void readFully(TsFileInput input, ByteBuffer dst, long position)
+      throws IOException {
+    while (dst.hasRemaining()) {
+      int readBytes = input.read(dst, position);
+      if (readBytes < 0) {
+        throw new IOException("Reach the end of " + input.getFilePath() + " at " + position);
+      }
+      position += readBytes;
+    }
+  }
+
+  private static void readFully(FileChannel channel, ByteBuffer dst, long position)
+      throws IOException {
+    while (dst.hasRemaining()) {
+      int readBytes = channel.read(dst, position);
+      if (readBytes < 0) {
+        throw new IOException("Reach the end of a cached block at " + position);
+      }
+      position += readBytes;
+    }
+  }
+
+  /** Drop the cached blocks of the TsFile on object storage, used when the TsFile is removed. */
+  public void invalidate(String remoteFilePath) {
+    if (CACHE_ENABLE) {
+      lruCache.asMap().keySet().removeIf(key -> key.filePath.equals(remoteFilePath));
+    }
+  }
+
+  public double calculateObjectStorageHitRatio() {
+    return lruCache.stats().hitRate();
+  }
+
+  public long getEvictionCount() {
+    return lruCache.stats().evictionCount();
+  }
+
+  public long getMaxDiskUsage() {
+    return DISK_THRESHOLD_IN_OBJECT_STORAGE_CACHE;
+  }
+
+  /** clear LRUCache. */
+  public void clear() {
+    lruCache.invalidateAll();
+    lruCache.cleanUp();
+  }
+
+  @TestOnly
+  public long getCachedBlockNum() {
+    return lruCache.estimatedSize();
+  }
+
+  private static class BlockKey {
+
+    private final String filePath;
+    private final long blockIndex;
+
+    private BlockKey(String filePath, long blockIndex) {
+      this.filePath = filePath;
+      this.blockIndex = blockIndex;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+      if (this == o) {
+        return true;
+      }
+      if (o == null || getClass() != o.getClass()) {
+        return false;
+      }
+      BlockKey blockKey = (BlockKey) o;
+      return blockIndex == blockKey.blockIndex && filePath.equals(blockKey.filePath);
+    }
+
+    @Override
+    public int hashCode() {
+      return Objects.hash(filePath, blockIndex);
+    }
+
+    @Override
+    public String toString() {
+      return filePath + "#" + blockIndex;
+    }
+  }
+
+  private static class CachedBlock {
+
+    private final File file;
+    private final int length;
+
+    private CachedBlock(File file, int length) {
+      this.file = file;
+      this.length = length;
+    }
+  }
+
+  /** A {@link TsFileInput} of a sealed TsFile on object storage, read through the cache. */
+  private static class CachedTsFileInput implements TsFileInput {
+
+    private final String remoteFilePath;
+    private final TsFileInput remoteInput;
+    private final long size;
+    private long position = 0;
+
+    private CachedTsFileInput(String remoteFilePath, TsFileInput remoteInput) throws IOException {
+      this.remoteFilePath = remoteFilePath;
+      this.remoteInput = remoteInput;
+      this.size = remoteInput.size();
+    }
+
+    @Override
+    public long size() {
+      return size;
+    }
+
+    @Override
+    public long position() {
+      return position;
+    }
+
+    @Override
+    public TsFileInput position(long newPosition) {
+      if (newPosition < 0) {
+        throw new IllegalArgumentException("Illegal position " + newPosition);
+      }
+      position = newPosition;
+      return this;
+    }
+
+    @Override
+    public int read(ByteBuffer dst) throws IOException {
+      int readBytes = read(dst, position);
+      if (readBytes > 0) {
+        position += readBytes;
+      }
+      return readBytes;
+    }
+
+    @Override
+    public int read(ByteBuffer dst, long position) throws IOException {
+      if (position < 0) {
+        throw new IllegalArgumentException("Illegal position " + position);
+      }
+      return ObjectStorageCache.getInstance().read(this, dst, position);
+    }
+
+    @Override
+    public InputStream wrapAsInputStream() throws IOException {
+      remoteInput.position(position);
+      return remoteInput.wrapAsInputStream();
+    }
+
+    @Override
+    public void close() throws IOException {
+      remoteInput.close();
+    }
+
+    @Override
+    public String getFilePath() {
+      return remoteInput.getFilePath();
+    }
+
+    @Override
+    public String toString() {
+      return getFilePath();
+    }
+  }
+
+  /** singleton pattern. */
+  private static class ObjectStorageCacheHolder {
+    private static final ObjectStorageCache INSTANCE = new ObjectStorageCache();
+  }
+}
@@ -0,0 +1,173 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.iotdb.db.storageengine.buffer;
+
+import org.apache.iotdb.commons.utils.TestOnly;
+import org.apache.iotdb.db.conf.IoTDBConfig;
+import org.apache.iotdb.db.conf.IoTDBDescriptor;
+import org.apache.iotdb.db.storageengine.buffer.ChunkCache.ChunkCacheKey;
+import org.apache.iotdb.tsfile.read.reader.page.DecodedPage;
+import org.apache.iotdb.tsfile.read.reader.page.DecodedPageProvider;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Ticker;
+import com.github.benmanes.caffeine.cache.Weigher;
+import org.openjdk.jol.info.ClassLayout;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.Objects;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * This class keeps the decoded pages of sealed TsFiles for a short window after they were last
+ * read, so that concurrent queries scanning the same series decode each page only once. A page is
+ * decoded by the first scan reaching it, the others wait for and then read that decoded copy. Every
+ * scan still applies its own deletions, filter and pagination and consumes pages at its own pace,
+ * so a slow query never blocks the faster ones.
+ */
+public class SharedScanPageCache {
+
+  private static final Logger LOGGER = LoggerFactory.getLogger(SharedScanPageCache.class);
+  private static final IoTDBConfig CONFIG = IoTDBDescriptor.getInstance().getConfig();
+
+  private final Cache<PageKey, DecodedPage> pageCache;
+
+  private SharedScanPageCache() {
+    this(
+        CONFIG.getSharedScanPageCacheSizeInByte(),
+        CONFIG.getSharedScanWindowInMs(),
+        Ticker.systemTicker());
+    if (CONFIG.isEnableSharedScan()) {
+      LOGGER.info(
+          "SharedScanPageCache size = {}, window = {}ms",
+          CONFIG.getSharedScanPageCacheSizeInByte(),
+          CONFIG.getSharedScanWindowInMs());
+    }
+  }
+
+  @TestOnly
+  SharedScanPageCache(long sizeInByte, long windowInMs, Ticker ticker) {
+    pageCache =
+        Caffeine.newBuilder()
+            .maximumWeight(sizeInByte)
+            .weigher(
+                (Weigher<PageKey, DecodedPage>)
+                    (key, page) ->
+                        (int) (key.getRetainedSizeInBytes() + page.getRetainedSizeInBytes()))
+            .expireAfterAccess(windowInMs, TimeUnit.MILLISECONDS)
+            .ticker(ticker)
+            .recordStats()
+            .build();
+  }
+
+  public static SharedScanPageCache getInstance() {
+    return SharedScanPageCacheHolder.INSTANCE;
+  }
+
+  public boolean isEnabled() {
+    return CONFIG.isEnableSharedScan();
+  }
+
+  /**
+   * Get the provider of decoded pages for one chunk, only chunks of sealed TsFiles could be shared
+   * because the pages of an unsealed one may still be rewritten.
+   */
+  public DecodedPageProvider getDecodedPageProvider(ChunkCacheKey chunkCacheKey) {
+    return (pageHeader, decoder) ->
+        get(new PageKey(chunkCacheKey, pageHeader.getStartTime()), decoder);
+  }
+
+  private DecodedPage get(PageKey pageKey, DecodedPageProvider.PageDecoder decoder)
+      throws IOException {
+    try {
+      return pageCache.get(
+          pageKey,
+          key -> {
+            try {
+              return decoder.decode();
+            } catch (IOException e) {
+              throw new UncheckedIOException(e);
+            }
+          });
+    } catch (UncheckedIOException e) {
+      throw e.getCause();
+    }
+  }
+
+  public double getHitRate() {
+    return pageCache.stats().hitRate() * 100;
+  }
+
+  public void clear() {
+    pageCache.invalidateAll();
+    pageCache.cleanUp();
+  }
+
+  @TestOnly
+  public long size() {
+    pageCache.cleanUp();
+    return pageCache.estimatedSize();
+  }
+
+  /** A page is identified by its chunk and its start time, which is unique inside a chunk. */
+  private static class PageKey {
+
+    private static final long INSTANCE_SIZE = ClassLayout.parseClass(PageKey.class).instanceSize();
+
+    private final ChunkCacheKey chunkCacheKey;
+    private final long pageStartTime;
+
+    private PageKey(ChunkCacheKey chunkCacheKey, long pageStartTime) {
+      this.chunkCacheKey = chunkCacheKey;
+      this.pageStartTime = pageStartTime;
+    }
+
+    private long getRetainedSizeInBytes() {
+      return INSTANCE_SIZE + chunkCacheKey.getRetainedSizeInBytes();
+    }
+
+    @Override
+    public boolean equals(Object o) {
+      if (this == o) {
+        return true;
+      }
+      if (o == null || getClass() != o.getClass()) {
+        return false;
+      }
+      PageKey that = (PageKey) o;
+      return pageStartTime == that.pageStartTime && chunkCacheKey.equals(that.chunkCacheKey);
+    }
+
+    @Override
+    public int hashCode() {
+      return Objects.hash(chunkCacheKey, pageStartTime);
+    }
+  }
+
+  /** singleton pattern. */
+  private static class SharedScanPageCacheHolder {
+
+    private static final SharedScanPageCache INSTANCE = new SharedScanPageCache();
+  }
+}
@@ -65,6 +65,7 @@ import org.apache.iotdb.db.service.metrics.FileMetrics;
 import org.apache.iotdb.db.storageengine.StorageEngine;
 import org.apache.iotdb.db.storageengine.buffer.BloomFilterCache;
 import org.apache.iotdb.db.storageengine.buffer.ChunkCache;
+import org.apache.iotdb.db.storageengine.buffer.SharedScanPageCache;
 import org.apache.iotdb.db.storageengine.buffer.TimeSeriesMetadataCache;
 import org.apache.iotdb.db.storageengine.dataregion.compaction.constant.CompactionTaskType;
 import org.apache.iotdb.db.storageengine.dataregion.compaction.execute.recover.CompactionRecoverManager;
@@ -79,6 +80,7 @@ import org.apache.iotdb.db.storageengine.dataregion.flush.TsFileFlushPolicy;
 import org.apache.iotdb.db.storageengine.dataregion.memtable.IMemTable;
 import org.apache.iotdb.db.storageengine.dataregion.memtable.TsFileProcessor;
 import org.apache.iotdb.db.storageengine.dataregion.memtable.TsFileProcessorInfo;
+import org.apache.iotdb.db.storageengine.dataregion.migration.TierMigrationManager;
 import org.apache.iotdb.db.storageengine.dataregion.modification.Deletion;
 import org.apache.iotdb.db.storageengine.dataregion.modification.ModificationFile;
 import org.apache.iotdb.db.storageengine.dataregion.read.QueryDataSource;
@@ -140,6 +142,8 @@ import java.util.Map.Entry;
 import java.util.Set;
 import java.util.TreeMap;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
 import java.util.concurrent.ExecutionException;
 import java.util.concurrent.Future;
 import java.util.concurrent.Phaser;
@@ -189,6 +193,9 @@ public class DataRegion implements IDataRegionForQuery {
    */
   private static final int MERGE_MOD_START_VERSION_NUM = 1;
 
+  /** number of stripes of {@link #partitionInsertLocks}. */
+  public static final int PARTITION_INSERT_LOCK_STRIPE_NUM = 16;
+
   private static final Logger logger = LoggerFactory.getLogger(DataRegion.class);
 
   private final boolean enableMemControl = config.isEnableMemControl();
@@ -199,6 +206,16 @@ public class DataRegion implements IDataRegionForQuery {
    * partitionLatestFlushedTimeForEachDevice)
    */
   private final ReadWriteLock insertLock = new ReentrantReadWriteLock();
+  /**
+   * striped locks of time partitions. An insertion holds the read lock of insertLock and the write
+   * lock of the stripe of the time partition it writes into, so that insertions into different time
+   * partitions do not block each other, while the write lock of insertLock (taken by flush, close,
+   * deletion, ttl and so on) still excludes all insertions. A query holds the read lock of
+   * insertLock and the read locks of all stripes, so it never sees a memtable which is being
+   * written.
+   */
+  private final ReentrantReadWriteLock[] partitionInsertLocks =
+      new ReentrantReadWriteLock[PARTITION_INSERT_LOCK_STRIPE_NUM];
   /** condition to safely delete data region. */
   private final Condition deletedCondition = insertLock.writeLock().newCondition();
   /** data region has been deleted or not. */
@@ -210,9 +227,11 @@ public class DataRegion implements IDataRegionForQuery {
    */
   private final ReadWriteLock closeQueryLock = new ReentrantReadWriteLock();
   /** time partition id in the database -> tsFileProcessor for this time partition. */
-  private final TreeMap<Long, TsFileProcessor> workSequenceTsFileProcessors = new TreeMap<>();
+  private final ConcurrentSkipListMap<Long, TsFileProcessor> workSequenceTsFileProcessors =
+      new ConcurrentSkipListMap<>();
   /** time partition id in the database -> tsFileProcessor for this time partition. */
-  private final TreeMap<Long, TsFileProcessor> workUnsequenceTsFileProcessors = new TreeMap<>();
+  private final ConcurrentSkipListMap<Long, TsFileProcessor> workUnsequenceTsFileProcessors =
+      new ConcurrentSkipListMap<>();
 
   /** sequence tsfile processors which are closing. */
   private final CopyOnReadLinkedList<TsFileProcessor> closingSequenceTsFileProcessor =
@@ -239,8 +258,8 @@ public class DataRegion implements IDataRegionForQuery {
    * deletion/update such that after they are persisted, the order of insertions, deletions and
    * updates can be re-determined. Will be empty if there are not MemTables in memory.
    */
-  private final HashMap<Long, VersionController> timePartitionIdVersionControllerMap =
-      new HashMap<>();
+  private final Map<Long, VersionController> timePartitionIdVersionControllerMap =
+      new ConcurrentHashMap<>();
   /**
    * when the data in a database is older than dataTTL, it is considered invalid and will be
    * eventually removed.
@@ -256,7 +275,7 @@ public class DataRegion implements IDataRegionForQuery {
    * different IoTDB instance will have identical data, providing convenience for data comparison
    * across different instances. partition number -> max version number
    */
-  private Map<Long, Long> partitionMaxFileVersions = new HashMap<>();
+  private Map<Long, Long> partitionMaxFileVersions = new ConcurrentHashMap<>();
   /** database info for mem control. */
   private final DataRegionInfo dataRegionInfo = new DataRegionInfo(this);
   /** whether it's ready from recovery. */
@@ -284,6 +303,14 @@ public class DataRegion implements IDataRegionForQuery {
   private static final PerformanceOverviewMetrics PERFORMANCE_OVERVIEW_METRICS =
       PerformanceOverviewMetrics.getInstance();
 
+  private DataRegionMetrics dataRegionMetrics;
+
+  {
+    for (int i = 0; i < PARTITION_INSERT_LOCK_STRIPE_NUM; i++) {
+      partitionInsertLocks[i] = new ReentrantReadWriteLock();
+    }
+  }
+
   /**
    * construct a database processor.
    *
@@ -339,7 +366,8 @@ public class DataRegion implements IDataRegionForQuery {
       recover();
     }
 
-    MetricService.getInstance().addMetricSet(new DataRegionMetrics(this));
+    dataRegionMetrics = new DataRegionMetrics(this);
+    MetricService.getInstance().addMetricSet(dataRegionMetrics);
   }
 
   @TestOnly
@@ -347,8 +375,9 @@ public class DataRegion implements IDataRegionForQuery {
     this.databaseName = databaseName;
     this.dataRegionId = id;
     this.tsFileManager = new TsFileManager(databaseName, id, "");
-    this.partitionMaxFileVersions = new HashMap<>();
+    this.partitionMaxFileVersions = new ConcurrentHashMap<>();
     partitionMaxFileVersions.put(0L, 0L);
+    this.dataRegionMetrics = new DataRegionMetrics(this);
   }
 
   @Override
@@ -664,13 +693,23 @@ public class DataRegion implements IDataRegionForQuery {
             // some TsFileResource may be being persisted when the system crashed, try recovering
             // such resources
             continueFailedRenames(partitionFolder, TEMP_SUFFIX);
+            // the TsFiles being migrated to this tier when the system crashed are incomplete
+            removeMigratingFiles(partitionFolder);
             String partitionName = partitionFolder.getName();
             File[] tsFilesInThisFolder =
                 fsFactory.listFilesBySuffix(partitionFolder.getAbsolutePath(), TSFILE_SUFFIX);
             for (File f : tsFilesInThisFolder) {
               String tsFilePartitionPath = partitionName + File.separator + f.getName();
+              File migratedTsFile = tsFilePartitionPath2File.get(tsFilePartitionPath);
+              if (migratedTsFile != null && removeMigratedTsFile(f, migratedTsFile)) {
+                continue;
+              }
               tsFilePartitionPath2File.put(tsFilePartitionPath, f);
             }
+            if (TierManager.getInstance()
+                .isObjectStorageTier(TierManager.getInstance().getTiersNum() - 1)) {
+              addTsFilesOnObjectStorage(partitionFolder, tsFilePartitionPath2File);
+            }
           }
         }
       }
@@ -688,6 +727,81 @@ public class DataRegion implements IDataRegionForQuery {
     return ret;
   }
 
+  private void removeMigratingFiles(File partitionFolder) throws IOException {
+    File[] migratingTsFiles =
+        fsFactory.listFilesBySuffix(
+            partitionFolder.getAbsolutePath(),
+            TSFILE_SUFFIX + TierMigrationManager.MIGRATING_SUFFIX);
+    if (migratingTsFiles == null) {
+      return;
+    }
+    for (File migratingTsFile : migratingTsFiles) {
+      // the .resource and .mods files may have been copied before the TsFile is renamed
+      String migratingTsFilePath = migratingTsFile.getPath();
+      String tsFilePath =
+          migratingTsFilePath.substring(
+              0, migratingTsFilePath.length() - TierMigrationManager.MIGRATING_SUFFIX.length());
+      fsFactory.deleteIfExists(fsFactory.getFile(tsFilePath + TsFileResource.RESOURCE_SUFFIX));
+      fsFactory.deleteIfExists(fsFactory.getFile(tsFilePath + ModificationFile.FILE_SUFFIX));
+      fsFactory.deleteIfExists(migratingTsFile);
+      logger.info("Removed an incomplete migrating TsFile {}", migratingTsFile);
+    }
+  }
+
+  /**
+   * The same TsFile is found in two tiers if the system crashed after it was migrated to the next
+   * tier and before its old copy was deleted. The copy in the colder tier is complete and may have
+   * newer mods, so the other one is removed.
+   *
+   * @return true if tsFile is the old copy and removed
+   */
+  private boolean removeMigratedTsFile(File tsFile, File anotherTsFile) throws IOException {
+    TierManager tierManager = TierManager.getInstance();
+    int tierLevel = tierManager.getFileTierLevel(tsFile);
+    int anotherTierLevel = tierManager.getFileTierLevel(anotherTsFile);
+    if (tierLevel == anotherTierLevel) {
+      return false;
+    }
+    File oldTsFile = tierLevel < anotherTierLevel ? tsFile : anotherTsFile;
+    fsFactory.deleteIfExists(
+        fsFactory.getFile(oldTsFile.getPath() + TsFileResource.RESOURCE_SUFFIX));
+    fsFactory.deleteIfExists(fsFactory.getFile(oldTsFile.getPath() + ModificationFile.FILE_SUFFIX));
+    fsFactory.deleteIfExists(oldTsFile);
+    logger.info("Removed the old copy {} of a migrated TsFile", oldTsFile);
+    return oldTsFile == tsFile;
+  }
+
+  /**
+   * The TsFiles migrated to the object storage tier only keep their .resource and .mods files
+   * locally.
+   */
+  private void addTsFilesOnObjectStorage(
+      File partitionFolder, Map<String, File> tsFilePartitionPath2File) throws IOException {
+    File[] resourceFiles =
+        fsFactory.listFilesBySuffix(
+            partitionFolder.getAbsolutePath(), TSFILE_SUFFIX + TsFileResource.RESOURCE_SUFFIX);
+    if (resourceFiles == null) {
+      return;
+    }
+    for (File resourceFile : resourceFiles) {
+      String resourceFilePath = resourceFile.getPath();
+      File tsFile =
+          fsFactory.getFile(
+              resourceFilePath.substring(
+                  0, resourceFilePath.length() - TsFileResource.RESOURCE_SUFFIX.length()));
+      String tsFilePartitionPath = partitionFolder.getName() + File.separator + tsFile.getName();
+      if (tsFile.exists() || tsFilePartitionPath2File.containsKey(tsFilePartitionPath)) {
+        continue;
+      }
+      if (TierManager.getInstance().getRemoteTsFile(tsFile).exists()) {
+        tsFilePartitionPath2File.put(tsFilePartitionPath, tsFile);
+      } else {
+        logger.warn(
+            "The TsFile of {} is neither found locally nor on object storage", resourceFile);
+      }
+    }
+  }
+
   private void continueFailedRenames(File fileFolder, String suffix) throws IOException {
     File[] files = fsFactory.listFilesBySuffix(fileFolder.getAbsolutePath(), suffix);
     if (files != null) {
@@ -860,15 +974,14 @@ public class DataRegion implements IDataRegionForQuery {
     if (enableMemControl) {
       StorageEngine.blockInsertionIfReject(null);
     }
-    long startTime = System.nanoTime();
-    writeLock("InsertRow");
-    PERFORMANCE_OVERVIEW_METRICS.recordScheduleLockCost(System.nanoTime() - startTime);
+    long timePartitionId = TimePartitionUtils.getTimePartitionId(insertRowNode.getTime());
+    int stripe = getPartitionInsertLockStripe(timePartitionId);
+    partitionInsertLock(stripe);
     try {
       if (deleted) {
         return;
       }
       // init map
-      long timePartitionId = TimePartitionUtils.getTimePartitionId(insertRowNode.getTime());
 
       if (config.isEnableSeparateData()
           && !lastFlushTimeMap.checkAndCreateFlushedTimePartition(timePartitionId)) {
@@ -892,7 +1005,7 @@ public class DataRegion implements IDataRegionForQuery {
       // insert to sequence or unSequence file
       insertToTsFileProcessor(insertRowNode, isSequence, timePartitionId);
     } finally {
-      writeUnlock();
+      partitionInsertUnlock(stripe);
     }
   }
 
@@ -907,9 +1020,24 @@ public class DataRegion implements IDataRegionForQuery {
     if (enableMemControl) {
       StorageEngine.blockInsertionIfReject(null);
     }
-    long startTime = System.nanoTime();
-    writeLock("insertTablet");
-    PERFORMANCE_OVERVIEW_METRICS.recordScheduleLockCost(System.nanoTime() - startTime);
+    // a tablet is usually split by time partition before arriving here, but all the time
+    // partitions it covers are locked in case it is not
+    boolean[] stripes = new boolean[PARTITION_INSERT_LOCK_STRIPE_NUM];
+    if (insertTabletNode.getRowCount() > 0) {
+      // the times of a tablet are sorted
+      long firstTimePartition =
+          TimePartitionUtils.getTimePartitionId(insertTabletNode.getTimes()[0]);
+      long lastTimePartition =
+          TimePartitionUtils.getTimePartitionId(
+              insertTabletNode.getTimes()[insertTabletNode.getRowCount() - 1]);
+      for (long timePartition = firstTimePartition;
+          timePartition <= lastTimePartition
+              && timePartition - firstTimePartition < PARTITION_INSERT_LOCK_STRIPE_NUM;
+          timePartition++) {
+        stripes[getPartitionInsertLockStripe(timePartition)] = true;
+      }
+    }
+    partitionInsertLock(stripes);
     try {
       if (deleted) {
         return;
@@ -997,7 +1125,7 @@ public class DataRegion implements IDataRegionForQuery {
                     insertTabletNode, before, loc, isSequence, results, beforeTimePartition)
                 && noFailure;
       }
-      startTime = System.nanoTime();
+      long startTime = System.nanoTime();
       tryToUpdateBatchInsertLastCache(insertTabletNode);
       PERFORMANCE_OVERVIEW_METRICS.recordScheduleUpdateLastCacheCost(System.nanoTime() - startTime);
 
@@ -1005,7 +1133,7 @@ public class DataRegion implements IDataRegionForQuery {
         throw new BatchProcessException(results);
       }
     } finally {
-      writeUnlock();
+      partitionInsertUnlock(stripes);
     }
   }
 
@@ -1259,7 +1387,7 @@ public class DataRegion implements IDataRegionForQuery {
    * @param sequence whether is sequence or not
    */
   private TsFileProcessor getOrCreateTsFileProcessorIntern(
-      long timeRangeId, TreeMap<Long, TsFileProcessor> tsFileProcessorTreeMap, boolean sequence)
+      long timeRangeId, Map<Long, TsFileProcessor> tsFileProcessorTreeMap, boolean sequence)
       throws IOException, DiskSpaceInsufficientException {
 
     TsFileProcessor res = tsFileProcessorTreeMap.get(timeRangeId);
@@ -1693,9 +1821,10 @@ public class DataRegion implements IDataRegionForQuery {
       List<PartialPath> pathList, String singleDeviceId, QueryContext context, Filter timeFilter)
       throws QueryProcessException {
     try {
+      long[] queryTimeRange = getQueryTimeRange(timeFilter);
       List<TsFileResource> seqResources =
           getFileResourceListForQuery(
-              tsFileManager.getTsFileList(true),
+              tsFileManager.getTsFileListForQuery(true, queryTimeRange[0], queryTimeRange[1]),
               pathList,
               singleDeviceId,
               context,
@@ -1703,7 +1832,7 @@ public class DataRegion implements IDataRegionForQuery {
               true);
       List<TsFileResource> unseqResources =
           getFileResourceListForQuery(
-              tsFileManager.getTsFileList(false),
+              tsFileManager.getTsFileListForQuery(false, queryTimeRange[0], queryTimeRange[1]),
               pathList,
               singleDeviceId,
               context,
@@ -1721,11 +1850,45 @@ public class DataRegion implements IDataRegionForQuery {
     }
   }
 
+  /**
+   * Get the time range [startTime, endTime] covering both the time filter and the TTL, which is
+   * used to prune TsFiles by the interval index of TsFileManager. The files in the range still need
+   * to be checked by {@link TsFileResource#isSatisfied}.
+   */
+  private long[] getQueryTimeRange(Filter timeFilter) {
+    long startTime =
+        dataTTL != Long.MAX_VALUE ? CommonDateTimeUtils.currentTime() - dataTTL : Long.MIN_VALUE;
+    long endTime = Long.MAX_VALUE;
+    if (timeFilter != null) {
+      List<TimeRange> timeRanges;
+      try {
+        timeRanges = timeFilter.getTimeRanges();
+      } catch (UnsupportedOperationException e) {
+        // the filter contains value filters, so it can not be used to prune files
+        timeRanges = null;
+      }
+      if (timeRanges != null) {
+        long filterStartTime = Long.MAX_VALUE;
+        long filterEndTime = Long.MIN_VALUE;
+        for (TimeRange timeRange : timeRanges) {
+          filterStartTime = Math.min(filterStartTime, timeRange.getMin());
+          filterEndTime = Math.max(filterEndTime, timeRange.getMax());
+        }
+        startTime = Math.max(startTime, filterStartTime);
+        endTime = filterEndTime;
+      }
+    }
+    return new long[] {startTime, endTime};
+  }
+
   /** lock the read lock of the insert lock */
   @Override
   public void readLock() {
     // apply read lock for SG insert lock to prevent inconsistent with concurrently writing memtable
     insertLock.readLock().lock();
+    for (ReentrantReadWriteLock partitionInsertLock : partitionInsertLocks) {
+      partitionInsertLock.readLock().lock();
+    }
     // apply read lock for TsFileResource list
     tsFileManager.readLock();
   }
@@ -1734,6 +1897,58 @@ public class DataRegion implements IDataRegionForQuery {
   @Override
   public void readUnlock() {
     tsFileManager.readUnlock();
+    for (int i = partitionInsertLocks.length - 1; i >= 0; i--) {
+      partitionInsertLocks[i].readLock().unlock();
+    }
+    insertLock.readLock().unlock();
+  }
+
+  private static int getPartitionInsertLockStripe(long timePartitionId) {
+    return (int) Math.floorMod(timePartitionId, (long) PARTITION_INSERT_LOCK_STRIPE_NUM);
+  }
+
+  /** lock for inserting into the time partitions of the given stripe */
+  private void partitionInsertLock(int stripe) {
+    long startTime = System.nanoTime();
+    insertLock.readLock().lock();
+    partitionInsertLocks[stripe].writeLock().lock();
+    long cost = System.nanoTime() - startTime;
+    PERFORMANCE_OVERVIEW_METRICS.recordScheduleLockCost(cost);
+    dataRegionMetrics.recordPartitionInsertLockWaitCost(stripe, cost);
+  }
+
+  private void partitionInsertUnlock(int stripe) {
+    partitionInsertLocks[stripe].writeLock().unlock();
+    insertLock.readLock().unlock();
+  }
+
+  /**
+   * lock for inserting into the time partitions of several stripes, the stripes are locked in
+   * ascending order to avoid deadlocks
+   */
+  private void partitionInsertLock(boolean[] stripes) {
+    long startTime = System.nanoTime();
+    insertLock.readLock().lock();
+    long lastLockedTime = System.nanoTime();
+    long totalCost = lastLockedTime - startTime;
+    for (int i = 0; i < stripes.length; i++) {
+      if (stripes[i]) {
+        partitionInsertLocks[i].writeLock().lock();
+        long lockedTime = System.nanoTime();
+        dataRegionMetrics.recordPartitionInsertLockWaitCost(i, lockedTime - lastLockedTime);
+        totalCost += lockedTime - lastLockedTime;
+        lastLockedTime = lockedTime;
+      }
+    }
+    PERFORMANCE_OVERVIEW_METRICS.recordScheduleLockCost(totalCost);
+  }
+
+  private void partitionInsertUnlock(boolean[] stripes) {
+    for (int i = stripes.length - 1; i >= 0; i--) {
+      if (stripes[i]) {
+        partitionInsertLocks[i].writeLock().unlock();
+      }
+    }
     insertLock.readLock().unlock();
   }
 
@@ -2422,6 +2637,7 @@ public class DataRegion implements IDataRegionForQuery {
 
   public static void operateClearCache() {
     ChunkCache.getInstance().clear();
+    SharedScanPageCache.getInstance().clear();
     TimeSeriesMetadataCache.getInstance().clear();
     BloomFilterCache.getInstance().clear();
   }
@@ -2763,7 +2979,7 @@ public class DataRegion implements IDataRegionForQuery {
    * @return all working sequence tsfile processors
    */
   public Collection<TsFileProcessor> getWorkSequenceTsFileProcessors() {
-    return workSequenceTsFileProcessors.values();
+    return new ArrayList<>(workSequenceTsFileProcessors.values());
   }
 
   /**
@@ -2829,7 +3045,7 @@ public class DataRegion implements IDataRegionForQuery {
    * @return all working unsequence tsfile processors
    */
   public Collection<TsFileProcessor> getWorkUnsequenceTsFileProcessors() {
-    return workUnsequenceTsFileProcessors.values();
+    return new ArrayList<>(workUnsequenceTsFileProcessors.values());
   }
 
   public void setDataTTLWithTimePrecisionCheck(long dataTTL) {
@@ -2958,9 +3174,14 @@ public class DataRegion implements IDataRegionForQuery {
     if (enableMemControl) {
       StorageEngine.blockInsertionIfReject(null);
     }
-    long startTime = System.nanoTime();
-    writeLock("InsertRowsOfOneDevice");
-    PERFORMANCE_OVERVIEW_METRICS.recordScheduleLockCost(System.nanoTime() - startTime);
+    boolean[] stripes = new boolean[PARTITION_INSERT_LOCK_STRIPE_NUM];
+    for (InsertRowNode insertRowNode : insertRowsOfOneDeviceNode.getInsertRowNodeList()) {
+      stripes[
+              getPartitionInsertLockStripe(
+                  TimePartitionUtils.getTimePartitionId(insertRowNode.getTime()))] =
+          true;
+    }
+    partitionInsertLock(stripes);
     try {
       if (deleted) {
         return;
@@ -3015,7 +3236,7 @@ public class DataRegion implements IDataRegionForQuery {
         }
       }
     } finally {
-      writeUnlock();
+      partitionInsertUnlock(stripes);
     }
     if (!insertRowsOfOneDeviceNode.getResults().isEmpty()) {
       throw new BatchProcessException("Partial failed inserting rows of one device");
@@ -22,19 +22,28 @@ package org.apache.iotdb.db.storageengine.dataregion;
 import org.apache.iotdb.commons.service.metric.enums.Metric;
 import org.apache.iotdb.commons.service.metric.enums.Tag;
 import org.apache.iotdb.metrics.AbstractMetricService;
+import org.apache.iotdb.metrics.impl.DoNothingMetricManager;
 import org.apache.iotdb.metrics.metricsets.IMetricSet;
+import org.apache.iotdb.metrics.type.Timer;
 import org.apache.iotdb.metrics.utils.MetricLevel;
 import org.apache.iotdb.metrics.utils.MetricType;
 
+import java.util.Arrays;
 import java.util.Objects;
+import java.util.concurrent.TimeUnit;
 
 public class DataRegionMetrics implements IMetricSet {
   private DataRegion dataRegion;
   private String storageGroupName;
 
+  /** wait time of each stripe of the time partition insert locks */
+  private final Timer[] partitionInsertLockWaitTimers =
+      new Timer[DataRegion.PARTITION_INSERT_LOCK_STRIPE_NUM];
+
   public DataRegionMetrics(DataRegion dataRegion) {
     this.dataRegion = dataRegion;
     this.storageGroupName = dataRegion.getDatabaseName();
+    Arrays.fill(partitionInsertLockWaitTimers, DoNothingMetricManager.DO_NOTHING_TIMER);
   }
 
   @Override
@@ -46,6 +55,16 @@ public class DataRegionMetrics implements IMetricSet {
         DataRegion::getMemCost,
         Tag.NAME.toString(),
         "database_" + storageGroupName);
+    for (int i = 0; i < partitionInsertLockWaitTimers.length; i++) {
+      partitionInsertLockWaitTimers[i] =
+          metricService.getOrCreateTimer(
+              Metric.DATA_REGION_INSERT_LOCK_WAIT.toString(),
+              MetricLevel.IMPORTANT,
+              Tag.REGION.toString(),
+              dataRegion.getDataRegionId(),
+              Tag.INDEX.toString(),
+              String.valueOf(i));
+    }
   }
 
   @Override
@@ -55,6 +74,20 @@ public class DataRegionMetrics implements IMetricSet {
         Metric.MEM.toString(),
         Tag.NAME.toString(),
         "database_" + storageGroupName);
+    for (int i = 0; i < partitionInsertLockWaitTimers.length; i++) {
+      partitionInsertLockWaitTimers[i] = DoNothingMetricManager.DO_NOTHING_TIMER;
+      metricService.remove(
+          MetricType.TIMER,
+          Metric.DATA_REGION_INSERT_LOCK_WAIT.toString(),
+          Tag.REGION.toString(),
+          dataRegion.getDataRegionId(),
+          Tag.INDEX.toString(),
+          String.valueOf(i));
+    }
+  }
+
+  public void recordPartitionInsertLockWaitCost(int stripe, long costTimeInNanos) {
+    partitionInsertLockWaitTimers[stripe].update(costTimeInNanos, TimeUnit.NANOSECONDS);
   }
 
   @Override
@@ -24,8 +24,8 @@ import org.apache.iotdb.db.storageengine.dataregion.tsfile.TsFileManager;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
-import java.util.HashMap;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 public class HashLastFlushTimeMap implements ILastFlushTimeMap {
 
@@ -58,7 +58,7 @@ public class HashLastFlushTimeMap implements ILastFlushTimeMap {
    * <p>It is used to separate sequence and unsequence data.
    */
   private final Map<Long, Map<String, Long>> partitionLatestFlushedTimeForEachDevice =
-      new HashMap<>();
+      new ConcurrentHashMap<>();
 
   /**
    * global mapping of device -> largest timestamp of the latest memtable to * be submitted to
@@ -68,13 +68,13 @@ public class HashLastFlushTimeMap implements ILastFlushTimeMap {
    *
    * <p>It is used to update last cache.
    */
-  private final Map<String, Long> globalLatestFlushedTimeForEachDevice = new HashMap<>();
+  private final Map<String, Long> globalLatestFlushedTimeForEachDevice = new ConcurrentHashMap<>();
 
   /** used for recovering flush time from tsfile resource */
   TsFileManager tsFileManager;
 
   /** record memory cost of map for each partitionId */
-  private final Map<Long, Long> memCostForEachPartition = new HashMap<>();
+  private final Map<Long, Long> memCostForEachPartition = new ConcurrentHashMap<>();
 
   public HashLastFlushTimeMap(TsFileManager tsFileManager) {
     this.tsFileManager = tsFileManager;
@@ -84,7 +84,7 @@ public class HashLastFlushTimeMap implements ILastFlushTimeMap {
   public void updateOneDeviceFlushedTime(long timePartitionId, String path, long time) {
     Map<String, Long> flushTimeMapForPartition =
         partitionLatestFlushedTimeForEachDevice.computeIfAbsent(
-            timePartitionId, id -> new HashMap<>());
+            timePartitionId, id -> new ConcurrentHashMap<>());
 
     flushTimeMapForPartition.compute(
         path,
@@ -106,7 +106,7 @@ public class HashLastFlushTimeMap implements ILastFlushTimeMap {
   public void updateMultiDeviceFlushedTime(long timePartitionId, Map<String, Long> flushedTimeMap) {
     Map<String, Long> flushTimeMapForPartition =
         partitionLatestFlushedTimeForEachDevice.computeIfAbsent(
-            timePartitionId, id -> new HashMap<>());
+            timePartitionId, id -> new ConcurrentHashMap<>());
 
     long memIncr = 0;
     for (Map.Entry<String, Long> entry : flushedTimeMap.entrySet()) {
@@ -135,30 +135,26 @@ public class HashLastFlushTimeMap implements ILastFlushTimeMap {
 
   @Override
   public boolean checkAndCreateFlushedTimePartition(long timePartitionId) {
-    if (!partitionLatestFlushedTimeForEachDevice.containsKey(timePartitionId)) {
-      partitionLatestFlushedTimeForEachDevice.put(timePartitionId, new HashMap<>());
-      return false;
-    }
-    return true;
+    return partitionLatestFlushedTimeForEachDevice.putIfAbsent(
+            timePartitionId, new ConcurrentHashMap<>())
+        != null;
   }
 
   @Override
   public void updateLatestFlushTime(long partitionId, Map<String, Long> updateMap) {
     for (Map.Entry<String, Long> entry : updateMap.entrySet()) {
       partitionLatestFlushedTimeForEachDevice
-          .computeIfAbsent(partitionId, id -> new HashMap<>())
+          .computeIfAbsent(partitionId, id -> new ConcurrentHashMap<>())
           .merge(entry.getKey(), entry.getValue(), Math::max);
-      if (globalLatestFlushedTimeForEachDevice.getOrDefault(entry.getKey(), Long.MIN_VALUE)
-          < entry.getValue()) {
-        globalLatestFlushedTimeForEachDevice.put(entry.getKey(), entry.getValue());
-      }
+      globalLatestFlushedTimeForEachDevice.merge(entry.getKey(), entry.getValue(), Math::max);
     }
   }
 
   @Override
   public long getFlushedTime(long timePartitionId, String path) {
+    // the partition may have been evicted by TimePartitionManager concurrently
     return partitionLatestFlushedTimeForEachDevice
-        .get(timePartitionId)
+        .computeIfAbsent(timePartitionId, id -> new ConcurrentHashMap<>())
         .computeIfAbsent(path, k -> recoverFlushTime(timePartitionId, path));
   }
 
@@ -30,10 +30,12 @@ import org.apache.iotdb.db.storageengine.dataregion.compaction.execute.task.Inne
 import org.apache.iotdb.db.storageengine.dataregion.compaction.execute.task.InsertionCrossSpaceCompactionTask;
 import org.apache.iotdb.db.storageengine.dataregion.compaction.selector.ICompactionSelector;
 import org.apache.iotdb.db.storageengine.dataregion.compaction.selector.ICrossSpaceSelector;
+import org.apache.iotdb.db.storageengine.dataregion.compaction.selector.estimator.InnerCompactionCost;
 import org.apache.iotdb.db.storageengine.dataregion.compaction.selector.impl.RewriteCrossSpaceCompactionSelector;
 import org.apache.iotdb.db.storageengine.dataregion.compaction.selector.utils.CrossCompactionTaskResource;
 import org.apache.iotdb.db.storageengine.dataregion.compaction.selector.utils.InsertionCrossCompactionTaskResource;
 import org.apache.iotdb.db.storageengine.dataregion.tsfile.TsFileManager;
+import org.apache.iotdb.db.storageengine.dataregion.tsfile.TsFileResourceList;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -149,21 +151,27 @@ public class CompactionScheduler {
               .createInstance(storageGroupName, dataRegionId, timePartition, tsFileManager);
     }
     long startTime = System.currentTimeMillis();
+    TsFileResourceList tsFileResources =
+        sequence
+            ? tsFileManager.getOrCreateSequenceListByTimePartition(timePartition)
+            : tsFileManager.getOrCreateUnsequenceListByTimePartition(timePartition);
     List<InnerSpaceCompactionTask> innerSpaceTaskList =
-        innerSpaceCompactionSelector.selectInnerSpaceTask(
-            sequence
-                ? tsFileManager.getOrCreateSequenceListByTimePartition(timePartition)
-                : tsFileManager.getOrCreateUnsequenceListByTimePartition(timePartition));
+        innerSpaceCompactionSelector.selectInnerSpaceTask(tsFileResources);
+    CompactionTaskType taskType =
+        sequence ? CompactionTaskType.INNER_SEQ : CompactionTaskType.INNER_UNSEQ;
     CompactionMetrics.getInstance()
-        .updateCompactionTaskSelectionTimeCost(
-            sequence ? CompactionTaskType.INNER_SEQ : CompactionTaskType.INNER_UNSEQ,
-            System.currentTimeMillis() - startTime);
+        .updateCompactionTaskSelectionTimeCost(taskType, System.currentTimeMillis() - startTime);
+    CompactionMetrics.getInstance()
+        .updateCompactionReadAmplification(taskType, tsFileResources.size());
     // the name of this variable is trySubmitCount, because the task submitted to the queue could be
     // evicted due to the low priority of the task
     int trySubmitCount = 0;
     for (InnerSpaceCompactionTask task : innerSpaceTaskList) {
       if (CompactionTaskManager.getInstance().addTaskToWaitingQueue(task)) {
         trySubmitCount++;
+        CompactionMetrics.getInstance()
+            .updateCompactionWriteAmplification(
+                taskType, InnerCompactionCost.estimate(task.getSelectedTsFileResourceList()));
       }
     }
     summary.incrementSubmitTaskNum(
@@ -21,6 +21,7 @@ package org.apache.iotdb.db.storageengine.dataregion.compaction.schedule;
 
 import org.apache.iotdb.commons.concurrent.IoTDBThreadPoolFactory;
 import org.apache.iotdb.commons.concurrent.ThreadName;
+import org.apache.iotdb.commons.concurrent.threadpool.ScheduledExecutorUtil;
 import org.apache.iotdb.commons.concurrent.threadpool.WrappedThreadPoolExecutor;
 import org.apache.iotdb.commons.conf.IoTDBConstant;
 import org.apache.iotdb.commons.service.IService;
@@ -50,6 +51,7 @@ import java.util.concurrent.Callable;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Future;
+import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.TimeoutException;
 import java.util.concurrent.atomic.AtomicInteger;
@@ -73,6 +75,9 @@ public class CompactionTaskManager implements IService {
   // The thread pool that executes the sub compaction task.
   private WrappedThreadPoolExecutor subCompactionTaskExecutionPool;
 
+  // The thread that adjusts the compaction throttle by the load of this node.
+  private ScheduledExecutorService throttleAdjustThread;
+
   private final FixedPriorityBlockingQueue<AbstractCompactionTask> candidateCompactionTaskQueue =
       new FixedPriorityBlockingQueue<>(
           config.getCandidateCompactionTaskQueueSize(), new DefaultCompactionTaskComparatorImpl());
@@ -102,6 +107,7 @@ public class CompactionTaskManager implements IService {
       candidateCompactionTaskQueue.regsitPollLastHook(
           AbstractCompactionTask::resetCompactionCandidateStatusForAllSourceFiles);
       candidateCompactionTaskQueue.regsitPollLastHook(AbstractCompactionTask::handleTaskCleanup);
+      startThrottleAdjustThread();
       init = true;
     }
     logger.info("Compaction task manager started.");
@@ -124,8 +130,32 @@ public class CompactionTaskManager implements IService {
     }
   }
 
+  private void startThrottleAdjustThread() {
+    if (!config.isEnableAdaptiveCompactionThrottle()) {
+      return;
+    }
+    CompactionThrottler.getInstance().reset();
+    throttleAdjustThread =
+        IoTDBThreadPoolFactory.newSingleThreadScheduledExecutor(
+            ThreadName.COMPACTION_THROTTLE.getName());
+    ScheduledExecutorUtil.safelyScheduleWithFixedDelay(
+        throttleAdjustThread,
+        () -> CompactionThrottler.getInstance().adjust(),
+        config.getCompactionThrottleAdjustIntervalInMs(),
+        config.getCompactionThrottleAdjustIntervalInMs(),
+        TimeUnit.MILLISECONDS);
+  }
+
+  private void stopThrottleAdjustThread() {
+    if (throttleAdjustThread != null) {
+      throttleAdjustThread.shutdownNow();
+      throttleAdjustThread = null;
+    }
+  }
+
   @Override
   public void stop() {
+    stopThrottleAdjustThread();
     if (taskExecutionPool != null) {
       subCompactionTaskExecutionPool.shutdownNow();
       taskExecutionPool.shutdownNow();
@@ -138,6 +168,7 @@ public class CompactionTaskManager implements IService {
 
   @Override
   public void waitAndStop(long milliseconds) {
+    stopThrottleAdjustThread();
     if (taskExecutionPool != null) {
       awaitTermination(subCompactionTaskExecutionPool, milliseconds);
       awaitTermination(taskExecutionPool, milliseconds);
@@ -242,7 +273,9 @@ public class CompactionTaskManager implements IService {
 
   public RateLimiter getMergeWriteRateLimiter() {
     setWriteMergeRate(
-        IoTDBDescriptor.getInstance().getConfig().getCompactionWriteThroughputMbPerSec());
+        config.isEnableAdaptiveCompactionThrottle()
+            ? CompactionThrottler.getInstance().getWriteThroughputMbPerSec()
+            : config.getCompactionWriteThroughputMbPerSec());
     return mergeWriteRateLimiter;
   }
 
@@ -0,0 +1,230 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.iotdb.db.storageengine.dataregion.compaction.schedule;
+
+import org.apache.iotdb.commons.conf.IoTDBConstant;
+import org.apache.iotdb.db.conf.IoTDBConfig;
+import org.apache.iotdb.db.conf.IoTDBDescriptor;
+import org.apache.iotdb.metrics.metricsets.disk.IDiskMetricsManager;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.Arrays;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * This class adjusts the compaction write throughput and the number of working compaction threads
+ * by the load of this node, so that compaction yields to queries when they are slow and catches up
+ * when they are not.
+ *
+ * <p>It is adjusted every {@link IoTDBConfig#getCompactionThrottleAdjustIntervalInMs()} in the
+ * way of AIMD. If the p99 latency of the query fragment instances reading local data regions in
+ * the last interval, or the queue size of any disk, exceeds its threshold, the throughput is halved
+ * and one compaction thread is parked. Otherwise, if there are pending compaction tasks, the
+ * throughput is increased by a fixed step and one more compaction thread is allowed to work.
+ */
+public class CompactionThrottler {
+
+  private static final Logger LOGGER =
+      LoggerFactory.getLogger(IoTDBConstant.COMPACTION_LOGGER_NAME);
+  private static final IoTDBConfig CONFIG = IoTDBDescriptor.getInstance().getConfig();
+
+  // the throughput is increased by 1/STEP_NUM of its range each time
+  private static final int STEP_NUM = 8;
+
+  private static final double NANOS_PER_MILLI = 1_000_000.0;
+
+  private static final double QUERY_LATENCY_PERCENTILE = 0.99;
+
+  // at most this number of query latencies are kept in each interval, by reservoir sampling
+  private static final int MAX_QUERY_LATENCY_SAMPLE_NUM = 1024;
+
+  private final long[] queryLatencySamplesInNanos = new long[MAX_QUERY_LATENCY_SAMPLE_NUM];
+  // number of queries recorded in this interval, guarded by queryLatencySamplesInNanos
+  private long queryNum = 0;
+
+  private IDiskMetricsManager diskMetricsManager;
+
+  private volatile double writeThroughputMbPerSec;
+  private volatile int workingThreadNum;
+
+  // the observations of the last adjustment, which are exposed as metrics
+  private volatile double queryLatencyInMs = 0;
+  private volatile double maxDiskQueueSize = 0;
+  private volatile int pendingTaskNum = 0;
+
+  private CompactionThrottler() {
+    reset();
+  }
+
+  public static CompactionThrottler getInstance() {
+    return CompactionThrottlerHolder.INSTANCE;
+  }
+
+  /** Reset the throttle to the configured throughput and all the compaction threads. */
+  public synchronized void reset() {
+    writeThroughputMbPerSec =
+        Math.max(
+            CONFIG.getCompactionThrottleMinWriteThroughputMbPerSec(),
+            Math.min(
+                CONFIG.getCompactionThrottleMaxWriteThroughputMbPerSec(),
+                CONFIG.getCompactionWriteThroughputMbPerSec()));
+    workingThreadNum = Math.max(1, CONFIG.getCompactionThreadCount());
+    synchronized (queryLatencySamplesInNanos) {
+      queryNum = 0;
+    }
+  }
+
+  /**
+   * Record the latency of a finished query fragment instance which reads a local data region, so
+   * that only the queries competing with compaction for the disks of this node are observed. The
+   * latency ends when the instance produced its last block, as the time its consumer takes to fetch
+   * the results does not depend on compaction.
+   */
+  public void recordQueryLatency(long costTimeInNanos) {
+    if (!CONFIG.isEnableAdaptiveCompactionThrottle()) {
+      return;
+    }
+    synchronized (queryLatencySamplesInNanos) {
+      if (queryNum < MAX_QUERY_LATENCY_SAMPLE_NUM) {
+        queryLatencySamplesInNanos[(int) queryNum] = costTimeInNanos;
+      } else {
+        long index = ThreadLocalRandom.current().nextLong(queryNum + 1);
+        if (index < MAX_QUERY_LATENCY_SAMPLE_NUM) {
+          queryLatencySamplesInNanos[(int) index] = costTimeInNanos;
+        }
+      }
+      queryNum++;
+    }
+  }
+
+  /**
+   * Get the p99 of the query latencies recorded since the last call, and clear them.
+   *
+   * @return the latency in milliseconds, or 0 if no query is recorded
+   */
+  public double pollQueryLatencyInMs() {
+    long[] samples;
+    synchronized (queryLatencySamplesInNanos) {
+      samples =
+          Arrays.copyOf(
+              queryLatencySamplesInNanos, (int) Math.min(queryNum, MAX_QUERY_LATENCY_SAMPLE_NUM));
+      queryNum = 0;
+    }
+    if (samples.length == 0) {
+      return 0;
+    }
+    Arrays.sort(samples);
+    int index = (int) Math.ceil(samples.length * QUERY_LATENCY_PERCENTILE) - 1;
+    return samples[Math.max(0, index)] / NANOS_PER_MILLI;
+  }
+
+  /** Adjust the throttle by the load observed since the last adjustment. */
+  public void adjust() {
+    double latencyInMs = pollQueryLatencyInMs();
+
+    if (diskMetricsManager == null) {
+      diskMetricsManager = IDiskMetricsManager.getDiskMetricsManager();
+    }
+    double diskQueueSize = 0;
+    for (double queueSize : diskMetricsManager.getQueueSizeForDisk().values()) {
+      diskQueueSize = Math.max(diskQueueSize, queueSize);
+    }
+
+    adjust(latencyInMs, diskQueueSize, CompactionTaskManager.getInstance().getTotalTaskCount());
+  }
+
+  /**
+   * Adjust the throttle by the given load.
+   *
+   * @param queryLatencyInMs the p99 latency of query fragment instances finished in the last
+   *     interval
+   * @param maxDiskQueueSize the largest average queue size of disks in the last interval
+   * @param pendingTaskNum the number of waiting and running compaction tasks
+   */
+  public synchronized void adjust(
+      double queryLatencyInMs, double maxDiskQueueSize, int pendingTaskNum) {
+    this.queryLatencyInMs = queryLatencyInMs;
+    this.maxDiskQueueSize = maxDiskQueueSize;
+    this.pendingTaskNum = pendingTaskNum;
+
+    int minThroughput = CONFIG.getCompactionThrottleMinWriteThroughputMbPerSec();
+    int maxThroughput = CONFIG.getCompactionThrottleMaxWriteThroughputMbPerSec();
+    int maxThreadNum = Math.max(1, CONFIG.getCompactionThreadCount());
+    double oldThroughput = writeThroughputMbPerSec;
+    int oldThreadNum = workingThreadNum;
+
+    if (queryLatencyInMs > CONFIG.getCompactionThrottleQueryLatencyThresholdInMs()
+        || maxDiskQueueSize > CONFIG.getCompactionThrottleDiskQueueSizeThreshold()) {
+      writeThroughputMbPerSec = Math.max(minThroughput, oldThroughput / 2);
+      workingThreadNum = Math.max(1, oldThreadNum - 1);
+    } else if (pendingTaskNum > 0) {
+      double step = Math.max(1.0, (double) (maxThroughput - minThroughput) / STEP_NUM);
+      writeThroughputMbPerSec = Math.min(maxThroughput, oldThroughput + step);
+      if (pendingTaskNum > oldThreadNum) {
+        workingThreadNum = Math.min(maxThreadNum, oldThreadNum + 1);
+      }
+    }
+
+    if (writeThroughputMbPerSec != oldThroughput || workingThreadNum != oldThreadNum) {
+      LOGGER.debug(
+          "[CompactionThrottler] query latency: {} ms, disk queue size: {}, pending tasks: {}, "
+              + "write throughput: {} -> {} MB/s, working threads: {} -> {}",
+          queryLatencyInMs,
+          maxDiskQueueSize,
+          pendingTaskNum,
+          oldThroughput,
+          writeThroughputMbPerSec,
+          oldThreadNum,
+          workingThreadNum);
+    }
+  }
+
+  public double getWriteThroughputMbPerSec() {
+    return writeThroughputMbPerSec;
+  }
+
+  public int getWorkingThreadNum() {
+    return workingThreadNum;
+  }
+
+  /** Whether the compaction thread of the id is allowed to take new tasks. */
+  public boolean isThreadWorking(int threadId) {
+    return !CONFIG.isEnableAdaptiveCompactionThrottle() || threadId < workingThreadNum;
+  }
+
+  public double getQueryLatencyInMs() {
+    return queryLatencyInMs;
+  }
+
+  public double getMaxDiskQueueSize() {
+    return maxDiskQueueSize;
+  }
+
+  public int getPendingTaskNum() {
+    return pendingTaskNum;
+  }
+
+  /** singleton pattern. */
+  private static class CompactionThrottlerHolder {
+    private static final CompactionThrottler INSTANCE = new CompactionThrottler();
+  }
+}
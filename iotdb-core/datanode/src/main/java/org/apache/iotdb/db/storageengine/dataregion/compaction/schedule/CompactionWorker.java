@@ -43,6 +43,7 @@ import java.util.concurrent.TimeoutException;
 
 public class CompactionWorker implements Runnable {
   private static final Logger LOGGER = LoggerFactory.getLogger("COMPACTION");
+  private static final long PARKED_CHECK_INTERVAL_IN_MS = 1_000L;
   private final int threadId;
   private final FixedPriorityBlockingQueue<AbstractCompactionTask> compactionTaskQueue;
 
@@ -58,6 +59,11 @@ public class CompactionWorker implements Runnable {
     while (!Thread.currentThread().isInterrupted()) {
       AbstractCompactionTask task;
       try {
+        if (!CompactionThrottler.getInstance().isThreadWorking(threadId)) {
+          // parked by the throttle, the running task of this thread is not interrupted
+          TimeUnit.MILLISECONDS.sleep(PARKED_CHECK_INTERVAL_IN_MS);
+          continue;
+        }
         task = compactionTaskQueue.take();
       } catch (InterruptedException e) {
         LOGGER.warn("CompactionThread-{} terminates because interruption", threadId);
@@ -20,27 +20,33 @@
 package org.apache.iotdb.db.storageengine.dataregion.compaction.selector.constant;
 
 import org.apache.iotdb.db.storageengine.dataregion.compaction.selector.IInnerSeqSpaceSelector;
+import org.apache.iotdb.db.storageengine.dataregion.compaction.selector.impl.LeveledCompactionSelector;
 import org.apache.iotdb.db.storageengine.dataregion.compaction.selector.impl.SizeTieredCompactionSelector;
 import org.apache.iotdb.db.storageengine.dataregion.tsfile.TsFileManager;
 
 @SuppressWarnings("squid:S6548")
 public enum InnerSequenceCompactionSelector {
-  SIZE_TIERED;
+  SIZE_TIERED,
+  LEVELED;
 
   public static InnerSequenceCompactionSelector getInnerSequenceCompactionSelector(String name) {
     if (SIZE_TIERED.toString().equalsIgnoreCase(name)) {
       return SIZE_TIERED;
+    } else if (LEVELED.toString().equalsIgnoreCase(name)) {
+      return LEVELED;
     }
     throw new IllegalCompactionSelectorNameException("Illegal Compaction Selector " + name);
   }
 
-  @SuppressWarnings("squid:S1301")
   public IInnerSeqSpaceSelector createInstance(
       String storageGroupName,
       String dataRegionId,
       long timePartition,
       TsFileManager tsFileManager) {
     switch (this) {
+      case LEVELED:
+        return new LeveledCompactionSelector(
+            storageGroupName, dataRegionId, timePartition, true, tsFileManager);
       case SIZE_TIERED:
       default:
         return new SizeTieredCompactionSelector(
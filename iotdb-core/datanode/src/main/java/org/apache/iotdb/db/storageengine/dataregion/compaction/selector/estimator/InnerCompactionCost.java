@@ -0,0 +1,78 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.iotdb.db.storageengine.dataregion.compaction.selector.estimator;
+
+import org.apache.iotdb.db.storageengine.dataregion.tsfile.TsFileResource;
+
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Estimate the write amplification and the read amplification of one inner space compaction task
+ * with specific source files.
+ *
+ * <p>All the source files are rewritten, but only the data outside the largest source file is newly
+ * merged, so the write amplification is the rewritten bytes divided by the merged bytes. It is
+ * close to 1 when files of similar sizes are compacted, and grows when a few small files are
+ * compacted into a large one. The read amplification is the number of source files, which a query
+ * on the time range of them has to read, while it is 1 after the task.
+ */
+public class InnerCompactionCost {
+
+  private final long rewrittenBytes;
+  private final long mergedBytes;
+  private final int readAmplification;
+
+  public InnerCompactionCost(CompactionTaskInfo taskInfo) {
+    long maxFileSize = 0;
+    for (TsFileResource resource : taskInfo.getResources()) {
+      maxFileSize = Math.max(maxFileSize, resource.getTsFileSize());
+    }
+    this.rewrittenBytes = taskInfo.getTotalFileSize();
+    this.mergedBytes = rewrittenBytes - maxFileSize;
+    this.readAmplification = taskInfo.getResources().size();
+  }
+
+  /** Estimate the cost by the size of the source files, without reading them. */
+  public static InnerCompactionCost estimate(List<TsFileResource> resources) {
+    return new InnerCompactionCost(new CompactionTaskInfo(resources, Collections.emptyList()));
+  }
+
+  public long getRewrittenBytes() {
+    return rewrittenBytes;
+  }
+
+  public long getMergedBytes() {
+    return mergedBytes;
+  }
+
+  public double getWriteAmplification() {
+    return (double) rewrittenBytes / Math.max(1, mergedBytes);
+  }
+
+  public int getReadAmplification() {
+    return readAmplification;
+  }
+
+  /** The number of files saved for a query per write amplification, the larger the better. */
+  public double getBenefitPerCost() {
+    return (readAmplification - 1) / getWriteAmplification();
+  }
+}
@@ -0,0 +1,190 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.iotdb.db.storageengine.dataregion.compaction.selector.impl;
+
+import org.apache.iotdb.commons.conf.IoTDBConstant;
+import org.apache.iotdb.db.storageengine.dataregion.compaction.execute.task.CompactionTaskPriorityType;
+import org.apache.iotdb.db.storageengine.dataregion.compaction.execute.task.InnerSpaceCompactionTask;
+import org.apache.iotdb.db.storageengine.dataregion.compaction.selector.estimator.InnerCompactionCost;
+import org.apache.iotdb.db.storageengine.dataregion.tsfile.TsFileManager;
+import org.apache.iotdb.db.storageengine.dataregion.tsfile.TsFileResource;
+import org.apache.iotdb.db.storageengine.dataregion.tsfile.TsFileResourceStatus;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * LeveledCompactionSelector levels files by their sizes. The max file size of level n is {@link
+ * org.apache.iotdb.db.conf.IoTDBConfig#getLeveledCompactionBaseFileSize()} multiplied by {@link
+ * org.apache.iotdb.db.conf.IoTDBConfig#getLeveledCompactionLevelSizeRatio()} n times, and files
+ * larger than the target compaction file size are not compacted any more. Consecutive files of the
+ * same level are compacted once their total size reaches the max file size of the level, so each
+ * file is rewritten about once per level.
+ *
+ * <p>Unlike {@link SizeTieredCompactionSelector}, the files left at a level, which are not enough
+ * to make a file of the next level, are compacted into the previous file of a higher level, as long
+ * as the estimated write amplification of the task does not exceed {@link
+ * org.apache.iotdb.db.conf.IoTDBConfig#getLeveledCompactionMaxWriteAmplification()}. So a time
+ * partition converges to a few files of the target size and a file growing towards it, instead of
+ * many mid-size files.
+ */
+public class LeveledCompactionSelector extends SizeTieredCompactionSelector {
+  private static final Logger LOGGER =
+      LoggerFactory.getLogger(IoTDBConstant.COMPACTION_LOGGER_NAME);
+
+  // the level of files that reach the target compaction file size
+  private static final int FULL_LEVEL = -1;
+
+  private final long baseFileSize = config.getLeveledCompactionBaseFileSize();
+  private final int levelSizeRatio = config.getLeveledCompactionLevelSizeRatio();
+  private final long targetFileSize = config.getTargetCompactionFileSize();
+
+  private final List<TsFileResource> selectedFiles = new ArrayList<>();
+  private final Set<TsFileResource> selectedFileSet = new HashSet<>();
+  private final List<List<TsFileResource>> taskList = new ArrayList<>();
+
+  public LeveledCompactionSelector(
+      String storageGroupName,
+      String dataRegionId,
+      long timePartition,
+      boolean sequence,
+      TsFileManager tsFileManager) {
+    super(storageGroupName, dataRegionId, timePartition, sequence, tsFileManager);
+  }
+
+  @Override
+  @SuppressWarnings("squid:S135")
+  protected List<InnerSpaceCompactionTask> selectTaskBaseOnLevel() {
+    selectedFiles.clear();
+    selectedFileSet.clear();
+    taskList.clear();
+    int selectedLevel = FULL_LEVEL;
+    long selectedFileSize = 0L;
+    // the file just before the selected files, into which they may be compacted
+    TsFileResource previousFile = null;
+    TsFileResource lastFile = null;
+
+    for (TsFileResource currentFile : tsFileResources) {
+      int level = isSelectable(currentFile) ? getLevel(currentFile) : FULL_LEVEL;
+      if (level != selectedLevel) {
+        finishSelection(previousFile, selectedLevel, selectedFileSize);
+        selectedFileSize = 0L;
+        selectedLevel = level;
+        previousFile = lastFile;
+      }
+      if (level == FULL_LEVEL) {
+        lastFile = null;
+        continue;
+      }
+      lastFile = currentFile;
+      selectedFiles.add(currentFile);
+      selectedFileSize += currentFile.getTsFileSize();
+      if (selectedFileSize >= getLevelMaxFileSize(level)
+          || selectedFiles.size() >= config.getFileLimitPerInnerTask()) {
+        if (selectedFiles.size() > 1) {
+          addTask(new ArrayList<>(selectedFiles));
+        }
+        selectedFiles.clear();
+        selectedFileSize = 0L;
+        // the files before have been selected or are large enough
+        previousFile = null;
+      }
+    }
+    finishSelection(previousFile, selectedLevel, selectedFileSize);
+
+    // the tasks saving more files for queries per write amplification go first
+    taskList.sort(
+        Comparator.comparingDouble(
+                (List<TsFileResource> files) ->
+                    InnerCompactionCost.estimate(files).getBenefitPerCost())
+            .reversed());
+    return createCompactionTasks(taskList, CompactionTaskPriorityType.NORMAL);
+  }
+
+  /** Decide how to compact the files left at a level, which are not enough for a task. */
+  private void finishSelection(TsFileResource previousFile, int level, long selectedFileSize) {
+    if (selectedFiles.isEmpty()) {
+      return;
+    }
+    if (previousFile != null
+        && !selectedFileSet.contains(previousFile)
+        && getLevel(previousFile) > level
+        && previousFile.getTsFileSize() + selectedFileSize <= targetFileSize) {
+      List<TsFileResource> candidate = new ArrayList<>(selectedFiles.size() + 1);
+      candidate.add(previousFile);
+      candidate.addAll(selectedFiles);
+      InnerCompactionCost cost = InnerCompactionCost.estimate(candidate);
+      if (cost.getWriteAmplification() <= config.getLeveledCompactionMaxWriteAmplification()) {
+        addTask(candidate);
+        selectedFiles.clear();
+        return;
+      }
+      LOGGER.debug(
+          "Skip compacting {} into {}, the estimated write amplification is {}",
+          selectedFiles,
+          previousFile,
+          cost.getWriteAmplification());
+    }
+    // submit a task even it does not meet the requirement for file size if next time partition
+    // exists, as SizeTieredCompactionSelector does
+    if (hasNextTimePartition && selectedFiles.size() > 1) {
+      addTask(new ArrayList<>(selectedFiles));
+    }
+    selectedFiles.clear();
+  }
+
+  private void addTask(List<TsFileResource> files) {
+    taskList.add(files);
+    selectedFileSet.addAll(files);
+  }
+
+  private boolean isSelectable(TsFileResource resource) {
+    // files migrated to the object storage tier are not compacted any more
+    return resource.getStatus() == TsFileResourceStatus.NORMAL && !resource.onRemote();
+  }
+
+  private int getLevel(TsFileResource resource) {
+    long fileSize = resource.getTsFileSize();
+    int level = 0;
+    long levelMaxFileSize = Math.min(baseFileSize, targetFileSize);
+    while (fileSize >= levelMaxFileSize) {
+      if (levelMaxFileSize >= targetFileSize) {
+        return FULL_LEVEL;
+      }
+      levelMaxFileSize = Math.min(targetFileSize, levelMaxFileSize * levelSizeRatio);
+      level++;
+    }
+    return level;
+  }
+
+  private long getLevelMaxFileSize(int level) {
+    long levelMaxFileSize = Math.min(baseFileSize, targetFileSize);
+    for (int i = 0; i < level; i++) {
+      levelMaxFileSize = Math.min(targetFileSize, levelMaxFileSize * levelSizeRatio);
+    }
+    return levelMaxFileSize;
+  }
+}
@@ -59,7 +59,7 @@ public class SizeTieredCompactionSelector
     implements IInnerSeqSpaceSelector, IInnerUnseqSpaceSelector {
   private static final Logger LOGGER =
       LoggerFactory.getLogger(IoTDBConstant.COMPACTION_LOGGER_NAME);
-  private static final IoTDBConfig config = IoTDBDescriptor.getInstance().getConfig();
+  protected static final IoTDBConfig config = IoTDBDescriptor.getInstance().getConfig();
   protected String storageGroupName;
   protected String dataRegionId;
   protected long timePartition;
@@ -113,7 +113,8 @@ public class SizeTieredCompactionSelector
         selectedFileSize = 0L;
         continue;
       }
-      if (currentFile.getStatus() != TsFileResourceStatus.NORMAL) {
+      // files migrated to the object storage tier are not compacted any more
+      if (currentFile.getStatus() != TsFileResourceStatus.NORMAL || currentFile.onRemote()) {
         selectedFileList.clear();
         selectedFileSize = 0L;
         continue;
@@ -175,7 +176,7 @@ public class SizeTieredCompactionSelector
     return Collections.emptyList();
   }
 
-  private List<InnerSpaceCompactionTask> selectTaskBaseOnLevel() throws IOException {
+  protected List<InnerSpaceCompactionTask> selectTaskBaseOnLevel() throws IOException {
     int maxLevel = searchMaxFileLevel();
     for (int currentLevel = 0; currentLevel <= maxLevel; currentLevel++) {
       List<List<TsFileResource>> selectedResourceList = selectTsFileResourcesByLevel(currentLevel);
@@ -193,7 +194,8 @@ public class SizeTieredCompactionSelector
       if (Objects.isNull(modFile) || !modFile.exists()) {
         continue;
       }
-      if (tsFileResource.getStatus() != TsFileResourceStatus.NORMAL) {
+      if (tsFileResource.getStatus() != TsFileResourceStatus.NORMAL
+          || tsFileResource.onRemote()) {
         continue;
       }
       if (modFile.getSize() > config.getInnerCompactionTaskSelectionModsFileThreshold()
@@ -232,7 +234,7 @@ public class SizeTieredCompactionSelector
     return maxLevel;
   }
 
-  private List<InnerSpaceCompactionTask> createCompactionTasks(
+  protected List<InnerSpaceCompactionTask> createCompactionTasks(
       List<List<TsFileResource>> selectedTsFileResourceList,
       CompactionTaskPriorityType compactionTaskType) {
     List<InnerSpaceCompactionTask> tasks = new ArrayList<>();
@@ -242,7 +244,7 @@ public class SizeTieredCompactionSelector
     return tasks;
   }
 
-  private InnerSpaceCompactionTask createCompactionTask(
+  protected InnerSpaceCompactionTask createCompactionTask(
       List<TsFileResource> fileResources, CompactionTaskPriorityType compactionTaskType) {
     return new InnerSpaceCompactionTask(
         timePartition,
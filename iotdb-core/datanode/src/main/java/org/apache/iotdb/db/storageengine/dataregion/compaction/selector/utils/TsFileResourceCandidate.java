@@ -49,7 +49,9 @@ public class TsFileResourceCandidate {
     this.selected = false;
     // although we do the judgement here, the task should be validated before executing because
     // the status of file may be changed after the task is submitted to queue
-    this.isValidCandidate = tsFileResource.getStatus() == TsFileResourceStatus.NORMAL;
+    // files migrated to the object storage tier are not compacted any more
+    this.isValidCandidate =
+        tsFileResource.getStatus() == TsFileResourceStatus.NORMAL && !tsFileResource.onRemote();
   }
 
   /**
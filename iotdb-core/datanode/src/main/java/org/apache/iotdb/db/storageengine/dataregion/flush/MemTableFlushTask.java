@@ -40,8 +40,10 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.io.IOException;
+import java.util.ArrayDeque;
 import java.util.ArrayList;
 import java.util.Comparator;
+import java.util.Deque;
 import java.util.List;
 import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
@@ -49,10 +51,13 @@ import java.util.concurrent.ExecutionException;
 import java.util.concurrent.Future;
 import java.util.concurrent.LinkedBlockingQueue;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
 
 /**
  * flush task to flush one memtable using a pipeline model to flush, which is sort memtable ->
- * encoding -> write to disk (io task)
+ * encoding -> write to disk (io task). If flushEncodingParallelism is larger than 1, the chunk
+ * groups of different devices are sorted and encoded in parallel, and then handed over to the io
+ * task in device order.
  */
 public class MemTableFlushTask {
 
@@ -63,7 +68,9 @@ public class MemTableFlushTask {
   private static IoTDBConfig config = IoTDBDescriptor.getInstance().getConfig();
   /* storage group name -> last time */
   private static final Map<String, Long> flushPointsCache = new ConcurrentHashMap<>();
+  /** null if chunk groups are sorted and encoded in parallel */
   private final Future<?> encodingTaskFuture;
+
   private final Future<?> ioTaskFuture;
   private RestorableTsFileIOWriter writer;
 
@@ -81,6 +88,8 @@ public class MemTableFlushTask {
   private volatile long memSerializeTime = 0L;
   private volatile long ioTime = 0L;
 
+  private final int encodingParallelism = config.getFlushEncodingParallelism();
+
   /**
    * @param memTable the memTable to flush
    * @param writer the writer where memTable will be flushed to (current tsfile writer or vm writer)
@@ -95,7 +104,8 @@ public class MemTableFlushTask {
     this.writer = writer;
     this.storageGroup = storageGroup;
     this.dataRegionId = dataRegionId;
-    this.encodingTaskFuture = SUB_TASK_POOL_MANAGER.submit(encodingTask);
+    this.encodingTaskFuture =
+        encodingParallelism > 1 ? null : SUB_TASK_POOL_MANAGER.submit(encodingTask);
     this.ioTaskFuture = SUB_TASK_POOL_MANAGER.submit(ioTask);
     LOGGER.debug(
         "flush task of database {} memtable is created, flushing to file {}.",
@@ -125,22 +135,62 @@ public class MemTableFlushTask {
 
     long estimatedTemporaryMemSize = 0L;
     if (config.isEnableMemControl() && SystemInfo.getInstance().isEncodingFasterThanIo()) {
-      estimatedTemporaryMemSize =
-          memTable.getSeriesNumber() == 0
-              ? 0
-              : memTable.memSize()
-                  / memTable.getSeriesNumber()
-                  * config.getIoTaskQueueSizeForFlushing();
+      estimatedTemporaryMemSize = estimateTemporaryMemSize();
       SystemInfo.getInstance().applyTemporaryMemoryForFlushing(estimatedTemporaryMemSize);
     }
     long start = System.currentTimeMillis();
-    long sortTime = 0;
 
     // for map do not use get(key) to iterate
     Map<IDeviceID, IWritableMemChunkGroup> memTableMap = memTable.getMemTableMap();
     List<IDeviceID> deviceIDList = new ArrayList<>(memTableMap.keySet());
     // sort the IDeviceID in lexicographical order
     deviceIDList.sort(Comparator.comparing(IDeviceID::toStringID));
+    if (encodingTaskFuture == null) {
+      sortAndEncodeInParallel(memTableMap, deviceIDList);
+    } else {
+      sortAndEncode(memTableMap, deviceIDList);
+    }
+
+    ioTaskFuture.get();
+
+    try {
+      long writePlanIndicesStartTime = System.currentTimeMillis();
+      writer.writePlanIndices();
+      WRITING_METRICS.recordFlushCost(
+          WritingMetrics.WRITE_PLAN_INDICES,
+          System.currentTimeMillis() - writePlanIndicesStartTime);
+    } catch (IOException e) {
+      throw new ExecutionException(e);
+    }
+
+    if (config.isEnableMemControl()) {
+      if (estimatedTemporaryMemSize != 0) {
+        SystemInfo.getInstance().releaseTemporaryMemoryForFlushing(estimatedTemporaryMemSize);
+      }
+      SystemInfo.getInstance().setEncodingFasterThanIo(ioTime >= memSerializeTime);
+    }
+
+    MetricService.getInstance()
+        .timer(
+            System.currentTimeMillis() - start,
+            TimeUnit.MILLISECONDS,
+            Metric.COST_TASK.toString(),
+            MetricLevel.CORE,
+            Tag.NAME.toString(),
+            "flush");
+
+    LOGGER.info(
+        "Database {} memtable {} flushing a memtable has finished! Time consumption: {}ms",
+        storageGroup,
+        memTable,
+        System.currentTimeMillis() - start);
+  }
+
+  /** sort task (first task of pipeline) which hands the sorted series over to encoding task */
+  private void sortAndEncode(
+      Map<IDeviceID, IWritableMemChunkGroup> memTableMap, List<IDeviceID> deviceIDList)
+      throws ExecutionException, InterruptedException {
+    long sortTime = 0;
     for (IDeviceID deviceID : deviceIDList) {
       final Map<String, IWritableMemChunk> value = memTableMap.get(deviceID).getMemChunkMap();
       // skip the empty device/chunk group
@@ -185,40 +235,135 @@ public class MemTableFlushTask {
       }
       throw e;
     }
+  }
 
-    ioTaskFuture.get();
-
-    try {
-      long writePlanIndicesStartTime = System.currentTimeMillis();
-      writer.writePlanIndices();
-      WRITING_METRICS.recordFlushCost(
-          WritingMetrics.WRITE_PLAN_INDICES,
-          System.currentTimeMillis() - writePlanIndicesStartTime);
-    } catch (IOException e) {
-      throw new ExecutionException(e);
+  /**
+   * estimate the memory of the encoded series which are not written to disk yet. Besides the series
+   * waiting in ioTaskQueue, which is bounded by ioTaskQueueSizeForFlushing, up to
+   * encodingParallelism chunk groups are encoded at the same time if they are encoded in parallel,
+   * and each of them holds the encoded series of a whole device until it is handed over.
+   */
+  private long estimateTemporaryMemSize() {
+    int seriesNumber = memTable.getSeriesNumber();
+    if (seriesNumber == 0) {
+      return 0;
     }
+    long inFlightSeriesNumber = config.getIoTaskQueueSizeForFlushing();
+    if (encodingTaskFuture == null) {
+      int deviceNumber = Math.max(1, memTable.getMemTableMap().size());
+      long avgSeriesNumberPerDevice = (seriesNumber + deviceNumber - 1) / deviceNumber;
+      inFlightSeriesNumber +=
+          Math.min(seriesNumber, encodingParallelism * avgSeriesNumberPerDevice);
+    }
+    return memTable.memSize() / seriesNumber * inFlightSeriesNumber;
+  }
 
-    if (config.isEnableMemControl()) {
-      if (estimatedTemporaryMemSize != 0) {
-        SystemInfo.getInstance().releaseTemporaryMemoryForFlushing(estimatedTemporaryMemSize);
+  /**
+   * sort and encode the chunk groups of different devices in parallel. At most encodingParallelism
+   * chunk groups are in progress at the same time, and the encoded chunk groups are handed over to
+   * the io task in device order, so the layout of the TsFile stays the same.
+   */
+  private void sortAndEncodeInParallel(
+      Map<IDeviceID, IWritableMemChunkGroup> memTableMap, List<IDeviceID> deviceIDList)
+      throws ExecutionException, InterruptedException {
+    LongAdder sortTime = new LongAdder();
+    LongAdder encodingTime = new LongAdder();
+    long waitTime = 0;
+    Deque<Future<EncodedChunkGroup>> runningTasks = new ArrayDeque<>();
+    try {
+      for (IDeviceID deviceID : deviceIDList) {
+        IWritableMemChunkGroup memChunkGroup = memTableMap.get(deviceID);
+        // skip the empty device/chunk group
+        if (memChunkGroup.count() == 0 || memChunkGroup.getMemChunkMap().isEmpty()) {
+          continue;
+        }
+        if (runningTasks.size() >= encodingParallelism) {
+          waitTime += handOverToIoTask(runningTasks.poll());
+        }
+        runningTasks.add(
+            SUB_TASK_POOL_MANAGER.submit(
+                () -> sortAndEncodeChunkGroup(deviceID, memChunkGroup, sortTime, encodingTime)));
       }
-      SystemInfo.getInstance().setEncodingFasterThanIo(ioTime >= memSerializeTime);
+      while (!runningTasks.isEmpty()) {
+        waitTime += handOverToIoTask(runningTasks.poll());
+      }
+      ioTaskQueue.put(new TaskEnd());
+    } catch (InterruptedException | ExecutionException e) {
+      for (Future<EncodedChunkGroup> runningTask : runningTasks) {
+        runningTask.cancel(true);
+      }
+      ioTaskFuture.cancel(true);
+      if (e instanceof InterruptedException) {
+        Thread.currentThread().interrupt();
+      }
+      throw e;
     }
 
-    MetricService.getInstance()
-        .timer(
-            System.currentTimeMillis() - start,
-            TimeUnit.MILLISECONDS,
-            Metric.COST_TASK.toString(),
-            MetricLevel.CORE,
-            Tag.NAME.toString(),
-            "flush");
-
+    // the encoding cost is shared by parallel tasks
+    memSerializeTime = encodingTime.sum() / encodingParallelism;
+    recordFlushPointsMetric();
     LOGGER.info(
-        "Database {} memtable {} flushing a memtable has finished! Time consumption: {}ms",
+        "Database {}, flushing memtable {} into disk: Sorting data cost {} ms, encoding data cost "
+            + "{} ms, waiting for encoded data cost {} ms with parallelism {}.",
         storageGroup,
-        memTable,
-        System.currentTimeMillis() - start);
+        writer.getFile().getName(),
+        sortTime.sum(),
+        encodingTime.sum(),
+        waitTime,
+        encodingParallelism);
+    WRITING_METRICS.recordFlushCost(WritingMetrics.FLUSH_STAGE_SORT, sortTime.sum());
+    WRITING_METRICS.recordFlushCost(WritingMetrics.FLUSH_STAGE_ENCODING, encodingTime.sum());
+    WRITING_METRICS.recordFlushCost(WritingMetrics.FLUSH_STAGE_WAIT_ENCODING, waitTime);
+  }
+
+  private EncodedChunkGroup sortAndEncodeChunkGroup(
+      IDeviceID deviceID,
+      IWritableMemChunkGroup memChunkGroup,
+      LongAdder sortTime,
+      LongAdder encodingTime) {
+    Map<String, IWritableMemChunk> value = memChunkGroup.getMemChunkMap();
+    List<String> seriesInOrder = new ArrayList<>(value.keySet());
+    seriesInOrder.sort((String::compareTo));
+    List<IChunkWriter> chunkWriters = new ArrayList<>(seriesInOrder.size());
+    for (String seriesId : seriesInOrder) {
+      IWritableMemChunk series = value.get(seriesId);
+      if (series.count() == 0) {
+        continue;
+      }
+      long startTime = System.currentTimeMillis();
+      series.sortTvListForFlush();
+      long sortedTime = System.currentTimeMillis();
+      WRITING_METRICS.recordFlushSubTaskCost(WritingMetrics.SORT_TASK, sortedTime - startTime);
+      sortTime.add(sortedTime - startTime);
+
+      IChunkWriter seriesWriter = series.createIChunkWriter();
+      series.encode(seriesWriter);
+      seriesWriter.sealCurrentPage();
+      seriesWriter.clearPageWriter();
+      chunkWriters.add(seriesWriter);
+      long subTaskTime = System.currentTimeMillis() - sortedTime;
+      WRITING_METRICS.recordFlushSubTaskCost(WritingMetrics.ENCODING_TASK, subTaskTime);
+      encodingTime.add(subTaskTime);
+    }
+    return new EncodedChunkGroup(deviceID.toStringID(), chunkWriters);
+  }
+
+  /**
+   * wait for an encoded chunk group and put it into ioTaskQueue
+   *
+   * @return the time waiting for the chunk group to be encoded
+   */
+  private long handOverToIoTask(Future<EncodedChunkGroup> encodingFuture)
+      throws ExecutionException, InterruptedException {
+    long startTime = System.currentTimeMillis();
+    EncodedChunkGroup chunkGroup = encodingFuture.get();
+    long waitTime = System.currentTimeMillis() - startTime;
+    ioTaskQueue.put(new StartFlushGroupIOTask(chunkGroup.deviceId));
+    for (IChunkWriter chunkWriter : chunkGroup.chunkWriters) {
+      ioTaskQueue.put(chunkWriter);
+    }
+    ioTaskQueue.put(new EndChunkGroupIoTask());
+    return waitTime;
   }
 
   /** encoding task (second task of pipeline) */
@@ -388,6 +533,17 @@ public class MemTableFlushTask {
     EndChunkGroupIoTask() {}
   }
 
+  static class EncodedChunkGroup {
+
+    private final String deviceId;
+    private final List<IChunkWriter> chunkWriters;
+
+    EncodedChunkGroup(String deviceId, List<IChunkWriter> chunkWriters) {
+      this.deviceId = deviceId;
+      this.chunkWriters = chunkWriters;
+    }
+  }
+
   static class StartFlushGroupIOTask {
 
     private final String deviceId;
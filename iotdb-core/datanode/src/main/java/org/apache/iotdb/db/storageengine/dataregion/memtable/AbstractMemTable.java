@@ -104,13 +104,13 @@ public abstract class AbstractMemTable implements IMemTable {
   protected AbstractMemTable() {
     this.database = null;
     this.dataRegionId = null;
-    this.memTableMap = new HashMap<>();
+    this.memTableMap = newMemTableMap();
   }
 
   protected AbstractMemTable(String database, String dataRegionId) {
     this.database = database;
     this.dataRegionId = dataRegionId;
-    this.memTableMap = new HashMap<>();
+    this.memTableMap = newMemTableMap();
   }
 
   protected AbstractMemTable(
@@ -120,6 +120,14 @@ public abstract class AbstractMemTable implements IMemTable {
     this.memTableMap = memTableMap;
   }
 
+  /**
+   * Create an empty DeviceId -> chunkGroup map, which is keyed by int ids if device ids are
+   * interned.
+   */
+  protected static Map<IDeviceID, IWritableMemChunkGroup> newMemTableMap() {
+    return deviceIDFactory.isInterning() ? new InternedDeviceMemTableMap() : new HashMap<>();
+  }
+
   @Override
   public Map<IDeviceID, IWritableMemChunkGroup> getMemTableMap() {
     return memTableMap;
@@ -171,7 +179,8 @@ public abstract class AbstractMemTable implements IMemTable {
     // device
     // id for it
     if (insertRowNode.getDeviceID() == null) {
-      insertRowNode.setDeviceID(deviceIDFactory.getDeviceID(insertRowNode.getDevicePath()));
+      insertRowNode.setDeviceID(
+          deviceIDFactory.getDeviceIDForInsert(insertRowNode.getDevicePath()));
     }
 
     String[] measurements = insertRowNode.getMeasurements();
@@ -220,7 +229,8 @@ public abstract class AbstractMemTable implements IMemTable {
   public void insertAlignedRow(InsertRowNode insertRowNode) {
     // If this insert node isn't from storage engine, we should set a temp device id for it
     if (insertRowNode.getDeviceID() == null) {
-      insertRowNode.setDeviceID(deviceIDFactory.getDeviceID(insertRowNode.getDevicePath()));
+      insertRowNode.setDeviceID(
+          deviceIDFactory.getDeviceIDForInsert(insertRowNode.getDevicePath()));
     }
 
     String[] measurements = insertRowNode.getMeasurements();
@@ -340,7 +350,8 @@ public abstract class AbstractMemTable implements IMemTable {
   public void writeTabletNode(InsertTabletNode insertTabletNode, int start, int end) {
     // If this insert plan isn't from storage storageengine, we should set a temp device id for it
     if (insertTabletNode.getDeviceID() == null) {
-      insertTabletNode.setDeviceID(deviceIDFactory.getDeviceID(insertTabletNode.getDevicePath()));
+      insertTabletNode.setDeviceID(
+          deviceIDFactory.getDeviceIDForInsert(insertTabletNode.getDevicePath()));
     }
 
     List<IMeasurementSchema> schemaList = new ArrayList<>();
@@ -367,7 +378,8 @@ public abstract class AbstractMemTable implements IMemTable {
   public void writeAlignedTablet(InsertTabletNode insertTabletNode, int start, int end) {
     // if this insert plan isn't from storage storageengine, we should set a temp device id for it
     if (insertTabletNode.getDeviceID() == null) {
-      insertTabletNode.setDeviceID(deviceIDFactory.getDeviceID(insertTabletNode.getDevicePath()));
+      insertTabletNode.setDeviceID(
+          deviceIDFactory.getDeviceIDForInsert(insertTabletNode.getDevicePath()));
     }
 
     List<IMeasurementSchema> schemaList = new ArrayList<>();
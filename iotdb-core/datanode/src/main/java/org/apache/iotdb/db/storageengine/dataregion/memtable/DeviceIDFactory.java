@@ -21,13 +21,30 @@ package org.apache.iotdb.db.storageengine.dataregion.memtable;
 
 import org.apache.iotdb.commons.path.PartialPath;
 import org.apache.iotdb.commons.utils.TestOnly;
+import org.apache.iotdb.db.conf.IoTDBDescriptor;
 
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.function.Function;
 
 /** factory to build device id according to configured algorithm */
 public class DeviceIDFactory {
   private Function<String, IDeviceID> getDeviceIDFunction;
 
+  /**
+   * device path -> interned device id. Values are weakly referenced, so an entry is released once no
+   * memtable or insert node refers to its device id, e.g. after the memtables of the device are
+   * flushed or the device is deleted. The ids are never reused.
+   */
+  private final Cache<String, InternedDeviceID> internedDeviceIDs =
+      Caffeine.newBuilder().weakValues().build();
+
+  private final AtomicInteger nextInternedId = new AtomicInteger(0);
+
+  private boolean interning;
+
   // region DeviceIDFactory Singleton
   private static class DeviceIDFactoryHolder {
 
@@ -48,33 +65,111 @@ public class DeviceIDFactory {
   }
 
   private DeviceIDFactory() {
-    getDeviceIDFunction = PlainDeviceID::new;
+    initDeviceIDFunction();
+  }
+
+  private void initDeviceIDFunction() {
+    interning = IoTDBDescriptor.getInstance().getConfig().isEnableDeviceIdInterning();
+    getDeviceIDFunction = interning ? this::getInternedOrPlainDeviceID : PlainDeviceID::new;
   }
   // endregion
 
   /**
-   * get device id by full path
+   * get device id by full path, which is never interned by this method, so it can be used for
+   * deletions and queries of devices that may not exist
    *
    * @param devicePath device path of the timeseries
-   * @return device id of the timeseries
+   * @return device id of the timeseries, the interned one if the device has been interned
    */
   public IDeviceID getDeviceID(PartialPath devicePath) {
     return getDeviceIDFunction.apply(devicePath.toString());
   }
 
   /**
-   * get device id by full path
+   * get device id by full path, which is never interned by this method, see {@link
+   * #getDeviceID(PartialPath)}
    *
    * @param devicePath device path of the timeseries
-   * @return device id of the timeseries
+   * @return device id of the timeseries, the interned one if the device has been interned
    */
   public IDeviceID getDeviceID(String devicePath) {
     return getDeviceIDFunction.apply(devicePath);
   }
 
+  /**
+   * get device id by full path for inserting into a memtable, which interns it if interning is on
+   *
+   * @param devicePath device path of the timeseries
+   * @return device id of the timeseries
+   */
+  public IDeviceID getDeviceIDForInsert(PartialPath devicePath) {
+    return getDeviceIDForInsert(devicePath.toString());
+  }
+
+  /**
+   * get device id by full path for inserting into a memtable, which interns it if interning is on
+   *
+   * @param devicePath device path of the timeseries
+   * @return device id of the timeseries
+   */
+  public IDeviceID getDeviceIDForInsert(String devicePath) {
+    return interning ? internDeviceID(devicePath) : new PlainDeviceID(devicePath);
+  }
+
+  private IDeviceID getInternedOrPlainDeviceID(String devicePath) {
+    InternedDeviceID deviceID = internedDeviceIDs.getIfPresent(devicePath);
+    return deviceID != null ? deviceID : new PlainDeviceID(devicePath);
+  }
+
+  /**
+   * get the interned device id of the device path, which is created if absent
+   *
+   * @param devicePath device path of the timeseries
+   * @return the unique interned device id of the device path
+   */
+  public InternedDeviceID internDeviceID(String devicePath) {
+    return internedDeviceIDs.get(
+        devicePath, k -> new InternedDeviceID(k, nextInternedId.getAndIncrement()));
+  }
+
+  /**
+   * get the interned device id of the given device id
+   *
+   * @param deviceID device id of any kind
+   * @return the unique interned device id of the device
+   */
+  public InternedDeviceID internDeviceID(IDeviceID deviceID) {
+    return deviceID instanceof InternedDeviceID
+        ? (InternedDeviceID) deviceID
+        : internDeviceID(deviceID.toStringID());
+  }
+
+  /**
+   * get the interned device id of the given device id without interning it
+   *
+   * @param deviceID device id of any kind
+   * @return the unique interned device id of the device, or null if it has never been interned
+   */
+  public InternedDeviceID getInternedDeviceID(IDeviceID deviceID) {
+    return deviceID instanceof InternedDeviceID
+        ? (InternedDeviceID) deviceID
+        : internedDeviceIDs.getIfPresent(deviceID.toStringID());
+  }
+
+  /** @return whether the device ids built by this factory are interned */
+  public boolean isInterning() {
+    return interning;
+  }
+
+  /** @return the number of device ids which are interned and still referenced */
+  public long getInternedDeviceNum() {
+    internedDeviceIDs.cleanUp();
+    return internedDeviceIDs.estimatedSize();
+  }
+
   /** reset id method */
   @TestOnly
   public void reset() {
-    getDeviceIDFunction = PlainDeviceID::new;
+    initDeviceIDFunction();
   }
 }
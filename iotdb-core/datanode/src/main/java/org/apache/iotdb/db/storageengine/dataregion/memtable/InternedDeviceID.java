@@ -0,0 +1,73 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.iotdb.db.storageengine.dataregion.memtable;
+
+import org.apache.iotdb.tsfile.utils.ReadWriteIOUtils;
+
+import java.nio.ByteBuffer;
+
+/**
+ * Device id interned by {@link DeviceIDFactory}. Each device path has exactly one live instance,
+ * which carries a dense int id, so it can be used as an int key. It equals a {@link PlainDeviceID}
+ * of the same path and has the same hash code, so both kinds can be mixed in one map.
+ */
+public class InternedDeviceID implements IDeviceID {
+  private final String deviceID;
+  private final int id;
+
+  InternedDeviceID(String deviceID, int id) {
+    this.deviceID = deviceID;
+    this.id = id;
+  }
+
+  public int getId() {
+    return id;
+  }
+
+  @Override
+  public boolean equals(Object o) {
+    if (this == o) {
+      return true;
+    }
+    if (o instanceof InternedDeviceID) {
+      return id == ((InternedDeviceID) o).id;
+    }
+    return o instanceof IDeviceID && deviceID.equals(((IDeviceID) o).toStringID());
+  }
+
+  @Override
+  public int hashCode() {
+    return deviceID.hashCode();
+  }
+
+  @Override
+  public String toString() {
+    return "InternedDeviceID{" + "deviceID='" + deviceID + '\'' + ", id=" + id + '}';
+  }
+
+  @Override
+  public String toStringID() {
+    return deviceID;
+  }
+
+  @Override
+  public void serialize(ByteBuffer byteBuffer) {
+    ReadWriteIOUtils.write(deviceID, byteBuffer);
+  }
+}
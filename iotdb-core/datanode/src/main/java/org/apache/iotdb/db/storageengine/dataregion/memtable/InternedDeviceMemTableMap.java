@@ -0,0 +1,258 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.iotdb.db.storageengine.dataregion.memtable;
+
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.Arrays;
+import java.util.ConcurrentModificationException;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
+import java.util.function.Function;
+
+/**
+ * DeviceId -> chunkGroup map of a memtable, used when device ids are interned by {@link
+ * DeviceIDFactory}. It is an open-addressing hash table keyed by the int id of {@link
+ * InternedDeviceID}, so that neither hashing nor comparing device paths is needed when a row is
+ * inserted. Keys of other kinds are interned on put and looked up without being interned. The map
+ * holds its interned keys strongly, so they stay interned as long as the memtable. Like {@link
+ * java.util.HashMap}, it is not thread-safe.
+ */
+public class InternedDeviceMemTableMap extends AbstractMap<IDeviceID, IWritableMemChunkGroup> {
+
+  private static final int DEFAULT_CAPACITY = 16;
+
+  private static final DeviceIDFactory deviceIDFactory = DeviceIDFactory.getInstance();
+
+  /** capacity is always a power of two, and the load factor is at most 0.5 */
+  private InternedDeviceID[] keys;
+
+  private IWritableMemChunkGroup[] values;
+
+  private int size;
+
+  private int modCount;
+
+  private Set<Entry<IDeviceID, IWritableMemChunkGroup>> entrySet;
+
+  public InternedDeviceMemTableMap() {
+    keys = new InternedDeviceID[DEFAULT_CAPACITY];
+    values = new IWritableMemChunkGroup[DEFAULT_CAPACITY];
+  }
+
+  public InternedDeviceMemTableMap(Map<IDeviceID, IWritableMemChunkGroup> map) {
+    this();
+    putAll(map);
+  }
+
+  private static int slot(int id, int mask) {
+    // fibonacci hashing spreads the dense ids over the table
+    int hash = id * 0x9E3779B9;
+    return (hash ^ (hash >>> 16)) & mask;
+  }
+
+  private int indexOf(Object key) {
+    if (!(key instanceof IDeviceID)) {
+      return -1;
+    }
+    // a device which has never been interned can not be in the map
+    InternedDeviceID deviceID = deviceIDFactory.getInternedDeviceID((IDeviceID) key);
+    if (deviceID == null) {
+      return -1;
+    }
+    int id = deviceID.getId();
+    int mask = keys.length - 1;
+    for (int i = slot(id, mask); keys[i] != null; i = (i + 1) & mask) {
+      if (keys[i].getId() == id) {
+        return i;
+      }
+    }
+    return -1;
+  }
+
+  @Override
+  public int size() {
+    return size;
+  }
+
+  @Override
+  public boolean isEmpty() {
+    return size == 0;
+  }
+
+  @Override
+  public boolean containsKey(Object key) {
+    return indexOf(key) >= 0;
+  }
+
+  @Override
+  public IWritableMemChunkGroup get(Object key) {
+    int index = indexOf(key);
+    return index >= 0 ? values[index] : null;
+  }
+
+  @Override
+  public IWritableMemChunkGroup put(IDeviceID key, IWritableMemChunkGroup value) {
+    InternedDeviceID deviceID = deviceIDFactory.internDeviceID(key);
+    int id = deviceID.getId();
+    int mask = keys.length - 1;
+    int i = slot(id, mask);
+    for (; keys[i] != null; i = (i + 1) & mask) {
+      if (keys[i].getId() == id) {
+        IWritableMemChunkGroup oldValue = values[i];
+        values[i] = value;
+        return oldValue;
+      }
+    }
+    keys[i] = deviceID;
+    values[i] = value;
+    modCount++;
+    if (++size * 2 > keys.length) {
+      resize(keys.length * 2);
+    }
+    return null;
+  }
+
+  @Override
+  public IWritableMemChunkGroup computeIfAbsent(
+      IDeviceID key,
+      Function<? super IDeviceID, ? extends IWritableMemChunkGroup> mappingFunction) {
+    IWritableMemChunkGroup value = get(key);
+    if (value == null) {
+      value = mappingFunction.apply(key);
+      if (value != null) {
+        put(key, value);
+      }
+    }
+    return value;
+  }
+
+  @Override
+  public IWritableMemChunkGroup remove(Object key) {
+    int index = indexOf(key);
+    if (index < 0) {
+      return null;
+    }
+    IWritableMemChunkGroup oldValue = values[index];
+    removeAt(index);
+    return oldValue;
+  }
+
+  /** removes the entry at the index and shifts the following entries of the same probe sequence */
+  private void removeAt(int index) {
+    int mask = keys.length - 1;
+    int hole = index;
+    for (int i = (hole + 1) & mask; keys[i] != null; i = (i + 1) & mask) {
+      int home = slot(keys[i].getId(), mask);
+      // move the entry into the hole if its home slot is not within (hole, i]
+      if (((i - home) & mask) >= ((i - hole) & mask)) {
+        keys[hole] = keys[i];
+        values[hole] = values[i];
+        hole = i;
+      }
+    }
+    keys[hole] = null;
+    values[hole] = null;
+    size--;
+    modCount++;
+  }
+
+  @Override
+  public void clear() {
+    Arrays.fill(keys, null);
+    Arrays.fill(values, null);
+    size = 0;
+    modCount++;
+  }
+
+  private void resize(int newCapacity) {
+    InternedDeviceID[] oldKeys = keys;
+    IWritableMemChunkGroup[] oldValues = values;
+    keys = new InternedDeviceID[newCapacity];
+    values = new IWritableMemChunkGroup[newCapacity];
+    int mask = newCapacity - 1;
+    for (int j = 0; j < oldKeys.length; j++) {
+      if (oldKeys[j] != null) {
+        int i = slot(oldKeys[j].getId(), mask);
+        while (keys[i] != null) {
+          i = (i + 1) & mask;
+        }
+        keys[i] = oldKeys[j];
+        values[i] = oldValues[j];
+      }
+    }
+  }
+
+  @Override
+  public Set<Entry<IDeviceID, IWritableMemChunkGroup>> entrySet() {
+    if (entrySet == null) {
+      entrySet = new EntrySet();
+    }
+    return entrySet;
+  }
+
+  private class EntrySet extends AbstractSet<Entry<IDeviceID, IWritableMemChunkGroup>> {
+
+    @Override
+    public Iterator<Entry<IDeviceID, IWritableMemChunkGroup>> iterator() {
+      return new EntryIterator();
+    }
+
+    @Override
+    public int size() {
+      return size;
+    }
+  }
+
+  /** iterator over the entries, it does not support removal */
+  private class EntryIterator implements Iterator<Entry<IDeviceID, IWritableMemChunkGroup>> {
+    private final int expectedModCount = modCount;
+    private int next = advance(0);
+
+    private int advance(int from) {
+      int i = from;
+      while (i < keys.length && keys[i] == null) {
+        i++;
+      }
+      return i;
+    }
+
+    @Override
+    public boolean hasNext() {
+      return next < keys.length;
+    }
+
+    @Override
+    public Entry<IDeviceID, IWritableMemChunkGroup> next() {
+      if (expectedModCount != modCount) {
+        throw new ConcurrentModificationException();
+      }
+      if (next >= keys.length) {
+        throw new NoSuchElementException();
+      }
+      Entry<IDeviceID, IWritableMemChunkGroup> entry =
+          new SimpleImmutableEntry<>(keys[next], values[next]);
+      next = advance(next + 1);
+      return entry;
+    }
+  }
+}
@@ -37,11 +37,11 @@ public class PlainDeviceID implements IDeviceID {
     if (this == o) {
       return true;
     }
-    if (!(o instanceof PlainDeviceID)) {
+    // equal to the interned device id of the same path, see InternedDeviceID#equals
+    if (!(o instanceof IDeviceID)) {
       return false;
     }
-    PlainDeviceID that = (PlainDeviceID) o;
-    return Objects.equals(deviceID, that.deviceID);
+    return Objects.equals(deviceID, ((IDeviceID) o).toStringID());
   }
 
   @Override
@@ -19,7 +19,6 @@
 
 package org.apache.iotdb.db.storageengine.dataregion.memtable;
 
-import java.util.HashMap;
 import java.util.Map;
 
 public class PrimitiveMemTable extends AbstractMemTable {
@@ -44,7 +43,8 @@ public class PrimitiveMemTable extends AbstractMemTable {
 
   @Override
   public IMemTable copy() {
-    Map<IDeviceID, IWritableMemChunkGroup> newMap = new HashMap<>(getMemTableMap());
+    Map<IDeviceID, IWritableMemChunkGroup> newMap = newMemTableMap();
+    newMap.putAll(getMemTableMap());
 
     return new PrimitiveMemTable(getDatabase(), getDataRegionId(), newMap);
   }
@@ -29,6 +29,7 @@ import org.apache.iotdb.tsfile.write.schema.IMeasurementSchema;
 
 import java.io.DataInputStream;
 import java.io.IOException;
+import java.util.Arrays;
 import java.util.HashMap;
 import java.util.Iterator;
 import java.util.List;
@@ -39,8 +40,22 @@ public class WritableMemChunkGroup implements IWritableMemChunkGroup {
 
   private Map<String, IWritableMemChunk> memChunkMap;
 
+  /**
+   * Measurement slots used when device ids are interned: the chunk of the measurement at each
+   * column position of previous writes. Rows of a device mostly carry the same measurements in the
+   * same order, so a chunk is usually found by its column position without hashing the measurement.
+   * Null if slots are not used.
+   */
+  private String[] slotMeasurements;
+
+  private IWritableMemChunk[] slotMemChunks;
+
   public WritableMemChunkGroup() {
     memChunkMap = new HashMap<>();
+    if (DeviceIDFactory.getInstance().isInterning()) {
+      slotMeasurements = new String[0];
+      slotMemChunks = new IWritableMemChunk[0];
+    }
   }
 
   @Override
@@ -56,7 +71,7 @@ public class WritableMemChunkGroup implements IWritableMemChunkGroup {
       if (columns[i] == null) {
         continue;
       }
-      IWritableMemChunk memChunk = createMemChunkIfNotExistAndGet(schemaList.get(i));
+      IWritableMemChunk memChunk = getMemChunkBySlot(i, schemaList.get(i));
       flushFlag |=
           memChunk.writeWithFlushCheck(
               times,
@@ -74,6 +89,31 @@ public class WritableMemChunkGroup implements IWritableMemChunkGroup {
         schema.getMeasurementId(), k -> new WritableMemChunk(schema));
   }
 
+  private IWritableMemChunk getMemChunkBySlot(int slot, IMeasurementSchema schema) {
+    if (slotMeasurements == null) {
+      return createMemChunkIfNotExistAndGet(schema);
+    }
+    String measurement = schema.getMeasurementId();
+    if (slot < slotMeasurements.length && measurement.equals(slotMeasurements[slot])) {
+      return slotMemChunks[slot];
+    }
+    IWritableMemChunk memChunk = createMemChunkIfNotExistAndGet(schema);
+    if (slot >= slotMeasurements.length) {
+      slotMeasurements = Arrays.copyOf(slotMeasurements, slot + 1);
+      slotMemChunks = Arrays.copyOf(slotMemChunks, slot + 1);
+    }
+    slotMeasurements[slot] = measurement;
+    slotMemChunks[slot] = memChunk;
+    return memChunk;
+  }
+
+  private void clearSlots() {
+    if (slotMeasurements != null) {
+      slotMeasurements = new String[0];
+      slotMemChunks = new IWritableMemChunk[0];
+    }
+  }
+
   @Override
   public void release() {
     for (IWritableMemChunk memChunk : memChunkMap.values()) {
@@ -103,7 +143,7 @@ public class WritableMemChunkGroup implements IWritableMemChunkGroup {
       if (objectValue[i] == null) {
         continue;
       }
-      IWritableMemChunk memChunk = createMemChunkIfNotExistAndGet(schemaList.get(i));
+      IWritableMemChunk memChunk = getMemChunkBySlot(i, schemaList.get(i));
       flushFlag |= memChunk.writeWithFlushCheck(insertTime, objectValue[i]);
     }
     return flushFlag;
@@ -119,6 +159,8 @@ public class WritableMemChunkGroup implements IWritableMemChunkGroup {
   public int delete(
       PartialPath originalPath, PartialPath devicePath, long startTimestamp, long endTimestamp) {
     int deletedPointsNumber = 0;
+    // deleted chunks may be removed from the map
+    clearSlots();
     String targetMeasurement = originalPath.getMeasurement();
     if (PathPatternUtil.hasWildcard(targetMeasurement)) {
       Iterator<Entry<String, IWritableMemChunk>> iter = memChunkMap.entrySet().iterator();
@@ -0,0 +1,448 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.iotdb.db.storageengine.dataregion.migration;
+
+import org.apache.iotdb.commons.conf.CommonDescriptor;
+import org.apache.iotdb.commons.utils.CommonDateTimeUtils;
+import org.apache.iotdb.commons.utils.TestOnly;
+import org.apache.iotdb.db.conf.IoTDBConfig;
+import org.apache.iotdb.db.conf.IoTDBDescriptor;
+import org.apache.iotdb.db.exception.DiskSpaceInsufficientException;
+import org.apache.iotdb.db.storageengine.buffer.ModificationCache;
+import org.apache.iotdb.db.storageengine.dataregion.DataRegion;
+import org.apache.iotdb.db.storageengine.dataregion.modification.ModificationFile;
+import org.apache.iotdb.db.storageengine.dataregion.read.control.FileReaderManager;
+import org.apache.iotdb.db.storageengine.dataregion.tsfile.TsFileResource;
+import org.apache.iotdb.db.storageengine.dataregion.tsfile.TsFileResourceStatus;
+import org.apache.iotdb.db.storageengine.rescon.disk.TierManager;
+import org.apache.iotdb.tsfile.fileSystem.FSFactoryProducer;
+import org.apache.iotdb.tsfile.fileSystem.fsFactory.FSFactory;
+
+import com.google.common.util.concurrent.RateLimiter;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * TierMigrationManager moves the sealed TsFiles of each storage tier of {@link
+ * IoTDBConfig#getTierDataDirs()} to the next tier, when all the data of a file are older than the
+ * age of its tier, or when the usable space of its tier is lower than the threshold, in which case
+ * the files with the oldest data are moved first.
+ *
+ * <p>A file to migrate is reserved by setting its status to COMPACTING, so that it is neither
+ * selected by compaction nor removed by TTL meanwhile. It is copied to the next tier while queries
+ * still read the old copy, and then switched to the new copy under the write lock of its data
+ * region, which blocks deletions from writing its mods file, and the write lock of the file. The
+ * file lock is only tried, a limited number of times, so that long queries block neither the data
+ * region nor the migration. If it can not be acquired, the switch is given up and retried in the
+ * next check, which reuses the finished copy instead of copying the file again. When the next tier
+ * is on object storage, only the TsFile is uploaded, and its .resource and .mods files are kept on
+ * the local disk.
+ */
+public class TierMigrationManager {
+
+  private static final Logger LOGGER = LoggerFactory.getLogger(TierMigrationManager.class);
+  private static final IoTDBConfig CONFIG = IoTDBDescriptor.getInstance().getConfig();
+  private static final FSFactory FS_FACTORY = FSFactoryProducer.getFSFactory();
+
+  /** suffix of the TsFile being copied to the next tier, which is removed during recovery */
+  public static final String MIGRATING_SUFFIX = ".migrating";
+
+  private static final int COPY_BUFFER_SIZE = 64 * 1024;
+  static final int MAX_LOCK_ATTEMPTS = 50;
+  private static final long LOCK_RETRY_INTERVAL_IN_MS = 200;
+
+  private final RateLimiter migrationRateLimiter = RateLimiter.create(Double.MAX_VALUE);
+
+  /** finished copies of the files whose switch was given up, to be reused by the next attempt */
+  private final Map<TsFileResource, File> finishedCopies = new ConcurrentHashMap<>();
+
+  private int maxLockAttempts = MAX_LOCK_ATTEMPTS;
+
+  private TierMigrationManager() {}
+
+  public static TierMigrationManager getInstance() {
+    return TierMigrationManagerHolder.INSTANCE;
+  }
+
+  /** Check the files of all the data regions and migrate the ones which should be moved. */
+  public void checkAndMigrate(Collection<DataRegion> dataRegions) {
+    TierManager tierManager = TierManager.getInstance();
+    int tiersNum = tierManager.getTiersNum();
+    if (tiersNum <= 1) {
+      return;
+    }
+    setMigrationRate(CONFIG.getTierMigrationThroughputMbPerSec());
+    removeCopiesOfDeletedFiles();
+    long[] tierDiskTotalSpace = tierManager.getTierDiskTotalSpace();
+    long[] tierDiskUsableSpace = tierManager.getTierDiskUsableSpace();
+    for (int tierLevel = 0; tierLevel < tiersNum - 1; tierLevel++) {
+      List<MigrationCandidate> candidates = selectCandidates(dataRegions, tierLevel);
+      if (candidates.isEmpty()) {
+        continue;
+      }
+      List<MigrationCandidate> remainingCandidates = migrateByAge(candidates, tierLevel);
+      migrateBySpace(
+          remainingCandidates,
+          tierLevel,
+          tierDiskTotalSpace[tierLevel],
+          tierDiskUsableSpace[tierLevel]);
+    }
+  }
+
+  private List<MigrationCandidate> selectCandidates(
+      Collection<DataRegion> dataRegions, int tierLevel) {
+    List<MigrationCandidate> candidates = new ArrayList<>();
+    for (DataRegion dataRegion : dataRegions) {
+      if (dataRegion == null) {
+        continue;
+      }
+      for (boolean sequence : new boolean[] {true, false}) {
+        for (TsFileResource resource : dataRegion.getTsFileManager().getTsFileList(sequence)) {
+          if (resource.getStatus() == TsFileResourceStatus.NORMAL
+              && resource.getTierLevel() == tierLevel) {
+            candidates.add(new MigrationCandidate(dataRegion, resource, sequence));
+          }
+        }
+      }
+    }
+    return candidates;
+  }
+
+  /**
+   * Migrate the files whose data are all older than the age of the tier.
+   *
+   * @return the candidates which are not migrated
+   */
+  private List<MigrationCandidate> migrateByAge(
+      List<MigrationCandidate> candidates, int tierLevel) {
+    long[] tierTTLs = CONFIG.getTierTTLInMs();
+    long tierTTL = tierLevel < tierTTLs.length ? tierTTLs[tierLevel] : Long.MAX_VALUE;
+    if (tierTTL == Long.MAX_VALUE) {
+      return candidates;
+    }
+    long timeLowerBound =
+        CommonDateTimeUtils.currentTime()
+            - CommonDateTimeUtils.convertMilliTimeWithPrecision(
+                tierTTL, CommonDescriptor.getInstance().getConfig().getTimestampPrecision());
+    List<MigrationCandidate> remainingCandidates = new ArrayList<>();
+    for (MigrationCandidate candidate : candidates) {
+      if (candidate.resource.stillLives(timeLowerBound) || !migrate(candidate)) {
+        remainingCandidates.add(candidate);
+      }
+    }
+    return remainingCandidates;
+  }
+
+  /** Migrate the files with the oldest data until the usable space of the tier is enough. */
+  private void migrateBySpace(
+      List<MigrationCandidate> candidates, int tierLevel, long totalSpace, long usableSpace) {
+    double[] tierSpaceThresholds = CONFIG.getTierSpaceThresholds();
+    double threshold = tierLevel < tierSpaceThresholds.length ? tierSpaceThresholds[tierLevel] : 0;
+    // the space of remote storage is not limited
+    if (threshold <= 0 || totalSpace == Long.MAX_VALUE) {
+      return;
+    }
+    long spaceToFree = (long) (totalSpace * threshold) - usableSpace;
+    if (spaceToFree <= 0) {
+      return;
+    }
+    LOGGER.info(
+        "Usable space {} of tier {} is lower than {} of its total space {}, migrate its oldest files",
+        usableSpace,
+        tierLevel,
+        threshold,
+        totalSpace);
+    candidates.sort(Comparator.comparingLong(candidate -> candidate.resource.getFileEndTime()));
+    for (MigrationCandidate candidate : candidates) {
+      if (spaceToFree <= 0) {
+        break;
+      }
+      long fileSize = candidate.resource.getTsFileSize();
+      if (migrate(candidate)) {
+        spaceToFree -= fileSize;
+      }
+    }
+  }
+
+  private boolean migrate(MigrationCandidate candidate) {
+    TsFileResource resource = candidate.resource;
+    // reserve the file, so that it is neither compacted nor removed by TTL during migration
+    if (!resource.setStatus(TsFileResourceStatus.COMPACTION_CANDIDATE)) {
+      return false;
+    }
+    if (!resource.setStatus(TsFileResourceStatus.COMPACTING)) {
+      resource.setStatus(TsFileResourceStatus.NORMAL);
+      return false;
+    }
+    int targetTierLevel = resource.getTierLevel() + 1;
+    try {
+      boolean migrated =
+          TierManager.getInstance().isObjectStorageTier(targetTierLevel)
+              ? uploadToObjectStorage(candidate)
+              : moveToLocalTier(candidate, targetTierLevel);
+      if (migrated) {
+        LOGGER.info("Migrated {} to tier {}", resource.getTsFile(), targetTierLevel);
+      }
+      return migrated;
+    } catch (Exception e) {
+      LOGGER.error("Failed to migrate {} to tier {}", resource.getTsFile(), targetTierLevel, e);
+      return false;
+    } finally {
+      // the file may be deleted by the deletion of its data region meanwhile
+      resource.setStatus(TsFileResourceStatus.NORMAL);
+    }
+  }
+
+  private boolean moveToLocalTier(MigrationCandidate candidate, int targetTierLevel)
+      throws IOException, DiskSpaceInsufficientException {
+    TsFileResource resource = candidate.resource;
+    File tsFile = resource.getTsFile();
+    File partitionDir = tsFile.getParentFile();
+    File dataRegionDir = partitionDir.getParentFile();
+    File databaseDir = dataRegionDir.getParentFile();
+    File targetDir =
+        FS_FACTORY.getFile(
+            TierManager.getInstance().getNextFolderForTsFile(targetTierLevel, candidate.sequence)
+                + File.separator
+                + databaseDir.getName()
+                + File.separator
+                + dataRegionDir.getName()
+                + File.separator
+                + partitionDir.getName());
+    if (!targetDir.exists() && !targetDir.mkdirs()) {
+      LOGGER.warn("Failed to create the folder {} for migration", targetDir);
+    }
+    File migratingTsFile = takeFinishedCopy(resource);
+    if (migratingTsFile != null) {
+      targetDir = migratingTsFile.getParentFile();
+    } else {
+      migratingTsFile = FS_FACTORY.getFile(targetDir, tsFile.getName() + MIGRATING_SUFFIX);
+      // the old copy is still read by queries during copying
+      copyWithRateLimit(tsFile, migratingTsFile);
+    }
+    File targetTsFile = FS_FACTORY.getFile(targetDir, tsFile.getName());
+
+    if (!lockForSwitching(candidate)) {
+      finishedCopies.put(resource, migratingTsFile);
+      return false;
+    }
+    try {
+      if (resource.isDeleted()) {
+        FS_FACTORY.deleteIfExists(migratingTsFile);
+        return false;
+      }
+      File resourceFile = FS_FACTORY.getFile(tsFile.getPath() + TsFileResource.RESOURCE_SUFFIX);
+      File modFile = FS_FACTORY.getFile(tsFile.getPath() + ModificationFile.FILE_SUFFIX);
+      resource.resetModFile();
+      FS_FACTORY.copyFile(resourceFile, FS_FACTORY.getFile(targetDir, resourceFile.getName()));
+      if (modFile.exists()) {
+        FS_FACTORY.copyFile(modFile, FS_FACTORY.getFile(targetDir, modFile.getName()));
+      }
+      // the TsFile is renamed at last, so a TsFile found in the next tier during recovery is
+      // always complete with its .resource and .mods files
+      FS_FACTORY.moveFile(migratingTsFile, targetTsFile);
+
+      removeCompactionModFile(resource);
+      FileReaderManager.getInstance().closeFileAndRemoveReader(tsFile.getPath());
+      resource.setFile(targetTsFile);
+      resource.increaseTierLevel();
+
+      FS_FACTORY.deleteIfExists(tsFile);
+      FS_FACTORY.deleteIfExists(resourceFile);
+      ModificationCache.getInstance().invalidate(modFile.getPath());
+      FS_FACTORY.deleteIfExists(modFile);
+      return true;
+    } finally {
+      unlockForSwitching(candidate);
+    }
+  }
+
+  private boolean uploadToObjectStorage(MigrationCandidate candidate) throws IOException {
+    TsFileResource resource = candidate.resource;
+    File tsFile = resource.getTsFile();
+    File remoteTsFile = TierManager.getInstance().getRemoteTsFile(tsFile);
+
+    if (takeFinishedCopy(resource) == null) {
+      // the upload can not be throttled by blocks, so the budget of the whole file is acquired
+      // first
+      acquireWithRateLimit(tsFile.length());
+      FS_FACTORY.copyFile(tsFile, remoteTsFile);
+    }
+
+    if (!lockForSwitching(candidate)) {
+      finishedCopies.put(resource, remoteTsFile);
+      return false;
+    }
+    try {
+      if (resource.isDeleted()) {
+        FS_FACTORY.deleteIfExists(remoteTsFile);
+        return false;
+      }
+      removeCompactionModFile(resource);
+      FileReaderManager.getInstance().closeFileAndRemoveReader(tsFile.getPath());
+      // the .resource and .mods files are kept locally, and the TsFile is read from the object
+      // storage once it does not exist locally
+      FS_FACTORY.deleteIfExists(tsFile);
+      resource.increaseTierLevel();
+      return true;
+    } finally {
+      unlockForSwitching(candidate);
+    }
+  }
+
+  /**
+   * Lock the data region and the file. The file lock is only tried under the data region lock,
+   * because queries lock their files under the read lock of the data region, and the data region
+   * should not be blocked by long queries.
+   */
+  private boolean lockForSwitching(MigrationCandidate candidate) {
+    for (int i = 0; i < maxLockAttempts; i++) {
+      candidate.dataRegion.writeLock("tierMigration");
+      if (candidate.resource.tryWriteLock()) {
+        return true;
+      }
+      candidate.dataRegion.writeUnlock();
+      try {
+        Thread.sleep(LOCK_RETRY_INTERVAL_IN_MS);
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+        return false;
+      }
+    }
+    LOGGER.info(
+        "{} is being read by queries, retry migrating it later", candidate.resource.getTsFile());
+    return false;
+  }
+
+  private void unlockForSwitching(MigrationCandidate candidate) {
+    candidate.resource.writeUnlock();
+    candidate.dataRegion.writeUnlock();
+  }
+
+  /**
+   * @return the copy finished by a previous attempt to migrate the file, or null if there is none
+   *     or it is not complete
+   */
+  private File takeFinishedCopy(TsFileResource resource) throws IOException {
+    File copy = finishedCopies.remove(resource);
+    if (copy == null) {
+      return null;
+    }
+    if (copy.exists() && copy.length() == resource.getTsFile().length()) {
+      return copy;
+    }
+    FS_FACTORY.deleteIfExists(copy);
+    return null;
+  }
+
+  /** The files deleted by compaction or TTL since their switch was given up are not retried. */
+  private void removeCopiesOfDeletedFiles() {
+    finishedCopies
+        .entrySet()
+        .removeIf(
+            entry -> {
+              if (!entry.getKey().isDeleted()) {
+                return false;
+              }
+              try {
+                FS_FACTORY.deleteIfExists(entry.getValue());
+              } catch (IOException e) {
+                LOGGER.warn("Failed to delete the migrated copy {}", entry.getValue(), e);
+              }
+              return true;
+            });
+  }
+
+  @TestOnly
+  void setMaxLockAttempts(int maxLockAttempts) {
+    this.maxLockAttempts = maxLockAttempts;
+  }
+
+  /** Deletions are also written to the compaction mods file, as the file is COMPACTING. */
+  private void removeCompactionModFile(TsFileResource resource) throws IOException {
+    ModificationFile compactionModFile = resource.getCompactionModFile();
+    if (compactionModFile.exists()) {
+      compactionModFile.remove();
+    }
+    resource.resetCompactionModFile();
+  }
+
+  private void copyWithRateLimit(File source, File target) throws IOException {
+    try (InputStream inputStream = FS_FACTORY.getBufferedInputStream(source.getPath());
+        OutputStream outputStream = FS_FACTORY.getBufferedOutputStream(target.getPath())) {
+      byte[] buffer = new byte[COPY_BUFFER_SIZE];
+      int readBytes;
+      while ((readBytes = inputStream.read(buffer)) > 0) {
+        migrationRateLimiter.acquire(readBytes);
+        outputStream.write(buffer, 0, readBytes);
+      }
+    } catch (IOException e) {
+      FS_FACTORY.deleteIfExists(target);
+      throw e;
+    }
+  }
+
+  private void acquireWithRateLimit(long bytes) {
+    while (bytes > 0) {
+      int permits = (int) Math.min(bytes, COPY_BUFFER_SIZE);
+      migrationRateLimiter.acquire(permits);
+      bytes -= permits;
+    }
+  }
+
+  private void setMigrationRate(final double throughputMbPerSec) {
+    double throughput = throughputMbPerSec * 1024.0 * 1024.0;
+    // if throughput <= 0, disable rate limiting
+    if (throughput <= 0) {
+      throughput = Double.MAX_VALUE;
+    }
+    if (migrationRateLimiter.getRate() != throughput) {
+      migrationRateLimiter.setRate(throughput);
+    }
+  }
+
+  private static class MigrationCandidate {
+
+    private final DataRegion dataRegion;
+    private final TsFileResource resource;
+    private final boolean sequence;
+
+    private MigrationCandidate(DataRegion dataRegion, TsFileResource resource, boolean sequence) {
+      this.dataRegion = dataRegion;
+      this.resource = resource;
+      this.sequence = sequence;
+    }
+  }
+
+  private static class TierMigrationManagerHolder {
+    private static final TierMigrationManager INSTANCE = new TierMigrationManager();
+  }
+}
@@ -19,6 +19,7 @@
 
 package org.apache.iotdb.db.storageengine.dataregion.modification;
 
+import org.apache.iotdb.db.storageengine.buffer.ModificationCache;
 import org.apache.iotdb.db.storageengine.dataregion.modification.io.LocalTextModificationAccessor;
 import org.apache.iotdb.db.storageengine.dataregion.modification.io.ModificationReader;
 import org.apache.iotdb.db.storageengine.dataregion.modification.io.ModificationWriter;
@@ -133,6 +134,7 @@ public class ModificationFile implements AutoCloseable {
 
   public void remove() throws IOException {
     close();
+    ModificationCache.getInstance().invalidate(filePath);
     boolean deleted = FSFactoryProducer.getFSFactory().getFile(filePath).delete();
     if (!deleted) {
       logger.warn("Delete ModificationFile {} failed.", filePath);
@@ -20,14 +20,19 @@
 package org.apache.iotdb.db.storageengine.dataregion.read.control;
 
 import org.apache.iotdb.commons.utils.TestOnly;
+import org.apache.iotdb.db.storageengine.buffer.ObjectStorageCache;
 import org.apache.iotdb.db.storageengine.dataregion.tsfile.TsFileResource;
+import org.apache.iotdb.db.storageengine.rescon.disk.TierManager;
 import org.apache.iotdb.tsfile.common.conf.TSFileConfig;
+import org.apache.iotdb.tsfile.fileSystem.FSFactoryProducer;
 import org.apache.iotdb.tsfile.read.TsFileSequenceReader;
 import org.apache.iotdb.tsfile.read.UnClosedTsFileReader;
+import org.apache.iotdb.tsfile.read.reader.TsFileInput;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.io.File;
 import java.io.IOException;
 import java.util.Iterator;
 import java.util.Map;
@@ -127,8 +132,11 @@ public class FileReaderManager {
       if (!isClosed) {
         tsFileReader = new UnClosedTsFileReader(filePath);
       } else {
-        tsFileReader = new TsFileSequenceReader(filePath);
-        if (tsFileReader.readVersionNumber() != TSFileConfig.VERSION_NUMBER) {
+        // a closed file will not be modified any more, so it may be read through a memory mapping,
+        // which is unmapped when the reader is closed, i.e. once no query references the file or
+        // the file is removed
+        tsFileReader = new TsFileSequenceReader(getSealedTsFileInput(filePath));
+        if (!TSFileConfig.isSupportedVersionNumber(tsFileReader.readVersionNumber())) {
           tsFileReader.close();
           throw new IOException("The version of this TsFile is not correct.");
         }
@@ -140,6 +148,21 @@ public class FileReaderManager {
     return readerMap.get(filePath);
   }
 
+  private TsFileInput getSealedTsFileInput(String filePath) throws IOException {
+    File file = FSFactoryProducer.getFSFactory().getFile(filePath);
+    TierManager tierManager = TierManager.getInstance();
+    if (!file.exists() && tierManager.isObjectStorageTier(tierManager.getTiersNum() - 1)) {
+      // the file has been migrated to the object storage tier, whose .resource and .mods files are
+      // kept locally, so read it from the object storage through the local cache
+      String remoteFilePath = tierManager.getRemoteTsFile(file).getPath();
+      return ObjectStorageCache.getInstance()
+          .wrap(
+              remoteFilePath,
+              FSFactoryProducer.getFileInputFactory().getTsFileInput(remoteFilePath));
+    }
+    return FSFactoryProducer.getFileInputFactory().getSealedTsFileInput(filePath);
+  }
+
   /**
    * Increase the reference count of the reader specified by filePath. Only when the reference count
    * of a reader equals zero, the reader can be closed and removed.
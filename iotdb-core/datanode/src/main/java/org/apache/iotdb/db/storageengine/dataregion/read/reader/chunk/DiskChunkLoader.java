@@ -21,6 +21,7 @@ package org.apache.iotdb.db.storageengine.dataregion.read.reader.chunk;
 
 import org.apache.iotdb.db.queryengine.metric.SeriesScanCostMetricSet;
 import org.apache.iotdb.db.storageengine.buffer.ChunkCache;
+import org.apache.iotdb.db.storageengine.buffer.SharedScanPageCache;
 import org.apache.iotdb.db.storageengine.dataregion.tsfile.TsFileResource;
 import org.apache.iotdb.tsfile.file.metadata.ChunkMetadata;
 import org.apache.iotdb.tsfile.file.metadata.IChunkMetadata;
@@ -74,20 +75,26 @@ public class DiskChunkLoader implements IChunkLoader {
       throws IOException {
     long t1 = System.nanoTime();
     try {
+      ChunkCache.ChunkCacheKey chunkCacheKey =
+          new ChunkCache.ChunkCacheKey(
+              resource.getTsFilePath(),
+              resource.getTsFileID(),
+              chunkMetaData.getOffsetOfChunkHeader(),
+              resource.isClosed());
       Chunk chunk =
           ChunkCache.getInstance()
               .get(
-                  new ChunkCache.ChunkCacheKey(
-                      resource.getTsFilePath(),
-                      resource.getTsFileID(),
-                      chunkMetaData.getOffsetOfChunkHeader(),
-                      resource.isClosed()),
+                  chunkCacheKey,
                   chunkMetaData.getDeleteIntervalList(),
                   chunkMetaData.getStatistics(),
                   debug);
 
       long t2 = System.nanoTime();
-      IChunkReader chunkReader = new ChunkReader(chunk, timeFilter);
+      ChunkReader chunkReader = new ChunkReader(chunk, timeFilter);
+      if (resource.isClosed() && SharedScanPageCache.getInstance().isEnabled()) {
+        chunkReader.setDecodedPageProvider(
+            SharedScanPageCache.getInstance().getDecodedPageProvider(chunkCacheKey));
+      }
       SERIES_SCAN_COST_METRIC_SET.recordSeriesScanCost(
           INIT_CHUNK_READER_NONALIGNED_DISK, System.nanoTime() - t2);
 
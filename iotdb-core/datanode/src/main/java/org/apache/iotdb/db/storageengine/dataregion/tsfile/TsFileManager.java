@@ -90,6 +90,41 @@ public class TsFileManager {
     }
   }
 
+  /**
+   * Get the TsFiles whose file level time may overlap [startTime, endTime], using the time
+   * partitions and the interval index of each partition. Unsealed TsFiles of the selected time
+   * partitions are always returned. The result keeps the order of {@link #getTsFileList(boolean)}.
+   */
+  public List<TsFileResource> getTsFileListForQuery(
+      boolean sequence, long startTime, long endTime) {
+    readLock();
+    try {
+      List<TsFileResource> allResources = new ArrayList<>();
+      TreeMap<Long, TsFileResourceList> chosenMap = sequence ? sequenceFiles : unsequenceFiles;
+      if (chosenMap.isEmpty() || startTime > endTime) {
+        return allResources;
+      }
+      long startPartition =
+          startTime == Long.MIN_VALUE
+              ? chosenMap.firstKey()
+              : TimePartitionUtils.getTimePartitionId(startTime);
+      long endPartition =
+          endTime == Long.MAX_VALUE
+              ? chosenMap.lastKey()
+              : TimePartitionUtils.getTimePartitionId(endTime);
+      if (startPartition > endPartition) {
+        return allResources;
+      }
+      for (TsFileResourceList tsFileResourceList :
+          chosenMap.subMap(startPartition, true, endPartition, true).values()) {
+        allResources.addAll(tsFileResourceList.getIntervalIndex().query(startTime, endTime));
+      }
+      return allResources;
+    } finally {
+      readUnlock();
+    }
+  }
+
   public TsFileResourceList getOrCreateSequenceListByTimePartition(long timePartition) {
     writeLock("getOrCreateSequenceListByTimePartition");
     try {
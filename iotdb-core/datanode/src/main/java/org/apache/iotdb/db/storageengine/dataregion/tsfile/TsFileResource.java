@@ -28,6 +28,7 @@ import org.apache.iotdb.db.conf.IoTDBConfig;
 import org.apache.iotdb.db.conf.IoTDBDescriptor;
 import org.apache.iotdb.db.exception.PartitionViolationException;
 import org.apache.iotdb.db.schemaengine.schemaregion.utils.ResourceByPathUtils;
+import org.apache.iotdb.db.storageengine.buffer.ObjectStorageCache;
 import org.apache.iotdb.db.storageengine.dataregion.DataRegion;
 import org.apache.iotdb.db.storageengine.dataregion.memtable.ReadOnlyMemChunk;
 import org.apache.iotdb.db.storageengine.dataregion.memtable.TsFileProcessor;
@@ -336,6 +337,15 @@ public class TsFileResource {
     }
   }
 
+  public void resetCompactionModFile() throws IOException {
+    if (compactionModFile != null) {
+      synchronized (this) {
+        compactionModFile.close();
+        compactionModFile = null;
+      }
+    }
+  }
+
   public void setFile(File file) {
     this.file = file;
     this.tsFileID = new TsFileID(file.getAbsolutePath());
@@ -523,8 +533,16 @@ public class TsFileResource {
    * file physically.
    */
   public boolean remove() {
+    boolean onRemote =
+        onRemote() && TierManager.getInstance().isObjectStorageTier(getTierLevel());
     forceMarkDeleted();
     try {
+      if (onRemote) {
+        // only the TsFile is uploaded to the object storage tier
+        File remoteFile = TierManager.getInstance().getRemoteTsFile(file);
+        ObjectStorageCache.getInstance().invalidate(remoteFile.getPath());
+        fsFactory.deleteIfExists(remoteFile);
+      }
       fsFactory.deleteIfExists(file);
       fsFactory.deleteIfExists(
           new File(file.getAbsolutePath() + TsFileIOWriter.CHUNK_METADATA_TEMP_FILE_SUFFIX));
@@ -0,0 +1,145 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.iotdb.db.storageengine.dataregion.tsfile;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * An immutable interval tree over the [fileStartTime, fileEndTime] of the TsFiles in one {@link
+ * TsFileResourceList}, used to pick the files of a query in O(log n + k) instead of checking every
+ * file.
+ *
+ * <p>The sealed files are sorted by start time and form an implicit balanced binary search tree,
+ * in which the node of a subtree [l, r) is at (l + r) / 2 and records the max end time of the
+ * subtree. The end time of an unsealed file still grows, so unsealed files are always returned as
+ * candidates. The returned files keep the order of the list and callers still need to check them
+ * with {@link TsFileResource#isSatisfied}, because the index only prunes by file level time.
+ *
+ * <p>The index is a snapshot of the list, and it is dropped by the list on every modification.
+ */
+public class TsFileResourceIntervalIndex {
+
+  private final TsFileResource[] resources;
+
+  // positions in the list of the sealed files, sorted by start time
+  private final int[] sortedPositions;
+  private final long[] startTimes;
+  private final long[] endTimes;
+  // max end time of the subtree whose root is the index
+  private final long[] maxEndTimes;
+
+  // positions in the list of the unsealed files, in ascending order
+  private final int[] unsealedPositions;
+
+  public TsFileResourceIntervalIndex(List<TsFileResource> tsFileResources) {
+    int size = tsFileResources.size();
+    this.resources = tsFileResources.toArray(new TsFileResource[0]);
+
+    List<Integer> sealed = new ArrayList<>(size);
+    int[] unsealed = new int[size];
+    int unsealedCount = 0;
+    for (int i = 0; i < size; i++) {
+      TsFileResource resource = resources[i];
+      // a file whose start time is greater than its end time is kept as a candidate, so that
+      // isSatisfied can report it
+      if (resource.isClosed() && resource.getFileStartTime() <= resource.getFileEndTime()) {
+        sealed.add(i);
+      } else {
+        unsealed[unsealedCount++] = i;
+      }
+    }
+    this.unsealedPositions = Arrays.copyOf(unsealed, unsealedCount);
+
+    sealed.sort(Comparator.comparingLong(i -> resources[i].getFileStartTime()));
+    int sealedCount = sealed.size();
+    this.sortedPositions = new int[sealedCount];
+    this.startTimes = new long[sealedCount];
+    this.endTimes = new long[sealedCount];
+    for (int i = 0; i < sealedCount; i++) {
+      int position = sealed.get(i);
+      sortedPositions[i] = position;
+      startTimes[i] = resources[position].getFileStartTime();
+      endTimes[i] = resources[position].getFileEndTime();
+    }
+    this.maxEndTimes = new long[sealedCount];
+    buildMaxEndTimes(0, sealedCount);
+  }
+
+  private long buildMaxEndTimes(int left, int right) {
+    if (left >= right) {
+      return Long.MIN_VALUE;
+    }
+    int mid = (left + right) >>> 1;
+    long maxEndTime =
+        Math.max(
+            endTimes[mid],
+            Math.max(buildMaxEndTimes(left, mid), buildMaxEndTimes(mid + 1, right)));
+    maxEndTimes[mid] = maxEndTime;
+    return maxEndTime;
+  }
+
+  /**
+   * @return the sealed files overlapping [startTime, endTime] and all the unsealed files, in the
+   *     order of the list
+   */
+  public List<TsFileResource> query(long startTime, long endTime) {
+    List<Integer> positions = new ArrayList<>();
+    if (startTime <= endTime) {
+      search(0, startTimes.length, startTime, endTime, positions);
+    }
+    for (int position : unsealedPositions) {
+      positions.add(position);
+    }
+    positions.sort(null);
+
+    List<TsFileResource> result = new ArrayList<>(positions.size());
+    for (int position : positions) {
+      result.add(resources[position]);
+    }
+    return result;
+  }
+
+  private void search(
+      int left, int right, long startTime, long endTime, List<Integer> positions) {
+    while (left < right) {
+      int mid = (left + right) >>> 1;
+      if (maxEndTimes[mid] < startTime) {
+        // no file of this subtree ends after startTime
+        return;
+      }
+      search(left, mid, startTime, endTime, positions);
+      if (startTimes[mid] > endTime) {
+        // neither mid nor the right subtree starts before endTime
+        return;
+      }
+      if (endTimes[mid] >= startTime) {
+        positions.add(sortedPositions[mid]);
+      }
+      left = mid + 1;
+    }
+  }
+
+  public int size() {
+    return resources.length;
+  }
+}
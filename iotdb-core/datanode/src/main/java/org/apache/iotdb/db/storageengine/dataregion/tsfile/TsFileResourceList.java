@@ -39,6 +39,9 @@ public class TsFileResourceList implements List<TsFileResource> {
   private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
   private int count = 0;
 
+  // rebuilt lazily by queries, and dropped on every modification of this list
+  private volatile TsFileResourceIntervalIndex intervalIndex;
+
   /**
    * Insert a new node before an existing node
    *
@@ -58,6 +61,7 @@ public class TsFileResourceList implements List<TsFileResource> {
     }
     node.prev = newNode;
     count++;
+    intervalIndex = null;
   }
 
   /**
@@ -76,6 +80,7 @@ public class TsFileResourceList implements List<TsFileResource> {
     }
     node.next = newNode;
     count++;
+    intervalIndex = null;
   }
 
   @Override
@@ -125,6 +130,7 @@ public class TsFileResourceList implements List<TsFileResource> {
       header = newNode;
       tail = newNode;
       count++;
+      intervalIndex = null;
     } else {
       insertAfter(tail, newNode);
     }
@@ -146,6 +152,7 @@ public class TsFileResourceList implements List<TsFileResource> {
       header = newNode;
       tail = newNode;
       count++;
+      intervalIndex = null;
     } else {
       TsFileNameGenerator.TsFileName newTsFileName =
           TsFileNameGenerator.getTsFileName(newNode.getTsFile().getName());
@@ -220,6 +227,7 @@ public class TsFileResourceList implements List<TsFileResource> {
     tsFileResource.prev = null;
     tsFileResource.next = null;
     count--;
+    intervalIndex = null;
     return true;
   }
 
@@ -245,6 +253,7 @@ public class TsFileResourceList implements List<TsFileResource> {
     header = null;
     tail = null;
     count = 0;
+    intervalIndex = null;
   }
 
   @Override
@@ -362,6 +371,24 @@ public class TsFileResourceList implements List<TsFileResource> {
     return list;
   }
 
+  /**
+   * Get the interval index over the file time of this list, build it if the list has been modified
+   * since the last call. The caller should hold the read lock of the {@link TsFileManager}.
+   */
+  public TsFileResourceIntervalIndex getIntervalIndex() {
+    TsFileResourceIntervalIndex index = intervalIndex;
+    if (index == null) {
+      synchronized (this) {
+        index = intervalIndex;
+        if (index == null) {
+          index = new TsFileResourceIntervalIndex(getArrayList());
+          intervalIndex = index;
+        }
+      }
+    }
+    return index;
+  }
+
   private class TsFileIterator implements Iterator<TsFileResource> {
     List<TsFileResource> tsFileResourceList;
     int currentIndex = 0;
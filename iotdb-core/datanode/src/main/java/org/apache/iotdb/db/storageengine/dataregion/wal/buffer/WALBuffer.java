@@ -46,10 +46,9 @@ import java.nio.ByteBuffer;
 import java.nio.MappedByteBuffer;
 import java.util.ArrayList;
 import java.util.List;
-import java.util.concurrent.ArrayBlockingQueue;
-import java.util.concurrent.BlockingQueue;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.concurrent.locks.Condition;
 import java.util.concurrent.locks.Lock;
 import java.util.concurrent.locks.ReentrantLock;
@@ -58,7 +57,9 @@ import static org.apache.iotdb.db.storageengine.dataregion.wal.node.WALNode.DEFA
 
 /**
  * This buffer guarantees the concurrent safety and uses double buffers mechanism to accelerate
- * writes and avoid waiting for buffer syncing to disk.
+ * writes and avoid waiting for buffer syncing to disk. WALEntries are received through a lock-free
+ * ring buffer, and in the sync mode they are fsynced by adaptive group commit: a batch is fsynced
+ * as soon as the disk is idle or the batch is large enough.
  */
 public class WALBuffer extends AbstractWALBuffer {
   private static final Logger logger = LoggerFactory.getLogger(WALBuffer.class);
@@ -66,6 +67,10 @@ public class WALBuffer extends AbstractWALBuffer {
   private static final int HALF_WAL_BUFFER_SIZE = config.getWalBufferSize() / 2;
   private static final double FSYNC_BUFFER_RATIO = 0.95;
   private static final int QUEUE_CAPACITY = config.getWalBufferQueueCapacity();
+  private static final int GROUP_COMMIT_ENTRY_NUM = config.getWalGroupCommitEntryNum();
+  private static final int GROUP_COMMIT_SIZE =
+      (int)
+          Math.min(config.getWalGroupCommitSizeInByte(), HALF_WAL_BUFFER_SIZE * FSYNC_BUFFER_RATIO);
   private static final WritingMetrics WRITING_METRICS = WritingMetrics.getInstance();
 
   // whether close method is called
@@ -73,7 +78,9 @@ public class WALBuffer extends AbstractWALBuffer {
   // manage checkpoints
   private final CheckpointManager checkpointManager;
   // WALEntries
-  private final BlockingQueue<WALEntry> walEntries = new ArrayBlockingQueue<>(QUEUE_CAPACITY);
+  private final WALEntryRingBuffer walEntries = new WALEntryRingBuffer(QUEUE_CAPACITY);
+  // number of fsync tasks submitted to syncBufferThread but not finished, 0 means the disk is idle
+  private final AtomicInteger pendingFsyncTaskNum = new AtomicInteger(0);
   // lock to provide synchronization for double buffers mechanism, protecting buffers status
   private final Lock buffersLock = new ReentrantLock();
   // condition to guarantee correctness of switching buffers
@@ -171,12 +178,7 @@ public class WALBuffer extends AbstractWALBuffer {
       return;
     }
     // just add this WALEntry to queue
-    try {
-      walEntries.put(walEntry);
-    } catch (InterruptedException e) {
-      logger.warn("Interrupted when waiting for adding WALEntry to buffer.");
-      Thread.currentThread().interrupt();
-    }
+    walEntries.put(walEntry);
   }
 
   // region Task of serializeThread
@@ -223,16 +225,16 @@ public class WALBuffer extends AbstractWALBuffer {
       }
 
       // try to get more WALEntries with blocking interface to enlarge write batch
-      while (totalSize < HALF_WAL_BUFFER_SIZE * FSYNC_BUFFER_RATIO) {
+      boolean asyncMode = config.getWalMode().equals(WALMode.ASYNC);
+      while (asyncMode ? totalSize < HALF_WAL_BUFFER_SIZE * FSYNC_BUFFER_RATIO : !isBatchFull()) {
         WALEntry walEntry = null;
         try {
-          // for better fsync performance, wait a while to enlarge write batch
-          if (config.getWalMode().equals(WALMode.ASYNC)) {
+          if (asyncMode) {
+            // for better fsync performance, wait a while to enlarge write batch
             walEntry =
                 walEntries.poll(config.getWalAsyncModeFsyncDelayInMs(), TimeUnit.MILLISECONDS);
           } else {
-            walEntry =
-                walEntries.poll(config.getWalSyncModeFsyncDelayInMs(), TimeUnit.MILLISECONDS);
+            walEntry = pollForGroupCommit(start);
           }
         } catch (InterruptedException e) {
           logger.warn(
@@ -253,10 +255,35 @@ public class WALBuffer extends AbstractWALBuffer {
 
       // call fsync at last and set fsyncListeners
       if (totalSize > 0 || !info.checkpoints.isEmpty()) {
+        WRITING_METRICS.recordWALGroupCommitSize(totalSize);
         fsyncWorkingBuffer(currentSearchIndex, currentFileStatus, info);
       }
     }
 
+    private boolean isBatchFull() {
+      return totalSize >= GROUP_COMMIT_SIZE || info.fsyncListeners.size() >= GROUP_COMMIT_ENTRY_NUM;
+    }
+
+    /**
+     * Take the WALEntries which are already available. Only wait for more WALEntries while the
+     * previous fsync is still in progress, and at most walSyncModeFsyncDelayInMs since the batch
+     * starts, so a batch is fsynced immediately once the disk becomes idle.
+     *
+     * @return null if the batch should be fsynced now
+     */
+    private WALEntry pollForGroupCommit(long batchStartTime) throws InterruptedException {
+      WALEntry walEntry = walEntries.poll();
+      if (walEntry != null || pendingFsyncTaskNum.get() == 0) {
+        return walEntry;
+      }
+      long waitTime =
+          batchStartTime
+              + TimeUnit.MILLISECONDS.toNanos(config.getWalSyncModeFsyncDelayInMs())
+              - System.nanoTime();
+      // the wait is interrupted when the previous fsync finishes
+      return waitTime > 0 ? walEntries.poll(waitTime, TimeUnit.NANOSECONDS) : null;
+    }
+
     /**
      * Handle wal info and signal entry.
      *
@@ -438,6 +465,7 @@ public class WALBuffer extends AbstractWALBuffer {
   /** Notice: this method only called at the last of SerializeTask. */
   private void fsyncWorkingBuffer(long searchIndex, WALFileStatus fileStatus, SerializeInfo info) {
     switchWorkingBufferToFlushing();
+    pendingFsyncTaskNum.incrementAndGet();
     syncBufferThread.submit(new SyncBufferTask(searchIndex, fileStatus, true, info));
     currentFileStatus = WALFileStatus.CONTAINS_NONE_SEARCH_INDEX;
   }
@@ -486,6 +514,17 @@ public class WALBuffer extends AbstractWALBuffer {
 
     @Override
     public void run() {
+      try {
+        sync();
+      } finally {
+        if (forceFlag && pendingFsyncTaskNum.decrementAndGet() == 0) {
+          // the disk becomes idle, so the next batch can be fsynced now
+          walEntries.wakeUp();
+        }
+      }
+    }
+
+    private void sync() {
       final long startTime = System.nanoTime();
 
       makeMemTableCheckpoints();
@@ -532,7 +571,9 @@ public class WALBuffer extends AbstractWALBuffer {
       } else if (forceFlag) { // force os cache to the storage device, avoid force twice by judging
         // after rolling file
         try {
+          long fsyncStartTime = System.nanoTime();
           currentWALFileWriter.force();
+          WRITING_METRICS.recordWALFsyncLatency(System.nanoTime() - fsyncStartTime);
           forceSuccess = true;
         } catch (IOException e) {
           logger.error(
@@ -626,12 +667,7 @@ public class WALBuffer extends AbstractWALBuffer {
     // first waiting serialize and sync tasks finished, then release all resources
     if (serializeThread != null) {
       // add close signal WALEntry to notify serializeThread
-      try {
-        walEntries.put(new WALSignalEntry(WALEntryType.CLOSE_SIGNAL));
-      } catch (InterruptedException e) {
-        logger.error("Fail to put CLOSE_SIGNAL to walEntries.", e);
-        Thread.currentThread().interrupt();
-      }
+      walEntries.put(new WALSignalEntry(WALEntryType.CLOSE_SIGNAL));
       isClosed = true;
       shutdownThread(serializeThread, ThreadName.WAL_SERIALIZE);
     }
@@ -0,0 +1,155 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.iotdb.db.storageengine.dataregion.wal.buffer;
+
+import com.lmax.disruptor.AlertException;
+import com.lmax.disruptor.LiteTimeoutBlockingWaitStrategy;
+import com.lmax.disruptor.RingBuffer;
+import com.lmax.disruptor.Sequence;
+import com.lmax.disruptor.SequenceBarrier;
+import com.lmax.disruptor.TimeoutException;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Multi-producer single-consumer queue of {@link WALEntry}, based on the lock-free ring buffer of
+ * disruptor. Producers claim slots by CAS and only block when the ring buffer is full. The
+ * consumer, which is the serialize thread of {@link WALBuffer}, can be woken up by {@link
+ * #wakeUp()} while waiting for entries.
+ */
+public class WALEntryRingBuffer {
+  /** max duration of one blocking wait of the consumer */
+  private static final long WAIT_SLICE_IN_MS = 10;
+
+  private final RingBuffer<WALEntryHolder> ringBuffer;
+  private final SequenceBarrier barrier;
+  /** sequence of the last consumed entry, gating the producers */
+  private final Sequence consumedSequence = new Sequence(RingBuffer.INITIAL_CURSOR_VALUE);
+  /** highest sequence known to be published, only accessed by the consumer */
+  private long availableSequence = RingBuffer.INITIAL_CURSOR_VALUE;
+
+  public WALEntryRingBuffer(int capacity) {
+    ringBuffer =
+        RingBuffer.createMultiProducer(
+            WALEntryHolder::new,
+            ceilingPowerOfTwo(capacity),
+            new LiteTimeoutBlockingWaitStrategy(WAIT_SLICE_IN_MS, TimeUnit.MILLISECONDS));
+    ringBuffer.addGatingSequences(consumedSequence);
+    barrier = ringBuffer.newBarrier();
+  }
+
+  private static int ceilingPowerOfTwo(int capacity) {
+    return capacity <= 1 ? 1 : Integer.highestOneBit(capacity - 1) << 1;
+  }
+
+  /** Put an entry, waiting if the ring buffer is full. */
+  public void put(WALEntry walEntry) {
+    ringBuffer.publishEvent((holder, sequence, entry) -> holder.walEntry = entry, walEntry);
+  }
+
+  /**
+   * Retrieve and remove the next entry if it is available. Only called by the consumer.
+   *
+   * @return the next entry, or null if no entry is available
+   */
+  public WALEntry poll() {
+    long next = consumedSequence.get() + 1;
+    if (next > availableSequence) {
+      if (!ringBuffer.isPublished(next)) {
+        return null;
+      }
+      availableSequence = next;
+    }
+    WALEntryHolder holder = ringBuffer.get(next);
+    WALEntry walEntry = holder.walEntry;
+    holder.walEntry = null;
+    consumedSequence.set(next);
+    return walEntry;
+  }
+
+  /**
+   * Retrieve and remove the next entry, waiting up to the timeout if no entry is available. Only
+   * called by the consumer.
+   *
+   * @return the next entry, or null if the timeout elapses or the consumer is woken up
+   */
+  public WALEntry poll(long timeout, TimeUnit unit) throws InterruptedException {
+    long deadline = System.nanoTime() + unit.toNanos(timeout);
+    while (true) {
+      WALEntry walEntry = poll();
+      if (walEntry != null || System.nanoTime() >= deadline) {
+        return walEntry;
+      }
+      if (!await()) {
+        return poll();
+      }
+    }
+  }
+
+  /**
+   * Retrieve and remove the next entry, waiting if no entry is available. Only called by the
+   * consumer.
+   */
+  public WALEntry take() throws InterruptedException {
+    while (true) {
+      WALEntry walEntry = poll();
+      if (walEntry != null) {
+        return walEntry;
+      }
+      await();
+    }
+  }
+
+  /**
+   * Wait at most one slice for the next entry.
+   *
+   * @return false if the consumer is woken up by {@link #wakeUp()}
+   */
+  private boolean await() throws InterruptedException {
+    try {
+      long sequence = barrier.waitFor(consumedSequence.get() + 1);
+      availableSequence = Math.max(availableSequence, sequence);
+      return true;
+    } catch (TimeoutException e) {
+      return true;
+    } catch (AlertException e) {
+      barrier.clearAlert();
+      return false;
+    }
+  }
+
+  /** Wake up the consumer if it is waiting for entries. */
+  public void wakeUp() {
+    barrier.alert();
+  }
+
+  /** Number of entries which are claimed by producers but not consumed yet. */
+  public int size() {
+    return (int) (ringBuffer.getCursor() - consumedSequence.get());
+  }
+
+  public boolean isEmpty() {
+    return size() == 0;
+  }
+
+  private static class WALEntryHolder {
+    private WALEntry walEntry;
+  }
+}
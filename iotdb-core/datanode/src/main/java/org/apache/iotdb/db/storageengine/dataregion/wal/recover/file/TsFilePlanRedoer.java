@@ -94,7 +94,7 @@ public class TsFilePlanRedoer {
       }
     }
 
-    node.setDeviceID(DeviceIDFactory.getInstance().getDeviceID(deviceId));
+    node.setDeviceID(DeviceIDFactory.getInstance().getDeviceIDForInsert(deviceId));
 
     if (node instanceof InsertRowNode) {
       if (node.isAligned()) {
@@ -69,6 +69,8 @@ public class TierManager {
   private final Map<String, Integer> unSeqDir2TierLevel = new HashMap<>();
   /** total space of each tier, Long.MAX_VALUE when one tier contains remote storage */
   private long[] tierDiskTotalSpace;
+  /** whether the last tier is on object storage */
+  private boolean lastTierOnObjectStorage = false;
 
   private TierManager() {
     initFolders();
@@ -150,6 +152,9 @@ public class TierManager {
     }
 
     tierDiskTotalSpace = getTierDiskSpace(DiskSpaceType.TOTAL);
+    lastTierOnObjectStorage =
+        Arrays.stream(tierDirs[tierDirs.length - 1])
+            .anyMatch(dir -> FSUtils.getFSType(dir) == FSType.OBJECT_STORAGE);
   }
 
   public synchronized void resetFolders() {
@@ -244,6 +249,23 @@ public class TierManager {
     return 0;
   }
 
+  /**
+   * Whether the given tier is on object storage. Only the TsFiles of such a tier are uploaded,
+   * their .resource and .mods files are kept on the local disk.
+   */
+  public boolean isObjectStorageTier(int tierLevel) {
+    return lastTierOnObjectStorage && tierLevel == getTiersNum() - 1;
+  }
+
+  /** Get the file on object storage of a TsFile which is uploaded from the given local path. */
+  public File getRemoteTsFile(File localTsFile) throws IOException {
+    return FSFactoryProducer.getFSFactory()
+        .getFile(
+            FSUtils.parseLocalTsFile2OSFile(
+                    localTsFile, config.getObjectStorageBucket(), config.getDataNodeId())
+                .getPath());
+  }
+
   public long[] getTierDiskTotalSpace() {
     return Arrays.copyOf(tierDiskTotalSpace, tierDiskTotalSpace.length);
   }
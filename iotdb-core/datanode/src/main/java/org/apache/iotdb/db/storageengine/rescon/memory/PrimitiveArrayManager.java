@@ -20,6 +20,7 @@ package org.apache.iotdb.db.storageengine.rescon.memory;
 
 import org.apache.iotdb.db.conf.IoTDBConfig;
 import org.apache.iotdb.db.conf.IoTDBDescriptor;
+import org.apache.iotdb.db.utils.datastructure.OffHeapArrays;
 import org.apache.iotdb.db.utils.datastructure.TVListSortAlgorithm;
 import org.apache.iotdb.tsfile.exception.write.UnSupportedDataTypeException;
 import org.apache.iotdb.tsfile.file.metadata.enums.TSDataType;
@@ -28,8 +29,15 @@ import org.apache.iotdb.tsfile.utils.Binary;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.lang.ref.PhantomReference;
+import java.lang.ref.Reference;
+import java.lang.ref.ReferenceQueue;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
 import java.util.ArrayDeque;
 import java.util.Arrays;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.atomic.AtomicLong;
 
 /** Manage all primitive data lists in memory, including get and release operations. */
@@ -43,6 +51,8 @@ public class PrimitiveArrayManager {
 
   public static final TVListSortAlgorithm TVLIST_SORT_ALGORITHM = CONFIG.getTvListSortAlgorithm();
 
+  public static final boolean ENABLE_OFF_HEAP_TVLIST = CONFIG.isEnableOffHeapTVList();
+
   /**
    * The actual used memory will be 50% larger than the statistic, so we need to limit the size of
    * POOLED_ARRAYS_MEMORY_THRESHOLD, make it smaller than its actual allowed value.
@@ -77,6 +87,24 @@ public class PrimitiveArrayManager {
 
   private static final AtomicLong TOTAL_ALLOCATION_REQUEST_COUNT = new AtomicLong(0);
 
+  /**
+   * TSDataType#serialize() -> ArrayDeque<ByteBuffer> of direct arrays, only fixed-length data types
+   * are used. They share LIMITS with POOLED_ARRAYS when arrays are brought back, while the arrays
+   * of a newly allocated slab are always pooled.
+   */
+  private static final ArrayDeque[] POOLED_OFF_HEAP_ARRAYS =
+      new ArrayDeque[TSDataType.values().length - 2];
+
+  /** owners of off-heap arrays, whose arrays are released if they are collected without release */
+  private static final Set<OffHeapArraysReference> OFF_HEAP_ARRAYS_REFERENCES =
+      ConcurrentHashMap.newKeySet();
+
+  private static final ReferenceQueue<Object> COLLECTED_OFF_HEAP_ARRAYS_OWNERS =
+      new ReferenceQueue<>();
+
+  /** size of a direct slab, from which off-heap arrays are cut */
+  private static final int OFF_HEAP_SLAB_SIZE = 1024 * 1024;
+
   static {
     init();
   }
@@ -106,6 +134,16 @@ public class PrimitiveArrayManager {
       POOLED_ARRAYS[i] = new ArrayDeque<>((int) limit);
     }
 
+    for (int i = 0; i < POOLED_OFF_HEAP_ARRAYS.length; ++i) {
+      if (POOLED_OFF_HEAP_ARRAYS[i] != null) {
+        // pooled direct arrays are freed by gc
+        SystemInfo.getInstance()
+            .releaseOffHeapTVListMemCost(
+                (long) POOLED_OFF_HEAP_ARRAYS[i].size() * getOffHeapArraySize(i));
+      }
+      POOLED_OFF_HEAP_ARRAYS[i] = new ArrayDeque<>();
+    }
+
     for (AtomicLong allocationRequestCount : ALLOCATION_REQUEST_COUNTS) {
       allocationRequestCount.set(0);
     }
@@ -273,6 +311,106 @@ public class PrimitiveArrayManager {
     }
   }
 
+  /**
+   * Get or allocate a direct primitive array of ARRAY_SIZE elements according to type, only for
+   * off-heap TVLists. Arrays are cut from direct slabs of about OFF_HEAP_SLAB_SIZE bytes, so that a
+   * direct buffer, which is costly to allocate and to free, is not allocated per array. Newly
+   * allocated slabs are reported to {@link SystemInfo}.
+   *
+   * @return a direct ByteBuffer in native order
+   */
+  public static ByteBuffer allocateOffHeap(TSDataType dataType) {
+    if (dataType.equals(TSDataType.TEXT)
+        || dataType.equals(TSDataType.VECTOR)
+        || dataType.equals(TSDataType.UNKNOWN)) {
+      throw new UnSupportedDataTypeException(dataType.name());
+    }
+    releaseCollectedOffHeapArrays();
+
+    int order = dataType.serialize();
+    ByteBuffer array;
+    synchronized (POOLED_OFF_HEAP_ARRAYS[order]) {
+      ArrayDeque<Object> arrays = POOLED_OFF_HEAP_ARRAYS[order];
+      if (arrays.isEmpty()) {
+        allocateOffHeapSlab(order, arrays);
+      }
+      array = (ByteBuffer) arrays.poll();
+    }
+    SystemInfo.getInstance().addUsedOffHeapTVListMemCost(array.capacity());
+    return array;
+  }
+
+  /** Allocate a direct slab and put all the arrays cut from it into the pool. */
+  private static void allocateOffHeapSlab(int order, ArrayDeque<Object> arrays) {
+    int arraySize = getOffHeapArraySize(order);
+    int arrayNum = Math.max(1, OFF_HEAP_SLAB_SIZE / arraySize);
+    ByteBuffer slab = ByteBuffer.allocateDirect(arraySize * arrayNum);
+    SystemInfo.getInstance().addOffHeapTVListMemCost(slab.capacity());
+    for (int i = 0; i < arrayNum; i++) {
+      slab.limit((i + 1) * arraySize).position(i * arraySize);
+      // each array is an independent view of the slab, which keeps the slab reachable
+      arrays.add(slab.slice().order(ByteOrder.nativeOrder()));
+    }
+  }
+
+  /**
+   * This method is called when bringing back a direct array allocated by {@link
+   * #allocateOffHeap(TSDataType)}
+   */
+  public static void releaseOffHeap(TSDataType dataType, ByteBuffer array) {
+    int order = dataType.serialize();
+    SystemInfo.getInstance().releaseUsedOffHeapTVListMemCost(array.capacity());
+    synchronized (POOLED_OFF_HEAP_ARRAYS[order]) {
+      ArrayDeque<Object> arrays = POOLED_OFF_HEAP_ARRAYS[order];
+      if (arrays.size() < LIMITS[order]) {
+        arrays.add(array);
+        return;
+      }
+    }
+    // the direct memory of a slab is freed by gc once all its arrays are dropped, it is counted as
+    // freed per array as an approximation
+    SystemInfo.getInstance().releaseOffHeapTVListMemCost(array.capacity());
+  }
+
+  /**
+   * Track the off-heap arrays held by the owner, so that they are brought back to the pool when the
+   * owner is collected by gc without releasing them, e.g., a TVList still referenced by a query
+   * when its memtable is released.
+   */
+  public static void trackOffHeapArrays(Object owner, OffHeapArrays... arrays) {
+    OFF_HEAP_ARRAYS_REFERENCES.add(
+        new OffHeapArraysReference(owner, COLLECTED_OFF_HEAP_ARRAYS_OWNERS, arrays));
+  }
+
+  private static void releaseCollectedOffHeapArrays() {
+    Reference<?> reference;
+    while ((reference = COLLECTED_OFF_HEAP_ARRAYS_OWNERS.poll()) != null) {
+      OffHeapArraysReference offHeapArraysReference = (OffHeapArraysReference) reference;
+      OFF_HEAP_ARRAYS_REFERENCES.remove(offHeapArraysReference);
+      for (OffHeapArrays arrays : offHeapArraysReference.arrays) {
+        arrays.release();
+      }
+    }
+  }
+
+  public static long getPooledArraysMemoryThreshold() {
+    return (long) POOLED_ARRAYS_MEMORY_THRESHOLD;
+  }
+
+  private static int getOffHeapArraySize(int order) {
+    return ARRAY_SIZE * TSDataType.deserialize((byte) order).getDataTypeSize();
+  }
+
+  private static class OffHeapArraysReference extends PhantomReference<Object> {
+    private final OffHeapArrays[] arrays;
+
+    private OffHeapArraysReference(
+        Object owner, ReferenceQueue<Object> queue, OffHeapArrays[] arrays) {
+      super(owner, queue);
+      this.arrays = arrays;
+    }
+  }
+
   public static void close() {
     init();
   }
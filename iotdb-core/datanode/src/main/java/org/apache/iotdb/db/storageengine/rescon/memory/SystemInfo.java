@@ -55,6 +55,12 @@ public class SystemInfo {
   private Map<DataRegionInfo, Long> reportedStorageGroupMemCostMap = new HashMap<>();
 
   private long flushingMemTablesCost = 0L;
+  /** direct memory held by off-heap TVList arrays, including the pooled ones */
+  private final AtomicLong offHeapTVListMemCost = new AtomicLong(0L);
+
+  /** direct memory of the off-heap TVList arrays in use by TVLists */
+  private final AtomicLong usedOffHeapTVListMemCost = new AtomicLong(0L);
+
   private final AtomicLong compactionMemoryCost = new AtomicLong(0L);
   private final AtomicLong seqInnerSpaceCompactionMemoryCost = new AtomicLong(0L);
   private final AtomicLong unseqInnerSpaceCompactionMemoryCost = new AtomicLong(0L);
@@ -97,14 +103,14 @@ public class SystemInfo {
     }
     reportedStorageGroupMemCostMap.put(dataRegionInfo, currentDataRegionMemCost);
     dataRegionInfo.setLastReportedSize(currentDataRegionMemCost);
-    if (totalStorageGroupMemCost < FLUSH_THERSHOLD) {
+    long memCost = getMemCostForControl();
+    if (memCost < FLUSH_THERSHOLD) {
       return true;
-    } else if (totalStorageGroupMemCost >= FLUSH_THERSHOLD
-        && totalStorageGroupMemCost < REJECT_THERSHOLD) {
+    } else if (memCost < REJECT_THERSHOLD) {
       logger.debug(
           "The total database mem costs are too large, call for flushing. "
               + "Current sg cost is {}",
-          totalStorageGroupMemCost);
+          memCost);
       chooseMemTablesToMarkFlush(tsFileProcessor);
       return true;
     } else {
@@ -112,16 +118,16 @@ public class SystemInfo {
           "Change system to reject status. Triggered by: logical SG ({}), mem cost delta ({}), totalSgMemCost ({}), REJECT_THERSHOLD ({})",
           dataRegionInfo.getDataRegion().getDatabaseName(),
           delta,
-          totalStorageGroupMemCost,
+          memCost,
           REJECT_THERSHOLD);
       rejected = true;
       if (chooseMemTablesToMarkFlush(tsFileProcessor)) {
-        if (totalStorageGroupMemCost < memorySizeForMemtable) {
+        if (memCost < memorySizeForMemtable) {
           return true;
         } else {
           throw new WriteProcessRejectException(
               "Total database MemCost "
-                  + totalStorageGroupMemCost
+                  + memCost
                   + " is over than memorySizeForWriting "
                   + memorySizeForMemtable);
         }
@@ -149,28 +155,28 @@ public class SystemInfo {
       reportedStorageGroupMemCostMap.put(dataRegionInfo, currentDataRegionMemCost);
     }
 
-    if (totalStorageGroupMemCost >= FLUSH_THERSHOLD
-        && totalStorageGroupMemCost < REJECT_THERSHOLD) {
+    long memCost = getMemCostForControl();
+    if (memCost >= FLUSH_THERSHOLD && memCost < REJECT_THERSHOLD) {
       logger.debug(
           "SG ({}) released memory (delta: {}) but still exceeding flush proportion (totalSgMemCost: {}), call flush.",
           dataRegionInfo.getDataRegion().getDatabaseName(),
           delta,
-          totalStorageGroupMemCost);
+          memCost);
       if (rejected) {
         logger.info(
             "SG ({}) released memory (delta: {}), set system to normal status (totalSgMemCost: {}).",
             dataRegionInfo.getDataRegion().getDatabaseName(),
             delta,
-            totalStorageGroupMemCost);
+            memCost);
       }
       logCurrentTotalSGMemory();
       rejected = false;
-    } else if (totalStorageGroupMemCost >= REJECT_THERSHOLD) {
+    } else if (memCost >= REJECT_THERSHOLD) {
       logger.warn(
           "SG ({}) released memory (delta: {}), but system is still in reject status (totalSgMemCost: {}).",
           dataRegionInfo.getDataRegion().getDatabaseName(),
           delta,
-          totalStorageGroupMemCost);
+          memCost);
       logCurrentTotalSGMemory();
       rejected = true;
     } else {
@@ -178,7 +184,7 @@ public class SystemInfo {
           "SG ({}) released memory (delta: {}), system is in normal status (totalSgMemCost: {}).",
           dataRegionInfo.getDataRegion().getDatabaseName(),
           delta,
-          totalStorageGroupMemCost);
+          memCost);
       logCurrentTotalSGMemory();
       rejected = false;
     }
@@ -358,7 +364,7 @@ public class SystemInfo {
     }
     boolean isCurrentTsFileProcessorSelected = false;
     long memCost = 0;
-    long activeMemSize = totalStorageGroupMemCost - flushingMemTablesCost;
+    long activeMemSize = getMemCostForControl() - flushingMemTablesCost;
     while (activeMemSize - memCost > FLUSH_THERSHOLD) {
       if (allTsFileProcessors.isEmpty()
           || allTsFileProcessors.peek().getWorkMemTableRamCost() == 0) {
@@ -424,6 +430,43 @@ public class SystemInfo {
     return totalStorageGroupMemCost;
   }
 
+  public void addOffHeapTVListMemCost(long offHeapTVListMemCost) {
+    this.offHeapTVListMemCost.addAndGet(offHeapTVListMemCost);
+  }
+
+  public void releaseOffHeapTVListMemCost(long offHeapTVListMemCost) {
+    this.offHeapTVListMemCost.addAndGet(-offHeapTVListMemCost);
+  }
+
+  public long getOffHeapTVListMemCost() {
+    return offHeapTVListMemCost.get();
+  }
+
+  public void addUsedOffHeapTVListMemCost(long usedOffHeapTVListMemCost) {
+    this.usedOffHeapTVListMemCost.addAndGet(usedOffHeapTVListMemCost);
+  }
+
+  public void releaseUsedOffHeapTVListMemCost(long usedOffHeapTVListMemCost) {
+    this.usedOffHeapTVListMemCost.addAndGet(-usedOffHeapTVListMemCost);
+  }
+
+  /** @return the direct memory of the off-heap TVList arrays which are not in use by TVLists */
+  public long getIdleOffHeapTVListMemCost() {
+    return Math.max(0L, offHeapTVListMemCost.get() - usedOffHeapTVListMemCost.get());
+  }
+
+  /**
+   * Mem cost of memtables used by memory control. The off-heap arrays in use are counted in the mem
+   * cost of memtables and the pooled ones are budgeted by the memory for buffered arrays, like heap
+   * arrays. But idle off-heap arrays may exceed the budget, as the arrays of a new slab are always
+   * pooled, and they are not released by flushing, so the exceeding part is counted here.
+   */
+  private long getMemCostForControl() {
+    long exceedingOffHeapMemCost =
+        getIdleOffHeapTVListMemCost() - PrimitiveArrayManager.getPooledArraysMemoryThreshold();
+    return totalStorageGroupMemCost + Math.max(0L, exceedingOffHeapMemCost);
+  }
+
   public double getFlushThershold() {
     return FLUSH_THERSHOLD;
   }
@@ -460,7 +460,7 @@ public class TsFileSplitByPartitionTool implements AutoCloseable {
     }
 
     byte versionNumber = reader.readVersionNumber();
-    if (versionNumber != TSFileConfig.VERSION_NUMBER) {
+    if (!TSFileConfig.isSupportedVersionNumber(versionNumber)) {
       LOGGER.error("the file's Version Number is incorrect, file path: {}", reader.getFileName());
       return false;
     }
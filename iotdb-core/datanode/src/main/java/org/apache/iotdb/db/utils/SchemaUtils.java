@@ -121,6 +121,7 @@ public class SchemaUtils {
       case SqlConstant.COUNT:
       case SqlConstant.TIME_DURATION:
       case SqlConstant.COUNT_TIME:
+      case SqlConstant.APPROX_COUNT_DISTINCT:
         return TSDataType.INT64;
       case SqlConstant.AVG:
       case SqlConstant.SUM:
@@ -130,6 +131,7 @@ public class SchemaUtils {
       case SqlConstant.VARIANCE:
       case SqlConstant.VAR_POP:
       case SqlConstant.VAR_SAMP:
+      case SqlConstant.APPROX_PERCENTILE:
         return TSDataType.DOUBLE;
       case SqlConstant.LAST_VALUE:
       case SqlConstant.FIRST_VALUE:
@@ -169,6 +171,8 @@ public class SchemaUtils {
       case VARIANCE:
       case VAR_POP:
       case VAR_SAMP:
+      case APPROX_PERCENTILE:
+      case APPROX_COUNT_DISTINCT:
         return true;
       default:
         throw new IllegalArgumentException(
@@ -202,6 +206,10 @@ public class SchemaUtils {
         return Collections.singletonList(TAggregationType.VAR_POP);
       case VAR_SAMP:
         return Collections.singletonList(TAggregationType.VAR_SAMP);
+      case APPROX_PERCENTILE:
+        return Collections.singletonList(TAggregationType.APPROX_PERCENTILE);
+      case APPROX_COUNT_DISTINCT:
+        return Collections.singletonList(TAggregationType.APPROX_COUNT_DISTINCT);
       case AVG:
         return Arrays.asList(TAggregationType.COUNT, TAggregationType.SUM);
       case TIME_DURATION:
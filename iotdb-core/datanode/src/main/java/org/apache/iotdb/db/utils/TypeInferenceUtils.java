@@ -135,6 +135,7 @@ public class TypeInferenceUtils {
       case SqlConstant.COUNT_TIME:
       case SqlConstant.COUNT_IF:
       case SqlConstant.TIME_DURATION:
+      case SqlConstant.APPROX_COUNT_DISTINCT:
         return TSDataType.INT64;
       case SqlConstant.MIN_VALUE:
       case SqlConstant.LAST_VALUE:
@@ -151,6 +152,7 @@ public class TypeInferenceUtils {
       case SqlConstant.VARIANCE:
       case SqlConstant.VAR_POP:
       case SqlConstant.VAR_SAMP:
+      case SqlConstant.APPROX_PERCENTILE:
         return TSDataType.DOUBLE;
       default:
         throw new IllegalArgumentException("Invalid Aggregation function: " + aggrFuncName);
@@ -179,6 +181,12 @@ public class TypeInferenceUtils {
         }
         throw new SemanticException(
             "Aggregate functions [AVG, SUM, EXTREME, MIN_VALUE, MAX_VALUE, STDDEV, STDDEV_POP, STDDEV_SAMP, VARIANCE, VAR_POP, VAR_SAMP] only support numeric data types [INT32, INT64, FLOAT, DOUBLE]");
+      case SqlConstant.APPROX_PERCENTILE:
+        if (dataType.isNumeric()) {
+          return;
+        }
+        throw new SemanticException(
+            "Aggregate function [APPROX_PERCENTILE] only supports numeric data types [INT32, INT64, FLOAT, DOUBLE]");
       case SqlConstant.COUNT:
       case SqlConstant.COUNT_TIME:
       case SqlConstant.MIN_TIME:
@@ -187,6 +195,7 @@ public class TypeInferenceUtils {
       case SqlConstant.LAST_VALUE:
       case SqlConstant.TIME_DURATION:
       case SqlConstant.MODE:
+      case SqlConstant.APPROX_COUNT_DISTINCT:
         return;
       case SqlConstant.COUNT_IF:
         if (dataType != TSDataType.BOOLEAN) {
@@ -231,6 +240,8 @@ public class TypeInferenceUtils {
       case SqlConstant.VARIANCE:
       case SqlConstant.VAR_POP:
       case SqlConstant.VAR_SAMP:
+      case SqlConstant.APPROX_PERCENTILE:
+      case SqlConstant.APPROX_COUNT_DISTINCT:
         return;
       case SqlConstant.COUNT_IF:
         Expression keepExpression = inputExpressions.get(1);
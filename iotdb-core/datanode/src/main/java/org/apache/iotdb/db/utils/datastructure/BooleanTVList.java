@@ -36,6 +36,7 @@ import java.util.ArrayList;
 import java.util.List;
 
 import static org.apache.iotdb.db.storageengine.rescon.memory.PrimitiveArrayManager.ARRAY_SIZE;
+import static org.apache.iotdb.db.storageengine.rescon.memory.PrimitiveArrayManager.ENABLE_OFF_HEAP_TVLIST;
 import static org.apache.iotdb.db.storageengine.rescon.memory.PrimitiveArrayManager.TVLIST_SORT_ALGORITHM;
 
 public abstract class BooleanTVList extends TVList {
@@ -49,6 +50,9 @@ public abstract class BooleanTVList extends TVList {
   }
 
   public static BooleanTVList newList() {
+    if (ENABLE_OFF_HEAP_TVLIST) {
+      return new OffHeapBooleanTVList();
+    }
     switch (TVLIST_SORT_ALGORITHM) {
       case QUICK:
         return new QuickBooleanTVList();
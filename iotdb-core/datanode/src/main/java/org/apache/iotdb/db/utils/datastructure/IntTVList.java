@@ -35,6 +35,7 @@ import java.util.ArrayList;
 import java.util.List;
 
 import static org.apache.iotdb.db.storageengine.rescon.memory.PrimitiveArrayManager.ARRAY_SIZE;
+import static org.apache.iotdb.db.storageengine.rescon.memory.PrimitiveArrayManager.ENABLE_OFF_HEAP_TVLIST;
 import static org.apache.iotdb.db.storageengine.rescon.memory.PrimitiveArrayManager.TVLIST_SORT_ALGORITHM;
 
 public abstract class IntTVList extends TVList {
@@ -48,6 +49,9 @@ public abstract class IntTVList extends TVList {
   }
 
   public static IntTVList newList() {
+    if (ENABLE_OFF_HEAP_TVLIST) {
+      return new OffHeapIntTVList();
+    }
     switch (TVLIST_SORT_ALGORITHM) {
       case QUICK:
         return new QuickIntTVList();
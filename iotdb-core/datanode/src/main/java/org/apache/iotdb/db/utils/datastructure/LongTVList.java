@@ -35,6 +35,7 @@ import java.util.ArrayList;
 import java.util.List;
 
 import static org.apache.iotdb.db.storageengine.rescon.memory.PrimitiveArrayManager.ARRAY_SIZE;
+import static org.apache.iotdb.db.storageengine.rescon.memory.PrimitiveArrayManager.ENABLE_OFF_HEAP_TVLIST;
 import static org.apache.iotdb.db.storageengine.rescon.memory.PrimitiveArrayManager.TVLIST_SORT_ALGORITHM;
 
 public abstract class LongTVList extends TVList {
@@ -48,6 +49,9 @@ public abstract class LongTVList extends TVList {
   }
 
   public static LongTVList newList() {
+    if (ENABLE_OFF_HEAP_TVLIST) {
+      return new OffHeapLongTVList();
+    }
     switch (TVLIST_SORT_ALGORITHM) {
       case QUICK:
         return new QuickLongTVList();
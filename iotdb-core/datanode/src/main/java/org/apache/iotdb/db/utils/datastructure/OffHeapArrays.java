@@ -0,0 +1,130 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.iotdb.db.utils.datastructure;
+
+import org.apache.iotdb.db.storageengine.rescon.memory.PrimitiveArrayManager;
+import org.apache.iotdb.tsfile.file.metadata.enums.TSDataType;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.apache.iotdb.db.storageengine.rescon.memory.PrimitiveArrayManager.ARRAY_SIZE;
+
+/**
+ * A column of an off-heap TVList, stored in direct arrays of ARRAY_SIZE elements taken from {@link
+ * PrimitiveArrayManager}. Elements are addressed by their row index, the same as the heap arrays of
+ * TVList.
+ */
+public class OffHeapArrays {
+  private final TSDataType dataType;
+  private final int elementSize;
+  // list of direct arrays, add 1 when expanded
+  // index relation: arrayIndex -> elementIndex * elementSize
+  private final List<ByteBuffer> arrays = new ArrayList<>();
+
+  OffHeapArrays(TSDataType dataType) {
+    this.dataType = dataType;
+    this.elementSize = dataType.getDataTypeSize();
+  }
+
+  /** Number of elements these arrays can hold. */
+  int capacity() {
+    return arrays.size() * ARRAY_SIZE;
+  }
+
+  int arrayNum() {
+    return arrays.size();
+  }
+
+  void expand() {
+    arrays.add(PrimitiveArrayManager.allocateOffHeap(dataType));
+  }
+
+  void releaseLastArray() {
+    PrimitiveArrayManager.releaseOffHeap(dataType, arrays.remove(arrays.size() - 1));
+  }
+
+  /** Bring back all arrays to {@link PrimitiveArrayManager}. */
+  public synchronized void release() {
+    for (ByteBuffer array : arrays) {
+      PrimitiveArrayManager.releaseOffHeap(dataType, array);
+    }
+    arrays.clear();
+  }
+
+  /** Copy the first rowCount elements into the empty arrays dest. */
+  void copyTo(OffHeapArrays dest, int rowCount) {
+    int arrayNum = PrimitiveArrayManager.getArrayRowCount(rowCount);
+    for (int i = 0; i < arrayNum; i++) {
+      dest.expand();
+      ByteBuffer destArray = dest.arrays.get(i).duplicate();
+      destArray.put(arrays.get(i).duplicate());
+    }
+  }
+
+  private ByteBuffer array(int index) {
+    return arrays.get(index / ARRAY_SIZE);
+  }
+
+  private int offset(int index) {
+    return index % ARRAY_SIZE * elementSize;
+  }
+
+  long getLong(int index) {
+    return array(index).getLong(offset(index));
+  }
+
+  void putLong(int index, long value) {
+    array(index).putLong(offset(index), value);
+  }
+
+  int getInt(int index) {
+    return array(index).getInt(offset(index));
+  }
+
+  void putInt(int index, int value) {
+    array(index).putInt(offset(index), value);
+  }
+
+  float getFloat(int index) {
+    return array(index).getFloat(offset(index));
+  }
+
+  void putFloat(int index, float value) {
+    array(index).putFloat(offset(index), value);
+  }
+
+  double getDouble(int index) {
+    return array(index).getDouble(offset(index));
+  }
+
+  void putDouble(int index, double value) {
+    array(index).putDouble(offset(index), value);
+  }
+
+  boolean getBoolean(int index) {
+    return array(index).get(offset(index)) != 0;
+  }
+
+  void putBoolean(int index, boolean value) {
+    array(index).put(offset(index), (byte) (value ? 1 : 0));
+  }
+}
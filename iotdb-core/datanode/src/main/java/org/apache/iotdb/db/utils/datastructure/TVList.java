@@ -249,6 +249,11 @@ public abstract class TVList implements WALEntryValue {
 
   protected abstract void releaseLastValueArray();
 
+  /** number of arrays allocated for timestamps */
+  protected int arrayNum() {
+    return timestamps.size();
+  }
+
   protected void releaseLastTimeArray() {
     PrimitiveArrayManager.release(timestamps.remove(timestamps.size() - 1));
   }
@@ -270,7 +275,7 @@ public abstract class TVList implements WALEntryValue {
     if (newSize % ARRAY_SIZE != 0) {
       newArrayNum++;
     }
-    int oldArrayNum = timestamps.size();
+    int oldArrayNum = arrayNum();
     for (int releaseIdx = newArrayNum; releaseIdx < oldArrayNum; releaseIdx++) {
       releaseLastTimeArray();
       releaseLastValueArray();
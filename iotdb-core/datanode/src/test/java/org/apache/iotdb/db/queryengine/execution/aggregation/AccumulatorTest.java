@@ -32,6 +32,7 @@ import org.apache.iotdb.tsfile.read.common.block.column.DoubleColumnBuilder;
 import org.apache.iotdb.tsfile.read.common.block.column.LongColumnBuilder;
 import org.apache.iotdb.tsfile.read.common.block.column.TimeColumnBuilder;
 import org.apache.iotdb.tsfile.utils.Binary;
+import org.apache.iotdb.tsfile.utils.BitMap;
 import org.apache.iotdb.tsfile.utils.BytesUtils;
 
 import org.junit.Assert;
@@ -864,4 +865,153 @@ public class AccumulatorTest {
     varSampAccumulator.outputFinal(finalResult);
     Assert.assertEquals(841.6666666666666, finalResult.build().getDouble(0), 0.001);
   }
+
+  @Test
+  public void varianceFromStatisticsTest() {
+    Accumulator varPopAccumulator =
+        AccumulatorFactory.createAccumulator(
+            TAggregationType.VAR_POP,
+            TSDataType.DOUBLE,
+            Collections.emptyList(),
+            Collections.emptyMap(),
+            true);
+    // statistics without extended statistics cannot be used
+    Assert.assertFalse(varPopAccumulator.canAddStatistics(statistics));
+
+    Statistics extendedStatistics = Statistics.getStatsByType(TSDataType.DOUBLE);
+    extendedStatistics.enableExtendedStatistics();
+    for (int i = 0; i < 50; i++) {
+      extendedStatistics.update(i, i * 1.0);
+    }
+    Assert.assertTrue(varPopAccumulator.canAddStatistics(extendedStatistics));
+    varPopAccumulator.addStatistics(extendedStatistics);
+    // the other half is added from raw data
+    Column[] timeAndValueColumn = getTimeAndValueColumn(0);
+    BitMap bitMap = new BitMap(rawData.getPositionCount());
+    for (int i = 50; i < rawData.getPositionCount(); i++) {
+      bitMap.mark(i);
+    }
+    varPopAccumulator.addInput(timeAndValueColumn, bitMap, rawData.getPositionCount() - 1);
+    ColumnBuilder finalResult = new DoubleColumnBuilder(null, 1);
+    varPopAccumulator.outputFinal(finalResult);
+    Assert.assertEquals(833.25, finalResult.build().getDouble(0), 0.001);
+  }
+
+  @Test
+  public void approxPercentileAccumulatorTest() {
+    Accumulator approxPercentileAccumulator =
+        AccumulatorFactory.createAccumulator(
+            TAggregationType.APPROX_PERCENTILE,
+            TSDataType.DOUBLE,
+            Collections.emptyList(),
+            Collections.singletonMap("rank", "0.9"),
+            true);
+    Assert.assertEquals(TSDataType.TEXT, approxPercentileAccumulator.getIntermediateType()[0]);
+    Assert.assertEquals(TSDataType.DOUBLE, approxPercentileAccumulator.getFinalType());
+    // check returning null when no data
+    ColumnBuilder[] intermediateResult = new ColumnBuilder[1];
+    intermediateResult[0] = new BinaryColumnBuilder(null, 1);
+    approxPercentileAccumulator.outputIntermediate(intermediateResult);
+    Assert.assertTrue(intermediateResult[0].build().isNull(0));
+    ColumnBuilder finalResult = new DoubleColumnBuilder(null, 1);
+    approxPercentileAccumulator.outputFinal(finalResult);
+    Assert.assertTrue(finalResult.build().isNull(0));
+
+    Column[] timeAndValueColumn = getTimeAndValueColumn(0);
+    approxPercentileAccumulator.addInput(timeAndValueColumn, null, rawData.getPositionCount() - 1);
+    Assert.assertFalse(approxPercentileAccumulator.hasFinalResult());
+    finalResult = new DoubleColumnBuilder(null, 1);
+    approxPercentileAccumulator.outputFinal(finalResult);
+    Assert.assertEquals(89, finalResult.build().getDouble(0), 89 * 0.01);
+
+    // merge the sketch of another region holding 100 - 199
+    Accumulator otherAccumulator =
+        AccumulatorFactory.createAccumulator(
+            TAggregationType.APPROX_PERCENTILE,
+            TSDataType.DOUBLE,
+            Collections.emptyList(),
+            Collections.singletonMap("rank", "0.9"),
+            true);
+    Statistics extendedStatistics = Statistics.getStatsByType(TSDataType.DOUBLE);
+    extendedStatistics.enableExtendedStatistics();
+    for (int i = 100; i < 200; i++) {
+      extendedStatistics.update(i, i * 1.0);
+    }
+    Assert.assertFalse(otherAccumulator.canAddStatistics(statistics));
+    Assert.assertTrue(otherAccumulator.canAddStatistics(extendedStatistics));
+    otherAccumulator.addStatistics(extendedStatistics);
+    intermediateResult[0] = new BinaryColumnBuilder(null, 1);
+    otherAccumulator.outputIntermediate(intermediateResult);
+    approxPercentileAccumulator.addIntermediate(new Column[] {intermediateResult[0].build()});
+    finalResult = new DoubleColumnBuilder(null, 1);
+    approxPercentileAccumulator.outputFinal(finalResult);
+    Assert.assertEquals(179, finalResult.build().getDouble(0), 179 * 0.01);
+  }
+
+  @Test
+  public void approxCountDistinctAccumulatorTest() {
+    Accumulator approxCountDistinctAccumulator =
+        AccumulatorFactory.createAccumulator(
+            TAggregationType.APPROX_COUNT_DISTINCT,
+            TSDataType.DOUBLE,
+            Collections.emptyList(),
+            Collections.emptyMap(),
+            true);
+    Assert.assertEquals(TSDataType.TEXT, approxCountDistinctAccumulator.getIntermediateType()[0]);
+    Assert.assertEquals(TSDataType.INT64, approxCountDistinctAccumulator.getFinalType());
+    // check returning 0 when no data
+    ColumnBuilder[] intermediateResult = new ColumnBuilder[1];
+    intermediateResult[0] = new BinaryColumnBuilder(null, 1);
+    approxCountDistinctAccumulator.outputIntermediate(intermediateResult);
+    Assert.assertTrue(intermediateResult[0].build().isNull(0));
+    ColumnBuilder finalResult = new LongColumnBuilder(null, 1);
+    approxCountDistinctAccumulator.outputFinal(finalResult);
+    Assert.assertEquals(0, finalResult.build().getLong(0));
+
+    Column[] timeAndValueColumn = getTimeAndValueColumn(0);
+    approxCountDistinctAccumulator.addInput(
+        timeAndValueColumn, null, rawData.getPositionCount() - 1);
+    intermediateResult[0] = new BinaryColumnBuilder(null, 1);
+    approxCountDistinctAccumulator.outputIntermediate(intermediateResult);
+    finalResult = new LongColumnBuilder(null, 1);
+    approxCountDistinctAccumulator.outputFinal(finalResult);
+    Assert.assertEquals(100, finalResult.build().getLong(0), 5);
+
+    // merging the same values again does not change the estimation
+    approxCountDistinctAccumulator.addIntermediate(new Column[] {intermediateResult[0].build()});
+    Statistics extendedStatistics = Statistics.getStatsByType(TSDataType.DOUBLE);
+    extendedStatistics.enableExtendedStatistics();
+    for (int i = 0; i < 150; i++) {
+      extendedStatistics.update(i, i * 1.0);
+    }
+    Assert.assertTrue(approxCountDistinctAccumulator.canAddStatistics(extendedStatistics));
+    approxCountDistinctAccumulator.addStatistics(extendedStatistics);
+    finalResult = new LongColumnBuilder(null, 1);
+    approxCountDistinctAccumulator.outputFinal(finalResult);
+    Assert.assertEquals(150, finalResult.build().getLong(0), 7);
+  }
+
+  @Test
+  public void varianceFromStatisticsPrecisionTest() {
+    Accumulator varPopAccumulator =
+        AccumulatorFactory.createAccumulator(
+            TAggregationType.VAR_POP,
+            TSDataType.DOUBLE,
+            Collections.emptyList(),
+            Collections.emptyMap(),
+            true);
+    // values around 1e9 with a variance of 0.25, whose sum of squares is beyond the precision of
+    // double
+    for (int page = 0; page < 10; page++) {
+      Statistics pageStatistics = Statistics.getStatsByType(TSDataType.DOUBLE);
+      pageStatistics.enableExtendedStatistics();
+      for (int i = 0; i < 1000; i++) {
+        pageStatistics.update(page * 1000L + i, 1e9 + i % 2);
+      }
+      varPopAccumulator.addStatistics(pageStatistics);
+    }
+    ColumnBuilder finalResult = new DoubleColumnBuilder(null, 1);
+    varPopAccumulator.outputFinal(finalResult);
+    Assert.assertEquals(0.25, finalResult.build().getDouble(0), 1e-9);
+  }
 }
@@ -0,0 +1,144 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.iotdb.db.queryengine.execution.exchange;
+
+import org.apache.iotdb.tsfile.common.conf.TSFileConfig;
+import org.apache.iotdb.tsfile.file.metadata.enums.CompressionType;
+import org.apache.iotdb.tsfile.file.metadata.enums.TSDataType;
+import org.apache.iotdb.tsfile.read.common.block.TsBlock;
+import org.apache.iotdb.tsfile.read.common.block.TsBlockBuilder;
+import org.apache.iotdb.tsfile.read.common.block.column.ColumnBuilder;
+import org.apache.iotdb.tsfile.read.common.block.column.TsBlockSerde;
+import org.apache.iotdb.tsfile.utils.Binary;
+
+import org.junit.Test;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class CompressedTsBlockSerdeTest {
+
+  private static final int POSITION_COUNT = 1000;
+
+  @Test
+  public void testSerializeAndDeserialize() throws IOException {
+    TsBlock tsBlock = buildTsBlock(POSITION_COUNT, 3);
+    CompressedTsBlockSerde serde = new CompressedTsBlockSerde();
+    for (CompressionType compressionType :
+        Arrays.asList(
+            CompressionType.UNCOMPRESSED,
+            CompressionType.LZ4,
+            CompressionType.ZSTD,
+            CompressionType.SNAPPY)) {
+      ByteBuffer output = serde.serialize(tsBlock, compressionType);
+      assertTsBlockEquals(tsBlock, serde.deserialize(output));
+    }
+  }
+
+  @Test
+  public void testSmallerThanTsBlockSerde() throws IOException {
+    TsBlock tsBlock = buildTsBlock(POSITION_COUNT, 3);
+    int plainSize = new TsBlockSerde().serialize(tsBlock).remaining();
+    // delta encoded time column and dictionary encoded TEXT column without compression
+    int encodedSize =
+        new CompressedTsBlockSerde().serialize(tsBlock, CompressionType.UNCOMPRESSED).remaining();
+    int compressedSize =
+        new CompressedTsBlockSerde().serialize(tsBlock, CompressionType.LZ4).remaining();
+    assertTrue(encodedSize < plainSize);
+    assertTrue(compressedSize < encodedSize);
+  }
+
+  @Test
+  public void testManyDistinctTextValues() throws IOException {
+    // each TEXT value is distinct, so the TEXT column is not dictionary encoded
+    TsBlock tsBlock = buildTsBlock(POSITION_COUNT, POSITION_COUNT);
+    CompressedTsBlockSerde serde = new CompressedTsBlockSerde();
+    assertTsBlockEquals(tsBlock, serde.deserialize(serde.serialize(tsBlock, CompressionType.LZ4)));
+  }
+
+  @Test
+  public void testEmptyAndLargeTimeGap() throws IOException {
+    CompressedTsBlockSerde serde = new CompressedTsBlockSerde();
+    TsBlock empty = buildTsBlock(0, 1);
+    assertEquals(
+        0, serde.deserialize(serde.serialize(empty, CompressionType.LZ4)).getPositionCount());
+
+    TsBlockBuilder builder = new TsBlockBuilder(Arrays.asList(TSDataType.INT32));
+    long[] times = {Long.MIN_VALUE + 1, 0, Long.MAX_VALUE - 1};
+    for (long time : times) {
+      builder.getTimeColumnBuilder().writeLong(time);
+      builder.getColumnBuilder(0).writeInt(1);
+      builder.declarePosition();
+    }
+    TsBlock tsBlock = builder.build();
+    assertTsBlockEquals(tsBlock, serde.deserialize(serde.serialize(tsBlock, CompressionType.LZ4)));
+  }
+
+  /** Value of the TEXT column cycles among distinctTextCount values, and every 7th is null. */
+  private TsBlock buildTsBlock(int positionCount, int distinctTextCount) {
+    TsBlockBuilder tsBlockBuilder =
+        new TsBlockBuilder(
+            Arrays.asList(
+                TSDataType.INT32,
+                TSDataType.INT64,
+                TSDataType.DOUBLE,
+                TSDataType.BOOLEAN,
+                TSDataType.TEXT));
+    ColumnBuilder timeColumnBuilder = tsBlockBuilder.getTimeColumnBuilder();
+    for (int i = 0; i < positionCount; i++) {
+      timeColumnBuilder.writeLong(1_600_000_000_000L + i * 1000L);
+      tsBlockBuilder.getColumnBuilder(0).writeInt(i);
+      tsBlockBuilder.getColumnBuilder(1).writeLong(i * 10L);
+      tsBlockBuilder.getColumnBuilder(2).writeDouble(i / 10D);
+      tsBlockBuilder.getColumnBuilder(3).writeBoolean(i % 2 == 0);
+      if (i % 7 == 0) {
+        tsBlockBuilder.getColumnBuilder(4).appendNull();
+      } else {
+        tsBlockBuilder
+            .getColumnBuilder(4)
+            .writeBinary(
+                new Binary("device_" + i % distinctTextCount, TSFileConfig.STRING_CHARSET));
+      }
+      tsBlockBuilder.declarePosition();
+    }
+    return tsBlockBuilder.build();
+  }
+
+  private void assertTsBlockEquals(TsBlock expected, TsBlock actual) {
+    assertEquals(expected.getPositionCount(), actual.getPositionCount());
+    assertEquals(expected.getValueColumnCount(), actual.getValueColumnCount());
+    for (int i = 0; i < expected.getPositionCount(); i++) {
+      assertEquals(expected.getTimeByIndex(i), actual.getTimeByIndex(i));
+      for (int j = 0; j < expected.getValueColumnCount(); j++) {
+        assertEquals(expected.getColumn(j).getDataType(), actual.getColumn(j).getDataType());
+        assertEquals(expected.getColumn(j).isNull(i), actual.getColumn(j).isNull(i));
+        if (!expected.getColumn(j).isNull(i)) {
+          assertEquals(expected.getColumn(j).getObject(i), actual.getColumn(j).getObject(i));
+        }
+      }
+    }
+    assertFalse(actual.getTimeColumn().mayHaveNull());
+  }
+}
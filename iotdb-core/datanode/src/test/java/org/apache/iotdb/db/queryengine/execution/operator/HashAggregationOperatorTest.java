@@ -0,0 +1,449 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.iotdb.db.queryengine.execution.operator;
+
+import org.apache.iotdb.common.rpc.thrift.TAggregationType;
+import org.apache.iotdb.commons.concurrent.IoTDBThreadPoolFactory;
+import org.apache.iotdb.commons.exception.IllegalPathException;
+import org.apache.iotdb.commons.exception.MetadataException;
+import org.apache.iotdb.commons.path.MeasurementPath;
+import org.apache.iotdb.db.queryengine.common.FragmentInstanceId;
+import org.apache.iotdb.db.queryengine.common.PlanFragmentId;
+import org.apache.iotdb.db.queryengine.common.QueryId;
+import org.apache.iotdb.db.queryengine.execution.aggregation.AccumulatorFactory;
+import org.apache.iotdb.db.queryengine.execution.aggregation.Aggregator;
+import org.apache.iotdb.db.queryengine.execution.driver.DriverContext;
+import org.apache.iotdb.db.queryengine.execution.fragment.FragmentInstanceContext;
+import org.apache.iotdb.db.queryengine.execution.fragment.FragmentInstanceStateMachine;
+import org.apache.iotdb.db.queryengine.execution.operator.process.HashAggregationOperator;
+import org.apache.iotdb.db.queryengine.execution.operator.source.SeriesAggregationScanOperator;
+import org.apache.iotdb.db.queryengine.plan.planner.plan.node.PlanNodeId;
+import org.apache.iotdb.db.queryengine.plan.planner.plan.parameter.AggregationStep;
+import org.apache.iotdb.db.queryengine.plan.planner.plan.parameter.GroupByTimeParameter;
+import org.apache.iotdb.db.queryengine.plan.planner.plan.parameter.InputLocation;
+import org.apache.iotdb.db.queryengine.plan.planner.plan.parameter.SeriesScanOptions;
+import org.apache.iotdb.db.queryengine.plan.statement.component.Ordering;
+import org.apache.iotdb.db.storageengine.dataregion.read.QueryDataSource;
+import org.apache.iotdb.db.storageengine.dataregion.read.reader.series.SeriesReaderTestUtil;
+import org.apache.iotdb.db.storageengine.dataregion.tsfile.TsFileResource;
+import org.apache.iotdb.tsfile.common.conf.TSFileDescriptor;
+import org.apache.iotdb.tsfile.exception.write.WriteProcessException;
+import org.apache.iotdb.tsfile.file.metadata.enums.TSDataType;
+import org.apache.iotdb.tsfile.read.common.block.TsBlock;
+import org.apache.iotdb.tsfile.utils.TimeDuration;
+import org.apache.iotdb.tsfile.write.schema.MeasurementSchema;
+
+import com.google.common.util.concurrent.ListenableFuture;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+
+import static org.apache.iotdb.db.queryengine.execution.fragment.FragmentInstanceContext.createFragmentInstanceContext;
+import static org.apache.iotdb.db.queryengine.execution.operator.AggregationUtil.initTimeRangeIterator;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class HashAggregationOperatorTest {
+
+  private static final String HASH_AGGREGATION_OPERATOR_TEST_SG =
+      "root.HashAggregationOperatorTest";
+  private final List<String> deviceIds = new ArrayList<>();
+  private final List<MeasurementSchema> measurementSchemas = new ArrayList<>();
+
+  private final List<TsFileResource> seqResources = new ArrayList<>();
+  private final List<TsFileResource> unSeqResources = new ArrayList<>();
+  private ExecutorService instanceNotificationExecutor =
+      IoTDBThreadPoolFactory.newFixedThreadPool(1, "test-instance-notification");
+
+  private static final int DEFAULT_MAX_TSBLOCK_SIZE_IN_BYTES =
+      TSFileDescriptor.getInstance().getConfig().getMaxTsBlockSizeInBytes();
+
+  @Before
+  public void setUp() throws MetadataException, IOException, WriteProcessException {
+    SeriesReaderTestUtil.setUp(
+        measurementSchemas,
+        deviceIds,
+        seqResources,
+        unSeqResources,
+        HASH_AGGREGATION_OPERATOR_TEST_SG);
+    this.instanceNotificationExecutor =
+        IoTDBThreadPoolFactory.newFixedThreadPool(1, "test-instance-notification");
+  }
+
+  @After
+  public void tearDown() throws IOException {
+    SeriesReaderTestUtil.tearDown(seqResources, unSeqResources);
+    instanceNotificationExecutor.shutdown();
+  }
+
+  /** Merge unary intermediate results of two series without group by interval. */
+  @Test
+  public void testAggregateIntermediateResult() throws Exception {
+    List<TAggregationType> aggregationTypes = new ArrayList<>();
+    aggregationTypes.add(TAggregationType.COUNT);
+    aggregationTypes.add(TAggregationType.SUM);
+    aggregationTypes.add(TAggregationType.MAX_VALUE);
+    aggregationTypes.add(TAggregationType.MIN_VALUE);
+    List<List<InputLocation[]>> inputLocations = new ArrayList<>();
+    for (int i = 0; i < aggregationTypes.size(); i++) {
+      List<InputLocation[]> inputLocationForOneGroup = new ArrayList<>();
+      inputLocationForOneGroup.add(new InputLocation[] {new InputLocation(0, i)});
+      inputLocationForOneGroup.add(new InputLocation[] {new InputLocation(1, i)});
+      inputLocations.add(inputLocationForOneGroup);
+    }
+    HashAggregationOperator hashAggregationOperator =
+        initHashAggregationOperator(aggregationTypes, null, inputLocations);
+    int count = 0;
+    while (true) {
+      ListenableFuture<?> blocked = hashAggregationOperator.isBlocked();
+      blocked.get();
+      if (!hashAggregationOperator.hasNext()) {
+        break;
+      }
+      TsBlock resultTsBlock = hashAggregationOperator.next();
+      if (resultTsBlock == null) {
+        continue;
+      }
+      assertEquals(500, resultTsBlock.getColumn(0).getLong(0));
+      assertEquals(6524750.0, resultTsBlock.getColumn(1).getDouble(0), 0.0001);
+      assertEquals(20199, resultTsBlock.getColumn(2).getInt(0));
+      assertEquals(260, resultTsBlock.getColumn(3).getInt(0));
+      count++;
+    }
+    assertEquals(1, count);
+  }
+
+  /** AVG and COUNT share the count column of the intermediate results. */
+  @Test
+  public void testGroupByIntermediateResultWithSharedColumn() throws Exception {
+    double[] avgResult = new double[] {20049.5, 20149.5, 6249.5, 8429.808};
+    long[] countResult = new long[] {100, 100, 100, 99};
+    List<TAggregationType> aggregationTypes = new ArrayList<>();
+    aggregationTypes.add(TAggregationType.AVG);
+    aggregationTypes.add(TAggregationType.COUNT);
+    GroupByTimeParameter groupByTimeParameter =
+        new GroupByTimeParameter(0, 399, new TimeDuration(0, 100), new TimeDuration(0, 100), true);
+    List<List<InputLocation[]>> inputLocations = new ArrayList<>();
+    List<InputLocation[]> avgInputLocations = new ArrayList<>();
+    List<InputLocation[]> countInputLocations = new ArrayList<>();
+    for (int i = 0; i < 2; i++) {
+      avgInputLocations.add(new InputLocation[] {new InputLocation(i, 0), new InputLocation(i, 1)});
+      countInputLocations.add(new InputLocation[] {new InputLocation(i, 0)});
+    }
+    inputLocations.add(avgInputLocations);
+    inputLocations.add(countInputLocations);
+    HashAggregationOperator hashAggregationOperator =
+        initHashAggregationOperator(aggregationTypes, groupByTimeParameter, inputLocations);
+    int count = 0;
+    while (true) {
+      ListenableFuture<?> blocked = hashAggregationOperator.isBlocked();
+      blocked.get();
+      if (!hashAggregationOperator.hasNext()) {
+        break;
+      }
+      TsBlock resultTsBlock = hashAggregationOperator.next();
+      if (resultTsBlock == null) {
+        continue;
+      }
+      int positionCount = resultTsBlock.getPositionCount();
+      for (int pos = 0; pos < positionCount; pos++) {
+        assertEquals(100 * count, resultTsBlock.getTimeColumn().getLong(pos));
+        assertEquals(avgResult[count], resultTsBlock.getColumn(0).getDouble(pos), 0.001);
+        assertEquals(countResult[count], resultTsBlock.getColumn(1).getLong(pos));
+        count++;
+      }
+    }
+    assertEquals(4, count);
+  }
+
+  @Test
+  public void testGroupByIntermediateResult() throws Exception {
+    int[][] result =
+        new int[][] {
+          {100, 100, 100, 99},
+          {2004950, 2014950, 624950, 834551},
+          {20099, 20199, 10259, 10379},
+          {20000, 20100, 260, 380}
+        };
+    GroupByTimeParameter groupByTimeParameter =
+        new GroupByTimeParameter(0, 399, new TimeDuration(0, 100), new TimeDuration(0, 100), true);
+    List<TAggregationType> aggregationTypes = new ArrayList<>();
+    aggregationTypes.add(TAggregationType.COUNT);
+    aggregationTypes.add(TAggregationType.SUM);
+    aggregationTypes.add(TAggregationType.MAX_VALUE);
+    aggregationTypes.add(TAggregationType.MIN_VALUE);
+    List<List<InputLocation[]>> inputLocations = new ArrayList<>();
+    for (int i = 0; i < aggregationTypes.size(); i++) {
+      List<InputLocation[]> inputLocationForOneGroup = new ArrayList<>();
+      inputLocationForOneGroup.add(new InputLocation[] {new InputLocation(0, i)});
+      inputLocationForOneGroup.add(new InputLocation[] {new InputLocation(1, i)});
+      inputLocations.add(inputLocationForOneGroup);
+    }
+    HashAggregationOperator hashAggregationOperator =
+        initHashAggregationOperator(aggregationTypes, groupByTimeParameter, inputLocations);
+    int count = 0;
+    while (true) {
+      ListenableFuture<?> blocked = hashAggregationOperator.isBlocked();
+      blocked.get();
+      if (!hashAggregationOperator.hasNext()) {
+        break;
+      }
+      TsBlock resultTsBlock = hashAggregationOperator.next();
+      if (resultTsBlock == null) {
+        continue;
+      }
+      int positionCount = resultTsBlock.getPositionCount();
+      for (int pos = 0; pos < positionCount; pos++) {
+        assertEquals(100 * count, resultTsBlock.getTimeColumn().getLong(pos));
+        assertEquals(result[0][count], resultTsBlock.getColumn(0).getLong(pos));
+        assertEquals(result[1][count], resultTsBlock.getColumn(1).getDouble(pos), 0.0001);
+        assertEquals(result[2][count], resultTsBlock.getColumn(2).getInt(pos));
+        assertEquals(result[3][count], resultTsBlock.getColumn(3).getInt(pos));
+        count++;
+      }
+    }
+    assertEquals(4, count);
+  }
+
+  /** One row per tag value list, the aggregation absent for a tag value list outputs null. */
+  @Test
+  public void testGroupByTagIntermediateResult() throws Exception {
+    long[] countResult = new long[] {100, 100, 100, 99};
+    double[] sumResult = new double[] {2004950, 2014950, 624950, 834551};
+    GroupByTimeParameter groupByTimeParameter =
+        new GroupByTimeParameter(0, 399, new TimeDuration(0, 100), new TimeDuration(0, 100), true);
+    List<TAggregationType> scanAggregationTypes = new ArrayList<>();
+    scanAggregationTypes.add(TAggregationType.COUNT);
+    scanAggregationTypes.add(TAggregationType.SUM);
+    List<List<String>> tagValues = new ArrayList<>();
+    tagValues.add(Collections.singletonList("a"));
+    tagValues.add(Collections.singletonList(null));
+    // tag value "a" has COUNT and SUM, tag value null only has COUNT
+    List<TAggregationType> aggregationTypes = new ArrayList<>();
+    aggregationTypes.add(TAggregationType.COUNT);
+    aggregationTypes.add(TAggregationType.SUM);
+    aggregationTypes.add(TAggregationType.COUNT);
+    aggregationTypes.add(null);
+    List<List<InputLocation[]>> inputLocations = new ArrayList<>();
+    for (int i = 0; i < aggregationTypes.size(); i++) {
+      List<InputLocation[]> inputLocationForOneGroup = new ArrayList<>();
+      if (aggregationTypes.get(i) != null) {
+        inputLocationForOneGroup.add(new InputLocation[] {new InputLocation(0, i % 2)});
+        inputLocationForOneGroup.add(new InputLocation[] {new InputLocation(1, i % 2)});
+      }
+      inputLocations.add(inputLocationForOneGroup);
+    }
+    HashAggregationOperator hashAggregationOperator =
+        initHashAggregationOperator(
+            tagValues,
+            scanAggregationTypes,
+            aggregationTypes,
+            groupByTimeParameter,
+            inputLocations);
+    int count = 0;
+    while (true) {
+      ListenableFuture<?> blocked = hashAggregationOperator.isBlocked();
+      blocked.get();
+      if (!hashAggregationOperator.hasNext()) {
+        break;
+      }
+      TsBlock resultTsBlock = hashAggregationOperator.next();
+      if (resultTsBlock == null) {
+        continue;
+      }
+      assertEquals(3, resultTsBlock.getValueColumnCount());
+      int positionCount = resultTsBlock.getPositionCount();
+      for (int pos = 0; pos < positionCount; pos++) {
+        int window = count / 2;
+        assertEquals(100 * window, resultTsBlock.getTimeColumn().getLong(pos));
+        assertEquals(countResult[window], resultTsBlock.getColumn(1).getLong(pos));
+        if (count % 2 == 0) {
+          assertEquals("a", resultTsBlock.getColumn(0).getBinary(pos).toString());
+          assertEquals(sumResult[window], resultTsBlock.getColumn(2).getDouble(pos), 0.0001);
+        } else {
+          assertEquals("NULL", resultTsBlock.getColumn(0).getBinary(pos).toString());
+          assertTrue(resultTsBlock.getColumn(2).isNull(pos));
+        }
+        count++;
+      }
+    }
+    assertEquals(8, count);
+  }
+
+  @Test
+  public void testIsSupported() {
+    assertTrue(
+        HashAggregationOperator.isSupported(
+            TAggregationType.AVG, AggregationStep.FINAL, TSDataType.INT32));
+    assertTrue(
+        HashAggregationOperator.isSupported(
+            TAggregationType.MAX_VALUE, AggregationStep.INTERMEDIATE, TSDataType.DOUBLE));
+    assertFalse(
+        HashAggregationOperator.isSupported(
+            TAggregationType.COUNT, AggregationStep.SINGLE, TSDataType.INT32));
+    assertFalse(
+        HashAggregationOperator.isSupported(
+            TAggregationType.MAX_VALUE, AggregationStep.FINAL, TSDataType.TEXT));
+    assertFalse(
+        HashAggregationOperator.isSupported(
+            TAggregationType.FIRST_VALUE, AggregationStep.FINAL, TSDataType.INT32));
+  }
+
+  /**
+   * @param aggregationTypes Aggregation function used in test
+   * @param groupByTimeParameter group by time parameter
+   * @param inputLocations each inputLocation is used in one aggregator
+   */
+  private HashAggregationOperator initHashAggregationOperator(
+      List<TAggregationType> aggregationTypes,
+      GroupByTimeParameter groupByTimeParameter,
+      List<List<InputLocation[]>> inputLocations)
+      throws IllegalPathException {
+    return initHashAggregationOperator(
+        null, aggregationTypes, aggregationTypes, groupByTimeParameter, inputLocations);
+  }
+
+  /**
+   * @param tagValues tag values of each output row of one time window, null for GROUP BY LEVEL
+   * @param scanAggregationTypes Aggregation function used by the child scan operators
+   * @param aggregationTypes Aggregation function of each group, null if absent
+   * @param groupByTimeParameter group by time parameter
+   * @param inputLocations each inputLocation is used in one group
+   */
+  private HashAggregationOperator initHashAggregationOperator(
+      List<List<String>> tagValues,
+      List<TAggregationType> scanAggregationTypes,
+      List<TAggregationType> aggregationTypes,
+      GroupByTimeParameter groupByTimeParameter,
+      List<List<InputLocation[]>> inputLocations)
+      throws IllegalPathException {
+    // Construct operator tree
+    QueryId queryId = new QueryId("stub_query");
+    FragmentInstanceId instanceId =
+        new FragmentInstanceId(new PlanFragmentId(queryId, 0), "stub-instance");
+    FragmentInstanceStateMachine stateMachine =
+        new FragmentInstanceStateMachine(instanceId, instanceNotificationExecutor);
+    FragmentInstanceContext fragmentInstanceContext =
+        createFragmentInstanceContext(instanceId, stateMachine);
+    DriverContext driverContext = new DriverContext(fragmentInstanceContext, 0);
+    PlanNodeId planNodeId1 = new PlanNodeId("1");
+    driverContext.addOperatorContext(
+        1, planNodeId1, SeriesAggregationScanOperator.class.getSimpleName());
+    PlanNodeId planNodeId2 = new PlanNodeId("2");
+    driverContext.addOperatorContext(
+        2, planNodeId2, SeriesAggregationScanOperator.class.getSimpleName());
+    PlanNodeId planNodeId3 = new PlanNodeId("3");
+    driverContext.addOperatorContext(3, planNodeId3, HashAggregationOperator.class.getSimpleName());
+    driverContext
+        .getOperatorContexts()
+        .forEach(
+            operatorContext -> {
+              operatorContext.setMaxRunTime(AggregationOperatorTest.TEST_TIME_SLICE);
+            });
+
+    MeasurementPath measurementPath1 =
+        new MeasurementPath(
+            HASH_AGGREGATION_OPERATOR_TEST_SG + ".device0.sensor0", TSDataType.INT32);
+    List<Aggregator> aggregators = new ArrayList<>();
+    AccumulatorFactory.createAccumulators(
+            scanAggregationTypes,
+            TSDataType.INT32,
+            Collections.emptyList(),
+            Collections.emptyMap(),
+            true)
+        .forEach(o -> aggregators.add(new Aggregator(o, AggregationStep.PARTIAL)));
+
+    SeriesScanOptions.Builder scanOptionsBuilder = new SeriesScanOptions.Builder();
+    scanOptionsBuilder.withAllSensors(Collections.singleton("sensor0"));
+    SeriesAggregationScanOperator seriesAggregationScanOperator1 =
+        new SeriesAggregationScanOperator(
+            planNodeId1,
+            measurementPath1,
+            Ordering.ASC,
+            scanOptionsBuilder.build(),
+            driverContext.getOperatorContexts().get(0),
+            aggregators,
+            initTimeRangeIterator(groupByTimeParameter, true, true),
+            groupByTimeParameter,
+            DEFAULT_MAX_TSBLOCK_SIZE_IN_BYTES);
+
+    List<TsFileResource> seqResources1 = new ArrayList<>();
+    List<TsFileResource> unSeqResources1 = new ArrayList<>();
+    seqResources1.add(seqResources.get(0));
+    seqResources1.add(seqResources.get(1));
+    seqResources1.add(seqResources.get(3));
+    unSeqResources1.add(unSeqResources.get(0));
+    unSeqResources1.add(unSeqResources.get(1));
+    unSeqResources1.add(unSeqResources.get(3));
+    unSeqResources1.add(unSeqResources.get(5));
+    seriesAggregationScanOperator1.initQueryDataSource(
+        new QueryDataSource(seqResources1, unSeqResources1));
+
+    SeriesAggregationScanOperator seriesAggregationScanOperator2 =
+        new SeriesAggregationScanOperator(
+            planNodeId2,
+            measurementPath1,
+            Ordering.ASC,
+            scanOptionsBuilder.build(),
+            driverContext.getOperatorContexts().get(0),
+            aggregators,
+            initTimeRangeIterator(groupByTimeParameter, true, true),
+            groupByTimeParameter,
+            DEFAULT_MAX_TSBLOCK_SIZE_IN_BYTES);
+
+    List<TsFileResource> seqResources2 = new ArrayList<>();
+    List<TsFileResource> unSeqResources2 = new ArrayList<>();
+    seqResources2.add(seqResources.get(2));
+    seqResources2.add(seqResources.get(4));
+    unSeqResources2.add(unSeqResources.get(2));
+    unSeqResources2.add(unSeqResources.get(4));
+    seriesAggregationScanOperator2.initQueryDataSource(
+        new QueryDataSource(seqResources2, unSeqResources2));
+
+    List<Operator> children = new ArrayList<>();
+    children.add(seriesAggregationScanOperator1);
+    children.add(seriesAggregationScanOperator2);
+
+    List<AggregationStep> steps = new ArrayList<>();
+    List<TSDataType> seriesDataTypes = new ArrayList<>();
+    for (TAggregationType aggregationType : aggregationTypes) {
+      steps.add(aggregationType == null ? null : AggregationStep.FINAL);
+      seriesDataTypes.add(aggregationType == null ? null : TSDataType.INT32);
+    }
+
+    return new HashAggregationOperator(
+        driverContext.getOperatorContexts().get(2),
+        tagValues,
+        aggregationTypes,
+        steps,
+        seriesDataTypes,
+        inputLocations,
+        initTimeRangeIterator(groupByTimeParameter, true, true),
+        children,
+        DEFAULT_MAX_TSBLOCK_SIZE_IN_BYTES);
+  }
+}
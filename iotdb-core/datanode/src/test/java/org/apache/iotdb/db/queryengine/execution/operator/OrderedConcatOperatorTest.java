@@ -0,0 +1,177 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.iotdb.db.queryengine.execution.operator;
+
+import org.apache.iotdb.commons.concurrent.IoTDBThreadPoolFactory;
+import org.apache.iotdb.commons.exception.MetadataException;
+import org.apache.iotdb.commons.path.MeasurementPath;
+import org.apache.iotdb.db.queryengine.common.FragmentInstanceId;
+import org.apache.iotdb.db.queryengine.common.PlanFragmentId;
+import org.apache.iotdb.db.queryengine.common.QueryId;
+import org.apache.iotdb.db.queryengine.execution.driver.DriverContext;
+import org.apache.iotdb.db.queryengine.execution.fragment.FragmentInstanceContext;
+import org.apache.iotdb.db.queryengine.execution.fragment.FragmentInstanceStateMachine;
+import org.apache.iotdb.db.queryengine.execution.operator.process.OrderedConcatOperator;
+import org.apache.iotdb.db.queryengine.execution.operator.source.SeriesScanOperator;
+import org.apache.iotdb.db.queryengine.plan.planner.plan.node.PlanNodeId;
+import org.apache.iotdb.db.queryengine.plan.planner.plan.parameter.SeriesScanOptions;
+import org.apache.iotdb.db.queryengine.plan.statement.component.Ordering;
+import org.apache.iotdb.db.storageengine.dataregion.read.QueryDataSource;
+import org.apache.iotdb.db.storageengine.dataregion.read.reader.series.SeriesReaderTestUtil;
+import org.apache.iotdb.db.storageengine.dataregion.tsfile.TsFileResource;
+import org.apache.iotdb.tsfile.exception.write.WriteProcessException;
+import org.apache.iotdb.tsfile.file.metadata.enums.TSDataType;
+import org.apache.iotdb.tsfile.read.common.block.TsBlock;
+import org.apache.iotdb.tsfile.read.filter.basic.Filter;
+import org.apache.iotdb.tsfile.read.filter.factory.FilterFactory;
+import org.apache.iotdb.tsfile.read.filter.factory.TimeFilterApi;
+import org.apache.iotdb.tsfile.write.schema.MeasurementSchema;
+
+import com.google.common.collect.Sets;
+import io.airlift.units.Duration;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import static org.apache.iotdb.db.queryengine.execution.fragment.FragmentInstanceContext.createFragmentInstanceContext;
+import static org.junit.Assert.assertEquals;
+
+public class OrderedConcatOperatorTest {
+
+  private static final String ORDERED_CONCAT_OPERATOR_TEST_SG = "root.OrderedConcatOperatorTest";
+  private final List<String> deviceIds = new ArrayList<>();
+  private final List<MeasurementSchema> measurementSchemas = new ArrayList<>();
+
+  private final List<TsFileResource> seqResources = new ArrayList<>();
+  private final List<TsFileResource> unSeqResources = new ArrayList<>();
+
+  @Before
+  public void setUp() throws MetadataException, IOException, WriteProcessException {
+    SeriesReaderTestUtil.setUp(
+        measurementSchemas,
+        deviceIds,
+        seqResources,
+        unSeqResources,
+        ORDERED_CONCAT_OPERATOR_TEST_SG);
+  }
+
+  @After
+  public void tearDown() throws IOException {
+    SeriesReaderTestUtil.tearDown(seqResources, unSeqResources);
+  }
+
+  @Test
+  public void testConcatSplitTimeRangesAscending() throws Exception {
+    List<Filter> splitTimeFilters =
+        Arrays.asList(
+            TimeFilterApi.lt(150),
+            FilterFactory.and(TimeFilterApi.gtEq(150), TimeFilterApi.lt(320)),
+            TimeFilterApi.gtEq(320));
+    List<Long> times = scanSplitTimeRanges(splitTimeFilters, Ordering.ASC);
+    assertEquals(500, times.size());
+    for (int i = 0; i < times.size(); i++) {
+      assertEquals(i, (long) times.get(i));
+    }
+  }
+
+  @Test
+  public void testConcatSplitTimeRangesDescending() throws Exception {
+    List<Filter> splitTimeFilters =
+        Arrays.asList(
+            TimeFilterApi.gtEq(320),
+            FilterFactory.and(TimeFilterApi.gtEq(150), TimeFilterApi.lt(320)),
+            TimeFilterApi.lt(150));
+    List<Long> times = scanSplitTimeRanges(splitTimeFilters, Ordering.DESC);
+    assertEquals(500, times.size());
+    for (int i = 0; i < times.size(); i++) {
+      assertEquals(499 - i, (long) times.get(i));
+    }
+  }
+
+  private List<Long> scanSplitTimeRanges(List<Filter> splitTimeFilters, Ordering scanOrder)
+      throws Exception {
+    ExecutorService instanceNotificationExecutor =
+        IoTDBThreadPoolFactory.newFixedThreadPool(1, "test-instance-notification");
+    try {
+      MeasurementPath measurementPath =
+          new MeasurementPath(
+              ORDERED_CONCAT_OPERATOR_TEST_SG + ".device0.sensor0", TSDataType.INT32);
+      QueryId queryId = new QueryId("stub_query");
+      FragmentInstanceId instanceId =
+          new FragmentInstanceId(new PlanFragmentId(queryId, 0), "stub-instance");
+      FragmentInstanceStateMachine stateMachine =
+          new FragmentInstanceStateMachine(instanceId, instanceNotificationExecutor);
+      FragmentInstanceContext fragmentInstanceContext =
+          createFragmentInstanceContext(instanceId, stateMachine);
+      DriverContext driverContext = new DriverContext(fragmentInstanceContext, 0);
+
+      List<Operator> children = new ArrayList<>();
+      for (int i = 0; i < splitTimeFilters.size(); i++) {
+        PlanNodeId planNodeId = new PlanNodeId(String.valueOf(i));
+        OperatorContext operatorContext =
+            driverContext.addOperatorContext(
+                i, planNodeId, SeriesScanOperator.class.getSimpleName());
+        operatorContext.setMaxRunTime(new Duration(500, TimeUnit.MILLISECONDS));
+        SeriesScanOptions.Builder scanOptionsBuilder = new SeriesScanOptions.Builder();
+        scanOptionsBuilder.withAllSensors(Sets.newHashSet("sensor0"));
+        scanOptionsBuilder.withGlobalTimeFilter(splitTimeFilters.get(i).copy());
+        scanOptionsBuilder.withPushDownFilter(splitTimeFilters.get(i).copy());
+        SeriesScanOperator seriesScanOperator =
+            new SeriesScanOperator(
+                operatorContext,
+                planNodeId,
+                measurementPath,
+                scanOrder,
+                scanOptionsBuilder.build());
+        seriesScanOperator.initQueryDataSource(new QueryDataSource(seqResources, unSeqResources));
+        children.add(seriesScanOperator);
+      }
+      OrderedConcatOperator concatOperator =
+          new OrderedConcatOperator(
+              driverContext.addOperatorContext(
+                  splitTimeFilters.size(),
+                  new PlanNodeId(String.valueOf(splitTimeFilters.size())),
+                  OrderedConcatOperator.class.getSimpleName()),
+              children);
+
+      List<Long> times = new ArrayList<>();
+      while (concatOperator.hasNext()) {
+        TsBlock tsBlock = concatOperator.next();
+        if (tsBlock == null) {
+          continue;
+        }
+        for (int i = 0; i < tsBlock.getPositionCount(); i++) {
+          times.add(tsBlock.getTimeByIndex(i));
+        }
+      }
+      concatOperator.close();
+      return times;
+    } finally {
+      instanceNotificationExecutor.shutdown();
+    }
+  }
+}
@@ -23,10 +23,13 @@ import org.apache.iotdb.commons.concurrent.IoTDBThreadPoolFactory;
 import org.apache.iotdb.commons.exception.IllegalPathException;
 import org.apache.iotdb.commons.exception.MetadataException;
 import org.apache.iotdb.commons.path.MeasurementPath;
+import org.apache.iotdb.db.conf.IoTDBConfig;
+import org.apache.iotdb.db.conf.IoTDBDescriptor;
 import org.apache.iotdb.db.queryengine.common.FragmentInstanceId;
 import org.apache.iotdb.db.queryengine.common.PlanFragmentId;
 import org.apache.iotdb.db.queryengine.common.QueryId;
 import org.apache.iotdb.db.queryengine.execution.aggregation.AccumulatorFactory;
+import org.apache.iotdb.db.queryengine.execution.aggregation.AggregationWindowResultCache;
 import org.apache.iotdb.db.queryengine.execution.aggregation.Aggregator;
 import org.apache.iotdb.db.queryengine.execution.driver.DriverContext;
 import org.apache.iotdb.db.queryengine.execution.fragment.FragmentInstanceContext;
@@ -66,6 +69,7 @@ import static org.apache.iotdb.db.queryengine.execution.fragment.FragmentInstanc
 import static org.apache.iotdb.db.queryengine.execution.operator.AggregationOperatorTest.TEST_TIME_SLICE;
 import static org.apache.iotdb.db.queryengine.execution.operator.AggregationUtil.initTimeRangeIterator;
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
 
 public class SeriesAggregationScanOperatorTest {
 
@@ -457,6 +461,65 @@ public class SeriesAggregationScanOperatorTest {
     assertEquals(4, count);
   }
 
+  @Test
+  public void testGroupByWithWindowResultCache() throws Exception {
+    IoTDBConfig config = IoTDBDescriptor.getInstance().getConfig();
+    boolean enableCache = config.isEnableAggregationWindowResultCache();
+    config.setEnableAggregationWindowResultCache(true);
+    AggregationWindowResultCache.getInstance().clear();
+    try {
+      int[][] result =
+          new int[][] {
+            {20000, 20100, 10200, 10300},
+            {20099, 20199, 299, 398},
+            {20099, 20199, 10259, 10379},
+            {20000, 20100, 260, 380}
+          };
+      List<TAggregationType> aggregationTypes = new ArrayList<>();
+      aggregationTypes.add(TAggregationType.FIRST_VALUE);
+      aggregationTypes.add(TAggregationType.LAST_VALUE);
+      aggregationTypes.add(TAggregationType.MAX_VALUE);
+      aggregationTypes.add(TAggregationType.MIN_VALUE);
+      GroupByTimeParameter groupByTimeParameter =
+          new GroupByTimeParameter(
+              0, 399, new TimeDuration(0, 100), new TimeDuration(0, 100), true);
+      // the second run fetches all the windows from cache
+      for (int run = 0; run < 2; run++) {
+        List<Aggregator> aggregators = new ArrayList<>();
+        AccumulatorFactory.createAccumulators(
+                aggregationTypes,
+                TSDataType.INT32,
+                Collections.emptyList(),
+                Collections.emptyMap(),
+                true)
+            .forEach(o -> aggregators.add(new Aggregator(o, AggregationStep.SINGLE)));
+        SeriesAggregationScanOperator seriesAggregationScanOperator =
+            initSeriesAggregationScanOperator(aggregators, null, true, groupByTimeParameter);
+        seriesAggregationScanOperator.enableWindowResultCache(
+            SERIES_SCAN_OPERATOR_TEST_SG + ".device0", "testGroupByWithWindowResultCache");
+        int count = 0;
+        while (seriesAggregationScanOperator.hasNext()) {
+          TsBlock resultTsBlock = seriesAggregationScanOperator.next();
+          int positionCount = resultTsBlock.getPositionCount();
+          for (int pos = 0; pos < positionCount; pos++) {
+            assertEquals(100 * count, resultTsBlock.getTimeColumn().getLong(pos));
+            assertEquals(result[0][count], resultTsBlock.getColumn(0).getInt(pos));
+            assertEquals(result[1][count], resultTsBlock.getColumn(1).getInt(pos));
+            assertEquals(result[2][count], resultTsBlock.getColumn(2).getInt(pos));
+            assertEquals(result[3][count], resultTsBlock.getColumn(3).getInt(pos));
+            count++;
+          }
+        }
+        assertEquals(4, count);
+        assertEquals(4, AggregationWindowResultCache.getInstance().size());
+      }
+      assertTrue(AggregationWindowResultCache.getInstance().getHitRate() > 0);
+    } finally {
+      config.setEnableAggregationWindowResultCache(enableCache);
+      AggregationWindowResultCache.getInstance().clear();
+    }
+  }
+
   @Test
   public void testGroupByWithMultiFunctionOrderByTimeDesc() throws Exception {
     int[][] result =
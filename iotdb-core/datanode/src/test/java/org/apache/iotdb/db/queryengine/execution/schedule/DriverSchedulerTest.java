@@ -22,6 +22,7 @@ import org.apache.iotdb.db.conf.IoTDBDescriptor;
 import org.apache.iotdb.db.queryengine.common.FragmentInstanceId;
 import org.apache.iotdb.db.queryengine.common.PlanFragmentId;
 import org.apache.iotdb.db.queryengine.common.QueryId;
+import org.apache.iotdb.db.queryengine.common.SessionInfo;
 import org.apache.iotdb.db.queryengine.exception.CpuNotEnoughException;
 import org.apache.iotdb.db.queryengine.exception.MemoryNotEnoughException;
 import org.apache.iotdb.db.queryengine.execution.driver.DriverContext;
@@ -54,6 +55,63 @@ public class DriverSchedulerTest {
     manager.getTimeoutQueue().clear();
   }
 
+  /**
+   * Queries are admitted once by the coordinator, so all fragment instances of the queries of one
+   * user are scheduled right away, whatever the order they arrive at the DataNode is.
+   */
+  @Test
+  public void testSubmitFragmentInstancesOfOneUser()
+      throws CpuNotEnoughException, MemoryNotEnoughException {
+    int originMaxConcurrentQueriesPerUser =
+        IoTDBDescriptor.getInstance().getConfig().getMaxConcurrentQueriesPerUser();
+    IoTDBDescriptor.getInstance().getConfig().setMaxConcurrentQueriesPerUser(1);
+    try {
+      manager.setBlockManager(Mockito.mock(IMPPDataExchangeManager.class));
+      SessionInfo sessionInfo = new SessionInfo(0, "user1", "+08:00");
+      QueryId queryId1 = new QueryId("test1");
+      QueryId queryId2 = new QueryId("test2");
+      // the two fragment instances of each query arrive in the reverse order of the queries
+      manager.submitDrivers(
+          queryId1,
+          Collections.singletonList(mockDriver(queryId1, "inst-0")),
+          QUERY_TIMEOUT_MS,
+          sessionInfo);
+      manager.submitDrivers(
+          queryId2,
+          Collections.singletonList(mockDriver(queryId2, "inst-0")),
+          QUERY_TIMEOUT_MS,
+          sessionInfo);
+      manager.submitDrivers(
+          queryId2,
+          Collections.singletonList(mockDriver(queryId2, "inst-1")),
+          QUERY_TIMEOUT_MS,
+          sessionInfo);
+      manager.submitDrivers(
+          queryId1,
+          Collections.singletonList(mockDriver(queryId1, "inst-1")),
+          QUERY_TIMEOUT_MS,
+          sessionInfo);
+
+      Assert.assertEquals(2, manager.getQueryMap().size());
+      Assert.assertEquals(2, manager.getQueryMap().get(queryId1).size());
+      Assert.assertEquals(2, manager.getQueryMap().get(queryId2).size());
+      Assert.assertEquals(4, manager.getReadyQueue().size());
+    } finally {
+      IoTDBDescriptor.getInstance()
+          .getConfig()
+          .setMaxConcurrentQueriesPerUser(originMaxConcurrentQueriesPerUser);
+    }
+  }
+
+  private IDriver mockDriver(QueryId queryId, String instanceId) {
+    FragmentInstanceId fragmentInstanceId =
+        new FragmentInstanceId(new PlanFragmentId(queryId, 0), instanceId);
+    IDriver mockDriver = Mockito.mock(IDriver.class);
+    Mockito.when(mockDriver.getDriverTaskId()).thenReturn(new DriverTaskId(fragmentInstanceId, 0));
+    Mockito.when(mockDriver.getDriverContext()).thenReturn(new DriverContext());
+    return mockDriver;
+  }
+
   @Test
   public void testManagingDriver() throws CpuNotEnoughException, MemoryNotEnoughException {
     IMPPDataExchangeManager mockMPPDataExchangeManager =
@@ -37,6 +37,7 @@ import org.mockito.Mockito;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.OptionalInt;
+import java.util.concurrent.TimeUnit;
 
 public class MultilevelPriorityQueueTest {
   @Test
@@ -177,6 +178,60 @@ public class MultilevelPriorityQueueTest {
     }
   }
 
+  @Test
+  public void testPushAndPollWithShortQueryLane() {
+    try {
+      MultilevelPriorityQueue queue =
+          new MultilevelPriorityQueue(2, 1000, new DriverTask(), TimeUnit.SECONDS.toNanos(1));
+      DriverTaskHandle longQueryHandle =
+          new DriverTaskHandle(1, queue, OptionalInt.of(Integer.MAX_VALUE));
+      longQueryHandle.addScheduledTimeInNanos(TimeUnit.SECONDS.toNanos(2));
+      DriverTask e1 = mockDriverTask(mockDriverTaskId(), longQueryHandle);
+      queue.push(e1);
+      Assert.assertEquals(0, queue.getShortQueryLaneQueue().size());
+
+      DriverTaskHandle shortQueryHandle =
+          new DriverTaskHandle(2, queue, OptionalInt.of(Integer.MAX_VALUE));
+      DriverTask e2 =
+          mockDriverTask(
+              new DriverTaskId(
+                  new FragmentInstanceId(new PlanFragmentId(new QueryId("test"), 0), "inst-1"), 0),
+              shortQueryHandle);
+      queue.push(e2);
+      Assert.assertEquals(1, queue.getShortQueryLaneQueue().size());
+      Assert.assertEquals(2, queue.size());
+
+      // the short query is polled first although it is pushed later
+      Assert.assertEquals(
+          e2.getDriverTaskId().toString(), queue.poll().getDriverTaskId().toString());
+      Assert.assertEquals(
+          e1.getDriverTaskId().toString(), queue.poll().getDriverTaskId().toString());
+      Assert.assertEquals(0, queue.size());
+
+      // the query has used up its time in the lane after being pushed
+      DriverTask e3 =
+          mockDriverTask(
+              new DriverTaskId(
+                  new FragmentInstanceId(new PlanFragmentId(new QueryId("test"), 0), "inst-2"), 0),
+              shortQueryHandle);
+      queue.push(e3);
+      Assert.assertEquals(1, queue.getShortQueryLaneQueue().size());
+      shortQueryHandle.addScheduledTimeInNanos(TimeUnit.SECONDS.toNanos(2));
+      Assert.assertEquals(
+          e3.getDriverTaskId().toString(), queue.poll().getDriverTaskId().toString());
+      Assert.assertEquals(0, queue.getShortQueryLaneQueue().size());
+      Assert.assertEquals(0, queue.size());
+    } catch (Exception e) {
+      Assert.fail();
+    }
+  }
+
+  private DriverTask mockDriverTask(DriverTaskId driverTaskID, DriverTaskHandle driverTaskHandle) {
+    IDriver mockDriver = Mockito.mock(IDriver.class);
+    Mockito.when(mockDriver.getDriverTaskId()).thenReturn(driverTaskID);
+    return new DriverTask(mockDriver, 100L, DriverTaskStatus.READY, driverTaskHandle, 0, false);
+  }
+
   private DriverTask mockDriverTask(DriverTaskId driverTaskID, boolean isHighestPriority) {
     DriverScheduler manager = DriverScheduler.getInstance();
     IDriver mockDriver = Mockito.mock(IDriver.class);
@@ -0,0 +1,107 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.iotdb.db.queryengine.plan;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+public class QueryAdmissionControllerTest {
+
+  private static final String USER = "user1";
+  private static final long TIMEOUT_MS = 60_000L;
+
+  @Test
+  public void testAdmitInOrderOfArrival() throws Exception {
+    QueryAdmissionController controller = new QueryAdmissionController(1);
+    Assert.assertTrue(controller.admit(1L, USER, TIMEOUT_MS));
+    // admitting an admitted query again does not count it twice
+    Assert.assertTrue(controller.admit(1L, USER, TIMEOUT_MS));
+    Assert.assertEquals(1, controller.getRunningQueryCount(USER));
+
+    CompletableFuture<Boolean> query2 = admitAsync(controller, 2L);
+    waitForPendingQueries(controller, 1);
+    CompletableFuture<Boolean> query3 = admitAsync(controller, 3L);
+    waitForPendingQueries(controller, 2);
+
+    // queries of other users, root and unknown users are not limited
+    Assert.assertTrue(controller.admit(4L, "user2", TIMEOUT_MS));
+    Assert.assertTrue(controller.admit(5L, "root", TIMEOUT_MS));
+    Assert.assertTrue(controller.admit(6L, null, TIMEOUT_MS));
+
+    // the query arriving first is admitted first
+    controller.release(1L);
+    Assert.assertTrue(query2.get(TIMEOUT_MS, TimeUnit.MILLISECONDS));
+    Assert.assertFalse(query3.isDone());
+    Assert.assertEquals(1, controller.getPendingQueryCount());
+
+    controller.release(2L);
+    Assert.assertTrue(query3.get(TIMEOUT_MS, TimeUnit.MILLISECONDS));
+    Assert.assertEquals(0, controller.getPendingQueryCount());
+    controller.release(3L);
+    Assert.assertEquals(0, controller.getRunningQueryCount(USER));
+  }
+
+  @Test
+  public void testTimeout() throws Exception {
+    QueryAdmissionController controller = new QueryAdmissionController(1);
+    Assert.assertTrue(controller.admit(1L, USER, TIMEOUT_MS));
+    Assert.assertFalse(controller.admit(2L, USER, 10));
+    Assert.assertEquals(0, controller.getPendingQueryCount());
+
+    // releasing a query which is not admitted does nothing
+    controller.release(2L);
+    Assert.assertEquals(1, controller.getRunningQueryCount(USER));
+    controller.release(1L);
+    Assert.assertTrue(controller.admit(2L, USER, 10));
+  }
+
+  @Test
+  public void testNoLimit() throws Exception {
+    QueryAdmissionController controller = new QueryAdmissionController(0);
+    for (long i = 0; i < 10; i++) {
+      Assert.assertTrue(controller.admit(i, USER, 10));
+    }
+    Assert.assertEquals(0, controller.getPendingQueryCount());
+  }
+
+  private CompletableFuture<Boolean> admitAsync(QueryAdmissionController controller, long id) {
+    return CompletableFuture.supplyAsync(
+        () -> {
+          try {
+            return controller.admit(id, USER, TIMEOUT_MS);
+          } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+          }
+        });
+  }
+
+  private void waitForPendingQueries(QueryAdmissionController controller, int count)
+      throws InterruptedException {
+    long deadline = System.currentTimeMillis() + TIMEOUT_MS;
+    while (controller.getPendingQueryCount() < count && System.currentTimeMillis() < deadline) {
+      Thread.sleep(10);
+    }
+    Assert.assertEquals(count, controller.getPendingQueryCount());
+  }
+}
@@ -0,0 +1,274 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.iotdb.db.queryengine.plan.plan;
+
+import org.apache.iotdb.common.rpc.thrift.TAggregationType;
+import org.apache.iotdb.commons.concurrent.IoTDBThreadPoolFactory;
+import org.apache.iotdb.commons.path.MeasurementPath;
+import org.apache.iotdb.db.conf.IoTDBConfig;
+import org.apache.iotdb.db.conf.IoTDBDescriptor;
+import org.apache.iotdb.db.queryengine.common.FragmentInstanceId;
+import org.apache.iotdb.db.queryengine.common.PlanFragmentId;
+import org.apache.iotdb.db.queryengine.common.QueryId;
+import org.apache.iotdb.db.queryengine.execution.driver.DataDriver;
+import org.apache.iotdb.db.queryengine.execution.driver.IDriver;
+import org.apache.iotdb.db.queryengine.execution.exchange.StubSink;
+import org.apache.iotdb.db.queryengine.execution.fragment.DataNodeQueryContext;
+import org.apache.iotdb.db.queryengine.execution.fragment.FragmentInstanceContext;
+import org.apache.iotdb.db.queryengine.execution.fragment.FragmentInstanceStateMachine;
+import org.apache.iotdb.db.queryengine.execution.operator.Operator;
+import org.apache.iotdb.db.queryengine.execution.operator.process.AggregationOperator;
+import org.apache.iotdb.db.queryengine.execution.operator.source.SeriesAggregationScanOperator;
+import org.apache.iotdb.db.queryengine.plan.analyze.TypeProvider;
+import org.apache.iotdb.db.queryengine.plan.expression.leaf.TimeSeriesOperand;
+import org.apache.iotdb.db.queryengine.plan.planner.LocalExecutionPlanContext;
+import org.apache.iotdb.db.queryengine.plan.planner.OperatorTreeGenerator;
+import org.apache.iotdb.db.queryengine.plan.planner.PipelineDriverFactory;
+import org.apache.iotdb.db.queryengine.plan.planner.plan.node.PlanNodeId;
+import org.apache.iotdb.db.queryengine.plan.planner.plan.node.source.SeriesAggregationScanNode;
+import org.apache.iotdb.db.queryengine.plan.planner.plan.parameter.AggregationDescriptor;
+import org.apache.iotdb.db.queryengine.plan.planner.plan.parameter.AggregationStep;
+import org.apache.iotdb.db.queryengine.plan.planner.plan.parameter.GroupByTimeParameter;
+import org.apache.iotdb.db.queryengine.plan.statement.component.Ordering;
+import org.apache.iotdb.db.storageengine.dataregion.DataRegion;
+import org.apache.iotdb.db.storageengine.dataregion.read.QueryDataSource;
+import org.apache.iotdb.db.storageengine.dataregion.read.reader.series.SeriesReaderTestUtil;
+import org.apache.iotdb.db.storageengine.dataregion.tsfile.TsFileManager;
+import org.apache.iotdb.db.storageengine.dataregion.tsfile.TsFileResource;
+import org.apache.iotdb.tsfile.file.metadata.enums.TSDataType;
+import org.apache.iotdb.tsfile.read.common.block.TsBlock;
+import org.apache.iotdb.tsfile.utils.TimeDuration;
+import org.apache.iotdb.tsfile.write.schema.MeasurementSchema;
+
+import io.airlift.units.Duration;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.ArgumentMatchers;
+import org.mockito.Mockito;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import static org.apache.iotdb.db.queryengine.execution.fragment.FragmentInstanceContext.createFragmentInstanceContext;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+/**
+ * Compare the results of aggregation scans split into time ranges by {@link
+ * IoTDBConfig#isEnableIntraSeriesParallelScan()} with the ones of unsplit scans.
+ */
+public class IntraSeriesParallelScanTest {
+
+  private static final String SG = "root.IntraSeriesParallelScanTest";
+  private static final IoTDBConfig CONFIG = IoTDBDescriptor.getInstance().getConfig();
+  private static final Duration EXECUTION_TIME_SLICE =
+      new Duration(CONFIG.getDriverTaskExecutionTimeSliceInMs(), TimeUnit.MILLISECONDS);
+  private static final int MAX_ROUND_NUM = 100000;
+
+  private final List<String> deviceIds = new ArrayList<>();
+  private final List<MeasurementSchema> measurementSchemas = new ArrayList<>();
+  private final List<TsFileResource> seqResources = new ArrayList<>();
+  private final List<TsFileResource> unSeqResources = new ArrayList<>();
+
+  private ExecutorService instanceNotificationExecutor;
+  private boolean originEnableIntraSeriesParallelScan;
+  private int originMinFileNumPerSplit;
+  private int queryNum = 0;
+
+  @Before
+  public void setUp() throws Exception {
+    // five sequence files starting at 0, 100, 200, 300 and 400, so a scan with dop 3 is split at
+    // 100 and 300
+    SeriesReaderTestUtil.setUp(measurementSchemas, deviceIds, seqResources, unSeqResources, SG);
+    instanceNotificationExecutor =
+        IoTDBThreadPoolFactory.newFixedThreadPool(1, "test-instance-notification");
+    originEnableIntraSeriesParallelScan = CONFIG.isEnableIntraSeriesParallelScan();
+    originMinFileNumPerSplit = CONFIG.getIntraSeriesParallelScanMinFileNumPerSplit();
+    CONFIG.setIntraSeriesParallelScanMinFileNumPerSplit(1);
+  }
+
+  @After
+  public void tearDown() throws Exception {
+    CONFIG.setEnableIntraSeriesParallelScan(originEnableIntraSeriesParallelScan);
+    CONFIG.setIntraSeriesParallelScanMinFileNumPerSplit(originMinFileNumPerSplit);
+    instanceNotificationExecutor.shutdown();
+    SeriesReaderTestUtil.tearDown(seqResources, unSeqResources);
+  }
+
+  @Test
+  public void testAggregationWithoutGroupBy() throws Exception {
+    for (Ordering scanOrder : Ordering.values()) {
+      List<List<Object>> expected = execute(scanOrder, null, false);
+      List<List<Object>> actual = execute(scanOrder, null, true);
+      assertEquals(1, expected.size());
+      // count
+      assertEquals(500L, expected.get(0).get(1));
+      assertEquals(expected, actual);
+    }
+  }
+
+  @Test
+  public void testGroupByTimeCrossingSplitPoints() throws Exception {
+    // windows [70, 140) and [280, 350) cross the split points
+    GroupByTimeParameter groupByTimeParameter =
+        new GroupByTimeParameter(0, 500, new TimeDuration(0, 70), new TimeDuration(0, 70), true);
+    for (Ordering scanOrder : Ordering.values()) {
+      List<List<Object>> expected = execute(scanOrder, groupByTimeParameter, false);
+      List<List<Object>> actual = execute(scanOrder, groupByTimeParameter, true);
+      assertEquals(8, expected.size());
+      assertEquals(expected, actual);
+    }
+  }
+
+  @Test
+  public void testSlidingGroupByTimeCrossingSplitPoints() throws Exception {
+    // windows overlap each other, and some of them are out of the data
+    GroupByTimeParameter groupByTimeParameter =
+        new GroupByTimeParameter(50, 650, new TimeDuration(0, 120), new TimeDuration(0, 50), true);
+    for (Ordering scanOrder : Ordering.values()) {
+      List<List<Object>> expected = execute(scanOrder, groupByTimeParameter, false);
+      List<List<Object>> actual = execute(scanOrder, groupByTimeParameter, true);
+      assertEquals(expected, actual);
+    }
+  }
+
+  /**
+   * Plan and run count, avg, first_value and last_value of one series.
+   *
+   * @return the result rows, each of which begins with the timestamp
+   */
+  private List<List<Object>> execute(
+      Ordering scanOrder, GroupByTimeParameter groupByTimeParameter, boolean split)
+      throws Exception {
+    CONFIG.setEnableIntraSeriesParallelScan(split);
+
+    MeasurementPath seriesPath = new MeasurementPath(SG + ".device0.sensor0", TSDataType.INT32);
+    TypeProvider typeProvider = new TypeProvider();
+    List<AggregationDescriptor> descriptors = new ArrayList<>();
+    for (TAggregationType aggregationType :
+        Arrays.asList(
+            TAggregationType.COUNT,
+            TAggregationType.AVG,
+            TAggregationType.FIRST_VALUE,
+            TAggregationType.LAST_VALUE)) {
+      AggregationDescriptor descriptor =
+          new AggregationDescriptor(
+              aggregationType.name().toLowerCase(),
+              AggregationStep.SINGLE,
+              Collections.singletonList(new TimeSeriesOperand(seriesPath)));
+      descriptors.add(descriptor);
+      TSDataType outputType =
+          aggregationType == TAggregationType.COUNT
+              ? TSDataType.INT64
+              : aggregationType == TAggregationType.AVG ? TSDataType.DOUBLE : TSDataType.INT32;
+      descriptor.getOutputColumnNames().forEach(name -> typeProvider.setType(name, outputType));
+    }
+    SeriesAggregationScanNode node =
+        new SeriesAggregationScanNode(
+            new PlanNodeId("seriesAggregationScanNode"),
+            seriesPath,
+            descriptors,
+            scanOrder,
+            groupByTimeParameter);
+
+    QueryId queryId = new QueryId("stub_query_" + queryNum++);
+    FragmentInstanceId instanceId =
+        new FragmentInstanceId(new PlanFragmentId(queryId, 0), "stub-instance");
+    FragmentInstanceStateMachine stateMachine =
+        new FragmentInstanceStateMachine(instanceId, instanceNotificationExecutor);
+    FragmentInstanceContext fragmentInstanceContext =
+        createFragmentInstanceContext(instanceId, stateMachine);
+    TsFileManager tsFileManager = Mockito.mock(TsFileManager.class);
+    Mockito.when(tsFileManager.getTsFileList(true)).thenReturn(seqResources);
+    DataRegion dataRegion = Mockito.mock(DataRegion.class);
+    Mockito.when(dataRegion.getTsFileManager()).thenReturn(tsFileManager);
+    Mockito.when(
+            dataRegion.query(
+                ArgumentMatchers.any(),
+                ArgumentMatchers.any(),
+                ArgumentMatchers.any(),
+                ArgumentMatchers.any()))
+        .thenReturn(new QueryDataSource(seqResources, unSeqResources));
+    fragmentInstanceContext.setDataRegion(dataRegion);
+    fragmentInstanceContext.setSourcePaths(Collections.singletonList(seriesPath));
+
+    LocalExecutionPlanContext context =
+        new LocalExecutionPlanContext(
+            typeProvider, fragmentInstanceContext, new DataNodeQueryContext(1));
+    context.setDegreeOfParallelism(3);
+    Operator root = new OperatorTreeGenerator().visitSeriesAggregationScan(node, context);
+    if (split) {
+      assertTrue(root instanceof AggregationOperator);
+      assertEquals(2, context.getPipelineNumber());
+    } else {
+      assertTrue(root instanceof SeriesAggregationScanOperator);
+      assertEquals(0, context.getPipelineNumber());
+    }
+
+    StubSink stubSink = new StubSink(fragmentInstanceContext);
+    context.getDriverContext().setSink(stubSink);
+    List<IDriver> drivers = new ArrayList<>();
+    for (PipelineDriverFactory driverFactory : context.getPipelineDriverFactories()) {
+      drivers.add(driverFactory.createDriver());
+    }
+    drivers.add(new DataDriver(root, context.getDriverContext(), 0));
+    fragmentInstanceContext.initializeNumOfDrivers(drivers.size());
+    try {
+      // run the drivers in turn, the driver of the merging pipeline is blocked until the others
+      // produce partial results
+      for (int round = 0; !drivers.stream().allMatch(IDriver::isFinished); round++) {
+        if (round >= MAX_ROUND_NUM) {
+          fail("The drivers are not finished");
+        }
+        for (IDriver driver : drivers) {
+          if (!driver.isFinished()) {
+            driver.processFor(EXECUTION_TIME_SLICE);
+          }
+        }
+      }
+    } finally {
+      for (IDriver driver : drivers) {
+        driver.close();
+      }
+    }
+
+    List<List<Object>> result = new ArrayList<>();
+    for (TsBlock tsBlock : stubSink.getTsBlocks()) {
+      assertEquals(4, tsBlock.getValueColumnCount());
+      for (int i = 0; i < tsBlock.getPositionCount(); i++) {
+        List<Object> row = new ArrayList<>();
+        row.add(tsBlock.getTimeByIndex(i));
+        for (int j = 0; j < tsBlock.getValueColumnCount(); j++) {
+          row.add(tsBlock.getColumn(j).isNull(i) ? null : tsBlock.getColumn(j).getObject(i));
+        }
+        result.add(row);
+      }
+    }
+    assertFalse(result.isEmpty());
+    return result;
+  }
+}
@@ -19,12 +19,15 @@
 
 package org.apache.iotdb.db.queryengine.transformation.dag.column.binary;
 
+import org.apache.iotdb.db.queryengine.transformation.dag.column.ColumnTransformer;
+import org.apache.iotdb.db.queryengine.transformation.dag.column.leaf.ConstantColumnTransformer;
 import org.apache.iotdb.db.queryengine.transformation.dag.column.leaf.IdentityColumnTransformer;
 import org.apache.iotdb.tsfile.file.metadata.enums.TSDataType;
 import org.apache.iotdb.tsfile.read.common.block.TsBlock;
 import org.apache.iotdb.tsfile.read.common.block.TsBlockBuilder;
 import org.apache.iotdb.tsfile.read.common.block.column.Column;
 import org.apache.iotdb.tsfile.read.common.block.column.ColumnBuilder;
+import org.apache.iotdb.tsfile.read.common.block.column.IntColumn;
 import org.apache.iotdb.tsfile.read.common.block.column.TimeColumnBuilder;
 import org.apache.iotdb.tsfile.read.common.type.Type;
 import org.apache.iotdb.tsfile.read.common.type.TypeFactory;
@@ -34,6 +37,7 @@ import org.junit.Before;
 import org.junit.Test;
 
 import java.util.Arrays;
+import java.util.Optional;
 
 public class ArithmeticAndCompareBinaryColumnTransformerTest {
 
@@ -215,4 +219,74 @@ public class ArithmeticAndCompareBinaryColumnTransformerTest {
       Assert.assertEquals(leftInput[i] != rightInput[i], res.getBoolean(i));
     }
   }
+
+  @Test
+  public void testTypeSpecializedKernels() {
+    Type doubleType = TypeFactory.getType(TSDataType.DOUBLE);
+    Type longType = TypeFactory.getType(TSDataType.INT64);
+    long[] longInput = new long[] {5, 1, 0, -3, 7, 2};
+    double[] doubleInput = new double[] {1.5, 1, Double.NaN, -3, 0, 2.5};
+    TsBlockBuilder builder =
+        new TsBlockBuilder(longInput.length, Arrays.asList(TSDataType.INT64, TSDataType.DOUBLE));
+    for (int i = 0; i < longInput.length; i++) {
+      builder.getTimeColumnBuilder().writeLong(i);
+      if (i == 4) {
+        builder.getColumnBuilder(0).appendNull();
+      } else {
+        builder.getColumnBuilder(0).writeLong(longInput[i]);
+      }
+      if (i == 5) {
+        builder.getColumnBuilder(1).appendNull();
+      } else {
+        builder.getColumnBuilder(1).writeDouble(doubleInput[i]);
+      }
+      builder.declarePosition();
+    }
+    // skip the first row, so that the arrays of the columns start from offset 1
+    TsBlock tsBlock = builder.build().getRegion(1, longInput.length - 1);
+    int positionCount = tsBlock.getPositionCount();
+
+    ColumnTransformer longOperand = new IdentityColumnTransformer(longType, 0);
+    ColumnTransformer doubleOperand = new IdentityColumnTransformer(doubleType, 1);
+    ColumnTransformer constantOperand =
+        new ConstantColumnTransformer(
+            returnType, new IntColumn(1, Optional.empty(), new int[] {2}));
+    BinaryColumnTransformer multiplication =
+        new ArithmeticMultiplicationColumnTransformer(doubleType, longOperand, constantOperand);
+    BinaryColumnTransformer addition =
+        new ArithmeticAdditionColumnTransformer(doubleType, multiplication, doubleOperand);
+    BinaryColumnTransformer lessThan =
+        new CompareLessThanColumnTransformer(booleanType, longOperand, doubleOperand);
+    longOperand.addReferenceCount();
+    longOperand.addReferenceCount();
+    doubleOperand.addReferenceCount();
+    doubleOperand.addReferenceCount();
+    constantOperand.addReferenceCount();
+    multiplication.addReferenceCount();
+    addition.addReferenceCount();
+    lessThan.addReferenceCount();
+    ((IdentityColumnTransformer) longOperand).initFromTsBlock(tsBlock);
+    ((IdentityColumnTransformer) doubleOperand).initFromTsBlock(tsBlock);
+    ((ConstantColumnTransformer) constantOperand).initFromTsBlock(tsBlock);
+
+    addition.evaluate();
+    lessThan.evaluate();
+    Column sum = addition.getColumn();
+    Column compared = lessThan.getColumn();
+    Assert.assertEquals(positionCount, sum.getPositionCount());
+    Assert.assertEquals(positionCount, compared.getPositionCount());
+    for (int i = 0; i < positionCount; i++) {
+      int row = i + 1;
+      if (row == 4 || row == 5) {
+        Assert.assertTrue(sum.isNull(i));
+        Assert.assertTrue(compared.isNull(i));
+        continue;
+      }
+      Assert.assertEquals(longInput[row] * 2.0 + doubleInput[row], sum.getDouble(i), 0);
+      // comparing with NaN is always false
+      Assert.assertEquals(
+          !Double.isNaN(doubleInput[row]) && longInput[row] < doubleInput[row],
+          compared.getBoolean(i));
+    }
+  }
 }
@@ -0,0 +1,134 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.iotdb.db.storageengine.buffer;
+
+import org.apache.iotdb.db.storageengine.buffer.ChunkCache.ChunkCacheKey;
+import org.apache.iotdb.db.storageengine.dataregion.tsfile.TsFileID;
+import org.apache.iotdb.tsfile.file.MetaMarker;
+import org.apache.iotdb.tsfile.file.header.ChunkHeader;
+import org.apache.iotdb.tsfile.file.metadata.enums.CompressionType;
+import org.apache.iotdb.tsfile.file.metadata.enums.TSDataType;
+import org.apache.iotdb.tsfile.file.metadata.enums.TSEncoding;
+import org.apache.iotdb.tsfile.read.common.Chunk;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.nio.ByteBuffer;
+
+public class ChunkOffHeapCacheTest {
+
+  private static final TsFileID TS_FILE_ID = new TsFileID(1, 0, 1, 0);
+
+  @Test
+  public void testPutAndGet() {
+    // 16 segments, each of which holds 8 blocks
+    ChunkOffHeapCache cache = new ChunkOffHeapCache(16L * 8 * ChunkOffHeapCache.BLOCK_SIZE);
+    Assert.assertTrue(cache.isEnabled());
+
+    ChunkCacheKey key = newKey(0);
+    Assert.assertNull(cache.get(key));
+    Assert.assertEquals(1, cache.getMissCount());
+
+    // spans over a block boundary
+    Chunk chunk = newChunk(ChunkOffHeapCache.BLOCK_SIZE + 100, (byte) 7);
+    cache.put(key, chunk);
+    Chunk cachedChunk = cache.get(key);
+    Assert.assertNotNull(cachedChunk);
+    Assert.assertEquals(1, cache.getHitCount());
+    Assert.assertEquals(chunk.getHeader().getChunkType(), cachedChunk.getHeader().getChunkType());
+    Assert.assertEquals(chunk.getHeader().getDataSize(), cachedChunk.getHeader().getDataSize());
+    Assert.assertEquals(
+        chunk.getHeader().getSerializedSize(), cachedChunk.getHeader().getSerializedSize());
+    Assert.assertEquals(chunk.getHeader().getDataType(), cachedChunk.getHeader().getDataType());
+    Assert.assertEquals(
+        chunk.getHeader().getCompressionType(), cachedChunk.getHeader().getCompressionType());
+    Assert.assertEquals(
+        chunk.getHeader().getEncodingType(), cachedChunk.getHeader().getEncodingType());
+    Assert.assertEquals(chunk.getData(), cachedChunk.getData());
+    Assert.assertEquals(2L * ChunkOffHeapCache.BLOCK_SIZE, cache.getUsedMemory());
+
+    cache.invalidateAll();
+    Assert.assertNull(cache.get(key));
+    Assert.assertEquals(0, cache.getUsedMemory());
+  }
+
+  @Test
+  public void testEviction() {
+    // 16 segments, each of which holds 4 blocks
+    ChunkOffHeapCache cache = new ChunkOffHeapCache(16L * 4 * ChunkOffHeapCache.BLOCK_SIZE);
+    int chunkNum = 200;
+    for (int i = 0; i < chunkNum; i++) {
+      cache.put(newKey(i), newChunk(100, (byte) i));
+    }
+    // each chunk takes one block
+    Assert.assertEquals(16 * 4, cache.size());
+    Assert.assertEquals(chunkNum - 16 * 4, cache.getEvictionCount());
+    Assert.assertEquals(cache.getCapacity(), cache.getUsedMemory());
+
+    int cachedNum = 0;
+    for (int i = 0; i < chunkNum; i++) {
+      Chunk chunk = cache.get(newKey(i));
+      if (chunk != null) {
+        Assert.assertEquals(newChunk(100, (byte) i).getData(), chunk.getData());
+        cachedNum++;
+      }
+    }
+    Assert.assertEquals(16 * 4, cachedNum);
+  }
+
+  @Test
+  public void testTooLargeChunk() {
+    // 16 segments, each of which holds 4 blocks and admits chunks taking one block at most
+    ChunkOffHeapCache cache = new ChunkOffHeapCache(16L * 4 * ChunkOffHeapCache.BLOCK_SIZE);
+    cache.put(newKey(0), newChunk(ChunkOffHeapCache.BLOCK_SIZE, (byte) 0));
+    Assert.assertNull(cache.get(newKey(0)));
+    Assert.assertEquals(0, cache.getUsedMemory());
+  }
+
+  @Test
+  public void testDisabled() {
+    ChunkOffHeapCache cache = new ChunkOffHeapCache(0);
+    Assert.assertFalse(cache.isEnabled());
+    cache.put(newKey(0), newChunk(100, (byte) 0));
+    Assert.assertNull(cache.get(newKey(0)));
+    Assert.assertEquals(0, cache.getMissCount());
+  }
+
+  private ChunkCacheKey newKey(long offset) {
+    return new ChunkCacheKey("test.tsfile", TS_FILE_ID, offset, true);
+  }
+
+  private Chunk newChunk(int dataSize, byte value) {
+    byte[] data = new byte[dataSize];
+    for (int i = 0; i < dataSize; i++) {
+      data[i] = (byte) (value + i);
+    }
+    ChunkHeader header =
+        new ChunkHeader(
+            MetaMarker.ONLY_ONE_PAGE_CHUNK_HEADER,
+            null,
+            dataSize,
+            TSDataType.INT64,
+            CompressionType.LZ4,
+            TSEncoding.TS_2DIFF);
+    return new Chunk(header, ByteBuffer.wrap(data));
+  }
+}
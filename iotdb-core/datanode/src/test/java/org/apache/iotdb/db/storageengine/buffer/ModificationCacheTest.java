@@ -0,0 +1,86 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.iotdb.db.storageengine.buffer;
+
+import org.apache.iotdb.commons.exception.IllegalPathException;
+import org.apache.iotdb.commons.path.PartialPath;
+import org.apache.iotdb.db.storageengine.buffer.ModificationCache.FileModifications;
+import org.apache.iotdb.db.storageengine.dataregion.modification.Deletion;
+import org.apache.iotdb.db.storageengine.dataregion.modification.Modification;
+import org.apache.iotdb.db.storageengine.dataregion.modification.ModificationFile;
+import org.apache.iotdb.db.utils.constant.TestConstant;
+
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.List;
+
+public class ModificationCacheTest {
+
+  private final String modFilePath = TestConstant.BASE_OUTPUT_PATH.concat("cache.mods");
+
+  @After
+  public void tearDown() {
+    ModificationCache.getInstance().clear();
+    new File(modFilePath).delete();
+  }
+
+  @Test
+  public void testGetAndInvalidate() throws IOException, IllegalPathException {
+    PartialPath path = new PartialPath("root.sg.d1.s1");
+    try (ModificationFile modFile = new ModificationFile(modFilePath)) {
+      modFile.write(new Deletion(new PartialPath("root.sg.d1.s1"), 100, 0, 10));
+      modFile.write(new Deletion(new PartialPath("root.sg.d1.s1"), 100, 5, 20));
+      modFile.write(new Deletion(new PartialPath("root.sg.d1.*"), 100, 100, 200));
+      modFile.write(new Deletion(new PartialPath("root.sg.d2.s1"), 100, 30, 40));
+
+      FileModifications fileModifications = ModificationCache.getInstance().get(modFile);
+      List<Modification> modifications = fileModifications.getPathModifications(path);
+      // the two overlapped deletions of root.sg.d1.s1 are merged into one
+      Assert.assertEquals(2, modifications.size());
+      for (Modification modification : modifications) {
+        Deletion deletion = (Deletion) modification;
+        if (deletion.getPath().equals(path)) {
+          Assert.assertEquals(0, deletion.getStartTime());
+          Assert.assertEquals(20, deletion.getEndTime());
+        } else {
+          Assert.assertEquals(100, deletion.getStartTime());
+          Assert.assertEquals(200, deletion.getEndTime());
+        }
+      }
+      Assert.assertSame(modifications, fileModifications.getPathModifications(path));
+
+      // the file is not changed, so the parsed modifications are shared
+      Assert.assertSame(fileModifications, ModificationCache.getInstance().get(modFile));
+
+      // the file grows, so it is parsed again
+      modFile.write(new Deletion(new PartialPath("root.sg.d1.s1"), 100, 50, 60));
+      FileModifications newFileModifications = ModificationCache.getInstance().get(modFile);
+      Assert.assertNotSame(fileModifications, newFileModifications);
+      Assert.assertEquals(3, newFileModifications.getPathModifications(path).size());
+
+      modFile.remove();
+      Assert.assertNull(ModificationCache.getInstance().getIfPresent(modFilePath));
+    }
+  }
+}
@@ -0,0 +1,98 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.iotdb.db.storageengine.buffer;
+
+import org.apache.iotdb.db.conf.IoTDBDescriptor;
+import org.apache.iotdb.db.utils.constant.TestConstant;
+import org.apache.iotdb.tsfile.read.reader.LocalTsFileInput;
+import org.apache.iotdb.tsfile.read.reader.TsFileInput;
+
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.util.Random;
+
+public class ObjectStorageCacheTest {
+
+  private final String remoteFilePath = TestConstant.BASE_OUTPUT_PATH.concat("remote.tsfile");
+
+  @After
+  public void tearDown() {
+    ObjectStorageCache.getInstance().clear();
+    new File(remoteFilePath).delete();
+  }
+
+  @Test
+  public void testReadThroughCache() throws IOException {
+    int blockSize =
+        IoTDBDescriptor.getInstance().getConfig().getObjectStorageCacheBlockSizeInByte();
+    byte[] content = new byte[blockSize * 2 + blockSize / 2];
+    new Random(0).nextBytes(content);
+    File remoteFile = new File(remoteFilePath);
+    remoteFile.getParentFile().mkdirs();
+    Files.write(remoteFile.toPath(), content);
+
+    TsFileInput input =
+        ObjectStorageCache.getInstance()
+            .wrap(remoteFilePath, new LocalTsFileInput(remoteFile.toPath()));
+    try {
+      Assert.assertEquals(content.length, input.size());
+
+      // a read across two blocks
+      int position = blockSize - 10;
+      ByteBuffer buffer = ByteBuffer.allocate(20);
+      Assert.assertEquals(20, input.read(buffer, position));
+      assertContent(content, position, buffer);
+      Assert.assertEquals(2, ObjectStorageCache.getInstance().getCachedBlockNum());
+
+      // a read of the last block, which is shorter than others
+      buffer = ByteBuffer.allocate(blockSize);
+      position = blockSize * 2;
+      Assert.assertEquals(blockSize / 2, input.read(buffer, position));
+      assertContent(content, position, buffer);
+      Assert.assertEquals(3, ObjectStorageCache.getInstance().getCachedBlockNum());
+
+      // reads from the current position
+      input.position(5);
+      buffer = ByteBuffer.allocate(100);
+      Assert.assertEquals(100, input.read(buffer));
+      assertContent(content, 5, buffer);
+      Assert.assertEquals(105, input.position());
+      Assert.assertEquals(-1, input.read(ByteBuffer.allocate(1), content.length));
+
+      ObjectStorageCache.getInstance().invalidate(remoteFilePath);
+      Assert.assertEquals(0, ObjectStorageCache.getInstance().getCachedBlockNum());
+    } finally {
+      input.close();
+    }
+  }
+
+  private void assertContent(byte[] content, int position, ByteBuffer buffer) {
+    buffer.flip();
+    for (int i = 0; i < buffer.limit(); i++) {
+      Assert.assertEquals(content[position + i], buffer.get(i));
+    }
+  }
+}
@@ -0,0 +1,150 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.iotdb.db.storageengine.buffer;
+
+import org.apache.iotdb.db.storageengine.buffer.ChunkCache.ChunkCacheKey;
+import org.apache.iotdb.db.storageengine.dataregion.tsfile.TsFileID;
+import org.apache.iotdb.tsfile.file.header.PageHeader;
+import org.apache.iotdb.tsfile.file.metadata.enums.TSDataType;
+import org.apache.iotdb.tsfile.file.metadata.statistics.Statistics;
+import org.apache.iotdb.tsfile.read.reader.page.DecodedPage;
+import org.apache.iotdb.tsfile.read.reader.page.DecodedPageProvider;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+public class SharedScanPageCacheTest {
+
+  private static final int PAGE_SIZE = 100;
+  private static final long WINDOW_IN_MS = 1000;
+
+  private final AtomicLong nanos = new AtomicLong();
+  private final ChunkCacheKey chunkCacheKey =
+      new ChunkCacheKey("1-1-0-0.tsfile", new TsFileID(1, 0, 1, 0), 100, true);
+
+  @Test
+  public void testDecodeOnceUnderConcurrentGets() throws Exception {
+    SharedScanPageCache cache = new SharedScanPageCache(1024 * 1024, WINDOW_IN_MS, nanos::get);
+    DecodedPageProvider provider = cache.getDecodedPageProvider(chunkCacheKey);
+    PageHeader pageHeader = createPageHeader(0);
+    AtomicInteger decodeCount = new AtomicInteger();
+    int threadNum = 8;
+    CountDownLatch start = new CountDownLatch(1);
+    ExecutorService pool = Executors.newFixedThreadPool(threadNum);
+    try {
+      List<Future<DecodedPage>> futures = new ArrayList<>();
+      for (int i = 0; i < threadNum; i++) {
+        futures.add(
+            pool.submit(
+                () -> {
+                  start.await();
+                  return provider.getOrDecode(
+                      pageHeader,
+                      () -> {
+                        decodeCount.incrementAndGet();
+                        // keep the others waiting for this decoding
+                        LockSupport.parkNanos(TimeUnit.MILLISECONDS.toNanos(50));
+                        return createPage(0);
+                      });
+                }));
+      }
+      start.countDown();
+      DecodedPage first = futures.get(0).get(10, TimeUnit.SECONDS);
+      for (Future<DecodedPage> future : futures) {
+        Assert.assertSame(first, future.get(10, TimeUnit.SECONDS));
+      }
+      Assert.assertEquals(1, decodeCount.get());
+    } finally {
+      pool.shutdownNow();
+    }
+  }
+
+  @Test
+  public void testExpireAfterWindow() throws Exception {
+    SharedScanPageCache cache = new SharedScanPageCache(1024 * 1024, WINDOW_IN_MS, nanos::get);
+    DecodedPageProvider provider = cache.getDecodedPageProvider(chunkCacheKey);
+    PageHeader pageHeader = createPageHeader(0);
+    AtomicInteger decodeCount = new AtomicInteger();
+    DecodedPageProvider.PageDecoder decoder =
+        () -> {
+          decodeCount.incrementAndGet();
+          return createPage(0);
+        };
+
+    provider.getOrDecode(pageHeader, decoder);
+    // read again inside the window, which also restarts it
+    nanos.addAndGet(TimeUnit.MILLISECONDS.toNanos(WINDOW_IN_MS / 2));
+    provider.getOrDecode(pageHeader, decoder);
+    nanos.addAndGet(TimeUnit.MILLISECONDS.toNanos(WINDOW_IN_MS / 2));
+    provider.getOrDecode(pageHeader, decoder);
+    Assert.assertEquals(1, decodeCount.get());
+
+    nanos.addAndGet(TimeUnit.MILLISECONDS.toNanos(WINDOW_IN_MS + 1));
+    Assert.assertEquals(0, cache.size());
+    provider.getOrDecode(pageHeader, decoder);
+    Assert.assertEquals(2, decodeCount.get());
+  }
+
+  @Test
+  public void testEvictByWeight() throws Exception {
+    long pageWeight = createPage(0).getRetainedSizeInBytes();
+    // room for two pages with their keys, but not for three
+    SharedScanPageCache cache = new SharedScanPageCache(3 * pageWeight, WINDOW_IN_MS, nanos::get);
+    DecodedPageProvider provider = cache.getDecodedPageProvider(chunkCacheKey);
+    for (int i = 0; i < 5; i++) {
+      long startTime = (long) i * PAGE_SIZE;
+      provider.getOrDecode(createPageHeader(startTime), () -> createPage(startTime));
+    }
+    Assert.assertTrue(cache.size() <= 2);
+
+    cache.clear();
+    Assert.assertEquals(0, cache.size());
+  }
+
+  private static PageHeader createPageHeader(long startTime) {
+    Statistics<? extends Serializable> statistics = Statistics.getStatsByType(TSDataType.INT64);
+    for (long time = startTime; time < startTime + PAGE_SIZE; time++) {
+      statistics.update(time, time);
+    }
+    return new PageHeader(0, 0, statistics);
+  }
+
+  private static DecodedPage createPage(long startTime) {
+    long[] timestamps = new long[PAGE_SIZE];
+    long[] values = new long[PAGE_SIZE];
+    for (int i = 0; i < PAGE_SIZE; i++) {
+      timestamps[i] = startTime + i;
+      values[i] = startTime + i;
+    }
+    return new DecodedPage(TSDataType.INT64, PAGE_SIZE, timestamps, values);
+  }
+}
@@ -27,6 +27,7 @@ import org.apache.iotdb.commons.exception.MetadataException;
 import org.apache.iotdb.commons.exception.ShutdownException;
 import org.apache.iotdb.commons.path.MeasurementPath;
 import org.apache.iotdb.commons.path.PartialPath;
+import org.apache.iotdb.commons.utils.TimePartitionUtils;
 import org.apache.iotdb.db.conf.IoTDBConfig;
 import org.apache.iotdb.db.conf.IoTDBDescriptor;
 import org.apache.iotdb.db.exception.DataRegionException;
@@ -76,6 +77,7 @@ import java.io.IOException;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
 
 public class DataRegionTest {
   private static final IoTDBConfig config = IoTDBDescriptor.getInstance().getConfig();
@@ -225,6 +227,60 @@ public class DataRegionTest {
     }
   }
 
+  @Test
+  public void testConcurrentInsertIntoDifferentTimePartitions() throws Exception {
+    int partitionNum = 4;
+    int rowNum = 100;
+    long timePartitionInterval = TimePartitionUtils.getTimePartitionInterval();
+    List<Throwable> errors = new CopyOnWriteArrayList<>();
+    List<Thread> writers = new ArrayList<>();
+    for (int i = 0; i < partitionNum; i++) {
+      long partitionStartTime = i * timePartitionInterval;
+      Thread writer =
+          new Thread(
+              () -> {
+                try {
+                  for (int j = 1; j <= rowNum; j++) {
+                    TSRecord record = new TSRecord(partitionStartTime + j, deviceId);
+                    record.addTuple(
+                        DataPoint.getDataPoint(TSDataType.INT32, measurementId, String.valueOf(j)));
+                    dataRegion.insert(buildInsertRowNodeByTSRecord(record));
+                  }
+                } catch (Throwable e) {
+                  errors.add(e);
+                }
+              });
+      writers.add(writer);
+      writer.start();
+    }
+    // queries interleave with the insertions
+    for (int i = 0; i < 10; i++) {
+      dataRegion.query(
+          Collections.singletonList(new PartialPath(deviceId, measurementId)),
+          deviceId,
+          context,
+          null);
+    }
+    for (Thread writer : writers) {
+      writer.join();
+    }
+    Assert.assertTrue(errors.toString(), errors.isEmpty());
+    Assert.assertEquals(partitionNum, dataRegion.getWorkSequenceTsFileProcessors().size());
+
+    dataRegion.syncCloseAllWorkingTsFileProcessors();
+    QueryDataSource queryDataSource =
+        dataRegion.query(
+            Collections.singletonList(new PartialPath(deviceId, measurementId)),
+            deviceId,
+            context,
+            null);
+    Assert.assertEquals(partitionNum, queryDataSource.getSeqResources().size());
+    Assert.assertEquals(0, queryDataSource.getUnseqResources().size());
+    for (TsFileResource resource : queryDataSource.getSeqResources()) {
+      Assert.assertTrue(resource.isClosed());
+    }
+  }
+
   @Test
   public void testIoTDBTabletWriteAndSyncClose()
       throws QueryProcessException, IllegalPathException, WriteProcessException {
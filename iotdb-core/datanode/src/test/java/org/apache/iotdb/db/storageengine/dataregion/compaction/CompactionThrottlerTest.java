@@ -0,0 +1,124 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.iotdb.db.storageengine.dataregion.compaction;
+
+import org.apache.iotdb.db.conf.IoTDBConfig;
+import org.apache.iotdb.db.conf.IoTDBDescriptor;
+import org.apache.iotdb.db.storageengine.dataregion.compaction.schedule.CompactionThrottler;
+
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.concurrent.TimeUnit;
+
+public class CompactionThrottlerTest {
+
+  private final IoTDBConfig config = IoTDBDescriptor.getInstance().getConfig();
+  private boolean enableAdaptiveCompactionThrottle;
+  private int compactionThreadCount;
+  private int compactionWriteThroughputMbPerSec;
+
+  @Before
+  public void setUp() {
+    enableAdaptiveCompactionThrottle = config.isEnableAdaptiveCompactionThrottle();
+    compactionThreadCount = config.getCompactionThreadCount();
+    compactionWriteThroughputMbPerSec = config.getCompactionWriteThroughputMbPerSec();
+    config.setEnableAdaptiveCompactionThrottle(true);
+    config.setCompactionThreadCount(4);
+    config.setCompactionWriteThroughputMbPerSec(16);
+    CompactionThrottler.getInstance().reset();
+  }
+
+  @After
+  public void tearDown() {
+    config.setEnableAdaptiveCompactionThrottle(enableAdaptiveCompactionThrottle);
+    config.setCompactionThreadCount(compactionThreadCount);
+    config.setCompactionWriteThroughputMbPerSec(compactionWriteThroughputMbPerSec);
+    CompactionThrottler.getInstance().reset();
+  }
+
+  @Test
+  public void testAdjust() {
+    CompactionThrottler throttler = CompactionThrottler.getInstance();
+    Assert.assertEquals(16, throttler.getWriteThroughputMbPerSec(), 0);
+    Assert.assertEquals(4, throttler.getWorkingThreadNum());
+
+    // slow queries halve the throughput and park a thread
+    double slowLatency = config.getCompactionThrottleQueryLatencyThresholdInMs() + 1;
+    throttler.adjust(slowLatency, 0, 10);
+    Assert.assertEquals(8, throttler.getWriteThroughputMbPerSec(), 0);
+    Assert.assertEquals(3, throttler.getWorkingThreadNum());
+    Assert.assertTrue(throttler.isThreadWorking(2));
+    Assert.assertFalse(throttler.isThreadWorking(3));
+
+    // so does a busy disk, down to the lower bound
+    double busyQueueSize = config.getCompactionThrottleDiskQueueSizeThreshold() + 1;
+    for (int i = 0; i < 5; i++) {
+      throttler.adjust(0, busyQueueSize, 10);
+    }
+    Assert.assertEquals(
+        config.getCompactionThrottleMinWriteThroughputMbPerSec(),
+        throttler.getWriteThroughputMbPerSec(),
+        0);
+    Assert.assertEquals(1, throttler.getWorkingThreadNum());
+
+    // nothing changes without pending tasks
+    throttler.adjust(0, 0, 0);
+    Assert.assertEquals(1, throttler.getWorkingThreadNum());
+
+    // pending tasks increase the throughput up to the upper bound
+    for (int i = 0; i < 20; i++) {
+      throttler.adjust(0, 0, 10);
+    }
+    Assert.assertEquals(
+        config.getCompactionThrottleMaxWriteThroughputMbPerSec(),
+        throttler.getWriteThroughputMbPerSec(),
+        0);
+    Assert.assertEquals(4, throttler.getWorkingThreadNum());
+    Assert.assertEquals(10, throttler.getPendingTaskNum());
+  }
+
+  @Test
+  public void testQueryLatencyPercentile() {
+    CompactionThrottler throttler = CompactionThrottler.getInstance();
+    Assert.assertEquals(0, throttler.pollQueryLatencyInMs(), 0);
+
+    // a few slow queries do not hide behind the mean of many fast ones
+    for (int i = 1; i <= 100; i++) {
+      throttler.recordQueryLatency(TimeUnit.MILLISECONDS.toNanos(i));
+    }
+    Assert.assertEquals(99, throttler.pollQueryLatencyInMs(), 0);
+    // the latencies are cleared after each poll
+    Assert.assertEquals(0, throttler.pollQueryLatencyInMs(), 0);
+
+    // the latencies are sampled when there are too many queries
+    for (int i = 0; i < 10000; i++) {
+      throttler.recordQueryLatency(TimeUnit.MILLISECONDS.toNanos(1));
+    }
+    Assert.assertEquals(1, throttler.pollQueryLatencyInMs(), 0);
+
+    // nothing is recorded when the throttle is disabled
+    config.setEnableAdaptiveCompactionThrottle(false);
+    throttler.recordQueryLatency(TimeUnit.MILLISECONDS.toNanos(1));
+    Assert.assertEquals(0, throttler.pollQueryLatencyInMs(), 0);
+  }
+}
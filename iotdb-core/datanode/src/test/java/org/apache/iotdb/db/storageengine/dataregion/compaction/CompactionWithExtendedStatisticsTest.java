@@ -0,0 +1,158 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.iotdb.db.storageengine.dataregion.compaction;
+
+import org.apache.iotdb.commons.exception.MetadataException;
+import org.apache.iotdb.commons.path.MeasurementPath;
+import org.apache.iotdb.commons.path.PartialPath;
+import org.apache.iotdb.db.conf.IoTDBDescriptor;
+import org.apache.iotdb.db.exception.StorageEngineException;
+import org.apache.iotdb.db.storageengine.dataregion.compaction.execute.performer.ICompactionPerformer;
+import org.apache.iotdb.db.storageengine.dataregion.compaction.execute.performer.impl.FastCompactionPerformer;
+import org.apache.iotdb.db.storageengine.dataregion.compaction.execute.performer.impl.ReadChunkCompactionPerformer;
+import org.apache.iotdb.db.storageengine.dataregion.compaction.execute.task.InnerSpaceCompactionTask;
+import org.apache.iotdb.db.storageengine.dataregion.tsfile.TsFileResource;
+import org.apache.iotdb.tsfile.common.conf.TSFileConfig;
+import org.apache.iotdb.tsfile.common.conf.TSFileDescriptor;
+import org.apache.iotdb.tsfile.exception.write.WriteProcessException;
+import org.apache.iotdb.tsfile.file.MetaMarker;
+import org.apache.iotdb.tsfile.file.header.ChunkHeader;
+import org.apache.iotdb.tsfile.file.header.PageHeader;
+import org.apache.iotdb.tsfile.file.metadata.ChunkMetadata;
+import org.apache.iotdb.tsfile.file.metadata.IChunkMetadata;
+import org.apache.iotdb.tsfile.file.metadata.TimeseriesMetadata;
+import org.apache.iotdb.tsfile.file.metadata.enums.TSDataType;
+import org.apache.iotdb.tsfile.read.TimeValuePair;
+import org.apache.iotdb.tsfile.read.TsFileSequenceReader;
+import org.apache.iotdb.tsfile.read.common.Chunk;
+
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+import static org.apache.iotdb.tsfile.common.constant.TsFileConstant.PATH_SEPARATOR;
+
+/**
+ * Files written with extended statistics are of a new version, a compaction with extended
+ * statistics disabled has to write its target in the previous version, without them.
+ */
+public class CompactionWithExtendedStatisticsTest extends AbstractCompactionTest {
+
+  private static final int DEVICE_NUM = 2;
+  private static final int MEASUREMENT_NUM = 3;
+
+  private final boolean oldEnableExtendedStatistics =
+      TSFileDescriptor.getInstance().getConfig().isEnableExtendedStatistics();
+
+  @Before
+  public void setUp()
+      throws IOException, WriteProcessException, MetadataException, InterruptedException {
+    super.setUp();
+    // chunks of the sources are large enough to be copied as they are
+    IoTDBDescriptor.getInstance().getConfig().setChunkSizeLowerBoundInCompaction(1);
+    IoTDBDescriptor.getInstance().getConfig().setChunkPointNumLowerBoundInCompaction(1);
+    TSFileDescriptor.getInstance().getConfig().setMaxNumberOfPointsInPage(30);
+    TSFileDescriptor.getInstance().getConfig().setEnableExtendedStatistics(true);
+    createFiles(2, DEVICE_NUM, MEASUREMENT_NUM, 100, 0, 0, 50, 50, false, true);
+    TSFileDescriptor.getInstance().getConfig().setEnableExtendedStatistics(false);
+  }
+
+  @After
+  public void tearDown() throws IOException, StorageEngineException {
+    TSFileDescriptor.getInstance()
+        .getConfig()
+        .setEnableExtendedStatistics(oldEnableExtendedStatistics);
+    super.tearDown();
+  }
+
+  @Test
+  public void testReadChunkCompactionWithExtendedStatisticsDisabled() throws Exception {
+    compactAndCheckTarget(new ReadChunkCompactionPerformer());
+  }
+
+  @Test
+  public void testFastCompactionWithExtendedStatisticsDisabled() throws Exception {
+    compactAndCheckTarget(new FastCompactionPerformer(false));
+  }
+
+  private void compactAndCheckTarget(ICompactionPerformer performer) throws Exception {
+    for (TsFileResource resource : seqResources) {
+      try (TsFileSequenceReader reader = new TsFileSequenceReader(resource.getTsFilePath())) {
+        Assert.assertEquals(
+            TSFileConfig.VERSION_NUMBER_WITH_EXTENDED_STATISTICS, reader.readVersionNumber());
+      }
+    }
+    tsFileManager.addAll(seqResources, true);
+    List<PartialPath> paths = new ArrayList<>();
+    for (int d = 0; d < DEVICE_NUM; d++) {
+      for (int i = 0; i < MEASUREMENT_NUM; i++) {
+        paths.add(
+            new MeasurementPath(
+                COMPACTION_TEST_SG + PATH_SEPARATOR + "d" + d + PATH_SEPARATOR + "s" + i,
+                TSDataType.INT64));
+      }
+    }
+    List<TSDataType> dataTypes = Collections.nCopies(paths.size(), TSDataType.INT64);
+    Map<PartialPath, List<TimeValuePair>> sourceData = readSourceFiles(paths, dataTypes);
+
+    InnerSpaceCompactionTask task =
+        new InnerSpaceCompactionTask(0, tsFileManager, seqResources, true, performer, 0);
+    Assert.assertTrue(task.start());
+
+    List<TsFileResource> targets = tsFileManager.getTsFileList(true);
+    Assert.assertEquals(1, targets.size());
+    try (TsFileSequenceReader reader =
+        new TsFileSequenceReader(targets.get(0).getTsFilePath())) {
+      Assert.assertEquals(TSFileConfig.VERSION_NUMBER, reader.readVersionNumber());
+      for (List<TimeseriesMetadata> timeseriesMetadataList :
+          reader.getAllTimeseriesMetadata(true).values()) {
+        for (TimeseriesMetadata timeseriesMetadata : timeseriesMetadataList) {
+          Assert.assertNull(timeseriesMetadata.getStatistics().getExtendedStatistics());
+          for (IChunkMetadata chunkMetadata : timeseriesMetadata.getChunkMetadataList()) {
+            Assert.assertNull(chunkMetadata.getStatistics().getExtendedStatistics());
+            assertNoExtendedStatisticsOfPages(reader.readMemChunk((ChunkMetadata) chunkMetadata));
+          }
+        }
+      }
+    }
+    validateSeqFiles(true);
+    validateTargetDatas(sourceData, dataTypes);
+  }
+
+  private void assertNoExtendedStatisticsOfPages(Chunk chunk) {
+    ChunkHeader chunkHeader = chunk.getHeader();
+    if (((byte) (chunkHeader.getChunkType() & 0x3F)) != MetaMarker.CHUNK_HEADER) {
+      return;
+    }
+    ByteBuffer chunkData = chunk.getData().duplicate();
+    while (chunkData.hasRemaining()) {
+      PageHeader pageHeader = PageHeader.deserializeFrom(chunkData, chunkHeader.getDataType());
+      Assert.assertNull(pageHeader.getStatistics().getExtendedStatistics());
+      chunkData.position(chunkData.position() + pageHeader.getCompressedSize());
+    }
+  }
+}
@@ -0,0 +1,112 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.iotdb.db.storageengine.dataregion.compaction.inner.leveled;
+
+import org.apache.iotdb.db.conf.IoTDBConfig;
+import org.apache.iotdb.db.conf.IoTDBDescriptor;
+import org.apache.iotdb.db.storageengine.dataregion.compaction.execute.task.InnerSpaceCompactionTask;
+import org.apache.iotdb.db.storageengine.dataregion.compaction.selector.estimator.InnerCompactionCost;
+import org.apache.iotdb.db.storageengine.dataregion.compaction.selector.impl.LeveledCompactionSelector;
+import org.apache.iotdb.db.storageengine.dataregion.tsfile.FakedTsFileResource;
+import org.apache.iotdb.db.storageengine.dataregion.tsfile.TsFileManager;
+import org.apache.iotdb.db.storageengine.dataregion.tsfile.TsFileResource;
+
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+public class LeveledCompactionSelectorTest {
+  private final IoTDBConfig config = IoTDBDescriptor.getInstance().getConfig();
+  private long originBaseFileSize;
+  private int originLevelSizeRatio;
+  private long originTargetFileSize;
+  private double originMaxWriteAmplification;
+
+  @Before
+  public void setUp() {
+    originBaseFileSize = config.getLeveledCompactionBaseFileSize();
+    originLevelSizeRatio = config.getLeveledCompactionLevelSizeRatio();
+    originTargetFileSize = config.getTargetCompactionFileSize();
+    originMaxWriteAmplification = config.getLeveledCompactionMaxWriteAmplification();
+    // level 0: [0, 100), level 1: [100, 400), level 2: [400, 1600) ... full: [10000, +inf)
+    config.setLeveledCompactionBaseFileSize(100);
+    config.setLeveledCompactionLevelSizeRatio(4);
+    config.setTargetCompactionFileSize(10000);
+    config.setLeveledCompactionMaxWriteAmplification(4.0);
+  }
+
+  @After
+  public void tearDown() {
+    config.setLeveledCompactionBaseFileSize(originBaseFileSize);
+    config.setLeveledCompactionLevelSizeRatio(originLevelSizeRatio);
+    config.setTargetCompactionFileSize(originTargetFileSize);
+    config.setLeveledCompactionMaxWriteAmplification(originMaxWriteAmplification);
+  }
+
+  @Test
+  public void testSelectByLevel() {
+    TsFileManager manager = createTsFileManager(200, 40, 40, 10000, 30, 30, 30, 30, 30);
+    List<TsFileResource> resources =
+        manager.getOrCreateSequenceListByTimePartition(0).getArrayList();
+
+    List<InnerSpaceCompactionTask> tasks =
+        new LeveledCompactionSelector("root.test", "0", 0, true, manager)
+            .selectInnerSpaceTask(manager.getOrCreateSequenceListByTimePartition(0));
+    Assert.assertEquals(2, tasks.size());
+
+    // four level 0 files reach the max file size of level 0
+    List<TsFileResource> selectedFiles = tasks.get(0).getSelectedTsFileResourceList();
+    Assert.assertEquals(resources.subList(4, 8), selectedFiles);
+    InnerCompactionCost cost = InnerCompactionCost.estimate(selectedFiles);
+    Assert.assertEquals(120, cost.getRewrittenBytes());
+    Assert.assertEquals(90, cost.getMergedBytes());
+    Assert.assertEquals(4, cost.getReadAmplification());
+
+    // two level 0 files left are compacted into the previous level 1 file
+    selectedFiles = tasks.get(1).getSelectedTsFileResourceList();
+    Assert.assertEquals(resources.subList(0, 3), selectedFiles);
+    Assert.assertEquals(
+        3.5, InnerCompactionCost.estimate(selectedFiles).getWriteAmplification(), 0);
+  }
+
+  @Test
+  public void testSkipHighWriteAmplification() {
+    // compacting 80 bytes into a file of 300 bytes rewrites 380 bytes
+    TsFileManager manager = createTsFileManager(300, 40, 40);
+    Assert.assertTrue(
+        new LeveledCompactionSelector("root.test", "0", 0, true, manager)
+            .selectInnerSpaceTask(manager.getOrCreateSequenceListByTimePartition(0))
+            .isEmpty());
+  }
+
+  private TsFileManager createTsFileManager(long... fileSizes) {
+    List<TsFileResource> resources = new ArrayList<>();
+    for (int i = 0; i < fileSizes.length; i++) {
+      resources.add(
+          new FakedTsFileResource(fileSizes[i], String.format("%d-%d-0-0.tsfile", i + 1, i + 1)));
+    }
+    TsFileManager manager = new TsFileManager("root.test", "0", "");
+    manager.addAll(resources, true);
+    return manager;
+  }
+}
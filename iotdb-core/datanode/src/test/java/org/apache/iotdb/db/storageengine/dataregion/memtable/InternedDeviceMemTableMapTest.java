@@ -0,0 +1,171 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.iotdb.db.storageengine.dataregion.memtable;
+
+import org.apache.iotdb.commons.exception.MetadataException;
+import org.apache.iotdb.commons.path.MeasurementPath;
+import org.apache.iotdb.commons.path.PartialPath;
+import org.apache.iotdb.db.conf.IoTDBConfig;
+import org.apache.iotdb.db.conf.IoTDBDescriptor;
+import org.apache.iotdb.db.exception.query.QueryProcessException;
+import org.apache.iotdb.tsfile.file.metadata.enums.TSDataType;
+import org.apache.iotdb.tsfile.file.metadata.enums.TSEncoding;
+import org.apache.iotdb.tsfile.read.TimeValuePair;
+import org.apache.iotdb.tsfile.read.reader.IPointReader;
+import org.apache.iotdb.tsfile.write.schema.IMeasurementSchema;
+import org.apache.iotdb.tsfile.write.schema.MeasurementSchema;
+
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+public class InternedDeviceMemTableMapTest {
+
+  private final IoTDBConfig config = IoTDBDescriptor.getInstance().getConfig();
+  private boolean defaultEnableDeviceIdInterning;
+
+  @Before
+  public void setUp() {
+    defaultEnableDeviceIdInterning = config.isEnableDeviceIdInterning();
+    config.setEnableDeviceIdInterning(true);
+    DeviceIDFactory.getInstance().reset();
+  }
+
+  @After
+  public void tearDown() {
+    config.setEnableDeviceIdInterning(defaultEnableDeviceIdInterning);
+    DeviceIDFactory.getInstance().reset();
+  }
+
+  @Test
+  public void testInternDeviceID() {
+    DeviceIDFactory factory = DeviceIDFactory.getInstance();
+    Assert.assertTrue(factory.isInterning());
+    // lookups do not intern devices that have never been inserted
+    IDeviceID plainDeviceID = factory.getDeviceID("root.sg.d1");
+    Assert.assertTrue(plainDeviceID instanceof PlainDeviceID);
+    Assert.assertNull(factory.getInternedDeviceID(plainDeviceID));
+
+    IDeviceID deviceID = factory.getDeviceIDForInsert("root.sg.d1");
+    Assert.assertTrue(deviceID instanceof InternedDeviceID);
+    Assert.assertSame(deviceID, factory.getDeviceIDForInsert("root.sg.d1"));
+    Assert.assertSame(deviceID, factory.getDeviceID("root.sg.d1"));
+    Assert.assertSame(deviceID, factory.internDeviceID(new PlainDeviceID("root.sg.d1")));
+    Assert.assertNotEquals(deviceID, factory.getDeviceIDForInsert("root.sg.d2"));
+
+    // both kinds of device ids of the same device are equal
+    Assert.assertEquals(deviceID, plainDeviceID);
+    Assert.assertEquals(plainDeviceID, deviceID);
+    Assert.assertEquals(plainDeviceID.hashCode(), deviceID.hashCode());
+  }
+
+  @Test
+  public void testMapOperations() {
+    DeviceIDFactory factory = DeviceIDFactory.getInstance();
+    InternedDeviceMemTableMap map = new InternedDeviceMemTableMap();
+    Map<IDeviceID, IWritableMemChunkGroup> expected = new HashMap<>();
+    IWritableMemChunkGroup[] groups = new IWritableMemChunkGroup[100];
+    for (int i = 0; i < groups.length; i++) {
+      groups[i] = new WritableMemChunkGroup();
+    }
+    Random random = new Random(0);
+    for (int i = 0; i < 10000; i++) {
+      // plain and interned device ids are mixed
+      String devicePath = "root.sg.d" + random.nextInt(500);
+      IDeviceID deviceID =
+          random.nextBoolean()
+              ? factory.getDeviceIDForInsert(devicePath)
+              : factory.getDeviceID(devicePath);
+      IWritableMemChunkGroup group = groups[random.nextInt(groups.length)];
+      switch (random.nextInt(3)) {
+        case 0:
+          Assert.assertSame(expected.put(deviceID, group), map.put(deviceID, group));
+          break;
+        case 1:
+          Assert.assertSame(expected.remove(deviceID), map.remove(deviceID));
+          break;
+        default:
+          // plain device ids are looked up by their interned ids
+          Assert.assertSame(
+              expected.get(deviceID), map.get(new PlainDeviceID(deviceID.toStringID())));
+          break;
+      }
+      Assert.assertEquals(expected.size(), map.size());
+    }
+    Assert.assertEquals(expected, new HashMap<>(map));
+    map.clear();
+    Assert.assertTrue(map.isEmpty());
+    Assert.assertNull(map.get(factory.getDeviceID("root.sg.d0")));
+  }
+
+  @Test
+  public void testWriteAndQueryMemTable()
+      throws IOException, QueryProcessException, MetadataException {
+    IMemTable memTable = new PrimitiveMemTable("root.sg", "1");
+    Assert.assertTrue(memTable.getMemTableMap() instanceof InternedDeviceMemTableMap);
+    List<IMeasurementSchema> schemaList =
+        Arrays.asList(
+            new MeasurementSchema("s0", TSDataType.INT32, TSEncoding.PLAIN),
+            new MeasurementSchema("s1", TSDataType.INT64, TSEncoding.PLAIN));
+    int deviceNum = 50;
+    int rowNum = 100;
+    for (int i = 0; i < rowNum; i++) {
+      for (int d = 0; d < deviceNum; d++) {
+        memTable.write(
+            DeviceIDFactory.getInstance().getDeviceID(new PartialPath("root.sg.d" + d)),
+            schemaList,
+            i,
+            new Object[] {i, (long) d});
+      }
+    }
+    Assert.assertEquals(deviceNum, memTable.getMemTableMap().size());
+    Assert.assertEquals(2 * deviceNum, memTable.getSeriesNumber());
+
+    memTable.delete(
+        new PartialPath("root.sg.d0.s1"), new PartialPath("root.sg.d0"), 0, rowNum / 2 - 1);
+    for (int d = 0; d < deviceNum; d++) {
+      IPointReader iterator =
+          memTable
+              .query(
+                  new MeasurementPath(
+                      "root.sg.d" + d,
+                      "s1",
+                      new MeasurementSchema("s1", TSDataType.INT64, TSEncoding.PLAIN)),
+                  Long.MIN_VALUE,
+                  null)
+              .getPointReader();
+      int expectedTime = d == 0 ? rowNum / 2 : 0;
+      while (iterator.hasNextTimeValuePair()) {
+        TimeValuePair timeValuePair = iterator.nextTimeValuePair();
+        Assert.assertEquals(expectedTime++, timeValuePair.getTimestamp());
+        Assert.assertEquals((long) d, timeValuePair.getValue().getValue());
+      }
+      Assert.assertEquals(rowNum, expectedTime);
+    }
+  }
+}
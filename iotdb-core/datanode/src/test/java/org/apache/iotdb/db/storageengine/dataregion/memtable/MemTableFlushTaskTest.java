@@ -19,10 +19,13 @@
 package org.apache.iotdb.db.storageengine.dataregion.memtable;
 
 import org.apache.iotdb.commons.exception.IllegalPathException;
+import org.apache.iotdb.db.conf.IoTDBConfig;
+import org.apache.iotdb.db.conf.IoTDBDescriptor;
 import org.apache.iotdb.db.exception.WriteProcessException;
 import org.apache.iotdb.db.storageengine.dataregion.flush.MemTableFlushTask;
 import org.apache.iotdb.db.utils.EnvironmentUtils;
 import org.apache.iotdb.db.utils.constant.TestConstant;
+import org.apache.iotdb.tsfile.file.metadata.ChunkGroupMetadata;
 import org.apache.iotdb.tsfile.file.metadata.ChunkMetadata;
 import org.apache.iotdb.tsfile.file.metadata.enums.TSDataType;
 import org.apache.iotdb.tsfile.fileSystem.FSFactoryProducer;
@@ -32,6 +35,7 @@ import org.junit.After;
 import org.junit.Before;
 import org.junit.Test;
 
+import java.util.List;
 import java.util.concurrent.ExecutionException;
 
 import static org.junit.Assert.assertEquals;
@@ -160,4 +164,51 @@ public class MemTableFlushTaskTest {
     assertEquals(TSDataType.BOOLEAN, chunkMetaData.getDataType());
     assertEquals(endTime - startTime + 1, chunkMetaData.getNumOfPoints());
   }
+
+  @Test
+  public void testFlushMemTableInParallel()
+      throws ExecutionException, InterruptedException, IllegalPathException, WriteProcessException {
+    IoTDBConfig config = IoTDBDescriptor.getInstance().getConfig();
+    int defaultParallelism = config.getFlushEncodingParallelism();
+    config.setFlushEncodingParallelism(4);
+    try {
+      int deviceNum = 10;
+      for (int i = deviceNum - 1; i >= 0; i--) {
+        MemTableTestUtils.produceData(
+            memTable,
+            startTime,
+            endTime,
+            "root.sg.d" + i,
+            MemTableTestUtils.measurementId0,
+            MemTableTestUtils.dataType0);
+      }
+      MemTableTestUtils.produceVectorData(memTable);
+      MemTableFlushTask memTableFlushTask =
+          new MemTableFlushTask(memTable, writer, storageGroup, dataRegionId);
+      memTableFlushTask.syncFlushMemTable();
+      writer.makeMetadataVisible();
+
+      // chunk groups are written in device order
+      List<ChunkGroupMetadata> chunkGroupMetadataList = writer.getChunkGroupMetadataList();
+      assertEquals(deviceNum + 1, chunkGroupMetadataList.size());
+      assertEquals(MemTableTestUtils.deviceId0, chunkGroupMetadataList.get(0).getDevice());
+      for (int i = 0; i < deviceNum; i++) {
+        assertEquals("root.sg.d" + i, chunkGroupMetadataList.get(i + 1).getDevice());
+        List<ChunkMetadata> chunkMetadataList =
+            writer.getVisibleMetadataList(
+                "root.sg.d" + i, MemTableTestUtils.measurementId0, MemTableTestUtils.dataType0);
+        assertEquals(1, chunkMetadataList.size());
+        assertEquals(startTime, chunkMetadataList.get(0).getStartTime());
+        assertEquals(endTime, chunkMetadataList.get(0).getEndTime());
+        assertEquals(endTime - startTime + 1, chunkMetadataList.get(0).getNumOfPoints());
+      }
+      assertEquals(
+          1,
+          writer
+              .getVisibleMetadataList(MemTableTestUtils.deviceId0, "sensor0", TSDataType.BOOLEAN)
+              .size());
+    } finally {
+      config.setFlushEncodingParallelism(defaultParallelism);
+    }
+  }
 }
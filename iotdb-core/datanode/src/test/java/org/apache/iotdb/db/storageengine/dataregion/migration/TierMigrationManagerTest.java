@@ -0,0 +1,317 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.iotdb.db.storageengine.dataregion.migration;
+
+import org.apache.iotdb.commons.exception.IllegalPathException;
+import org.apache.iotdb.commons.path.PartialPath;
+import org.apache.iotdb.commons.utils.FileUtils;
+import org.apache.iotdb.db.conf.IoTDBConfig;
+import org.apache.iotdb.db.conf.IoTDBDescriptor;
+import org.apache.iotdb.db.exception.DataRegionException;
+import org.apache.iotdb.db.exception.StorageEngineException;
+import org.apache.iotdb.db.storageengine.dataregion.DataRegion;
+import org.apache.iotdb.db.storageengine.dataregion.DataRegionTest;
+import org.apache.iotdb.db.storageengine.dataregion.modification.Deletion;
+import org.apache.iotdb.db.storageengine.dataregion.modification.ModificationFile;
+import org.apache.iotdb.db.storageengine.dataregion.tsfile.TsFileResource;
+import org.apache.iotdb.db.storageengine.dataregion.tsfile.TsFileResourceStatus;
+import org.apache.iotdb.db.storageengine.rescon.disk.TierManager;
+import org.apache.iotdb.db.utils.EnvironmentUtils;
+import org.apache.iotdb.db.utils.constant.TestConstant;
+import org.apache.iotdb.tsfile.exception.write.WriteProcessException;
+import org.apache.iotdb.tsfile.utils.TsFileGeneratorUtils;
+
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.Collections;
+import java.util.List;
+
+import static org.apache.iotdb.tsfile.common.constant.TsFileConstant.PATH_SEPARATOR;
+import static org.apache.iotdb.tsfile.common.constant.TsFileConstant.TSFILE_SUFFIX;
+
+public class TierMigrationManagerTest {
+  private static final IoTDBConfig CONFIG = IoTDBDescriptor.getInstance().getConfig();
+  private static final String TEST_SG = TsFileGeneratorUtils.testStorageGroup;
+  private static final String[][] TEST_TIER_DIRS =
+      new String[][] {{"target/tier/tier0"}, {"target/tier/tier1"}};
+
+  private final String systemDir = TestConstant.OUTPUT_DATA_DIR.concat("info");
+  private String[][] originTierDataDirs;
+  private long[] originTierTTLInMs;
+  private double[] originTierSpaceThresholds;
+  private int originMigrationThroughput;
+
+  @Before
+  public void setUp() throws Exception {
+    EnvironmentUtils.envSetUp();
+    originTierDataDirs = CONFIG.getTierDataDirs();
+    originTierTTLInMs = CONFIG.getTierTTLInMs();
+    originTierSpaceThresholds = CONFIG.getTierSpaceThresholds();
+    originMigrationThroughput = CONFIG.getTierMigrationThroughputMbPerSec();
+    CONFIG.setTierDataDirs(TEST_TIER_DIRS);
+    // all the test data are written at the beginning of 1970, so they are moved by age
+    CONFIG.setTierTTLInMs(new long[] {1000, Long.MAX_VALUE});
+    CONFIG.setTierSpaceThresholds(new double[] {0, 0});
+    CONFIG.setTierMigrationThroughputMbPerSec(0);
+    TierManager.getInstance().resetFolders();
+  }
+
+  @After
+  public void tearDown() throws IOException, StorageEngineException {
+    CONFIG.setTierDataDirs(originTierDataDirs);
+    CONFIG.setTierTTLInMs(originTierTTLInMs);
+    CONFIG.setTierSpaceThresholds(originTierSpaceThresholds);
+    CONFIG.setTierMigrationThroughputMbPerSec(originMigrationThroughput);
+    TierManager.getInstance().resetFolders();
+    FileUtils.recursiveDeleteFolder("target" + File.separator + "tier");
+    EnvironmentUtils.cleanEnv();
+  }
+
+  @Test
+  public void testMoveToLocalTier()
+      throws IOException, WriteProcessException, IllegalPathException {
+    TsFileResource resource = createTsFile(0, 1);
+    writeDeletion(resource, 0, 10);
+    File oldTsFile = resource.getTsFile();
+    DataRegion dataRegion = new DataRegion(TEST_SG, "0");
+    dataRegion.getTsFileManager().add(resource, true);
+
+    TierMigrationManager.getInstance().checkAndMigrate(Collections.singletonList(dataRegion));
+
+    assertMigrated(resource, oldTsFile);
+    // the old copy is deleted with its .resource and .mods files
+    Assert.assertFalse(oldTsFile.exists());
+    Assert.assertFalse(new File(oldTsFile.getPath() + TsFileResource.RESOURCE_SUFFIX).exists());
+    Assert.assertFalse(new File(oldTsFile.getPath() + ModificationFile.FILE_SUFFIX).exists());
+    // the deletions written before the migration are kept, and the new ones go to the new copy
+    Assert.assertEquals(1, resource.getModFile().getModifications().size());
+    writeDeletion(resource, 20, 30);
+    Assert.assertEquals(2, resource.getModFile().getModifications().size());
+    Assert.assertTrue(
+        new File(resource.getTsFile().getPath() + ModificationFile.FILE_SUFFIX).exists());
+  }
+
+  @Test
+  public void testSwitchAfterQueriesFinish() throws Exception {
+    TsFileResource resource = createTsFile(0, 1);
+    File oldTsFile = resource.getTsFile();
+    File migratingTsFile =
+        new File(
+            getTierPartitionDir(1), oldTsFile.getName() + TierMigrationManager.MIGRATING_SUFFIX);
+    DataRegion dataRegion = new DataRegion(TEST_SG, "0");
+    dataRegion.getTsFileManager().add(resource, true);
+
+    // a query is reading the file
+    resource.readLock();
+    Thread migrationThread =
+        new Thread(
+            () ->
+                TierMigrationManager.getInstance()
+                    .checkAndMigrate(Collections.singletonList(dataRegion)));
+    try {
+      migrationThread.start();
+      // the file is copied while the query reads the old copy
+      long deadline = System.currentTimeMillis() + 10_000;
+      while (!migratingTsFile.exists() && System.currentTimeMillis() < deadline) {
+        Thread.sleep(10);
+      }
+      Assert.assertTrue(migratingTsFile.exists());
+      // the switch waits for the query
+      Thread.sleep(500);
+      Assert.assertTrue(migrationThread.isAlive());
+      Assert.assertEquals(oldTsFile, resource.getTsFile());
+      Assert.assertTrue(oldTsFile.exists());
+      Assert.assertEquals(0, resource.getTierLevel());
+    } finally {
+      resource.readUnlock();
+    }
+
+    migrationThread.join(30_000);
+    Assert.assertFalse(migrationThread.isAlive());
+    assertMigrated(resource, oldTsFile);
+    Assert.assertFalse(migratingTsFile.exists());
+    Assert.assertFalse(oldTsFile.exists());
+  }
+
+  @Test
+  public void testReuseCopyAfterSwitchGivenUp() throws Exception {
+    TsFileResource resource = createTsFile(0, 1);
+    File oldTsFile = resource.getTsFile();
+    File migratingTsFile =
+        new File(
+            getTierPartitionDir(1), oldTsFile.getName() + TierMigrationManager.MIGRATING_SUFFIX);
+    DataRegion dataRegion = new DataRegion(TEST_SG, "0");
+    dataRegion.getTsFileManager().add(resource, true);
+
+    TierMigrationManager.getInstance().setMaxLockAttempts(1);
+    try {
+      // a long query is reading the file, so the switch is given up
+      resource.readLock();
+      try {
+        TierMigrationManager.getInstance().checkAndMigrate(Collections.singletonList(dataRegion));
+      } finally {
+        resource.readUnlock();
+      }
+      Assert.assertEquals(oldTsFile, resource.getTsFile());
+      Assert.assertEquals(0, resource.getTierLevel());
+      Assert.assertTrue(migratingTsFile.exists());
+      // a copy made again would not keep this time
+      long copyTime = 1000L;
+      Assert.assertTrue(migratingTsFile.setLastModified(copyTime));
+
+      TierMigrationManager.getInstance().checkAndMigrate(Collections.singletonList(dataRegion));
+    } finally {
+      TierMigrationManager.getInstance().setMaxLockAttempts(TierMigrationManager.MAX_LOCK_ATTEMPTS);
+    }
+    assertMigrated(resource, oldTsFile);
+    Assert.assertEquals(copyTime, resource.getTsFile().lastModified());
+    Assert.assertFalse(migratingTsFile.exists());
+  }
+
+  @Test
+  public void testRecoverMigratingTsFile()
+      throws IOException, WriteProcessException, DataRegionException {
+    TsFileResource resource = createTsFile(0, 1);
+    File tsFile = resource.getTsFile();
+    // the system crashed after the .resource file and part of the TsFile were copied
+    File tier1PartitionDir = getTierPartitionDir(1);
+    Assert.assertTrue(tier1PartitionDir.exists() || tier1PartitionDir.mkdirs());
+    File migratingTsFile =
+        new File(tier1PartitionDir, tsFile.getName() + TierMigrationManager.MIGRATING_SUFFIX);
+    Files.copy(tsFile.toPath(), migratingTsFile.toPath());
+    File copiedResourceFile =
+        new File(tier1PartitionDir, tsFile.getName() + TsFileResource.RESOURCE_SUFFIX);
+    Files.copy(
+        new File(tsFile.getPath() + TsFileResource.RESOURCE_SUFFIX).toPath(),
+        copiedResourceFile.toPath());
+
+    DataRegion dataRegion = new DataRegionTest.DummyDataRegion(systemDir, TEST_SG);
+    try {
+      Assert.assertFalse(migratingTsFile.exists());
+      Assert.assertFalse(copiedResourceFile.exists());
+      List<TsFileResource> recovered = dataRegion.getTsFileManager().getTsFileList(true);
+      Assert.assertEquals(1, recovered.size());
+      Assert.assertEquals(
+          tsFile.getCanonicalFile(), recovered.get(0).getTsFile().getCanonicalFile());
+      Assert.assertEquals(0, recovered.get(0).getTierLevel());
+    } finally {
+      dataRegion.syncDeleteDataFiles();
+    }
+  }
+
+  @Test
+  public void testRecoverTsFileInTwoTiers()
+      throws IOException, WriteProcessException, DataRegionException, IllegalPathException {
+    TsFileResource resource = createTsFile(0, 1);
+    File oldTsFile = resource.getTsFile();
+    // the system crashed after the TsFile was renamed in the next tier, with a new deletion
+    // written to its .mods file, and before the old copy was deleted
+    File tier1PartitionDir = getTierPartitionDir(1);
+    Assert.assertTrue(tier1PartitionDir.exists() || tier1PartitionDir.mkdirs());
+    File newTsFile = new File(tier1PartitionDir, oldTsFile.getName());
+    Files.copy(oldTsFile.toPath(), newTsFile.toPath());
+    Files.copy(
+        new File(oldTsFile.getPath() + TsFileResource.RESOURCE_SUFFIX).toPath(),
+        new File(newTsFile.getPath() + TsFileResource.RESOURCE_SUFFIX).toPath());
+    TsFileResource newResource = new TsFileResource(newTsFile);
+    writeDeletion(newResource, 0, 10);
+    newResource.resetModFile();
+
+    DataRegion dataRegion = new DataRegionTest.DummyDataRegion(systemDir, TEST_SG);
+    try {
+      // the old copy is removed, no matter which tier is scanned first
+      Assert.assertFalse(oldTsFile.exists());
+      Assert.assertFalse(new File(oldTsFile.getPath() + TsFileResource.RESOURCE_SUFFIX).exists());
+      Assert.assertTrue(newTsFile.exists());
+      List<TsFileResource> recovered = dataRegion.getTsFileManager().getTsFileList(true);
+      Assert.assertEquals(1, recovered.size());
+      TsFileResource recoveredResource = recovered.get(0);
+      Assert.assertEquals(
+          newTsFile.getCanonicalFile(), recoveredResource.getTsFile().getCanonicalFile());
+      Assert.assertEquals(1, recoveredResource.getTierLevel());
+      Assert.assertEquals(1, recoveredResource.getModFile().getModifications().size());
+    } finally {
+      dataRegion.syncDeleteDataFiles();
+    }
+  }
+
+  /** Create a sealed sequence TsFile in the given tier, whose data are in [0, 100). */
+  private TsFileResource createTsFile(int tierLevel, int version)
+      throws IOException, WriteProcessException {
+    File tsFile =
+        new File(
+            getTierPartitionDir(tierLevel),
+            String.format("%d-%d-0-0%s", version, version, TSFILE_SUFFIX));
+    Assert.assertTrue(tsFile.getParentFile().exists() || tsFile.getParentFile().mkdirs());
+    TsFileGeneratorUtils.generateMixTsFile(tsFile.getPath(), 2, 2, 10, 0, 100, 10, 10);
+    TsFileResource resource = new TsFileResource(tsFile);
+    for (int i = 0; i < 2; i++) {
+      resource.updateStartTime(TEST_SG + PATH_SEPARATOR + "d" + i, 0);
+      resource.updateEndTime(TEST_SG + PATH_SEPARATOR + "d" + i, 99);
+    }
+    resource.setStatusForTest(TsFileResourceStatus.NORMAL);
+    resource.serialize();
+    Assert.assertEquals(tierLevel, resource.getTierLevel());
+    return resource;
+  }
+
+  private File getTierPartitionDir(int tierLevel) {
+    return new File(
+        TEST_TIER_DIRS[tierLevel][0]
+            + File.separator
+            + "sequence"
+            + File.separator
+            + TEST_SG
+            + File.separator
+            + "0"
+            + File.separator
+            + "0");
+  }
+
+  private void writeDeletion(TsFileResource resource, long startTime, long endTime)
+      throws IOException, IllegalPathException {
+    ModificationFile modFile = resource.getModFile();
+    modFile.write(
+        new Deletion(
+            new PartialPath(TEST_SG + PATH_SEPARATOR + "d0" + PATH_SEPARATOR + "s0"),
+            Long.MAX_VALUE,
+            startTime,
+            endTime));
+    modFile.close();
+  }
+
+  private void assertMigrated(TsFileResource resource, File oldTsFile) throws IOException {
+    File newTsFile = resource.getTsFile();
+    Assert.assertEquals(1, resource.getTierLevel());
+    Assert.assertEquals(1, TierManager.getInstance().getFileTierLevel(newTsFile));
+    Assert.assertEquals(TsFileResourceStatus.NORMAL, resource.getStatus());
+    Assert.assertEquals(oldTsFile.getName(), newTsFile.getName());
+    Assert.assertEquals(
+        getTierPartitionDir(1).getCanonicalFile(), newTsFile.getParentFile().getCanonicalFile());
+    Assert.assertTrue(newTsFile.exists());
+    Assert.assertTrue(new File(newTsFile.getPath() + TsFileResource.RESOURCE_SUFFIX).exists());
+  }
+}
@@ -0,0 +1,214 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.iotdb.db.storageengine.dataregion.read.reader.series;
+
+import org.apache.iotdb.commons.exception.IllegalPathException;
+import org.apache.iotdb.commons.path.MeasurementPath;
+import org.apache.iotdb.commons.path.PartialPath;
+import org.apache.iotdb.db.queryengine.execution.operator.source.SeriesScanUtil;
+import org.apache.iotdb.db.queryengine.plan.planner.plan.parameter.SeriesScanOptions;
+import org.apache.iotdb.db.queryengine.plan.statement.component.Ordering;
+import org.apache.iotdb.db.storageengine.dataregion.read.QueryDataSource;
+import org.apache.iotdb.db.storageengine.dataregion.read.control.FileReaderManager;
+import org.apache.iotdb.db.storageengine.dataregion.tsfile.TsFileResource;
+import org.apache.iotdb.db.storageengine.dataregion.tsfile.TsFileResourceStatus;
+import org.apache.iotdb.db.utils.EnvironmentUtils;
+import org.apache.iotdb.db.utils.constant.TestConstant;
+import org.apache.iotdb.tsfile.exception.write.WriteProcessException;
+import org.apache.iotdb.tsfile.file.metadata.enums.CompressionType;
+import org.apache.iotdb.tsfile.file.metadata.enums.TSDataType;
+import org.apache.iotdb.tsfile.file.metadata.enums.TSEncoding;
+import org.apache.iotdb.tsfile.read.common.TimeRange;
+import org.apache.iotdb.tsfile.read.common.block.TsBlock;
+import org.apache.iotdb.tsfile.write.chunk.ChunkWriterImpl;
+import org.apache.iotdb.tsfile.write.chunk.IChunkWriter;
+import org.apache.iotdb.tsfile.write.writer.TsFileIOWriter;
+
+import org.junit.AfterClass;
+import org.junit.Assert;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import static org.apache.iotdb.db.storageengine.dataregion.compaction.utils.TsFileGeneratorUtils.createChunkWriter;
+import static org.apache.iotdb.db.storageengine.dataregion.compaction.utils.TsFileGeneratorUtils.writeNonAlignedChunk;
+
+/** Test merging the first page with the only page overlapped with it in {@link SeriesScanUtil}. */
+public class SeriesScanTwoWayMergeTest {
+
+  private static final String TEST_DATABASE = "root.sg_twm";
+  private static final String TEST_DEVICE = TEST_DATABASE + ".d1";
+  private static final String TEST_PATH = TEST_DEVICE + ".s1";
+
+  /**
+   * The data distribution is as follows, points in the sequence file have the value of the
+   * timestamp, while the ones in the unsequence files have the value of 100000 + timestamp.
+   *
+   * <pre>
+   *  time    root.sg_twm.d1.s1
+   *      ┌──────────┐
+   *   0  │ f1-c1-p1 │
+   *      │          │──────────┐
+   *   5  │          │ f2-c1-p1 │
+   *      └──────────│          │
+   *  10             │          │
+   *                 └──────────┘
+   *      ┌──────────┐
+   *  20  │ f1-c1-p2 │
+   *      │          │──────────┐
+   *  25  │          │ f2-c1-p2 │
+   *      └──────────│          │──────────┐
+   *  30             │          │ f3-c1-p1 │
+   *                 └──────────│          │
+   *  35                        │          │
+   *                            └──────────┘
+   * </pre>
+   *
+   * <p>f1-c1-p1 [0, 9] only overlaps with f2-c1-p1 [5, 14], so the two pages are merged directly.
+   * f1-c1-p2 [20, 29] overlaps with f2-c1-p2 [25, 34], which overlaps with f3-c1-p1 [30, 39], so
+   * the three pages are merged by the merge reader.
+   */
+  private static final List<TsFileResource> seqResources = new ArrayList<>();
+
+  private static final List<TsFileResource> unSeqResources = new ArrayList<>();
+
+  @BeforeClass
+  public static void setUp() throws IOException, WriteProcessException, IllegalPathException {
+    seqResources.add(
+        prepareFile(1, Arrays.asList(new TimeRange(0L, 9L), new TimeRange(20L, 29L)), true));
+    unSeqResources.add(
+        prepareFile(2, Arrays.asList(new TimeRange(5L, 14L), new TimeRange(25L, 34L)), false));
+    unSeqResources.add(prepareFile(3, Collections.singletonList(new TimeRange(30L, 39L)), false));
+  }
+
+  private static TsFileResource prepareFile(int version, List<TimeRange> pages, boolean isSeq)
+      throws IOException, WriteProcessException, IllegalPathException {
+    List<PartialPath> writtenPaths = Collections.singletonList(new PartialPath(TEST_PATH));
+    List<TSDataType> dataTypes = Collections.singletonList(TSDataType.INT32);
+    List<TSEncoding> encodings = Collections.singletonList(TSEncoding.PLAIN);
+    List<CompressionType> compressionTypes =
+        Collections.singletonList(CompressionType.UNCOMPRESSED);
+
+    File file = new File(TestConstant.getTestTsFilePath(TEST_DATABASE, 0, 0, version));
+    TsFileResource tsFileResource = new TsFileResource(file);
+    if (!file.getParentFile().exists()) {
+      Assert.assertTrue(file.getParentFile().mkdirs());
+    }
+    try (TsFileIOWriter tsFileIOWriter = new TsFileIOWriter(tsFileResource.getTsFile())) {
+      tsFileIOWriter.startChunkGroup(TEST_DEVICE);
+      for (IChunkWriter iChunkWriter :
+          createChunkWriter(writtenPaths, dataTypes, encodings, compressionTypes, false)) {
+        writeNonAlignedChunk((ChunkWriterImpl) iChunkWriter, tsFileIOWriter, pages, isSeq);
+      }
+      tsFileIOWriter.endChunkGroup();
+
+      tsFileResource.updateStartTime(TEST_DEVICE, pages.get(0).getMin());
+      tsFileResource.updateEndTime(TEST_DEVICE, pages.get(pages.size() - 1).getMax());
+      tsFileIOWriter.endFile();
+    }
+    tsFileResource.setStatusForTest(TsFileResourceStatus.NORMAL);
+    return tsFileResource;
+  }
+
+  @AfterClass
+  public static void tearDown() throws IOException {
+    FileReaderManager.getInstance().closeAndRemoveAllOpenedReaders();
+    for (TsFileResource tsFileResource : seqResources) {
+      if (tsFileResource.getTsFile().exists()) {
+        tsFileResource.remove();
+      }
+    }
+    for (TsFileResource tsFileResource : unSeqResources) {
+      if (tsFileResource.getTsFile().exists()) {
+        tsFileResource.remove();
+      }
+    }
+    seqResources.clear();
+    unSeqResources.clear();
+    EnvironmentUtils.cleanAllDir();
+  }
+
+  private SeriesScanUtil getSeriesScanUtil(long limit, long offset, Ordering scanOrder)
+      throws IllegalPathException {
+    MeasurementPath scanPath = new MeasurementPath(TEST_PATH, TSDataType.INT32);
+
+    SeriesScanOptions.Builder scanOptionsBuilder = new SeriesScanOptions.Builder();
+    scanOptionsBuilder.withAllSensors(Collections.singleton(scanPath.getMeasurement()));
+    scanOptionsBuilder.withPushDownLimit(limit);
+    scanOptionsBuilder.withPushDownOffset(offset);
+    SeriesScanUtil seriesScanUtil =
+        new SeriesScanUtil(
+            scanPath,
+            scanOrder,
+            scanOptionsBuilder.build(),
+            EnvironmentUtils.TEST_QUERY_FI_CONTEXT);
+    seriesScanUtil.initQueryDataSource(new QueryDataSource(seqResources, unSeqResources));
+    return seriesScanUtil;
+  }
+
+  @Test
+  public void testScanAll() throws IllegalPathException, IOException {
+    List<Long> expectedTimes = new ArrayList<>();
+    for (long time = 0; time <= 39; time++) {
+      if (time < 15 || time >= 20) {
+        expectedTimes.add(time);
+      }
+    }
+    Assert.assertEquals(expectedTimes, scan(getSeriesScanUtil(0, 0, Ordering.ASC)));
+
+    Collections.reverse(expectedTimes);
+    Assert.assertEquals(expectedTimes, scan(getSeriesScanUtil(0, 0, Ordering.DESC)));
+  }
+
+  @Test
+  public void testLimitOffsetInMergedPages() throws IllegalPathException, IOException {
+    Assert.assertEquals(
+        Arrays.asList(3L, 4L, 5L, 6L, 7L), scan(getSeriesScanUtil(5, 3, Ordering.ASC)));
+    Assert.assertEquals(
+        Arrays.asList(12L, 11L, 10L), scan(getSeriesScanUtil(3, 22, Ordering.DESC)));
+  }
+
+  /** @return the timestamps of all the scanned points, whose values are checked */
+  private List<Long> scan(SeriesScanUtil seriesScanUtil) throws IOException {
+    List<Long> times = new ArrayList<>();
+    while (seriesScanUtil.hasNextFile()) {
+      while (seriesScanUtil.hasNextChunk()) {
+        while (seriesScanUtil.hasNextPage()) {
+          TsBlock tsBlock = seriesScanUtil.nextPage();
+          for (int i = 0, size = tsBlock.getPositionCount(); i < size; i++) {
+            long time = tsBlock.getTimeByIndex(i);
+            // points in the unsequence files overwrite the ones in the sequence file
+            boolean inSeqOnly = time < 5 || (time >= 20 && time < 25);
+            Assert.assertEquals(
+                inSeqOnly ? (int) time : (int) (100000 + time), tsBlock.getColumn(0).getInt(i));
+            times.add(time);
+          }
+        }
+      }
+    }
+    return times;
+  }
+}
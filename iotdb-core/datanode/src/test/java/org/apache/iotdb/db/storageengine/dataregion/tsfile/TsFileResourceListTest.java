@@ -323,4 +323,39 @@ public class TsFileResourceListTest {
     tsFileResourceList.keepOrderInsert(seqResources.get(0));
     Assert.assertEquals(seqResources, tsFileResourceList.getArrayList());
   }
+
+  @Test
+  public void testIntervalIndex() {
+    TsFileResourceList tsFileResourceList = new TsFileResourceList();
+    List<TsFileResource> tsFileResources = new ArrayList<>();
+    // file i covers [i * 100, i * 100 + 150], so neighbouring files overlap
+    for (int i = 0; i < 20; i++) {
+      TsFileResource resource = generateTsFileResource(i);
+      resource.updateStartTime("root.sg.d1", i * 100L);
+      resource.updateEndTime("root.sg.d1", i * 100L + 150);
+      resource.setStatusForTest(TsFileResourceStatus.NORMAL);
+      tsFileResources.add(resource);
+      tsFileResourceList.add(resource);
+    }
+
+    List<TsFileResource> result = tsFileResourceList.getIntervalIndex().query(520, 610);
+    Assert.assertEquals(3, result.size());
+    Assert.assertSame(tsFileResources.get(4), result.get(0));
+    Assert.assertSame(tsFileResources.get(5), result.get(1));
+    Assert.assertSame(tsFileResources.get(6), result.get(2));
+    Assert.assertTrue(tsFileResourceList.getIntervalIndex().query(3000, 4000).isEmpty());
+    Assert.assertEquals(
+        20, tsFileResourceList.getIntervalIndex().query(Long.MIN_VALUE, Long.MAX_VALUE).size());
+
+    // the index is rebuilt after the list is modified
+    tsFileResourceList.remove(tsFileResources.get(5));
+    TsFileResource unsealed = generateTsFileResource(20);
+    unsealed.updateStartTime("root.sg.d1", 2000);
+    tsFileResourceList.add(unsealed);
+    result = tsFileResourceList.getIntervalIndex().query(520, 610);
+    Assert.assertEquals(3, result.size());
+    Assert.assertSame(tsFileResources.get(4), result.get(0));
+    Assert.assertSame(tsFileResources.get(6), result.get(1));
+    Assert.assertSame(unsealed, result.get(2));
+  }
 }
@@ -0,0 +1,116 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.iotdb.db.storageengine.dataregion.wal.buffer;
+
+import org.apache.iotdb.db.storageengine.dataregion.wal.io.WALFileTest;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+public class WALEntryRingBufferTest {
+  private static final String DEVICE_PATH = "root.test_sg.test_d";
+
+  @Test
+  public void testConcurrentPut() throws Exception {
+    int producerNum = 4;
+    int entryNumPerProducer = 10_000;
+    // a small capacity makes producers wait for the consumer
+    WALEntryRingBuffer ringBuffer = new WALEntryRingBuffer(100);
+    WALEntryValue value = WALFileTest.getInsertRowNode(DEVICE_PATH);
+
+    List<Thread> producers = new ArrayList<>();
+    for (int i = 0; i < producerNum; ++i) {
+      long producerId = i;
+      producers.add(
+          new Thread(
+              () -> {
+                for (int j = 0; j < entryNumPerProducer; ++j) {
+                  ringBuffer.put(
+                      new WALInfoEntry(producerId * entryNumPerProducer + j, value, false));
+                }
+              }));
+    }
+    producers.forEach(Thread::start);
+
+    long[] expectedIds = new long[producerNum];
+    for (int i = 0; i < producerNum; ++i) {
+      expectedIds[i] = (long) i * entryNumPerProducer;
+    }
+    for (int i = 0; i < producerNum * entryNumPerProducer; ++i) {
+      long memTableId = ringBuffer.take().getMemTableId();
+      int producerId = (int) (memTableId / entryNumPerProducer);
+      // entries of the same producer keep their order
+      assertEquals(expectedIds[producerId]++, memTableId);
+    }
+    for (Thread producer : producers) {
+      producer.join();
+    }
+
+    long[] endIds = new long[producerNum];
+    for (int i = 0; i < producerNum; ++i) {
+      endIds[i] = (long) (i + 1) * entryNumPerProducer;
+    }
+    assertArrayEquals(endIds, expectedIds);
+    assertTrue(ringBuffer.isEmpty());
+    assertNull(ringBuffer.poll());
+  }
+
+  @Test
+  public void testPollTimeout() throws Exception {
+    WALEntryRingBuffer ringBuffer = new WALEntryRingBuffer(16);
+    long start = System.nanoTime();
+    assertNull(ringBuffer.poll(50, TimeUnit.MILLISECONDS));
+    assertTrue(System.nanoTime() - start >= TimeUnit.MILLISECONDS.toNanos(50));
+
+    WALEntry walEntry = new WALSignalEntry(WALEntryType.ROLL_WAL_LOG_WRITER_SIGNAL);
+    ringBuffer.put(walEntry);
+    assertEquals(1, ringBuffer.size());
+    assertEquals(walEntry, ringBuffer.poll(50, TimeUnit.MILLISECONDS));
+    assertTrue(ringBuffer.isEmpty());
+  }
+
+  @Test
+  public void testWakeUp() throws Exception {
+    WALEntryRingBuffer ringBuffer = new WALEntryRingBuffer(16);
+    Thread waker =
+        new Thread(
+            () -> {
+              try {
+                Thread.sleep(100);
+              } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+              }
+              ringBuffer.wakeUp();
+            });
+    long start = System.nanoTime();
+    waker.start();
+    assertNull(ringBuffer.poll(1, TimeUnit.MINUTES));
+    assertTrue(System.nanoTime() - start < TimeUnit.SECONDS.toNanos(30));
+    waker.join();
+  }
+}
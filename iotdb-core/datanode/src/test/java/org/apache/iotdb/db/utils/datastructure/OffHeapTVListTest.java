@@ -0,0 +1,170 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.iotdb.db.utils.datastructure;
+
+import org.apache.iotdb.db.storageengine.rescon.memory.PrimitiveArrayManager;
+import org.apache.iotdb.db.storageengine.rescon.memory.SystemInfo;
+import org.apache.iotdb.tsfile.file.metadata.enums.TSDataType;
+import org.apache.iotdb.tsfile.read.TimeValuePair;
+import org.apache.iotdb.tsfile.utils.BitMap;
+import org.apache.iotdb.tsfile.utils.TsPrimitiveType.TsLong;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+public class OffHeapTVListTest {
+
+  @Test
+  public void testSortSameAsHeapTVList() {
+    Random random = new Random();
+    OffHeapLongTVList offHeapTVList = new OffHeapLongTVList();
+    LongTVList heapTVList = new TimLongTVList();
+    List<TimeValuePair> inputs = new ArrayList<>();
+    for (long i = 0; i < 10000; i++) {
+      long time = random.nextInt(10000);
+      long value = random.nextInt(10000);
+      offHeapTVList.putLong(time, value);
+      heapTVList.putLong(time, value);
+      inputs.add(new TimeValuePair(time, new TsLong(value)));
+    }
+    Assert.assertFalse(offHeapTVList.isSorted());
+    offHeapTVList.sort();
+    heapTVList.sort();
+    inputs.sort(TimeValuePair::compareTo);
+    Assert.assertEquals(inputs.size(), offHeapTVList.rowCount());
+    for (int i = 0; i < offHeapTVList.rowCount(); i++) {
+      Assert.assertEquals(inputs.get(i).getTimestamp(), offHeapTVList.getTime(i));
+      // tim sort is stable, so the values of duplicated timestamps are in the same order
+      Assert.assertEquals(heapTVList.getLong(i), offHeapTVList.getLong(i));
+    }
+    Assert.assertEquals(heapTVList.getMaxTime(), offHeapTVList.getMaxTime());
+    offHeapTVList.clear();
+  }
+
+  @Test
+  public void testPutDoublesWithBitMap() {
+    OffHeapDoubleTVList tvList = new OffHeapDoubleTVList();
+    long[] times = new long[1001];
+    double[] values = new double[1001];
+    BitMap bitMap = new BitMap(1001);
+    for (int i = 1000; i >= 0; i--) {
+      times[1000 - i] = i;
+      values[1000 - i] = i;
+      if (i % 100 == 0) {
+        bitMap.mark(1000 - i);
+      }
+    }
+    tvList.putDoubles(times, values, bitMap, 0, 1001);
+    tvList.sort();
+    Assert.assertEquals(990, tvList.rowCount());
+    int index = 0;
+    for (int i = 0; i <= 1000; i++) {
+      if (i % 100 == 0) {
+        continue;
+      }
+      Assert.assertEquals(i, tvList.getTime(index));
+      Assert.assertEquals(i, tvList.getDouble(index), 0);
+      index++;
+    }
+    tvList.clear();
+  }
+
+  @Test
+  public void testDeleteAndClone() {
+    OffHeapBooleanTVList tvList = new OffHeapBooleanTVList();
+    for (int i = 0; i < 1000; i++) {
+      tvList.putBoolean(i, i % 2 == 0);
+    }
+    Assert.assertEquals(500, tvList.delete(500, 999));
+    Assert.assertEquals(499, tvList.getMaxTime());
+
+    BooleanTVList clonedTVList = tvList.clone();
+    tvList.clear();
+    Assert.assertEquals(500, clonedTVList.rowCount());
+    for (int i = 0; i < 500; i++) {
+      Assert.assertEquals(i, clonedTVList.getTime(i));
+      Assert.assertEquals(i % 2 == 0, clonedTVList.getBoolean(i));
+    }
+    // appending after delete reuses the remaining arrays
+    clonedTVList.putBoolean(2000, true);
+    Assert.assertEquals(2000, clonedTVList.getTime(500));
+    Assert.assertTrue(clonedTVList.getBoolean(500));
+    clonedTVList.clear();
+  }
+
+  @Test
+  public void testReuseReleasedArrays() {
+    OffHeapIntTVList tvList = new OffHeapIntTVList();
+    for (int i = 0; i < 1000; i++) {
+      tvList.putInt(i, i);
+    }
+    tvList.clear();
+    long offHeapMemCost = SystemInfo.getInstance().getOffHeapTVListMemCost();
+    Assert.assertTrue(offHeapMemCost > 0);
+
+    // arrays brought back by the cleared list are reused
+    OffHeapIntTVList anotherTVList = new OffHeapIntTVList();
+    for (int i = 0; i < 1000; i++) {
+      anotherTVList.putInt(i, i);
+    }
+    Assert.assertEquals(offHeapMemCost, SystemInfo.getInstance().getOffHeapTVListMemCost());
+    anotherTVList.clear();
+  }
+
+  @Test
+  public void testAllocateArraysFromSlab() {
+    PrimitiveArrayManager.close();
+    long offHeapMemCost = SystemInfo.getInstance().getOffHeapTVListMemCost();
+    long idleOffHeapMemCost = SystemInfo.getInstance().getIdleOffHeapTVListMemCost();
+
+    ByteBuffer first = PrimitiveArrayManager.allocateOffHeap(TSDataType.INT64);
+    long slabSize = SystemInfo.getInstance().getOffHeapTVListMemCost() - offHeapMemCost;
+    int arraySize = PrimitiveArrayManager.ARRAY_SIZE * TSDataType.INT64.getDataTypeSize();
+    Assert.assertEquals(arraySize, first.capacity());
+    Assert.assertTrue(first.isDirect());
+    // the other arrays of the slab are pooled
+    Assert.assertTrue(slabSize > arraySize);
+    Assert.assertEquals(
+        idleOffHeapMemCost + slabSize - arraySize,
+        SystemInfo.getInstance().getIdleOffHeapTVListMemCost());
+
+    // arrays cut from the same slab do not overlap
+    ByteBuffer second = PrimitiveArrayManager.allocateOffHeap(TSDataType.INT64);
+    Assert.assertEquals(
+        offHeapMemCost + slabSize, SystemInfo.getInstance().getOffHeapTVListMemCost());
+    for (int i = 0; i < PrimitiveArrayManager.ARRAY_SIZE; i++) {
+      first.putLong(i * Long.BYTES, i);
+      second.putLong(i * Long.BYTES, -i);
+    }
+    for (int i = 0; i < PrimitiveArrayManager.ARRAY_SIZE; i++) {
+      Assert.assertEquals(i, first.getLong(i * Long.BYTES));
+    }
+
+    PrimitiveArrayManager.releaseOffHeap(TSDataType.INT64, first);
+    PrimitiveArrayManager.releaseOffHeap(TSDataType.INT64, second);
+    Assert.assertEquals(
+        idleOffHeapMemCost + slabSize, SystemInfo.getInstance().getIdleOffHeapTVListMemCost());
+  }
+}
@@ -280,6 +280,7 @@ public class LinuxDiskMetricsManager implements IDiskMetricsManager {
 
   @Override
   public Map<String, Double> getQueueSizeForDisk() {
+    checkUpdate();
     Map<String, Double> avgQueueSizeMap = new HashMap<>(diskIdSet.size());
     for (Map.Entry<String, Long> entry : incrementTimeInQueueForDisk.entrySet()) {
       avgQueueSizeMap.put(entry.getKey(), (((double) entry.getValue()) / updateInterval));
@@ -50,6 +50,7 @@ public enum ThreadName {
   COMPACTION_WORKER("Compaction-Worker"),
   COMPACTION_SUB_TASK("Compaction-Sub-Task"),
   COMPACTION_SCHEDULE("Compaction-Schedule"),
+  COMPACTION_THROTTLE("Compaction-Throttle"),
   // -------------------------- Wal --------------------------
   WAL_SERIALIZE("WAL-Serialize"),
   WAL_SYNC("WAL-Sync"),
@@ -165,6 +166,7 @@ public enum ThreadName {
   PROMETHEUS_BOUNDED_ELASTIC("boundedElastic-evictor"),
   // -------------------------- Other --------------------------
   TTL_CHECK("TTL-CHECK"),
+  TIER_MIGRATION("Tier-Migration"),
   SETTLE("Settle"),
   INFLUXDB_RPC_SERVICE("InfluxdbRPC-Service"),
   INFLUXDB_RPC_PROCESSOR("InfluxdbRPC-Processor"),
@@ -201,7 +203,9 @@ public enum ThreadName {
               MPP_COORDINATOR_WRITE_EXECUTOR,
               ASYNC_DATANODE_MPP_DATA_EXCHANGE_CLIENT_POOL));
   private static final Set<ThreadName> compactionThreadNames =
-      new HashSet<>(Arrays.asList(COMPACTION_WORKER, COMPACTION_SUB_TASK, COMPACTION_SCHEDULE));
+      new HashSet<>(
+          Arrays.asList(
+              COMPACTION_WORKER, COMPACTION_SUB_TASK, COMPACTION_SCHEDULE, COMPACTION_THROTTLE));
 
   private static final Set<ThreadName> walThreadNames =
       new HashSet<>(
@@ -339,6 +343,7 @@ public enum ThreadName {
       new HashSet<>(
           Arrays.asList(
               TTL_CHECK,
+              TIER_MIGRATION,
               SETTLE,
               INFLUXDB_RPC_SERVICE,
               INFLUXDB_RPC_PROCESSOR,
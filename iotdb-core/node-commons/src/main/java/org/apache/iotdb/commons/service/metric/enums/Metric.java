@@ -58,6 +58,8 @@ public enum Metric {
   QUEUE("queue"),
   FLUSHING_MEM_TABLE_STATUS("flushing_mem_table_status"),
   DATA_REGION_MEM_COST("data_region_mem_cost"),
+  OFF_HEAP_TVLIST_MEM_COST("off_heap_tvlist_mem_cost"),
+  DATA_REGION_INSERT_LOCK_WAIT("data_region_insert_lock_wait"),
   WAL_NODE_NUM("wal_node_num"),
   WAL_NODE_INFO("wal_node_info"),
   WAL_BUFFER("wal_buffer"),
@@ -74,6 +76,8 @@ public enum Metric {
   COMPACTION_TASK_SELECTION("compaction_task_selection"),
   COMPACTION_TASK_SELECTION_COST("compaction_task_selection_cost"),
   COMPACTION_TASK_SELECTED_FILE("compaction_task_selected_file"),
+  COMPACTION_THROTTLE("compaction_throttle"),
+  COMPACTION_AMPLIFICATION("compaction_amplification"),
   // schema engine related
   MEM("mem"),
   CACHE("cache"),
@@ -86,6 +90,7 @@ public enum Metric {
   OPERATOR_EXECUTION_COST("operator_execution_cost"),
   OPERATOR_EXECUTION_COUNT("operator_execution_count"),
   SERIES_SCAN_COST("series_scan_cost"),
+  SERIES_SCAN_COUNT("series_scan_count"),
   DISPATCHER("dispatcher"),
   QUERY_EXECUTION("query_execution"),
   AGGREGATION("aggregation"),
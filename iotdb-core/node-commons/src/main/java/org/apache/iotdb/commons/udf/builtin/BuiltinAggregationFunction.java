@@ -44,7 +44,9 @@ public enum BuiltinAggregationFunction {
   STDDEV_SAMP("stddev_samp"),
   VARIANCE("variance"),
   VAR_POP("var_pop"),
-  VAR_SAMP("var_samp");
+  VAR_SAMP("var_samp"),
+  APPROX_PERCENTILE("approx_percentile"),
+  APPROX_COUNT_DISTINCT("approx_count_distinct");
 
   private final String functionName;
 
@@ -81,16 +83,20 @@ public enum BuiltinAggregationFunction {
       case "avg":
       case "sum":
       case "time_duration":
-        return true;
-      case "count_if":
-      case "mode":
-      case "count_time":
+        // variance and approximate aggregations can only use statistics carrying extended
+        // statistics, the scan reads the points of files, chunks and pages without them
       case "stddev":
       case "stddev_pop":
       case "stddev_samp":
       case "variance":
       case "var_pop":
       case "var_samp":
+      case "approx_percentile":
+      case "approx_count_distinct":
+        return true;
+      case "count_if":
+      case "mode":
+      case "count_time":
         return false;
       default:
         throw new IllegalArgumentException("Invalid Aggregation function: " + name);
@@ -121,6 +127,8 @@ public enum BuiltinAggregationFunction {
       case "variance":
       case "var_pop":
       case "var_samp":
+      case "approx_percentile":
+      case "approx_count_distinct":
         return true;
       case "count_if":
       case "count_time":
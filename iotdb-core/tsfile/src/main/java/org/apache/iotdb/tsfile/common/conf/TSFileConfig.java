@@ -65,6 +65,11 @@ public class TSFileConfig implements Serializable {
   public static final String VERSION_NUMBER_V1 = "000001";
   /** version number is changed to use 1 byte to represent since version 3. */
   public static final byte VERSION_NUMBER = 0x03;
+  /**
+   * Version 4 is version 3 whose statistics may carry extended statistics, it is written only if
+   * extended statistics are enabled. Readers of version 3 reject it instead of misreading it.
+   */
+  public static final byte VERSION_NUMBER_WITH_EXTENDED_STATISTICS = 0x04;
 
   /** Bloom filter constrain. */
   public static final double MIN_BLOOM_FILTER_ERROR_RATE = 0.01;
@@ -113,6 +118,12 @@ public class TSFileConfig implements Serializable {
   private double dftSatisfyRate = 0.1;
   /** Data compression method, TsFile supports UNCOMPRESSED, SNAPPY, ZSTD or LZ4. */
   private CompressionType compressor = CompressionType.LZ4;
+  /**
+   * Whether to keep variance, quantile sketch and distinct counter in the statistics of numeric
+   * series, default value is false. It is not backward compatible: files written with it are of
+   * {@link #VERSION_NUMBER_WITH_EXTENDED_STATISTICS} and can not be read by older versions.
+   */
+  private boolean enableExtendedStatistics = false;
   /** Line count threshold for checking page memory occupied size. */
   private int pageCheckSizeThreshold = 100;
   /** Default endian value is BIG_ENDIAN. */
@@ -158,6 +169,12 @@ public class TSFileConfig implements Serializable {
 
   private int patternMatchingThreshold = 1000000;
 
+  /** Whether to read sealed TsFiles through memory mapping instead of FileChannel reads. */
+  private boolean enableMMapRead = false;
+
+  /** Maximum number of TsFiles that can be memory-mapped at the same time. */
+  private int maxMMapFileNum = 1024;
+
   private String hdfsFile = "org.apache.iotdb.hadoop.fileSystem.HDFSFile";
 
   private String hdfsTsFileInput = "org.apache.iotdb.hadoop.fileSystem.HDFSInput";
@@ -313,6 +330,20 @@ public class TSFileConfig implements Serializable {
     this.compressor = CompressionType.valueOf(compressor);
   }
 
+  /** @return whether the TsFile of the version number can be read */
+  public static boolean isSupportedVersionNumber(byte versionNumber) {
+    return versionNumber == VERSION_NUMBER
+        || versionNumber == VERSION_NUMBER_WITH_EXTENDED_STATISTICS;
+  }
+
+  public boolean isEnableExtendedStatistics() {
+    return enableExtendedStatistics;
+  }
+
+  public void setEnableExtendedStatistics(boolean enableExtendedStatistics) {
+    this.enableExtendedStatistics = enableExtendedStatistics;
+  }
+
   public int getPageCheckSizeThreshold() {
     return pageCheckSizeThreshold;
   }
@@ -434,6 +465,22 @@ public class TSFileConfig implements Serializable {
     this.dfsClientFailoverProxyProvider = dfsClientFailoverProxyProvider;
   }
 
+  public boolean isEnableMMapRead() {
+    return enableMMapRead;
+  }
+
+  public void setEnableMMapRead(boolean enableMMapRead) {
+    this.enableMMapRead = enableMMapRead;
+  }
+
+  public int getMaxMMapFileNum() {
+    return maxMMapFileNum;
+  }
+
+  public void setMaxMMapFileNum(int maxMMapFileNum) {
+    this.maxMMapFileNum = maxMMapFileNum;
+  }
+
   public int getBatchSize() {
     return batchSize;
   }
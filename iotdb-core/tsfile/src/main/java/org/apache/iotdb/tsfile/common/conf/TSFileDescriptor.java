@@ -79,7 +79,10 @@ public class TSFileDescriptor {
     writer.setInt(conf::setFloatPrecision, "float_precision");
     writer.setString(conf::setValueEncoder, "value_encoder");
     writer.setString(conf::setCompressor, "compressor");
+    writer.setBoolean(conf::setEnableExtendedStatistics, "enable_extended_statistics");
     writer.setInt(conf::setBatchSize, "batch_size");
+    writer.setBoolean(conf::setEnableMMapRead, "enable_mmap_read");
+    writer.setInt(conf::setMaxMMapFileNum, "max_mmap_file_num");
   }
 
   private static class PropertiesOverWriter {
@@ -97,6 +100,10 @@ public class TSFileDescriptor {
       set(setter, propertyKey, Integer::parseInt);
     }
 
+    public void setBoolean(Consumer<Boolean> setter, String propertyKey) {
+      set(setter, propertyKey, Boolean::parseBoolean);
+    }
+
     public void setDouble(Consumer<Double> setter, String propertyKey) {
       set(setter, propertyKey, Double::parseDouble);
     }
@@ -198,6 +198,96 @@ public abstract class Decoder {
     throw new TsFileDecodingException("Method readBigDecimal is not supported by Decoder");
   }
 
+  /**
+   * Decode at most {@code length} boolean values into {@code dest}, starting at {@code offset}.
+   * Subclasses that can decode a whole run at once should override it, the default implementation
+   * falls back to {@link #readBoolean(ByteBuffer)}.
+   *
+   * @return the number of values actually decoded, which is smaller than {@code length} only if the
+   *     buffer is exhausted
+   */
+  public int readBooleans(ByteBuffer buffer, boolean[] dest, int offset, int length)
+      throws IOException {
+    int count = 0;
+    while (count < length && hasNext(buffer)) {
+      dest[offset + count++] = readBoolean(buffer);
+    }
+    return count;
+  }
+
+  /**
+   * Decode at most {@code length} int values into {@code dest}, starting at {@code offset}.
+   *
+   * @return the number of values actually decoded
+   * @see #readBooleans(ByteBuffer, boolean[], int, int)
+   */
+  public int readInts(ByteBuffer buffer, int[] dest, int offset, int length) throws IOException {
+    int count = 0;
+    while (count < length && hasNext(buffer)) {
+      dest[offset + count++] = readInt(buffer);
+    }
+    return count;
+  }
+
+  /**
+   * Decode at most {@code length} long values into {@code dest}, starting at {@code offset}.
+   *
+   * @return the number of values actually decoded
+   * @see #readBooleans(ByteBuffer, boolean[], int, int)
+   */
+  public int readLongs(ByteBuffer buffer, long[] dest, int offset, int length) throws IOException {
+    int count = 0;
+    while (count < length && hasNext(buffer)) {
+      dest[offset + count++] = readLong(buffer);
+    }
+    return count;
+  }
+
+  /**
+   * Decode at most {@code length} float values into {@code dest}, starting at {@code offset}.
+   *
+   * @return the number of values actually decoded
+   * @see #readBooleans(ByteBuffer, boolean[], int, int)
+   */
+  public int readFloats(ByteBuffer buffer, float[] dest, int offset, int length)
+      throws IOException {
+    int count = 0;
+    while (count < length && hasNext(buffer)) {
+      dest[offset + count++] = readFloat(buffer);
+    }
+    return count;
+  }
+
+  /**
+   * Decode at most {@code length} double values into {@code dest}, starting at {@code offset}.
+   *
+   * @return the number of values actually decoded
+   * @see #readBooleans(ByteBuffer, boolean[], int, int)
+   */
+  public int readDoubles(ByteBuffer buffer, double[] dest, int offset, int length)
+      throws IOException {
+    int count = 0;
+    while (count < length && hasNext(buffer)) {
+      dest[offset + count++] = readDouble(buffer);
+    }
+    return count;
+  }
+
+  /**
+   * Decode at most {@code length} binary values into {@code dest}, starting at {@code offset}.
+   *
+   * @return the number of values actually decoded
+   * @see #readBooleans(ByteBuffer, boolean[], int, int)
+   */
+  public int readBinaries(ByteBuffer buffer, Binary[] dest, int offset, int length)
+      throws IOException {
+    int count = 0;
+    while (count < length && hasNext(buffer)) {
+      dest[offset + count++] = readBinary(buffer);
+    }
+    return count;
+  }
+
   public abstract boolean hasNext(ByteBuffer buffer) throws IOException;
 
   public abstract void reset();
@@ -42,6 +42,15 @@ public class DoublePrecisionDecoderV2 extends LongGorillaDecoder {
     return Double.longBitsToDouble(readLong(in));
   }
 
+  @Override
+  public int readDoubles(ByteBuffer in, double[] dest, int offset, int length) {
+    int count = 0;
+    while (count < length && hasNext) {
+      dest[offset + count++] = Double.longBitsToDouble(readLong(in));
+    }
+    return count;
+  }
+
   @Override
   protected long cacheNext(ByteBuffer in) {
     readNext(in);
@@ -47,6 +47,11 @@ public class FloatDecoder extends Decoder {
   /** flag that indicates whether we have read maxPointNumber and calculated maxPointValue. */
   private boolean isMaxPointNumberRead;
 
+  /** reused buffers for the encoded integers of {@link #readFloats} and {@link #readDoubles}. */
+  private int[] intBuffer = new int[0];
+
+  private long[] longBuffer = new long[0];
+
   public FloatDecoder(TSEncoding encodingType, TSDataType dataType) {
     super(encodingType);
     if (encodingType == TSEncoding.RLE) {
@@ -93,6 +98,42 @@ public class FloatDecoder extends Decoder {
     return value / maxPointValue;
   }
 
+  @Override
+  public int readFloats(ByteBuffer buffer, float[] dest, int offset, int length)
+      throws IOException {
+    if (length == 0 || !hasNext(buffer)) {
+      return 0;
+    }
+    readMaxPointValue(buffer);
+    if (intBuffer.length < length) {
+      intBuffer = new int[length];
+    }
+    int[] values = intBuffer;
+    int count = decoder.readInts(buffer, values, 0, length);
+    for (int i = 0; i < count; i++) {
+      dest[offset + i] = (float) (values[i] / maxPointValue);
+    }
+    return count;
+  }
+
+  @Override
+  public int readDoubles(ByteBuffer buffer, double[] dest, int offset, int length)
+      throws IOException {
+    if (length == 0 || !hasNext(buffer)) {
+      return 0;
+    }
+    readMaxPointValue(buffer);
+    if (longBuffer.length < length) {
+      longBuffer = new long[length];
+    }
+    long[] values = longBuffer;
+    int count = decoder.readLongs(buffer, values, 0, length);
+    for (int i = 0; i < count; i++) {
+      dest[offset + i] = values[i] / maxPointValue;
+    }
+    return count;
+  }
+
   private void readMaxPointValue(ByteBuffer buffer) {
     if (!isMaxPointNumberRead) {
       int maxPointNumber = ReadWriteForEncodingUtils.readUnsignedVarInt(buffer);
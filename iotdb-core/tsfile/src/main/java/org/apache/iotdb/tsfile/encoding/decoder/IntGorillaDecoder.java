@@ -58,6 +58,15 @@ public class IntGorillaDecoder extends GorillaDecoderV2 {
     return returnValue;
   }
 
+  @Override
+  public int readInts(ByteBuffer in, int[] dest, int offset, int length) {
+    int count = 0;
+    while (count < length && hasNext) {
+      dest[offset + count++] = readInt(in);
+    }
+    return count;
+  }
+
   protected int cacheNext(ByteBuffer in) {
     readNext(in);
     if (storedValue == GORILLA_ENCODING_ENDING_INTEGER) {
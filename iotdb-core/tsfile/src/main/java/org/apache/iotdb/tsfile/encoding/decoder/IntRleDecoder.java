@@ -29,6 +29,7 @@ import org.slf4j.LoggerFactory;
 
 import java.io.IOException;
 import java.nio.ByteBuffer;
+import java.util.Arrays;
 
 /** Decoder for int value using rle or bit-packing. */
 public class IntRleDecoder extends RleDecoder {
@@ -44,6 +45,9 @@ public class IntRleDecoder extends RleDecoder {
   /** packer for unpacking int values. */
   private IntPacker packer;
 
+  /** reused buffer for the int values of {@link #readBooleans}. */
+  private int[] booleanBuffer = new int[0];
+
   public IntRleDecoder() {
     super();
     currentValue = 0;
@@ -54,6 +58,20 @@ public class IntRleDecoder extends RleDecoder {
     return this.readInt(buffer) == 0 ? false : true;
   }
 
+  @Override
+  public int readBooleans(ByteBuffer buffer, boolean[] dest, int offset, int length)
+      throws IOException {
+    if (booleanBuffer.length < length) {
+      booleanBuffer = new int[length];
+    }
+    int[] values = booleanBuffer;
+    int count = readInts(buffer, values, 0, length);
+    for (int i = 0; i < count; i++) {
+      dest[offset + i] = values[i] != 0;
+    }
+    return count;
+  }
+
   /**
    * read an int value from InputStream.
    *
@@ -99,6 +117,39 @@ public class IntRleDecoder extends RleDecoder {
     return result;
   }
 
+  @Override
+  public int readInts(ByteBuffer buffer, int[] dest, int offset, int length) throws IOException {
+    int count = 0;
+    while (count < length && hasNext(buffer)) {
+      if (!isLengthAndBitWidthReaded) {
+        // start to read a new rle+bit-packing pattern
+        readLengthAndBitWidth(buffer);
+      }
+      if (currentCount == 0) {
+        readNext();
+      }
+      // emit the whole rle run or the rest of the bit-packed group at once
+      int n = Math.min(length - count, currentCount);
+      switch (mode) {
+        case RLE:
+          Arrays.fill(dest, offset + count, offset + count + n, currentValue);
+          break;
+        case BIT_PACKED:
+          System.arraycopy(currentBuffer, bitPackingNum - currentCount, dest, offset + count, n);
+          break;
+        default:
+          throw new TsFileDecodingException(
+              String.format("tsfile-encoding IntRleDecoder: not a valid mode %s", mode));
+      }
+      currentCount -= n;
+      count += n;
+      if (!hasNextPackage()) {
+        isLengthAndBitWidthReaded = false;
+      }
+    }
+    return count;
+  }
+
   @Override
   protected void initPacker() {
     packer = new IntPacker(bitWidth);
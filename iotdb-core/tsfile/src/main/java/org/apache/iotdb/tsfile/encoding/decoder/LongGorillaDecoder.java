@@ -58,6 +58,15 @@ public class LongGorillaDecoder extends GorillaDecoderV2 {
     return returnValue;
   }
 
+  @Override
+  public int readLongs(ByteBuffer in, long[] dest, int offset, int length) {
+    int count = 0;
+    while (count < length && hasNext) {
+      dest[offset + count++] = readLong(in);
+    }
+    return count;
+  }
+
   protected long cacheNext(ByteBuffer in) {
     readNext(in);
     if (storedValue == GORILLA_ENCODING_ENDING_LONG) {
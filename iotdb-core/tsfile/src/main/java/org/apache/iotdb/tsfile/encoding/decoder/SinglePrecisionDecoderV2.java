@@ -42,6 +42,15 @@ public class SinglePrecisionDecoderV2 extends IntGorillaDecoder {
     return Float.intBitsToFloat(readInt(in));
   }
 
+  @Override
+  public int readFloats(ByteBuffer in, float[] dest, int offset, int length) {
+    int count = 0;
+    while (count < length && hasNext) {
+      dest[offset + count++] = Float.intBitsToFloat(readInt(in));
+    }
+    return count;
+  }
+
   @Override
   protected int cacheNext(ByteBuffer in) {
     readNext(in);
@@ -30,4 +30,8 @@ public class TsFileRuntimeException extends RuntimeException {
   public TsFileRuntimeException(String message) {
     super(message);
   }
+
+  public TsFileRuntimeException(String message, Throwable cause) {
+    super(message, cause);
+  }
 }
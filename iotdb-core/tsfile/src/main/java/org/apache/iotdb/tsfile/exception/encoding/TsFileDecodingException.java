@@ -31,4 +31,8 @@ public class TsFileDecodingException extends TsFileRuntimeException {
   public TsFileDecodingException(String message) {
     super(message);
   }
+
+  public TsFileDecodingException(String message, Throwable cause) {
+    super(message, cause);
+  }
 }
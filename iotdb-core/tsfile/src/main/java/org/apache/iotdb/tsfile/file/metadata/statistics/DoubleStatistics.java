@@ -55,7 +55,7 @@ public class DoubleStatistics extends Statistics<Double> {
 
   @Override
   public long getRetainedSizeInBytes() {
-    return INSTANCE_SIZE;
+    return INSTANCE_SIZE + getExtendedStatisticsRetainedSizeInBytes();
   }
 
   /**
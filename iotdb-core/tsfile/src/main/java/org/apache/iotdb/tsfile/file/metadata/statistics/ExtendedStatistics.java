@@ -0,0 +1,214 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.iotdb.tsfile.file.metadata.statistics;
+
+import org.apache.iotdb.tsfile.utils.HyperLogLog;
+import org.apache.iotdb.tsfile.utils.QuantileSketch;
+import org.apache.iotdb.tsfile.utils.ReadWriteForEncodingUtils;
+import org.apache.iotdb.tsfile.utils.ReadWriteIOUtils;
+
+import org.openjdk.jol.info.ClassLayout;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+
+/**
+ * Optional statistics of numeric series, which are written after the value statistics of pages,
+ * chunks and timeseries when extended statistics are enabled. They answer variance, approximate
+ * quantiles and approximate distinct count without decoding points.
+ *
+ * <p>The variance is kept as the mean and the sum of squared differences from the mean (M2), which
+ * are updated by Welford's algorithm and merged by Chan's formula. Unlike a sum of squares, M2 does
+ * not lose precision by cancellation when the variance is small relative to the mean.
+ *
+ * <p>The block is prefixed by its length and starts with a format version, a block of an unknown
+ * version is skipped. A block is fully decoded when it is read, so statistics shared through the
+ * metadata caches are never modified by their readers.
+ */
+public class ExtendedStatistics {
+
+  private static final long INSTANCE_SIZE =
+      ClassLayout.parseClass(ExtendedStatistics.class).instanceSize();
+
+  /** format version of the block, a block of another version is skipped */
+  static final byte FORMAT_VERSION = 1;
+
+  private long count;
+  private double mean;
+  private double m2;
+  private QuantileSketch quantileSketch;
+  private HyperLogLog distinctCounter;
+
+  public ExtendedStatistics() {
+    this.quantileSketch = new QuantileSketch();
+    this.distinctCounter = new HyperLogLog();
+  }
+
+  private ExtendedStatistics(
+      long count,
+      double mean,
+      double m2,
+      QuantileSketch quantileSketch,
+      HyperLogLog distinctCounter) {
+    this.count = count;
+    this.mean = mean;
+    this.m2 = m2;
+    this.quantileSketch = quantileSketch;
+    this.distinctCounter = distinctCounter;
+  }
+
+  public void update(double value) {
+    count++;
+    double delta = value - mean;
+    mean += delta / count;
+    m2 += delta * (value - mean);
+    quantileSketch.update(value);
+    distinctCounter.update(value);
+  }
+
+  public void merge(ExtendedStatistics other) {
+    if (other.count > 0) {
+      long newCount = count + other.count;
+      double delta = other.mean - mean;
+      mean += delta * other.count / newCount;
+      m2 += other.m2 + delta * delta * count / newCount * other.count;
+      count = newCount;
+    }
+    quantileSketch.merge(other.quantileSketch);
+    distinctCounter.merge(other.distinctCounter);
+  }
+
+  public ExtendedStatistics copy() {
+    ExtendedStatistics copy = new ExtendedStatistics();
+    copy.merge(this);
+    return copy;
+  }
+
+  public long getCount() {
+    return count;
+  }
+
+  public double getMean() {
+    return mean;
+  }
+
+  /** @return the sum of squared differences from the mean */
+  public double getM2() {
+    return m2;
+  }
+
+  public QuantileSketch getQuantileSketch() {
+    return quantileSketch;
+  }
+
+  public HyperLogLog getDistinctCounter() {
+    return distinctCounter;
+  }
+
+  public int serialize(OutputStream outputStream) throws IOException {
+    int blockSize = getBlockSize();
+    int length = ReadWriteForEncodingUtils.writeUnsignedVarInt(blockSize, outputStream);
+    length += ReadWriteIOUtils.write(FORMAT_VERSION, outputStream);
+    length += ReadWriteForEncodingUtils.writeUnsignedVarInt((int) count, outputStream);
+    length += ReadWriteIOUtils.write(mean, outputStream);
+    length += ReadWriteIOUtils.write(m2, outputStream);
+    length += quantileSketch.serialize(outputStream);
+    length += distinctCounter.serialize(outputStream);
+    return length;
+  }
+
+  public int getSerializedSize() {
+    int blockSize = getBlockSize();
+    return ReadWriteForEncodingUtils.uVarIntSize(blockSize) + blockSize;
+  }
+
+  private int getBlockSize() {
+    return Byte.BYTES
+        + ReadWriteForEncodingUtils.uVarIntSize((int) count)
+        + 2 * Double.BYTES
+        + quantileSketch.getSerializedSize()
+        + distinctCounter.getSerializedSize();
+  }
+
+  /** @return the extended statistics, or null if the block is of an unknown version */
+  public static ExtendedStatistics deserialize(ByteBuffer buffer) {
+    int length = ReadWriteForEncodingUtils.readUnsignedVarInt(buffer);
+    int end = buffer.position() + length;
+    ExtendedStatistics extendedStatistics = readBlock(buffer, length);
+    buffer.position(end);
+    return extendedStatistics;
+  }
+
+  /** @return the extended statistics, or null if the block is of an unknown version */
+  public static ExtendedStatistics deserialize(InputStream inputStream) throws IOException {
+    int length = ReadWriteForEncodingUtils.readUnsignedVarInt(inputStream);
+    return readBlock(ByteBuffer.wrap(ReadWriteIOUtils.readBytes(inputStream, length)), length);
+  }
+
+  private static ExtendedStatistics readBlock(ByteBuffer buffer, int length) {
+    if (length == 0 || buffer.get() != FORMAT_VERSION) {
+      return null;
+    }
+    return new ExtendedStatistics(
+        ReadWriteForEncodingUtils.readUnsignedVarInt(buffer),
+        ReadWriteIOUtils.readDouble(buffer),
+        ReadWriteIOUtils.readDouble(buffer),
+        QuantileSketch.deserialize(buffer),
+        HyperLogLog.deserialize(buffer));
+  }
+
+  public long getRetainedSizeInBytes() {
+    return INSTANCE_SIZE
+        + quantileSketch.getRetainedSizeInBytes()
+        + distinctCounter.getRetainedSizeInBytes();
+  }
+
+  @Override
+  public boolean equals(Object o) {
+    if (this == o) {
+      return true;
+    }
+    if (o == null || getClass() != o.getClass()) {
+      return false;
+    }
+    ExtendedStatistics that = (ExtendedStatistics) o;
+    return count == that.count
+        && Double.compare(that.mean, mean) == 0
+        && Double.compare(that.m2, m2) == 0
+        && quantileSketch.equals(that.quantileSketch)
+        && distinctCounter.equals(that.distinctCounter);
+  }
+
+  @Override
+  public int hashCode() {
+    int result = Long.hashCode(count);
+    result = 31 * result + Double.hashCode(mean);
+    result = 31 * result + Double.hashCode(m2);
+    result = 31 * result + quantileSketch.hashCode();
+    return 31 * result + distinctCounter.hashCode();
+  }
+
+  @Override
+  public String toString() {
+    return "ExtendedStatistics{count=" + count + ", mean=" + mean + ", m2=" + m2 + '}';
+  }
+}
@@ -55,7 +55,7 @@ public class FloatStatistics extends Statistics<Float> {
 
   @Override
   public long getRetainedSizeInBytes() {
-    return INSTANCE_SIZE;
+    return INSTANCE_SIZE + getExtendedStatisticsRetainedSizeInBytes();
   }
 
   public void initializeStats(float min, float max, float first, float last, double sum) {
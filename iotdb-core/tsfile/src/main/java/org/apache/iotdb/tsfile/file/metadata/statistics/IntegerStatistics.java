@@ -56,7 +56,7 @@ public class IntegerStatistics extends Statistics<Integer> {
 
   @Override
   public long getRetainedSizeInBytes() {
-    return INSTANCE_SIZE;
+    return INSTANCE_SIZE + getExtendedStatisticsRetainedSizeInBytes();
   }
 
   public void initializeStats(int min, int max, int first, int last, long sum) {
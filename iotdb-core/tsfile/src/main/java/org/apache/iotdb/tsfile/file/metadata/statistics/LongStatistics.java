@@ -55,7 +55,7 @@ public class LongStatistics extends Statistics<Long> {
 
   @Override
   public long getRetainedSizeInBytes() {
-    return INSTANCE_SIZE;
+    return INSTANCE_SIZE + getExtendedStatisticsRetainedSizeInBytes();
   }
 
   public void initializeStats(long min, long max, long firstValue, long last, double sum) {
@@ -19,6 +19,8 @@
 
 package org.apache.iotdb.tsfile.file.metadata.statistics;
 
+import org.apache.iotdb.tsfile.common.conf.TSFileConfig;
+import org.apache.iotdb.tsfile.common.conf.TSFileDescriptor;
 import org.apache.iotdb.tsfile.exception.filter.StatisticsClassException;
 import org.apache.iotdb.tsfile.exception.write.UnknownColumnTypeException;
 import org.apache.iotdb.tsfile.file.metadata.enums.TSDataType;
@@ -44,7 +46,15 @@ import java.util.Objects;
  * Each data type extends this Statistic as super class.<br>
  * <br>
  * For the statistics in the Unseq file TimeSeriesMetadata, only firstValue, lastValue, startTime
- * and endTime can be used.</br>
+ * and endTime can be used.</br> <br>
+ * Numeric statistics may carry {@link ExtendedStatistics}. They are marked by writing the count as
+ * an unsigned var int padded with one redundant zero byte, which decodes to the same count, and are
+ * written after the value statistics. The marker is not backward compatible, as readers without
+ * extended statistics would read the block as the following metadata, so files which may carry
+ * them are of a new version, {@link TSFileConfig#VERSION_NUMBER_WITH_EXTENDED_STATISTICS}, which
+ * such readers reject. Extended statistics read from such files, e.g. by a compaction, are dropped
+ * when they are serialized while extended statistics are disabled, as files are then written in
+ * the previous version.
  */
 public abstract class Statistics<T extends Serializable> {
 
@@ -60,6 +70,9 @@ public abstract class Statistics<T extends Serializable> {
   private long startTime = Long.MAX_VALUE;
   private long endTime = Long.MIN_VALUE;
 
+  /** sum of squares, quantile sketch and distinct counter, null if not enabled. */
+  private ExtendedStatistics extendedStatistics;
+
   static final String STATS_UNSUPPORTED_MSG = "%s statistics does not support: %s";
 
   /**
@@ -114,9 +127,15 @@ public abstract class Statistics<T extends Serializable> {
   public abstract TSDataType getType();
 
   public int getSerializedSize() {
-    return ReadWriteForEncodingUtils.uVarIntSize(count) // count
-        + 16 // startTime, endTime
-        + getStatsSize();
+    int size =
+        ReadWriteForEncodingUtils.uVarIntSize(count) // count
+            + 16 // startTime, endTime
+            + getStatsSize();
+    if (isExtendedStatisticsSerialized()) {
+      // the padding byte of count
+      size += 1 + extendedStatistics.getSerializedSize();
+    }
+    return size;
   }
 
   public abstract int getStatsSize();
@@ -125,14 +144,44 @@ public abstract class Statistics<T extends Serializable> {
 
   public int serialize(OutputStream outputStream) throws IOException {
     int byteLen = 0;
-    byteLen += ReadWriteForEncodingUtils.writeUnsignedVarInt(count, outputStream);
+    boolean extended = isExtendedStatisticsSerialized();
+    if (!extended) {
+      byteLen += ReadWriteForEncodingUtils.writeUnsignedVarInt(count, outputStream);
+    } else {
+      byteLen += writePaddedUnsignedVarInt(count, outputStream);
+    }
     byteLen += ReadWriteIOUtils.write(startTime, outputStream);
     byteLen += ReadWriteIOUtils.write(endTime, outputStream);
     // value statistics of different data type
     byteLen += serializeStats(outputStream);
+    if (extended) {
+      byteLen += extendedStatistics.serialize(outputStream);
+    }
     return byteLen;
   }
 
+  private boolean isExtendedStatisticsSerialized() {
+    return extendedStatistics != null
+        && TSFileDescriptor.getInstance().getConfig().isEnableExtendedStatistics();
+  }
+
+  /**
+   * Write the value as an unsigned var int with one more byte than needed, whose last byte is zero.
+   * Readers without extended statistics decode the same value, but do not expect the block after it.
+   */
+  private static int writePaddedUnsignedVarInt(int value, OutputStream outputStream)
+      throws IOException {
+    int position = 2;
+    while ((value & 0xFFFFFF80) != 0L) {
+      outputStream.write((value & 0x7F) | 0x80);
+      value >>>= 7;
+      position++;
+    }
+    outputStream.write(value | 0x80);
+    outputStream.write(0);
+    return position;
+  }
+
   abstract int serializeStats(OutputStream outputStream) throws IOException;
 
   /**
@@ -148,10 +197,25 @@ public abstract class Statistics<T extends Serializable> {
   public static Statistics<? extends Serializable> deserialize(
       InputStream inputStream, TSDataType dataType) throws IOException {
     Statistics<? extends Serializable> statistics = getStatsByType(dataType);
-    statistics.setCount(ReadWriteForEncodingUtils.readUnsignedVarInt(inputStream));
+    // read the count byte by byte to find out whether it is padded
+    int count = 0;
+    int countSize = 1;
+    int shift = 0;
+    int b = inputStream.read();
+    while (b != -1 && (b & 0x80) != 0) {
+      count |= (b & 0x7F) << shift;
+      shift += 7;
+      b = inputStream.read();
+      countSize++;
+    }
+    count |= b << shift;
+    statistics.setCount(count);
     statistics.setStartTime(ReadWriteIOUtils.readLong(inputStream));
     statistics.setEndTime(ReadWriteIOUtils.readLong(inputStream));
     statistics.deserialize(inputStream);
+    if (countSize > ReadWriteForEncodingUtils.uVarIntSize(count)) {
+      statistics.extendedStatistics = ExtendedStatistics.deserialize(inputStream);
+    }
     statistics.isEmpty = false;
     return statistics;
   }
@@ -159,10 +223,16 @@ public abstract class Statistics<T extends Serializable> {
   public static Statistics<? extends Serializable> deserialize(
       ByteBuffer buffer, TSDataType dataType) {
     Statistics<? extends Serializable> statistics = getStatsByType(dataType);
+    int countPosition = buffer.position();
     statistics.setCount(ReadWriteForEncodingUtils.readUnsignedVarInt(buffer));
+    boolean extended =
+        buffer.position() - countPosition > ReadWriteForEncodingUtils.uVarIntSize(statistics.count);
     statistics.setStartTime(ReadWriteIOUtils.readLong(buffer));
     statistics.setEndTime(ReadWriteIOUtils.readLong(buffer));
     statistics.deserialize(buffer);
+    if (extended) {
+      statistics.extendedStatistics = ExtendedStatistics.deserialize(buffer);
+    }
     statistics.isEmpty = false;
     return statistics;
   }
@@ -188,6 +258,7 @@ public abstract class Statistics<T extends Serializable> {
   public void mergeStatistics(Statistics<? extends Serializable> stats) {
     if (this.getClass() == stats.getClass()) {
       if (!stats.isEmpty) {
+        mergeExtendedStatistics(stats);
         if (stats.startTime < this.startTime) {
           this.startTime = stats.startTime;
         }
@@ -208,6 +279,48 @@ public abstract class Statistics<T extends Serializable> {
     }
   }
 
+  /**
+   * Extended statistics are only kept if both sides have them, otherwise they would not describe
+   * all the merged points.
+   */
+  private void mergeExtendedStatistics(Statistics<? extends Serializable> stats) {
+    if (stats.extendedStatistics == null) {
+      extendedStatistics = null;
+    } else if (isEmpty) {
+      extendedStatistics = stats.extendedStatistics.copy();
+    } else if (extendedStatistics != null) {
+      extendedStatistics.merge(stats.extendedStatistics);
+    }
+  }
+
+  /**
+   * Keep extended statistics of the following points, only numeric statistics support them. It
+   * should be called before any point is updated.
+   */
+  public void enableExtendedStatistics() {
+    switch (getType()) {
+      case INT32:
+      case INT64:
+      case FLOAT:
+      case DOUBLE:
+        if (isEmpty && extendedStatistics == null) {
+          extendedStatistics = new ExtendedStatistics();
+        }
+        break;
+      default:
+        break;
+    }
+  }
+
+  /** @return extended statistics, or null if they are not kept for all the points. */
+  public ExtendedStatistics getExtendedStatistics() {
+    return extendedStatistics;
+  }
+
+  protected long getExtendedStatisticsRetainedSizeInBytes() {
+    return extendedStatistics == null ? 0 : extendedStatistics.getRetainedSizeInBytes();
+  }
+
   public void update(long time, boolean value) {
     update(time);
     updateStats(value);
@@ -216,21 +329,33 @@ public abstract class Statistics<T extends Serializable> {
   public void update(long time, int value) {
     update(time);
     updateStats(value);
+    if (extendedStatistics != null) {
+      extendedStatistics.update(value);
+    }
   }
 
   public void update(long time, long value) {
     update(time);
     updateStats(value);
+    if (extendedStatistics != null) {
+      extendedStatistics.update(value);
+    }
   }
 
   public void update(long time, float value) {
     update(time);
     updateStats(value);
+    if (extendedStatistics != null) {
+      extendedStatistics.update(value);
+    }
   }
 
   public void update(long time, double value) {
     update(time);
     updateStats(value);
+    if (extendedStatistics != null) {
+      extendedStatistics.update(value);
+    }
   }
 
   public void update(long time, Binary value) {
@@ -256,21 +381,41 @@ public abstract class Statistics<T extends Serializable> {
   public void update(long[] time, int[] values, int batchSize) {
     update(time, batchSize);
     updateStats(values, batchSize);
+    if (extendedStatistics != null) {
+      for (int i = 0; i < batchSize; i++) {
+        extendedStatistics.update(values[i]);
+      }
+    }
   }
 
   public void update(long[] time, long[] values, int batchSize) {
     update(time, batchSize);
     updateStats(values, batchSize);
+    if (extendedStatistics != null) {
+      for (int i = 0; i < batchSize; i++) {
+        extendedStatistics.update(values[i]);
+      }
+    }
   }
 
   public void update(long[] time, float[] values, int batchSize) {
     update(time, batchSize);
     updateStats(values, batchSize);
+    if (extendedStatistics != null) {
+      for (int i = 0; i < batchSize; i++) {
+        extendedStatistics.update(values[i]);
+      }
+    }
   }
 
   public void update(long[] time, double[] values, int batchSize) {
     update(time, batchSize);
     updateStats(values, batchSize);
+    if (extendedStatistics != null) {
+      for (int i = 0; i < batchSize; i++) {
+        extendedStatistics.update(values[i]);
+      }
+    }
   }
 
   public void update(long[] time, Binary[] values, int batchSize) {
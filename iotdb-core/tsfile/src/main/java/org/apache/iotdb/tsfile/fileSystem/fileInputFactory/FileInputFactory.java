@@ -26,4 +26,12 @@ import java.io.IOException;
 public interface FileInputFactory {
 
   TsFileInput getTsFileInput(String filePath) throws IOException;
+
+  /**
+   * get an input for a sealed TsFile, whose content will not change any more. Implementations may
+   * return an input optimized for random reads, e.g. a memory-mapped one.
+   */
+  default TsFileInput getSealedTsFileInput(String filePath) throws IOException {
+    return getTsFileInput(filePath);
+  }
 }
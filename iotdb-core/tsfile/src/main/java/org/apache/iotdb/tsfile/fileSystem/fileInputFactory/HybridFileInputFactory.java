@@ -59,4 +59,10 @@ public class HybridFileInputFactory implements FileInputFactory {
     FSPath path = FSUtils.parse(filePath);
     return getFileInputFactory(path.getFsType()).getTsFileInput(path.getPath());
   }
+
+  @Override
+  public TsFileInput getSealedTsFileInput(String filePath) throws IOException {
+    FSPath path = FSUtils.parse(filePath);
+    return getFileInputFactory(path.getFsType()).getSealedTsFileInput(path.getPath());
+  }
 }
@@ -19,9 +19,12 @@
 
 package org.apache.iotdb.tsfile.fileSystem.fileInputFactory;
 
+import org.apache.iotdb.tsfile.common.conf.TSFileDescriptor;
 import org.apache.iotdb.tsfile.read.reader.LocalTsFileInput;
+import org.apache.iotdb.tsfile.read.reader.MMapTsFileInput;
 import org.apache.iotdb.tsfile.read.reader.TsFileInput;
 
+import java.io.File;
 import java.io.IOException;
 import java.nio.file.Paths;
 
@@ -31,4 +34,14 @@ public class LocalFSInputFactory implements FileInputFactory {
   public TsFileInput getTsFileInput(String filePath) throws IOException {
     return new LocalTsFileInput(Paths.get(filePath));
   }
+
+  @Override
+  public TsFileInput getSealedTsFileInput(String filePath) throws IOException {
+    // a single MappedByteBuffer can not address more than Integer.MAX_VALUE bytes
+    if (TSFileDescriptor.getInstance().getConfig().isEnableMMapRead()
+        && new File(filePath).length() <= Integer.MAX_VALUE) {
+      return new MMapTsFileInput(Paths.get(filePath));
+    }
+    return getTsFileInput(filePath);
+  }
 }
@@ -1462,9 +1462,13 @@ public class TsFileSequenceReader implements AutoCloseable {
    * @param position the start position of data in the tsFileInput, or the current position if
    *     position = -1
    * @param totalSize the size of data that want to read
-   * @return data that been read.
+   * @return data that been read. If the tsFileInput supports slicing (e.g. a memory-mapped file)
+   *     and position >= 0, a read-only view of the file is returned without copying.
    */
   protected ByteBuffer readData(long position, int totalSize) throws IOException {
+    if (position >= 0 && tsFileInput.isSliceSupported()) {
+      return tsFileInput.slice(position, totalSize);
+    }
     int allocateSize = Math.min(MAX_READ_BUFFER_SIZE, totalSize);
     int allocateNum = (int) Math.ceil((double) totalSize / allocateSize);
     ByteBuffer buffer = ByteBuffer.allocate(totalSize);
@@ -1555,7 +1559,7 @@ public class TsFileSequenceReader implements AutoCloseable {
       return TsFileCheckStatus.INCOMPATIBLE_FILE;
     }
     if (!TSFileConfig.MAGIC_STRING.equals(readHeadMagic())
-        || (TSFileConfig.VERSION_NUMBER != readVersionNumber())) {
+        || !TSFileConfig.isSupportedVersionNumber(readVersionNumber())) {
       return TsFileCheckStatus.INCOMPATIBLE_FILE;
     }
 
@@ -1828,7 +1832,7 @@ public class TsFileSequenceReader implements AutoCloseable {
     }
     try {
       if (!TSFileConfig.MAGIC_STRING.equals(readHeadMagic())
-          || (TSFileConfig.VERSION_NUMBER != readVersionNumber())) {
+          || !TSFileConfig.isSupportedVersionNumber(readVersionNumber())) {
         return TsFileCheckStatus.INCOMPATIBLE_FILE;
       }
       tsFileInput.position(headerLength);
@@ -97,11 +97,11 @@ public class Chunk {
       offset1 = chunk.chunkData.position();
       chunk.chunkData.flip();
       // the actual size should add another page statistics size
-      dataSize += (chunk.chunkData.array().length + chunk.chunkStatistic.getSerializedSize());
+      dataSize += (chunk.chunkData.capacity() + chunk.chunkStatistic.getSerializedSize());
     } else {
       // if the merge chunk already has more than one page, we can reuse all the part of its data
       // the dataSize is equal to the before
-      dataSize += chunk.chunkData.array().length;
+      dataSize += chunk.chunkData.capacity();
     }
     // from where the page data of the current chunk starts, if -1, it means the current chunk has
     // more than one page
@@ -119,20 +119,20 @@ public class Chunk {
       offset2 = chunkData.position();
       chunkData.flip();
       // the actual size should add another page statistics size
-      dataSize += (chunkData.array().length + chunkStatistic.getSerializedSize());
+      dataSize += (chunkData.capacity() + chunkStatistic.getSerializedSize());
     } else {
       // if the current chunk already has more than one page, we can reuse all the part of its data
       // the dataSize is equal to the before
-      dataSize += chunkData.array().length;
+      dataSize += chunkData.capacity();
     }
     chunkHeader.setDataSize(dataSize);
     ByteBuffer newChunkData = ByteBuffer.allocate(dataSize);
     // the current chunk has more than one page, we can use its data part directly without any
     // changes
     if (offset2 == -1) {
-      newChunkData.put(chunkData.array());
+      newChunkData.put(getBytes(chunkData));
     } else { // the current chunk has only one page, we need to add one page statistics for it
-      byte[] b = chunkData.array();
+      byte[] b = getBytes(chunkData);
       // put the uncompressedSize and compressedSize of this page
       newChunkData.put(b, 0, offset2);
       // add page statistics
@@ -145,10 +145,10 @@ public class Chunk {
     // the merged chunk has more than one page, we can use its data part directly without any
     // changes
     if (offset1 == -1) {
-      newChunkData.put(chunk.chunkData.array());
+      newChunkData.put(getBytes(chunk.chunkData));
     } else {
       // put the uncompressedSize and compressedSize of this page
-      byte[] b = chunk.chunkData.array();
+      byte[] b = getBytes(chunk.chunkData);
       newChunkData.put(b, 0, offset1);
       // add page statistics
       PublicBAOS a = new PublicBAOS();
@@ -167,9 +167,42 @@ public class Chunk {
   /**
    * it's only used for query cache, and assuming that we use HeapByteBuffer, if we use Pooled
    * DirectByteBuffer in the future, we need to change the calculation logic here. chunkStatistic
-   * and deleteIntervalList are all null in cache
+   * and deleteIntervalList are all null in cache. A direct chunkData, e.g. a view of a
+   * memory-mapped TsFile, is charged its size as well, as it keeps the memory behind it alive.
    */
   public long getRetainedSizeInBytes() {
     return INSTANCE_SIZE + sizeOfByteArray(chunkData.capacity());
   }
+
+  /**
+   * Return a chunk whose data is on heap, this one if it already is. Chunks read from a
+   * memory-mapped TsFile are views of the mapping, which is unmapped once the reader is closed, so
+   * they have to be copied before being kept beyond that.
+   */
+  public Chunk copyToHeapIfDirect() {
+    if (!chunkData.isDirect()) {
+      return this;
+    }
+    ByteBuffer heapData = ByteBuffer.wrap(getBytes(chunkData));
+    heapData.position(chunkData.position());
+    heapData.limit(chunkData.limit());
+    return new Chunk(chunkHeader, heapData, deleteIntervalList, chunkStatistic);
+  }
+
+  /**
+   * get the whole content of the buffer regardless of its position, chunkData may be a read-only
+   * slice of a memory-mapped file which has no accessible backing array.
+   */
+  private static byte[] getBytes(ByteBuffer buffer) {
+    if (buffer.hasArray()
+        && buffer.arrayOffset() == 0
+        && buffer.array().length == buffer.capacity()) {
+      return buffer.array();
+    }
+    byte[] bytes = new byte[buffer.capacity()];
+    ByteBuffer duplicate = buffer.duplicate();
+    duplicate.clear();
+    duplicate.get(bytes);
+    return bytes;
+  }
 }
@@ -152,6 +152,12 @@ public class RunLengthEncodedColumn implements Column {
     return res;
   }
 
+  @Override
+  public int getArrayOffset() {
+    // the arrays are expanded from value at position 0
+    return 0;
+  }
+
   @Override
   public Object[] getObjects() {
     Object[] res = new Object[positionCount];
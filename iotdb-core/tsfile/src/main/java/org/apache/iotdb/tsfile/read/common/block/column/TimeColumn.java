@@ -144,6 +144,16 @@ public class TimeColumn implements Column {
     return values;
   }
 
+  @Override
+  public long[] getLongs() {
+    return values;
+  }
+
+  @Override
+  public int getArrayOffset() {
+    return arrayOffset;
+  }
+
   @Override
   public int getInstanceSize() {
     return INSTANCE_SIZE;
@@ -0,0 +1,287 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.iotdb.tsfile.read.reader;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * A {@link TsFileInput} for sealed TsFiles which serves positional reads from a read-only memory
+ * mapping of the whole file, so that repeated reads hit the OS page cache instead of issuing a
+ * system call and copying into a new heap buffer each time. {@link #slice(long, int)} returns views
+ * of the mapping directly.
+ *
+ * <p>The file is mapped lazily on the first positional read if {@link MMapTsFileInputManager} has
+ * a free slot, otherwise the read is served by the underlying {@link FileChannel} and mapping is
+ * tried again on the next read. The mapping lives until this input is closed, when it is unmapped
+ * explicitly. So slices must not be used after the input is closed, which the FileReaderManager
+ * ensures by closing a reader only when no query references its file, and caches holding chunks
+ * beyond that have to copy them.
+ *
+ * <p>Sequential reads (those relying on {@link #position()}) are rare for sealed files and are
+ * served by the underlying {@link FileChannel}.
+ */
+public class MMapTsFileInput implements TsFileInput {
+
+  private static final Logger logger = LoggerFactory.getLogger(MMapTsFileInput.class);
+
+  // sun.misc.Unsafe#invokeCleaner, which is only available since Java 9
+  private static final Object UNSAFE;
+  private static final Method INVOKE_CLEANER;
+
+  static {
+    Object unsafe = null;
+    Method invokeCleaner = null;
+    try {
+      Class<?> unsafeClass = Class.forName("sun.misc.Unsafe");
+      invokeCleaner = unsafeClass.getMethod("invokeCleaner", ByteBuffer.class);
+      Field theUnsafe = unsafeClass.getDeclaredField("theUnsafe");
+      theUnsafe.setAccessible(true);
+      unsafe = theUnsafe.get(null);
+    } catch (ReflectiveOperationException | RuntimeException e) {
+      // Java 8, the cleaner of the buffer is invoked directly
+      invokeCleaner = null;
+    }
+    UNSAFE = unsafe;
+    INVOKE_CLEANER = invokeCleaner;
+  }
+
+  private final FileChannel channel;
+  private final String filePath;
+  private final long fileSize;
+
+  private volatile MappedByteBuffer mappedBuffer;
+
+  private volatile boolean closed;
+
+  public MMapTsFileInput(Path file) throws IOException {
+    channel = FileChannel.open(file, StandardOpenOption.READ);
+    filePath = file.toString();
+    try {
+      fileSize = channel.size();
+    } catch (IOException e) {
+      channel.close();
+      throw e;
+    }
+    if (fileSize > Integer.MAX_VALUE) {
+      channel.close();
+      throw new IOException(
+          String.format("%s is too large to be mapped, size: %d", filePath, fileSize));
+    }
+  }
+
+  @Override
+  public long size() {
+    return fileSize;
+  }
+
+  @Override
+  public long position() throws IOException {
+    try {
+      return channel.position();
+    } catch (IOException e) {
+      logger.error("Error happened while getting {} current position", filePath);
+      throw e;
+    }
+  }
+
+  @Override
+  public TsFileInput position(long newPosition) throws IOException {
+    try {
+      channel.position(newPosition);
+      return this;
+    } catch (IOException e) {
+      logger.error("Error happened while changing {} position to {}", filePath, newPosition);
+      throw e;
+    }
+  }
+
+  @Override
+  public int read(ByteBuffer dst) throws IOException {
+    try {
+      return channel.read(dst);
+    } catch (IOException e) {
+      logger.error("Error happened while reading {} from current position", filePath);
+      throw e;
+    }
+  }
+
+  @Override
+  public int read(ByteBuffer dst, long position) throws IOException {
+    if (position >= fileSize) {
+      return -1;
+    }
+    int length = (int) Math.min(dst.remaining(), fileSize - position);
+    MappedByteBuffer buffer = getMappedBuffer();
+    if (buffer == null) {
+      return readFromChannel(dst, position, length);
+    }
+    dst.put(slice(buffer, position, length));
+    return length;
+  }
+
+  @Override
+  public boolean isSliceSupported() {
+    return true;
+  }
+
+  /**
+   * Return a view of the mapping, or a heap copy if the file can not be mapped for now because the
+   * limit of mapped files is reached.
+   */
+  @Override
+  public ByteBuffer slice(long position, int size) throws IOException {
+    if (position < 0 || size < 0 || position + size > fileSize) {
+      throw new IOException(
+          String.format(
+              "reach the end of the data. Size of data that want to read: %s, position: %s, "
+                  + "file size: %s",
+              size, position, fileSize));
+    }
+    MappedByteBuffer buffer = getMappedBuffer();
+    if (buffer == null) {
+      ByteBuffer copy = ByteBuffer.allocate(size);
+      readFromChannel(copy, position, size);
+      copy.flip();
+      return copy;
+    }
+    return slice(buffer, position, size);
+  }
+
+  private static ByteBuffer slice(MappedByteBuffer buffer, long position, int size) {
+    ByteBuffer view = buffer.duplicate();
+    view.position((int) position);
+    view.limit((int) position + size);
+    return view.slice();
+  }
+
+  private int readFromChannel(ByteBuffer dst, long position, int length) throws IOException {
+    int limit = dst.limit();
+    dst.limit(dst.position() + length);
+    try {
+      int readLength = 0;
+      while (dst.hasRemaining()) {
+        int n = channel.read(dst, position + readLength);
+        if (n < 0) {
+          break;
+        }
+        readLength += n;
+      }
+      return readLength;
+    } catch (IOException e) {
+      logger.error("Error happened while reading {} from position {}", filePath, position);
+      throw e;
+    } finally {
+      dst.limit(limit);
+    }
+  }
+
+  /** @return the mapping of the file, or null if the limit of mapped files is reached */
+  private MappedByteBuffer getMappedBuffer() throws IOException {
+    MappedByteBuffer buffer = mappedBuffer;
+    if (buffer != null) {
+      return buffer;
+    }
+    synchronized (this) {
+      if (closed) {
+        throw new IOException(String.format("%s has been closed", filePath));
+      }
+      if (mappedBuffer == null) {
+        if (!MMapTsFileInputManager.getInstance().tryAcquire()) {
+          return null;
+        }
+        try {
+          mappedBuffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, fileSize);
+        } catch (IOException e) {
+          MMapTsFileInputManager.getInstance().release();
+          logger.error("Error happened while mapping {}", filePath);
+          throw e;
+        }
+      }
+      return mappedBuffer;
+    }
+  }
+
+  boolean isMapped() {
+    return mappedBuffer != null;
+  }
+
+  @Override
+  public InputStream wrapAsInputStream() {
+    return Channels.newInputStream(channel);
+  }
+
+  /** Close the channel and unmap the file, no slice of it may be used after that. */
+  @Override
+  public void close() throws IOException {
+    MappedByteBuffer buffer;
+    synchronized (this) {
+      if (closed) {
+        return;
+      }
+      closed = true;
+      buffer = mappedBuffer;
+      mappedBuffer = null;
+    }
+    if (buffer != null) {
+      unmap(buffer);
+      MMapTsFileInputManager.getInstance().release();
+    }
+    try {
+      channel.close();
+    } catch (IOException e) {
+      logger.error("Error happened while closing {}", filePath);
+      throw e;
+    }
+  }
+
+  private void unmap(MappedByteBuffer buffer) {
+    try {
+      if (INVOKE_CLEANER != null) {
+        INVOKE_CLEANER.invoke(UNSAFE, buffer);
+      } else {
+        Method cleanerMethod = buffer.getClass().getMethod("cleaner");
+        cleanerMethod.setAccessible(true);
+        Object cleaner = cleanerMethod.invoke(buffer);
+        if (cleaner != null) {
+          cleaner.getClass().getMethod("clean").invoke(cleaner);
+        }
+      }
+    } catch (ReflectiveOperationException | RuntimeException e) {
+      logger.warn("Failed to unmap {}, it will be released by the GC", filePath, e);
+    }
+  }
+
+  @Override
+  public String getFilePath() {
+    return filePath;
+  }
+}
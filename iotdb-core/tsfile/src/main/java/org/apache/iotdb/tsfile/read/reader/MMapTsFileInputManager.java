@@ -0,0 +1,73 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.iotdb.tsfile.read.reader;
+
+import org.apache.iotdb.tsfile.common.conf.TSFileDescriptor;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Bounds the number of files memory-mapped by {@link MMapTsFileInput} at the same time. A mapping
+ * can not be released while slices of it are in use, so instead of evicting mappings, an input
+ * takes a slot before mapping its file and returns it when it is closed, which happens when its
+ * reader is evicted from the FileReaderManager after the last query using it has finished. Once
+ * all slots are taken, further inputs are read through their FileChannel until a slot is freed.
+ */
+public class MMapTsFileInputManager {
+
+  private final AtomicInteger mappedFileNum = new AtomicInteger();
+
+  private MMapTsFileInputManager() {}
+
+  public static MMapTsFileInputManager getInstance() {
+    return MMapTsFileInputManagerHolder.INSTANCE;
+  }
+
+  /** @return whether a slot is taken, the input must not map its file if not */
+  boolean tryAcquire() {
+    int maxMappedFileNum =
+        Math.max(1, TSFileDescriptor.getInstance().getConfig().getMaxMMapFileNum());
+    while (true) {
+      int current = mappedFileNum.get();
+      if (current >= maxMappedFileNum) {
+        return false;
+      }
+      if (mappedFileNum.compareAndSet(current, current + 1)) {
+        return true;
+      }
+    }
+  }
+
+  /** Called after the input has unmapped its file. */
+  void release() {
+    mappedFileNum.decrementAndGet();
+  }
+
+  public int getMappedFileNum() {
+    return mappedFileNum.get();
+  }
+
+  private static class MMapTsFileInputManagerHolder {
+
+    private static final MMapTsFileInputManager INSTANCE = new MMapTsFileInputManager();
+
+    private MMapTsFileInputManagerHolder() {}
+  }
+}
@@ -101,6 +101,25 @@ public interface TsFileInput {
 
   InputStream wrapAsInputStream() throws IOException;
 
+  /**
+   * Whether {@link #slice(long, int)} is supported, that is, the content of this input can be
+   * exposed without copying it into a new buffer.
+   */
+  default boolean isSliceSupported() {
+    return false;
+  }
+
+  /**
+   * Return a read-only view of {@code size} bytes of this input starting from {@code position}, the
+   * returned buffer's position is 0 and its limit is {@code size}. This method does not modify this
+   * input's position.
+   *
+   * @throws UnsupportedOperationException if {@link #isSliceSupported()} is false
+   */
+  default ByteBuffer slice(long position, int size) throws IOException {
+    throw new UnsupportedOperationException(getClass().getName() + " does not support slice");
+  }
+
   /**
    * Closes this channel.
    *
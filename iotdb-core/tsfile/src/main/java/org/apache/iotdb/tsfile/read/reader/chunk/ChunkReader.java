@@ -35,6 +35,7 @@ import org.apache.iotdb.tsfile.read.common.block.TsBlock;
 import org.apache.iotdb.tsfile.read.filter.basic.Filter;
 import org.apache.iotdb.tsfile.read.reader.IChunkReader;
 import org.apache.iotdb.tsfile.read.reader.IPageReader;
+import org.apache.iotdb.tsfile.read.reader.page.DecodedPageProvider;
 import org.apache.iotdb.tsfile.read.reader.page.PageReader;
 
 import java.io.IOException;
@@ -166,7 +167,6 @@ public class ChunkReader implements IChunkReader {
 
   private PageReader constructPageReaderForNextPage(PageHeader pageHeader) throws IOException {
     int compressedPageBodyLength = pageHeader.getCompressedSize();
-    byte[] compressedPageBody = new byte[compressedPageBodyLength];
 
     // doesn't has a complete page body
     if (compressedPageBodyLength > chunkDataBuffer.remaining()) {
@@ -177,13 +177,44 @@ public class ChunkReader implements IChunkReader {
               + chunkDataBuffer.remaining());
     }
 
-    chunkDataBuffer.get(compressedPageBody);
+    ByteBuffer compressedPageBody;
+    if (chunkDataBuffer.hasArray()) {
+      compressedPageBody = chunkDataBuffer.slice();
+      compressedPageBody.limit(compressedPageBodyLength);
+      skipBytesInStreamByLength(compressedPageBodyLength);
+    } else {
+      // the chunk may be a view of a memory-mapped file, which could be unmapped before the page is
+      // read, so the page body is copied
+      byte[] pageBody = new byte[compressedPageBodyLength];
+      chunkDataBuffer.get(pageBody);
+      compressedPageBody = ByteBuffer.wrap(pageBody);
+    }
     Decoder valueDecoder =
         Decoder.getDecoderByType(chunkHeader.getEncodingType(), chunkHeader.getDataType());
+    // the page is only uncompressed when it is read and is not obtained from a
+    // DecodedPageProvider
+    PageReader reader =
+        new PageReader(
+            pageHeader,
+            () -> uncompressPageData(pageHeader, compressedPageBody),
+            chunkHeader.getDataType(),
+            valueDecoder,
+            timeDecoder,
+            filter);
+    reader.setDeleteIntervalList(deleteIntervalList);
+    return reader;
+  }
+
+  private ByteBuffer uncompressPageData(PageHeader pageHeader, ByteBuffer compressedPageBody)
+      throws IOException {
     byte[] uncompressedPageData = new byte[pageHeader.getUncompressedSize()];
     try {
       unCompressor.uncompress(
-          compressedPageBody, 0, compressedPageBodyLength, uncompressedPageData, 0);
+          compressedPageBody.array(),
+          compressedPageBody.arrayOffset() + compressedPageBody.position(),
+          pageHeader.getCompressedSize(),
+          uncompressedPageData,
+          0);
     } catch (Exception e) {
       throw new IOException(
           "Uncompress error! uncompress size: "
@@ -194,13 +225,7 @@ public class ChunkReader implements IChunkReader {
               + pageHeader
               + e.getMessage());
     }
-
-    ByteBuffer pageData = ByteBuffer.wrap(uncompressedPageData);
-    PageReader reader =
-        new PageReader(
-            pageHeader, pageData, chunkHeader.getDataType(), valueDecoder, timeDecoder, filter);
-    reader.setDeleteIntervalList(deleteIntervalList);
-    return reader;
+    return ByteBuffer.wrap(uncompressedPageData);
   }
 
   /**
@@ -265,6 +290,16 @@ public class ChunkReader implements IChunkReader {
     // do nothing
   }
 
+  /**
+   * Let all remaining page readers obtain their decoded pages from the given provider, so that
+   * pages already decoded by another reader of the same chunk could be reused.
+   */
+  public void setDecodedPageProvider(DecodedPageProvider decodedPageProvider) {
+    for (IPageReader pageReader : pageReaderList) {
+      ((PageReader) pageReader).setDecodedPageProvider(decodedPageProvider);
+    }
+  }
+
   public ChunkHeader getChunkHeader() {
     return chunkHeader;
   }
@@ -0,0 +1,103 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.iotdb.tsfile.read.reader.page;
+
+import org.apache.iotdb.tsfile.exception.write.UnSupportedDataTypeException;
+import org.apache.iotdb.tsfile.file.metadata.enums.TSDataType;
+import org.apache.iotdb.tsfile.utils.Binary;
+
+import org.openjdk.jol.info.ClassLayout;
+
+import static io.airlift.slice.SizeOf.sizeOf;
+
+/**
+ * All timestamps and values of one page, decoded but neither filtered nor paginated. The arrays are
+ * never modified once the page is built, so one instance can be shared by the {@link PageReader}s
+ * of several queries that scan the same page, each of them applying its own deletions, filter and
+ * pagination on top of it.
+ */
+public class DecodedPage {
+
+  private static final long INSTANCE_SIZE =
+      ClassLayout.parseClass(DecodedPage.class).instanceSize();
+
+  private final TSDataType dataType;
+
+  private final int size;
+
+  private final long[] timestamps;
+
+  /** a boolean[], int[], long[], float[], double[] or Binary[] according to {@link #dataType} */
+  private final Object values;
+
+  public DecodedPage(TSDataType dataType, int size, long[] timestamps, Object values) {
+    this.dataType = dataType;
+    this.size = size;
+    this.timestamps = timestamps;
+    this.values = values;
+  }
+
+  public TSDataType getDataType() {
+    return dataType;
+  }
+
+  public int getSize() {
+    return size;
+  }
+
+  public long[] getTimestamps() {
+    return timestamps;
+  }
+
+  public Object getValues() {
+    return values;
+  }
+
+  public long getRetainedSizeInBytes() {
+    long valuesSize;
+    switch (dataType) {
+      case BOOLEAN:
+        valuesSize = sizeOf((boolean[]) values);
+        break;
+      case INT32:
+        valuesSize = sizeOf((int[]) values);
+        break;
+      case INT64:
+        valuesSize = sizeOf((long[]) values);
+        break;
+      case FLOAT:
+        valuesSize = sizeOf((float[]) values);
+        break;
+      case DOUBLE:
+        valuesSize = sizeOf((double[]) values);
+        break;
+      case TEXT:
+        Binary[] binaries = (Binary[]) values;
+        valuesSize = sizeOf(binaries);
+        for (int i = 0; i < size; i++) {
+          valuesSize += sizeOf(binaries[i].getValues());
+        }
+        break;
+      default:
+        throw new UnSupportedDataTypeException(String.valueOf(dataType));
+    }
+    return INSTANCE_SIZE + sizeOf(timestamps) + valuesSize;
+  }
+}
@@ -0,0 +1,44 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.iotdb.tsfile.read.reader.page;
+
+import org.apache.iotdb.tsfile.file.header.PageHeader;
+
+import java.io.IOException;
+
+/**
+ * Supplies the {@link DecodedPage} of a page to its {@link PageReader}. An implementation may
+ * return a page decoded earlier by another reader of the same page instead of decoding it again.
+ */
+@FunctionalInterface
+public interface DecodedPageProvider {
+
+  /**
+   * @param pageHeader header of the page to be decoded
+   * @param decoder decodes the page when no shared copy is available
+   */
+  DecodedPage getOrDecode(PageHeader pageHeader, PageDecoder decoder) throws IOException;
+
+  @FunctionalInterface
+  interface PageDecoder {
+
+    DecodedPage decode() throws IOException;
+  }
+}
@@ -29,9 +29,16 @@ import org.apache.iotdb.tsfile.read.common.BatchDataFactory;
 import org.apache.iotdb.tsfile.read.common.TimeRange;
 import org.apache.iotdb.tsfile.read.common.block.TsBlock;
 import org.apache.iotdb.tsfile.read.common.block.TsBlockBuilder;
-import org.apache.iotdb.tsfile.read.common.block.column.ColumnBuilder;
-import org.apache.iotdb.tsfile.read.common.block.column.TimeColumnBuilder;
+import org.apache.iotdb.tsfile.read.common.block.column.BinaryColumn;
+import org.apache.iotdb.tsfile.read.common.block.column.BooleanColumn;
+import org.apache.iotdb.tsfile.read.common.block.column.Column;
+import org.apache.iotdb.tsfile.read.common.block.column.DoubleColumn;
+import org.apache.iotdb.tsfile.read.common.block.column.FloatColumn;
+import org.apache.iotdb.tsfile.read.common.block.column.IntColumn;
+import org.apache.iotdb.tsfile.read.common.block.column.LongColumn;
+import org.apache.iotdb.tsfile.read.common.block.column.TimeColumn;
 import org.apache.iotdb.tsfile.read.filter.basic.Filter;
+import org.apache.iotdb.tsfile.read.filter.basic.TimeFilter;
 import org.apache.iotdb.tsfile.read.filter.factory.FilterFactory;
 import org.apache.iotdb.tsfile.read.reader.IPageReader;
 import org.apache.iotdb.tsfile.read.reader.series.PaginationController;
@@ -50,6 +57,9 @@ import static org.apache.iotdb.tsfile.utils.Preconditions.checkArgument;
 
 public class PageReader implements IPageReader {
 
+  /** the number of points decoded at a time when the page is read with a limit */
+  private static final int DECODE_BATCH_SIZE = 128;
+
   private final PageHeader pageHeader;
 
   protected TSDataType dataType;
@@ -74,6 +84,12 @@ public class PageReader implements IPageReader {
 
   private int deleteCursor = 0;
 
+  /** if set, the decoded page is obtained from it and may be shared with other readers */
+  private DecodedPageProvider decodedPageProvider;
+
+  /** if set, the page data has not been loaded yet and is loaded by it when the page is read */
+  private PageDataLoader pageDataLoader;
+
   public PageReader(
       ByteBuffer pageData,
       TSDataType dataType,
@@ -98,6 +114,32 @@ public class PageReader implements IPageReader {
     splitDataToTimeStampAndValue(pageData);
   }
 
+  /**
+   * The page data is only loaded when the page is read, so that a reader whose decoded page is
+   * obtained from a {@link DecodedPageProvider} does not uncompress it at all.
+   */
+  public PageReader(
+      PageHeader pageHeader,
+      PageDataLoader pageDataLoader,
+      TSDataType dataType,
+      Decoder valueDecoder,
+      Decoder timeDecoder,
+      Filter filter) {
+    this.dataType = dataType;
+    this.valueDecoder = valueDecoder;
+    this.timeDecoder = timeDecoder;
+    this.filter = filter;
+    this.pageHeader = pageHeader;
+    this.pageDataLoader = pageDataLoader;
+  }
+
+  private void loadPageData() throws IOException {
+    if (pageDataLoader != null) {
+      splitDataToTimeStampAndValue(pageDataLoader.load());
+      pageDataLoader = null;
+    }
+  }
+
   /**
    * split pageContent into two stream: time and value
    *
@@ -119,6 +161,7 @@ public class PageReader implements IPageReader {
   public BatchData getAllSatisfiedPageData(boolean ascending) throws IOException {
     BatchData pageData = BatchDataFactory.createBatchData(dataType, ascending, false);
     if (filter == null || !filter.canSkip(this)) {
+      loadPageData();
       while (timeDecoder.hasNext(timeBuffer)) {
         long timestamp = timeDecoder.readLong(timeBuffer);
         switch (dataType) {
@@ -180,156 +223,314 @@ public class PageReader implements IPageReader {
     }
   }
 
+  /**
+   * Decode the page into primitive arrays and then apply deletions, the filter and the pagination
+   * as passes over those arrays, the result is wrapped into a {@link TsBlock} directly. With a
+   * limit, the page is decoded batch by batch and decoding stops as soon as the limit is reached.
+   * If a {@link DecodedPageProvider} is set, the decoded page may be shared with other readers of
+   * the same page, so it is decoded as a whole and the selected positions are copied out instead of
+   * compacted in place.
+   */
   @Override
   public TsBlock getAllSatisfiedData() throws IOException {
-    TsBlockBuilder builder;
-    if (paginationController.hasCurLimit()) {
-      builder =
-          new TsBlockBuilder(
-              (int)
-                  Math.min(
-                      paginationController.getCurLimit(), pageHeader.getStatistics().getCount()),
-              Collections.singletonList(dataType));
-    } else {
-      builder =
-          new TsBlockBuilder(
-              (int) pageHeader.getStatistics().getCount(), Collections.singletonList(dataType));
+    if (pageCanSkip()) {
+      return new TsBlockBuilder(0, Collections.singletonList(dataType)).build();
     }
-    TimeColumnBuilder timeBuilder = builder.getTimeColumnBuilder();
-    ColumnBuilder valueBuilder = builder.getColumnBuilder(0);
-    if (!pageCanSkip()) {
-      switch (dataType) {
-        case BOOLEAN:
-          while (timeDecoder.hasNext(timeBuffer)) {
-            long timestamp = timeDecoder.readLong(timeBuffer);
-            boolean aBoolean = valueDecoder.readBoolean(valueBuffer);
-            if (isDeleted(timestamp) || (filter != null && !filter.satisfy(timestamp, aBoolean))) {
-              continue;
-            }
-            if (paginationController.hasCurOffset()) {
-              paginationController.consumeOffset();
-              continue;
-            }
-            if (paginationController.hasCurLimit()) {
-              timeBuilder.writeLong(timestamp);
-              valueBuilder.writeBoolean(aBoolean);
-              builder.declarePosition();
-              paginationController.consumeLimit();
-            } else {
-              break;
-            }
+
+    if (decodedPageProvider != null && pageHeader != null) {
+      DecodedPage decodedPage = decodedPageProvider.getOrDecode(pageHeader, this::decode);
+      int size = decodedPage.getSize();
+      long[] timeBatch = decodedPage.getTimestamps();
+      Object values = decodedPage.getValues();
+      int[] selection = new int[size];
+      int candidateCount = selectByTime(timeBatch, 0, size, selection, 0);
+      if (hasValueFilter()) {
+        candidateCount = selectByValue(timeBatch, values, selection, 0, candidateCount);
+      }
+      int selectedCount = paginate(selection, 0, candidateCount);
+      return buildTsBlock(timeBatch, values, selection, selectedCount, true);
+    }
+
+    loadPageData();
+    int pageSize = (int) pageHeader.getStatistics().getCount();
+    long[] timeBatch = new long[pageSize];
+    Object values = createValueArray(pageSize);
+    int[] selection = new int[pageSize];
+    int batchSize = paginationController.getCurLimit() > 0 ? DECODE_BATCH_SIZE : pageSize;
+    boolean hasValueFilter = hasValueFilter();
+    int decodedCount = 0;
+    int selectedCount = 0;
+    while (decodedCount < pageSize && paginationController.hasCurLimit()) {
+      int length = Math.min(batchSize, pageSize - decodedCount);
+      int batchEnd =
+          decodedCount + timeDecoder.readLongs(timeBuffer, timeBatch, decodedCount, length);
+      if (batchEnd == decodedCount) {
+        break;
+      }
+      int candidateCount =
+          selectByTime(timeBatch, decodedCount, batchEnd, selection, selectedCount);
+      if (hasValueFilter) {
+        readValues(values, decodedCount, batchEnd - decodedCount);
+        candidateCount = selectByValue(timeBatch, values, selection, selectedCount, candidateCount);
+        selectedCount = paginate(selection, selectedCount, candidateCount);
+      } else {
+        selectedCount = paginate(selection, selectedCount, candidateCount);
+        // the values after the last selected one are useless once the limit is reached
+        int valueEnd =
+            paginationController.hasCurLimit() || selectedCount == 0
+                ? batchEnd
+                : Math.max(decodedCount, selection[selectedCount - 1] + 1);
+        readValues(values, decodedCount, valueEnd - decodedCount);
+      }
+      decodedCount = batchEnd;
+    }
+    return buildTsBlock(timeBatch, values, selection, selectedCount, false);
+  }
+
+  /** Decode all timestamps and values of this page, it could only be called once. */
+  public DecodedPage decode() throws IOException {
+    loadPageData();
+    int pageSize = (int) pageHeader.getStatistics().getCount();
+    long[] timeBatch = new long[pageSize];
+    int size = timeDecoder.readLongs(timeBuffer, timeBatch, 0, pageSize);
+    Object values = createValueArray(size);
+    readValues(values, 0, size);
+    return new DecodedPage(dataType, size, timeBatch, values);
+  }
+
+  private Object createValueArray(int size) {
+    switch (dataType) {
+      case BOOLEAN:
+        return new boolean[size];
+      case INT32:
+        return new int[size];
+      case INT64:
+        return new long[size];
+      case FLOAT:
+        return new float[size];
+      case DOUBLE:
+        return new double[size];
+      case TEXT:
+        return new Binary[size];
+      default:
+        throw new UnSupportedDataTypeException(String.valueOf(dataType));
+    }
+  }
+
+  private void readValues(Object values, int offset, int length) throws IOException {
+    if (length <= 0) {
+      return;
+    }
+    switch (dataType) {
+      case BOOLEAN:
+        valueDecoder.readBooleans(valueBuffer, (boolean[]) values, offset, length);
+        break;
+      case INT32:
+        valueDecoder.readInts(valueBuffer, (int[]) values, offset, length);
+        break;
+      case INT64:
+        valueDecoder.readLongs(valueBuffer, (long[]) values, offset, length);
+        break;
+      case FLOAT:
+        valueDecoder.readFloats(valueBuffer, (float[]) values, offset, length);
+        break;
+      case DOUBLE:
+        valueDecoder.readDoubles(valueBuffer, (double[]) values, offset, length);
+        break;
+      case TEXT:
+        valueDecoder.readBinaries(valueBuffer, (Binary[]) values, offset, length);
+        break;
+      default:
+        throw new UnSupportedDataTypeException(String.valueOf(dataType));
+    }
+  }
+
+  /** A {@link TimeFilter} is applied together with deletions, without reading values. */
+  private boolean hasValueFilter() {
+    return filter != null && !(filter instanceof TimeFilter);
+  }
+
+  /**
+   * Append the positions in [from, to) that are not deleted and satisfy the time filter, if any, to
+   * {@code selection}, starting at {@code selectedCount}.
+   *
+   * @return the new end of the selection
+   */
+  private int selectByTime(long[] timeBatch, int from, int to, int[] selection, int selectedCount) {
+    boolean hasDeletion = deleteIntervalList != null && !deleteIntervalList.isEmpty();
+    Filter timeFilter = filter instanceof TimeFilter ? filter : null;
+    if (!hasDeletion && timeFilter == null) {
+      for (int i = from; i < to; i++) {
+        selection[selectedCount++] = i;
+      }
+      return selectedCount;
+    }
+    for (int i = from; i < to; i++) {
+      long time = timeBatch[i];
+      if ((!hasDeletion || !isDeleted(time))
+          && (timeFilter == null || timeFilter.satisfy(time, null))) {
+        selection[selectedCount++] = i;
+      }
+    }
+    return selectedCount;
+  }
+
+  /**
+   * Keep the positions in selection[from, to) whose values satisfy the filter, in place.
+   *
+   * @return the new end of the selection
+   */
+  private int selectByValue(long[] timeBatch, Object values, int[] selection, int from, int to) {
+    int satisfiedCount = from;
+    switch (dataType) {
+      case BOOLEAN:
+        boolean[] booleans = (boolean[]) values;
+        for (int i = from; i < to; i++) {
+          int position = selection[i];
+          if (filter.satisfy(timeBatch[position], booleans[position])) {
+            selection[satisfiedCount++] = position;
           }
-          break;
-        case INT32:
-          while (timeDecoder.hasNext(timeBuffer)) {
-            long timestamp = timeDecoder.readLong(timeBuffer);
-            int anInt = valueDecoder.readInt(valueBuffer);
-            if (isDeleted(timestamp) || (filter != null && !filter.satisfy(timestamp, anInt))) {
-              continue;
-            }
-            if (paginationController.hasCurOffset()) {
-              paginationController.consumeOffset();
-              continue;
-            }
-            if (paginationController.hasCurLimit()) {
-              timeBuilder.writeLong(timestamp);
-              valueBuilder.writeInt(anInt);
-              builder.declarePosition();
-              paginationController.consumeLimit();
-            } else {
-              break;
-            }
+        }
+        break;
+      case INT32:
+        int[] ints = (int[]) values;
+        for (int i = from; i < to; i++) {
+          int position = selection[i];
+          if (filter.satisfy(timeBatch[position], ints[position])) {
+            selection[satisfiedCount++] = position;
           }
-          break;
-        case INT64:
-          while (timeDecoder.hasNext(timeBuffer)) {
-            long timestamp = timeDecoder.readLong(timeBuffer);
-            long aLong = valueDecoder.readLong(valueBuffer);
-            if (isDeleted(timestamp) || (filter != null && !filter.satisfy(timestamp, aLong))) {
-              continue;
-            }
-            if (paginationController.hasCurOffset()) {
-              paginationController.consumeOffset();
-              continue;
-            }
-            if (paginationController.hasCurLimit()) {
-              timeBuilder.writeLong(timestamp);
-              valueBuilder.writeLong(aLong);
-              builder.declarePosition();
-              paginationController.consumeLimit();
-            } else {
-              break;
-            }
+        }
+        break;
+      case INT64:
+        long[] longs = (long[]) values;
+        for (int i = from; i < to; i++) {
+          int position = selection[i];
+          if (filter.satisfy(timeBatch[position], longs[position])) {
+            selection[satisfiedCount++] = position;
           }
-          break;
-        case FLOAT:
-          while (timeDecoder.hasNext(timeBuffer)) {
-            long timestamp = timeDecoder.readLong(timeBuffer);
-            float aFloat = valueDecoder.readFloat(valueBuffer);
-            if (isDeleted(timestamp) || (filter != null && !filter.satisfy(timestamp, aFloat))) {
-              continue;
-            }
-            if (paginationController.hasCurOffset()) {
-              paginationController.consumeOffset();
-              continue;
-            }
-            if (paginationController.hasCurLimit()) {
-              timeBuilder.writeLong(timestamp);
-              valueBuilder.writeFloat(aFloat);
-              builder.declarePosition();
-              paginationController.consumeLimit();
-            } else {
-              break;
-            }
+        }
+        break;
+      case FLOAT:
+        float[] floats = (float[]) values;
+        for (int i = from; i < to; i++) {
+          int position = selection[i];
+          if (filter.satisfy(timeBatch[position], floats[position])) {
+            selection[satisfiedCount++] = position;
           }
-          break;
-        case DOUBLE:
-          while (timeDecoder.hasNext(timeBuffer)) {
-            long timestamp = timeDecoder.readLong(timeBuffer);
-            double aDouble = valueDecoder.readDouble(valueBuffer);
-            if (isDeleted(timestamp) || (filter != null && !filter.satisfy(timestamp, aDouble))) {
-              continue;
-            }
-            if (paginationController.hasCurOffset()) {
-              paginationController.consumeOffset();
-              continue;
-            }
-            if (paginationController.hasCurLimit()) {
-              timeBuilder.writeLong(timestamp);
-              valueBuilder.writeDouble(aDouble);
-              builder.declarePosition();
-              paginationController.consumeLimit();
-            } else {
-              break;
-            }
+        }
+        break;
+      case DOUBLE:
+        double[] doubles = (double[]) values;
+        for (int i = from; i < to; i++) {
+          int position = selection[i];
+          if (filter.satisfy(timeBatch[position], doubles[position])) {
+            selection[satisfiedCount++] = position;
           }
-          break;
-        case TEXT:
-          while (timeDecoder.hasNext(timeBuffer)) {
-            long timestamp = timeDecoder.readLong(timeBuffer);
-            Binary aBinary = valueDecoder.readBinary(valueBuffer);
-            if (isDeleted(timestamp) || (filter != null && !filter.satisfy(timestamp, aBinary))) {
-              continue;
-            }
-            if (paginationController.hasCurOffset()) {
-              paginationController.consumeOffset();
-              continue;
-            }
-            if (paginationController.hasCurLimit()) {
-              timeBuilder.writeLong(timestamp);
-              valueBuilder.writeBinary(aBinary);
-              builder.declarePosition();
-              paginationController.consumeLimit();
-            } else {
-              break;
-            }
+        }
+        break;
+      case TEXT:
+        Binary[] binaries = (Binary[]) values;
+        for (int i = from; i < to; i++) {
+          int position = selection[i];
+          if (filter.satisfy(timeBatch[position], binaries[position])) {
+            selection[satisfiedCount++] = position;
           }
-          break;
-        default:
-          throw new UnSupportedDataTypeException(String.valueOf(dataType));
-      }
+        }
+        break;
+      default:
+        throw new UnSupportedDataTypeException(String.valueOf(dataType));
+    }
+    return satisfiedCount;
+  }
+
+  /**
+   * Apply the current offset and limit to the candidates in selection[from, to), in place.
+   *
+   * @return the new end of the selection
+   */
+  private int paginate(int[] selection, int from, int to) {
+    int skipped = 0;
+    if (paginationController.hasCurOffset()) {
+      skipped = (int) Math.min(paginationController.getCurOffset(), to - from);
+      paginationController.consumeOffset(skipped);
+    }
+    int length = to - from - skipped;
+    if (!paginationController.hasCurLimit()) {
+      length = 0;
+    } else if (paginationController.getCurLimit() > 0) {
+      length = (int) Math.min(paginationController.getCurLimit(), length);
+    }
+    paginationController.consumeLimit(length);
+    if (skipped > 0) {
+      System.arraycopy(selection, from + skipped, selection, from, length);
+    }
+    return from + length;
+  }
+
+  /**
+   * Gather the selected positions, which are in ascending order, into a {@link TsBlock}. The arrays
+   * are compacted in place unless {@code copy} is set.
+   */
+  private TsBlock buildTsBlock(
+      long[] timeBatch, Object values, int[] selection, int selectedCount, boolean copy) {
+    Column valueColumn;
+    switch (dataType) {
+      case BOOLEAN:
+        boolean[] booleans = (boolean[]) values;
+        boolean[] selectedBooleans = copy ? new boolean[selectedCount] : booleans;
+        for (int i = 0; i < selectedCount; i++) {
+          selectedBooleans[i] = booleans[selection[i]];
+        }
+        valueColumn = new BooleanColumn(selectedCount, Optional.empty(), selectedBooleans);
+        break;
+      case INT32:
+        int[] ints = (int[]) values;
+        int[] selectedInts = copy ? new int[selectedCount] : ints;
+        for (int i = 0; i < selectedCount; i++) {
+          selectedInts[i] = ints[selection[i]];
+        }
+        valueColumn = new IntColumn(selectedCount, Optional.empty(), selectedInts);
+        break;
+      case INT64:
+        long[] longs = (long[]) values;
+        long[] selectedLongs = copy ? new long[selectedCount] : longs;
+        for (int i = 0; i < selectedCount; i++) {
+          selectedLongs[i] = longs[selection[i]];
+        }
+        valueColumn = new LongColumn(selectedCount, Optional.empty(), selectedLongs);
+        break;
+      case FLOAT:
+        float[] floats = (float[]) values;
+        float[] selectedFloats = copy ? new float[selectedCount] : floats;
+        for (int i = 0; i < selectedCount; i++) {
+          selectedFloats[i] = floats[selection[i]];
+        }
+        valueColumn = new FloatColumn(selectedCount, Optional.empty(), selectedFloats);
+        break;
+      case DOUBLE:
+        double[] doubles = (double[]) values;
+        double[] selectedDoubles = copy ? new double[selectedCount] : doubles;
+        for (int i = 0; i < selectedCount; i++) {
+          selectedDoubles[i] = doubles[selection[i]];
+        }
+        valueColumn = new DoubleColumn(selectedCount, Optional.empty(), selectedDoubles);
+        break;
+      case TEXT:
+        Binary[] binaries = (Binary[]) values;
+        Binary[] selectedBinaries = copy ? new Binary[selectedCount] : binaries;
+        for (int i = 0; i < selectedCount; i++) {
+          selectedBinaries[i] = binaries[selection[i]];
+        }
+        valueColumn = new BinaryColumn(selectedCount, Optional.empty(), selectedBinaries);
+        break;
+      default:
+        throw new UnSupportedDataTypeException(String.valueOf(dataType));
+    }
+    long[] selectedTimes = copy ? new long[selectedCount] : timeBatch;
+    for (int i = 0; i < selectedCount; i++) {
+      selectedTimes[i] = timeBatch[selection[i]];
     }
-    return builder.build();
+    return new TsBlock(selectedCount, new TimeColumn(selectedCount, selectedTimes), valueColumn);
   }
 
   @Override
@@ -374,6 +575,10 @@ public class PageReader implements IPageReader {
     this.deleteIntervalList = list;
   }
 
+  public void setDecodedPageProvider(DecodedPageProvider decodedPageProvider) {
+    this.decodedPageProvider = decodedPageProvider;
+  }
+
   public List<TimeRange> getDeleteIntervalList() {
     return deleteIntervalList;
   }
@@ -400,4 +605,11 @@ public class PageReader implements IPageReader {
     }
     return false;
   }
+
+  /** Supplies the uncompressed data of a page. */
+  @FunctionalInterface
+  public interface PageDataLoader {
+
+    ByteBuffer load() throws IOException;
+  }
 }
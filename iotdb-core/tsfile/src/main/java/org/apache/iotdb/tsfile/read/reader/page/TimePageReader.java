@@ -26,11 +26,13 @@ import org.apache.iotdb.tsfile.read.common.TimeRange;
 
 import java.io.IOException;
 import java.nio.ByteBuffer;
-import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
 
 public class TimePageReader {
 
+  private static final int DEFAULT_BATCH_SIZE = 1024;
+
   private final PageHeader pageHeader;
 
   /** decoder for time column */
@@ -64,11 +66,8 @@ public class TimePageReader {
 
   public long[] nextTimeBatch() throws IOException {
     long[] timeBatch = new long[(int) pageHeader.getStatistics().getCount()];
-    int index = 0;
-    while (timeDecoder.hasNext(timeBuffer)) {
-      timeBatch[index++] = timeDecoder.readLong(timeBuffer);
-    }
-    return timeBatch;
+    int count = timeDecoder.readLongs(timeBuffer, timeBatch, 0, timeBatch.length);
+    return count == timeBatch.length ? timeBatch : Arrays.copyOf(timeBatch, count);
   }
 
   /**
@@ -79,11 +78,15 @@ public class TimePageReader {
     if (pageHeader.getStatistics() != null) {
       return nextTimeBatch();
     } else {
-      List<Long> timeList = new ArrayList<>();
+      long[] timeBatch = new long[DEFAULT_BATCH_SIZE];
+      int count = 0;
       while (timeDecoder.hasNext(timeBuffer)) {
-        timeList.add(timeDecoder.readLong(timeBuffer));
+        if (count == timeBatch.length) {
+          timeBatch = Arrays.copyOf(timeBatch, timeBatch.length << 1);
+        }
+        count += timeDecoder.readLongs(timeBuffer, timeBatch, count, timeBatch.length - count);
       }
-      return timeList.stream().mapToLong(t -> t).toArray();
+      return Arrays.copyOf(timeBatch, count);
     }
   }
 
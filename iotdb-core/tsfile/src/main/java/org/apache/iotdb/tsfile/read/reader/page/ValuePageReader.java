@@ -20,6 +20,7 @@
 package org.apache.iotdb.tsfile.read.reader.page;
 
 import org.apache.iotdb.tsfile.encoding.decoder.Decoder;
+import org.apache.iotdb.tsfile.exception.encoding.TsFileDecodingException;
 import org.apache.iotdb.tsfile.exception.write.UnSupportedDataTypeException;
 import org.apache.iotdb.tsfile.file.header.PageHeader;
 import org.apache.iotdb.tsfile.file.metadata.enums.TSDataType;
@@ -33,6 +34,7 @@ import org.apache.iotdb.tsfile.utils.Binary;
 import org.apache.iotdb.tsfile.utils.ReadWriteIOUtils;
 import org.apache.iotdb.tsfile.utils.TsPrimitiveType;
 
+import java.io.IOException;
 import java.io.Serializable;
 import java.nio.ByteBuffer;
 import java.util.Arrays;
@@ -56,6 +58,21 @@ public class ValuePageReader {
   /** value column in memory */
   protected ByteBuffer valueBuffer;
 
+  /**
+   * Non-null values of the page, decoded in bulk on first access. Only the array matching {@link
+   * #dataType} is used and {@link #valueIndex} points to the next value to be consumed.
+   */
+  private boolean[] booleanValues;
+
+  private int[] intValues;
+  private long[] longValues;
+  private float[] floatValues;
+  private double[] doubleValues;
+  private Binary[] binaryValues;
+
+  private boolean valuesDecoded;
+  private int valueIndex;
+
   /** A list of deleted intervals. */
   private List<TimeRange> deleteIntervalList;
 
@@ -88,6 +105,7 @@ public class ValuePageReader {
    */
   public BatchData nextBatch(long[] timeBatch, boolean ascending, Filter filter) {
     BatchData pageData = BatchDataFactory.createBatchData(dataType, ascending, false);
+    decodeValues();
     for (int i = 0; i < timeBatch.length; i++) {
       if (((bitmap[i / 8] & 0xFF) & (MASK >>> (i % 8))) == 0) {
         continue;
@@ -95,37 +113,37 @@ public class ValuePageReader {
       long timestamp = timeBatch[i];
       switch (dataType) {
         case BOOLEAN:
-          boolean aBoolean = valueDecoder.readBoolean(valueBuffer);
+          boolean aBoolean = booleanValues[valueIndex++];
           if (!isDeleted(timestamp) && (filter == null || filter.satisfy(timestamp, aBoolean))) {
             pageData.putBoolean(timestamp, aBoolean);
           }
           break;
         case INT32:
-          int anInt = valueDecoder.readInt(valueBuffer);
+          int anInt = intValues[valueIndex++];
           if (!isDeleted(timestamp) && (filter == null || filter.satisfy(timestamp, anInt))) {
             pageData.putInt(timestamp, anInt);
           }
           break;
         case INT64:
-          long aLong = valueDecoder.readLong(valueBuffer);
+          long aLong = longValues[valueIndex++];
           if (!isDeleted(timestamp) && (filter == null || filter.satisfy(timestamp, aLong))) {
             pageData.putLong(timestamp, aLong);
           }
           break;
         case FLOAT:
-          float aFloat = valueDecoder.readFloat(valueBuffer);
+          float aFloat = floatValues[valueIndex++];
           if (!isDeleted(timestamp) && (filter == null || filter.satisfy(timestamp, aFloat))) {
             pageData.putFloat(timestamp, aFloat);
           }
           break;
         case DOUBLE:
-          double aDouble = valueDecoder.readDouble(valueBuffer);
+          double aDouble = doubleValues[valueIndex++];
           if (!isDeleted(timestamp) && (filter == null || filter.satisfy(timestamp, aDouble))) {
             pageData.putDouble(timestamp, aDouble);
           }
           break;
         case TEXT:
-          Binary aBinary = valueDecoder.readBinary(valueBuffer);
+          Binary aBinary = binaryValues[valueIndex++];
           if (!isDeleted(timestamp) && (filter == null || filter.satisfy(timestamp, aBinary))) {
             pageData.putBinary(timestamp, aBinary);
           }
@@ -142,39 +160,40 @@ public class ValuePageReader {
     if (valueBuffer == null || ((bitmap[timeIndex / 8] & 0xFF) & (MASK >>> (timeIndex % 8))) == 0) {
       return null;
     }
+    decodeValues();
     switch (dataType) {
       case BOOLEAN:
-        boolean aBoolean = valueDecoder.readBoolean(valueBuffer);
+        boolean aBoolean = booleanValues[valueIndex++];
         if (!isDeleted(timestamp)) {
           resultValue = new TsPrimitiveType.TsBoolean(aBoolean);
         }
         break;
       case INT32:
-        int anInt = valueDecoder.readInt(valueBuffer);
+        int anInt = intValues[valueIndex++];
         if (!isDeleted(timestamp)) {
           resultValue = new TsPrimitiveType.TsInt(anInt);
         }
         break;
       case INT64:
-        long aLong = valueDecoder.readLong(valueBuffer);
+        long aLong = longValues[valueIndex++];
         if (!isDeleted(timestamp)) {
           resultValue = new TsPrimitiveType.TsLong(aLong);
         }
         break;
       case FLOAT:
-        float aFloat = valueDecoder.readFloat(valueBuffer);
+        float aFloat = floatValues[valueIndex++];
         if (!isDeleted(timestamp)) {
           resultValue = new TsPrimitiveType.TsFloat(aFloat);
         }
         break;
       case DOUBLE:
-        double aDouble = valueDecoder.readDouble(valueBuffer);
+        double aDouble = doubleValues[valueIndex++];
         if (!isDeleted(timestamp)) {
           resultValue = new TsPrimitiveType.TsDouble(aDouble);
         }
         break;
       case TEXT:
-        Binary aBinary = valueDecoder.readBinary(valueBuffer);
+        Binary aBinary = binaryValues[valueIndex++];
         if (!isDeleted(timestamp)) {
           resultValue = new TsPrimitiveType.TsBinary(aBinary);
         }
@@ -195,43 +214,44 @@ public class ValuePageReader {
     if (valueBuffer == null) {
       return valueBatch;
     }
+    decodeValues();
     for (int i = 0; i < size; i++) {
       if (((bitmap[i / 8] & 0xFF) & (MASK >>> (i % 8))) == 0) {
         continue;
       }
       switch (dataType) {
         case BOOLEAN:
-          boolean aBoolean = valueDecoder.readBoolean(valueBuffer);
+          boolean aBoolean = booleanValues[valueIndex++];
           if (!isDeleted(timeBatch[i])) {
             valueBatch[i] = new TsPrimitiveType.TsBoolean(aBoolean);
           }
           break;
         case INT32:
-          int anInt = valueDecoder.readInt(valueBuffer);
+          int anInt = intValues[valueIndex++];
           if (!isDeleted(timeBatch[i])) {
             valueBatch[i] = new TsPrimitiveType.TsInt(anInt);
           }
           break;
         case INT64:
-          long aLong = valueDecoder.readLong(valueBuffer);
+          long aLong = longValues[valueIndex++];
           if (!isDeleted(timeBatch[i])) {
             valueBatch[i] = new TsPrimitiveType.TsLong(aLong);
           }
           break;
         case FLOAT:
-          float aFloat = valueDecoder.readFloat(valueBuffer);
+          float aFloat = floatValues[valueIndex++];
           if (!isDeleted(timeBatch[i])) {
             valueBatch[i] = new TsPrimitiveType.TsFloat(aFloat);
           }
           break;
         case DOUBLE:
-          double aDouble = valueDecoder.readDouble(valueBuffer);
+          double aDouble = doubleValues[valueIndex++];
           if (!isDeleted(timeBatch[i])) {
             valueBatch[i] = new TsPrimitiveType.TsDouble(aDouble);
           }
           break;
         case TEXT:
-          Binary aBinary = valueDecoder.readBinary(valueBuffer);
+          Binary aBinary = binaryValues[valueIndex++];
           if (!isDeleted(timeBatch[i])) {
             valueBatch[i] = new TsPrimitiveType.TsBinary(aBinary);
           }
@@ -256,6 +276,7 @@ public class ValuePageReader {
       }
       return;
     }
+    decodeValues();
     for (int i = 0; i < readEndIndex; i++) {
       if (((bitmap[i / 8] & 0xFF) & (MASK >>> (i % 8))) == 0) {
         if (keepCurrentRow[i]) {
@@ -265,7 +286,7 @@ public class ValuePageReader {
       }
       switch (dataType) {
         case BOOLEAN:
-          boolean aBoolean = valueDecoder.readBoolean(valueBuffer);
+          boolean aBoolean = booleanValues[valueIndex++];
           if (keepCurrentRow[i]) {
             if (isDeleted[i]) {
               columnBuilder.appendNull();
@@ -275,7 +296,7 @@ public class ValuePageReader {
           }
           break;
         case INT32:
-          int anInt = valueDecoder.readInt(valueBuffer);
+          int anInt = intValues[valueIndex++];
           if (keepCurrentRow[i]) {
             if (isDeleted[i]) {
               columnBuilder.appendNull();
@@ -285,7 +306,7 @@ public class ValuePageReader {
           }
           break;
         case INT64:
-          long aLong = valueDecoder.readLong(valueBuffer);
+          long aLong = longValues[valueIndex++];
           if (keepCurrentRow[i]) {
             if (isDeleted[i]) {
               columnBuilder.appendNull();
@@ -295,7 +316,7 @@ public class ValuePageReader {
           }
           break;
         case FLOAT:
-          float aFloat = valueDecoder.readFloat(valueBuffer);
+          float aFloat = floatValues[valueIndex++];
           if (keepCurrentRow[i]) {
             if (isDeleted[i]) {
               columnBuilder.appendNull();
@@ -305,7 +326,7 @@ public class ValuePageReader {
           }
           break;
         case DOUBLE:
-          double aDouble = valueDecoder.readDouble(valueBuffer);
+          double aDouble = doubleValues[valueIndex++];
           if (keepCurrentRow[i]) {
             if (isDeleted[i]) {
               columnBuilder.appendNull();
@@ -315,7 +336,7 @@ public class ValuePageReader {
           }
           break;
         case TEXT:
-          Binary aBinary = valueDecoder.readBinary(valueBuffer);
+          Binary aBinary = binaryValues[valueIndex++];
           if (keepCurrentRow[i]) {
             if (isDeleted[i]) {
               columnBuilder.appendNull();
@@ -340,6 +361,7 @@ public class ValuePageReader {
       }
       return;
     }
+    decodeValues();
     for (int i = 0; i < readEndIndex; i++) {
       if (((bitmap[i / 8] & 0xFF) & (MASK >>> (i % 8))) == 0) {
         if (keepCurrentRow[i]) {
@@ -349,37 +371,37 @@ public class ValuePageReader {
       }
       switch (dataType) {
         case BOOLEAN:
-          boolean aBoolean = valueDecoder.readBoolean(valueBuffer);
+          boolean aBoolean = booleanValues[valueIndex++];
           if (keepCurrentRow[i]) {
             columnBuilder.writeBoolean(aBoolean);
           }
           break;
         case INT32:
-          int anInt = valueDecoder.readInt(valueBuffer);
+          int anInt = intValues[valueIndex++];
           if (keepCurrentRow[i]) {
             columnBuilder.writeInt(anInt);
           }
           break;
         case INT64:
-          long aLong = valueDecoder.readLong(valueBuffer);
+          long aLong = longValues[valueIndex++];
           if (keepCurrentRow[i]) {
             columnBuilder.writeLong(aLong);
           }
           break;
         case FLOAT:
-          float aFloat = valueDecoder.readFloat(valueBuffer);
+          float aFloat = floatValues[valueIndex++];
           if (keepCurrentRow[i]) {
             columnBuilder.writeFloat(aFloat);
           }
           break;
         case DOUBLE:
-          double aDouble = valueDecoder.readDouble(valueBuffer);
+          double aDouble = doubleValues[valueIndex++];
           if (keepCurrentRow[i]) {
             columnBuilder.writeDouble(aDouble);
           }
           break;
         case TEXT:
-          Binary aBinary = valueDecoder.readBinary(valueBuffer);
+          Binary aBinary = binaryValues[valueIndex++];
           if (keepCurrentRow[i]) {
             columnBuilder.writeBinary(aBinary);
           }
@@ -396,118 +418,83 @@ public class ValuePageReader {
       columnBuilder.appendNull(readEndIndex - readStartIndex);
       return;
     }
+    decodeValues();
 
-    switch (dataType) {
-      case BOOLEAN:
-        // skip useless data
-        for (int i = 0; i < readStartIndex; i++) {
-          if (((bitmap[i / 8] & 0xFF) & (MASK >>> (i % 8))) == 0) {
-            continue;
-          }
-          valueDecoder.readBoolean(valueBuffer);
-        }
-
-        for (int i = readStartIndex; i < readEndIndex; i++) {
-          if (((bitmap[i / 8] & 0xFF) & (MASK >>> (i % 8))) == 0) {
-            columnBuilder.appendNull();
-            continue;
-          }
-          boolean aBoolean = valueDecoder.readBoolean(valueBuffer);
-          columnBuilder.writeBoolean(aBoolean);
-        }
-        break;
-      case INT32:
-        // skip useless data
-        for (int i = 0; i < readStartIndex; i++) {
-          if (((bitmap[i / 8] & 0xFF) & (MASK >>> (i % 8))) == 0) {
-            continue;
-          }
-          valueDecoder.readInt(valueBuffer);
-        }
-
-        for (int i = readStartIndex; i < readEndIndex; i++) {
-          if (((bitmap[i / 8] & 0xFF) & (MASK >>> (i % 8))) == 0) {
-            columnBuilder.appendNull();
-            continue;
-          }
-          int aInt = valueDecoder.readInt(valueBuffer);
-          columnBuilder.writeInt(aInt);
-        }
-        break;
-      case INT64:
-        // skip useless data
-        for (int i = 0; i < readStartIndex; i++) {
-          if (((bitmap[i / 8] & 0xFF) & (MASK >>> (i % 8))) == 0) {
-            continue;
-          }
-          valueDecoder.readLong(valueBuffer);
-        }
-
-        for (int i = readStartIndex; i < readEndIndex; i++) {
-          if (((bitmap[i / 8] & 0xFF) & (MASK >>> (i % 8))) == 0) {
-            columnBuilder.appendNull();
-            continue;
-          }
-          long aLong = valueDecoder.readLong(valueBuffer);
-          columnBuilder.writeLong(aLong);
-        }
-        break;
-      case FLOAT:
-        // skip useless data
-        for (int i = 0; i < readStartIndex; i++) {
-          if (((bitmap[i / 8] & 0xFF) & (MASK >>> (i % 8))) == 0) {
-            continue;
-          }
-          valueDecoder.readFloat(valueBuffer);
-        }
-
-        for (int i = readStartIndex; i < readEndIndex; i++) {
-          if (((bitmap[i / 8] & 0xFF) & (MASK >>> (i % 8))) == 0) {
-            columnBuilder.appendNull();
-            continue;
-          }
-          float aFloat = valueDecoder.readFloat(valueBuffer);
-          columnBuilder.writeFloat(aFloat);
-        }
-        break;
-      case DOUBLE:
-        // skip useless data
-        for (int i = 0; i < readStartIndex; i++) {
-          if (((bitmap[i / 8] & 0xFF) & (MASK >>> (i % 8))) == 0) {
-            continue;
-          }
-          valueDecoder.readDouble(valueBuffer);
-        }
+    // skip useless data
+    for (int i = 0; i < readStartIndex; i++) {
+      if (((bitmap[i / 8] & 0xFF) & (MASK >>> (i % 8))) != 0) {
+        valueIndex++;
+      }
+    }
 
-        for (int i = readStartIndex; i < readEndIndex; i++) {
-          if (((bitmap[i / 8] & 0xFF) & (MASK >>> (i % 8))) == 0) {
-            columnBuilder.appendNull();
-            continue;
-          }
-          double aDouble = valueDecoder.readDouble(valueBuffer);
-          columnBuilder.writeDouble(aDouble);
-        }
-        break;
-      case TEXT:
-        // skip useless data
-        for (int i = 0; i < readStartIndex; i++) {
-          if (((bitmap[i / 8] & 0xFF) & (MASK >>> (i % 8))) == 0) {
-            continue;
-          }
-          valueDecoder.readBinary(valueBuffer);
-        }
+    for (int i = readStartIndex; i < readEndIndex; i++) {
+      if (((bitmap[i / 8] & 0xFF) & (MASK >>> (i % 8))) == 0) {
+        columnBuilder.appendNull();
+        continue;
+      }
+      switch (dataType) {
+        case BOOLEAN:
+          columnBuilder.writeBoolean(booleanValues[valueIndex++]);
+          break;
+        case INT32:
+          columnBuilder.writeInt(intValues[valueIndex++]);
+          break;
+        case INT64:
+          columnBuilder.writeLong(longValues[valueIndex++]);
+          break;
+        case FLOAT:
+          columnBuilder.writeFloat(floatValues[valueIndex++]);
+          break;
+        case DOUBLE:
+          columnBuilder.writeDouble(doubleValues[valueIndex++]);
+          break;
+        case TEXT:
+          columnBuilder.writeBinary(binaryValues[valueIndex++]);
+          break;
+        default:
+          throw new UnSupportedDataTypeException(String.valueOf(dataType));
+      }
+    }
+  }
 
-        for (int i = readStartIndex; i < readEndIndex; i++) {
-          if (((bitmap[i / 8] & 0xFF) & (MASK >>> (i % 8))) == 0) {
-            columnBuilder.appendNull();
-            continue;
-          }
-          Binary aBinary = valueDecoder.readBinary(valueBuffer);
-          columnBuilder.writeBinary(aBinary);
-        }
-        break;
-      default:
-        throw new UnSupportedDataTypeException(String.valueOf(dataType));
+  /** Decode all the non-null values of this page at once, it's a no-op after the first call. */
+  private void decodeValues() {
+    if (valuesDecoded) {
+      return;
+    }
+    valuesDecoded = true;
+    try {
+      switch (dataType) {
+        case BOOLEAN:
+          booleanValues = new boolean[size];
+          valueDecoder.readBooleans(valueBuffer, booleanValues, 0, size);
+          break;
+        case INT32:
+          intValues = new int[size];
+          valueDecoder.readInts(valueBuffer, intValues, 0, size);
+          break;
+        case INT64:
+          longValues = new long[size];
+          valueDecoder.readLongs(valueBuffer, longValues, 0, size);
+          break;
+        case FLOAT:
+          floatValues = new float[size];
+          valueDecoder.readFloats(valueBuffer, floatValues, 0, size);
+          break;
+        case DOUBLE:
+          doubleValues = new double[size];
+          valueDecoder.readDoubles(valueBuffer, doubleValues, 0, size);
+          break;
+        case TEXT:
+          binaryValues = new Binary[size];
+          valueDecoder.readBinaries(valueBuffer, binaryValues, 0, size);
+          break;
+        default:
+          throw new UnSupportedDataTypeException(String.valueOf(dataType));
+      }
+    } catch (IOException e) {
+      throw new TsFileDecodingException(
+          String.format("Failed to decode value page of %s: %s", dataType, e.getMessage()), e);
     }
   }
 
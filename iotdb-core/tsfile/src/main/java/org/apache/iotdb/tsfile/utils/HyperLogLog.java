@@ -0,0 +1,242 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.iotdb.tsfile.utils;
+
+import org.openjdk.jol.info.ClassLayout;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+
+/**
+ * HyperLogLog distinct counter. Two counters with the same precision can be merged losslessly, so
+ * the distinct count of a series can be estimated from the counters of its pages and chunks.
+ *
+ * <p>Serialized as the precision, followed by either the non-empty registers as (index delta,
+ * value) pairs or all registers, whichever is smaller.
+ */
+public class HyperLogLog {
+
+  private static final long INSTANCE_SIZE =
+      ClassLayout.parseClass(HyperLogLog.class).instanceSize();
+
+  /** 1024 registers, the standard error of the estimation is about 3.25%. */
+  public static final int DEFAULT_PRECISION = 10;
+
+  private static final byte SPARSE = 0;
+  private static final byte DENSE = 1;
+
+  private final int precision;
+  private final byte[] registers;
+
+  public HyperLogLog() {
+    this(DEFAULT_PRECISION);
+  }
+
+  public HyperLogLog(int precision) {
+    if (precision < 4 || precision > 16) {
+      throw new IllegalArgumentException("precision of HyperLogLog should be in [4, 16]");
+    }
+    this.precision = precision;
+    this.registers = new byte[1 << precision];
+  }
+
+  public int getPrecision() {
+    return precision;
+  }
+
+  public void update(double value) {
+    updateHash(hash(value));
+  }
+
+  public void update(long value) {
+    updateHash(mix(value));
+  }
+
+  /** Offers an already well distributed 64-bit hash of a value. */
+  public void updateHash(long hash) {
+    int index = (int) (hash >>> (Long.SIZE - precision));
+    // the appended one bit bounds the rank when all remaining bits are zero
+    int rank = Long.numberOfLeadingZeros((hash << precision) | (1L << (precision - 1))) + 1;
+    if (rank > registers[index]) {
+      registers[index] = (byte) rank;
+    }
+  }
+
+  public void merge(HyperLogLog other) {
+    if (other.precision != precision) {
+      throw new IllegalArgumentException(
+          String.format(
+              "Cannot merge HyperLogLog with precision %d into %d", other.precision, precision));
+    }
+    for (int i = 0; i < registers.length; i++) {
+      if (other.registers[i] > registers[i]) {
+        registers[i] = other.registers[i];
+      }
+    }
+  }
+
+  public long cardinality() {
+    int m = registers.length;
+    double sum = 0;
+    int zeros = 0;
+    for (byte register : registers) {
+      sum += 1.0 / (1L << register);
+      if (register == 0) {
+        zeros++;
+      }
+    }
+    double estimate = alpha(m) * m * m / sum;
+    if (estimate <= 2.5 * m && zeros > 0) {
+      // linear counting is more accurate for small cardinalities
+      estimate = m * Math.log((double) m / zeros);
+    }
+    return Math.round(estimate);
+  }
+
+  public boolean isEmpty() {
+    for (byte register : registers) {
+      if (register != 0) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  public int serialize(OutputStream outputStream) throws IOException {
+    int nonEmpty = countNonEmptyRegisters();
+    int length = ReadWriteIOUtils.write((byte) precision, outputStream);
+    if (isSparseSmaller(nonEmpty)) {
+      length += ReadWriteIOUtils.write(SPARSE, outputStream);
+      length += ReadWriteForEncodingUtils.writeUnsignedVarInt(nonEmpty, outputStream);
+      int previous = 0;
+      for (int i = 0; i < registers.length; i++) {
+        if (registers[i] != 0) {
+          length += ReadWriteForEncodingUtils.writeUnsignedVarInt(i - previous, outputStream);
+          length += ReadWriteIOUtils.write(registers[i], outputStream);
+          previous = i;
+        }
+      }
+    } else {
+      length += ReadWriteIOUtils.write(DENSE, outputStream);
+      outputStream.write(registers);
+      length += registers.length;
+    }
+    return length;
+  }
+
+  public int getSerializedSize() {
+    int nonEmpty = countNonEmptyRegisters();
+    return 2 + (isSparseSmaller(nonEmpty) ? sparseSize(nonEmpty) : registers.length);
+  }
+
+  public static HyperLogLog deserialize(ByteBuffer buffer) {
+    HyperLogLog hyperLogLog = new HyperLogLog(buffer.get());
+    if (buffer.get() == SPARSE) {
+      int nonEmpty = ReadWriteForEncodingUtils.readUnsignedVarInt(buffer);
+      int index = 0;
+      for (int i = 0; i < nonEmpty; i++) {
+        index += ReadWriteForEncodingUtils.readUnsignedVarInt(buffer);
+        hyperLogLog.registers[index] = buffer.get();
+      }
+    } else {
+      buffer.get(hyperLogLog.registers);
+    }
+    return hyperLogLog;
+  }
+
+  public long getRetainedSizeInBytes() {
+    return INSTANCE_SIZE + RamUsageEstimator.sizeOf(registers);
+  }
+
+  private int countNonEmptyRegisters() {
+    int nonEmpty = 0;
+    for (byte register : registers) {
+      if (register != 0) {
+        nonEmpty++;
+      }
+    }
+    return nonEmpty;
+  }
+
+  private boolean isSparseSmaller(int nonEmpty) {
+    // an index delta takes at most 3 bytes, so only compute the exact size when it may matter
+    return nonEmpty * 4 < registers.length || sparseSize(nonEmpty) < registers.length;
+  }
+
+  private int sparseSize(int nonEmpty) {
+    int size = ReadWriteForEncodingUtils.uVarIntSize(nonEmpty) + nonEmpty;
+    int previous = 0;
+    for (int i = 0; i < registers.length; i++) {
+      if (registers[i] != 0) {
+        size += ReadWriteForEncodingUtils.uVarIntSize(i - previous);
+        previous = i;
+      }
+    }
+    return size;
+  }
+
+  private static double alpha(int m) {
+    switch (m) {
+      case 16:
+        return 0.673;
+      case 32:
+        return 0.697;
+      case 64:
+        return 0.709;
+      default:
+        return 0.7213 / (1 + 1.079 / m);
+    }
+  }
+
+  /** Hashes a numeric value, so that equal values of different numeric types collide. */
+  public static long hash(double value) {
+    // +0.0 and -0.0 are the same value
+    return mix(Double.doubleToLongBits(value == 0 ? 0.0 : value));
+  }
+
+  /** The finalization mix of MurmurHash3, spreading every input bit over the whole hash. */
+  public static long mix(long value) {
+    value ^= value >>> 33;
+    value *= 0xff51afd7ed558ccdL;
+    value ^= value >>> 33;
+    value *= 0xc4ceb93fe53e88b5L;
+    value ^= value >>> 33;
+    return value;
+  }
+
+  @Override
+  public boolean equals(Object o) {
+    if (this == o) {
+      return true;
+    }
+    if (o == null || getClass() != o.getClass()) {
+      return false;
+    }
+    HyperLogLog that = (HyperLogLog) o;
+    return precision == that.precision && Arrays.equals(registers, that.registers);
+  }
+
+  @Override
+  public int hashCode() {
+    return 31 * precision + Arrays.hashCode(registers);
+  }
+}
@@ -0,0 +1,429 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.iotdb.tsfile.utils;
+
+import org.openjdk.jol.info.ClassLayout;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+
+/**
+ * A mergeable quantile sketch with relative error guarantee, following DDSketch. Values are counted
+ * in logarithmically sized bins, so any quantile is estimated within the relative accuracy of the
+ * true value, and two sketches with the same accuracy are merged by adding up their bins.
+ *
+ * <p>Each sign keeps at most {@code maxBins} bins. When the values span a wider range the lowest
+ * bins are collapsed, which only affects the accuracy of the quantiles closest to zero.
+ */
+public class QuantileSketch {
+
+  private static final long INSTANCE_SIZE =
+      ClassLayout.parseClass(QuantileSketch.class).instanceSize()
+          + 2 * ClassLayout.parseClass(Bins.class).instanceSize();
+
+  public static final double DEFAULT_RELATIVE_ACCURACY = 0.01;
+  public static final int DEFAULT_MAX_BINS = 512;
+
+  /** Values with smaller absolute values are counted as zero. */
+  private static final double MIN_INDEXABLE_VALUE = 1e-300;
+
+  private final double relativeAccuracy;
+  private final int maxBins;
+  private final double gamma;
+  private final double logGamma;
+
+  private final Bins positiveBins;
+  private final Bins negativeBins;
+  private long zeroCount;
+
+  public QuantileSketch() {
+    this(DEFAULT_RELATIVE_ACCURACY, DEFAULT_MAX_BINS);
+  }
+
+  public QuantileSketch(double relativeAccuracy, int maxBins) {
+    if (relativeAccuracy <= 0 || relativeAccuracy >= 1) {
+      throw new IllegalArgumentException("relative accuracy should be in (0, 1)");
+    }
+    if (maxBins <= 0) {
+      throw new IllegalArgumentException("max bins should be positive");
+    }
+    this.relativeAccuracy = relativeAccuracy;
+    this.maxBins = maxBins;
+    this.gamma = (1 + relativeAccuracy) / (1 - relativeAccuracy);
+    this.logGamma = Math.log(gamma);
+    this.positiveBins = new Bins(maxBins);
+    this.negativeBins = new Bins(maxBins);
+  }
+
+  public double getRelativeAccuracy() {
+    return relativeAccuracy;
+  }
+
+  /** Counts one value. NaN and infinite values are ignored. */
+  public void update(double value) {
+    if (Double.isNaN(value) || Double.isInfinite(value)) {
+      return;
+    }
+    if (value > MIN_INDEXABLE_VALUE) {
+      positiveBins.add(index(value), 1);
+    } else if (value < -MIN_INDEXABLE_VALUE) {
+      negativeBins.add(index(-value), 1);
+    } else {
+      zeroCount++;
+    }
+  }
+
+  public void merge(QuantileSketch other) {
+    if (Double.compare(other.relativeAccuracy, relativeAccuracy) != 0) {
+      throw new IllegalArgumentException(
+          String.format(
+              "Cannot merge QuantileSketch with relative accuracy %s into %s",
+              other.relativeAccuracy, relativeAccuracy));
+    }
+    positiveBins.merge(other.positiveBins);
+    negativeBins.merge(other.negativeBins);
+    zeroCount += other.zeroCount;
+  }
+
+  public long getCount() {
+    return positiveBins.totalCount + negativeBins.totalCount + zeroCount;
+  }
+
+  public boolean isEmpty() {
+    return getCount() == 0;
+  }
+
+  /**
+   * Estimates the value at the given quantile.
+   *
+   * @param quantile in [0, 1]
+   * @return the estimated value, or NaN if the sketch is empty
+   */
+  public double getQuantile(double quantile) {
+    if (quantile < 0 || quantile > 1) {
+      throw new IllegalArgumentException("quantile should be in [0, 1]");
+    }
+    long count = getCount();
+    if (count == 0) {
+      return Double.NaN;
+    }
+    long rank = (long) (quantile * (count - 1));
+    // negative values first, from the largest absolute value
+    if (rank < negativeBins.totalCount) {
+      long seen = 0;
+      for (int index = negativeBins.maxIndex; index >= negativeBins.minIndex; index--) {
+        seen += negativeBins.get(index);
+        if (seen > rank) {
+          return -value(index);
+        }
+      }
+    }
+    rank -= negativeBins.totalCount;
+    if (rank < zeroCount) {
+      return 0;
+    }
+    rank -= zeroCount;
+    long seen = 0;
+    for (int index = positiveBins.minIndex; index < positiveBins.maxIndex; index++) {
+      seen += positiveBins.get(index);
+      if (seen > rank) {
+        return value(index);
+      }
+    }
+    return value(positiveBins.maxIndex);
+  }
+
+  private int index(double absoluteValue) {
+    return (int) Math.ceil(Math.log(absoluteValue) / logGamma);
+  }
+
+  /** The value of a bin, whose relative error to every value in the bin is within accuracy. */
+  private double value(int index) {
+    return 2 * Math.pow(gamma, index) / (gamma + 1);
+  }
+
+  public int serialize(OutputStream outputStream) throws IOException {
+    int length = ReadWriteIOUtils.write(relativeAccuracy, outputStream);
+    length += ReadWriteForEncodingUtils.writeUnsignedVarInt(maxBins, outputStream);
+    length += writeUnsignedVarLong(zeroCount, outputStream);
+    length += positiveBins.serialize(outputStream);
+    length += negativeBins.serialize(outputStream);
+    return length;
+  }
+
+  public int getSerializedSize() {
+    return Double.BYTES
+        + ReadWriteForEncodingUtils.uVarIntSize(maxBins)
+        + unsignedVarLongSize(zeroCount)
+        + positiveBins.getSerializedSize()
+        + negativeBins.getSerializedSize();
+  }
+
+  public static QuantileSketch deserialize(ByteBuffer buffer) {
+    double relativeAccuracy = ReadWriteIOUtils.readDouble(buffer);
+    int maxBins = ReadWriteForEncodingUtils.readUnsignedVarInt(buffer);
+    QuantileSketch sketch = new QuantileSketch(relativeAccuracy, maxBins);
+    sketch.zeroCount = readUnsignedVarLong(buffer);
+    sketch.positiveBins.deserialize(buffer);
+    sketch.negativeBins.deserialize(buffer);
+    return sketch;
+  }
+
+  public long getRetainedSizeInBytes() {
+    return INSTANCE_SIZE
+        + RamUsageEstimator.sizeOf(positiveBins.counts)
+        + RamUsageEstimator.sizeOf(negativeBins.counts);
+  }
+
+  @Override
+  public boolean equals(Object o) {
+    if (this == o) {
+      return true;
+    }
+    if (o == null || getClass() != o.getClass()) {
+      return false;
+    }
+    QuantileSketch that = (QuantileSketch) o;
+    return Double.compare(that.relativeAccuracy, relativeAccuracy) == 0
+        && maxBins == that.maxBins
+        && zeroCount == that.zeroCount
+        && positiveBins.equals(that.positiveBins)
+        && negativeBins.equals(that.negativeBins);
+  }
+
+  @Override
+  public int hashCode() {
+    int result = Double.hashCode(relativeAccuracy);
+    result = 31 * result + maxBins;
+    result = 31 * result + Long.hashCode(zeroCount);
+    result = 31 * result + positiveBins.hashCode();
+    return 31 * result + negativeBins.hashCode();
+  }
+
+  private static int writeUnsignedVarLong(long value, OutputStream outputStream)
+      throws IOException {
+    int length = 1;
+    while ((value & ~0x7FL) != 0) {
+      outputStream.write((int) ((value & 0x7F) | 0x80));
+      value >>>= 7;
+      length++;
+    }
+    outputStream.write((int) value);
+    return length;
+  }
+
+  private static long readUnsignedVarLong(ByteBuffer buffer) {
+    long value = 0;
+    int shift = 0;
+    byte b;
+    do {
+      b = buffer.get();
+      value |= (long) (b & 0x7F) << shift;
+      shift += 7;
+    } while ((b & 0x80) != 0);
+    return value;
+  }
+
+  private static int unsignedVarLongSize(long value) {
+    int length = 1;
+    while ((value & ~0x7FL) != 0) {
+      value >>>= 7;
+      length++;
+    }
+    return length;
+  }
+
+  /** Dense counts of the bins in [minIndex, maxIndex], at most maxBins of them. */
+  private static class Bins {
+
+    private static final long[] EMPTY = new long[0];
+
+    private final int maxBins;
+
+    private long[] counts = EMPTY;
+    // bin index of counts[0]
+    private int offset;
+    private int minIndex;
+    private int maxIndex;
+    private long totalCount;
+
+    private Bins(int maxBins) {
+      this.maxBins = maxBins;
+    }
+
+    private long get(int index) {
+      return counts[index - offset];
+    }
+
+    private void add(int index, long count) {
+      if (totalCount == 0) {
+        if (count == 0) {
+          return;
+        }
+        minIndex = index;
+        maxIndex = index;
+        if (counts.length == 0) {
+          counts = new long[Math.min(16, maxBins)];
+        }
+        Arrays.fill(counts, 0);
+        offset = index - (counts.length - 1) / 2;
+      } else if (index < minIndex || index > maxIndex) {
+        extendRange(Math.min(index, minIndex), Math.max(index, maxIndex));
+      }
+      // values below a collapsed range are counted in its lowest bin
+      counts[Math.max(index, minIndex) - offset] += count;
+      totalCount += count;
+    }
+
+    private void extendRange(int newMinIndex, int newMaxIndex) {
+      if (newMaxIndex - newMinIndex + 1 > maxBins) {
+        newMinIndex = newMaxIndex - maxBins + 1;
+      }
+      if (newMinIndex < offset || newMaxIndex >= offset + counts.length) {
+        int length = newMaxIndex - newMinIndex + 1;
+        long[] newCounts = new long[Math.min(Math.max(counts.length * 2, length), maxBins)];
+        int newOffset = newMinIndex - (newCounts.length - length) / 2;
+        for (int index = minIndex; index <= maxIndex; index++) {
+          newCounts[Math.max(index, newMinIndex) - newOffset] += counts[index - offset];
+        }
+        counts = newCounts;
+        offset = newOffset;
+      } else {
+        for (int index = minIndex; index < newMinIndex; index++) {
+          counts[newMinIndex - offset] += counts[index - offset];
+          counts[index - offset] = 0;
+        }
+      }
+      minIndex = newMinIndex;
+      maxIndex = newMaxIndex;
+    }
+
+    private void merge(Bins other) {
+      if (other.totalCount == 0) {
+        return;
+      }
+      for (int index = other.minIndex; index <= other.maxIndex; index++) {
+        long count = other.get(index);
+        if (count != 0) {
+          add(index, count);
+        }
+      }
+    }
+
+    private int serialize(OutputStream outputStream) throws IOException {
+      if (totalCount == 0) {
+        return ReadWriteForEncodingUtils.writeUnsignedVarInt(0, outputStream);
+      }
+      int first = firstNonEmptyIndex();
+      int last = lastNonEmptyIndex();
+      int length = ReadWriteForEncodingUtils.writeUnsignedVarInt(last - first + 1, outputStream);
+      length += ReadWriteForEncodingUtils.writeVarInt(first, outputStream);
+      for (int index = first; index <= last; index++) {
+        length += writeUnsignedVarLong(get(index), outputStream);
+      }
+      return length;
+    }
+
+    private int getSerializedSize() {
+      if (totalCount == 0) {
+        return 1;
+      }
+      int first = firstNonEmptyIndex();
+      int last = lastNonEmptyIndex();
+      int length =
+          ReadWriteForEncodingUtils.uVarIntSize(last - first + 1)
+              + ReadWriteForEncodingUtils.varIntSize(first);
+      for (int index = first; index <= last; index++) {
+        length += unsignedVarLongSize(get(index));
+      }
+      return length;
+    }
+
+    // bins at the bounds may be empty after collapsing or merging, they are not serialized
+
+    private int firstNonEmptyIndex() {
+      int index = minIndex;
+      while (get(index) == 0) {
+        index++;
+      }
+      return index;
+    }
+
+    private int lastNonEmptyIndex() {
+      int index = maxIndex;
+      while (get(index) == 0) {
+        index--;
+      }
+      return index;
+    }
+
+    private void deserialize(ByteBuffer buffer) {
+      int binCount = ReadWriteForEncodingUtils.readUnsignedVarInt(buffer);
+      if (binCount == 0) {
+        return;
+      }
+      int firstIndex = ReadWriteForEncodingUtils.readVarInt(buffer);
+      for (int index = firstIndex; index < firstIndex + binCount; index++) {
+        add(index, readUnsignedVarLong(buffer));
+      }
+    }
+
+    @Override
+    public boolean equals(Object o) {
+      if (this == o) {
+        return true;
+      }
+      if (o == null || getClass() != o.getClass()) {
+        return false;
+      }
+      Bins that = (Bins) o;
+      if (totalCount != that.totalCount) {
+        return false;
+      }
+      if (totalCount == 0) {
+        return true;
+      }
+      int first = firstNonEmptyIndex();
+      int last = lastNonEmptyIndex();
+      if (first != that.firstNonEmptyIndex() || last != that.lastNonEmptyIndex()) {
+        return false;
+      }
+      for (int index = first; index <= last; index++) {
+        if (get(index) != that.get(index)) {
+          return false;
+        }
+      }
+      return true;
+    }
+
+    @Override
+    public int hashCode() {
+      int result = Long.hashCode(totalCount);
+      if (totalCount != 0) {
+        for (int index = firstNonEmptyIndex(); index <= lastNonEmptyIndex(); index++) {
+          result = 31 * result + Long.hashCode(get(index));
+        }
+      }
+      return result;
+    }
+  }
+}
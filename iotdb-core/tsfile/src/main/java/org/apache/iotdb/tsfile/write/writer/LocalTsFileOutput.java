@@ -66,8 +66,18 @@ public class LocalTsFileOutput extends OutputStream implements TsFileOutput {
 
   @Override
   public synchronized void write(ByteBuffer b) throws IOException {
-    bufferedStream.write(b.array());
-    position += b.array().length;
+    if (b.hasArray()) {
+      bufferedStream.write(b.array());
+      position += b.array().length;
+    } else {
+      // e.g. a chunk sliced from a memory-mapped TsFile, which has no accessible backing array
+      byte[] bytes = new byte[b.capacity()];
+      ByteBuffer duplicate = b.duplicate();
+      duplicate.clear();
+      duplicate.get(bytes);
+      bufferedStream.write(bytes);
+      position += bytes.length;
+    }
   }
 
   @Override
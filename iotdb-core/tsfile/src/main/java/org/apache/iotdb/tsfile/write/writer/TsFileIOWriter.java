@@ -24,6 +24,7 @@ import org.apache.iotdb.tsfile.common.constant.TsFileConstant;
 import org.apache.iotdb.tsfile.file.MetaMarker;
 import org.apache.iotdb.tsfile.file.header.ChunkGroupHeader;
 import org.apache.iotdb.tsfile.file.header.ChunkHeader;
+import org.apache.iotdb.tsfile.file.header.PageHeader;
 import org.apache.iotdb.tsfile.file.metadata.ChunkGroupMetadata;
 import org.apache.iotdb.tsfile.file.metadata.ChunkMetadata;
 import org.apache.iotdb.tsfile.file.metadata.IChunkMetadata;
@@ -54,6 +55,7 @@ import java.io.File;
 import java.io.FileOutputStream;
 import java.io.IOException;
 import java.io.Serializable;
+import java.nio.ByteBuffer;
 import java.util.ArrayDeque;
 import java.util.ArrayList;
 import java.util.HashMap;
@@ -172,7 +174,12 @@ public class TsFileIOWriter implements AutoCloseable {
 
   protected void startFile() throws IOException {
     out.write(MAGIC_STRING_BYTES);
-    out.write(VERSION_NUMBER_BYTE);
+    // files which may have extended statistics are of a new version, so that older readers reject
+    // them
+    out.write(
+        TS_FILE_CONFIG.isEnableExtendedStatistics()
+            ? TSFileConfig.VERSION_NUMBER_WITH_EXTENDED_STATISTICS
+            : VERSION_NUMBER_BYTE);
   }
 
   public int startChunkGroup(String deviceId) throws IOException {
@@ -249,6 +256,7 @@ public class TsFileIOWriter implements AutoCloseable {
 
   /** Write a whole chunk in another file into this file. Providing fast merge for IoTDB. */
   public void writeChunk(Chunk chunk, ChunkMetadata chunkMetadata) throws IOException {
+    chunk = dropExtendedStatisticsOfPages(chunk);
     ChunkHeader chunkHeader = chunk.getHeader();
     currentChunkMetadata =
         new ChunkMetadata(
@@ -292,6 +300,7 @@ public class TsFileIOWriter implements AutoCloseable {
   }
 
   public void writeChunk(Chunk chunk) throws IOException {
+    chunk = dropExtendedStatisticsOfPages(chunk);
     ChunkHeader chunkHeader = chunk.getHeader();
     currentChunkMetadata =
         new ChunkMetadata(
@@ -304,6 +313,58 @@ public class TsFileIOWriter implements AutoCloseable {
     endCurrentChunk();
   }
 
+  /**
+   * Page statistics of a chunk copied from a file of {@link
+   * TSFileConfig#VERSION_NUMBER_WITH_EXTENDED_STATISTICS} may carry extended statistics, which this
+   * file can not hold if extended statistics are disabled. Rewrite the page headers of such a chunk
+   * without them, the page data is kept as it is.
+   */
+  private Chunk dropExtendedStatisticsOfPages(Chunk chunk) throws IOException {
+    ChunkHeader chunkHeader = chunk.getHeader();
+    if (TS_FILE_CONFIG.isEnableExtendedStatistics()
+        || ((byte) (chunkHeader.getChunkType() & 0x3F)) != MetaMarker.CHUNK_HEADER
+        || !chunkHeader.getDataType().isNumeric()) {
+      return chunk;
+    }
+    ByteBuffer chunkData = chunk.getData().duplicate();
+    List<PageHeader> pageHeaders = new ArrayList<>();
+    List<ByteBuffer> pageData = new ArrayList<>();
+    boolean extended = false;
+    while (chunkData.hasRemaining()) {
+      PageHeader pageHeader = PageHeader.deserializeFrom(chunkData, chunkHeader.getDataType());
+      ByteBuffer page = chunkData.slice();
+      page.limit(pageHeader.getCompressedSize());
+      chunkData.position(chunkData.position() + pageHeader.getCompressedSize());
+      extended |=
+          pageHeader.getStatistics() != null
+              && pageHeader.getStatistics().getExtendedStatistics() != null;
+      pageHeaders.add(pageHeader);
+      pageData.add(page);
+    }
+    if (!extended) {
+      return chunk;
+    }
+    PublicBAOS buffer = new PublicBAOS();
+    for (int i = 0; i < pageHeaders.size(); i++) {
+      pageHeaders.get(i).serializeTo(buffer);
+      // the chunk may be a view of a memory-mapped file, which has no accessible array
+      byte[] page = new byte[pageData.get(i).remaining()];
+      pageData.get(i).get(page);
+      buffer.write(page);
+    }
+    return new Chunk(
+        new ChunkHeader(
+            chunkHeader.getChunkType(),
+            chunkHeader.getMeasurementID(),
+            buffer.size(),
+            chunkHeader.getDataType(),
+            chunkHeader.getCompressionType(),
+            chunkHeader.getEncodingType()),
+        ByteBuffer.wrap(buffer.getBuf(), 0, buffer.size()),
+        chunk.getDeleteIntervalList(),
+        chunk.getChunkStatistic());
+  }
+
   /** end chunk and write some log. */
   public void endCurrentChunk() {
     if (enableMemoryControl) {
@@ -0,0 +1,201 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.iotdb.tsfile.encoding.decoder;
+
+import org.apache.iotdb.tsfile.encoding.encoder.Encoder;
+import org.apache.iotdb.tsfile.encoding.encoder.TSEncodingBuilder;
+import org.apache.iotdb.tsfile.file.metadata.enums.TSDataType;
+import org.apache.iotdb.tsfile.file.metadata.enums.TSEncoding;
+
+import org.junit.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.Collections;
+import java.util.Random;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+
+/** Checks that the bulk read methods of {@link Decoder} return the same values as point reads. */
+public class BatchDecodeTest {
+
+  private static final int COUNT = 10_000;
+
+  /** smaller than COUNT and not aligned with any pack size, so decoding spans several calls. */
+  private static final int BATCH_SIZE = 333;
+
+  private static final TSEncoding[] ENCODINGS = {
+    TSEncoding.PLAIN, TSEncoding.TS_2DIFF, TSEncoding.RLE, TSEncoding.GORILLA
+  };
+
+  private final Random random = new Random(42);
+
+  @Test
+  public void testLongs() throws IOException {
+    long[] expected = new long[COUNT];
+    long current = 1_600_000_000_000L;
+    for (int i = 0; i < COUNT; i++) {
+      current += 1000 + random.nextInt(10);
+      expected[i] = i % 100 < 50 ? current : current % 7;
+    }
+    for (TSEncoding encoding : ENCODINGS) {
+      Encoder encoder = getEncoder(encoding, TSDataType.INT64);
+      ByteArrayOutputStream out = new ByteArrayOutputStream();
+      for (long value : expected) {
+        encoder.encode(value, out);
+      }
+      encoder.flush(out);
+
+      Decoder decoder = Decoder.getDecoderByType(encoding, TSDataType.INT64);
+      ByteBuffer buffer = ByteBuffer.wrap(out.toByteArray());
+      long[] actual = new long[COUNT];
+      int count = 0;
+      int read;
+      while ((read = decoder.readLongs(buffer, actual, count, Math.min(BATCH_SIZE, COUNT - count)))
+          > 0) {
+        count += read;
+      }
+      assertEquals(encoding.name(), COUNT, count);
+      assertArrayEquals(encoding.name(), expected, actual);
+    }
+  }
+
+  @Test
+  public void testInts() throws IOException {
+    int[] expected = new int[COUNT];
+    for (int i = 0; i < COUNT; i++) {
+      expected[i] = i % 20 < 10 ? random.nextInt(1000) - 500 : i / 20;
+    }
+    for (TSEncoding encoding : ENCODINGS) {
+      Encoder encoder = getEncoder(encoding, TSDataType.INT32);
+      ByteArrayOutputStream out = new ByteArrayOutputStream();
+      for (int value : expected) {
+        encoder.encode(value, out);
+      }
+      encoder.flush(out);
+
+      Decoder decoder = Decoder.getDecoderByType(encoding, TSDataType.INT32);
+      ByteBuffer buffer = ByteBuffer.wrap(out.toByteArray());
+      int[] actual = new int[COUNT];
+      int count = 0;
+      int read;
+      while ((read = decoder.readInts(buffer, actual, count, Math.min(BATCH_SIZE, COUNT - count)))
+          > 0) {
+        count += read;
+      }
+      assertEquals(encoding.name(), COUNT, count);
+      assertArrayEquals(encoding.name(), expected, actual);
+    }
+  }
+
+  @Test
+  public void testDoubles() throws IOException {
+    double[] expected = new double[COUNT];
+    for (int i = 0; i < COUNT; i++) {
+      expected[i] = Math.round((20 + Math.sin(i / 100.0) + random.nextGaussian()) * 100) / 100.0;
+    }
+    for (TSEncoding encoding : ENCODINGS) {
+      Encoder encoder = getEncoder(encoding, TSDataType.DOUBLE);
+      ByteArrayOutputStream out = new ByteArrayOutputStream();
+      for (double value : expected) {
+        encoder.encode(value, out);
+      }
+      encoder.flush(out);
+
+      Decoder decoder = Decoder.getDecoderByType(encoding, TSDataType.DOUBLE);
+      ByteBuffer buffer = ByteBuffer.wrap(out.toByteArray());
+      double[] actual = new double[COUNT];
+      int count = 0;
+      int read;
+      while ((read =
+              decoder.readDoubles(buffer, actual, count, Math.min(BATCH_SIZE, COUNT - count)))
+          > 0) {
+        count += read;
+      }
+      assertEquals(encoding.name(), COUNT, count);
+      assertArrayEquals(encoding.name(), expected, actual, 0.0001);
+    }
+  }
+
+  @Test
+  public void testFloats() throws IOException {
+    float[] expected = new float[COUNT];
+    for (int i = 0; i < COUNT; i++) {
+      expected[i] = Math.round((float) random.nextGaussian() * 100) / 100.0f;
+    }
+    for (TSEncoding encoding : ENCODINGS) {
+      Encoder encoder = getEncoder(encoding, TSDataType.FLOAT);
+      ByteArrayOutputStream out = new ByteArrayOutputStream();
+      for (float value : expected) {
+        encoder.encode(value, out);
+      }
+      encoder.flush(out);
+
+      Decoder decoder = Decoder.getDecoderByType(encoding, TSDataType.FLOAT);
+      ByteBuffer buffer = ByteBuffer.wrap(out.toByteArray());
+      float[] actual = new float[COUNT];
+      int count = 0;
+      int read;
+      while ((read = decoder.readFloats(buffer, actual, count, Math.min(BATCH_SIZE, COUNT - count)))
+          > 0) {
+        count += read;
+      }
+      assertEquals(encoding.name(), COUNT, count);
+      assertArrayEquals(encoding.name(), expected, actual, 0.0001f);
+    }
+  }
+
+  @Test
+  public void testBooleans() throws IOException {
+    boolean[] expected = new boolean[COUNT];
+    for (int i = 0; i < COUNT; i++) {
+      expected[i] = random.nextInt(10) == 0;
+    }
+    for (TSEncoding encoding : new TSEncoding[] {TSEncoding.PLAIN, TSEncoding.RLE}) {
+      Encoder encoder = getEncoder(encoding, TSDataType.BOOLEAN);
+      ByteArrayOutputStream out = new ByteArrayOutputStream();
+      for (boolean value : expected) {
+        encoder.encode(value, out);
+      }
+      encoder.flush(out);
+
+      Decoder decoder = Decoder.getDecoderByType(encoding, TSDataType.BOOLEAN);
+      ByteBuffer buffer = ByteBuffer.wrap(out.toByteArray());
+      boolean[] actual = new boolean[COUNT];
+      int count = 0;
+      int read;
+      while ((read =
+              decoder.readBooleans(buffer, actual, count, Math.min(BATCH_SIZE, COUNT - count)))
+          > 0) {
+        count += read;
+      }
+      assertEquals(encoding.name(), COUNT, count);
+      assertArrayEquals(encoding.name(), expected, actual);
+    }
+  }
+
+  private Encoder getEncoder(TSEncoding encoding, TSDataType dataType) {
+    TSEncodingBuilder builder = TSEncodingBuilder.getEncodingBuilder(encoding);
+    // keep two decimal places for float encoders
+    builder.initFromProps(Collections.singletonMap(Encoder.MAX_POINT_NUMBER, "2"));
+    return builder.getEncoder(dataType);
+  }
+}
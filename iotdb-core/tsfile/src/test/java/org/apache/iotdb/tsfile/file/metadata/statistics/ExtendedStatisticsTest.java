@@ -0,0 +1,177 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.iotdb.tsfile.file.metadata.statistics;
+
+import org.apache.iotdb.tsfile.file.metadata.enums.TSDataType;
+import org.apache.iotdb.tsfile.utils.PublicBAOS;
+
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.Serializable;
+import java.nio.ByteBuffer;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+
+public class ExtendedStatisticsTest {
+
+  private static final double maxError = 0.0001d;
+
+  @Test
+  public void testUpdate() {
+    Statistics<Double> doubleStats = new DoubleStatistics();
+    doubleStats.enableExtendedStatistics();
+    doubleStats.update(1, 1.5d);
+    doubleStats.update(new long[] {2, 3, 4}, new double[] {2.5d, 1.5d, -3d}, 3);
+
+    ExtendedStatistics extendedStatistics = doubleStats.getExtendedStatistics();
+    assertNotNull(extendedStatistics);
+    assertEquals(4, extendedStatistics.getCount());
+    assertEquals(0.625, extendedStatistics.getMean(), maxError);
+    // (1.5 - 0.625)^2 * 2 + (2.5 - 0.625)^2 + (-3 - 0.625)^2
+    assertEquals(18.1875, extendedStatistics.getM2(), maxError);
+    assertEquals(4, extendedStatistics.getQuantileSketch().getCount());
+    assertEquals(3, extendedStatistics.getDistinctCounter().cardinality());
+  }
+
+  @Test
+  public void testUnsupportedType() {
+    Statistics<? extends Serializable> booleanStats = Statistics.getStatsByType(TSDataType.BOOLEAN);
+    booleanStats.enableExtendedStatistics();
+    assertNull(booleanStats.getExtendedStatistics());
+  }
+
+  @Test
+  public void testSerialize() throws IOException {
+    for (int count : new int[] {1, 200, 100_000}) {
+      Statistics<Long> longStats = new LongStatistics();
+      longStats.enableExtendedStatistics();
+      for (int i = 0; i < count; i++) {
+        longStats.update(i, (long) i * i);
+      }
+      PublicBAOS out = new PublicBAOS();
+      int size = longStats.serialize(out);
+      assertEquals(size, out.size());
+      assertEquals(size, longStats.getSerializedSize());
+
+      ByteBuffer buffer = ByteBuffer.wrap(out.getBuf(), 0, out.size());
+      Statistics<? extends Serializable> fromBuffer =
+          Statistics.deserialize(buffer, TSDataType.INT64);
+      assertEquals(0, buffer.remaining());
+      assertStatisticsEquals(longStats, fromBuffer);
+
+      ByteArrayInputStream inputStream = new ByteArrayInputStream(out.getBuf(), 0, out.size());
+      Statistics<? extends Serializable> fromStream =
+          Statistics.deserialize(inputStream, TSDataType.INT64);
+      assertEquals(0, inputStream.available());
+      assertStatisticsEquals(longStats, fromStream);
+
+      // statistics which are not decoded are written back as they are read
+      PublicBAOS rewritten = new PublicBAOS();
+      assertEquals(size, fromBuffer.serialize(rewritten));
+      assertEquals(
+          ByteBuffer.wrap(out.getBuf(), 0, size), ByteBuffer.wrap(rewritten.getBuf(), 0, size));
+    }
+  }
+
+  @Test
+  public void testSerializeWithoutExtendedStatistics() throws IOException {
+    Statistics<Integer> intStats = new IntegerStatistics();
+    intStats.update(1, 1);
+    intStats.update(2, 2);
+    PublicBAOS out = new PublicBAOS();
+    intStats.serialize(out);
+    assertEquals(out.size(), intStats.getSerializedSize());
+
+    Statistics<? extends Serializable> deserialized =
+        Statistics.deserialize(ByteBuffer.wrap(out.getBuf(), 0, out.size()), TSDataType.INT32);
+    assertNull(deserialized.getExtendedStatistics());
+    assertEquals(2, deserialized.getCount());
+  }
+
+  @Test
+  public void testMerge() {
+    Statistics<Float> floatStats1 = new FloatStatistics();
+    floatStats1.enableExtendedStatistics();
+    floatStats1.update(1, 1.0f);
+    floatStats1.update(2, 2.0f);
+    Statistics<Float> floatStats2 = new FloatStatistics();
+    floatStats2.enableExtendedStatistics();
+    floatStats2.update(3, 3.0f);
+
+    Statistics<Float> floatStats3 = new FloatStatistics();
+    floatStats3.mergeStatistics(floatStats1);
+    floatStats3.mergeStatistics(floatStats2);
+    assertNotNull(floatStats3.getExtendedStatistics());
+    assertEquals(2, floatStats3.getExtendedStatistics().getMean(), maxError);
+    assertEquals(2, floatStats3.getExtendedStatistics().getM2(), maxError);
+    assertEquals(3, floatStats3.getExtendedStatistics().getQuantileSketch().getCount());
+    // merging does not change the merged statistics
+    assertEquals(0.5, floatStats1.getExtendedStatistics().getM2(), maxError);
+
+    // extended statistics are dropped once points without them are merged
+    Statistics<Float> floatStats4 = new FloatStatistics();
+    floatStats4.update(4, 4.0f);
+    floatStats3.mergeStatistics(floatStats4);
+    assertNull(floatStats3.getExtendedStatistics());
+    floatStats3.mergeStatistics(floatStats1);
+    assertNull(floatStats3.getExtendedStatistics());
+  }
+
+  @Test
+  public void testMergeKeepsPrecision() {
+    // values around 1e9 with a variance of 0.25, whose sum of squares is beyond the precision of
+    // double
+    Statistics<Double> merged = new DoubleStatistics();
+    for (int page = 0; page < 10; page++) {
+      Statistics<Double> pageStats = new DoubleStatistics();
+      pageStats.enableExtendedStatistics();
+      for (int i = 0; i < 1000; i++) {
+        pageStats.update(page * 1000L + i, 1e9 + i % 2);
+      }
+      merged.mergeStatistics(pageStats);
+    }
+    ExtendedStatistics extendedStatistics = merged.getExtendedStatistics();
+    assertEquals(10000, extendedStatistics.getCount());
+    assertEquals(0.25, extendedStatistics.getM2() / extendedStatistics.getCount(), 1e-9);
+  }
+
+  @Test
+  public void testSkipUnknownVersion() {
+    // length 2, an unknown version and one byte of content
+    ByteBuffer buffer =
+        ByteBuffer.wrap(new byte[] {2, ExtendedStatistics.FORMAT_VERSION + 1, 0, 42});
+    assertNull(ExtendedStatistics.deserialize(buffer));
+    assertEquals(42, buffer.get());
+  }
+
+  private void assertStatisticsEquals(
+      Statistics<? extends Serializable> expected, Statistics<? extends Serializable> actual) {
+    assertEquals(expected.getCount(), actual.getCount());
+    assertEquals(expected.getStartTime(), actual.getStartTime());
+    assertEquals(expected.getEndTime(), actual.getEndTime());
+    assertEquals(expected.getMinValue(), actual.getMinValue());
+    assertEquals(expected.getMaxValue(), actual.getMaxValue());
+    assertEquals(expected.getExtendedStatistics(), actual.getExtendedStatistics());
+  }
+}
@@ -0,0 +1,214 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.iotdb.tsfile.read.reader;
+
+import org.apache.iotdb.tsfile.common.conf.TSFileDescriptor;
+import org.apache.iotdb.tsfile.constant.TestConstant;
+import org.apache.iotdb.tsfile.exception.write.WriteProcessException;
+import org.apache.iotdb.tsfile.file.metadata.ChunkMetadata;
+import org.apache.iotdb.tsfile.read.TsFileSequenceReader;
+import org.apache.iotdb.tsfile.read.common.BatchData;
+import org.apache.iotdb.tsfile.read.common.Chunk;
+import org.apache.iotdb.tsfile.read.common.Path;
+import org.apache.iotdb.tsfile.read.reader.chunk.ChunkReader;
+import org.apache.iotdb.tsfile.utils.FilePathUtils;
+import org.apache.iotdb.tsfile.utils.TsFileGeneratorUtils;
+
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.List;
+
+import static org.apache.iotdb.tsfile.common.constant.TsFileConstant.PATH_SEPARATOR;
+
+public class MMapTsFileInputTest {
+  private final String testStorageGroup = TsFileGeneratorUtils.testStorageGroup;
+  private final File SEQ_DIRS =
+      new File(
+          TestConstant.BASE_OUTPUT_PATH
+              + "data"
+              + File.separator
+              + "sequence"
+              + File.separator
+              + testStorageGroup
+              + File.separator
+              + "0"
+              + File.separator
+              + "0");
+
+  private File file;
+  private final int oldMaxPointNumInPage =
+      TSFileDescriptor.getInstance().getConfig().getMaxNumberOfPointsInPage();
+  private final int oldMaxMMapFileNum =
+      TSFileDescriptor.getInstance().getConfig().getMaxMMapFileNum();
+  private final int deviceNum = 3;
+  private final int measurementNum = 5;
+
+  @Before
+  public void setUp() throws IOException, WriteProcessException {
+    TSFileDescriptor.getInstance().getConfig().setMaxNumberOfPointsInPage(100);
+    if (!SEQ_DIRS.exists()) {
+      Assert.assertTrue(SEQ_DIRS.mkdirs());
+    }
+    String fileName =
+        System.currentTimeMillis() + FilePathUtils.FILE_NAME_SEPARATOR + "0-0-0.tsfile";
+    String filePath = SEQ_DIRS.getPath() + File.separator + fileName;
+    file =
+        TsFileGeneratorUtils.generateNonAlignedTsFile(
+            filePath, deviceNum, measurementNum, 500, 0, 0, 0, 0);
+  }
+
+  @After
+  public void tearDown() {
+    TSFileDescriptor.getInstance().getConfig().setMaxNumberOfPointsInPage(oldMaxPointNumInPage);
+    TSFileDescriptor.getInstance().getConfig().setMaxMMapFileNum(oldMaxMMapFileNum);
+    if (file.exists()) {
+      file.delete();
+    }
+    if (SEQ_DIRS.exists()) {
+      SEQ_DIRS.delete();
+    }
+  }
+
+  @Test
+  public void testReadSameAsLocalInput() throws IOException {
+    try (TsFileSequenceReader localReader =
+            new TsFileSequenceReader(new LocalTsFileInput(file.toPath()));
+        TsFileSequenceReader mmapReader =
+            new TsFileSequenceReader(new MMapTsFileInput(file.toPath()))) {
+      Assert.assertEquals(localReader.readTailMagic(), mmapReader.readTailMagic());
+      for (int i = 0; i < deviceNum; i++) {
+        for (int j = 0; j < measurementNum; j++) {
+          Path path = new Path(testStorageGroup + PATH_SEPARATOR + "d" + i, "s" + j, true);
+          List<ChunkMetadata> localChunkMetadataList = localReader.getChunkMetadataList(path);
+          List<ChunkMetadata> mmapChunkMetadataList = mmapReader.getChunkMetadataList(path);
+          Assert.assertEquals(localChunkMetadataList.size(), mmapChunkMetadataList.size());
+          for (int k = 0; k < localChunkMetadataList.size(); k++) {
+            Chunk localChunk = localReader.readMemChunk(localChunkMetadataList.get(k));
+            Chunk mmapChunk = mmapReader.readMemChunk(mmapChunkMetadataList.get(k));
+            Assert.assertTrue(mmapChunk.getData().isDirect());
+            Assert.assertEquals(localChunk.getData(), mmapChunk.getData());
+            assertSameData(new ChunkReader(localChunk, null), new ChunkReader(mmapChunk, null));
+          }
+        }
+      }
+    }
+  }
+
+  @Test
+  public void testPositionalRead() throws IOException {
+    TsFileInput localInput = new LocalTsFileInput(file.toPath());
+    TsFileInput mmapInput = new MMapTsFileInput(file.toPath());
+    try {
+      Assert.assertEquals(localInput.size(), mmapInput.size());
+      ByteBuffer expected = ByteBuffer.allocate(64);
+      ByteBuffer actual = ByteBuffer.allocate(64);
+      Assert.assertEquals(localInput.read(expected, 10), mmapInput.read(actual, 10));
+      expected.flip();
+      actual.flip();
+      Assert.assertEquals(expected, actual);
+      Assert.assertEquals(-1, mmapInput.read(ByteBuffer.allocate(1), mmapInput.size()));
+      try {
+        mmapInput.slice(mmapInput.size() - 1, 2);
+        Assert.fail();
+      } catch (IOException e) {
+        // expected
+      }
+    } finally {
+      localInput.close();
+      mmapInput.close();
+    }
+  }
+
+  @Test
+  public void testMappedFileLimit() throws IOException {
+    TSFileDescriptor.getInstance().getConfig().setMaxMMapFileNum(1);
+    MMapTsFileInputManager manager = MMapTsFileInputManager.getInstance();
+    MMapTsFileInput input1 = new MMapTsFileInput(file.toPath());
+    MMapTsFileInput input2 = new MMapTsFileInput(file.toPath());
+    try {
+      ByteBuffer slice = input1.slice(0, 6);
+      Assert.assertTrue(slice.isDirect());
+      Assert.assertEquals(1, manager.getMappedFileNum());
+
+      // the limit is reached, input2 is read through its channel
+      ByteBuffer copy = input2.slice(0, 6);
+      Assert.assertFalse(copy.isDirect());
+      Assert.assertFalse(input2.isMapped());
+      Assert.assertEquals(slice, copy);
+      Assert.assertEquals(1, manager.getMappedFileNum());
+
+      // closing input1 unmaps its file and frees the slot for input2
+      input1.close();
+      Assert.assertFalse(input1.isMapped());
+      Assert.assertEquals(0, manager.getMappedFileNum());
+      Assert.assertTrue(input2.slice(0, 6).isDirect());
+      Assert.assertEquals(copy, input2.slice(0, 6));
+      Assert.assertEquals(1, manager.getMappedFileNum());
+      try {
+        input1.slice(0, 6);
+        Assert.fail();
+      } catch (IOException e) {
+        // expected
+      }
+    } finally {
+      input1.close();
+      input2.close();
+    }
+    Assert.assertEquals(0, manager.getMappedFileNum());
+  }
+
+  @Test
+  public void testCopyChunkToHeap() throws IOException {
+    try (TsFileSequenceReader mmapReader =
+        new TsFileSequenceReader(new MMapTsFileInput(file.toPath()))) {
+      Path path = new Path(testStorageGroup + PATH_SEPARATOR + "d0", "s0", true);
+      Chunk mmapChunk = mmapReader.readMemChunk(mmapReader.getChunkMetadataList(path).get(0));
+      Chunk heapChunk = mmapChunk.copyToHeapIfDirect();
+      Assert.assertFalse(heapChunk.getData().isDirect());
+      Assert.assertEquals(mmapChunk.getData(), heapChunk.getData());
+      Assert.assertSame(heapChunk, heapChunk.copyToHeapIfDirect());
+      // a view of a mapping is charged its size
+      Assert.assertEquals(heapChunk.getRetainedSizeInBytes(), mmapChunk.getRetainedSizeInBytes());
+    }
+  }
+
+  private void assertSameData(ChunkReader expected, ChunkReader actual) throws IOException {
+    while (expected.hasNextSatisfiedPage()) {
+      Assert.assertTrue(actual.hasNextSatisfiedPage());
+      BatchData expectedData = expected.nextPageData();
+      BatchData actualData = actual.nextPageData();
+      while (expectedData.hasCurrent()) {
+        Assert.assertTrue(actualData.hasCurrent());
+        Assert.assertEquals(expectedData.currentTime(), actualData.currentTime());
+        Assert.assertEquals(expectedData.currentValue(), actualData.currentValue());
+        expectedData.next();
+        actualData.next();
+      }
+      Assert.assertFalse(actualData.hasCurrent());
+    }
+    Assert.assertFalse(actual.hasNextSatisfiedPage());
+  }
+}
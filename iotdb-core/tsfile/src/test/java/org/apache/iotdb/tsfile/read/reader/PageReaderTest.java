@@ -33,10 +33,18 @@ import org.apache.iotdb.tsfile.encoding.encoder.IntRleEncoder;
 import org.apache.iotdb.tsfile.encoding.encoder.LongRleEncoder;
 import org.apache.iotdb.tsfile.encoding.encoder.PlainEncoder;
 import org.apache.iotdb.tsfile.encoding.encoder.SinglePrecisionEncoderV1;
+import org.apache.iotdb.tsfile.file.header.PageHeader;
 import org.apache.iotdb.tsfile.file.metadata.enums.TSDataType;
 import org.apache.iotdb.tsfile.read.common.BatchData;
 import org.apache.iotdb.tsfile.read.common.TimeRange;
+import org.apache.iotdb.tsfile.read.common.block.TsBlock;
+import org.apache.iotdb.tsfile.read.filter.factory.FilterFactory;
+import org.apache.iotdb.tsfile.read.filter.factory.TimeFilterApi;
+import org.apache.iotdb.tsfile.read.filter.factory.ValueFilterApi;
+import org.apache.iotdb.tsfile.read.reader.page.DecodedPage;
+import org.apache.iotdb.tsfile.read.reader.page.DecodedPageProvider;
 import org.apache.iotdb.tsfile.read.reader.page.PageReader;
+import org.apache.iotdb.tsfile.read.reader.series.PaginationController;
 import org.apache.iotdb.tsfile.utils.Binary;
 import org.apache.iotdb.tsfile.write.page.PageWriter;
 
@@ -301,6 +309,158 @@ public class PageReaderTest {
     public abstract Object generateValueByIndex(int i);
   }
 
+  @Test
+  public void testGetAllSatisfiedData() throws IOException {
+    PageWriter pageWriter = new PageWriter();
+    pageWriter.setTimeEncoder(new DeltaBinaryEncoder.LongDeltaEncoder());
+    pageWriter.setValueEncoder(new LongRleEncoder());
+    pageWriter.initStatistics(TSDataType.INT64);
+    for (int i = 0; i < 1000; i++) {
+      pageWriter.write(i, (long) i * 2);
+    }
+    ByteBuffer page = ByteBuffer.wrap(pageWriter.getUncompressedBytes().array());
+    PageHeader pageHeader = new PageHeader(page.remaining(), 0, pageWriter.getStatistics());
+
+    PageReader pageReader =
+        new PageReader(
+            pageHeader,
+            page,
+            TSDataType.INT64,
+            new LongRleDecoder(),
+            new DeltaBinaryDecoder.LongDeltaDecoder(),
+            FilterFactory.and(TimeFilterApi.gtEq(100), ValueFilterApi.lt(1000L)));
+    List<TimeRange> deleteIntervals = new ArrayList<>();
+    deleteIntervals.add(new TimeRange(150, 199));
+    deleteIntervals.add(new TimeRange(300, 309));
+    pageReader.setDeleteIntervalList(deleteIntervals);
+    // time in [100, 500), except [150, 200) and [300, 310), is 340 rows
+    pageReader.setLimitOffset(new PaginationController(100, 30));
+
+    TsBlock tsBlock = pageReader.getAllSatisfiedData();
+    Assert.assertEquals(100, tsBlock.getPositionCount());
+    long expectedTime = 130;
+    for (int i = 0; i < tsBlock.getPositionCount(); i++) {
+      if (expectedTime == 150) {
+        expectedTime = 200;
+      }
+      Assert.assertEquals(expectedTime, tsBlock.getTimeByIndex(i));
+      Assert.assertEquals(expectedTime * 2, tsBlock.getColumn(0).getLong(i));
+      expectedTime++;
+    }
+  }
+
+  @Test
+  public void testGetAllSatisfiedDataStopsDecodingAtLimit() throws IOException {
+    PageWriter pageWriter = new PageWriter();
+    pageWriter.setTimeEncoder(new DeltaBinaryEncoder.LongDeltaEncoder());
+    pageWriter.setValueEncoder(new LongRleEncoder());
+    pageWriter.initStatistics(TSDataType.INT64);
+    for (int i = 0; i < 1000; i++) {
+      pageWriter.write(i, (long) i * 2);
+    }
+    ByteBuffer page = ByteBuffer.wrap(pageWriter.getUncompressedBytes().array());
+    PageHeader pageHeader = new PageHeader(page.remaining(), 0, pageWriter.getStatistics());
+
+    int[] decodedValueCount = new int[1];
+    Decoder valueDecoder =
+        new LongRleDecoder() {
+          @Override
+          public int readLongs(ByteBuffer buffer, long[] dest, int offset, int length)
+              throws IOException {
+            int count = super.readLongs(buffer, dest, offset, length);
+            decodedValueCount[0] += count;
+            return count;
+          }
+        };
+    PageReader pageReader =
+        new PageReader(
+            pageHeader,
+            page,
+            TSDataType.INT64,
+            valueDecoder,
+            new DeltaBinaryDecoder.LongDeltaDecoder(),
+            TimeFilterApi.gtEq(10));
+    pageReader.setLimitOffset(new PaginationController(5, 3));
+
+    TsBlock tsBlock = pageReader.getAllSatisfiedData();
+    Assert.assertEquals(5, tsBlock.getPositionCount());
+    for (int i = 0; i < tsBlock.getPositionCount(); i++) {
+      Assert.assertEquals(13 + i, tsBlock.getTimeByIndex(i));
+      Assert.assertEquals((13 + i) * 2L, tsBlock.getColumn(0).getLong(i));
+    }
+    // the values after the last selected one are not decoded
+    Assert.assertEquals(18, decodedValueCount[0]);
+  }
+
+  @Test
+  public void testGetAllSatisfiedDataWithSharedDecodedPage() throws IOException {
+    PageWriter pageWriter = new PageWriter();
+    pageWriter.setTimeEncoder(new DeltaBinaryEncoder.LongDeltaEncoder());
+    pageWriter.setValueEncoder(new LongRleEncoder());
+    pageWriter.initStatistics(TSDataType.INT64);
+    for (int i = 0; i < 1000; i++) {
+      pageWriter.write(i, (long) i * 2);
+    }
+    byte[] pageBytes = pageWriter.getUncompressedBytes().array();
+    PageHeader pageHeader = new PageHeader(pageBytes.length, 0, pageWriter.getStatistics());
+
+    // decode the page only once, like concurrent scans of the same page do
+    DecodedPage[] sharedPage = new DecodedPage[1];
+    int[] decodeCount = new int[1];
+    DecodedPageProvider provider =
+        (header, decoder) -> {
+          if (sharedPage[0] == null) {
+            sharedPage[0] = decoder.decode();
+            decodeCount[0]++;
+          }
+          return sharedPage[0];
+        };
+
+    PageReader firstReader =
+        new PageReader(
+            pageHeader,
+            ByteBuffer.wrap(pageBytes),
+            TSDataType.INT64,
+            new LongRleDecoder(),
+            new DeltaBinaryDecoder.LongDeltaDecoder(),
+            TimeFilterApi.gtEq(900));
+    firstReader.setDecodedPageProvider(provider);
+    TsBlock firstBlock = firstReader.getAllSatisfiedData();
+
+    PageReader secondReader =
+        new PageReader(
+            pageHeader,
+            ByteBuffer.wrap(pageBytes),
+            TSDataType.INT64,
+            new LongRleDecoder(),
+            new DeltaBinaryDecoder.LongDeltaDecoder(),
+            ValueFilterApi.lt(20L));
+    secondReader.setDecodedPageProvider(provider);
+    List<TimeRange> deleteIntervals = new ArrayList<>();
+    deleteIntervals.add(new TimeRange(0, 4));
+    secondReader.setDeleteIntervalList(deleteIntervals);
+    TsBlock secondBlock = secondReader.getAllSatisfiedData();
+
+    Assert.assertEquals(1, decodeCount[0]);
+    Assert.assertEquals(100, firstBlock.getPositionCount());
+    for (int i = 0; i < firstBlock.getPositionCount(); i++) {
+      Assert.assertEquals(900 + i, firstBlock.getTimeByIndex(i));
+      Assert.assertEquals((900 + i) * 2L, firstBlock.getColumn(0).getLong(i));
+    }
+    Assert.assertEquals(5, secondBlock.getPositionCount());
+    for (int i = 0; i < secondBlock.getPositionCount(); i++) {
+      Assert.assertEquals(5 + i, secondBlock.getTimeByIndex(i));
+      Assert.assertEquals((5 + i) * 2L, secondBlock.getColumn(0).getLong(i));
+    }
+    // the shared page is left untouched by both readers
+    long[] timestamps = sharedPage[0].getTimestamps();
+    long[] values = (long[]) sharedPage[0].getValues();
+    for (int i = 0; i < 1000; i++) {
+      Assert.assertEquals(i, timestamps[i]);
+      Assert.assertEquals(i * 2L, values[i]);
+    }
+  }
+
   @Test
   public void testPageDelete() {
     LoopWriteReadTest test =
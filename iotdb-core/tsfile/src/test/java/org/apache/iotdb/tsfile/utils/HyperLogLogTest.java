@@ -0,0 +1,88 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.iotdb.tsfile.utils;
+
+import org.junit.Test;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class HyperLogLogTest {
+
+  @Test
+  public void testCardinality() {
+    HyperLogLog hyperLogLog = new HyperLogLog();
+    assertTrue(hyperLogLog.isEmpty());
+    assertEquals(0, hyperLogLog.cardinality());
+    for (int i = 0; i < 100; i++) {
+      hyperLogLog.update((double) i);
+      hyperLogLog.update((double) i);
+    }
+    assertEquals(100, hyperLogLog.cardinality(), 5);
+
+    for (long i = 0; i < 100_000; i++) {
+      hyperLogLog.update(i);
+    }
+    // the standard error of precision 10 is about 3.25%
+    assertEquals(100_000, hyperLogLog.cardinality(), 100_000 * 0.1);
+  }
+
+  @Test
+  public void testMerge() {
+    HyperLogLog left = new HyperLogLog();
+    HyperLogLog right = new HyperLogLog();
+    HyperLogLog all = new HyperLogLog();
+    for (int i = 0; i < 10_000; i++) {
+      (i % 2 == 0 ? left : right).update((double) i);
+      all.update((double) i);
+    }
+    left.merge(right);
+    assertEquals(all, left);
+    assertEquals(all.cardinality(), left.cardinality());
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testMergeDifferentPrecision() {
+    new HyperLogLog(8).merge(new HyperLogLog(12));
+  }
+
+  @Test
+  public void testSerialize() throws IOException {
+    for (int distinct : new int[] {0, 10, 100_000}) {
+      HyperLogLog hyperLogLog = new HyperLogLog();
+      for (int i = 0; i < distinct; i++) {
+        hyperLogLog.update((double) i);
+      }
+      PublicBAOS out = new PublicBAOS();
+      int size = hyperLogLog.serialize(out);
+      assertEquals(size, out.size());
+      assertEquals(size, hyperLogLog.getSerializedSize());
+
+      ByteBuffer buffer = ByteBuffer.wrap(out.getBuf(), 0, out.size());
+      HyperLogLog deserialized = HyperLogLog.deserialize(buffer);
+      assertEquals(0, buffer.remaining());
+      assertEquals(hyperLogLog, deserialized);
+      assertEquals(hyperLogLog.cardinality(), deserialized.cardinality());
+    }
+  }
+}
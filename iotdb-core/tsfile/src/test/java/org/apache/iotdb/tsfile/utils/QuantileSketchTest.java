@@ -0,0 +1,115 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.iotdb.tsfile.utils;
+
+import org.junit.Test;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class QuantileSketchTest {
+
+  private static final double RELATIVE_ACCURACY = QuantileSketch.DEFAULT_RELATIVE_ACCURACY;
+
+  @Test
+  public void testQuantile() {
+    QuantileSketch sketch = new QuantileSketch();
+    assertTrue(sketch.isEmpty());
+    for (int i = 1; i <= 10_000; i++) {
+      sketch.update(i);
+    }
+    assertEquals(10_000, sketch.getCount());
+    assertEquals(1, sketch.getQuantile(0), RELATIVE_ACCURACY);
+    assertEquals(5_000, sketch.getQuantile(0.5), 5_000 * RELATIVE_ACCURACY);
+    assertEquals(9_900, sketch.getQuantile(0.99), 9_900 * RELATIVE_ACCURACY);
+    assertEquals(10_000, sketch.getQuantile(1), 10_000 * RELATIVE_ACCURACY);
+  }
+
+  @Test
+  public void testNegativeAndZero() {
+    QuantileSketch sketch = new QuantileSketch();
+    for (int i = -100; i <= 100; i++) {
+      sketch.update(i);
+    }
+    sketch.update(Double.NaN);
+    sketch.update(Double.POSITIVE_INFINITY);
+    assertEquals(201, sketch.getCount());
+    assertEquals(-100, sketch.getQuantile(0), 100 * RELATIVE_ACCURACY);
+    assertEquals(0, sketch.getQuantile(0.5), 0);
+    assertEquals(50, sketch.getQuantile(0.75), 50 * RELATIVE_ACCURACY);
+    assertEquals(100, sketch.getQuantile(1), 100 * RELATIVE_ACCURACY);
+  }
+
+  @Test
+  public void testMerge() {
+    QuantileSketch left = new QuantileSketch();
+    QuantileSketch right = new QuantileSketch();
+    QuantileSketch all = new QuantileSketch();
+    for (int i = 0; i < 1000; i++) {
+      double value = i * 1.5 - 300;
+      (i < 500 ? left : right).update(value);
+      all.update(value);
+    }
+    left.merge(right);
+    assertEquals(all, left);
+    assertEquals(all.getQuantile(0.3), left.getQuantile(0.3), 0);
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testMergeDifferentAccuracy() {
+    new QuantileSketch(0.01, 512).merge(new QuantileSketch(0.05, 512));
+  }
+
+  @Test
+  public void testCollapse() {
+    QuantileSketch sketch = new QuantileSketch(0.01, 64);
+    for (int i = 1; i <= 100_000; i++) {
+      sketch.update(i);
+    }
+    // only the lowest quantiles lose accuracy when bins are collapsed
+    assertEquals(99_000, sketch.getQuantile(0.99), 99_000 * RELATIVE_ACCURACY);
+    assertTrue(sketch.getRetainedSizeInBytes() < 2048);
+  }
+
+  @Test
+  public void testSerialize() throws IOException {
+    QuantileSketch empty = new QuantileSketch();
+    QuantileSketch sketch = new QuantileSketch();
+    for (int i = -1000; i <= 1000; i += 3) {
+      sketch.update(i * 0.25);
+    }
+    for (QuantileSketch expected : new QuantileSketch[] {empty, sketch}) {
+      PublicBAOS out = new PublicBAOS();
+      int size = expected.serialize(out);
+      assertEquals(size, out.size());
+      assertEquals(size, expected.getSerializedSize());
+
+      ByteBuffer buffer = ByteBuffer.wrap(out.getBuf(), 0, out.size());
+      QuantileSketch deserialized = QuantileSketch.deserialize(buffer);
+      assertEquals(0, buffer.remaining());
+      assertEquals(expected, deserialized);
+      assertEquals(expected.getCount(), deserialized.getCount());
+      assertEquals(expected.getQuantile(0.5), deserialized.getQuantile(0.5), 0);
+    }
+  }
+}
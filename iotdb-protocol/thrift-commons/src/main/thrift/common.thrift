@@ -196,5 +196,7 @@ enum TAggregationType {
   STDDEV_SAMP,
   VARIANCE,
   VAR_POP,
-  VAR_SAMP
+  VAR_SAMP,
+  APPROX_PERCENTILE,
+  APPROX_COUNT_DISTINCT
 }
\ No newline at end of file
@@ -65,10 +65,14 @@ struct TGetDataBlockRequest {
   3: required i32 endSequenceId
   // Index of upstream SinkChannel
   4: required i32 index
+  // Compressor the caller asks for, TsBlocks are returned in the compressed exchange format if set
+  5: optional byte compressionType
 }
 
 struct TGetDataBlockResponse {
   1: required list<binary> tsBlocks
+  // Whether tsBlocks are in the compressed exchange format
+  2: optional bool compressed
 }
 
 struct TAcknowledgeDataBlockEvent {
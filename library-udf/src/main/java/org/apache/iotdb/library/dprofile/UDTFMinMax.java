@@ -20,12 +20,15 @@
 package org.apache.iotdb.library.dprofile;
 
 import org.apache.iotdb.library.util.Util;
+import org.apache.iotdb.tsfile.read.common.block.column.Column;
+import org.apache.iotdb.tsfile.read.common.block.column.ColumnBuilder;
 import org.apache.iotdb.udf.api.UDTF;
 import org.apache.iotdb.udf.api.access.Row;
 import org.apache.iotdb.udf.api.collector.PointCollector;
 import org.apache.iotdb.udf.api.customizer.config.UDTFConfigurations;
 import org.apache.iotdb.udf.api.customizer.parameter.UDFParameterValidator;
 import org.apache.iotdb.udf.api.customizer.parameter.UDFParameters;
+import org.apache.iotdb.udf.api.customizer.strategy.ColumnBatchAccessStrategy;
 import org.apache.iotdb.udf.api.customizer.strategy.RowByRowAccessStrategy;
 import org.apache.iotdb.udf.api.type.Type;
 
@@ -68,8 +71,14 @@ public class UDTFMinMax implements UDTF {
     min = 0.0d;
     max = 0.0d;
     flag = true;
-    configurations.setAccessStrategy(new RowByRowAccessStrategy()).setOutputDataType(Type.DOUBLE);
     compute = parameters.getStringOrDefault("compute", BATCH_COMPUTE);
+    // stream compute maps each point independently, so it can be done on whole columns
+    configurations
+        .setAccessStrategy(
+            compute.equalsIgnoreCase(STREAM_COMPUTE)
+                ? new ColumnBatchAccessStrategy()
+                : new RowByRowAccessStrategy())
+        .setOutputDataType(Type.DOUBLE);
     if (compute.equalsIgnoreCase(STREAM_COMPUTE)) {
       min = parameters.getDouble("min");
       max = parameters.getDouble("max");
@@ -78,9 +87,7 @@ public class UDTFMinMax implements UDTF {
 
   @Override
   public void transform(Row row, PointCollector collector) throws Exception {
-    if (compute.equalsIgnoreCase(STREAM_COMPUTE) && max > min) {
-      collector.putDouble(row.getTime(), (Util.getValueAsDouble(row) - min) / (max - min));
-    } else if (compute.equalsIgnoreCase(BATCH_COMPUTE)) {
+    if (compute.equalsIgnoreCase(BATCH_COMPUTE)) {
       double v = Util.getValueAsDouble(row);
       if (Double.isFinite(v)) {
         value.add(v);
@@ -100,6 +107,12 @@ public class UDTFMinMax implements UDTF {
     }
   }
 
+  @Override
+  public void transform(Column[] columns, ColumnBuilder builder) throws Exception {
+    // only called when compute is stream, and validate() has made sure that min < max
+    Util.transformToDouble(columns[0], builder, v -> (v - min) / (max - min));
+  }
+
   @Override
   public void terminate(PointCollector collector) throws Exception {
     if (compute.equalsIgnoreCase(BATCH_COMPUTE) && max > min) {
@@ -19,6 +19,8 @@
 
 package org.apache.iotdb.library.util;
 
+import org.apache.iotdb.tsfile.read.common.block.column.Column;
+import org.apache.iotdb.tsfile.read.common.block.column.ColumnBuilder;
 import org.apache.iotdb.udf.api.access.Row;
 import org.apache.iotdb.udf.api.collector.PointCollector;
 import org.apache.iotdb.udf.api.type.Type;
@@ -29,6 +31,7 @@ import org.eclipse.collections.impl.map.mutable.primitive.LongIntHashMap;
 
 import java.io.IOException;
 import java.util.List;
+import java.util.function.DoubleUnaryOperator;
 
 /** This class offers functions of getting and putting values from iotdb interface. */
 public class Util {
@@ -80,6 +83,66 @@ public class Util {
     return getValueAsDouble(row, 0);
   }
 
+  /**
+   * Apply the function to each value of the numeric column, and write the results to the builder as
+   * doubles. Null values are kept as nulls.
+   *
+   * @param column input column
+   * @param builder output column builder, whose type should be DOUBLE
+   * @param function the function applied to each value
+   * @throws NoNumberException when getting a no number datatype
+   */
+  public static void transformToDouble(
+      Column column, ColumnBuilder builder, DoubleUnaryOperator function) throws NoNumberException {
+    int count = column.getPositionCount();
+    int offset = column.getArrayOffset();
+    boolean[] isNull = column.mayHaveNull() ? column.isNull() : null;
+    switch (column.getDataType()) {
+      case INT32:
+        int[] ints = column.getInts();
+        for (int i = offset; i < offset + count; i++) {
+          if (isNull != null && isNull[i]) {
+            builder.appendNull();
+          } else {
+            builder.writeDouble(function.applyAsDouble(ints[i]));
+          }
+        }
+        break;
+      case INT64:
+        long[] longs = column.getLongs();
+        for (int i = offset; i < offset + count; i++) {
+          if (isNull != null && isNull[i]) {
+            builder.appendNull();
+          } else {
+            builder.writeDouble(function.applyAsDouble(longs[i]));
+          }
+        }
+        break;
+      case FLOAT:
+        float[] floats = column.getFloats();
+        for (int i = offset; i < offset + count; i++) {
+          if (isNull != null && isNull[i]) {
+            builder.appendNull();
+          } else {
+            builder.writeDouble(function.applyAsDouble(floats[i]));
+          }
+        }
+        break;
+      case DOUBLE:
+        double[] doubles = column.getDoubles();
+        for (int i = offset; i < offset + count; i++) {
+          if (isNull != null && isNull[i]) {
+            builder.appendNull();
+          } else {
+            builder.writeDouble(function.applyAsDouble(doubles[i]));
+          }
+        }
+        break;
+      default:
+        throw new NoNumberException();
+    }
+  }
+
   /**
    * Get value from 0th column from Row, and cast to Object.
    *